@@ -26,4 +26,6 @@ public class DnsProperties {
 
 	private String prefix = "_coredns:";
 
+	private int zoneWriteBatchSize = 1000;
+
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.cmdb.handler;
+
+import static com.wl4g.component.common.lang.Assert2.isTrue;
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Record level differences of CoreDNS zone hash, the differences are applied
+ * by {@link #SCRIPT_APPLY} in batches, so that the zone is never rewritten
+ * entirely (CoreDNS would see an empty zone).
+ *
+ * @author agent &lt;agent@local&gt;
+ * @date 2026-10-16 23:30:00
+ * @see
+ */
+public class CorednsZoneDiff {
+
+	/** Hosts to be put (added or changed) of zone. */
+	final private Map<String, String> puts;
+
+	/** Hosts to be removed of zone. */
+	final private List<String> removes;
+
+	CorednsZoneDiff(Map<String, String> puts, List<String> removes) {
+		this.puts = notNullOf(puts, "puts");
+		this.removes = notNullOf(removes, "removes");
+	}
+
+	public Map<String, String> getPuts() {
+		return puts;
+	}
+
+	public List<String> getRemoves() {
+		return removes;
+	}
+
+	public boolean isEmpty() {
+		return puts.isEmpty() && removes.isEmpty();
+	}
+
+	/**
+	 * Build the arguments of {@link #SCRIPT_APPLY} in batches.
+	 *
+	 * @param cacheSeconds
+	 *            Expire seconds of zone, ignored if less than or equal to 0.
+	 * @param batchSize
+	 *            Max changed records of each batch.
+	 * @return
+	 */
+	public List<List<String>> toBatchArgs(int cacheSeconds, int batchSize) {
+		isTrue(batchSize > 0, "Batch size must greater than 0.");
+		List<List<String>> batches = new ArrayList<>(((puts.size() + removes.size()) / batchSize) + 1);
+		Iterator<Entry<String, String>> putIt = puts.entrySet().iterator();
+		Iterator<String> removeIt = removes.iterator();
+		do {
+			List<String> args = new ArrayList<>(2 + batchSize * 2);
+			args.add(String.valueOf(cacheSeconds));
+			args.add("0"); // Placeholder of puts count.
+			int count = 0, putCount = 0;
+			for (; count < batchSize && putIt.hasNext(); ++count, ++putCount) {
+				Entry<String, String> ent = putIt.next();
+				args.add(ent.getKey());
+				args.add(ent.getValue());
+			}
+			for (; count < batchSize && removeIt.hasNext(); ++count) {
+				args.add(removeIt.next());
+			}
+			args.set(1, String.valueOf(putCount));
+			batches.add(args);
+		} while (putIt.hasNext() || removeIt.hasNext());
+		return batches;
+	}
+
+	/**
+	 * Differences of current and desired zone hosts.
+	 *
+	 * @param current
+	 *            Current zone hosts, may be null.
+	 * @param desired
+	 * @return
+	 */
+	public static CorednsZoneDiff diff(Map<String, String> current, Map<String, String> desired) {
+		notNullOf(desired, "desired");
+		Map<String, String> puts = new LinkedHashMap<>();
+		List<String> removes = new ArrayList<>();
+		for (Entry<String, String> ent : desired.entrySet()) {
+			if (isNull(current) || !ent.getValue().equals(current.get(ent.getKey()))) {
+				puts.put(ent.getKey(), ent.getValue());
+			}
+		}
+		if (!isNull(current)) {
+			for (String host : current.keySet()) {
+				if (!desired.containsKey(host)) {
+					removes.add(host);
+				}
+			}
+		}
+		return new CorednsZoneDiff(puts, removes);
+	}
+
+	public static CorednsZoneDiff put(String host, String record) {
+		Map<String, String> puts = new LinkedHashMap<>(2);
+		puts.put(host, record);
+		return new CorednsZoneDiff(puts, new ArrayList<>(0));
+	}
+
+	public static CorednsZoneDiff remove(String host) {
+		List<String> removes = new ArrayList<>(1);
+		removes.add(host);
+		return new CorednsZoneDiff(new LinkedHashMap<>(0), removes);
+	}
+
+	/**
+	 * Atomic applying a batch of differences to the zone hash.
+	 * 
+	 * <pre>
+	 * KEYS[1]: Zone hash key.
+	 * ARGV[1]: Expire seconds of zone, ignored if less than or equal to 0.
+	 * ARGV[2]: Count of puts(n).
+	 * ARGV[3 ~ 2+2n]: Host and record pairs to be put.
+	 * ARGV[3+2n ~ ]: Hosts to be removed.
+	 * </pre>
+	 */
+	final public static String SCRIPT_APPLY = "local n = tonumber(ARGV[2]) "
+			+ "for i = 0, n - 1 do redis.call('HSET', KEYS[1], ARGV[3 + i * 2], ARGV[4 + i * 2]) end "
+			+ "for i = 3 + n * 2, #ARGV do redis.call('HDEL', KEYS[1], ARGV[i]) end "
+			+ "if tonumber(ARGV[1]) > 0 and redis.call('EXISTS', KEYS[1]) == 1 then redis.call('EXPIRE', KEYS[1], ARGV[1]) end "
+			+ "return n";
+
+}
@@ -38,6 +38,14 @@ public interface DnsZoneHandler {
 
 	void delDomain(String domian);
 
+	/**
+	 * Gets zone version, which is increased on each change of zone records.
+	 * 
+	 * @param domian
+	 * @return
+	 */
+	long getZoneVersion(String domian);
+
 	// --- Dns zones Blacklist/Whitelist .---
 
 	void addDnsPrivateBlacklist(String black, String white);
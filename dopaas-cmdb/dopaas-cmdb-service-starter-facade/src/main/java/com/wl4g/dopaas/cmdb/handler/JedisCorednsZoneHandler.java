@@ -18,6 +18,7 @@ package com.wl4g.dopaas.cmdb.handler;
 import static com.wl4g.component.common.collection.CollectionUtils2.isEmpty;
 import static com.wl4g.component.common.lang.Assert2.isTrue;
 import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
+import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.trimToEmpty;
 
@@ -26,6 +27,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -33,7 +35,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import com.wl4g.component.common.collection.CollectionUtils2;
 import com.wl4g.component.common.lang.Assert2;
-import com.wl4g.component.common.serialize.JacksonUtils;
+import com.wl4g.component.core.bean.BaseBean;
 import com.wl4g.component.support.cache.jedis.JedisService;
 import com.wl4g.dopaas.cmdb.config.DnsProperties;
 import com.wl4g.dopaas.cmdb.handler.standard.DNSResolveType;
@@ -62,42 +64,67 @@ public class JedisCorednsZoneHandler implements DnsZoneHandler {
 		int catcheSecond = getDistanceSecondOfTwoDate(new Date(), dnsPrivateZone.getDueDate());
 		List<DnsPrivateResolution> dnsPrivateResolutions = dnsPrivateZone.getDnsPrivateResolutions();
 		Map<String, String> hosts = new HashMap<>();
-		for (DnsPrivateResolution privateRecord : dnsPrivateResolutions) {
-			Map map = buildMap(privateRecord);
-			hosts.put(privateRecord.getHost(), toJSONString(map));
+		if (!isEmpty(dnsPrivateResolutions)) {
+			for (DnsPrivateResolution privateRecord : dnsPrivateResolutions) {
+				if (Objects.equals(privateRecord.getDelFlag(), BaseBean.DEL_FLAG_DELETE)) {
+					continue;
+				}
+				Map map = buildMap(privateRecord);
+				hosts.put(privateRecord.getHost(), toJSONString(map));
+			}
 		}
-		delDomain(zone);
-		put(zone, hosts, catcheSecond);
+		// Only the changed records are applied, instead of deleting and
+		// rewriting the whole zone.
+		Map<String, String> current = jedisService.getJedisClient().hgetAll(getZoneStoreKey(zone));
+		apply(zone, CorednsZoneDiff.diff(current, hosts), catcheSecond);
 	}
 
 	// TODO Coredns resolving record using bean!!!
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings({ "rawtypes" })
 	@Override
 	public void putHost(DnsPrivateZone privateZone, DnsPrivateResolution privateRecord) {
-		Map hosts = new HashMap<>();
 		Map map = buildMap(privateRecord);
 		int catcheSecond = getDistanceSecondOfTwoDate(new Date(), privateZone.getDueDate());
-		hosts.put(privateRecord.getHost(), JacksonUtils.toJSONString(map));
-		put(privateZone.getZone(), hosts, catcheSecond);
-	}
-
-	// TODO Coredns resolving record using bean!!!
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void put(String zone, Map hosts, int cacheSeconds) {
-		if (!isBlank(zone) && !isEmpty(hosts)) {
-			jedisService.setMap(getZoneStoreKey(zone), hosts, cacheSeconds);
-		}
+		apply(privateZone.getZone(), CorednsZoneDiff.put(privateRecord.getHost(), toJSONString(map)), catcheSecond);
 	}
 
 	// TODO Coredns resolving record using bean!!!
 	@Override
 	public void delhost(String domian, String host) {
-		jedisService.mapRemove(getZoneStoreKey(domian), host);
+		apply(domian, CorednsZoneDiff.remove(host), 0);
 	}
 
 	@Override
 	public void delDomain(String domian) {
 		jedisService.del(getZoneStoreKey(domian));
+		jedisService.getJedisClient().hincrBy(getZoneVersionStoreKey(), domian, 1L);
+	}
+
+	@Override
+	public long getZoneVersion(String domian) {
+		String version = jedisService.getJedisClient().hget(getZoneVersionStoreKey(), domian);
+		return isBlank(version) ? 0L : Long.parseLong(version);
+	}
+
+	/**
+	 * Applying record level differences of zone in batches, each batch is
+	 * applied atomically, and then increase the zone version.
+	 * 
+	 * @param zone
+	 * @param diff
+	 * @param cacheSeconds
+	 */
+	private void apply(String zone, CorednsZoneDiff diff, int cacheSeconds) {
+		if (isBlank(zone) || (diff.isEmpty() && cacheSeconds <= 0)) {
+			return;
+		}
+		String zoneKey = getZoneStoreKey(zone);
+		for (List<String> args : diff.toBatchArgs(cacheSeconds, config.getZoneWriteBatchSize())) {
+			jedisService.getJedisClient().eval(CorednsZoneDiff.SCRIPT_APPLY, singletonList(zoneKey), args);
+		}
+		if (!diff.isEmpty()) {
+			jedisService.getJedisClient().hincrBy(getZoneVersionStoreKey(), zone, 1L);
+		}
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -197,22 +224,22 @@ public class JedisCorednsZoneHandler implements DnsZoneHandler {
 	@Override
 	public void removeDnsPrivateBlacklist(String black, String white) {
 		if (StringUtils.isNotBlank(black)) {
-			jedisService.delSetMember(DEFAULT_ZONE_BLACKLIST_SUFFIX, black);
+			jedisService.delSetMember(getZoneBlackListStoreKey(), black);
 		}
 		if (StringUtils.isNotBlank(white)) {
-			jedisService.delSetMember(DEFAULT_ZONE_WHITELIST_SUFFIX, white);
+			jedisService.delSetMember(getZoneWhiteListStoreKey(), white);
 		}
 	}
 
 	@Override
 	public void reloadDnsPrivateBlacklist(Set<String> blacks, Set<String> whites) {
-		jedisService.del(DEFAULT_ZONE_BLACKLIST_SUFFIX);
-		jedisService.del(DEFAULT_ZONE_WHITELIST_SUFFIX);
+		jedisService.del(getZoneBlackListStoreKey());
+		jedisService.del(getZoneWhiteListStoreKey());
 		if (!CollectionUtils2.isEmpty(blacks)) {
-			jedisService.setSet(DEFAULT_ZONE_BLACKLIST_SUFFIX, blacks, 0);
+			jedisService.setSet(getZoneBlackListStoreKey(), blacks, 0);
 		}
 		if (!CollectionUtils2.isEmpty(whites)) {
-			jedisService.setSet(DEFAULT_ZONE_WHITELIST_SUFFIX, whites, 0);
+			jedisService.setSet(getZoneWhiteListStoreKey(), whites, 0);
 		}
 	}
 
@@ -258,7 +285,17 @@ public class JedisCorednsZoneHandler implements DnsZoneHandler {
 		return config.getPrefix().concat(DEFAULT_ZONE_WHITELIST_SUFFIX);
 	}
 
+	/**
+	 * Gets zones version store cache key, field is zone.
+	 * 
+	 * @return
+	 */
+	private String getZoneVersionStoreKey() {
+		return config.getPrefix().concat(DEFAULT_ZONE_VERSION_SUFFIX);
+	}
+
 	final private static String DEFAULT_ZONE_BLACKLIST_SUFFIX = ":dns:blacklist";
 	final private static String DEFAULT_ZONE_WHITELIST_SUFFIX = ":dns:whitelist";
+	final private static String DEFAULT_ZONE_VERSION_SUFFIX = ":dns:versions";
 
 }
\ No newline at end of file
@@ -30,11 +30,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static com.wl4g.iam.common.utils.IamOrganizationUtils.getRequestOrganizationCode;
 import static com.wl4g.iam.common.utils.IamOrganizationUtils.getRequestOrganizationCodes;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.groupingBy;
 
 /**
  * @author vjay
@@ -99,9 +103,13 @@ public class DnsPrivateZoneServiceImpl implements DnsPrivateZoneService {
 	@Override
 	public void loadDnsAtStart() {
 		List<DnsPrivateZone> list = dnsPrivateDomainDao.list(null, null);
+		// Load all resolutions at once, instead of querying each zone.
+		Map<Long, List<DnsPrivateResolution>> resolutionsOfZones = privateResolutionDao.list(null, null, null).stream()
+				.filter(r -> nonNull(r.getDomainId())).collect(groupingBy(DnsPrivateResolution::getDomainId));
 		for (DnsPrivateZone dnsPrivateDomain : list) {
-			List<DnsPrivateResolution> dnsPrivateResolutions = privateResolutionDao.selectByDomainId(dnsPrivateDomain.getId());
-			dnsPrivateDomain.setDnsPrivateResolutions(dnsPrivateResolutions);
+			dnsPrivateDomain.setDnsPrivateResolutions(resolutionsOfZones.getOrDefault(dnsPrivateDomain.getId(), emptyList()));
+			// Only the changed records are written, the unchanged zones are
+			// only read at restarting.
 			dnsZoneHandler.putDomian(dnsPrivateDomain);
 		}
 	}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.cmdb.handler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * {@link CorednsZoneDiffTests}, a 100k records zone is updated on an
+ * in-memory redis stand-in, which applies {@link CorednsZoneDiff#SCRIPT_APPLY}
+ * arguments atomically as redis.
+ * 
+ * @author agent &lt;agent@local&gt;
+ * @date 2026-10-16 23:30:00
+ * @see
+ */
+public class CorednsZoneDiffTests {
+
+	final static int RECORDS = 100_000;
+	final static int BATCH_SIZE = 1000;
+
+	@Test
+	public void diffTest() {
+		Map<String, String> current = new HashMap<>();
+		current.put("www", "{\"a\":[{\"ip\":\"10.0.0.1\"}]}");
+		current.put("api", "{\"a\":[{\"ip\":\"10.0.0.2\"}]}");
+		current.put("old", "{\"a\":[{\"ip\":\"10.0.0.3\"}]}");
+		Map<String, String> desired = new HashMap<>(current);
+		desired.remove("old");
+		desired.put("api", "{\"a\":[{\"ip\":\"10.0.0.20\"}]}");
+		desired.put("new", "{\"a\":[{\"ip\":\"10.0.0.4\"}]}");
+
+		CorednsZoneDiff diff = CorednsZoneDiff.diff(current, desired);
+		assertEquals(2, diff.getPuts().size());
+		assertTrue(diff.getPuts().containsKey("api") && diff.getPuts().containsKey("new"));
+		assertEquals(1, diff.getRemoves().size());
+		assertEquals("old", diff.getRemoves().get(0));
+		assertTrue(CorednsZoneDiff.diff(desired, desired).isEmpty());
+	}
+
+	@Test
+	public void largeZoneIncrementalTest() throws Exception {
+		InMemoryHashStore redis = new InMemoryHashStore();
+		String zoneKey = "_coredns:example.com.";
+		Map<String, String> desired = new HashMap<>(RECORDS);
+		for (int i = 0; i < RECORDS; i++) {
+			desired.put("host" + i, "{\"a\":[{\"ip\":\"10.0." + (i / 256 % 256) + "." + (i % 256) + "\",\"ttl\":300}]}");
+		}
+
+		// Bulk import in batches.
+		long begin = System.nanoTime();
+		List<List<String>> batches = CorednsZoneDiff.diff(null, desired).toBatchArgs(0, BATCH_SIZE);
+		for (List<String> args : batches) {
+			redis.evalApply(zoneKey, args);
+		}
+		System.out.println(String.format("Bulk import records: %s, batches: %s, cost: %sms", RECORDS, batches.size(),
+				(System.nanoTime() - begin) / 1000_000));
+		assertEquals(RECORDS / BATCH_SIZE, batches.size());
+		assertEquals(RECORDS, redis.hlen(zoneKey));
+
+		// Edit a few records while a reader(as CoreDNS) is resolving.
+		for (int i = 0; i < 10; i++) {
+			desired.put("host" + i, "{\"a\":[{\"ip\":\"192.168.0." + i + "\",\"ttl\":300}]}");
+			desired.remove("host" + (RECORDS - 1 - i));
+		}
+		AtomicBoolean reading = new AtomicBoolean(true);
+		AtomicLong emptyReads = new AtomicLong(0);
+		Thread reader = new Thread(() -> {
+			while (reading.get()) {
+				if (redis.hget(zoneKey, "host" + (RECORDS / 2)) == null) {
+					emptyReads.incrementAndGet();
+				}
+			}
+		});
+		reader.start();
+
+		begin = System.nanoTime();
+		CorednsZoneDiff diff = CorednsZoneDiff.diff(redis.hgetAll(zoneKey), desired);
+		for (List<String> args : diff.toBatchArgs(0, BATCH_SIZE)) {
+			redis.evalApply(zoneKey, args);
+		}
+		long incrementalCostUs = (System.nanoTime() - begin) / 1000;
+
+		// Legacy deleting and rewriting the whole zone.
+		begin = System.nanoTime();
+		redis.del(zoneKey);
+		redis.hmset(zoneKey, desired);
+		long legacyCostUs = (System.nanoTime() - begin) / 1000;
+		reading.set(false);
+		reader.join();
+
+		System.out.println(String.format("Incremental changed records: %s, writes: %s, cost: %sus; legacy rewrite writes: %s, "
+				+ "cost: %sus, empty zone reads: %s", diff.getPuts().size() + diff.getRemoves().size(),
+				redis.writes.get() - RECORDS - desired.size(), incrementalCostUs, desired.size(), legacyCostUs,
+				emptyReads.get()));
+		assertEquals(20, diff.getPuts().size() + diff.getRemoves().size());
+		assertEquals(desired, redis.hgetAll(zoneKey));
+	}
+
+	/**
+	 * In-memory redis stand-in of hash commands.
+	 */
+	static class InMemoryHashStore {
+
+		final private Map<String, Map<String, String>> hashes = new HashMap<>();
+		final AtomicLong writes = new AtomicLong(0);
+
+		/**
+		 * Same as {@link CorednsZoneDiff#SCRIPT_APPLY}.
+		 */
+		synchronized void evalApply(String key, List<String> args) {
+			int n = Integer.parseInt(args.get(1));
+			Map<String, String> hash = hashes.computeIfAbsent(key, k -> new HashMap<>());
+			for (int i = 0; i < n; i++) {
+				hash.put(args.get(2 + i * 2), args.get(3 + i * 2));
+				writes.incrementAndGet();
+			}
+			for (int i = 2 + n * 2; i < args.size(); i++) {
+				hash.remove(args.get(i));
+				writes.incrementAndGet();
+			}
+			if (hash.isEmpty()) {
+				hashes.remove(key);
+			}
+		}
+
+		synchronized void hmset(String key, Map<String, String> fields) {
+			hashes.computeIfAbsent(key, k -> new HashMap<>()).putAll(fields);
+			writes.addAndGet(fields.size());
+		}
+
+		synchronized void del(String key) {
+			hashes.remove(key);
+		}
+
+		synchronized String hget(String key, String field) {
+			Map<String, String> hash = hashes.get(key);
+			return hash == null ? null : hash.get(field);
+		}
+
+		synchronized Map<String, String> hgetAll(String key) {
+			Map<String, String> hash = hashes.get(key);
+			return hash == null ? new HashMap<>() : new HashMap<>(hash);
+		}
+
+		synchronized int hlen(String key) {
+			Map<String, String> hash = hashes.get(key);
+			return hash == null ? 0 : hash.size();
+		}
+
+	}
+
+}
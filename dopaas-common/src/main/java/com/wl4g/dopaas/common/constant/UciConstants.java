@@ -30,6 +30,8 @@ public abstract class UciConstants extends DoPaaSConstants {
 
     public static final String REDIS_CI_RUN_PRE = "CI_RUN_";// redis key
     public static final int REDIS_CI_RUN_SCAN_BATCH = 100;// redis scan batch
+    public static final String REDIS_CI_RUNNING_INDEX = "CI_RUNNING_INDEX";// running ids set
+    public static final String CHANNEL_CI_RUN_COMPLETED = "CI_RUN_COMPLETED";// pub/sub channel
     // TODO use config
     public static String node = "master-1";
     public static int REDIS_SAVE_TIME_S = 30 * 60;// cache ttl(defautl 30 min)
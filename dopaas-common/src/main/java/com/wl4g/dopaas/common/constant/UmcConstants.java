@@ -67,6 +67,12 @@ public abstract class UmcConstants extends DoPaaSConstants {
      */
     public static final String KEY_CACHE_ALARM_TPLS = "umc_alarm_tpls_";
 
+    /**
+     * UMC Alarm templates change version key, increment it on any alarm
+     * template or config changed to invalidate the rule index of alerters.
+     */
+    public static final String KEY_CACHE_ALARM_TPLS_VERSION = "umc_alarm_tpls_version";
+
     /**
      * UMC alarm metric value in time window queue key prefix.
      */
@@ -15,6 +15,8 @@
  */
 package com.wl4g.dopaas.uci.config;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static java.util.Objects.nonNull;
@@ -45,6 +47,27 @@ public class BuildProperties {
 	 */
 	private Long sharedDependencyTryTimeoutMs;
 
+	/** Maximum concurrently building modules of all pipelines. */
+	private Integer moduleBuildParallelism = 4;
+
+	/** Default timeout of building command of each module (Ms). */
+	private Long moduleBuildTimeoutMs = 300_000L;
+
+	/** Timeouts of building command of modules, key is project name (Ms). */
+	private Map<String, Long> moduleBuildTimeouts = new HashMap<>(4);
+
+	/** Maximum buffered lines of per pipeline building log. */
+	private Integer logBufferLines = 8192;
+
+	/** Buffered bytes threshold of building log to be flushed. */
+	private Integer logFlushBytes = 64 * 1024;
+
+	/** Maximum interval time of building log to be flushed (Ms). */
+	private Long logFlushIntervalMs = 200L;
+
+	/** Latest flushed lines of per pipeline building log kept for tailing. */
+	private Integer logTailLines = 2000;
+
 	public Long getJobCleanMaxIntervalMs() {
 		notNull(jobCleanMaxIntervalMs, "Job clean max interval must not be null.");
 		isTrue(jobCleanMaxIntervalMs > 0, "Job clean max interval must greater than 0.");
@@ -90,4 +113,92 @@ public class BuildProperties {
 		}
 	}
 
+	public Integer getModuleBuildParallelism() {
+		return moduleBuildParallelism;
+	}
+
+	public void setModuleBuildParallelism(Integer moduleBuildParallelism) {
+		if (nonNull(moduleBuildParallelism)) {
+			isTrue(moduleBuildParallelism > 0, "Module build parallelism must greater than 0.");
+			this.moduleBuildParallelism = moduleBuildParallelism;
+		}
+	}
+
+	public Long getModuleBuildTimeoutMs() {
+		return moduleBuildTimeoutMs;
+	}
+
+	public void setModuleBuildTimeoutMs(Long moduleBuildTimeoutMs) {
+		if (nonNull(moduleBuildTimeoutMs)) {
+			isTrue(moduleBuildTimeoutMs > 0, "Module build timeout must greater than 0.");
+			this.moduleBuildTimeoutMs = moduleBuildTimeoutMs;
+		}
+	}
+
+	public Map<String, Long> getModuleBuildTimeouts() {
+		return moduleBuildTimeouts;
+	}
+
+	public void setModuleBuildTimeouts(Map<String, Long> moduleBuildTimeouts) {
+		if (nonNull(moduleBuildTimeouts)) {
+			this.moduleBuildTimeouts = moduleBuildTimeouts;
+		}
+	}
+
+	/**
+	 * Gets timeout of building command of module, use default if not
+	 * configured.
+	 * 
+	 * @param projectName
+	 * @return
+	 */
+	public Long getModuleBuildTimeoutMs(String projectName) {
+		Long timeoutMs = moduleBuildTimeouts.get(projectName);
+		return (nonNull(timeoutMs) && timeoutMs > 0) ? timeoutMs : getModuleBuildTimeoutMs();
+	}
+
+	public Integer getLogBufferLines() {
+		return logBufferLines;
+	}
+
+	public void setLogBufferLines(Integer logBufferLines) {
+		if (nonNull(logBufferLines)) {
+			isTrue(logBufferLines > 0, "Log buffer lines must greater than 0.");
+			this.logBufferLines = logBufferLines;
+		}
+	}
+
+	public Integer getLogFlushBytes() {
+		return logFlushBytes;
+	}
+
+	public void setLogFlushBytes(Integer logFlushBytes) {
+		if (nonNull(logFlushBytes)) {
+			isTrue(logFlushBytes > 0, "Log flush bytes must greater than 0.");
+			this.logFlushBytes = logFlushBytes;
+		}
+	}
+
+	public Long getLogFlushIntervalMs() {
+		return logFlushIntervalMs;
+	}
+
+	public void setLogFlushIntervalMs(Long logFlushIntervalMs) {
+		if (nonNull(logFlushIntervalMs)) {
+			isTrue(logFlushIntervalMs > 0, "Log flush interval must greater than 0.");
+			this.logFlushIntervalMs = logFlushIntervalMs;
+		}
+	}
+
+	public Integer getLogTailLines() {
+		return logTailLines;
+	}
+
+	public void setLogTailLines(Integer logTailLines) {
+		if (nonNull(logTailLines)) {
+			isTrue(logTailLines > 0, "Log tail lines must greater than 0.");
+			this.logTailLines = logTailLines;
+		}
+	}
+
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import com.wl4g.component.core.framework.beans.NamingPrototype;
 import com.wl4g.component.core.framework.operator.GenericOperatorAdapter;
+import com.wl4g.component.support.cache.jedis.JedisService;
 import com.wl4g.dopaas.common.bean.cmdb.AppInstance;
 import com.wl4g.dopaas.common.bean.uci.Pipeline;
 import com.wl4g.dopaas.common.bean.uci.PipelineHistoryInstance;
@@ -35,9 +36,12 @@ import com.wl4g.dopaas.common.constant.UciConstants;
 import com.wl4g.dopaas.uci.console.CiConsole;
 import com.wl4g.dopaas.uci.core.DefaultPipelineManagerImpl;
 import com.wl4g.dopaas.uci.core.PipelineJobExecutor;
+import com.wl4g.dopaas.uci.core.PipelineLogWriter;
 import com.wl4g.dopaas.uci.core.PipelineManager;
 import com.wl4g.dopaas.uci.core.context.PipelineContext;
 import com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl;
+import com.wl4g.dopaas.uci.core.orchestration.GenericRunStateStore;
+import com.wl4g.dopaas.uci.core.orchestration.JedisRunStateStore;
 import com.wl4g.dopaas.uci.core.orchestration.OrchestrationManager;
 import com.wl4g.dopaas.uci.pcm.PcmOperator;
 import com.wl4g.dopaas.uci.pcm.PcmOperator.PcmKind;
@@ -45,6 +49,8 @@ import com.wl4g.dopaas.uci.pcm.jira.JiraPcmOperator;
 import com.wl4g.dopaas.uci.pcm.redmine.RedminePcmOperator;
 import com.wl4g.dopaas.uci.pipeline.TimeoutJobsEvictor;
 import com.wl4g.dopaas.uci.pipeline.TimingPipelineManager;
+import com.wl4g.dopaas.uci.pipeline.dependency.ModuleDagExecutor;
+import com.wl4g.dopaas.uci.pipeline.dependency.SharedModuleBuilds;
 import com.wl4g.dopaas.uci.pipeline.deploy.CossPipeDeployer;
 import com.wl4g.dopaas.uci.pipeline.deploy.DockerNativePipeDeployer;
 import com.wl4g.dopaas.uci.pipeline.deploy.GolangModPipeDeployer;
@@ -55,6 +61,8 @@ import com.wl4g.dopaas.uci.pipeline.deploy.RktNativePipeDeployer;
 import com.wl4g.dopaas.uci.pipeline.deploy.SpringExecutableJarPipeDeployer;
 import com.wl4g.dopaas.uci.pipeline.deploy.ViewNativePipeDeployer;
 import com.wl4g.dopaas.uci.pipeline.deploy.WarTomcatPipeDeployer;
+import com.wl4g.dopaas.uci.pipeline.deploy.ssh.SshKeyCache;
+import com.wl4g.dopaas.uci.pipeline.deploy.ssh.SshSessionPool;
 import com.wl4g.dopaas.uci.pipeline.provider.GolangModPipelineProvider;
 import com.wl4g.dopaas.uci.pipeline.provider.MvnAssembleTarPipelineProvider;
 import com.wl4g.dopaas.uci.pipeline.provider.NpmViewPipelineProvider;
@@ -97,6 +105,31 @@ public class CiAutoConfiguration {
 		return new PipelineJobExecutor(config);
 	}
 
+	@Bean
+	public PipelineLogWriter pipelineLogWriter(CiProperties config) {
+		return new PipelineLogWriter(config.getBuild());
+	}
+
+	@Bean
+	public ModuleDagExecutor moduleDagExecutor(CiProperties config) {
+		return new ModuleDagExecutor(config.getBuild().getModuleBuildParallelism());
+	}
+
+	@Bean
+	public SharedModuleBuilds sharedModuleBuilds() {
+		return new SharedModuleBuilds();
+	}
+
+	@Bean
+	public SshSessionPool sshSessionPool(CiProperties config) {
+		return new SshSessionPool(config.getDeploy());
+	}
+
+	@Bean
+	public SshKeyCache sshKeyCache(CiProperties config) {
+		return new SshKeyCache(config.getDeploy());
+	}
+
 	@Bean
 	public PipelineManager defaultPipelineManagerImpl() {
 		return new DefaultPipelineManagerImpl();
@@ -121,6 +154,11 @@ public class CiAutoConfiguration {
 		return new DefaultOrchestrationManagerImpl();
 	}
 
+	@Bean
+	public GenericRunStateStore jedisRunStateStore(JedisService jedisService) {
+		return new JedisRunStateStore(jedisService);
+	}
+
 	// --- Pipeline providers. ---
 
 	@Bean
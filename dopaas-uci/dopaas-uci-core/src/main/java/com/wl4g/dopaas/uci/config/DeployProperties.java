@@ -52,6 +52,24 @@ public class DeployProperties {
 	 */
 	private String remoteHomeTmpDir = "$HOME" + File.separator + ".ci-temporary";
 
+	/** Remote hosts SSH2 port. */
+	private Integer remoteSshPort = 22;
+
+	/** Maximum concurrently deploying instances of per pipeline. */
+	private Integer deployParallelism = 8;
+
+	/** Expiration of decrypted SSH2 keys cached in memory (Ms). */
+	private Long sshKeyCacheTtlMs = 10 * 60 * 1000L;
+
+	/** Idle time of pooled SSH2 connections to be closed (Ms). */
+	private Long sshSessionIdleMs = 5 * 60 * 1000L;
+
+	/**
+	 * Known hosts file of verifying the remote hosts SSH2 keys, default is
+	 * the known_hosts of current user, e.g. ~/.ssh/known_hosts
+	 */
+	private String sshKnownHostsFile;
+
 	private MvnAssTarProperties mvnAssTar = new MvnAssTarProperties();
 
 	private DockerNativeProperties dockerNative = new DockerNativeProperties();
@@ -95,6 +113,58 @@ public class DeployProperties {
 		}
 	}
 
+	public Integer getRemoteSshPort() {
+		return remoteSshPort;
+	}
+
+	public void setRemoteSshPort(Integer remoteSshPort) {
+		if (nonNull(remoteSshPort)) {
+			isTrue(remoteSshPort > 0, "Remote SSH2 port must greater than 0.");
+			this.remoteSshPort = remoteSshPort;
+		}
+	}
+
+	public Integer getDeployParallelism() {
+		return deployParallelism;
+	}
+
+	public void setDeployParallelism(Integer deployParallelism) {
+		if (nonNull(deployParallelism)) {
+			isTrue(deployParallelism > 0, "Deploy parallelism must greater than 0.");
+			this.deployParallelism = deployParallelism;
+		}
+	}
+
+	public Long getSshKeyCacheTtlMs() {
+		return sshKeyCacheTtlMs;
+	}
+
+	public void setSshKeyCacheTtlMs(Long sshKeyCacheTtlMs) {
+		if (nonNull(sshKeyCacheTtlMs)) {
+			isTrue(sshKeyCacheTtlMs > 0, "SSH2 key cache TTL must greater than 0.");
+			this.sshKeyCacheTtlMs = sshKeyCacheTtlMs;
+		}
+	}
+
+	public Long getSshSessionIdleMs() {
+		return sshSessionIdleMs;
+	}
+
+	public void setSshSessionIdleMs(Long sshSessionIdleMs) {
+		if (nonNull(sshSessionIdleMs)) {
+			isTrue(sshSessionIdleMs > 0, "SSH2 session idle time must greater than 0.");
+			this.sshSessionIdleMs = sshSessionIdleMs;
+		}
+	}
+
+	public String getSshKnownHostsFile() {
+		return sshKnownHostsFile;
+	}
+
+	public void setSshKnownHostsFile(String sshKnownHostsFile) {
+		this.sshKnownHostsFile = sshKnownHostsFile;
+	}
+
 	public MvnAssTarProperties getMvnAssTar() {
 		return mvnAssTar;
 	}
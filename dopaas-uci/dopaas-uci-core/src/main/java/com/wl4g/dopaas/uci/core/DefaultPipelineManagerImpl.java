@@ -116,6 +116,8 @@ public class DefaultPipelineManagerImpl implements PipelineManager {
 	protected PipeStageNotificationDao pipeStepNotificationDao;
 	@Autowired
 	protected PipeStepApiDao pipeStepApiDao;
+	@Autowired
+	protected PipelineLogWriter logWriter;
 
 	@Override
 	public void runPipeline(RunParameter runParam) throws Exception {
@@ -202,6 +204,11 @@ public class DefaultPipelineManagerImpl implements PipelineManager {
 		if (isNull(size)) {
 			size = 100;
 		}
+		// Running pipeline tailing from in-memory offsets.
+		ReadTailFrame frame = logWriter.tail(taskHisId, startPos, size);
+		if (nonNull(frame)) {
+			return frame;
+		}
 		String logPath = config.getJobLog(taskHisId).getAbsolutePath();
 		// End if 'EOF'
 		return seekReadLines(logPath, startPos, size, line -> trimToEmpty(line).equalsIgnoreCase(LOG_FILE_END));
@@ -268,7 +275,7 @@ public class DefaultPipelineManagerImpl implements PipelineManager {
 			} catch (Throwable e) {
 				log.error(format("Failed to pipeline job for taskId: %s, provider: %s", taskId,
 						provider.getClass().getSimpleName()), e);
-				writeALineFile(config.getJobLog(taskId).getAbsoluteFile(), getStackTraceAsString(e));
+				logWriter.append(taskId, config.getJobLog(taskId).getAbsoluteFile(), getStackTraceAsString(e));
 
 				// Update status.
 				PipelineHistory pipelineHistory = pipeHistoryService.getById(taskId);
@@ -289,7 +296,7 @@ public class DefaultPipelineManagerImpl implements PipelineManager {
 				postPipelineRunFailure(taskId, provider, e);
 			} finally {
 				// Log file end EOF.
-				writeALineFile(config.getJobLog(taskId).getAbsoluteFile(), LOG_FILE_END);
+				logWriter.close(taskId, LOG_FILE_END);
 				log.info("Completed for pipeline taskId: {}", taskId);
 				pipeHistoryService.updateCostTime(taskId, (currentTimeMillis() - startTime));
 				orchestrationManager.pipelineComplete(provider.getContext().getPipelineModel().getRunId());
@@ -317,7 +324,7 @@ public class DefaultPipelineManagerImpl implements PipelineManager {
 		}
 
 		// Log file start EOF.
-		writeBLineFile(config.getJobLog(taskId).getAbsoluteFile(), LOG_FILE_START);
+		logWriter.open(taskId, config.getJobLog(taskId).getAbsoluteFile(), LOG_FILE_START);
 	}
 
 	/**
@@ -493,7 +500,8 @@ public class DefaultPipelineManagerImpl implements PipelineManager {
 			} catch (Exception e) {
 				log.error(format("Failed to rollback pipeline job for taskId: %s, provider: %s", pipeHistoryId,
 						provider.getClass().getSimpleName()), e);
-				writeALineFile(config.getJobLog(pipeHistoryId).getAbsoluteFile(), e.getMessage() + getStackTraceAsString(e));
+				logWriter.append(pipeHistoryId, config.getJobLog(pipeHistoryId).getAbsoluteFile(),
+						e.getMessage() + getStackTraceAsString(e));
 
 				pipeHistoryService.updateStatus(pipeHistoryId, TASK_STATUS_FAIL);
 				log.info("Updated rollback pipeline job status to {} for {}", TASK_STATUS_FAIL, pipeHistoryId);
@@ -501,7 +509,7 @@ public class DefaultPipelineManagerImpl implements PipelineManager {
 				postPipelineRunFailure(pipeHistoryId, provider, e);
 			} finally {
 				// Log file end EOF.
-				writeALineFile(config.getJobLog(pipeHistoryId).getAbsoluteFile(), LOG_FILE_END);
+				logWriter.close(pipeHistoryId, LOG_FILE_END);
 				log.info("Completed for rollback pipeline taskId: {}", pipeHistoryId);
 			}
 		});
@@ -0,0 +1,465 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.core;
+
+import static com.wl4g.component.common.io.FileIOUtils.writeALineFile;
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.wl4g.component.common.io.FileIOUtils.ReadTailFrame;
+import com.wl4g.component.common.log.SmartLogger;
+import com.wl4g.dopaas.uci.config.BuildProperties;
+
+/**
+ * Buffered asynchronous pipeline building log writer. Each running pipeline
+ * has a sink of bounded lines buffer and a single opened {@link FileChannel},
+ * the lines are written to the file by a dedicated flusher thread when the
+ * buffered bytes reached the threshold or the flush interval elapsed. The
+ * latest flushed lines and their file offsets are kept in memory, so that
+ * tailing of the running pipeline can be served without re-seeking the file.
+ * When the buffer is full, the appending is blocked until the buffered lines
+ * have been flushed(backpressure), the lines are never dropped.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class PipelineLogWriter implements DisposableBean {
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** Building log configuration. */
+	final protected BuildProperties config;
+
+	/** Opened log sinks of running pipelines. */
+	final private Map<Long, LogSink> sinks = new ConcurrentHashMap<>(16);
+
+	/** Dedicated flusher of all log sinks. */
+	final private Thread flusher;
+
+	/** Appended lines counter. */
+	final private AtomicLong appendedLines = new AtomicLong(0);
+
+	/** Counter of appending blocked by full buffer(backpressure). */
+	final private AtomicLong blockedAppends = new AtomicLong(0);
+
+	/** Flushes counter. */
+	final private AtomicLong flushes = new AtomicLong(0);
+
+	/** Flushed bytes counter. */
+	final private AtomicLong flushedBytes = new AtomicLong(0);
+
+	private volatile boolean running = true;
+
+	public PipelineLogWriter(BuildProperties config) {
+		notNullOf(config, "buildProperties");
+		this.config = config;
+		this.flusher = new Thread(() -> doFlushing(), "pipeline-log-flusher");
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	/**
+	 * Open the log sink of pipeline, and write the first line.
+	 *
+	 * @param pipeHisId
+	 * @param logFile
+	 * @param firstLine
+	 */
+	public void open(Long pipeHisId, File logFile, String firstLine) {
+		notNullOf(pipeHisId, "pipeHisId");
+		notNullOf(logFile, "logFile");
+		close(pipeHisId, null);
+		try {
+			LogSink sink = new LogSink(logFile, config.getLogBufferLines(), config.getLogTailLines());
+			sinks.put(pipeHisId, sink);
+			append(pipeHisId, logFile, firstLine);
+		} catch (IOException e) {
+			log.warn("Failed to open log sink of {}, fallback to write directly. caused by: {}", logFile, e.getMessage());
+			writeALineFile(logFile, firstLine);
+		}
+	}
+
+	/**
+	 * Append a line to the log sink of pipeline, If the sink is not opened,
+	 * write to file directly.
+	 *
+	 * @param pipeHisId
+	 * @param logFile
+	 * @param line
+	 */
+	public void append(Long pipeHisId, File logFile, String line) {
+		LogSink sink = sinks.get(pipeHisId);
+		if (isNull(sink)) {
+			writeALineFile(logFile, line);
+			return;
+		}
+		appendedLines.incrementAndGet();
+		if (!sink.offer(line)) {
+			// Buffer full, flush on the caller thread until the line is
+			// buffered(backpressure).
+			blockedAppends.incrementAndGet();
+			do {
+				flushQuietly(sink);
+			} while (!sink.offer(line));
+		}
+		if (sink.isClosed()) {
+			// Closed concurrently, write the late lines directly.
+			flushQuietly(sink);
+		} else if (sink.getPendingBytes() >= config.getLogFlushBytes()) {
+			LockSupport.unpark(flusher);
+		}
+	}
+
+	/**
+	 * Append the last line(if necessary), flush and close the log sink of
+	 * pipeline.
+	 *
+	 * @param pipeHisId
+	 * @param lastLine
+	 */
+	public void close(Long pipeHisId, String lastLine) {
+		LogSink sink = sinks.get(pipeHisId);
+		if (isNull(sink)) {
+			return;
+		}
+		if (nonNull(lastLine)) {
+			append(pipeHisId, sink.getFile(), lastLine);
+		}
+		sinks.remove(pipeHisId);
+		try {
+			sink.close();
+		} catch (IOException e) {
+			log.error(String.format("Failed to close log sink of %s", sink.getFile()), e);
+		}
+	}
+
+	/**
+	 * Tailing lines of running pipeline from the in-memory offsets.
+	 *
+	 * @param pipeHisId
+	 * @param startPos
+	 * @param size
+	 * @return Returns null if the log sink is not opened or the position is
+	 *         out of the in-memory lines, the file should be read instead.
+	 */
+	public ReadTailFrame tail(Long pipeHisId, long startPos, int size) {
+		LogSink sink = sinks.get(pipeHisId);
+		return isNull(sink) ? null : sink.read(startPos, size);
+	}
+
+	public long getAppendedLines() {
+		return appendedLines.get();
+	}
+
+	public long getBlockedAppends() {
+		return blockedAppends.get();
+	}
+
+	public long getFlushes() {
+		return flushes.get();
+	}
+
+	public long getFlushedBytes() {
+		return flushedBytes.get();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		running = false;
+		LockSupport.unpark(flusher);
+		for (Long pipeHisId : new ArrayList<>(sinks.keySet())) {
+			close(pipeHisId, null);
+		}
+	}
+
+	/**
+	 * Flushing the log sinks of reached threshold or interval.
+	 */
+	private void doFlushing() {
+		while (running) {
+			LockSupport.parkNanos(this, MILLISECONDS.toNanos(config.getLogFlushIntervalMs()));
+			long now = currentTimeMillis();
+			for (LogSink sink : sinks.values()) {
+				if (sink.getPendingBytes() >= config.getLogFlushBytes()
+						|| (now - sink.getLastFlushTime()) >= config.getLogFlushIntervalMs()) {
+					flushQuietly(sink);
+				}
+			}
+		}
+	}
+
+	private void flushQuietly(LogSink sink) {
+		try {
+			long bytes = sink.flush();
+			if (bytes > 0) {
+				flushes.incrementAndGet();
+				flushedBytes.addAndGet(bytes);
+			}
+		} catch (IOException e) {
+			log.error(String.format("Failed to flush log sink of %s", sink.getFile()), e);
+		}
+	}
+
+	/**
+	 * Log sink of per pipeline.
+	 *
+	 * @author agent
+	 * @version v1.0.0 2026-10-16
+	 * @since
+	 */
+	static class LogSink {
+
+		final private File file;
+
+		/** Bounded lines buffer. */
+		final private ArrayBlockingQueue<String> buffer;
+
+		/** Approximate bytes of buffered lines. */
+		final private AtomicLong pendingBytes = new AtomicLong(0);
+
+		final private FileChannel channel;
+
+		final private ByteBuffer writeBuffer = ByteBuffer.allocate(64 * 1024);
+
+		/** Latest flushed lines ring, offsets are in ascending order. */
+		final private TailLine[] tails;
+		private int tailHead;
+		private int tailCount;
+
+		/** End position of flushed lines. */
+		private long position;
+
+		private volatile long lastFlushTime = currentTimeMillis();
+
+		LogSink(File file, int bufferLines, int tailLines) throws IOException {
+			this.file = file;
+			this.buffer = new ArrayBlockingQueue<>(bufferLines);
+			this.tails = new TailLine[tailLines];
+			if (nonNull(file.getParentFile())) {
+				file.getParentFile().mkdirs();
+			}
+			// The build commands stdout may also be appended to this file.
+			this.channel = FileChannel.open(file.toPath(), CREATE, WRITE, APPEND);
+			this.position = channel.size();
+		}
+
+		File getFile() {
+			return file;
+		}
+
+		long getPendingBytes() {
+			return pendingBytes.get();
+		}
+
+		long getLastFlushTime() {
+			return lastFlushTime;
+		}
+
+		boolean isClosed() {
+			return !channel.isOpen();
+		}
+
+		boolean offer(String line) {
+			if (buffer.offer(line)) {
+				pendingBytes.addAndGet(line.length() + 1);
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Drain and write buffered lines to the file.
+		 *
+		 * @return Returns written bytes.
+		 * @throws IOException
+		 */
+		synchronized long flush() throws IOException {
+			lastFlushTime = currentTimeMillis();
+			List<String> lines = new ArrayList<>(buffer.size());
+			buffer.drainTo(lines);
+			if (lines.isEmpty()) {
+				return 0;
+			}
+			if (!channel.isOpen()) {
+				for (String line : lines) {
+					pendingBytes.addAndGet(-(line.length() + 1));
+					writeALineFile(file, line);
+				}
+				return 0;
+			}
+			checkExternalAppended();
+
+			long begin = position;
+			long offset = position;
+			for (String line : lines) {
+				pendingBytes.addAndGet(-(line.length() + 1));
+				byte[] data = line.concat(LINE_SEPARATOR).getBytes(UTF_8);
+				addTail(new TailLine(offset, data.length, line));
+				offset += data.length;
+				if (data.length > writeBuffer.remaining()) {
+					flushWriteBuffer();
+				}
+				if (data.length > writeBuffer.capacity()) {
+					writeFully(ByteBuffer.wrap(data));
+				} else {
+					writeBuffer.put(data);
+				}
+			}
+			flushWriteBuffer();
+			position = offset;
+			checkExternalAppended();
+			return offset - begin;
+		}
+
+		/**
+		 * Read flushed lines from the in-memory offsets.
+		 *
+		 * @param startPos
+		 * @param size
+		 * @return
+		 */
+		synchronized ReadTailFrame read(long startPos, int size) {
+			// Other writers appended, the offsets can only be found by file.
+			if (file.length() != position) {
+				return null;
+			}
+			if (startPos == position) {
+				return new ReadTailFrame(startPos, position, position, true, emptyList());
+			}
+			int index = searchTail(startPos);
+			if (index < 0) {
+				return null;
+			}
+			List<String> lines = new ArrayList<>(size);
+			long endPos = startPos;
+			for (int i = index; i < tailCount && lines.size() < size; i++) {
+				TailLine tail = tails[(tailHead + i) % tails.length];
+				lines.add(tail.line);
+				endPos = tail.offset + tail.length;
+			}
+			return new ReadTailFrame(startPos, endPos, position, true, lines);
+		}
+
+		synchronized void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+
+		private void flushWriteBuffer() throws IOException {
+			writeBuffer.flip();
+			writeFully(writeBuffer);
+			writeBuffer.clear();
+		}
+
+		/**
+		 * Write the remaining bytes of buffer(already in read mode).
+		 */
+		private void writeFully(ByteBuffer buf) throws IOException {
+			while (buf.hasRemaining()) {
+				channel.write(buf);
+			}
+		}
+
+		/**
+		 * If the file has been appended by others, the offsets of the
+		 * in-memory lines are no longer continuous, so discard them.
+		 */
+		private void checkExternalAppended() throws IOException {
+			long size = channel.size();
+			if (size != position) {
+				position = size;
+				tailHead = tailCount = 0;
+			}
+		}
+
+		private void addTail(TailLine tail) {
+			if (tailCount < tails.length) {
+				tails[(tailHead + tailCount++) % tails.length] = tail;
+			} else {
+				tails[tailHead] = tail;
+				tailHead = (tailHead + 1) % tails.length;
+			}
+		}
+
+		/**
+		 * Binary search the index of line started at offset.
+		 *
+		 * @param offset
+		 * @return
+		 */
+		private int searchTail(long offset) {
+			int low = 0, high = tailCount - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				long midOffset = tails[(tailHead + mid) % tails.length].offset;
+				if (midOffset < offset) {
+					low = mid + 1;
+				} else if (midOffset > offset) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -1;
+		}
+
+	}
+
+	/**
+	 * Flushed line with file offset.
+	 */
+	static class TailLine {
+		final long offset;
+		final int length;
+		final String line;
+
+		TailLine(long offset, int length, String line) {
+			this.offset = offset;
+			this.length = length;
+			this.line = line;
+		}
+	}
+
+	final private static String LINE_SEPARATOR = System.lineSeparator();
+
+}
@@ -16,9 +16,8 @@
 package com.wl4g.dopaas.uci.core.orchestration;
 
 import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static com.wl4g.dopaas.common.constant.UciConstants.FLOW_TIME_OUT_MS;
 import static com.wl4g.dopaas.common.constant.UciConstants.REDIS_CI_RUN_PRE;
-import static com.wl4g.dopaas.common.constant.UciConstants.REDIS_CI_RUN_SCAN_BATCH;
-import static com.wl4g.dopaas.common.constant.UciConstants.REDIS_SAVE_TIME_S;
 import static com.wl4g.dopaas.common.constant.UciConstants.TASK_STATUS_FAIL;
 import static com.wl4g.dopaas.common.constant.UciConstants.TASK_STATUS_RUNNING;
 import static com.wl4g.dopaas.common.constant.UciConstants.TASK_STATUS_SUCCESS;
@@ -28,28 +27,31 @@ import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManager
 import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.SUCCESS;
 import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.WAITING;
 import static com.wl4g.iam.common.utils.IamOrganizationUtils.getRequestOrganizationCode;
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsLast;
 import static java.util.Objects.isNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
 import com.wl4g.component.common.lang.Assert2;
 import com.wl4g.component.common.serialize.JacksonUtils;
-import com.wl4g.component.common.task.RunnerProperties;
-import com.wl4g.component.common.task.RunnerProperties.StartupMode;
-import com.wl4g.component.support.cache.jedis.JedisService;
-import com.wl4g.component.support.cache.jedis.ScanCursor;
-import com.wl4g.component.core.task.ApplicationTaskRunner;
 import com.wl4g.dopaas.common.bean.uci.Orchestration;
 import com.wl4g.dopaas.common.bean.uci.OrchestrationHistory;
 import com.wl4g.dopaas.common.bean.uci.OrchestrationPipeline;
@@ -58,7 +60,6 @@ import com.wl4g.dopaas.common.bean.uci.model.PipelineModel;
 import com.wl4g.dopaas.common.bean.uci.model.RunModel;
 import com.wl4g.dopaas.common.bean.uci.model.RunModel.Pipeline;
 import com.wl4g.dopaas.common.bean.uci.param.RunParameter;
-import com.wl4g.dopaas.common.constant.UciConstants;
 import com.wl4g.dopaas.uci.core.PipelineJobExecutor;
 import com.wl4g.dopaas.uci.core.PipelineManager;
 import com.wl4g.dopaas.uci.data.OrchestrationDao;
@@ -76,7 +77,7 @@ import com.wl4g.dopaas.uci.service.PipelineHistoryService;
 public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
     protected final Logger log = getLogger(getClass());
 
-    private @Autowired JedisService jedisService;
+    private @Autowired GenericRunStateStore runStateStore;
     private @Autowired PipelineManager pipelineManager;
     private @Autowired PipelineJobExecutor jobExecutor;
     private @Autowired OrchestrationDao orchestrationDao;
@@ -120,25 +121,19 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
     public List<List<OrchestrationPipeline>> sortByPriority(List<OrchestrationPipeline> orchestrationPipelines) {
 
         // step1: group by
-        List<List<OrchestrationPipeline>> groupBy = new ArrayList<>();
+        Map<Integer, List<OrchestrationPipeline>> groups = new LinkedHashMap<>();
         for (OrchestrationPipeline orchestrationPipeline : orchestrationPipelines) {
-            Integer priority = orchestrationPipeline.getPriority();
-            List<OrchestrationPipeline> group = getGroup(groupBy, priority);
-            if (CollectionUtils.isEmpty(group)) {
-                group = new ArrayList<>();
-                groupBy.add(group);
-            }
-            group.add(orchestrationPipeline);
+            groups.computeIfAbsent(orchestrationPipeline.getPriority(), p -> new ArrayList<>()).add(orchestrationPipeline);
         }
 
-        // step2: sort by priority
-        for (int i = 0; i < groupBy.size(); i++) {
-            for (int j = i + 1; j < groupBy.size(); j++) {
-                // use < to asc, use > to desc
-                if (groupBy.get(i).get(0).getPriority() > groupBy.get(j).get(0).getPriority()) {
-                    Collections.swap(groupBy, i, j);
-                }
-            }
+        // step2: sort by priority(asc)
+        Comparator<List<OrchestrationPipeline>> byPriority = comparing(g -> g.get(0).getPriority(),
+                nullsLast(naturalOrder()));
+        PriorityQueue<List<OrchestrationPipeline>> heap = new PriorityQueue<>(Math.max(1, groups.size()), byPriority);
+        heap.addAll(groups.values());
+        List<List<OrchestrationPipeline>> groupBy = new ArrayList<>(groups.size());
+        while (!heap.isEmpty()) {
+            groupBy.add(heap.poll());
         }
         return groupBy;
     }
@@ -173,7 +168,7 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
             pipelineSort.add(pipelineModels);
         }
         runModel.setPipelines(pipelines);
-        saveRunModel(runModel);
+        runStateStore.saveRunModel(runModel);
         return pipelineSort;
     }
 
@@ -184,50 +179,31 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
      */
     public void handOut(OrchestrationHistory orchestrationHistory, List<List<PipelineModel>> pipelineModelSort, RunModel runModel,
             String remark, String taskTraceId, String taskTraceType, String annex) throws Exception {
-        // Create runner.
-        ApplicationTaskRunner<?> runner = createGenericTaskRunner(2);
         long startTime = System.currentTimeMillis();
 
         try {
             for (List<PipelineModel> pipelineModels : pipelineModelSort) { // run
                                                                            // by
                                                                            // batch
-                List<Runnable> jobs = new ArrayList<>();
+                List<CompletableFuture<String>> completions = new ArrayList<>(pipelineModels.size());
                 for (PipelineModel pipelineModel : pipelineModels) {
                     // TODO set node, use default just now
                     pipelineModel.setNode(node);
                     pipelineStateChange(pipelineModel);
+                    // Watching before hand out, the completed event will not
+                    // be missed.
+                    completions.add(runStateStore.watchCompleted(pipelineModel.getRunId(), pipelineModel.getPipeId()));
                     // TODO hand out here
                     master2slave(orchestrationHistory, pipelineModel, remark, taskTraceId, taskTraceType, annex);
                 }
-                // wait for this batch finish;
-                jobs.add(new Runnable() {
-                    @Override
-                    public void run() {
-                        try {
-                            boolean batchFinish = false;
-                            while (!batchFinish) {
-                                batchFinish = true;
-                                for (PipelineModel pipelineModel : pipelineModels) {
-                                    // the status get from redis
-                                    Pipeline pipeline = getPipeline(pipelineModel.getRunId(), pipelineModel.getPipeId());
-                                    if (!isNull(pipeline) && !StringUtils.equalsAny(pipeline.getStatus(), SUCCESS.toString(),
-                                            FAILED.toString())) { // RUNNING_DEPLOY
-                                        batchFinish = false;
-                                        break;
-                                    }
-                                }
-                                Thread.sleep(3000L);
-                            }
-                        } catch (InterruptedException ie) {
-                            log.error("wait for this batch finish fail", ie);
-                        }
-                    }
-                });
-                // Submit jobs & listen job timeout.
-                runner.getWorker().submitForComplete(jobs, (ex, completed, uncompleted) -> {
-                    log.error("error", ex);
-                }, UciConstants.FLOW_TIME_OUT_MS);
+                // wait for this batch finish (completed events);
+                CompletableFuture<Void> batch = CompletableFuture.allOf(completions.toArray(new CompletableFuture[0]));
+                try {
+                    batch.get(FLOW_TIME_OUT_MS, MILLISECONDS);
+                } catch (TimeoutException e) {
+                    log.error("wait for this batch finish timeout", e);
+                    completions.forEach(c -> c.cancel(false));
+                }
             }
         } catch (Exception e) {
             log.error("flow run fail", e);
@@ -259,8 +235,6 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
             orchestrationHistoryNew.setCostTime(endTime - startTime);
             orchestrationHistoryDao.updateByPrimaryKeySelective(orchestrationHistoryNew);
         }
-
-        runner.close();
     }
 
     /**
@@ -276,26 +250,6 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
                 orchestrationHistory.getId(), pipeModel));
     }
 
-    private static ApplicationTaskRunner<RunnerProperties> createGenericTaskRunner(int concurrencyPoolSize) throws Exception {
-        ApplicationTaskRunner<RunnerProperties> runner = new ApplicationTaskRunner<RunnerProperties>(
-                new RunnerProperties(StartupMode.NOSTARTUP, concurrencyPoolSize)) {
-        };
-        runner.run(null);
-        return runner;
-    }
-
-    private List<OrchestrationPipeline> getGroup(List<List<OrchestrationPipeline>> groupBy, Integer priority) {
-        if (CollectionUtils.isEmpty(groupBy)) {
-            return null;
-        }
-        for (List<OrchestrationPipeline> g : groupBy) {
-            if (Objects.equals(g.get(0).getPriority(), priority)) {
-                return g;
-            }
-        }
-        return null;
-    }
-
     /**
      * for single pipeline
      *
@@ -320,9 +274,9 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
         runModel.setType("PIPE");
         List<Pipeline> pipelines = new ArrayList<>();
         pipelines.add(pipelineModel);
-        runModel.setPipelines(pipelines);
-        saveRunModel(runModel);
         pipelineModel.setRunId(runModel.getRunId());
+        runModel.setPipelines(pipelines);
+        runStateStore.saveRunModel(runModel);
         return pipelineModel;
     }
 
@@ -330,19 +284,19 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
      * when pipeline state change , call this method
      */
     public void pipelineStateChange(PipelineModel pipelineModel) {
-        RunModel runModel = getRunModel(pipelineModel.getRunId());
-        Pipeline pipeline = getPipeline(runModel.getPipelines(), pipelineModel.getPipeId());
-        if (pipeline != null) {
-            BeanUtils.copyProperties(pipelineModel, pipeline);
+        // Only the state of this pipeline is updated atomically, the
+        // concurrently changes of other pipelines will not be lost.
+        if (!runStateStore.updatePipeline(pipelineModel.getRunId(), pipelineModel)) {
+            log.warn("Skip state change, no running of runId={}, pipeId={}", pipelineModel.getRunId(),
+                    pipelineModel.getPipeId());
         }
-        saveRunModel(runModel);
     }
 
     /**
      * when pipeline finish, del the pipeline from runModel
      */
     public void pipelineComplete(String runId) {
-        RunModel runModel = getRunModel(runId);
+        RunModel runModel = runStateStore.getRunModel(runId);
         if (isNull(runModel)) {
             return;
         }
@@ -368,7 +322,7 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
     }
 
     public void pipelineCompleteFocus(String runId) {
-        RunModel runModel = getRunModel(runId);
+        RunModel runModel = runStateStore.getRunModel(runId);
         if (Objects.nonNull(runModel)) {
             flowComplete(runModel, false);
         }
@@ -381,8 +335,10 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
      */
     public void flowComplete(RunModel runModel, boolean isAllSuccess) {
         String runId = runModel.getRunId();
-        // remove redis
-        jedisService.del(runId);
+        // remove redis, the concurrently completing only once.
+        if (!runStateStore.removeRunModel(runId)) {
+            return;
+        }
 
         // TODO compute cost time
         Long createTime = runModel.getCreateTime();
@@ -399,51 +355,6 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
         orchestrationDao.updateByPrimaryKeySelective(orchestration);
     }
 
-    private RunModel getRunModel(String runId) {
-        return jedisService.getObjectAsJson(runId, RunModel.class);
-    }
-
-    private Pipeline getPipeline(String runId, Long pipelineId) {
-        RunModel runModel = getRunModel(runId);
-        if (runModel == null) {
-            return null;
-        }
-        return getPipeline(runModel.getPipelines(), pipelineId);
-    }
-
-    private Pipeline getPipeline(List<Pipeline> pipelines, Long pipelineId) {
-        if (!CollectionUtils.isEmpty(pipelines)) {
-            for (Pipeline pipeline : pipelines) {
-                if (pipelineId.longValue() == pipeline.getPipeId()) {
-                    return pipeline;
-                }
-            }
-        }
-        return null;
-    }
-
-    private List<RunModel> getRunModels() {
-        ScanCursor<String> scan = jedisService.scan(REDIS_CI_RUN_PRE + "*", REDIS_CI_RUN_SCAN_BATCH, String.class);
-        List<RunModel> runModels = new ArrayList<>();
-
-        while (scan.hasNext()) {
-            String next = scan.next();
-            runModels.add(JacksonUtils.parseJSON(next, RunModel.class));
-        }
-        /*
-         * List<RunModel> runModels = JacksonUtils.parseJSON(s, new
-         * TypeReference<List<RunModel>>() { });
-         */
-        if (isNull(runModels)) {
-            runModels = new ArrayList<>();
-        }
-        return runModels;
-    }
-
-    private void saveRunModel(RunModel runModel) {
-        jedisService.set(runModel.getRunId(), JacksonUtils.toJSONString(runModel), REDIS_SAVE_TIME_S);
-    }
-
     /**
      * check the dependency is already builded
      *
@@ -452,7 +363,7 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
      * @return
      */
     public boolean isDependencyBuilded(Long projectId) {
-        List<RunModel> runModels = getRunModels();
+        List<RunModel> runModels = runStateStore.getRunModels();
         Set<Long> alreadBuild = new HashSet<>();
         for (RunModel runModel : runModels) {
             List<Pipeline> pipelines = runModel.getPipelines();
@@ -467,7 +378,7 @@ public class DefaultOrchestrationManagerImpl implements OrchestrationManager {
         if (isNull(pipelineId)) {
             return false;
         }
-        List<RunModel> runModels = getRunModels();
+        List<RunModel> runModels = runStateStore.getRunModels();
         for (RunModel runModel : runModels) {
             List<Pipeline> pipelines = runModel.getPipelines();
             for (Pipeline pipeline : pipelines) {
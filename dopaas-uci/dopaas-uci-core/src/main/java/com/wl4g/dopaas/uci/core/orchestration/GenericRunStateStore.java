@@ -0,0 +1,290 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.core.orchestration;
+
+import static com.wl4g.component.common.lang.Assert2.hasTextOf;
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.FAILED;
+import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.SUCCESS;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.function.Function.identity;
+import static org.apache.commons.lang3.StringUtils.equalsAnyIgnoreCase;
+import static org.springframework.beans.BeanUtils.copyProperties;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.wl4g.component.common.log.SmartLogger;
+import com.wl4g.component.common.task.RunnerProperties;
+import com.wl4g.component.common.task.RunnerProperties.StartupMode;
+import com.wl4g.component.core.task.ApplicationTaskRunner;
+import com.wl4g.dopaas.common.bean.uci.model.RunModel;
+import com.wl4g.dopaas.common.bean.uci.model.RunModel.Pipeline;
+
+/**
+ * Generic orchestration running state store. The state of each pipeline is
+ * updated atomically and independently, and the pipeline completed events are
+ * pushed to the waiting orchestrations (local or other nodes) instead of
+ * polling the running state.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public abstract class GenericRunStateStore extends ApplicationTaskRunner<RunnerProperties> {
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** Waiting completions of pipelines on this node, key is runId and pipeId. */
+	final private Map<String, CompletableFuture<String>> completions = new ConcurrentHashMap<>(16);
+
+	public GenericRunStateStore() {
+		super(new RunnerProperties(StartupMode.NOSTARTUP, 1));
+	}
+
+	@Override
+	public void run() {
+		// Subscribe pipeline completed events.
+		getWorker().execute(() -> subscribeCompleted());
+	}
+
+	/**
+	 * Save running model and all its pipelines.
+	 *
+	 * @param runModel
+	 */
+	public abstract void saveRunModel(RunModel runModel);
+
+	/**
+	 * Get running model.
+	 *
+	 * @param runId
+	 * @return Returns null if not exists (completed or expired).
+	 */
+	public abstract RunModel getRunModel(String runId);
+
+	/**
+	 * Get all running models.
+	 *
+	 * @return
+	 */
+	public abstract List<RunModel> getRunModels();
+
+	/**
+	 * Remove running model.
+	 *
+	 * @param runId
+	 * @return Returns true if removed by current caller.
+	 */
+	public abstract boolean removeRunModel(String runId);
+
+	/**
+	 * Atomic updating state of a pipeline, and push the completed event if
+	 * the pipeline is completed.
+	 *
+	 * @param runId
+	 * @param pipeline
+	 * @return Returns false if the running or pipeline is not exists.
+	 */
+	public boolean updatePipeline(String runId, Pipeline pipeline) {
+		hasTextOf(runId, "runId");
+		notNullOf(pipeline, "pipeline");
+		notNullOf(pipeline.getPipeId(), "pipeId");
+
+		// Persists the state of pipeline only, e.g. excludes runId of the
+		// PipelineModel.
+		Pipeline state = new Pipeline();
+		copyProperties(pipeline, state);
+		boolean updated = doUpdatePipeline(runId, state);
+		if (updated && isCompleted(pipeline.getStatus())) {
+			// Local waiting is notified immediately.
+			notifyCompleted(runId, pipeline.getPipeId(), pipeline.getStatus());
+			publishCompleted(runId, pipeline.getPipeId(), pipeline.getStatus());
+		}
+		return updated;
+	}
+
+	/**
+	 * Watching the pipeline completion, the future is completed with the
+	 * completed status, or null if the running is not exists. Each caller has
+	 * its own future, cancelling it does not affect the other waitings of the
+	 * same pipeline.
+	 *
+	 * @param runId
+	 * @param pipeId
+	 * @return
+	 */
+	public CompletableFuture<String> watchCompleted(String runId, Long pipeId) {
+		hasTextOf(runId, "runId");
+		notNullOf(pipeId, "pipeId");
+		String key = getCompletionKey(runId, pipeId);
+		CompletableFuture<String> future = completions.computeIfAbsent(key, k -> {
+			CompletableFuture<String> f = new CompletableFuture<>();
+			f.whenComplete((status, ex) -> completions.remove(k, f));
+			return f;
+		});
+
+		// The completed events before watching would be missed.
+		checkCompleted(runId, pipeId, future);
+		return future.thenApply(identity());
+	}
+
+	/**
+	 * Re-check the state of all waiting pipelines on this node, catch up the
+	 * completed events missed (e.g. published while re-subscribing).
+	 *
+	 * @return Returns the count of completed.
+	 */
+	protected int recheckCompletions() {
+		int c = 0;
+		for (Entry<String, CompletableFuture<String>> ent : completions.entrySet()) {
+			String key = ent.getKey();
+			int index = key.lastIndexOf("@");
+			if (checkCompleted(key.substring(0, index), Long.valueOf(key.substring(index + 1)), ent.getValue())) {
+				++c;
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Complete the waiting if the pipeline is completed or not exists.
+	 *
+	 * @param runId
+	 * @param pipeId
+	 * @param future
+	 * @return Returns true if completed by current caller.
+	 */
+	private boolean checkCompleted(String runId, Long pipeId, CompletableFuture<String> future) {
+		Pipeline pipeline = getPipeline(runId, pipeId);
+		if (isNull(pipeline)) {
+			return future.complete(null);
+		} else if (isCompleted(pipeline.getStatus())) {
+			return future.complete(pipeline.getStatus());
+		}
+		return false;
+	}
+
+	/**
+	 * Notification completed of pipeline to local waiting.
+	 *
+	 * @param runId
+	 * @param pipeId
+	 * @param status
+	 */
+	protected void notifyCompleted(String runId, Long pipeId, String status) {
+		CompletableFuture<String> future = completions.get(getCompletionKey(runId, pipeId));
+		if (nonNull(future)) {
+			future.complete(status);
+		}
+	}
+
+	/**
+	 * Get pipeline of running.
+	 *
+	 * @param runId
+	 * @param pipeId
+	 * @return
+	 */
+	protected abstract Pipeline getPipeline(String runId, Long pipeId);
+
+	/**
+	 * Atomic updating state of a pipeline.
+	 *
+	 * @param runId
+	 * @param pipeline
+	 * @return
+	 */
+	protected abstract boolean doUpdatePipeline(String runId, Pipeline pipeline);
+
+	/**
+	 * Publishing completed of pipeline to all nodes.
+	 *
+	 * @param runId
+	 * @param pipeId
+	 * @param status
+	 */
+	protected abstract void publishCompleted(String runId, Long pipeId, String status);
+
+	/**
+	 * Subscribing completed of pipelines, blocking until store destroyed.
+	 */
+	protected abstract void subscribeCompleted();
+
+	/**
+	 * Check whether the pipeline status is completed.
+	 *
+	 * @param status
+	 * @return
+	 */
+	public static boolean isCompleted(String status) {
+		return equalsAnyIgnoreCase(status, SUCCESS.toString(), FAILED.toString());
+	}
+
+	private static String getCompletionKey(String runId, Long pipeId) {
+		return runId + "@" + pipeId;
+	}
+
+	/**
+	 * Pipeline completed event.
+	 */
+	public static class CompletedEvent {
+
+		private String runId;
+		private Long pipeId;
+		private String status;
+
+		public CompletedEvent() {
+		}
+
+		public CompletedEvent(String runId, Long pipeId, String status) {
+			this.runId = runId;
+			this.pipeId = pipeId;
+			this.status = status;
+		}
+
+		public String getRunId() {
+			return runId;
+		}
+
+		public void setRunId(String runId) {
+			this.runId = runId;
+		}
+
+		public Long getPipeId() {
+			return pipeId;
+		}
+
+		public void setPipeId(Long pipeId) {
+			this.pipeId = pipeId;
+		}
+
+		public String getStatus() {
+			return status;
+		}
+
+		public void setStatus(String status) {
+			this.status = status;
+		}
+
+	}
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.core.orchestration;
+
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static com.wl4g.component.common.serialize.JacksonUtils.parseJSON;
+import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
+import static com.wl4g.dopaas.common.constant.UciConstants.CHANNEL_CI_RUN_COMPLETED;
+import static com.wl4g.dopaas.common.constant.UciConstants.REDIS_CI_RUNNING_INDEX;
+import static com.wl4g.dopaas.common.constant.UciConstants.REDIS_SAVE_TIME_S;
+import static java.lang.Math.min;
+import static java.lang.Thread.sleep;
+import static java.util.Collections.singletonList;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.wl4g.component.support.cache.jedis.JedisService;
+import com.wl4g.dopaas.common.bean.uci.model.RunModel;
+import com.wl4g.dopaas.common.bean.uci.model.RunModel.Pipeline;
+
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Redis based orchestration running state store. Each running is stored as a
+ * hash, and each pipeline is a field of it, so that the pipeline states are
+ * updated atomically without rewriting the whole running model. The
+ * completed events are pushed to all nodes by redis pub/sub, and the waiting
+ * pipelines are re-checked after every (re)subscribed, since the events
+ * published while disconnected are lost.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class JedisRunStateStore extends GenericRunStateStore implements DisposableBean {
+
+	final private JedisService jedisService;
+
+	/** Current subscriber of completed events. */
+	private volatile JedisPubSub subscriber;
+
+	/** Destroyed of store, stops re-subscribing. */
+	private volatile boolean destroyed;
+
+	public JedisRunStateStore(JedisService jedisService) {
+		notNullOf(jedisService, "jedisService");
+		this.jedisService = jedisService;
+	}
+
+	@Override
+	public void saveRunModel(RunModel runModel) {
+		notNullOf(runModel, "runModel");
+		Map<String, String> fields = new HashMap<>(8);
+		RunModel meta = new RunModel();
+		meta.setRunId(runModel.getRunId());
+		meta.setType(runModel.getType());
+		meta.setCreateTime(runModel.getCreateTime());
+		fields.put(FIELD_META, toJSONString(meta));
+		if (nonNull(runModel.getPipelines())) {
+			for (Pipeline pipeline : runModel.getPipelines()) {
+				fields.put(String.valueOf(pipeline.getPipeId()), toJSONString(pipeline));
+			}
+		}
+		jedisService.getJedisClient().hmset(runModel.getRunId(), fields);
+		jedisService.getJedisClient().expire(runModel.getRunId(), REDIS_SAVE_TIME_S);
+		jedisService.getJedisClient().sadd(REDIS_CI_RUNNING_INDEX, runModel.getRunId());
+	}
+
+	@Override
+	public RunModel getRunModel(String runId) {
+		Map<String, String> fields = jedisService.getJedisClient().hgetAll(runId);
+		if (isNull(fields) || !fields.containsKey(FIELD_META)) {
+			return null;
+		}
+		RunModel runModel = parseJSON(fields.get(FIELD_META), RunModel.class);
+		List<Pipeline> pipelines = new ArrayList<>(fields.size());
+		for (Entry<String, String> ent : fields.entrySet()) {
+			if (!FIELD_META.equals(ent.getKey())) {
+				pipelines.add(parseJSON(ent.getValue(), Pipeline.class));
+			}
+		}
+		pipelines.sort(comparingInt(Pipeline::getPriority));
+		runModel.setPipelines(pipelines);
+		return runModel;
+	}
+
+	@Override
+	public List<RunModel> getRunModels() {
+		Set<String> runIds = jedisService.getJedisClient().smembers(REDIS_CI_RUNNING_INDEX);
+		List<RunModel> runModels = new ArrayList<>(runIds.size());
+		for (String runId : runIds) {
+			RunModel runModel = getRunModel(runId);
+			if (isNull(runModel)) { // Expired
+				jedisService.getJedisClient().srem(REDIS_CI_RUNNING_INDEX, runId);
+			} else {
+				runModels.add(runModel);
+			}
+		}
+		return runModels;
+	}
+
+	@Override
+	public boolean removeRunModel(String runId) {
+		Long removed = jedisService.getJedisClient().del(runId);
+		jedisService.getJedisClient().srem(REDIS_CI_RUNNING_INDEX, runId);
+		return nonNull(removed) && removed > 0;
+	}
+
+	@Override
+	protected Pipeline getPipeline(String runId, Long pipeId) {
+		String pipeline = jedisService.getJedisClient().hget(runId, String.valueOf(pipeId));
+		return isNull(pipeline) ? null : parseJSON(pipeline, Pipeline.class);
+	}
+
+	@Override
+	protected boolean doUpdatePipeline(String runId, Pipeline pipeline) {
+		Object updated = jedisService.getJedisClient().eval(SCRIPT_UPDATE_PIPELINE, singletonList(runId),
+				Arrays.asList(String.valueOf(pipeline.getPipeId()), toJSONString(pipeline)));
+		return updated instanceof Long && ((Long) updated) > 0;
+	}
+
+	@Override
+	protected void publishCompleted(String runId, Long pipeId, String status) {
+		jedisService.getJedisClient().publish(CHANNEL_CI_RUN_COMPLETED,
+				toJSONString(new CompletedEvent(runId, pipeId, status)));
+	}
+
+	@Override
+	protected void subscribeCompleted() {
+		long backoff = DEFAULT_BACKOFF_MS;
+		while (isActive() && !destroyed) {
+			try {
+				subscriber = new CompletedEventSubscriber();
+				log.info("Subscribing pipeline completed of channel: {}", CHANNEL_CI_RUN_COMPLETED);
+				// Blocking until unsubscribe or disconnected.
+				jedisService.getJedisClient().subscribe(subscriber, CHANNEL_CI_RUN_COMPLETED);
+				backoff = DEFAULT_BACKOFF_MS;
+			} catch (Throwable th) {
+				log.error(String.format("Failed to subscribe pipeline completed, retry after %sms", backoff), th);
+			}
+			if (isActive() && !destroyed) {
+				try {
+					sleep(backoff);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				backoff = min(backoff * 2, MAX_BACKOFF_MS);
+			}
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		destroyed = true;
+		JedisPubSub subscriber = this.subscriber;
+		if (!isNull(subscriber) && subscriber.isSubscribed()) {
+			subscriber.unsubscribe();
+		}
+	}
+
+	/**
+	 * Pipeline completed events subscriber.
+	 */
+	class CompletedEventSubscriber extends JedisPubSub {
+
+		@Override
+		public void onSubscribe(String channel, int subscribedChannels) {
+			// The completed events are not buffered while disconnected.
+			try {
+				log.info("Rechecked waiting pipelines after subscribed, completed: {}", recheckCompletions());
+			} catch (Throwable th) {
+				log.error("Failed to recheck waiting pipelines", th);
+			}
+		}
+
+		@Override
+		public void onMessage(String channel, String message) {
+			try {
+				CompletedEvent event = parseJSON(message, CompletedEvent.class);
+				notifyCompleted(event.getRunId(), event.getPipeId(), event.getStatus());
+			} catch (Throwable th) {
+				log.error(String.format("Failed to notify pipeline completed - %s", message), th);
+			}
+		}
+
+	}
+
+	/** Hash field of running model without pipelines. */
+	final private static String FIELD_META = "_meta";
+
+	/**
+	 * Updating pipeline field only if it exists, that is, the running is not
+	 * completed or expired.
+	 */
+	final private static String SCRIPT_UPDATE_PIPELINE = "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then "
+			+ "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) return 1 end return 0";
+
+	/** Default subscribe reconnect backoff milliseconds. */
+	final private static long DEFAULT_BACKOFF_MS = 500L;
+
+	/** Max subscribe reconnect backoff milliseconds. */
+	final private static long MAX_BACKOFF_MS = 30_000L;
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.pipeline.dependency;
+
+import static com.wl4g.component.common.lang.Assert2.isTrue;
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.emptySet;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.wl4g.component.common.log.SmartLogger;
+
+/**
+ * Modules dependency DAG executor. The modules are started as soon as all
+ * their dependencies are built, so that independent modules are built
+ * concurrently on a bounded pool which is shared by all pipelines. Fail
+ * fast, after any module failed, the modules not yet started are no longer
+ * built.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class ModuleDagExecutor implements DisposableBean {
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** Bounded building pool of all pipelines. */
+	final private ForkJoinPool pool;
+
+	public ModuleDagExecutor(int parallelism) {
+		isTrue(parallelism > 0, "Parallelism must greater than 0.");
+		final AtomicInteger counter = new AtomicInteger(0);
+		this.pool = new ForkJoinPool(parallelism, p -> {
+			ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			t.setName("uci-module-builder-" + counter.incrementAndGet());
+			return t;
+		}, null, true);
+	}
+
+	/**
+	 * Execution building of modules dependency graph.
+	 *
+	 * @param graph
+	 *            Key is module, value is modules of it's dependent on. The
+	 *            dependencies that are not in the keys are ignored.
+	 * @param builder
+	 * @return
+	 * @throws Exception
+	 *             The first failure of modules building.
+	 */
+	public <K> DagBuildResult<K> execute(Map<K, Set<K>> graph, ModuleBuilder<K> builder) throws Exception {
+		notNullOf(graph, "graph");
+		notNullOf(builder, "builder");
+		List<K> sorted = topologicalSort(graph);
+
+		long begin = currentTimeMillis();
+		Map<K, long[]> timings = new HashMap<>(graph.size());
+		Map<K, CompletableFuture<Void>> futures = new LinkedHashMap<>(graph.size());
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		for (K module : sorted) {
+			long[] timing = new long[2];
+			timings.put(module, timing);
+			Runnable task = () -> {
+				if (nonNull(failure.get())) {
+					log.info("Skip building of module: {}, because of other modules failed", module);
+					return;
+				}
+				timing[0] = currentTimeMillis();
+				try {
+					builder.build(module);
+				} catch (Exception e) {
+					failure.compareAndSet(null, e);
+					throw new CompletionException(e);
+				} finally {
+					timing[1] = currentTimeMillis();
+				}
+			};
+			CompletableFuture<?>[] depFutures = getDependencies(graph, module).stream().map(d -> futures.get(d))
+					.filter(f -> nonNull(f)).toArray(CompletableFuture[]::new);
+			futures.put(module, depFutures.length == 0 ? CompletableFuture.runAsync(task, pool)
+					: CompletableFuture.allOf(depFutures).thenRunAsync(task, pool));
+		}
+
+		// Wait for all settled (the in-flight building), the dependents of
+		// failed modules are also failed.
+		for (CompletableFuture<Void> future : futures.values()) {
+			try {
+				future.join();
+			} catch (CompletionException e) {
+				failure.compareAndSet(null, nonNull(e.getCause()) ? e.getCause() : e);
+			}
+		}
+		DagBuildResult<K> result = new DagBuildResult<>(graph, sorted, timings, currentTimeMillis() - begin);
+		if (nonNull(failure.get())) {
+			if (failure.get() instanceof Exception) {
+				throw (Exception) failure.get();
+			}
+			throw new IllegalStateException(failure.get());
+		}
+		return result;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		pool.shutdownNow();
+	}
+
+	/**
+	 * Topological sorting of modules (Kahn's algorithm).
+	 *
+	 * @param graph
+	 * @return
+	 */
+	static <K> List<K> topologicalSort(Map<K, Set<K>> graph) {
+		Map<K, Integer> inDegrees = new LinkedHashMap<>(graph.size());
+		Map<K, List<K>> dependents = new HashMap<>(graph.size());
+		for (K module : graph.keySet()) {
+			int inDegree = 0;
+			for (K dep : getDependencies(graph, module)) {
+				if (graph.containsKey(dep) && !dep.equals(module)) {
+					dependents.computeIfAbsent(dep, d -> new ArrayList<>(4)).add(module);
+					++inDegree;
+				}
+			}
+			inDegrees.put(module, inDegree);
+		}
+
+		LinkedList<K> ready = new LinkedList<>();
+		inDegrees.forEach((module, inDegree) -> {
+			if (inDegree == 0) {
+				ready.add(module);
+			}
+		});
+		List<K> sorted = new ArrayList<>(graph.size());
+		while (!ready.isEmpty()) {
+			K module = ready.poll();
+			sorted.add(module);
+			for (K dependent : dependents.getOrDefault(module, Collections.emptyList())) {
+				if (inDegrees.merge(dependent, -1, Integer::sum) == 0) {
+					ready.add(dependent);
+				}
+			}
+		}
+		if (sorted.size() != graph.size()) {
+			List<K> cycles = new ArrayList<>(graph.keySet());
+			cycles.removeAll(sorted);
+			throw new IllegalStateException(String.format("Circular dependencies of modules: %s", cycles));
+		}
+		return sorted;
+	}
+
+	private static <K> Set<K> getDependencies(Map<K, Set<K>> graph, K module) {
+		Set<K> deps = graph.get(module);
+		return isNull(deps) ? emptySet() : deps;
+	}
+
+	/**
+	 * Module builder.
+	 *
+	 * @param <K>
+	 */
+	@FunctionalInterface
+	public static interface ModuleBuilder<K> {
+		void build(K module) throws Exception;
+	}
+
+	/**
+	 * Building timings of modules dependency graph.
+	 *
+	 * @param <K>
+	 */
+	public static class DagBuildResult<K> {
+
+		/** Cost of each module building (Ms). */
+		final private Map<K, Long> moduleCosts;
+
+		/** Wall-clock time of all modules building (Ms). */
+		final private long wallTimeMs;
+
+		/** Sum time of all modules building (Ms). */
+		final private long totalTimeMs;
+
+		/** Longest path of dependency chain by modules building costs. */
+		final private List<K> criticalPath;
+
+		/** Cost of longest path of dependency chain (Ms). */
+		final private long criticalPathMs;
+
+		DagBuildResult(Map<K, Set<K>> graph, List<K> sorted, Map<K, long[]> timings, long wallTimeMs) {
+			this.moduleCosts = new LinkedHashMap<>(sorted.size());
+			long totalTimeMs = 0;
+			for (K module : sorted) {
+				long[] timing = timings.get(module);
+				long cost = (timing[0] > 0 && timing[1] >= timing[0]) ? timing[1] - timing[0] : 0;
+				moduleCosts.put(module, cost);
+				totalTimeMs += cost;
+			}
+			this.wallTimeMs = wallTimeMs;
+			this.totalTimeMs = totalTimeMs;
+
+			// Longest weighted path in topological order.
+			Map<K, Long> pathCosts = new HashMap<>(sorted.size());
+			Map<K, K> predecessors = new HashMap<>(sorted.size());
+			K last = null;
+			for (K module : sorted) {
+				long maxDepCost = 0;
+				for (K dep : getDependencies(graph, module)) {
+					Long depCost = pathCosts.get(dep);
+					if (nonNull(depCost) && (depCost > maxDepCost || !predecessors.containsKey(module))) {
+						maxDepCost = depCost;
+						predecessors.put(module, dep);
+					}
+				}
+				long pathCost = maxDepCost + moduleCosts.get(module);
+				pathCosts.put(module, pathCost);
+				if (isNull(last) || pathCost > pathCosts.get(last)) {
+					last = module;
+				}
+			}
+			LinkedList<K> path = new LinkedList<>();
+			for (K module = last; nonNull(module); module = predecessors.get(module)) {
+				path.addFirst(module);
+			}
+			this.criticalPath = path;
+			this.criticalPathMs = isNull(last) ? 0 : pathCosts.get(last);
+		}
+
+		public Map<K, Long> getModuleCosts() {
+			return moduleCosts;
+		}
+
+		public long getWallTimeMs() {
+			return wallTimeMs;
+		}
+
+		public long getTotalTimeMs() {
+			return totalTimeMs;
+		}
+
+		public List<K> getCriticalPath() {
+			return criticalPath;
+		}
+
+		public long getCriticalPathMs() {
+			return criticalPathMs;
+		}
+
+		@Override
+		public String toString() {
+			return "DagBuildResult [wallTimeMs=" + wallTimeMs + ", totalTimeMs=" + totalTimeMs + ", criticalPathMs="
+					+ criticalPathMs + ", criticalPath=" + criticalPath + ", moduleCosts=" + moduleCosts + "]";
+		}
+
+	}
+
+}
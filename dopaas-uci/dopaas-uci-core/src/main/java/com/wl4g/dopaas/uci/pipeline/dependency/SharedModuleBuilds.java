@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.pipeline.dependency;
+
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.wl4g.component.common.log.SmartLogger;
+import com.wl4g.dopaas.common.exception.ci.DependencyCurrentlyInBuildingException;
+
+/**
+ * Shared modules building results of all pipelines on this node. The
+ * concurrently building of the same module source (project and ref) are
+ * joined to one build, and the built signature (e.g. commit and command) of
+ * each module source is recorded, so that the built artifacts can be reused.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class SharedModuleBuilds {
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** In-flight builds, key is project and ref. */
+	final private Map<String, CompletableFuture<Boolean>> inflights = new ConcurrentHashMap<>(16);
+
+	/** Built signature(commit and command) of project sources. */
+	final private Map<Long, String> builtSignatures = new ConcurrentHashMap<>(16);
+
+	/** Local locks of project sources directory. */
+	final private Map<Long, ReentrantLock> sourceLocks = new ConcurrentHashMap<>(16);
+
+	/** Builds counter of executed building command. */
+	final private AtomicLong builds = new AtomicLong(0);
+
+	/** Counter of joined other in-flight builds. */
+	final private AtomicLong joins = new AtomicLong(0);
+
+	/** Counter of reused already built artifacts. */
+	final private AtomicLong reuses = new AtomicLong(0);
+
+	/**
+	 * Build module or join the in-flight build of the same source.
+	 *
+	 * @param projectId
+	 * @param ref
+	 * @param waitTimeoutMs
+	 * @param build
+	 *            Returns true if the building command was executed.
+	 * @return Returns true if built by current caller.
+	 * @throws Exception
+	 */
+	public boolean buildOrJoin(Long projectId, String ref, long waitTimeoutMs, Callable<Boolean> build) throws Exception {
+		notNullOf(projectId, "projectId");
+		notNullOf(build, "build");
+		String key = projectId + "@" + ref;
+		CompletableFuture<Boolean> owned = new CompletableFuture<>();
+		CompletableFuture<Boolean> inflight = inflights.putIfAbsent(key, owned);
+		if (nonNull(inflight)) {
+			joins.incrementAndGet();
+			log.info("Joining in-flight build of {}", key);
+			try {
+				inflight.get(waitTimeoutMs, MILLISECONDS);
+				return false;
+			} catch (ExecutionException e) {
+				throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+			} catch (TimeoutException e) {
+				throw new DependencyCurrentlyInBuildingException(
+						String.format("Failed to build, timeout waiting for in-flight building of %s", key));
+			}
+		}
+
+		// Different refs of the same project are share the sources directory.
+		ReentrantLock lock = sourceLocks.computeIfAbsent(projectId, id -> new ReentrantLock());
+		lock.lock();
+		try {
+			boolean built = build.call();
+			owned.complete(built);
+			return built;
+		} catch (Throwable e) {
+			owned.completeExceptionally(e);
+			throw e;
+		} finally {
+			inflights.remove(key, owned);
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Check whether the module source has been built with the signature,
+	 * should be called in the building of {@link #buildOrJoin}.
+	 *
+	 * @param projectId
+	 * @param signature
+	 * @return
+	 */
+	public boolean isBuilt(Long projectId, String signature) {
+		if (nonNull(signature) && signature.equals(builtSignatures.get(projectId))) {
+			reuses.incrementAndGet();
+			log.info("Reused built artifacts of project: {}, signature: {}", projectId, signature);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Mark the module source building started, the older built signature is
+	 * no longer valid.
+	 *
+	 * @param projectId
+	 */
+	public void startBuilding(Long projectId) {
+		builds.incrementAndGet();
+		builtSignatures.remove(projectId);
+	}
+
+	/**
+	 * Mark the module source has been built with the signature.
+	 *
+	 * @param projectId
+	 * @param signature
+	 */
+	public void builtCompleted(Long projectId, String signature) {
+		if (nonNull(signature)) {
+			builtSignatures.put(projectId, signature);
+		}
+	}
+
+	public long getBuilds() {
+		return builds.get();
+	}
+
+	public long getJoins() {
+		return joins.get();
+	}
+
+	public long getReuses() {
+		return reuses.get();
+	}
+
+}
@@ -15,14 +15,14 @@
  */
 package com.wl4g.dopaas.uci.pipeline.deploy;
 
-import com.wl4g.component.common.codec.CodecSource;
-import com.wl4g.component.common.crypto.symmetric.AES128ECBPKCS5;
 import com.wl4g.component.common.io.FileIOUtils;
 import com.wl4g.component.common.log.SmartLogger;
 import com.wl4g.component.support.cli.DestroableProcessManager;
 import com.wl4g.component.support.cli.command.RemoteDestroableCommand;
 import com.wl4g.dopaas.uci.config.CiProperties;
 import com.wl4g.dopaas.uci.core.context.PipelineContext;
+import com.wl4g.dopaas.uci.pipeline.deploy.ssh.SshKeyCache;
+import com.wl4g.dopaas.uci.pipeline.deploy.ssh.SshSessionPool;
 import com.wl4g.dopaas.uci.pipeline.provider.PipelineProvider;
 import com.wl4g.dopaas.uci.service.PipelineHistoryService;
 import com.wl4g.dopaas.common.bean.uci.PipeStageInstanceCommand;
@@ -73,6 +73,18 @@ public abstract class AbstractPipeDeployer<P extends PipelineProvider> implement
 	@Autowired
 	protected DestroableProcessManager pm;
 
+	/**
+	 * Pooled SSH2 connections of remote hosts.
+	 */
+	@Autowired
+	protected SshSessionPool sessionPool;
+
+	/**
+	 * Decrypted SSH2 keys cache.
+	 */
+	@Autowired
+	protected SshKeyCache sshKeyCache;
+
 	@Autowired
 	protected PipelineHistoryService pipelineHistoryService;
 
@@ -228,7 +240,7 @@ public abstract class AbstractPipeDeployer<P extends PipelineProvider> implement
 	protected char[] getUsableCipherSshKey(String sshkey) throws Exception {
 		// Obtain text-plain privateKey(RSA)
 		byte[] cipherKey = config.getDeploy().getCipherKey().getBytes(UTF_8);
-		char[] sshkeyPlain = new AES128ECBPKCS5().decrypt(cipherKey, CodecSource.fromHex(sshkey)).toString().toCharArray();
+		char[] sshkeyPlain = sshKeyCache.getPlainKey(sshkey);
 		log.info("Transfer plain sshkey: {} => {}", cipherKey, "******");
 
 		File jobDeployerLog = config.getJobDeployerLog(provider.getContext().getPipelineHistory().getId(), instance.getId());
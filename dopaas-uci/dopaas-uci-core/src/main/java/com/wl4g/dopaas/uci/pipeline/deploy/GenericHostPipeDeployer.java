@@ -15,16 +15,20 @@
  */
 package com.wl4g.dopaas.uci.pipeline.deploy;
 
-import com.wl4g.component.common.cli.ssh2.SSH2Holders;
+import com.wl4g.dopaas.uci.pipeline.deploy.ssh.SshSessionPool.ExecResult;
 import com.wl4g.dopaas.uci.pipeline.provider.PipelineProvider;
 import com.wl4g.dopaas.common.bean.uci.PipelineHistoryInstance;
 import com.wl4g.dopaas.common.bean.cmdb.AppInstance;
+import com.wl4g.dopaas.common.exception.ci.PipelineIntegrationBuildingException;
 
 import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static com.wl4g.component.common.lang.Assert2.hasTextOf;
-import static org.springframework.util.Assert.hasText;
+import static java.lang.System.currentTimeMillis;
 
 /**
  * Generic based host deployer.
@@ -40,131 +44,38 @@ public abstract class GenericHostPipeDeployer<P extends PipelineProvider> extend
 		super(provider, instance, pipelineHistoryInstances);
 	}
 
+	/**
+	 * Deploying in one remote command of pooled SSH2 connection, the assets
+	 * file is streamed with gzip compression into remote extraction, instead
+	 * of transfer and executes each step separately.
+	 */
 	@Override
 	protected void doRemoteDeploying(String remoteHost, String user, String sshkey) throws Exception {
 		hasTextOf(remoteHost, "remoteHost");
 		hasTextOf(user, "remoteUser");
 		hasTextOf(sshkey, "sshPubkey");
 
-		// Ensure remote home temporary dir.
-		createReplaceRemoteDirectory(remoteHost, user, sshkey, config.getDeploy().getRemoteHomeTmpDir());
-
-		// Transfer to remote home temporary dir.
-		transferToRemoteTmpDir(remoteHost, user, sshkey);
-
-		// Ensure remote app install dir(parent appHome).
-		createReplaceRemoteDirectory(remoteHost, user, sshkey, getProgramInstallDir());
-
-		// UnInstall older remote executable program.
-		unInstallRemoteOlderProgram(remoteHost, user, sshkey);
-
-		// Uncompress remote program.
-		decompressRemoteProgram(remoteHost, user, sshkey);
-
-		// Install newer executable program.
-		installRemoteNewerProgram(remoteHost, user, sshkey);
-
-		// Cleanup temporary program file.
-		cleanupRemoteProgramTmpFile(remoteHost, user, sshkey);
-	}
-
-	/**
-	 * Creating replace remote directory.
-	 * 
-	 * @param remoteHost
-	 * @param user
-	 * @param sshkey
-	 * @param remoteDir
-	 * @throws Exception
-	 */
-	protected void createReplaceRemoteDirectory(String remoteHost, String user, String sshkey, String remoteDir)
-			throws Exception {
-		hasText(remoteDir, "Creating remote directory path must not be empty.");
-		String command = "mkdir -p " + remoteDir;
-		writeDeployLog("Creating remote directory: %s@%s [%s]", user, remoteHost, command);
-
-		// Directory creating.
-		doRemoteCommand(remoteHost, user, command, sshkey);
-	}
-
-	/**
-	 * Transfer executable file to remote directory.
-	 * 
-	 * @param remoteHost
-	 * @param user
-	 * @param sshkey
-	 * @throws Exception
-	 */
-	protected void transferToRemoteTmpDir(String remoteHost, String user, String sshkey) throws Exception {
-		String localFile = config.getJobBackupDir(getContext().getPipelineHistory().getId()) + "/" + getPrgramInstallFileName()
-				+ "." + DEFAULT_ASSETS_SUFFIX;
-
-		String remoteTmpDir = config.getDeploy().getRemoteHomeTmpDir();
-		writeDeployLog(String.format("Transfer to remote tmpdir: %s@%s [%s]", user, remoteHost, localFile));
-
-		SSH2Holders.getDefault().scpPutFile(remoteHost, user, provider.getUsableCipherSshKey(sshkey), null, new File(localFile),
-				remoteTmpDir);
-	}
-
-	/**
-	 * Decompression executable program assets file.
-	 * 
-	 * @param remoteHost
-	 * @param user
-	 * @param sshkey
-	 * @throws Exception
-	 */
-	protected void decompressRemoteProgram(String remoteHost, String user, String sshkey) throws Exception {
-		String command = "tar -xvf " + getRemoteTmpFilePath() + " -C " + config.getDeploy().getRemoteHomeTmpDir();
-		writeDeployLog("Decompress remote program: %s@%s [%s]", user, remoteHost, command);
-
-		doRemoteCommand(remoteHost, user, command, sshkey);
-	}
-
-	/**
-	 * UnInstall older last remote program.
-	 * 
-	 * @param remoteHost
-	 * @param user
-	 * @param sshkey
-	 * @throws Exception
-	 */
-	protected void unInstallRemoteOlderProgram(String remoteHost, String user, String sshkey) throws Exception {
-		String command = "rm -Rf " + getProgramInstallDir() + "/" + getPrgramInstallFileName();
-		writeDeployLog("Uninstall remote older program: %s@%s [%s]", user, remoteHost, command);
-
-		doRemoteCommand(remoteHost, user, command, sshkey);
-	}
-
-	/**
-	 * Install newer remote program to location.
-	 * 
-	 * @param remoteHost
-	 * @param user
-	 * @param sshkey
-	 * @throws Exception
-	 */
-	protected void installRemoteNewerProgram(String remoteHost, String user, String sshkey) throws Exception {
-		String decompressedTmpFile = config.getDeploy().getRemoteHomeTmpDir() + "/*" + getPrgramInstallFileName();
-		String command = "mv " + decompressedTmpFile + " " + getProgramInstallDir();
-		writeDeployLog("Install remote newer program: %s@%s [%s]", user, remoteHost, command);
-
-		doRemoteCommand(remoteHost, user, command, sshkey);
-	}
-
-	/**
-	 * Cleanup remote program temporary file.
-	 * 
-	 * @param remoteHost
-	 * @param user
-	 * @param sshkey
-	 * @throws Exception
-	 */
-	protected void cleanupRemoteProgramTmpFile(String remoteHost, String user, String sshkey) throws Exception {
-		String command = "rm -Rf " + getRemoteTmpFilePath();
-		writeDeployLog("Cleanup remote temporary program file: %s@%s [%s]", user, remoteHost, command);
-
-		doRemoteCommand(remoteHost, user, command, sshkey);
+		File assetsFile = new File(getLocalAssetsFilePath());
+		String command = buildDeployingScript(config.getDeploy().getRemoteHomeTmpDir(), getProgramInstallDir(),
+				getPrgramInstallFileName());
+		long timeoutMs = config.getRemoteCommandTimeoutMs(getContext().getInstances().size());
+		writeDeployLog("Deploying to remote: %s@%s, assets: %s, timeout: %s, command: [%s]", user, remoteHost, assetsFile,
+				timeoutMs, command);
+
+		long begin = currentTimeMillis();
+		ExecResult result = sessionPool.exec(remoteHost, user, getUsableCipherSshKey(sshkey), command, out -> {
+			try (OutputStream gzip = new GZIPOutputStream(out, DEFAULT_STREAM_BUFFER)) {
+				Files.copy(assetsFile.toPath(), gzip);
+			}
+		}, timeoutMs);
+		if (!result.isSuccess()) {
+			String logmsg = writeDeployLog("%s@%s, failed to deploying, exit: %s, \n\t----- Stderr: -----\n%s", user, remoteHost,
+					result.getExitStatus(), result.getStderr());
+			log.info(logmsg);
+			throw new PipelineIntegrationBuildingException(logmsg);
+		}
+		log.info(writeDeployLog("%s@%s, deployed cost: %sms, \n\t----- Stdout: -----\n%s", user, remoteHost,
+				(currentTimeMillis() - begin), result.getStdout()));
 	}
 
 	/**
@@ -186,16 +97,43 @@ public abstract class GenericHostPipeDeployer<P extends PipelineProvider> extend
 	}
 
 	/**
-	 * Get remote temporary executable file absolute path.
+	 * Get local executable assets file absolute path.
 	 * 
-	 * @returns
+	 * @return
 	 */
-	protected String getRemoteTmpFilePath() {
-		String result = config.getDeploy().getRemoteHomeTmpDir() + "/" + getPrgramInstallFileName() + "." + DEFAULT_ASSETS_SUFFIX;
-		return result;
+	protected String getLocalAssetsFilePath() {
+		return config.getJobBackupDir(getContext().getPipelineHistory().getId()) + "/" + getPrgramInstallFileName() + "."
+				+ DEFAULT_ASSETS_SUFFIX;
+	}
+
+	/**
+	 * Building remote deploying script, the gzip compressed assets are read
+	 * from stdin. The assets are extracted to a temporary directory at first,
+	 * then replace the older program.
+	 * 
+	 * @param remoteTmpDir
+	 * @param installDir
+	 * @param installFileName
+	 * @return
+	 */
+	static String buildDeployingScript(String remoteTmpDir, String installDir, String installFileName) {
+		hasTextOf(remoteTmpDir, "remoteTmpDir");
+		hasTextOf(installDir, "installDir");
+		hasTextOf(installFileName, "installFileName");
+		String extractDir = remoteTmpDir + "/" + installFileName + ".extracting";
+		return new StringBuilder(256).append("set -e; ")
+				.append("rm -Rf ").append(extractDir).append("; ")
+				.append("mkdir -p ").append(extractDir).append(" ").append(installDir).append("; ")
+				.append("gzip -dc | tar -xf - -C ").append(extractDir).append("; ")
+				.append("rm -Rf ").append(installDir).append("/").append(installFileName).append("; ")
+				.append("mv ").append(extractDir).append("/*").append(installFileName).append(" ").append(installDir).append("; ")
+				.append("rm -Rf ").append(extractDir).toString();
 	}
 
 	/** Default executable file suffix. */
 	public static final String DEFAULT_ASSETS_SUFFIX = "tar";
 
-}
\ No newline at end of file
+	/** Default buffer size of assets streaming. */
+	public static final int DEFAULT_STREAM_BUFFER = 64 * 1024;
+
+}
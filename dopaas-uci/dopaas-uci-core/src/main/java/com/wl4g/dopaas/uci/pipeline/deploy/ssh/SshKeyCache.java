@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.pipeline.deploy.ssh;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.wl4g.component.common.lang.Assert2.hasTextOf;
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.wl4g.component.common.codec.CodecSource;
+import com.wl4g.component.common.crypto.symmetric.AES128ECBPKCS5;
+import com.wl4g.dopaas.uci.config.DeployProperties;
+
+/**
+ * Decrypted SSH2 keys cache, the keys are decrypted only once within the
+ * TTL, instead of every remote command.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class SshKeyCache {
+
+	final protected DeployProperties config;
+
+	/** Plain keys, key is cipher hex of SSH2 key. */
+	final private Cache<String, char[]> plainKeys;
+
+	public SshKeyCache(DeployProperties config) {
+		notNullOf(config, "deployProperties");
+		this.config = config;
+		this.plainKeys = CacheBuilder.newBuilder().expireAfterWrite(config.getSshKeyCacheTtlMs(), MILLISECONDS)
+				.maximumSize(1024).build();
+	}
+
+	/**
+	 * Gets (decrypt if necessary) plain SSH2 key.
+	 *
+	 * @param cipherSshkey
+	 * @return
+	 * @throws Exception
+	 */
+	public char[] getPlainKey(String cipherSshkey) throws Exception {
+		hasTextOf(cipherSshkey, "cipherSshkey");
+		try {
+			return plainKeys.get(cipherSshkey, () -> {
+				byte[] cipherKey = config.getCipherKey().getBytes(UTF_8);
+				return new AES128ECBPKCS5().decrypt(cipherKey, CodecSource.fromHex(cipherSshkey)).toString().toCharArray();
+			}).clone();
+		} catch (ExecutionException e) {
+			throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+		}
+	}
+
+	/**
+	 * Invalidate all cached keys, e.g. the cipher key is changed.
+	 */
+	public void invalidateAll() {
+		plainKeys.invalidateAll();
+	}
+
+}
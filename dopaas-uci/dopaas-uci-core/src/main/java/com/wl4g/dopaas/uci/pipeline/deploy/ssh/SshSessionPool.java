@@ -0,0 +1,384 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.pipeline.deploy.ssh;
+
+import static com.wl4g.component.common.lang.Assert2.hasTextOf;
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import com.google.common.hash.Hashing;
+import com.wl4g.component.common.log.SmartLogger;
+import com.wl4g.dopaas.uci.config.DeployProperties;
+
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.common.IOUtils;
+import net.schmizz.sshj.common.Message;
+import net.schmizz.sshj.common.SSHPacket;
+import net.schmizz.sshj.connection.channel.direct.Session;
+import net.schmizz.sshj.connection.channel.direct.Session.Command;
+
+/**
+ * Pooled SSH2 connections of remote hosts. Each connection is authenticated
+ * once and reused by the subsequent commands, each command is executed in a
+ * new session (channel) of the connection. The remote hosts keys are verified
+ * by the known hosts file.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class SshSessionPool implements DisposableBean {
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	final protected DeployProperties config;
+
+	/** Pooled connections, key is user, host, port and digest of key. */
+	final private Map<String, PooledConnection> connections = new ConcurrentHashMap<>(16);
+
+	/** Established connections counter. */
+	final private AtomicLong connects = new AtomicLong(0);
+
+	/** Executed commands(round-trips) counter. */
+	final private AtomicLong execs = new AtomicLong(0);
+
+	/** Drainer of commands stdout and stderr. */
+	final private ExecutorService drainer;
+
+	public SshSessionPool(DeployProperties config) {
+		notNullOf(config, "deployProperties");
+		this.config = config;
+		AtomicInteger threads = new AtomicInteger(0);
+		this.drainer = Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "ssh-output-drainer-" + threads.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Execution command on remote host, and waiting for completed.
+	 *
+	 * @param host
+	 * @param user
+	 * @param privateKey
+	 * @param command
+	 * @param stdin
+	 *            Writing to command stdin, the stdin will be closed after
+	 *            written, may be null.
+	 * @param timeoutMs
+	 * @return
+	 * @throws IOException
+	 */
+	public ExecResult exec(String host, String user, char[] privateKey, String command, StdinWriter stdin, long timeoutMs)
+			throws IOException {
+		hasTextOf(host, "host");
+		hasTextOf(user, "user");
+		notNullOf(privateKey, "privateKey");
+		hasTextOf(command, "command");
+		evictIdleConnections();
+
+		int port = config.getRemoteSshPort();
+		String key = user + "@" + host + ":" + port + "#" + keyDigest(privateKey);
+		PooledConnection conn = acquire(key);
+		Future<String> stdout = null, stderr = null;
+		try {
+			SSHClient client = conn.connect(host, port, user, privateKey);
+			try (Session session = client.startSession()) {
+				execs.incrementAndGet();
+				Command cmd = session.exec(command);
+				// Drain the outputs concurrently, otherwise the verbose command
+				// will be blocked when the channel window is full.
+				stdout = drain(cmd.getInputStream());
+				stderr = drain(cmd.getErrorStream());
+				if (nonNull(stdin)) {
+					writeStdin(client, cmd, stdin);
+				}
+				long deadline = currentTimeMillis() + timeoutMs;
+				cmd.join(timeoutMs, MILLISECONDS);
+				return new ExecResult(cmd.getExitStatus(), awaitOutput(stdout, deadline), awaitOutput(stderr, deadline));
+			}
+		} catch (IOException e) {
+			// Broken connection will be reconnected by next.
+			connections.remove(key, conn);
+			conn.invalidate();
+			throw e;
+		} finally {
+			cancelQuietly(stdout);
+			cancelQuietly(stderr);
+			conn.release();
+		}
+	}
+
+	public long getConnects() {
+		return connects.get();
+	}
+
+	public long getExecs() {
+		return execs.get();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		for (PooledConnection conn : connections.values()) {
+			conn.invalidate();
+		}
+		connections.clear();
+		drainer.shutdownNow();
+	}
+
+	/**
+	 * Acquire the pooled connection, if the connection has been evicted
+	 * concurrently, acquire a new one.
+	 *
+	 * @param key
+	 * @return
+	 */
+	private PooledConnection acquire(String key) {
+		for (;;) {
+			PooledConnection conn = connections.computeIfAbsent(key, k -> new PooledConnection());
+			if (conn.tryAcquire()) {
+				return conn;
+			}
+			connections.remove(key, conn);
+		}
+	}
+
+	/**
+	 * Closing the connections of idle timeout.
+	 */
+	private void evictIdleConnections() {
+		long now = currentTimeMillis();
+		for (Entry<String, PooledConnection> ent : connections.entrySet()) {
+			PooledConnection conn = ent.getValue();
+			if (conn.evictIfIdle(now, config.getSshSessionIdleMs())) {
+				connections.remove(ent.getKey(), conn);
+			}
+		}
+	}
+
+	/**
+	 * SHA-256 digest of the private key, so that the different keys of the
+	 * same host never share a connection authenticated by the other.
+	 *
+	 * @param privateKey
+	 * @return
+	 */
+	static String keyDigest(char[] privateKey) {
+		return Hashing.sha256().hashString(CharBuffer.wrap(privateKey), UTF_8).toString();
+	}
+
+	/**
+	 * Writing to command stdin and sending EOF, the closing of channel output
+	 * stream only flushes, the remote command that reading stdin to the end
+	 * (e.g. gzip -dc) would never exit without EOF.
+	 *
+	 * @param client
+	 * @param cmd
+	 * @param stdin
+	 * @throws IOException
+	 */
+	private void writeStdin(SSHClient client, Command cmd, StdinWriter stdin) throws IOException {
+		OutputStream out = cmd.getOutputStream();
+		stdin.write(new FilterOutputStream(out) {
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				flush(); // EOF is sent once below.
+			}
+		});
+		out.flush();
+		client.getTransport().write(new SSHPacket(Message.CHANNEL_EOF).putUInt32(cmd.getRecipient()));
+	}
+
+	private Future<String> drain(InputStream in) {
+		return drainer.submit(() -> IOUtils.readFully(in).toString());
+	}
+
+	private String awaitOutput(Future<String> output, long deadline) throws IOException {
+		try {
+			return output.get(Math.max(deadline - currentTimeMillis(), 1L), MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted to read the command output.");
+		} catch (ExecutionException e) {
+			throw (e.getCause() instanceof IOException) ? (IOException) e.getCause() : new IOException(e.getCause());
+		} catch (TimeoutException e) {
+			throw new IOException("Timeout to read the command output.", e);
+		}
+	}
+
+	private static void cancelQuietly(Future<String> output) {
+		if (nonNull(output)) {
+			output.cancel(true);
+		}
+	}
+
+	/**
+	 * Pooled connection, the connection is only closed when it is no longer
+	 * in use, so that the client connected by concurrent acquirer will not be
+	 * leaked after eviction. The connecting is guarded by a separate lock, so
+	 * that the slow connecting does not block the eviction of others.
+	 */
+	class PooledConnection {
+		final private Object connectLock = new Object();
+		private int inUse;
+		private boolean evicted;
+		private long lastUsedTime = currentTimeMillis();
+		private volatile SSHClient client;
+
+		synchronized boolean tryAcquire() {
+			if (evicted) {
+				return false;
+			}
+			++inUse;
+			return true;
+		}
+
+		synchronized void release() {
+			--inUse;
+			lastUsedTime = currentTimeMillis();
+			if (evicted && inUse <= 0) {
+				close();
+			}
+		}
+
+		synchronized boolean evictIfIdle(long now, long idleMs) {
+			if (!evicted && inUse <= 0 && (now - lastUsedTime) > idleMs) {
+				evicted = true;
+				close();
+			}
+			return evicted;
+		}
+
+		synchronized void invalidate() {
+			evicted = true;
+			if (inUse <= 0) {
+				close();
+			}
+		}
+
+		SSHClient connect(String host, int port, String user, char[] privateKey) throws IOException {
+			synchronized (connectLock) {
+				return doConnect(host, port, user, privateKey);
+			}
+		}
+
+		private SSHClient doConnect(String host, int port, String user, char[] privateKey) throws IOException {
+			SSHClient client = this.client;
+			if (nonNull(client) && client.isConnected() && client.isAuthenticated()) {
+				return client;
+			}
+			close();
+			client = new SSHClient();
+			try {
+				if (isBlank(config.getSshKnownHostsFile())) {
+					client.loadKnownHosts();
+				} else {
+					client.loadKnownHosts(new File(config.getSshKnownHostsFile()));
+				}
+				client.connect(host, port);
+				client.authPublickey(user, client.loadKeys(new String(privateKey), null, null));
+			} catch (IOException e) {
+				client.close();
+				throw e;
+			}
+			connects.incrementAndGet();
+			log.info("Connected SSH2 of {}@{}:{}", user, host, port);
+			return (this.client = client);
+		}
+
+		synchronized void close() {
+			if (nonNull(client)) {
+				try {
+					client.close();
+				} catch (IOException e) {
+					log.warn("Failed to close SSH2 connection. caused by: {}", e.getMessage());
+				}
+				client = null;
+			}
+		}
+	}
+
+	/**
+	 * Writing to remote command stdin.
+	 */
+	@FunctionalInterface
+	public static interface StdinWriter {
+		void write(OutputStream out) throws IOException;
+	}
+
+	/**
+	 * Remote command execution result.
+	 */
+	public static class ExecResult {
+		final private Integer exitStatus;
+		final private String stdout;
+		final private String stderr;
+
+		public ExecResult(Integer exitStatus, String stdout, String stderr) {
+			this.exitStatus = exitStatus;
+			this.stdout = stdout;
+			this.stderr = stderr;
+		}
+
+		public Integer getExitStatus() {
+			return exitStatus;
+		}
+
+		public boolean isSuccess() {
+			return nonNull(exitStatus) && exitStatus == 0;
+		}
+
+		public String getStdout() {
+			return stdout;
+		}
+
+		public String getStderr() {
+			return stderr;
+		}
+	}
+
+}
@@ -35,13 +35,12 @@ import static org.springframework.util.CollectionUtils.isEmpty;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 import com.wl4g.dopaas.uci.service.ProjectService;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import com.wl4g.component.common.codec.CodecSource;
-import com.wl4g.component.common.crypto.symmetric.AES128ECBPKCS5;
 import com.wl4g.component.common.log.SmartLogger;
 import com.wl4g.component.core.framework.beans.NamingPrototypeBeanFactory;
 import com.wl4g.component.core.framework.operator.GenericOperatorAdapter;
@@ -55,12 +54,14 @@ import com.wl4g.dopaas.common.exception.ci.BadCommandScriptException;
 import com.wl4g.dopaas.common.exception.ci.PipelineIntegrationBuildingException;
 import com.wl4g.dopaas.uci.config.CiProperties;
 import com.wl4g.dopaas.uci.core.PipelineJobExecutor;
+import com.wl4g.dopaas.uci.core.PipelineLogWriter;
 import com.wl4g.dopaas.uci.core.context.PipelineContext;
 import com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl;
 import com.wl4g.dopaas.uci.data.PipeStageBuildingProjectDao;
 import com.wl4g.dopaas.uci.data.ProjectDao;
 import com.wl4g.dopaas.uci.pipeline.deploy.CossPipeDeployer;
 import com.wl4g.dopaas.uci.pipeline.deploy.DockerNativePipeDeployer;
+import com.wl4g.dopaas.uci.pipeline.deploy.ssh.SshKeyCache;
 import com.wl4g.dopaas.uci.service.DependencyService;
 import com.wl4g.dopaas.udm.service.EnterpriseApiService;
 import com.wl4g.dopaas.urm.operator.VcsOperator;
@@ -87,6 +88,8 @@ public abstract class AbstractPipelineProvider implements PipelineProvider {
 	protected @Autowired JedisLockManager lockManager;
 	protected @Autowired DestroableProcessManager pm;
 	protected @Autowired PipelineJobExecutor jobExecutor;
+	protected @Autowired PipelineLogWriter logWriter;
+	protected @Autowired SshKeyCache sshKeyCache;
 	protected @Autowired DefaultOrchestrationManagerImpl flowManager;
 
 	protected @Autowired DependencyService dependencyService;
@@ -227,7 +230,7 @@ public abstract class AbstractPipelineProvider implements PipelineProvider {
 	public char[] getUsableCipherSshKey(String sshkey) throws Exception {
 		// Obtain text-plain privateKey(RSA)
 		byte[] cipherKey = config.getDeploy().getCipherKey().getBytes(UTF_8);
-		char[] sshkeyPlain = new AES128ECBPKCS5().decrypt(cipherKey, CodecSource.fromHex(sshkey)).toString().toCharArray();
+		char[] sshkeyPlain = sshKeyCache.getPlainKey(sshkey);
 
 		log.info(writeBuildLog("Decryption plain sshkey: %s => %s", cipherKey, "******"));
 		return sshkeyPlain;
@@ -237,11 +240,18 @@ public abstract class AbstractPipelineProvider implements PipelineProvider {
 	 * Execution distribution transfer to remote instances for deployments.
 	 */
 	protected final void startExecutionDeploying() {
-		// Creating transfer instances jobs.
+		// Creating transfer instances jobs, limited concurrently deploying.
 		SshBean ssh = getContext().getAppCluster().getSsh();
+		Semaphore permits = new Semaphore(config.getDeploy().getDeployParallelism());
 		List<Runnable> jobs = safeList(getContext().getInstances()).stream().map(i -> {
 			return (Runnable) () -> {
 				File jobDeployerLog = config.getJobDeployerLog(context.getPipelineHistory().getId(), i.getId());
+				try {
+					permits.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
 				try {
 					writeBLineFile(jobDeployerLog, LOG_FILE_START);
 
@@ -257,6 +267,7 @@ public abstract class AbstractPipelineProvider implements PipelineProvider {
 					// TODO
 				} finally {
 					writeALineFile(jobDeployerLog, LOG_FILE_END);
+					permits.release();
 				}
 			};
 		}).collect(toList());
@@ -286,7 +297,8 @@ public abstract class AbstractPipelineProvider implements PipelineProvider {
 		String content = String.format(format, args);
 		String message = String.format("%s - pipe(%s) : %s", getDate("yy/MM/dd HH:mm:ss"),
 				getContext().getPipelineHistory().getId(), content);
-		writeALineFile(config.getJobLog(context.getPipelineHistory().getId()), message);
+		Long pipeHisId = context.getPipelineHistory().getId();
+		logWriter.append(pipeHisId, config.getJobLog(pipeHisId), message);
 		return content;
 	}
 
@@ -67,9 +67,9 @@ public abstract class BasedMavenPipelineProvider extends RestorableDeployPipelin
 
 		log.info(writeBuildLog("Building with maven default command: %s", defaultMvnBuildCmd));
 
-		// TODO timeoutMs/pwdDir?
-		DestroableCommand cmd = new LocalDestroableCommand(String.valueOf(taskId), defaultMvnBuildCmd, null, 300000L)
-				.setStdout(jobLogFile).setStderr(jobLogFile);
+		// TODO pwdDir?
+		DestroableCommand cmd = new LocalDestroableCommand(String.valueOf(taskId), defaultMvnBuildCmd, null,
+				getModuleBuildTimeoutMs(projectDir)).setStdout(jobLogFile).setStderr(jobLogFile);
 		pm.execWaitForComplete(cmd);
 	}
 
@@ -19,6 +19,10 @@ import com.wl4g.dopaas.common.exception.ci.DependencyCurrentlyInBuildingExceptio
 import com.wl4g.component.support.cli.command.DestroableCommand;
 import com.wl4g.component.support.cli.command.LocalDestroableCommand;
 import com.wl4g.dopaas.uci.core.context.PipelineContext;
+import com.wl4g.dopaas.uci.pipeline.dependency.ModuleDagExecutor;
+import com.wl4g.dopaas.uci.pipeline.dependency.ModuleDagExecutor.DagBuildResult;
+import com.wl4g.dopaas.uci.pipeline.dependency.SharedModuleBuilds;
+import com.wl4g.dopaas.common.bean.uci.Dependency;
 import com.wl4g.dopaas.common.bean.uci.PipeStageBuilding;
 import com.wl4g.dopaas.common.bean.uci.PipeStageBuildingProject;
 import com.wl4g.dopaas.common.bean.uci.PipelineHistory;
@@ -28,14 +32,20 @@ import com.wl4g.dopaas.common.bean.uci.model.PipelineModel;
 import com.wl4g.dopaas.urm.operator.VcsOperator.RefType;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
+import static com.wl4g.component.common.collection.CollectionUtils2.safeSet;
 import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
 import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.RUNNING_BUILD;
 import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.RUNNING_DEPLOY;
@@ -57,6 +67,9 @@ import static org.springframework.util.Assert.notNull;
  */
 public abstract class GenericDependenciesPipelineProvider extends AbstractPipelineProvider {
 
+	protected @Autowired ModuleDagExecutor dagExecutor;
+	protected @Autowired SharedModuleBuilds sharedBuilds;
+
 	public GenericDependenciesPipelineProvider(PipelineContext context) {
 		super(context);
 	}
@@ -111,19 +124,26 @@ public abstract class GenericDependenciesPipelineProvider extends AbstractPipeli
 
 		log.info(writeBuildLog("Analyzed pipelineModel=%s", toJSONString(pipelineModel)));
 
-		// Build of dependencies sub-modules.
+		// Build of dependencies sub-modules, independent modules concurrently.
+		Map<Long, PipeStageBuildingProject> buildingProjects = new LinkedHashMap<>();
 		for (PipeStageBuildingProject buildingProject : pipeStepBuildingProjects) {
 			// Is dependency Already build
-			if (flowManager.isDependencyBuilded(buildingProject.getProjectId())) {
-				continue;
+			if (!flowManager.isDependencyBuilded(buildingProject.getProjectId())) {
+				buildingProjects.put(buildingProject.getProjectId(), buildingProject);
 			}
-			pipelineModel.setCurrent(buildingProject.getProjectId());
-			flowManager.pipelineStateChange(pipelineModel);
-
-			doMutexBuildModuleInDependencies(buildingProject.getProjectId(),
-					StringUtils.isNotBlank(branchForce) ? branchForce : buildingProject.getRef(),
-					buildingProject.getBuildCommand());
 		}
+		final String branch = branchForce;
+		DagBuildResult<Long> result = dagExecutor.execute(resolveDependencyGraph(buildingProjects.keySet()), projectId -> {
+			PipeStageBuildingProject buildingProject = buildingProjects.get(projectId);
+			synchronized (pipelineModel) {
+				pipelineModel.setCurrent(projectId);
+				flowManager.pipelineStateChange(pipelineModel);
+			}
+			doMutexBuildModuleInDependencies(projectId, StringUtils.isNotBlank(branch) ? branch : buildingProject.getRef(),
+					buildingProject.getBuildCommand());
+		});
+		log.info(writeBuildLog("Built modules dependencies, wall-time: %sms, total-time: %sms, critical-path: %s cost: %sms",
+				result.getWallTimeMs(), result.getTotalTimeMs(), result.getCriticalPath(), result.getCriticalPathMs()));
 
 		// Build Success
 		pipelineModel.setCurrent(null);
@@ -145,23 +165,78 @@ public abstract class GenericDependenciesPipelineProvider extends AbstractPipeli
 	protected abstract void postBuiltModulesDependencies() throws Exception;
 
 	/**
-	 * Building module in dependencies with mutually.
+	 * Resolving the dependency graph of building modules, the key is module
+	 * projectId, value is projectIds of it's dependent on.
+	 * 
+	 * @param projectIds
+	 * @return
+	 */
+	private Map<Long, Set<Long>> resolveDependencyGraph(Set<Long> projectIds) {
+		Long mainProjectId = getContext().getProject().getId();
+		Map<Long, Set<Long>> graph = new LinkedHashMap<>();
+		for (Long projectId : projectIds) {
+			graph.put(projectId, new LinkedHashSet<>());
+		}
+		try {
+			for (Dependency depd : safeSet(dependencyService.getHierarchyDependencys(mainProjectId, null))) {
+				if (graph.containsKey(depd.getProjectId()) && graph.containsKey(depd.getDependentId())) {
+					graph.get(depd.getProjectId()).add(depd.getDependentId());
+				}
+			}
+			// The main project is built after all modules.
+			if (graph.containsKey(mainProjectId)) {
+				graph.get(mainProjectId).addAll(projectIds);
+			}
+		} catch (Exception e) {
+			log.warn("Failed to resolve dependencies of project: {}, fallback to build sequentially. caused by: {}",
+					mainProjectId, e.getMessage());
+			Long previous = null;
+			for (Long projectId : projectIds) {
+				if (previous != null) {
+					graph.get(projectId).add(previous);
+				}
+				previous = projectId;
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Building module in dependencies with mutually. The concurrently
+	 * building of the same module source on this node are joined to one
+	 * build.
 	 * 
 	 * @param projectId
-	 * @param dependencyId
 	 * @param branch
-	 * @param isDependency
 	 * @param buildCommand
 	 * @throws Exception
 	 */
 	private final void doMutexBuildModuleInDependencies(Long projectId, String branch, String buildCommand) throws Exception {
+		boolean built = sharedBuilds.buildOrJoin(projectId, branch, config.getBuild().getSharedDependencyTryTimeoutMs(),
+				() -> doDistributedMutexBuild(projectId, branch, buildCommand));
+		if (!built) {
+			log.info(writeBuildLog("Skipped build dependency of projectId: %s, reused the built artifacts.", projectId));
+		}
+
+		// Call after built command.
+		postModuleBuiltCommand();
+	}
+
+	/**
+	 * Building module with distributed mutually.
+	 * 
+	 * @param projectId
+	 * @param branch
+	 * @param buildCommand
+	 * @return Returns true if the building command was executed.
+	 * @throws Exception
+	 */
+	private boolean doDistributedMutexBuild(Long projectId, String branch, String buildCommand) throws Exception {
 		Lock lock = lockManager.getLock(LOCK_DEPENDENCY_BUILD + projectId, config.getBuild().getSharedDependencyTryTimeoutMs(),
 				TimeUnit.MILLISECONDS);
 		if (lock.tryLock()) { // Dependency build wait?
 			try {
-				pullSourceAndBuild(projectId, branch, buildCommand);
-			} catch (Exception e) {
-				throw e;
+				return pullSourceAndBuild(projectId, branch, buildCommand);
 			} finally {
 				lock.unlock();
 			}
@@ -185,7 +260,7 @@ public abstract class GenericDependenciesPipelineProvider extends AbstractPipeli
 				lock.unlock();
 			}
 		}
-
+		return false;
 	}
 
 	// --- VCS source's. ---
@@ -194,13 +269,12 @@ public abstract class GenericDependenciesPipelineProvider extends AbstractPipeli
 	 * Updating(pull & merge) source and module generic build.
 	 * 
 	 * @param projectId
-	 * @param dependencyId
 	 * @param branch
-	 * @param isDependency
 	 * @param buildCommand
+	 * @return Returns false if the built artifacts of same commit are reused.
 	 * @throws Exception
 	 */
-	private void pullSourceAndBuild(Long projectId, String branch, String buildCommand) throws Exception {
+	private boolean pullSourceAndBuild(Long projectId, String branch, String buildCommand) throws Exception {
 		log.info("Pipeline building for projectId: {}", projectId);
 
 		PipeStageBuilding pipeStepBuilding = getContext().getPipeStepBuilding();
@@ -221,8 +295,42 @@ public abstract class GenericDependenciesPipelineProvider extends AbstractPipeli
 			getVcsOperator(project).clone(project.getVcs(), project.getHttpUrl(), projectDir, branch);
 		}
 
+		// Already built of the same commit and command?
+		String signature = getBuiltSignature(project, projectDir, buildCommand);
+		if (sharedBuilds.isBuilt(projectId, signature)) {
+			return false;
+		}
+		sharedBuilds.startBuilding(projectId);
+
 		// Resolving placeholder & execution.
 		doResolvedBuildCommand(project, projectDir, buildCommand);
+		sharedBuilds.builtCompleted(projectId, signature);
+		return true;
+	}
+
+	/**
+	 * Gets built signature of module source, which consists of latest commit
+	 * and building command.
+	 * 
+	 * @param project
+	 * @param projectDir
+	 * @param buildCommand
+	 * @return Returns null if the latest commit is unknown.
+	 */
+	private String getBuiltSignature(Project project, String projectDir, String buildCommand) {
+		try {
+			String commit = getVcsOperator(project).getLatestCommitted(projectDir);
+			if (isBlank(commit)) {
+				return null;
+			}
+			ActionControl actionControl = getContext().getActionControl();
+			boolean test = Objects.nonNull(actionControl) && actionControl.isTest();
+			String command = isBlank(buildCommand) ? "default" : resolveCmdPlaceholderVariables(buildCommand);
+			return format("%s#%s#%s#%s", commit, getClass().getSimpleName(), test, command);
+		} catch (Exception e) {
+			log.warn("Failed to get latest committed of {}. caused by: {}", projectDir, e.getMessage());
+			return null;
+		}
 	}
 
 	// --- Building's. ---
@@ -251,14 +359,20 @@ public abstract class GenericDependenciesPipelineProvider extends AbstractPipeli
 			log.info(writeBuildLog("Building with customizes command: '%s' ...", buildCommand));
 
 			// Execute shell file.
-			// TODO timeoutMs?
 			DestroableCommand cmd = new LocalDestroableCommand(String.valueOf(pipelineHistory.getId()), buildCommand, tmpCmdFile,
-					300000L).setStdout(jobLogFile).setStderr(jobLogFile);
+					getModuleBuildTimeoutMs(projectDir)).setStdout(jobLogFile).setStderr(jobLogFile);
 			pm.execWaitForComplete(cmd);
 		}
+	}
 
-		// Call after built command.
-		postModuleBuiltCommand();
+	/**
+	 * Gets timeout of building command of module.
+	 * 
+	 * @param projectDir
+	 * @return
+	 */
+	protected Long getModuleBuildTimeoutMs(String projectDir) {
+		return config.getBuild().getModuleBuildTimeoutMs(new File(projectDir).getName());
 	}
 
 	/**
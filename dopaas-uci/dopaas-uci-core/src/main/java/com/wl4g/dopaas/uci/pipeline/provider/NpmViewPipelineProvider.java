@@ -63,9 +63,8 @@ public class NpmViewPipelineProvider extends RestorableDeployPipelineProvider {
 		// Execution command.
 		String defaultNpmBuildCmd = format(DEFAULT_NPM_CMD, projectDir);
 		log.info(writeBuildLog("Building with npm default command: %s", defaultNpmBuildCmd));
-		// TODO timeoutMs?
 		DestroableCommand cmd = new LocalDestroableCommand(String.valueOf(pipelineHistory.getId()), defaultNpmBuildCmd,
-				tmpCmdFile, 300000L).setStdout(jobLogFile).setStderr(jobLogFile);
+				tmpCmdFile, getModuleBuildTimeoutMs(projectDir)).setStdout(jobLogFile).setStderr(jobLogFile);
 		pm.execWaitForComplete(cmd);
 	}
 
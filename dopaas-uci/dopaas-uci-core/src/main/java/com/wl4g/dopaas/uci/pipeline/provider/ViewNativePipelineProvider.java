@@ -57,9 +57,8 @@ public class ViewNativePipelineProvider extends RestorableDeployPipelineProvider
 		// Execution command.
 		String defaultViewNativeBuildCmd = format(DEFAULT_CMD, projectDir);
 		log.info(writeBuildLog("Building with native default command: %s", defaultViewNativeBuildCmd));
-		// TODO timeoutMs?
 		DestroableCommand cmd = new LocalDestroableCommand(String.valueOf(pipelineHistory.getId()), defaultViewNativeBuildCmd,
-				tmpCmdFile, 300000L).setStdout(jobLogFile).setStderr(jobLogFile);
+				tmpCmdFile, getModuleBuildTimeoutMs(projectDir)).setStdout(jobLogFile).setStderr(jobLogFile);
 		pm.execWaitForComplete(cmd);
 	}
 
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.core;
+
+import static com.wl4g.component.common.io.FileIOUtils.seekReadLines;
+import static com.wl4g.component.common.io.FileIOUtils.writeALineFile;
+
+import java.io.File;
+
+import com.wl4g.component.common.io.FileIOUtils.ReadTailFrame;
+import com.wl4g.dopaas.uci.config.BuildProperties;
+
+/**
+ * Lines per second benchmark of {@link PipelineLogWriter} against the
+ * directly {@link com.wl4g.component.common.io.FileIOUtils#writeALineFile}
+ * per line writing.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class PipelineLogWriterBenchmarkTests {
+
+	final static int LINES = 200_000;
+	final static String LINE = "[INFO] Downloaded from central: https://repo.maven.apache.org/maven2/org/example/artifact/1.0/artifact-1.0.jar";
+
+	public static void main(String[] args) throws Exception {
+		File dir = new File(System.getProperty("java.io.tmpdir"), "uci-log-bench");
+		dir.mkdirs();
+
+		// Directly writing of per line.
+		File directLog = new File(dir, "direct.out.log");
+		directLog.delete();
+		long begin = System.nanoTime();
+		for (int i = 0; i < LINES; i++) {
+			writeALineFile(directLog, LINE);
+		}
+		long directCostMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		System.out.println(String.format("Direct write lines: %s, cost: %sms, throughput: %s lines/s", LINES, directCostMs,
+				LINES * 1000L / directCostMs));
+
+		// Buffered writing.
+		PipelineLogWriter writer = new PipelineLogWriter(new BuildProperties());
+		File bufferedLog = new File(dir, "buffered.out.log");
+		bufferedLog.delete();
+		Long pipeHisId = 1L;
+		begin = System.nanoTime();
+		writer.open(pipeHisId, bufferedLog, "<[EOF]");
+		for (int i = 0; i < LINES; i++) {
+			writer.append(pipeHisId, bufferedLog, LINE);
+		}
+		long appendCostNs = System.nanoTime() - begin;
+
+		// Tailing from in-memory offsets and the file.
+		Thread.sleep(500L);
+		long tailBegin = System.nanoTime();
+		long tailPos = bufferedLog.length() - 100 * (LINE + System.lineSeparator()).length();
+		ReadTailFrame frame = writer.tail(pipeHisId, tailPos, 100);
+		System.out.println(String.format("Tail from memory: %s, cost: %sus", (frame != null ? "hit" : "miss"),
+				(System.nanoTime() - tailBegin) / 1000));
+		tailBegin = System.nanoTime();
+		seekReadLines(bufferedLog.getAbsolutePath(), tailPos, 100, line -> false);
+		System.out.println(String.format("Tail from file cost: %sus", (System.nanoTime() - tailBegin) / 1000));
+
+		begin = System.nanoTime();
+		writer.close(pipeHisId, "[EOF]>");
+		long bufferedCostMs = Math.max(1, (appendCostNs + System.nanoTime() - begin) / 1000_000);
+		System.out.println(String.format("Buffered write lines: %s, cost: %sms, throughput: %s lines/s", LINES, bufferedCostMs,
+				LINES * 1000L / bufferedCostMs));
+		System.out.println(String.format("Buffered blocked: %s, flushes: %s, flushedBytes: %s", writer.getBlockedAppends(),
+				writer.getFlushes(), writer.getFlushedBytes()));
+
+		writer.destroy();
+	}
+
+}
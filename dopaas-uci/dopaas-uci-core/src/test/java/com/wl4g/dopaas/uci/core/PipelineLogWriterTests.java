@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.wl4g.dopaas.uci.config.BuildProperties;
+
+/**
+ * {@link PipelineLogWriterTests}
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-17
+ * @since
+ */
+public class PipelineLogWriterTests {
+
+	@Test
+	public void writeLongerThanBufferLineTest() throws Exception {
+		File logFile = Files.createTempFile("uci-log-", ".log").toFile();
+		logFile.deleteOnExit();
+		PipelineLogWriter writer = new PipelineLogWriter(new BuildProperties());
+		try {
+			char[] chars = new char[200 * 1024];
+			Arrays.fill(chars, 'x');
+			String longLine = new String(chars);
+			writer.open(1L, logFile, "first");
+			writer.append(1L, logFile, longLine);
+			writer.close(1L, "last");
+
+			List<String> lines = Files.readAllLines(logFile.toPath(), UTF_8);
+			assertEquals(Arrays.asList("first", longLine, "last"), lines);
+		} finally {
+			writer.destroy();
+		}
+	}
+
+	@Test
+	public void noDroppedLinesOnFullBufferTest() throws Exception {
+		File logFile = Files.createTempFile("uci-log-", ".log").toFile();
+		logFile.deleteOnExit();
+		BuildProperties config = new BuildProperties();
+		config.setLogBufferLines(16);
+		config.setLogFlushIntervalMs(60_000L);
+		PipelineLogWriter writer = new PipelineLogWriter(config);
+		try {
+			int threads = 4, linesPerThread = 5000;
+			writer.open(1L, logFile, "first");
+			Thread[] appenders = new Thread[threads];
+			for (int i = 0; i < threads; i++) {
+				final int t = i;
+				appenders[i] = new Thread(() -> {
+					for (int j = 0; j < linesPerThread; j++) {
+						writer.append(1L, logFile, "thread-" + t + " line-" + j);
+					}
+				});
+				appenders[i].start();
+			}
+			for (Thread t : appenders) {
+				t.join();
+			}
+			writer.close(1L, "last");
+
+			assertTrue(writer.getBlockedAppends() > 0);
+			List<String> lines = Files.readAllLines(logFile.toPath(), UTF_8);
+			assertEquals(threads * linesPerThread + 2, lines.size());
+			assertEquals("first", lines.get(0));
+			assertEquals("last", lines.get(lines.size() - 1));
+		} finally {
+			writer.destroy();
+		}
+	}
+
+}
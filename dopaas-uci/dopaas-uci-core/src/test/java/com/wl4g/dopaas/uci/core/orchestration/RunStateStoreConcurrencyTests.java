@@ -0,0 +1,279 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.core.orchestration;
+
+import static com.wl4g.dopaas.common.constant.UciConstants.CHANNEL_CI_RUN_COMPLETED;
+import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.RUNNING_BUILD;
+import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.SUCCESS;
+import static com.wl4g.dopaas.uci.core.orchestration.DefaultOrchestrationManagerImpl.FlowStatus.WAITING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.wl4g.component.support.cache.jedis.JedisClient;
+import com.wl4g.component.support.cache.jedis.JedisService;
+import com.wl4g.dopaas.common.bean.uci.model.PipelineModel;
+import com.wl4g.dopaas.common.bean.uci.model.RunModel;
+import com.wl4g.dopaas.common.bean.uci.model.RunModel.Pipeline;
+import com.wl4g.dopaas.uci.core.orchestration.JedisRunStateStore.CompletedEventSubscriber;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.embedded.RedisServer;
+
+/**
+ * Many simultaneous pipeline state changes of one orchestration running
+ * against {@link JedisRunStateStore} on an embedded redis, the pipeline state
+ * is updated by the lua script, and the completed events are pushed to the
+ * other nodes by pub/sub.
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class RunStateStoreConcurrencyTests {
+
+	final static int PIPELINES = 64;
+	final static int CHANGES = 50;
+
+	private static RedisServer redisServer;
+	private static JedisPool jedisPool;
+	private static JedisService jedisService;
+
+	@BeforeClass
+	public static void startRedis() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		redisServer = RedisServer.builder().port(port).setting("bind 127.0.0.1").build();
+		redisServer.start();
+		jedisPool = new JedisPool("127.0.0.1", port);
+		jedisService = new JedisService(newJedisClient(jedisPool));
+	}
+
+	@AfterClass
+	public static void stopRedis() {
+		if (jedisPool != null) {
+			jedisPool.close();
+		}
+		if (redisServer != null) {
+			redisServer.stop();
+		}
+	}
+
+	@Test
+	public void concurrentUpdatePipelineTest() throws Exception {
+		JedisRunStateStore store = new JedisRunStateStore(jedisService);
+		// Other node, waiting the completed events by pub/sub only.
+		JedisRunStateStore otherStore = new JedisRunStateStore(jedisService);
+		CompletedEventSubscriber subscriber = otherStore.new CompletedEventSubscriber();
+		Thread subscribing = new Thread(() -> {
+			try (Jedis jedis = jedisPool.getResource()) {
+				jedis.subscribe(subscriber, CHANNEL_CI_RUN_COMPLETED);
+			}
+		});
+		subscribing.start();
+		for (int i = 0; i < 100 && !subscriber.isSubscribed(); i++) {
+			Thread.sleep(50L);
+		}
+		assertTrue(subscriber.isSubscribed());
+
+		try {
+			RunModel run = newRunModel("CI_RUN_concurrent");
+			store.saveRunModel(run);
+			List<CompletableFuture<String>> completions = new ArrayList<>(PIPELINES * 2);
+			for (Pipeline pipeline : run.getPipelines()) {
+				completions.add(store.watchCompleted(run.getRunId(), pipeline.getPipeId()));
+				completions.add(otherStore.watchCompleted(run.getRunId(), pipeline.getPipeId()));
+			}
+			completions.forEach(c -> assertFalse(c.isDone()));
+
+			ExecutorService executor = Executors.newFixedThreadPool(PIPELINES);
+			try {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<?>> futures = new ArrayList<>(PIPELINES);
+				for (long pipeId = 0; pipeId < PIPELINES; pipeId++) {
+					final long id = pipeId;
+					futures.add(executor.submit(() -> {
+						start.await();
+						for (int i = 0; i <= CHANGES; i++) {
+							assertTrue(store.updatePipeline(run.getRunId(), newPipelineModel(run.getRunId(), id, i)));
+						}
+						return null;
+					}));
+				}
+				start.countDown();
+				for (Future<?> f : futures) {
+					f.get(30, SECONDS);
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+
+			// No completions are lost, either of local or other node.
+			for (CompletableFuture<String> c : completions) {
+				assertEquals(SUCCESS.toString(), c.get(10, SECONDS));
+			}
+			RunModel result = store.getRunModel(run.getRunId());
+			assertEquals(PIPELINES, result.getPipelines().size());
+			for (Pipeline pipeline : result.getPipelines()) {
+				assertEquals(SUCCESS.toString(), pipeline.getStatus());
+				assertEquals(Long.valueOf(CHANGES), pipeline.getCurrent());
+			}
+			// The transient runId of pipeline model is not persisted.
+			try (Jedis jedis = jedisPool.getResource()) {
+				String pipeline = jedis.hget(run.getRunId(), "0");
+				assertNotNull(pipeline);
+				assertFalse(pipeline, pipeline.contains("runId"));
+			}
+			assertTrue(store.removeRunModel(run.getRunId()));
+		} finally {
+			subscriber.unsubscribe();
+			subscribing.join(10_000L);
+		}
+	}
+
+	@Test
+	public void updatePipelineOfRemovedRunningTest() throws Exception {
+		JedisRunStateStore store = new JedisRunStateStore(jedisService);
+		RunModel run = newRunModel("CI_RUN_removed");
+		store.saveRunModel(run);
+		CompletableFuture<String> completion = store.watchCompleted(run.getRunId(), 0L);
+
+		// Unknown pipeline is not added to the running.
+		assertFalse(store.updatePipeline(run.getRunId(), newPipelineModel(run.getRunId(), PIPELINES, CHANGES)));
+		assertEquals(PIPELINES, store.getRunModel(run.getRunId()).getPipelines().size());
+
+		// Completed (removed) running is not recreated by late state changes.
+		assertTrue(store.removeRunModel(run.getRunId()));
+		assertFalse(store.updatePipeline(run.getRunId(), newPipelineModel(run.getRunId(), 0L, CHANGES)));
+		try (Jedis jedis = jedisPool.getResource()) {
+			assertFalse(jedis.exists(run.getRunId()));
+		}
+		assertNull(store.getRunModel(run.getRunId()));
+		assertFalse(completion.isDone());
+
+		// Watching of removed running is completed at once.
+		assertNull(store.watchCompleted(run.getRunId(), 1L).get(1, SECONDS));
+	}
+
+	@Test
+	public void cancelWatchingIndependentlyTest() throws Exception {
+		JedisRunStateStore store = new JedisRunStateStore(jedisService);
+		RunModel run = newRunModel("CI_RUN_cancel");
+		store.saveRunModel(run);
+		CompletableFuture<String> timedOut = store.watchCompleted(run.getRunId(), 0L);
+		CompletableFuture<String> waiting = store.watchCompleted(run.getRunId(), 0L);
+
+		// Cancelled by one waiting(e.g. timeout of batch) only.
+		assertTrue(timedOut.cancel(false));
+		assertFalse(waiting.isDone());
+		assertTrue(store.updatePipeline(run.getRunId(), newPipelineModel(run.getRunId(), 0L, CHANGES)));
+		assertEquals(SUCCESS.toString(), waiting.get(1, SECONDS));
+		assertTrue(store.removeRunModel(run.getRunId()));
+	}
+
+	@Test
+	public void recheckAfterSubscribedTest() throws Exception {
+		JedisRunStateStore store = new JedisRunStateStore(jedisService);
+		JedisRunStateStore otherStore = new JedisRunStateStore(jedisService);
+		RunModel run = newRunModel("CI_RUN_resubscribe");
+		store.saveRunModel(run);
+		CompletableFuture<String> completed = otherStore.watchCompleted(run.getRunId(), 0L);
+		CompletableFuture<String> running = otherStore.watchCompleted(run.getRunId(), 1L);
+
+		// Completed while the other node is not subscribed, the event is lost.
+		assertTrue(store.updatePipeline(run.getRunId(), newPipelineModel(run.getRunId(), 0L, CHANGES)));
+		assertTrue(store.updatePipeline(run.getRunId(), newPipelineModel(run.getRunId(), 1L, 1)));
+		assertFalse(completed.isDone());
+
+		CompletedEventSubscriber subscriber = otherStore.new CompletedEventSubscriber();
+		Thread subscribing = new Thread(() -> {
+			try (Jedis jedis = jedisPool.getResource()) {
+				jedis.subscribe(subscriber, CHANNEL_CI_RUN_COMPLETED);
+			}
+		});
+		subscribing.start();
+		try {
+			assertEquals(SUCCESS.toString(), completed.get(10, SECONDS));
+			assertFalse(running.isDone());
+		} finally {
+			subscriber.unsubscribe();
+			subscribing.join(10_000L);
+			store.removeRunModel(run.getRunId());
+		}
+	}
+
+	private static RunModel newRunModel(String runId) {
+		RunModel runModel = new RunModel();
+		runModel.setRunId(runId + "_" + System.nanoTime());
+		runModel.setType("FLOW");
+		runModel.setCreateTime(System.currentTimeMillis());
+		List<Pipeline> pipelines = new ArrayList<>(PIPELINES);
+		for (long pipeId = 0; pipeId < PIPELINES; pipeId++) {
+			Pipeline pipeline = new Pipeline();
+			pipeline.setPipeId(pipeId);
+			pipeline.setStatus(WAITING.toString());
+			pipelines.add(pipeline);
+		}
+		runModel.setPipelines(pipelines);
+		return runModel;
+	}
+
+	private static PipelineModel newPipelineModel(String runId, long pipeId, int change) {
+		PipelineModel pipeline = new PipelineModel();
+		pipeline.setRunId(runId);
+		pipeline.setPipeId(pipeId);
+		pipeline.setCurrent((long) change);
+		pipeline.setStatus((change == CHANGES ? SUCCESS : RUNNING_BUILD).toString());
+		return pipeline;
+	}
+
+	/**
+	 * Jedis client of embedded redis, each command is executed by a pooled
+	 * connection, so that the blocking subscribing does not hold others.
+	 */
+	private static JedisClient newJedisClient(JedisPool pool) {
+		return (JedisClient) Proxy.newProxyInstance(JedisClient.class.getClassLoader(), new Class[] { JedisClient.class },
+				(proxy, method, args) -> {
+					try (Jedis jedis = pool.getResource()) {
+						return Jedis.class.getMethod(method.getName(), method.getParameterTypes()).invoke(jedis, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+
+}
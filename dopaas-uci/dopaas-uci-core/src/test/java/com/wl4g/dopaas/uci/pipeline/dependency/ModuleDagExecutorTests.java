@@ -0,0 +1,278 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.uci.pipeline.dependency;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.wl4g.dopaas.uci.pipeline.dependency.ModuleDagExecutor.DagBuildResult;
+
+/**
+ * Building of a wide modules dependency graph by {@link ModuleDagExecutor}.
+ *
+ * <pre>
+ * lib0  lib1  ...  lib11
+ *   \     |        /
+ *       common
+ *         |
+ *        app
+ * </pre>
+ *
+ * @author agent <agent@local>
+ * @version v1.0.0 2026-10-16
+ * @since
+ */
+public class ModuleDagExecutorTests {
+
+	final static int WIDTH = 12;
+	final static long BUILD_COST_MS = 200L;
+
+	@Test
+	public void dependencyOrderingTest() throws Exception {
+		Map<Long, Set<Long>> graph = newWideGraph();
+		Set<Long> built = ConcurrentHashMap.newKeySet();
+		List<String> violations = new CopyOnWriteArrayList<>();
+		AtomicInteger running = new AtomicInteger(0);
+		AtomicInteger maxRunning = new AtomicInteger(0);
+
+		ModuleDagExecutor executor = new ModuleDagExecutor(4);
+		try {
+			DagBuildResult<Long> result = executor.execute(graph, module -> {
+				for (Long dep : graph.get(module)) {
+					if (!built.contains(dep)) {
+						violations.add(String.format("%s started before dependency %s built", module, dep));
+					}
+				}
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				Thread.sleep(BUILD_COST_MS);
+				running.decrementAndGet();
+				built.add(module);
+			});
+
+			assertTrue(violations.toString(), violations.isEmpty());
+			assertEquals(graph.keySet(), built);
+			// Independent modules are built concurrently, bounded by the pool.
+			assertEquals(4, maxRunning.get());
+			assertTrue(result.toString(), result.getWallTimeMs() < result.getTotalTimeMs());
+			List<Long> criticalPath = result.getCriticalPath();
+			assertEquals(3, criticalPath.size());
+			assertEquals(asList((long) WIDTH, (long) WIDTH + 1), criticalPath.subList(1, 3));
+		} finally {
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void failFastTest() throws Exception {
+		// The failed module and it's dependent, then independent modules.
+		Map<String, Set<String>> graph = new LinkedHashMap<>();
+		graph.put("failed", Collections.emptySet());
+		graph.put("dependent", Collections.singleton("failed"));
+		for (int i = 0; i < 4; i++) {
+			graph.put("independent" + i, Collections.emptySet());
+		}
+		Exception failure = new IllegalStateException("Build failure");
+		Set<String> started = ConcurrentHashMap.newKeySet();
+
+		ModuleDagExecutor executor = new ModuleDagExecutor(1);
+		try {
+			executor.execute(graph, module -> {
+				started.add(module);
+				if ("failed".equals(module)) {
+					throw failure;
+				}
+			});
+			fail("Expected the building failure");
+		} catch (IllegalStateException e) {
+			assertSame(failure, e);
+		} finally {
+			executor.destroy();
+		}
+		assertEquals(Collections.singleton("failed"), started);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void circularDependenciesTest() throws Exception {
+		Map<String, Set<String>> graph = new LinkedHashMap<>();
+		graph.put("a", Collections.singleton("b"));
+		graph.put("b", Collections.singleton("a"));
+		ModuleDagExecutor executor = new ModuleDagExecutor(1);
+		try {
+			executor.execute(graph, module -> fail("Should not build of circular dependencies"));
+		} finally {
+			executor.destroy();
+		}
+	}
+
+	/**
+	 * Wall-clock time of sequential against concurrent building, with fake
+	 * local git repositories (requires git command).
+	 */
+	@Test
+	public void wideGraphWallTimeTest() throws Exception {
+		assumeTrue(isGitAvailable());
+		File baseDir = Files.createTempDirectory("uci-dag-test").toFile();
+		File remoteDir = new File(baseDir, "remotes");
+		File workDir = new File(baseDir, "workspace");
+		Map<Long, Set<Long>> graph = newWideGraph();
+		for (Long projectId : graph.keySet()) {
+			createRepository(remoteDir, projectId);
+		}
+
+		// Sequential building.
+		SharedModuleBuilds sequentialBuilds = new SharedModuleBuilds();
+		ModuleDagExecutor sequential = new ModuleDagExecutor(1);
+		DagBuildResult<Long> result1;
+		try {
+			result1 = sequential.execute(graph,
+					projectId -> build(sequentialBuilds, remoteDir, new File(workDir, "seq"), projectId));
+		} finally {
+			sequential.destroy();
+		}
+
+		ModuleDagExecutor concurrent = new ModuleDagExecutor(4);
+		try {
+			// Concurrent building.
+			SharedModuleBuilds concurrentBuilds = new SharedModuleBuilds();
+			DagBuildResult<Long> result2 = concurrent.execute(graph,
+					projectId -> build(concurrentBuilds, remoteDir, new File(workDir, "con"), projectId));
+			assertEquals(graph.size(), sequentialBuilds.getBuilds());
+			assertEquals(graph.size(), concurrentBuilds.getBuilds());
+			assertTrue(String.format("Sequential: %s, concurrent: %s", result1, result2),
+					result2.getWallTimeMs() < result1.getWallTimeMs() / 2);
+
+			// Two pipelines building the same modules concurrently, each
+			// module is built once, then joined or reused.
+			SharedModuleBuilds pipelineBuilds = new SharedModuleBuilds();
+			File sharedWorkDir = new File(workDir, "shared");
+			CompletableFuture<?> pipeline1 = CompletableFuture.runAsync(() -> executeQuietly(concurrent, graph,
+					projectId -> build(pipelineBuilds, remoteDir, sharedWorkDir, projectId)));
+			CompletableFuture<?> pipeline2 = CompletableFuture.runAsync(() -> executeQuietly(concurrent, graph,
+					projectId -> build(pipelineBuilds, remoteDir, sharedWorkDir, projectId)));
+			CompletableFuture.allOf(pipeline1, pipeline2).join();
+			assertEquals(graph.size(), pipelineBuilds.getBuilds());
+			assertEquals(graph.size(), pipelineBuilds.getJoins() + pipelineBuilds.getReuses());
+		} finally {
+			concurrent.destroy();
+		}
+	}
+
+	private static Map<Long, Set<Long>> newWideGraph() {
+		Map<Long, Set<Long>> graph = new LinkedHashMap<>();
+		Set<Long> libs = new LinkedHashSet<>();
+		for (long i = 0; i < WIDTH; i++) {
+			graph.put(i, Collections.emptySet());
+			libs.add(i);
+		}
+		long common = WIDTH, app = WIDTH + 1;
+		graph.put(common, libs);
+		graph.put(app, new HashSet<>(asList(common)));
+		return graph;
+	}
+
+	private static void build(SharedModuleBuilds sharedBuilds, File remoteDir, File workDir, Long projectId)
+			throws Exception {
+		File projectDir = new File(workDir, "project" + projectId);
+		sharedBuilds.buildOrJoin(projectId, "master", 60_000L, () -> {
+			// Clone or pull.
+			if (new File(projectDir, ".git").exists()) {
+				exec(projectDir, "git", "pull", "-q");
+			} else {
+				exec(workDir, "git", "clone", "-q", new File(remoteDir, "project" + projectId).getAbsolutePath(),
+						projectDir.getAbsolutePath());
+			}
+			String signature = exec(projectDir, "git", "rev-parse", "HEAD").trim() + "#fake-build";
+			if (sharedBuilds.isBuilt(projectId, signature)) {
+				return false;
+			}
+			sharedBuilds.startBuilding(projectId);
+			Thread.sleep(BUILD_COST_MS); // Mock building.
+			sharedBuilds.builtCompleted(projectId, signature);
+			return true;
+		});
+	}
+
+	private static void executeQuietly(ModuleDagExecutor executor, Map<Long, Set<Long>> graph,
+			ModuleDagExecutor.ModuleBuilder<Long> builder) {
+		try {
+			executor.execute(graph, builder);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static boolean isGitAvailable() {
+		try {
+			exec(new File(System.getProperty("java.io.tmpdir")), "git", "--version");
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private static void createRepository(File remoteDir, long projectId) throws Exception {
+		File repoDir = new File(remoteDir, "project" + projectId);
+		repoDir.mkdirs();
+		exec(repoDir, "git", "init", "-q");
+		Files.write(new File(repoDir, "README.md").toPath(), ("project" + projectId).getBytes(UTF_8));
+		exec(repoDir, "git", "add", "README.md");
+		exec(repoDir, "git", "-c", "user.name=uci", "-c", "user.email=uci@localhost", "commit", "-q", "-m", "init");
+	}
+
+	private static String exec(File dir, String... command) throws IOException, InterruptedException {
+		dir.mkdirs();
+		Process process = new ProcessBuilder(command).directory(dir).redirectErrorStream(true).start();
+		byte[] output = readFully(process);
+		if (process.waitFor() != 0) {
+			throw new IllegalStateException(String.format("Failed to exec %s, %s", String.join(" ", command),
+					new String(output, UTF_8)));
+		}
+		return new String(output, UTF_8);
+	}
+
+	private static byte[] readFully(Process process) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+		for (int n; (n = process.getInputStream().read(buf)) > 0;) {
+			out.write(buf, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+}
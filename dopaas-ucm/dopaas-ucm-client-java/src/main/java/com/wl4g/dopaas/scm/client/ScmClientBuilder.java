@@ -26,12 +26,15 @@ import com.wl4g.dopaas.scm.client.config.ScmClientProperties;
 import com.wl4g.dopaas.scm.client.console.ScmManagementConsole;
 import com.wl4g.dopaas.scm.client.event.ConfigEventListener;
 import com.wl4g.dopaas.scm.client.repository.InMemoryRefreshRecordsRepository;
+import com.wl4g.dopaas.scm.client.repository.RefreshRecordsMeterBinder;
 import com.wl4g.dopaas.scm.client.repository.RefreshRecordsRepository;
 import com.wl4g.dopaas.scm.client.watch.RefreshWatcher;
 import com.wl4g.dopaas.scm.common.exception.ScmException;
 import com.wl4g.shell.core.EmbeddedShellServerBuilder;
 import com.wl4g.shell.core.handler.EmbeddedShellServer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * {@link ScmClientBuilder}
  *
@@ -51,6 +54,9 @@ public class ScmClientBuilder extends ScmClientProperties<ScmClientBuilder> {
 	/** {@link RefreshRecordsRepository} */
 	private RefreshRecordsRepository repository = new InMemoryRefreshRecordsRepository();
 
+	/** Meter registry of refresh records, micrometer is optional. */
+	private MeterRegistry meterRegistry;
+
 	/** Enable managementconsole for {@link ScmManagementConsole} */
 	private boolean enableManagementConsole = false;
 
@@ -118,6 +124,17 @@ public class ScmClientBuilder extends ScmClientProperties<ScmClientBuilder> {
 		return this;
 	}
 
+	/**
+	 * Sets meter registry, which the refresh records metrics of
+	 * {@link InMemoryRefreshRecordsRepository} are bound to.
+	 * 
+	 * @return
+	 */
+	public ScmClientBuilder withMeterRegistry(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		return this;
+	}
+
 	/**
 	 * Enable startup management console.
 	 * 
@@ -145,6 +162,11 @@ public class ScmClientBuilder extends ScmClientProperties<ScmClientBuilder> {
 			throw new Error("shouldn't be here");
 		}
 
+		// Bind refresh records metrics
+		if (nonNull(meterRegistry) && repository instanceof InMemoryRefreshRecordsRepository) {
+			new RefreshRecordsMeterBinder((InMemoryRefreshRecordsRepository) repository).bindTo(meterRegistry);
+		}
+
 		// Start console
 		if (enableManagementConsole) {
 			startManagementConsole(((GenericScmClient) client).getWatcher());
@@ -62,6 +62,11 @@ public class RefreshConfigEvent extends GenericScmEvent<RefreshContext> {
 			this.repository = repository;
 		}
 
+		/** Gets current refreshing release of {@link ReleaseConfigSourceWrapper} */
+		public ReleaseConfigSourceWrapper getRelease() {
+			return release;
+		}
+
 		/** Gets current refreshing sources of {@link ScmConfigSource} */
 		public List<ScmConfigSource> getSources() {
 			return release.getSources();
@@ -16,6 +16,7 @@
 package com.wl4g.dopaas.scm.client.event;
 
 import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static java.lang.System.currentTimeMillis;
 import static java.util.Objects.nonNull;
 
 import java.util.ArrayList;
@@ -60,8 +61,17 @@ public class ScmEventSubscriber {
 	@Subscribe
 	@AllowConcurrentEvents
 	public void onRefresh(RefreshConfigEvent event) {
-		for (ConfigEventListener l : listeners) {
-			l.onRefresh(event);
+		long begin = currentTimeMillis();
+		Throwable failure = null;
+		try {
+			for (ConfigEventListener l : listeners) {
+				l.onRefresh(event);
+			}
+		} catch (RuntimeException | Error e) {
+			failure = e;
+			throw e;
+		} finally {
+			watcher.getRepository().saveRefreshed(event.getSource().getRelease(), currentTimeMillis() - begin, failure);
 		}
 	}
 
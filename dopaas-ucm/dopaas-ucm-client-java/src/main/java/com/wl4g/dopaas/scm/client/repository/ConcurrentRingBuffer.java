@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.client.repository;
+
+import static com.wl4g.component.common.lang.Assert2.isTrueOf;
+import static java.lang.Math.max;
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed capacity lock-free ring buffer, the oldest elements are overwritten
+ * when full. The appending is O(1) (one sequence increment and one slot CAS),
+ * and the readings are snapshots of published slots, that never block the
+ * writers.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026-10-16
+ * @since
+ */
+public class ConcurrentRingBuffer<E> {
+
+	/** Capacity size */
+	private final int capacity;
+
+	/** Slots of ring, index is sequence modulo capacity. */
+	private final AtomicReferenceArray<Slot<E>> slots;
+
+	/** Next sequence of appending. */
+	private final AtomicLong sequence = new AtomicLong(0);
+
+	public ConcurrentRingBuffer(int capacity) {
+		isTrueOf(capacity > 0, "capacity");
+		this.capacity = capacity;
+		this.slots = new AtomicReferenceArray<>(capacity);
+	}
+
+	/**
+	 * Append element, overwrites the oldest if full.
+	 * 
+	 * @param element
+	 * @return Sequence of appended element.
+	 */
+	public long add(E element) {
+		long seq = sequence.getAndIncrement();
+		int index = (int) (seq % capacity);
+		Slot<E> slot = new Slot<>(seq, element);
+		for (;;) {
+			Slot<E> old = slots.get(index);
+			// The slower writer of older round can't overwrites the newer.
+			if (nonNull(old) && old.seq > seq) {
+				break;
+			}
+			if (slots.compareAndSet(index, old, slot)) {
+				break;
+			}
+		}
+		return seq;
+	}
+
+	/**
+	 * Gets element of sequence.
+	 * 
+	 * @param seq
+	 * @return Returns null if not published or has been overwritten.
+	 */
+	public E get(long seq) {
+		if (seq < 0) {
+			return null;
+		}
+		Slot<E> slot = slots.get((int) (seq % capacity));
+		return (nonNull(slot) && slot.seq == seq) ? slot.element : null;
+	}
+
+	/**
+	 * Gets the latest published element.
+	 * 
+	 * @param skip
+	 *            Number of the newer elements to skip, e.g. 0 is the latest, 1
+	 *            is the previous of latest.
+	 * @return
+	 */
+	public E latest(int skip) {
+		long end = sequence.get();
+		for (long seq = end - 1; seq >= max(0, end - capacity); seq--) {
+			E element = get(seq);
+			if (nonNull(element) && skip-- <= 0) {
+				return element;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Snapshot of published elements from sequence (inclusive) to now, in
+	 * appending order.
+	 * 
+	 * @param fromSeq
+	 * @return
+	 */
+	public List<E> snapshot(long fromSeq) {
+		return snapshot(fromSeq, sequence.get());
+	}
+
+	/**
+	 * Snapshot of published elements of sequence range [fromSeq, toSeq), in
+	 * appending order.
+	 * 
+	 * @param fromSeq
+	 * @param toSeq
+	 * @return
+	 */
+	public List<E> snapshot(long fromSeq, long toSeq) {
+		long begin = max(max(0, fromSeq), toSeq - capacity);
+		List<E> elements = new ArrayList<>((int) max(0, toSeq - begin));
+		for (long seq = begin; seq < toSeq; seq++) {
+			E element = get(seq);
+			if (nonNull(element)) {
+				elements.add(element);
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * Gets next sequence of appending, that is total of appended elements.
+	 * 
+	 * @return
+	 */
+	public long sequence() {
+		return sequence.get();
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Element with the sequence, used to detect overwritten slot.
+	 */
+	private static final class Slot<E> {
+		private final long seq;
+		private final E element;
+
+		private Slot(long seq, E element) {
+			this.seq = seq;
+			this.element = element;
+		}
+	}
+
+}
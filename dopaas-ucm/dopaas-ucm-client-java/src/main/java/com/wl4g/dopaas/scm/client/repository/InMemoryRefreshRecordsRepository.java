@@ -16,17 +16,29 @@
 package com.wl4g.dopaas.scm.client.repository;
 
 import static com.wl4g.component.common.lang.Assert2.isTrueOf;
-import static java.util.Collections.synchronizedList;
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.nonNull;
 
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+import com.wl4g.component.common.annotation.Nullable;
 import com.wl4g.dopaas.scm.common.model.ReportChangedRequest.ChangedRecord;
 
 /**
- * {@link InMemoryRefreshRecordsRepository}
+ * {@link InMemoryRefreshRecordsRepository}, the records are kept in the fixed
+ * capacity lock-free {@link ConcurrentRingBuffer}, so that the memory is
+ * bounded and the refresh threads are never contended on one monitor.
  *
  * @author Wangl.sir <wanglsir@gmail.com, 983708408@qq.com>
  * @version v1.0 2020-08-20
@@ -34,61 +46,73 @@ import com.wl4g.dopaas.scm.common.model.ReportChangedRequest.ChangedRecord;
  */
 public class InMemoryRefreshRecordsRepository implements RefreshRecordsRepository {
 
-	/** Capacity size */
-	private final int capacity;
+	/** Refresh configuration source cache registry. */
+	private final ConcurrentRingBuffer<ReleaseConfigSourceWrapper> refreshConfigStore;
+
+	/** Refreshed configuration changed records. */
+	private final ConcurrentRingBuffer<ChangedRecord> changeRecordStore;
+
+	/** Sequence of changed records that has been polled(reported). */
+	private final AtomicLong changePolledSeq = new AtomicLong(0);
+
+	/** Refreshed records history. */
+	private final ConcurrentRingBuffer<RefreshedRecord> refreshedStore;
+
+	/** Refreshed counters of all sources. */
+	private final RefreshedCounter totalCounter = new RefreshedCounter(null);
+
+	/** Refreshed counters of per source(profile). */
+	private final Map<String, RefreshedCounter> sourceCounters = new ConcurrentHashMap<>(8);
+
+	/** Callbacks of new source counter created, e.g. register meters. */
+	private final List<Consumer<RefreshedCounter>> sourceCounterListeners = new CopyOnWriteArrayList<>();
 
 	public InMemoryRefreshRecordsRepository() {
 		this(10);
 	}
 
 	public InMemoryRefreshRecordsRepository(int capacity) {
+		this(capacity, DEFAULT_RECORDS_CAPACITY);
+	}
+
+	public InMemoryRefreshRecordsRepository(int capacity, int recordsCapacity) {
 		isTrueOf(capacity > 0, "capacity");
-		this.capacity = capacity;
+		isTrueOf(recordsCapacity > 0, "recordsCapacity");
+		this.refreshConfigStore = new ConcurrentRingBuffer<>(capacity);
+		this.changeRecordStore = new ConcurrentRingBuffer<>(recordsCapacity);
+		this.refreshedStore = new ConcurrentRingBuffer<>(recordsCapacity);
 	}
 
 	// --- Release config source. ---
 
 	@Override
 	public void saveReleaseSource(ReleaseConfigSourceWrapper wrapper) {
-		if (refreshConfigStore.size() <= capacity) {
-			refreshConfigStore.add(wrapper);
-		}
+		refreshConfigStore.add(wrapper);
 	}
 
 	@Override
 	public ReleaseConfigSourceWrapper getLastReleaseSource() {
-		if (refreshConfigStore.isEmpty()) {
-			return null;
-		}
-		int size = refreshConfigStore.size();
-		if (size > 1) {
-			return refreshConfigStore.get(size - 2);
-		}
-		return refreshConfigStore.get(0);
+		ReleaseConfigSourceWrapper last = refreshConfigStore.latest(1);
+		return nonNull(last) ? last : refreshConfigStore.latest(0);
 	}
 
 	@Override
 	public ReleaseConfigSourceWrapper getCurrentReleaseSource() {
-		if (refreshConfigStore.isEmpty()) {
-			return null;
-		}
-		return refreshConfigStore.get(refreshConfigStore.size() - 1);
+		return refreshConfigStore.latest(0);
 	}
 
 	// --- Changed records. ---
 
 	@Override
 	public Collection<ChangedRecord> pollChangedAll() {
-		try {
-			return changeRecordStore;
-		} finally {
-			changeRecordStore.clear();
-		}
+		long toSeq = changeRecordStore.sequence();
+		long fromSeq = changePolledSeq.getAndAccumulate(toSeq, Math::max);
+		return changeRecordStore.snapshot(fromSeq, toSeq);
 	}
 
 	@Override
 	public Collection<ChangedRecord> getChangedAll() {
-		return changeRecordStore;
+		return changeRecordStore.snapshot(changePolledSeq.get());
 	}
 
 	@Override
@@ -96,10 +120,173 @@ public class InMemoryRefreshRecordsRepository implements RefreshRecordsRepositor
 		changeRecordStore.add(new ChangedRecord(changedKeys, wrapper.getRelease()));
 	}
 
-	/** Refresh configuration source cache registry. */
-	private static final List<ReleaseConfigSourceWrapper> refreshConfigStore = synchronizedList(new LinkedList<>());
+	// --- Refreshed records. ---
 
-	/** Refreshed configuration changed records. */
-	private static final List<ChangedRecord> changeRecordStore = synchronizedList(new LinkedList<>());
+	@Override
+	public void saveRefreshed(ReleaseConfigSourceWrapper wrapper, long costMs, @Nullable Throwable failure) {
+		boolean failed = nonNull(failure);
+		refreshedStore.add(new RefreshedRecord(currentTimeMillis(), wrapper.getChangedProfiles(), costMs,
+				failed ? failure.toString() : null));
+		totalCounter.increment(costMs, failed);
+		for (String source : wrapper.getChangedProfiles()) {
+			RefreshedCounter counter = sourceCounters.get(source);
+			if (counter == null) {
+				counter = sourceCounters.computeIfAbsent(source, s -> newSourceCounter(s));
+			}
+			counter.increment(costMs, failed);
+		}
+	}
+
+	/**
+	 * Gets snapshot of the latest refreshed records, in refreshing order.
+	 * 
+	 * @return
+	 */
+	public List<RefreshedRecord> getRefreshedRecords() {
+		return refreshedStore.snapshot(0);
+	}
+
+	public RefreshedCounter getTotalCounter() {
+		return totalCounter;
+	}
+
+	public Map<String, RefreshedCounter> getSourceCounters() {
+		return unmodifiableMap(sourceCounters);
+	}
+
+	/**
+	 * Adds callback of source counters, the existing counters will be called
+	 * immediately. A counter created concurrently with adding may be called
+	 * twice, so the callback should be idempotent(e.g. meter registering).
+	 * 
+	 * @param listener
+	 */
+	public void addSourceCounterListener(Consumer<RefreshedCounter> listener) {
+		notNullOf(listener, "listener");
+		sourceCounterListeners.add(listener);
+		sourceCounters.values().forEach(listener);
+	}
+
+	private RefreshedCounter newSourceCounter(String source) {
+		RefreshedCounter counter = new RefreshedCounter(source);
+		for (Consumer<RefreshedCounter> listener : sourceCounterListeners) {
+			listener.accept(counter);
+		}
+		return counter;
+	}
+
+	/**
+	 * Refreshed record of released configuration source.
+	 */
+	public static class RefreshedRecord {
+
+		/** Refreshed timestamp. */
+		private final long timestamp;
+
+		/** Changed sources(profiles) of refreshing. */
+		private final Set<String> sources;
+
+		/** Cost of refreshing (Ms). */
+		private final long costMs;
+
+		/** Failure message, null if success. */
+		private final String failure;
+
+		public RefreshedRecord(long timestamp, Set<String> sources, long costMs, String failure) {
+			this.timestamp = timestamp;
+			this.sources = sources;
+			this.costMs = costMs;
+			this.failure = failure;
+		}
+
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public Set<String> getSources() {
+			return sources;
+		}
+
+		public long getCostMs() {
+			return costMs;
+		}
+
+		public String getFailure() {
+			return failure;
+		}
+
+		public boolean isSuccess() {
+			return failure == null;
+		}
+
+		@Override
+		public String toString() {
+			return "RefreshedRecord [timestamp=" + timestamp + ", sources=" + sources + ", costMs=" + costMs + ", failure="
+					+ failure + "]";
+		}
+
+	}
+
+	/**
+	 * Refreshed counter of source.
+	 */
+	public static class RefreshedCounter {
+
+		/** Source(profile) name, null if total of all sources. */
+		private final String source;
+		private final LongAdder refreshes = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder totalCostMs = new LongAdder();
+		private final LongAccumulator maxCostMs = new LongAccumulator(Math::max, 0);
+		private volatile long lastCostMs;
+
+		public RefreshedCounter(String source) {
+			this.source = source;
+		}
+
+		void increment(long costMs, boolean failed) {
+			refreshes.increment();
+			if (failed) {
+				failures.increment();
+			}
+			totalCostMs.add(costMs);
+			maxCostMs.accumulate(costMs);
+			lastCostMs = costMs;
+		}
+
+		public String getSource() {
+			return source;
+		}
+
+		public long getRefreshes() {
+			return refreshes.sum();
+		}
+
+		public long getFailures() {
+			return failures.sum();
+		}
+
+		public long getTotalCostMs() {
+			return totalCostMs.sum();
+		}
+
+		public long getMaxCostMs() {
+			return maxCostMs.get();
+		}
+
+		public long getLastCostMs() {
+			return lastCostMs;
+		}
+
+		@Override
+		public String toString() {
+			return "RefreshedCounter [source=" + source + ", refreshes=" + getRefreshes() + ", failures=" + getFailures()
+					+ ", totalCostMs=" + getTotalCostMs() + ", maxCostMs=" + getMaxCostMs() + "]";
+		}
+
+	}
+
+	/** Default capacity of changed and refreshed records. */
+	public static final int DEFAULT_RECORDS_CAPACITY = 1024;
 
-}
\ No newline at end of file
+}
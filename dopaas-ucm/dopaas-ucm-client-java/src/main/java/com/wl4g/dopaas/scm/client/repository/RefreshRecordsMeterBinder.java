@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.client.repository;
+
+import static com.wl4g.component.common.lang.Assert2.notNullOf;
+import static java.util.Objects.isNull;
+
+import javax.validation.constraints.NotNull;
+
+import com.wl4g.dopaas.scm.client.repository.InMemoryRefreshRecordsRepository.RefreshedCounter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer gauges of refreshed count, duration and failures of
+ * {@link InMemoryRefreshRecordsRepository}, the per source meters are
+ * registered as soon as the source is first refreshed.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026-10-16
+ * @since
+ */
+public class RefreshRecordsMeterBinder implements MeterBinder {
+
+	/** {@link InMemoryRefreshRecordsRepository} */
+	protected final InMemoryRefreshRecordsRepository repository;
+
+	public RefreshRecordsMeterBinder(@NotNull InMemoryRefreshRecordsRepository repository) {
+		notNullOf(repository, "repository");
+		this.repository = repository;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bindCounter(registry, repository.getTotalCounter());
+		repository.addSourceCounterListener(counter -> bindCounter(registry, counter));
+	}
+
+	private void bindCounter(MeterRegistry registry, RefreshedCounter counter) {
+		Tags tags = isNull(counter.getSource()) ? Tags.of("source", "all") : Tags.of("source", counter.getSource());
+		FunctionCounter.builder(METRIC_REFRESH_COUNT, counter, RefreshedCounter::getRefreshes).tags(tags)
+				.description("Total of SCM client configuration refreshes").register(registry);
+		FunctionCounter.builder(METRIC_REFRESH_FAILURES, counter, RefreshedCounter::getFailures).tags(tags)
+				.description("Total of SCM client configuration refresh failures").register(registry);
+		Gauge.builder(METRIC_REFRESH_DURATION_LAST, counter, RefreshedCounter::getLastCostMs).tags(tags).baseUnit("milliseconds")
+				.description("Duration of the last SCM client configuration refresh").register(registry);
+		Gauge.builder(METRIC_REFRESH_DURATION_MAX, counter, RefreshedCounter::getMaxCostMs).tags(tags).baseUnit("milliseconds")
+				.description("Max duration of SCM client configuration refreshes").register(registry);
+		FunctionCounter.builder(METRIC_REFRESH_DURATION_TOTAL, counter, RefreshedCounter::getTotalCostMs).tags(tags)
+				.baseUnit("milliseconds").description("Total duration of SCM client configuration refreshes")
+				.register(registry);
+	}
+
+	public static final String METRIC_REFRESH_COUNT = "scm.client.refresh.count";
+	public static final String METRIC_REFRESH_FAILURES = "scm.client.refresh.failures";
+	public static final String METRIC_REFRESH_DURATION_LAST = "scm.client.refresh.duration.last";
+	public static final String METRIC_REFRESH_DURATION_MAX = "scm.client.refresh.duration.max";
+	public static final String METRIC_REFRESH_DURATION_TOTAL = "scm.client.refresh.duration.total";
+
+}
@@ -18,6 +18,7 @@ package com.wl4g.dopaas.scm.client.repository;
 import java.util.Collection;
 import java.util.Set;
 
+import com.wl4g.component.common.annotation.Nullable;
 import com.wl4g.dopaas.scm.common.model.ReportChangedRequest.ChangedRecord;
 
 /**
@@ -74,4 +75,19 @@ public interface RefreshRecordsRepository {
 	 */
 	void saveChanged(Set<String> changedKeys, ReleaseConfigSourceWrapper wrapper);
 
+	// --- Refreshed records .---
+
+	/**
+	 * Save refreshed record of released configuration source, ignored by
+	 * default.
+	 * 
+	 * @param wrapper
+	 * @param costMs
+	 *            Cost of refreshing listeners.
+	 * @param failure
+	 *            Null if refresh success.
+	 */
+	default void saveRefreshed(ReleaseConfigSourceWrapper wrapper, long costMs, @Nullable Throwable failure) {
+	}
+
 }
\ No newline at end of file
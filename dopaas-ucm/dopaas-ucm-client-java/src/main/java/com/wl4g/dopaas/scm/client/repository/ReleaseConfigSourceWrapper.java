@@ -18,14 +18,18 @@ package com.wl4g.dopaas.scm.client.repository;
 import static com.wl4g.component.common.lang.Assert2.notEmptyOf;
 import static com.wl4g.component.common.lang.Assert2.notNullOf;
 import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
+import static java.util.stream.Collectors.toSet;
 
 import java.util.List;
+import java.util.Set;
 
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
 import com.wl4g.dopaas.scm.common.config.ScmConfigSource;
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigProfile;
 import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo.ReleaseContent;
 
 import lombok.Getter;
 
@@ -49,11 +53,34 @@ public class ReleaseConfigSourceWrapper {
 	 */
 	private final List<ScmConfigSource> sources;
 
+	/**
+	 * Changed profiles of this release, see {@link ConfigProfile#asKey()}
+	 */
+	private final Set<String> changedProfiles;
+
 	public ReleaseConfigSourceWrapper(@NotNull ReleaseConfigInfo release, @NotEmpty List<ScmConfigSource> sources) {
+		this(release, sources, release.getReleases().stream().map(r -> r.getProfile().asKey()).collect(toSet()));
+	}
+
+	public ReleaseConfigSourceWrapper(@NotNull ReleaseConfigInfo release, @NotEmpty List<ScmConfigSource> sources,
+			@NotNull Set<String> changedProfiles) {
 		notNullOf(release, "release");
 		notEmptyOf(sources, "sources");
+		notNullOf(changedProfiles, "changedProfiles");
 		this.release = release;
 		this.sources = sources;
+		this.changedProfiles = changedProfiles;
+	}
+
+	/**
+	 * Check whether the property source of profile has changed in this
+	 * release.
+	 * 
+	 * @param content
+	 * @return
+	 */
+	public boolean isChanged(ReleaseContent content) {
+		return changedProfiles.contains(content.getProfile().asKey());
 	}
 
 	@Override
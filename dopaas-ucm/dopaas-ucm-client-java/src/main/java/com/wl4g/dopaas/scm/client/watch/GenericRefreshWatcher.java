@@ -42,10 +42,12 @@ import static com.wl4g.dopaas.scm.common.SCMConstants.*;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Objects.nonNull;
-import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.validation.constraints.NotNull;
 
@@ -164,6 +166,14 @@ public abstract class GenericRefreshWatcher extends GenericTaskRunner<RunnerProp
 		fetch.setNode(nodeHolder.getConfigNode());
 		fetch.setProfiles(config.getProfiles());
 		fetch.setMeta(nonNull(last) ? last.getRelease().getMeta() : null);
+
+		// Content hashes of current applied, the server only sends changed.
+		ReleaseConfigSourceWrapper current = repository.getCurrentReleaseSource();
+		if (nonNull(current)) {
+			for (ReleaseContent content : safeList(current.getRelease().getReleases())) {
+				fetch.getContentHashes().put(content.getProfile().asKey(), content.getContentHash());
+			}
+		}
 		return fetch;
 	}
 
@@ -194,17 +204,19 @@ public abstract class GenericRefreshWatcher extends GenericTaskRunner<RunnerProp
 
 			// Extract config result
 			notNull(info, ScmException.class, "Watch received config source not available");
-			info.validate(true, true);
+			if (safeList(info.getReleases()).isEmpty()) {
+				log.info("Unchanged property sources of release: {}, skip refresh.", info.getMeta());
+				break;
+			}
 
-			// Print release sources
-			printConfigSources(info);
+			// Merge with current unchanged property sources.
+			ReleaseConfigSourceWrapper wrapper = mergeReleaseSource(info);
+			wrapper.getRelease().validate(true, true);
 
-			// Resolving to property sources.
-			List<ScmConfigSource> sources = safeList(info.getReleases()).stream()
-					.map(r -> resolver.resolve(r.getProfile(), r.getSourceContent())).collect(toList());
+			// Print release sources
+			printConfigSources(wrapper.getRelease());
 
 			// Addition refresh config source.
-			ReleaseConfigSourceWrapper wrapper = new ReleaseConfigSourceWrapper(info, sources);
 			repository.saveReleaseSource(wrapper);
 
 			// Publishing refresh
@@ -222,6 +234,43 @@ public abstract class GenericRefreshWatcher extends GenericTaskRunner<RunnerProp
 		}
 	}
 
+	/**
+	 * Merge the changed property sources of release into current applied,
+	 * only the changed property sources will be resolved.
+	 * 
+	 * @param info
+	 * @return
+	 */
+	protected ReleaseConfigSourceWrapper mergeReleaseSource(ReleaseConfigInfo info) {
+		Map<String, ReleaseContent> changeds = new LinkedHashMap<>(4);
+		for (ReleaseContent content : info.getReleases()) {
+			changeds.put(content.getProfile().asKey(), content);
+		}
+
+		List<ReleaseContent> releases = new ArrayList<>(changeds.size());
+		List<ScmConfigSource> sources = new ArrayList<>(changeds.size());
+
+		// Reuse resolved sources of unchanged profiles.
+		ReleaseConfigSourceWrapper current = repository.getCurrentReleaseSource();
+		if (nonNull(current)) {
+			List<ReleaseContent> currentReleases = safeList(current.getRelease().getReleases());
+			for (int i = 0; i < currentReleases.size(); i++) {
+				ReleaseContent content = currentReleases.get(i);
+				if (!changeds.containsKey(content.getProfile().asKey())) {
+					releases.add(content);
+					sources.add(current.getSources().get(i));
+				}
+			}
+		}
+		for (ReleaseContent content : changeds.values()) {
+			releases.add(content);
+			sources.add(resolver.resolve(content.getProfile(), content.getSourceContent()));
+		}
+		info.setReleases(releases);
+
+		return new ReleaseConfigSourceWrapper(info, sources, changeds.keySet());
+	}
+
 	/**
 	 * Prints configuration sources.
 	 * 
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.client.repository;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.synchronizedList;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.wl4g.dopaas.scm.common.config.ScmConfigSource;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Multi-threaded throughput benchmark of
+ * {@link InMemoryRefreshRecordsRepository#saveRefreshed} against the
+ * synchronized list recording, and the memory boundary verification of one
+ * million refreshes (recommended: -Xmx64m).
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026-10-16
+ * @since
+ */
+public class InMemoryRefreshRecordsRepositoryBenchmarkTests {
+
+	final static int RECORDS = 2_000_000;
+	final static int REFRESHES = 1_000_000;
+	final static int[] THREADS = { 1, 2, 4, 8 };
+
+	public static void main(String[] args) throws Exception {
+		ReleaseConfigSourceWrapper[] wrappers = new ReleaseConfigSourceWrapper[16];
+		for (int i = 0; i < wrappers.length; i++) {
+			wrappers[i] = new ReleaseConfigSourceWrapper(new ReleaseConfigInfo(), singletonList(new ScmConfigSource() {
+				private static final long serialVersionUID = 1L;
+			}), singleton("yaml:application-" + i + ".yml"));
+		}
+
+		// Throughput of recording.
+		for (int threads : THREADS) {
+			ConcurrentRingBuffer<Object> ring = new ConcurrentRingBuffer<>(DEFAULT_RECORDS_CAPACITY);
+			long ringCostMs = concurrentRun(threads, i -> ring.add(wrappers[i & 15]));
+
+			// Bounded synchronized list, which is the same as ring semantics.
+			List<Object> list = synchronizedList(new LinkedList<>());
+			long listCostMs = concurrentRun(threads, i -> {
+				synchronized (list) {
+					list.add(wrappers[i & 15]);
+					if (list.size() > DEFAULT_RECORDS_CAPACITY) {
+						list.remove(0);
+					}
+				}
+			});
+
+			InMemoryRefreshRecordsRepository repository = new InMemoryRefreshRecordsRepository();
+			long saveCostMs = concurrentRun(threads, i -> repository.saveRefreshed(wrappers[i & 15], i & 127, null));
+			System.out.println(String.format(
+					"Threads: %s, ring: %s ops/s, synchronized list: %s ops/s, saveRefreshed: %s ops/s, refreshes: %s", threads,
+					RECORDS * 1000L / ringCostMs, RECORDS * 1000L / listCostMs, RECORDS * 1000L / saveCostMs,
+					repository.getTotalCounter().getRefreshes()));
+		}
+
+		// Memory boundary of one million refreshes.
+		InMemoryRefreshRecordsRepository repository = new InMemoryRefreshRecordsRepository();
+		long baselineUsed = 0;
+		for (int i = 1; i <= REFRESHES; i++) {
+			ReleaseConfigSourceWrapper wrapper = new ReleaseConfigSourceWrapper(new ReleaseConfigInfo(),
+					wrappers[i & 15].getSources(), wrappers[i & 15].getChangedProfiles());
+			repository.saveReleaseSource(wrapper);
+			repository.saveChanged(singleton("key" + i), wrapper);
+			repository.saveRefreshed(wrapper, i & 127, (i % 100 == 0) ? new IllegalStateException("failure" + i) : null);
+			if (i % 100_000 == 0) {
+				long used = usedHeap();
+				if (i == 100_000) {
+					baselineUsed = used;
+				}
+				System.out.println(String.format("Refreshes: %s, changed records: %s, refreshed records: %s, used heap: %sKB", i,
+						repository.getChangedAll().size(), repository.getRefreshedRecords().size(), used / 1024));
+				if (repository.getChangedAll().size() > DEFAULT_RECORDS_CAPACITY
+						|| repository.getRefreshedRecords().size() > DEFAULT_RECORDS_CAPACITY) {
+					throw new IllegalStateException("Records exceeded capacity");
+				}
+				if (used - baselineUsed > MAX_HEAP_GROWTH) {
+					throw new IllegalStateException(
+							String.format("Memory unbounded, heap growth: %sKB", (used - baselineUsed) / 1024));
+				}
+			}
+		}
+		System.out.println("Total: " + repository.getTotalCounter());
+		System.out.println("Sources: " + repository.getSourceCounters().values());
+
+		// Metrics bound to multiple registries.
+		InMemoryRefreshRecordsRepository metricsRepository = new InMemoryRefreshRecordsRepository();
+		MeterRegistry registry1 = new SimpleMeterRegistry();
+		MeterRegistry registry2 = new SimpleMeterRegistry();
+		new RefreshRecordsMeterBinder(metricsRepository).bindTo(registry1);
+		metricsRepository.saveRefreshed(wrappers[0], 10, null);
+		new RefreshRecordsMeterBinder(metricsRepository).bindTo(registry2);
+		metricsRepository.saveRefreshed(wrappers[1], 20, new IllegalStateException("failure"));
+		for (MeterRegistry registry : new MeterRegistry[] { registry1, registry2 }) {
+			double all = registry.get(RefreshRecordsMeterBinder.METRIC_REFRESH_COUNT).tag("source", "all").functionCounter()
+					.count();
+			double source0 = registry.get(RefreshRecordsMeterBinder.METRIC_REFRESH_COUNT)
+					.tag("source", "yaml:application-0.yml").functionCounter().count();
+			double failures1 = registry.get(RefreshRecordsMeterBinder.METRIC_REFRESH_FAILURES)
+					.tag("source", "yaml:application-1.yml").functionCounter().count();
+			System.out.println(String.format("Registry refreshes: %s, source0: %s, source1 failures: %s", all, source0,
+					failures1));
+			if (all != 2d || source0 != 1d || failures1 != 1d) {
+				throw new IllegalStateException("Refresh records metrics mismatch");
+			}
+		}
+	}
+
+	private static long concurrentRun(int threads, Recorder recorder) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threads);
+		AtomicLong counter = new AtomicLong(0);
+		for (int t = 0; t < threads; t++) {
+			new Thread(() -> {
+				try {
+					start.await();
+					for (long i; (i = counter.getAndAdd(1024)) < RECORDS;) {
+						for (long j = i, end = Math.min(i + 1024, RECORDS); j < end; j++) {
+							recorder.record((int) j);
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		return Math.max(1, (System.nanoTime() - begin) / 1000_000);
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50L);
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	@FunctionalInterface
+	static interface Recorder {
+		void record(int i);
+	}
+
+	final static int DEFAULT_RECORDS_CAPACITY = InMemoryRefreshRecordsRepository.DEFAULT_RECORDS_CAPACITY;
+	final static long MAX_HEAP_GROWTH = 8 * 1024 * 1024L;
+
+}
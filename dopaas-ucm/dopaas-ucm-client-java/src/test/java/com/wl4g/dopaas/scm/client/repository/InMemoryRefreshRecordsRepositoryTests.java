@@ -0,0 +1,118 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.client.repository;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.wl4g.dopaas.scm.common.config.ScmConfigSource;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
+import com.wl4g.dopaas.scm.common.model.ReportChangedRequest.ChangedRecord;
+
+/**
+ * Correctness of {@link InMemoryRefreshRecordsRepository}, the records are
+ * bounded by capacity under concurrent recording.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026-10-17
+ * @since
+ */
+public class InMemoryRefreshRecordsRepositoryTests {
+
+	final static int THREADS = 8;
+	final static int RECORDS_PER_THREAD = 10_000;
+	final static int CAPACITY = 5;
+	final static int RECORDS_CAPACITY = 100;
+
+	@Test
+	public void concurrentRecordsBoundedTest() throws Exception {
+		InMemoryRefreshRecordsRepository repository = new InMemoryRefreshRecordsRepository(CAPACITY, RECORDS_CAPACITY);
+		ReleaseConfigSourceWrapper wrapper = newWrapper("yaml:application.yml");
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+		AtomicBoolean recording = new AtomicBoolean(true);
+		try {
+			// Snapshots taken while recording are bounded too.
+			Future<Integer> snapshots = executor.submit(() -> {
+				int count = 0;
+				while (recording.get()) {
+					assertBounded(repository);
+					++count;
+				}
+				return count;
+			});
+
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+						repository.saveReleaseSource(wrapper);
+						repository.saveChanged(singleton("key" + i), wrapper);
+						repository.saveRefreshed(wrapper, i, null);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> f : futures) {
+				f.get(30, SECONDS);
+			}
+			recording.set(false);
+			assertTrue(snapshots.get(30, SECONDS) > 0);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// Full after recording, all of the latest records are kept.
+		assertEquals(RECORDS_CAPACITY, repository.getRefreshedRecords().size());
+		assertEquals(RECORDS_CAPACITY, repository.getChangedAll().size());
+		assertEquals(THREADS * RECORDS_PER_THREAD, repository.getTotalCounter().getRefreshes());
+
+		// Polled records are not returned again.
+		assertEquals(RECORDS_CAPACITY, repository.pollChangedAll().size());
+		assertTrue(repository.getChangedAll().isEmpty());
+		assertTrue(repository.pollChangedAll().isEmpty());
+	}
+
+	private static void assertBounded(InMemoryRefreshRecordsRepository repository) {
+		List<?> refreshed = repository.getRefreshedRecords();
+		assertTrue(String.valueOf(refreshed.size()), refreshed.size() <= RECORDS_CAPACITY);
+		List<ChangedRecord> changed = new ArrayList<>(repository.getChangedAll());
+		assertTrue(String.valueOf(changed.size()), changed.size() <= RECORDS_CAPACITY);
+	}
+
+	private static ReleaseConfigSourceWrapper newWrapper(String profile) {
+		return new ReleaseConfigSourceWrapper(new ReleaseConfigInfo(), singletonList(new ScmConfigSource() {
+			private static final long serialVersionUID = 1L;
+		}), singleton(profile));
+	}
+
+}
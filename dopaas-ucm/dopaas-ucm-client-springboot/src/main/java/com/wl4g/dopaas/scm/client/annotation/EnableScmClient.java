@@ -24,6 +24,7 @@ import org.springframework.context.annotation.Import;
 
 import com.wl4g.dopaas.scm.client.config.IamWithScmClientAutoConfiguration;
 import com.wl4g.dopaas.scm.client.config.ScmClientAutoConfiguration;
+import com.wl4g.dopaas.scm.client.config.ScmClientAutoConfiguration.ScmClientMetricsAutoConfiguration;
 import com.wl4g.shell.springboot.annotation.EnableShellServer;
 
 /**
@@ -33,7 +34,8 @@ import com.wl4g.shell.springboot.annotation.EnableShellServer;
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.TYPE, ElementType.METHOD })
-@Import({ IamWithScmClientAutoConfiguration.class, ScmClientAutoConfiguration.class })
+@Import({ IamWithScmClientAutoConfiguration.class, ScmClientAutoConfiguration.class,
+		ScmClientMetricsAutoConfiguration.class })
 @EnableShellServer
 public @interface EnableScmClient {
 
@@ -16,17 +16,30 @@
 package com.wl4g.dopaas.scm.client.config;
 
 import com.wl4g.component.core.web.method.PrefixHandlerMappingSupport;
+import com.wl4g.dopaas.scm.client.GenericScmClient;
+import com.wl4g.dopaas.scm.client.ScmClient;
 import com.wl4g.dopaas.scm.client.refresh.ScmContextRefresher;
 import com.wl4g.dopaas.scm.client.refresh.ScmLoggingRebinder;
+import com.wl4g.dopaas.scm.client.refresh.SpringRefreshConfigEventListener;
+import com.wl4g.dopaas.scm.client.repository.InMemoryRefreshRecordsRepository;
+import com.wl4g.dopaas.scm.client.repository.RefreshRecordsMeterBinder;
+import com.wl4g.dopaas.scm.client.repository.RefreshRecordsRepository;
+import com.wl4g.dopaas.scm.client.watch.GenericRefreshWatcher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 import static com.wl4g.dopaas.scm.common.SCMConstants.URI_C_BASE;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.cloud.context.refresh.ContextRefresher;
 import org.springframework.cloud.context.scope.refresh.RefreshScope;
 import org.springframework.cloud.logging.LoggingRebinder;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 
 /**
@@ -51,8 +64,12 @@ public class ScmClientAutoConfiguration extends AbstractHandlerMappingSupport {
 	 * @return
 	 */
 	@Bean
-	public ContextRefresher scmContextRefresher(ConfigurableApplicationContext context, RefreshScope scope) {
-		return new ScmContextRefresher(context, scope);
+	public ContextRefresher scmContextRefresher(ConfigurableApplicationContext context, RefreshScope scope,
+			ObjectProvider<SpringRefreshConfigEventListener> listener) {
+		ScmContextRefresher refresher = new ScmContextRefresher(context, scope);
+		// Listener is created in the bootstrap(parent) context.
+		listener.ifAvailable(l -> l.setRefresher(refresher));
+		return refresher;
 	}
 
 	/**
@@ -67,6 +84,29 @@ public class ScmClientAutoConfiguration extends AbstractHandlerMappingSupport {
 		return new ScmLoggingRebinder();
 	}
 
+	/**
+	 * Refresh records metrics, the {@link MeterBinder} beans are bound to the
+	 * meter registries by actuator.
+	 */
+	@Configuration
+	@ConditionalOnClass(MeterRegistry.class)
+	public static class ScmClientMetricsAutoConfiguration {
+
+		@Bean
+		public MeterBinder scmRefreshRecordsMeterBinder(ScmClient client) {
+			// Client is created in the bootstrap(parent) context.
+			RefreshRecordsRepository repository = ((GenericRefreshWatcher) ((GenericScmClient) client).getWatcher())
+					.getRepository();
+			if (repository instanceof InMemoryRefreshRecordsRepository) {
+				return new RefreshRecordsMeterBinder((InMemoryRefreshRecordsRepository) repository);
+			}
+			// Custom repository without records metrics.
+			return registry -> {
+			};
+		}
+
+	}
+
 	// --- Endpoint's. ---
 
 	// @Bean
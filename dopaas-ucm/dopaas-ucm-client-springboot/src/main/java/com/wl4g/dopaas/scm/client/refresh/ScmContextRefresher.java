@@ -18,19 +18,25 @@ package com.wl4g.dopaas.scm.client.refresh;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.springframework.boot.Banner.Mode;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.context.config.ConfigFileApplicationListener;
+import org.springframework.boot.context.properties.ConfigurationPropertiesBean;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.cloud.bootstrap.BootstrapApplicationListener;
 import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.properties.ConfigurationPropertiesRebinder;
 import org.springframework.cloud.context.refresh.ContextRefresher;
 import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.cloud.logging.LoggingRebinder;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.CompositePropertySource;
@@ -60,6 +66,8 @@ public class ScmContextRefresher extends ContextRefresher {
 
 	final public static String SCM_REFRESH_PROPERTY_SOURCE = "_DevOpsScmPropertySource_";
 
+	final private static String LOGGING_LEVEL_PREFIX = "logging.level.";
+
 	/**
 	 * Order matters, cli args aren't first, things get messy
 	 */
@@ -100,6 +108,89 @@ public class ScmContextRefresher extends ContextRefresher {
 		return keys;
 	}
 
+	/**
+	 * Incremental refresh, the properties of profile are applied to its own
+	 * property source of existing {@link MutablePropertySources}, and only the
+	 * configuration properties beans whose prefix matched the changed keys
+	 * will be rebound, without restarting the bootstrap context.
+	 * 
+	 * @param profileKey
+	 * @param properties
+	 * @return changed keys
+	 */
+	public synchronized Set<String> refresh(String profileKey, Map<String, Object> properties) {
+		Assert.hasText(profileKey, "Refresh profile must not be empty");
+		Assert.notNull(properties, "Refresh properties must not be null");
+
+		String name = SCM_REFRESH_PROPERTY_SOURCE.concat(profileKey);
+		MutablePropertySources target = context.getEnvironment().getPropertySources();
+		PropertySource<?> before = target.get(name);
+
+		// Only diff the properties of this profile.
+		Map<String, Object> beforeProperties = new HashMap<>();
+		if (before != null) {
+			extract(before, beforeProperties);
+		}
+		Set<String> keys = changes(beforeProperties, properties).keySet();
+		if (keys.isEmpty()) {
+			return keys;
+		}
+
+		MapPropertySource source = new MapPropertySource(name, new HashMap<>(properties));
+		if (before != null) {
+			target.replace(name, source);
+		} else if (target.contains(SCM_REFRESH_PROPERTY_SOURCE)) {
+			target.addBefore(SCM_REFRESH_PROPERTY_SOURCE, source);
+		} else {
+			target.addFirst(source);
+		}
+
+		rebind(keys);
+		return keys;
+	}
+
+	/**
+	 * Rebind the configuration properties beans and logging levels affected by
+	 * changed keys, the refresh scope is refreshed only if there are changed
+	 * keys not bound to any configuration properties bean (e.g. @Value).
+	 * 
+	 * @param keys
+	 */
+	private void rebind(Set<String> keys) {
+		List<ConfigurationPropertyName> names = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			names.add(ConfigurationPropertyName.adapt(key, '.'));
+		}
+
+		Set<ConfigurationPropertyName> bounds = new HashSet<>();
+		ConfigurationPropertiesRebinder rebinder = context.getBean(ConfigurationPropertiesRebinder.class);
+		for (Entry<String, ConfigurationPropertiesBean> ent : ConfigurationPropertiesBean.getAll(context).entrySet()) {
+			ConfigurationPropertyName prefix = ConfigurationPropertyName.of(ent.getValue().getAnnotation().prefix());
+			boolean matched = false;
+			for (ConfigurationPropertyName name : names) {
+				if (prefix.isEmpty() || prefix.equals(name) || prefix.isAncestorOf(name)) {
+					bounds.add(name);
+					matched = true;
+				}
+			}
+			if (matched) {
+				rebinder.rebind(ent.getKey());
+			}
+		}
+
+		for (String key : keys) {
+			if (key.startsWith(LOGGING_LEVEL_PREFIX)) {
+				EnvironmentChangeEvent event = new EnvironmentChangeEvent(context, keys);
+				context.getBeansOfType(LoggingRebinder.class).values().forEach(r -> r.onApplicationEvent(event));
+				break;
+			}
+		}
+
+		if (bounds.size() < names.size()) {
+			scope.refreshAll();
+		}
+	}
+
 	private ConfigurableApplicationContext addScmConfigToEnvironment() {
 		ConfigurableApplicationContext capture = null;
 		try {
@@ -15,15 +15,36 @@
  */
 package com.wl4g.dopaas.scm.client.refresh;
 
+import static com.wl4g.component.common.collection.CollectionUtils2.safeList;
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ByteArrayResource;
+
+import com.wl4g.component.common.log.SmartLogger;
 import com.wl4g.dopaas.scm.client.event.ConfigEventListener;
 import com.wl4g.dopaas.scm.client.event.RefreshConfigEvent;
 import com.wl4g.dopaas.scm.client.event.RefreshConfigEvent.RefreshContext;
+import com.wl4g.dopaas.scm.client.repository.ReleaseConfigSourceWrapper;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo.ReleaseContent;
 
 /**
- * {@link SpringRefreshConfigEventListener}
+ * {@link SpringRefreshConfigEventListener}, only the changed property sources
+ * of release are applied to the environment by
+ * {@link ScmContextRefresher#refresh(String, Map)}, the unsupported formats
+ * fallback to full refresh.
  *
  * @author Wangl.sir <wanglsir@gmail.com, 983708408@qq.com>
  * @version v1.0 2020-08-21
@@ -31,19 +52,95 @@ import com.wl4g.dopaas.scm.client.event.RefreshConfigEvent.RefreshContext;
  */
 public class SpringRefreshConfigEventListener implements ConfigEventListener {
 
+	/** Property source loaders of supported formats. */
+	final private static PropertySourceLoader[] LOADERS = { new YamlPropertySourceLoader(),
+			new PropertiesPropertySourceLoader() };
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/**
+	 * {@link ScmContextRefresher} of application context, it's set after the
+	 * application context is created(bootstrap context is the parent).
+	 */
+	private volatile ScmContextRefresher refresher;
+
+	public void setRefresher(ScmContextRefresher refresher) {
+		this.refresher = refresher;
+	}
+
 	@Override
 	public void onRefresh(RefreshConfigEvent event) {
-		System.out.println("On refresh configuration...");
 		RefreshContext context = event.getSource();
-		System.out.println("Refresh property: " + context.toString());
+		ScmContextRefresher refresher = this.refresher;
+		if (isNull(refresher)) {
+			log.warn("Skip refresh, the application context refresher is not ready. - {}", context);
+			return;
+		}
 
-		// Do refreshing
-		// ...
+		long begin = System.nanoTime();
+		Set<String> changeds = new HashSet<>();
+		ReleaseConfigSourceWrapper release = context.getRelease();
+		for (ReleaseContent content : safeList(release.getRelease().getReleases())) {
+			if (!release.isChanged(content)) {
+				continue;
+			}
+			Map<String, Object> properties = loadProperties(content);
+			if (isNull(properties)) { // Unsupported format
+				changeds.addAll(refresher.refresh());
+			} else {
+				changeds.addAll(refresher.refresh(content.getProfile().asKey(), properties));
+			}
+		}
+		log.info("Refreshed changed properties: {}, cost: {}us", changeds.size(), (System.nanoTime() - begin) / 1000);
 
 		// Commit changed keys
-		Set<String> changeds = new HashSet<>();
-		changeds.add("myconfig.task.threads");
 		context.commitChanged(changeds);
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Load flatten properties of release content.
+	 * 
+	 * @param content
+	 * @return Returns null if unsupported format.
+	 */
+	protected Map<String, Object> loadProperties(ReleaseContent content) {
+		PropertySourceLoader loader = findLoader(content.getProfile().getType());
+		if (isNull(loader)) {
+			return null;
+		}
+
+		Map<String, Object> properties = new HashMap<>();
+		try {
+			ByteArrayResource resource = new ByteArrayResource(content.getSourceContent().getBytes(UTF_8));
+			for (PropertySource<?> source : loader.load(content.getProfile().getName(), resource)) {
+				if (source instanceof EnumerablePropertySource) {
+					for (String key : ((EnumerablePropertySource<?>) source).getPropertyNames()) {
+						// The first document has precedence.
+						properties.putIfAbsent(key, source.getProperty(key));
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(String.format("Failed to load property source of %s", content.getProfile()), e);
+		}
+		return properties;
+	}
+
+	/**
+	 * Find the property source loader of the file extension.
+	 * 
+	 * @param type
+	 * @return Returns null if unsupported format.
+	 */
+	private static PropertySourceLoader findLoader(String type) {
+		for (PropertySourceLoader loader : LOADERS) {
+			for (String ext : loader.getFileExtensions()) {
+				if (ext.equalsIgnoreCase(type)) {
+					return loader;
+				}
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.client.refresh;
+
+import static com.wl4g.dopaas.scm.client.refresh.ScmContextRefresher.SCM_REFRESH_PROPERTY_SOURCE;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.autoconfigure.ConfigurationPropertiesRebinderAutoConfiguration;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Refresh latency and allocation benchmark of {@link ScmContextRefresher} for
+ * the full refresh(bootstrap context restart) and the incremental refresh of
+ * an application with 5,000 properties.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class ScmContextRefresherBenchmarkTests {
+
+	final static int PROPERTIES = 5000;
+	final static int CHANGED = 10;
+	final static int ROUNDS = 20;
+	final static String PROFILE = "yaml:application.yml";
+
+	public static void main(String[] args) {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+				.web(WebApplicationType.NONE).run(args);
+
+		Map<String, Object> properties = new HashMap<>(PROPERTIES * 2);
+		for (int i = 0; i < PROPERTIES; i++) {
+			properties.put("bench.group" + (i % 50) + ".key" + i, "value" + i);
+		}
+		context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource(SCM_REFRESH_PROPERTY_SOURCE, new HashMap<>(properties)));
+
+		ScmContextRefresher refresher = new ScmContextRefresher(context, context.getBean(RefreshScope.class));
+		refresher.refresh(PROFILE, properties); // Warm-up
+
+		com.sun.management.ThreadMXBean mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long tid = Thread.currentThread().getId();
+		for (int round = 0; round < ROUNDS; round++) {
+			// Before: full refresh.
+			long allocated = mxBean.getThreadAllocatedBytes(tid);
+			long begin = System.nanoTime();
+			refresher.refresh();
+			long fullCostUs = (System.nanoTime() - begin) / 1000;
+			long fullAllocated = mxBean.getThreadAllocatedBytes(tid) - allocated;
+
+			// After: incremental refresh of changed keys.
+			for (int i = 0; i < CHANGED; i++) {
+				properties.put("bench.group" + i + ".key" + i, "value" + i + "-" + round);
+			}
+			allocated = mxBean.getThreadAllocatedBytes(tid);
+			begin = System.nanoTime();
+			int changed = refresher.refresh(PROFILE, properties).size();
+			long incrCostUs = (System.nanoTime() - begin) / 1000;
+			long incrAllocated = mxBean.getThreadAllocatedBytes(tid) - allocated;
+
+			System.out.println(String.format(
+					"Round: %s, full refresh cost: %sus, allocated: %sKB, incremental refresh(changed: %s) cost: %sus, allocated: %sKB",
+					round, fullCostUs, fullAllocated / 1024, changed, incrCostUs, incrAllocated / 1024));
+		}
+
+		context.close();
+	}
+
+	@Import({ ConfigurationPropertiesAutoConfiguration.class, RefreshAutoConfiguration.class,
+			ConfigurationPropertiesRebinderAutoConfiguration.class })
+	static class BenchmarkConfiguration {
+
+		@Bean
+		@ConfigurationProperties(prefix = "bench.group1")
+		public Map<String, String> benchGroup1Properties() {
+			return new HashMap<>();
+		}
+
+		@Bean
+		@ConfigurationProperties(prefix = "other")
+		public Map<String, String> otherProperties() {
+			return new HashMap<>();
+		}
+
+	}
+
+}
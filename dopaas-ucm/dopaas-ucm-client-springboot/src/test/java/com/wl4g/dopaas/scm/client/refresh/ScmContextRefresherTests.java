@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.client.refresh;
+
+import static com.wl4g.dopaas.scm.client.refresh.ScmContextRefresher.SCM_REFRESH_PROPERTY_SOURCE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.autoconfigure.ConfigurationPropertiesRebinderAutoConfiguration;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Correctness of the incremental refresh of {@link ScmContextRefresher}.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class ScmContextRefresherTests {
+
+	final static String PROFILE = "yaml:application.yml";
+
+	private ConfigurableApplicationContext context;
+	private ScmContextRefresher refresher;
+	private AtomicInteger scopeRefreshes;
+
+	@Before
+	public void setUp() {
+		context = new SpringApplicationBuilder(TestConfiguration.class).web(WebApplicationType.NONE)
+				.properties("spring.cloud.bootstrap.enabled=false").run();
+		scopeRefreshes = new AtomicInteger(0);
+		context.addApplicationListener(event -> {
+			if (event instanceof RefreshScopeRefreshedEvent) {
+				scopeRefreshes.incrementAndGet();
+			}
+		});
+		refresher = new ScmContextRefresher(context, context.getBean(RefreshScope.class));
+	}
+
+	@After
+	public void tearDown() {
+		context.close();
+	}
+
+	@Test
+	public void refreshChangedKeysTest() {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("test.alpha.name", "alpha1");
+		properties.put("test.beta.name", "beta1");
+		assertEquals(new HashSet<>(Arrays.asList("test.alpha.name", "test.beta.name")),
+				refresher.refresh(PROFILE, properties));
+		AlphaProperties alpha = context.getBean(AlphaProperties.class);
+		BetaProperties beta = context.getBean(BetaProperties.class);
+		assertEquals("alpha1", alpha.getName());
+		assertEquals("beta1", beta.getName());
+		int alphaBinds = alpha.binds.get(), betaBinds = beta.binds.get();
+
+		// Only the beans bound to the changed keys are rebound.
+		properties.put("test.alpha.name", "alpha2");
+		assertEquals(new HashSet<>(Arrays.asList("test.alpha.name")), refresher.refresh(PROFILE, properties));
+		assertEquals("alpha2", alpha.getName());
+		assertEquals("alpha2", context.getEnvironment().getProperty("test.alpha.name"));
+		assertEquals(alphaBinds + 1, alpha.binds.get());
+		assertEquals(betaBinds, beta.binds.get());
+		assertEquals(0, scopeRefreshes.get());
+
+		// Unchanged.
+		assertTrue(refresher.refresh(PROFILE, new HashMap<>(properties)).isEmpty());
+		assertEquals(alphaBinds + 1, alpha.binds.get());
+
+		// Removed keys are reported as changed.
+		properties.remove("test.beta.name");
+		assertEquals(new HashSet<>(Arrays.asList("test.beta.name")), refresher.refresh(PROFILE, properties));
+		assertNull(context.getEnvironment().getProperty("test.beta.name"));
+		assertEquals(alphaBinds + 1, alpha.binds.get());
+	}
+
+	@Test
+	public void refreshPrecedenceOfProfilesTest() {
+		// Profile sources take precedence over the full refreshed source.
+		Map<String, Object> scmProperties = new HashMap<>();
+		scmProperties.put("test.alpha.name", "full");
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource(SCM_REFRESH_PROPERTY_SOURCE, scmProperties));
+
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("test.alpha.name", "profile");
+		refresher.refresh(PROFILE, properties);
+		assertEquals("profile", context.getEnvironment().getProperty("test.alpha.name"));
+		assertEquals("profile", context.getBean(AlphaProperties.class).getName());
+
+		// Other profile does not clobber the existing profile.
+		Map<String, Object> otherProperties = new HashMap<>();
+		otherProperties.put("test.beta.name", "other");
+		assertEquals(new HashSet<>(Arrays.asList("test.beta.name")), refresher.refresh("properties:other.properties",
+				otherProperties));
+		assertEquals("profile", context.getEnvironment().getProperty("test.alpha.name"));
+		assertEquals("other", context.getBean(BetaProperties.class).getName());
+	}
+
+	@Test
+	public void refreshUnboundKeysTest() {
+		// Keys not bound to any configuration properties bean (e.g. @Value)
+		// fall back to refresh the scope.
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("test.alpha.name", "alpha1");
+		refresher.refresh(PROFILE, properties);
+		assertEquals(0, scopeRefreshes.get());
+
+		properties.put("test.unbound", "value1");
+		assertEquals(new HashSet<>(Arrays.asList("test.unbound")), refresher.refresh(PROFILE, properties));
+		assertEquals(1, scopeRefreshes.get());
+	}
+
+	@Import({ ConfigurationPropertiesAutoConfiguration.class, RefreshAutoConfiguration.class,
+			ConfigurationPropertiesRebinderAutoConfiguration.class })
+	static class TestConfiguration {
+
+		@Bean
+		public AlphaProperties alphaProperties() {
+			return new AlphaProperties();
+		}
+
+		@Bean
+		public BetaProperties betaProperties() {
+			return new BetaProperties();
+		}
+
+	}
+
+	@ConfigurationProperties(prefix = "test.alpha")
+	static class AlphaProperties {
+
+		final AtomicInteger binds = new AtomicInteger(0);
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			binds.incrementAndGet();
+			this.name = name;
+		}
+
+	}
+
+	@ConfigurationProperties(prefix = "test.beta")
+	static class BetaProperties {
+
+		final AtomicInteger binds = new AtomicInteger(0);
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			binds.incrementAndGet();
+			this.name = name;
+		}
+
+	}
+
+}
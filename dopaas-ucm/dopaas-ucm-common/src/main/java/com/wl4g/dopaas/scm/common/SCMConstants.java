@@ -58,6 +58,10 @@ public abstract class SCMConstants {
 	public static final String CACHE_PUB_GROUPS = "ucm:publish:groups:";
 	/** SCM publisher config prefix. */
 	public static final String KEY_PUB_PREFIX = "ucm:publish:config:";
+	/** SCM publisher config events channel. */
+	public static final String CHANNEL_PUB_CONFIG = "ucm:publish:channel";
+	/** SCM latest published config of each watching key. */
+	public static final String CACHE_PUB_LATEST = "ucm:publish:latest";
 
 	// --- Client. ---
 
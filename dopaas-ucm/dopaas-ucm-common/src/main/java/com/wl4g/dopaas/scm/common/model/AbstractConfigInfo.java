@@ -202,6 +202,10 @@ public abstract class AbstractConfigInfo implements Serializable {
 		@NotBlank
 		private String name;
 
+		public ConfigProfile() {
+			super();
+		}
+
 		public ConfigProfile(@NotBlank String type, @NotBlank String name) {
 			this.type = hasTextOf(type, "type");
 			this.name = hasTextOf(name, "name");
@@ -218,6 +222,15 @@ public abstract class AbstractConfigInfo implements Serializable {
 			return this;
 		}
 
+		/**
+		 * Gets identify key of profile, e.g: yaml:application-db.yml
+		 * 
+		 * @return
+		 */
+		public String asKey() {
+			return getType() + ":" + getName();
+		}
+
 	}
 
 	/**
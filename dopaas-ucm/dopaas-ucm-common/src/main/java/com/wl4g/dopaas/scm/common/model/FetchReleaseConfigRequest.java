@@ -26,7 +26,9 @@ import static com.wl4g.component.common.lang.Assert2.notEmptyOf;
 import static com.wl4g.component.common.lang.Assert2.notNullOf;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * {@link FetchReleaseConfigRequest}
@@ -53,6 +55,13 @@ public class FetchReleaseConfigRequest extends AbstractConfigInfo {
 	@NotEmpty
 	private List<ConfigProfile> profiles = new ArrayList<>(2);
 
+	/**
+	 * Content hashes of current applied property sources, key is
+	 * {@link ConfigProfile#asKey()}. The unchanged property sources will not
+	 * be sent by server.
+	 */
+	private Map<String, String> contentHashes = new HashMap<>(4);
+
 	public FetchReleaseConfigRequest() {
 		super();
 	}
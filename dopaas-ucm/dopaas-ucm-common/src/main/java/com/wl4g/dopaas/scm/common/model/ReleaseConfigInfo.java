@@ -25,10 +25,14 @@ import static com.wl4g.component.common.lang.Assert2.hasTextOf;
 import static com.wl4g.component.common.lang.Assert2.notEmptyOf;
 import static com.wl4g.component.common.lang.Assert2.notNullOf;
 import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import com.google.common.hash.Hashing;
+
 /**
  * {@link ReleaseConfigInfo}
  *
@@ -83,6 +87,24 @@ public class ReleaseConfigInfo extends AbstractConfigInfo {
 		 */
 		private String sourceContent;
 
+		/**
+		 * Hash of property source content, used to skip the unchanged
+		 * property sources.
+		 */
+		private String contentHash;
+
+		/**
+		 * Gets or compute hash of property source content.
+		 * 
+		 * @return
+		 */
+		public String getContentHash() {
+			if (isNull(contentHash) && !isNull(sourceContent)) {
+				contentHash = hashOf(sourceContent);
+			}
+			return contentHash;
+		}
+
 		@Override
 		public String toString() {
 			return getClass().getSimpleName().concat(" - ").concat(toJSONString(this));
@@ -94,6 +116,16 @@ public class ReleaseConfigInfo extends AbstractConfigInfo {
 			hasTextOf(getSourceContent(), "sourceContent");
 		}
 
+		/**
+		 * Hash of property source content.
+		 * 
+		 * @param sourceContent
+		 * @return
+		 */
+		public static String hashOf(String sourceContent) {
+			return Hashing.sha256().hashString(sourceContent, UTF_8).toString();
+		}
+
 	}
 
 }
\ No newline at end of file
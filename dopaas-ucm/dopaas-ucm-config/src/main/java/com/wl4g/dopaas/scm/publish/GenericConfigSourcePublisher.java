@@ -15,40 +15,44 @@
  */
 package com.wl4g.dopaas.scm.publish;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
-import static com.wl4g.component.common.lang.Assert2.hasText;
 import static com.wl4g.component.common.lang.Assert2.notNull;
+import static com.wl4g.component.common.collection.CollectionUtils2.safeMap;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Objects.isNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.util.CollectionUtils.isEmpty;
 
-import com.wl4g.component.common.task.RunnerProperties;
-import com.wl4g.component.core.task.ApplicationTaskRunner;
-import com.wl4g.dopaas.scm.common.model.FetchReleaseConfigRequest;
-import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
-import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigNode;
-import com.wl4g.dopaas.scm.config.ScmProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-import static java.util.Objects.isNull;
-import static java.util.Objects.nonNull;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
-import static java.util.stream.Collectors.toList;
-import static org.apache.commons.lang3.StringUtils.isBlank;
-import static org.springframework.http.HttpStatus.NOT_MODIFIED;
-import static org.springframework.http.HttpStatus.OK;
-import static org.springframework.util.CollectionUtils.isEmpty;
+import com.wl4g.component.common.task.RunnerProperties;
+import com.wl4g.component.common.web.rest.RespBase;
+import com.wl4g.component.core.task.ApplicationTaskRunner;
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigNode;
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigProfile;
+import com.wl4g.dopaas.scm.common.model.FetchReleaseConfigRequest;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo.ReleaseContent;
+import com.wl4g.dopaas.scm.config.ScmProperties;
 
 /**
- * Abstract configuration source publisher.
+ * Abstract configuration source publisher. The watching long-polls are
+ * indexed by (cluster, profile, node), and the published events are
+ * pushed by subclass(e.g. redis pub/sub) to {@link #notifyPublished}, so that
+ * a release only wakes the affected long-polls.
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
@@ -62,68 +66,36 @@ public abstract class GenericConfigSourcePublisher extends ApplicationTaskRunner
 	final protected ScmProperties config;
 
 	/**
-	 * Save all client monitors configuration requests globally (Using:
+	 * Index of all client watching requests globally (Using:
 	 * HTTP-long-poling model).
 	 */
-	final private Map<String, Multimap<String, WatchDeferredResult<ResponseEntity<?>>>> watchRequests;
+	final private ConcurrentMap<WatchKey, Set<WatchDeferredResult<ResponseEntity<?>>>> watchRequests;
+
+	/** Count of watching requests. */
+	final private AtomicInteger watchCount = new AtomicInteger(0);
 
 	public GenericConfigSourcePublisher(ScmProperties config) {
 		super(new RunnerProperties(false, 1));
 		this.config = config;
-		this.watchRequests = new ConcurrentHashMap<>(32);
+		this.watchRequests = new ConcurrentHashMap<>(1024);
 	}
 
 	@Override
 	public void run() {
-		getWorker().scheduleWithFixedDelay(() -> {
-			try {
-				// Scan poll published configuration.
-				Collection<PublishConfigWrapper> nexts = null;
-				while (isActive() && !isEmpty(nexts = pollNextPublishedConfig())) {
-					log.info("Poll published config for - {}", nexts);
-
-					for (PublishConfigWrapper wrap : nexts) {
-						if (isNull(wrap) || isBlank(wrap.getCluster())) {
-							log.warn("Published config group must not be blank! - %s", wrap);
-							continue;
-						}
-
-						getCreateWithDeferreds(wrap.getCluster()).values().stream().filter(deferred -> {
-							if (nonNull(deferred)) {
-								FetchReleaseConfigRequest watch = deferred.getWatch();
-								// Filter namespace
-								wrap.getProfiles().retainAll(watch.getProfiles());
-								if (!CollectionUtils.isEmpty(wrap.getProfiles())) {
-									// Filter instance
-									return wrap.getNodes().contains(watch.getNode());
-								}
-							}
-							return false;
-						}).forEach(deferred -> {
-							if (!deferred.isSetOrExpired()) {
-								log.debug("Sets deferredResult - {}", deferred);
-								deferred.setResult(createResponse(OK, wrap.getMeta()));
-							}
-						});
-					}
-				}
-			} catch (Throwable th) {
-				log.error("Watching running error!", th);
-			}
-		}, 3000L, config.getWatchDelay(), MILLISECONDS);
-
+		// Subscribe published configuration events.
+		getWorker().execute(() -> subscribePublished());
 	}
 
 	@Override
 	public List<WatchDeferredResult<ResponseEntity<?>>> publish(ReleaseConfigInfo result) {
 		notNull(result, "Publish release must not be null");
+		PublishConfigWrapper wrap = new PublishConfigWrapper(result);
 
-		// Got or create local watching deferredResults.
-		List<WatchDeferredResult<ResponseEntity<?>>> deferreds = getCreateWithDeferreds(result.getCluster()).values().stream()
-				.collect(toList());
+		// Got local affected watching deferredResults.
+		List<WatchDeferredResult<ResponseEntity<?>>> deferreds = getAffectedDeferreds(wrap);
 
 		// Publishing to watch instances(cluster).
-		doPublishConfig(new PublishConfigWrapper(result));
+		doPublishConfig(wrap);
 
 		return deferreds;
 	}
@@ -133,10 +105,95 @@ public abstract class GenericConfigSourcePublisher extends ApplicationTaskRunner
 		// Override creation listening latency.
 		WatchDeferredResult<ResponseEntity<?>> deferred = doCreateWatchDeferred(watch);
 
-		log.info("Created watch deferred - {}", deferred);
+		log.debug("Created watch deferred - {}", deferred);
 		return deferred;
 	}
 
+	/**
+	 * Gets count of local watching requests.
+	 * 
+	 * @return
+	 */
+	public int getWatchCount() {
+		return watchCount.get();
+	}
+
+	/**
+	 * Gets the keys of local watching long-polls.
+	 * 
+	 * @return
+	 */
+	protected Set<WatchKey> getWatchingKeys() {
+		return watchRequests.keySet();
+	}
+
+	/**
+	 * Wake up the local watching long-polls affected by published config.
+	 * 
+	 * @param wrap
+	 * @return Returns the count of woken up.
+	 */
+	protected int notifyPublished(PublishConfigWrapper wrap) {
+		if (isNull(wrap) || isBlank(wrap.getCluster())) {
+			log.warn("Published config group must not be blank! - {}", wrap);
+			return 0;
+		}
+		int c = 0;
+		for (WatchDeferredResult<ResponseEntity<?>> deferred : getAffectedDeferreds(wrap)) {
+			if (!deferred.isSetOrExpired()) {
+				ReleaseConfigInfo changed = createChangedRelease(wrap, deferred.getWatch());
+				// Already up to date(e.g. replayed by catch-up).
+				if (isEmpty(changed.getReleases())) {
+					continue;
+				}
+				RespBase<ReleaseConfigInfo> resp = new RespBase<>();
+				resp.setData(changed);
+				if (deferred.setResult(createResponse(OK, resp))) {
+					++c;
+				}
+			}
+		}
+		log.info("Notified published config for - {}, woken: {}", wrap.asIdentify(), c);
+		return c;
+	}
+
+	/**
+	 * Create the release of watching client, only contains the property
+	 * sources that the client watched and whose content hash has changed.
+	 * 
+	 * @param wrap
+	 * @param watch
+	 * @return
+	 */
+	protected ReleaseConfigInfo createChangedRelease(PublishConfigWrapper wrap, FetchReleaseConfigRequest watch) {
+		ReleaseConfigInfo release = new ReleaseConfigInfo();
+		release.setZone(wrap.getZone());
+		release.setCluster(wrap.getCluster());
+		release.setMeta(wrap.getMeta());
+		release.setNodes(singletonList(watch.getNode()));
+
+		List<ReleaseContent> releases = new ArrayList<>(wrap.getReleases().size());
+		for (ReleaseContent content : wrap.getReleases()) {
+			if (isNull(content) || isNull(content.getProfile())) {
+				continue;
+			}
+			String profileKey = content.getProfile().asKey();
+			boolean watched = false;
+			for (ConfigProfile profile : watch.getProfiles()) {
+				if (profileKey.equals(profile.asKey())) {
+					watched = true;
+					break;
+				}
+			}
+			// Skip unwatched or unchanged property source.
+			if (watched && !Objects.equals(content.getContentHash(), safeMap(watch.getContentHashes()).get(profileKey))) {
+				releases.add(content);
+			}
+		}
+		release.setReleases(releases);
+		return release;
+	}
+
 	/**
 	 * Create response entity.
 	 * 
@@ -149,14 +206,13 @@ public abstract class GenericConfigSourcePublisher extends ApplicationTaskRunner
 	}
 
 	/**
-	 * Poll scan published configuration source
-	 * 
-	 * @return
+	 * Subscribe the published configuration events(blocking), and calls
+	 * {@link #notifyPublished} on each event.
 	 */
-	protected abstract Collection<PublishConfigWrapper> pollNextPublishedConfig();
+	protected abstract void subscribePublished();
 
 	/**
-	 * Put published instances to distributed cache, support distributed
+	 * Push published event to all config server nodes, support distributed
 	 * 
 	 * @param wrap
 	 */
@@ -170,25 +226,38 @@ public abstract class GenericConfigSourcePublisher extends ApplicationTaskRunner
 	 */
 	protected WatchDeferredResult<ResponseEntity<?>> doCreateWatchDeferred(FetchReleaseConfigRequest watch) {
 		notNull(watch, "Watch must not be null");
+		Assert.notNull(watch.getNode(), "Watch node must not be null");
+		Assert.notEmpty(watch.getProfiles(), "Watch profiles must not be empty");
 
 		// Create watch-deferred
 		WatchDeferredResult<ResponseEntity<?>> deferred = new WatchDeferredResult<>(config.getLongPollTimeout(), watch);
 
-		Multimap<String, WatchDeferredResult<ResponseEntity<?>>> deferreds = getCreateWithDeferreds(watch.getCluster());
-		String watchKey = getWatchKey(watch.getNode(), watch.getProfiles());
-		deferreds.put(watchKey, deferred);
+		// Indexing by each profile of watching.
+		List<WatchKey> watchKeys = getWatchKeys(watch);
+		for (WatchKey watchKey : watchKeys) {
+			// Added in the same compute as the empty index cleanup, otherwise
+			// it may be added into the set just removed from index.
+			watchRequests.compute(watchKey, (k, v) -> {
+				if (isNull(v)) {
+					v = ConcurrentHashMap.newKeySet();
+				}
+				v.add(deferred);
+				return v;
+			});
+		}
+		watchCount.incrementAndGet();
 
 		final String instance = watch.getNode().toString();
 		// When deferred Result completes (whether it is timeout or abnormal or
 		// normal), remove the corresponding watch key from watchRequests
 		deferred.onCompletion(() -> {
-			log.info("Completed watch instance - {}", instance);
-			deferreds.remove(watchKey, instance);
+			log.debug("Completed watch instance - {}", instance);
+			removeWatchDeferred(watchKeys, deferred);
 		});
 
 		deferred.onTimeout(() -> {
-			log.warn("Timeout watch instance - {}", instance);
-			deferreds.remove(watchKey, instance);
+			log.debug("Timeout watch instance - {}", instance);
+			removeWatchDeferred(watchKeys, deferred);
 
 			// In response to 304(No any configuration modified), the
 			// client will then re-establish the long-polling request.
@@ -199,34 +268,109 @@ public abstract class GenericConfigSourcePublisher extends ApplicationTaskRunner
 	}
 
 	/**
-	 * Get or create local watch deferred result by group.
+	 * Gets local watching deferred results affected by published config.
 	 * 
-	 * @param group
+	 * @param wrap
 	 * @return
 	 */
-	protected Multimap<String, WatchDeferredResult<ResponseEntity<?>>> getCreateWithDeferreds(String group) {
-		hasText(group, "Group must not be empty");
-
-		Multimap<String, WatchDeferredResult<ResponseEntity<?>>> watchs = watchRequests.get(group);
-		if (watchs == null) {
-			watchRequests.putIfAbsent(group, (watchs = synchronizedSetMultimap(HashMultimap.create())));
+	protected List<WatchDeferredResult<ResponseEntity<?>>> getAffectedDeferreds(PublishConfigWrapper wrap) {
+		if (isEmpty(wrap.getReleases()) || isEmpty(wrap.getNodes())) {
+			return emptyList();
 		}
-
-		log.debug("Got-created watch group: {}, total: {}, deferredResults: {}", group, watchRequests.size(), watchs);
-		return watchs;
+		// A watch of multiple profiles is indexed repeatedly.
+		Set<WatchDeferredResult<ResponseEntity<?>>> deferreds = new LinkedHashSet<>(4);
+		for (ReleaseContent release : wrap.getReleases()) {
+			if (isNull(release) || isNull(release.getProfile())) {
+				continue;
+			}
+			for (ConfigNode node : wrap.getNodes()) {
+				Set<WatchDeferredResult<ResponseEntity<?>>> watchs = watchRequests
+						.get(new WatchKey(wrap.getCluster(), release.getProfile(), node));
+				if (!isNull(watchs)) {
+					deferreds.addAll(watchs);
+				}
+			}
+		}
+		return new ArrayList<>(deferreds);
 	}
 
 	/**
-	 * Generate watching deferred key.
+	 * Generate watching deferred keys of each profile.
 	 * 
-	 * @param instance
-	 * @param namespace
+	 * @param watch
 	 * @return
 	 */
-	protected String getWatchKey(ConfigNode instance, List<String> namespaces) {
-		Assert.notNull(instance, "Release instance must not be null");
-		// Assert.notEmpty(namespaces, "Namespace must not be null");
-		return instance.toString();
+	protected List<WatchKey> getWatchKeys(FetchReleaseConfigRequest watch) {
+		List<WatchKey> watchKeys = new ArrayList<>(watch.getProfiles().size());
+		for (ConfigProfile profile : watch.getProfiles()) {
+			watchKeys.add(new WatchKey(watch.getCluster(), profile, watch.getNode()));
+		}
+		return watchKeys;
+	}
+
+	/**
+	 * Remove completed watching deferred result of index.
+	 * 
+	 * @param watchKeys
+	 * @param deferred
+	 */
+	protected void removeWatchDeferred(List<WatchKey> watchKeys, WatchDeferredResult<ResponseEntity<?>> deferred) {
+		boolean[] removed = { false };
+		for (WatchKey watchKey : watchKeys) {
+			watchRequests.computeIfPresent(watchKey, (k, v) -> {
+				if (v.remove(deferred)) {
+					removed[0] = true;
+				}
+				// Cleanup empty index.
+				return v.isEmpty() ? null : v;
+			});
+		}
+		if (removed[0]) {
+			watchCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Watching index key of (cluster, profile, node). The zone is not a part
+	 * of key, watchers are matched by cluster and node as before.
+	 */
+	protected static class WatchKey {
+
+		final private String cluster;
+		final private String profile;
+		final private ConfigNode node;
+		final private int hash;
+
+		public WatchKey(String cluster, ConfigProfile profile, ConfigNode node) {
+			this.cluster = cluster;
+			this.profile = profile.asKey();
+			this.node = node;
+			this.hash = Objects.hash(cluster, this.profile, node);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof WatchKey)) {
+				return false;
+			}
+			WatchKey that = (WatchKey) obj;
+			return hash == that.hash && Objects.equals(cluster, that.cluster)
+					&& Objects.equals(profile, that.profile) && Objects.equals(node, that.node);
+		}
+
+		@Override
+		public String toString() {
+			return cluster + "/" + profile + "/" + node;
+		}
+
 	}
 
 	/**
@@ -243,7 +387,11 @@ public abstract class GenericConfigSourcePublisher extends ApplicationTaskRunner
 		}
 
 		public PublishConfigWrapper(ReleaseConfigInfo result) {
-			super(result.getCluster(), result.getProfiles(), result.getMeta(), result.getNodes());
+			setZone(result.getZone());
+			setCluster(result.getCluster());
+			setMeta(result.getMeta());
+			setNodes(result.getNodes());
+			setReleases(result.getReleases());
 		}
 
 		public String asIdentify() {
@@ -252,4 +400,4 @@ public abstract class GenericConfigSourcePublisher extends ApplicationTaskRunner
 
 	}
 
-}
\ No newline at end of file
+}
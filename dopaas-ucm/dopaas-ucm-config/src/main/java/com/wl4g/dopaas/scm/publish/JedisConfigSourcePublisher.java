@@ -16,78 +16,186 @@
 package com.wl4g.dopaas.scm.publish;
 
 import com.wl4g.component.support.cache.jedis.JedisService;
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigNode;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo.ReleaseContent;
 import com.wl4g.dopaas.scm.config.ScmProperties;
 
-import org.apache.commons.codec.binary.Hex;
+import org.springframework.beans.factory.DisposableBean;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Set;
+import redis.clients.jedis.JedisPubSub;
 
-import static com.google.common.base.Charsets.UTF_8;
-import static com.wl4g.dopaas.scm.common.SCMConstants.CACHE_PUB_GROUPS;
-import static com.wl4g.dopaas.scm.common.SCMConstants.KEY_PUB_PREFIX;
+import static com.wl4g.component.common.serialize.JacksonUtils.parseJSON;
+import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
+import static com.wl4g.dopaas.scm.common.SCMConstants.CACHE_PUB_LATEST;
+import static com.wl4g.dopaas.scm.common.SCMConstants.CHANNEL_PUB_CONFIG;
+import static java.lang.Math.min;
+import static java.lang.Thread.sleep;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.isNull;
-import static java.util.Objects.nonNull;
-import static org.springframework.util.CollectionUtils.isEmpty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * SCM configuration source server publisher implements
+ * SCM configuration source server publisher implements, the published events
+ * are pushed to all config server nodes by redis pub/sub, and each node only
+ * wakes up its own affected watching long-polls.
+ * </br>
+ * Redis pub/sub is fire-and-forget, the events published while a node is
+ * re-subscribing are lost, so the latest published of each watching key is
+ * also saved to {@code ucm:publish:latest}, and replayed to the
+ * local watchers after every (re)subscribed, watchers whose content hashes
+ * are up to date are not woken.
  * 
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0 2019年5月27日
  * @since
  */
-public class JedisConfigSourcePublisher extends GenericConfigSourcePublisher {
+public class JedisConfigSourcePublisher extends GenericConfigSourcePublisher implements DisposableBean {
 
 	final private JedisService jedisService;
 
+	/** Current subscriber of published events. */
+	private volatile JedisPubSub subscriber;
+
+	/** Destroyed of publisher, stops re-subscribing. */
+	private volatile boolean destroyed;
+
 	public JedisConfigSourcePublisher(ScmProperties config, JedisService jedisService) {
 		super(config);
 		this.jedisService = jedisService;
 	}
 
 	@Override
-	protected Collection<PublishConfigWrapper> pollNextPublishedConfig() {
-		List<PublishConfigWrapper> list = new ArrayList<>(4);
-
-		// Extract published config.
-		Set<Object> groups = jedisService.getObjectSet(CACHE_PUB_GROUPS);
-		if (!isEmpty(groups)) {
-			for (Object group : groups) {
-				String key = getGroupKey((String) group);
-				PublishConfigWrapper wrap = jedisService.getObjectT(key, PublishConfigWrapper.class);
-				if (nonNull(wrap)) {
-					list.add(wrap);
-					// Release configured.
-					Long res = jedisService.del(key);
-					if (isNull(res) || res <= 0) {
-						log.warn("Failed to release published configuration, key: {}", key);
-					}
+	protected void subscribePublished() {
+		long backoff = DEFAULT_BACKOFF_MS;
+		while (isActive() && !destroyed) {
+			try {
+				subscriber = new PublishedConfigSubscriber();
+				log.info("Subscribing published config of channel: {}", CHANNEL_PUB_CONFIG);
+				// Blocking until unsubscribe or disconnected.
+				jedisService.getJedisClient().subscribe(subscriber, CHANNEL_PUB_CONFIG);
+				backoff = DEFAULT_BACKOFF_MS;
+			} catch (Throwable th) {
+				log.error(String.format("Failed to subscribe published config, retry after %sms", backoff), th);
+			}
+			if (isActive() && !destroyed) {
+				try {
+					sleep(backoff);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
 				}
+				backoff = min(backoff * 2, MAX_BACKOFF_MS);
 			}
 		}
-
-		log.debug("Extract published config for - ({}), {}", list.size(), list);
-		return list;
 	}
 
 	@Override
 	protected void doPublishConfig(PublishConfigWrapper wrap) {
-		log.debug("Put publishing config for - {}", wrap);
+		log.debug("Publishing config for - {}", wrap);
 
-		// Storage group name
-		jedisService.setSetObjectAdd(CACHE_PUB_GROUPS, wrap.getCluster());
+		// Saved before publishing, so a node either receives the event, or
+		// reads it by the catch-up after subscribed.
+		Map<String, String> latest = new HashMap<>();
+		for (ReleaseContent content : wrap.getReleases()) {
+			if (isNull(content) || isNull(content.getProfile())) {
+				continue;
+			}
+			for (ConfigNode node : wrap.getNodes()) {
+				PublishConfigWrapper one = new PublishConfigWrapper(wrap);
+				one.setNodes(singletonList(node));
+				one.setReleases(singletonList(content));
+				latest.put(new WatchKey(wrap.getCluster(), content.getProfile(), node).toString(), toJSONString(one));
+			}
+		}
+		if (!latest.isEmpty()) {
+			jedisService.getJedisClient().hmset(CACHE_PUB_LATEST, latest);
+		}
 
-		// Storage group published
-		jedisService.setObjectT(getGroupKey(wrap.getCluster()), wrap, 0);
+		Long receivers = jedisService.getJedisClient().publish(CHANNEL_PUB_CONFIG, toJSONString(wrap));
+		if (isNull(receivers) || receivers <= 0) {
+			log.warn("No config server subscribed the published config - {}", wrap.asIdentify());
+		}
 	}
 
-	private String getGroupKey(String group) {
-		// jedis unsupport '-'
-		group = Hex.encodeHexString(group.getBytes(UTF_8));
-		return KEY_PUB_PREFIX + group;
+	/**
+	 * Replay the latest published of local watching keys, catch up the events
+	 * missed while subscription was broken.
+	 * 
+	 * @return Returns the count of woken up.
+	 */
+	protected int catchUpPublished() {
+		List<String> fields = new ArrayList<>(CATCH_UP_BATCH);
+		int c = 0;
+		for (WatchKey watchKey : getWatchingKeys()) {
+			fields.add(watchKey.toString());
+			if (fields.size() >= CATCH_UP_BATCH) {
+				c += doCatchUpPublished(fields);
+				fields.clear();
+			}
+		}
+		if (!fields.isEmpty()) {
+			c += doCatchUpPublished(fields);
+		}
+		log.info("Caught up published config, woken: {}", c);
+		return c;
 	}
 
-}
\ No newline at end of file
+	private int doCatchUpPublished(List<String> fields) {
+		int c = 0;
+		List<String> latest = jedisService.getJedisClient().hmget(CACHE_PUB_LATEST, fields.toArray(new String[0]));
+		for (String message : latest) {
+			if (!isNull(message)) {
+				c += notifyPublished(parseJSON(message, PublishConfigWrapper.class));
+			}
+		}
+		return c;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		destroyed = true;
+		JedisPubSub subscriber = this.subscriber;
+		if (!isNull(subscriber) && subscriber.isSubscribed()) {
+			subscriber.unsubscribe();
+		}
+	}
+
+	/**
+	 * Published configuration events subscriber.
+	 */
+	class PublishedConfigSubscriber extends JedisPubSub {
+
+		@Override
+		public void onSubscribe(String channel, int subscribedChannels) {
+			try {
+				catchUpPublished();
+			} catch (Throwable th) {
+				log.error("Failed to catch up published config", th);
+			}
+		}
+
+		@Override
+		public void onMessage(String channel, String message) {
+			try {
+				notifyPublished(parseJSON(message, PublishConfigWrapper.class));
+			} catch (Throwable th) {
+				log.error(String.format("Failed to notify published config - %s", message), th);
+			}
+		}
+
+	}
+
+	/** Default subscribe reconnect backoff milliseconds. */
+	final private static long DEFAULT_BACKOFF_MS = 500L;
+
+	/** Max subscribe reconnect backoff milliseconds. */
+	final private static long MAX_BACKOFF_MS = 30_000L;
+
+	/** Max watching keys of each catch-up read. */
+	final private static int CATCH_UP_BATCH = 1000;
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.publish;
+
+import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
+import static com.wl4g.dopaas.scm.common.SCMConstants.CHANNEL_PUB_CONFIG;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.http.ResponseEntity;
+
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigNode;
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigProfile;
+import com.wl4g.dopaas.scm.common.model.FetchReleaseConfigRequest;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo.ReleaseContent;
+import com.wl4g.dopaas.scm.config.ScmProperties;
+
+/**
+ * Watching fan-out load tests of {@link GenericConfigSourcePublisher}, the
+ * multiple {@link JedisConfigSourcePublisher}s(config server nodes) are
+ * connected by an in-memory loopback channel instead of redis server, the
+ * published events still go through the same JSON message and subscriber as
+ * the redis channel. Tens of thousands of long-polls are registered, then
+ * verify that a release only wakes the affected watchers.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class ConfigSourcePublisherLoadTests {
+
+	final static int SERVERS = 3;
+	final static int CLUSTERS = 50;
+	final static int NODES_PER_CLUSTER = 200;
+	final static String[] PROFILES = { "application.yml", "application-db.yml" };
+
+	public static void main(String[] args) {
+		List<LoopbackConfigSourcePublisher> bus = new CopyOnWriteArrayList<>();
+		for (int i = 0; i < SERVERS; i++) {
+			bus.add(new LoopbackConfigSourcePublisher(bus));
+		}
+
+		// Register long-polls(each node of cluster watching on one server).
+		List<WatchDeferredResult<ResponseEntity<?>>> watchs = new ArrayList<>(CLUSTERS * NODES_PER_CLUSTER);
+		long begin = System.nanoTime();
+		for (int c = 0; c < CLUSTERS; c++) {
+			for (int n = 0; n < NODES_PER_CLUSTER; n++) {
+				FetchReleaseConfigRequest watch = new FetchReleaseConfigRequest();
+				watch.setZone("zone1");
+				watch.setCluster("cluster" + c);
+				watch.setNode(new ConfigNode("host" + n, "8080"));
+				for (String profile : PROFILES) {
+					watch.getProfiles().add(new ConfigProfile("yaml", profile));
+				}
+				watchs.add(bus.get(n % SERVERS).watch(watch));
+			}
+		}
+		System.out.println(String.format("Registered watchs: %s, cost: %sms", watchs.size(),
+				(System.nanoTime() - begin) / 1000_000));
+
+		// Release one profile to half nodes of cluster.
+		for (int round = 0; round < 5; round++) {
+			ReleaseConfigInfo release = new ReleaseConfigInfo();
+			release.setZone("zone1");
+			release.setCluster("cluster" + round);
+			release.getMeta().setReleaseId(String.valueOf(round));
+			release.getMeta().setVersion("1.0." + round);
+			for (int n = 0; n < NODES_PER_CLUSTER / 2; n++) {
+				release.getNodes().add(new ConfigNode("host" + n, "8080"));
+			}
+			ReleaseContent content = new ReleaseContent();
+			content.setProfile(new ConfigProfile("yaml", PROFILES[round % PROFILES.length]));
+			content.setSourceContent("key: value" + round);
+			release.getReleases().add(content);
+
+			begin = System.nanoTime();
+			bus.get(round % SERVERS).publish(release);
+			long costUs = (System.nanoTime() - begin) / 1000;
+
+			int woken = 0;
+			for (WatchDeferredResult<ResponseEntity<?>> watch : watchs) {
+				if (watch.hasResult()) {
+					++woken;
+					// Completed long-poll, deregister as the servlet container.
+					bus.forEach(p -> p.evict(watch));
+				}
+			}
+			System.out.println(String.format("Released: %s, woken watchs: %s (expected: %s), cost: %sus",
+					release.getCluster(), woken, NODES_PER_CLUSTER / 2, costUs));
+			if (woken != NODES_PER_CLUSTER / 2) {
+				throw new IllegalStateException("Woken watchs mismatch");
+			}
+			watchs.removeIf(w -> w.hasResult());
+		}
+	}
+
+	/**
+	 * Redis publisher of loopback channel, the published message is encoded
+	 * and delivered to {@link PublishedConfigSubscriber} of each server as the
+	 * redis channel.
+	 */
+	static class LoopbackConfigSourcePublisher extends JedisConfigSourcePublisher {
+
+		final private List<LoopbackConfigSourcePublisher> bus;
+
+		public LoopbackConfigSourcePublisher(List<LoopbackConfigSourcePublisher> bus) {
+			super(new ScmProperties(), null);
+			this.bus = bus;
+		}
+
+		@Override
+		protected void subscribePublished() {
+		}
+
+		@Override
+		protected void doPublishConfig(PublishConfigWrapper wrap) {
+			String message = toJSONString(wrap);
+			for (LoopbackConfigSourcePublisher server : bus) {
+				server.new PublishedConfigSubscriber().onMessage(CHANNEL_PUB_CONFIG, message);
+			}
+		}
+
+		void evict(WatchDeferredResult<ResponseEntity<?>> watch) {
+			removeWatchDeferred(getWatchKeys(watch.getWatch()), watch);
+		}
+
+	}
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.publish;
+
+import static com.wl4g.dopaas.scm.common.SCMConstants.CACHE_PUB_LATEST;
+import static com.wl4g.dopaas.scm.common.SCMConstants.CHANNEL_PUB_CONFIG;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+
+import com.wl4g.component.support.cache.jedis.JedisClient;
+import com.wl4g.component.support.cache.jedis.JedisService;
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigNode;
+import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigProfile;
+import com.wl4g.dopaas.scm.common.model.FetchReleaseConfigRequest;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo.ReleaseContent;
+import com.wl4g.dopaas.scm.config.ScmProperties;
+import com.wl4g.dopaas.scm.publish.JedisConfigSourcePublisher.PublishedConfigSubscriber;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.embedded.RedisServer;
+
+/**
+ * Correctness of {@link JedisConfigSourcePublisher} on an embedded redis, the
+ * watching index under concurrent watch/complete, and the catch-up of the
+ * events published while a node was not subscribed.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class JedisConfigSourcePublisherTests {
+
+	final static int THREADS = 8;
+	final static int WATCHS_PER_THREAD = 5_000;
+
+	private static RedisServer redisServer;
+	private static JedisPool jedisPool;
+	private static JedisService jedisService;
+
+	@BeforeClass
+	public static void startRedis() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		redisServer = RedisServer.builder().port(port).setting("bind 127.0.0.1").build();
+		redisServer.start();
+		jedisPool = new JedisPool("127.0.0.1", port);
+		jedisService = new JedisService(newJedisClient(jedisPool));
+	}
+
+	@AfterClass
+	public static void stopRedis() {
+		if (jedisPool != null) {
+			jedisPool.close();
+		}
+		if (redisServer != null) {
+			redisServer.stop();
+		}
+	}
+
+	@Test
+	public void concurrentWatchAndCompleteTest() throws Exception {
+		JedisConfigSourcePublisher publisher = new JedisConfigSourcePublisher(new ScmProperties(), jedisService);
+
+		// All watchers of the same key, most of them are completed at once,
+		// so the index of the key is removed and re-created repeatedly.
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<WatchDeferredResult<ResponseEntity<?>>> alives = new ArrayList<>();
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<List<WatchDeferredResult<ResponseEntity<?>>>>> futures = new ArrayList<>(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					List<WatchDeferredResult<ResponseEntity<?>>> kept = new ArrayList<>();
+					for (int i = 0; i < WATCHS_PER_THREAD; i++) {
+						WatchDeferredResult<ResponseEntity<?>> deferred = publisher.watch(newWatch("cluster1", "host1", null));
+						if (i % 100 == 0) {
+							kept.add(deferred);
+						} else {
+							publisher.removeWatchDeferred(publisher.getWatchKeys(deferred.getWatch()), deferred);
+						}
+					}
+					return kept;
+				}));
+			}
+			start.countDown();
+			for (Future<List<WatchDeferredResult<ResponseEntity<?>>>> f : futures) {
+				alives.addAll(f.get(30, SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(alives.size(), publisher.getWatchCount());
+
+		// None of the alive watchers is lost from index.
+		assertEquals(alives.size(), publisher.notifyPublished(new GenericConfigSourcePublisher.PublishConfigWrapper(
+				newRelease("cluster1", "host1", "key: value1"))));
+		alives.forEach(w -> assertTrue(w.hasResult()));
+	}
+
+	@Test
+	public void catchUpAfterResubscribeTest() throws Exception {
+		JedisConfigSourcePublisher publisher = new JedisConfigSourcePublisher(new ScmProperties(), jedisService);
+		JedisConfigSourcePublisher otherPublisher = new JedisConfigSourcePublisher(new ScmProperties(), jedisService);
+
+		ReleaseConfigInfo release = newRelease("cluster2", "host1", "key: value2");
+		String contentHash = release.getReleases().get(0).getContentHash();
+		WatchDeferredResult<ResponseEntity<?>> stale = otherPublisher.watch(newWatch("cluster2", "host1", null));
+		WatchDeferredResult<ResponseEntity<?>> upToDate = otherPublisher.watch(newWatch("cluster2", "host1", contentHash));
+		WatchDeferredResult<ResponseEntity<?>> unaffected = otherPublisher.watch(newWatch("cluster2", "host2", null));
+
+		// The other node is not subscribed, the event of channel is lost.
+		publisher.publish(release);
+		assertFalse(stale.hasResult());
+
+		// Caught up once subscribed.
+		PublishedConfigSubscriber subscriber = otherPublisher.new PublishedConfigSubscriber();
+		Thread subscribing = new Thread(() -> {
+			try (Jedis jedis = jedisPool.getResource()) {
+				jedis.subscribe(subscriber, CHANNEL_PUB_CONFIG);
+			}
+		});
+		subscribing.start();
+		try {
+			for (int i = 0; i < 100 && !stale.hasResult(); i++) {
+				Thread.sleep(50L);
+			}
+			assertTrue(stale.hasResult());
+			assertFalse(upToDate.hasResult());
+			assertFalse(unaffected.hasResult());
+		} finally {
+			subscriber.unsubscribe();
+			subscribing.join(5_000L);
+			try (Jedis jedis = jedisPool.getResource()) {
+				jedis.del(CACHE_PUB_LATEST);
+			}
+		}
+	}
+
+	private static FetchReleaseConfigRequest newWatch(String cluster, String host, String contentHash) {
+		ConfigProfile profile = new ConfigProfile("yaml", "application.yml");
+		FetchReleaseConfigRequest watch = new FetchReleaseConfigRequest();
+		watch.setZone("zone1");
+		watch.setCluster(cluster);
+		watch.setNode(new ConfigNode(host, "8080"));
+		watch.getProfiles().add(profile);
+		if (contentHash != null) {
+			watch.getContentHashes().put(profile.asKey(), contentHash);
+		}
+		return watch;
+	}
+
+	private static ReleaseConfigInfo newRelease(String cluster, String host, String sourceContent) {
+		ReleaseConfigInfo release = new ReleaseConfigInfo();
+		release.setZone("zone1");
+		release.setCluster(cluster);
+		release.getMeta().setReleaseId("1");
+		release.getMeta().setVersion("1.0.0");
+		release.getNodes().add(new ConfigNode(host, "8080"));
+		ReleaseContent content = new ReleaseContent();
+		content.setProfile(new ConfigProfile("yaml", "application.yml"));
+		content.setSourceContent(sourceContent);
+		release.getReleases().add(content);
+		return release;
+	}
+
+	private static JedisClient newJedisClient(JedisPool pool) {
+		return (JedisClient) Proxy.newProxyInstance(JedisClient.class.getClassLoader(), new Class[] { JedisClient.class },
+				(proxy, method, args) -> {
+					try (Jedis jedis = pool.getResource()) {
+						return Jedis.class.getMethod(method.getName(), method.getParameterTypes()).invoke(jedis, args);
+					} catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+
+}
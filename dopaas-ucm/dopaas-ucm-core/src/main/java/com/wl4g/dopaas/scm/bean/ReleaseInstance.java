@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.bean;
+
+/**
+ * 发布目标实例：cmdb_app_instance及其当前版本签名
+ * 
+ * @author agent <agent@local>
+ * @date 2026年10月16日
+ */
+public class ReleaseInstance {
+
+	private Integer id; // 实例ID
+	private Integer versionId; // 当前版本ID
+	private String versionSign; // 当前版本签名
+	private String hostname; // 主机名
+	private String endpoint; // 端点
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public Integer getVersionId() {
+		return versionId;
+	}
+
+	public void setVersionId(Integer versionId) {
+		this.versionId = versionId;
+	}
+
+	public String getVersionSign() {
+		return versionSign;
+	}
+
+	public void setVersionSign(String versionSign) {
+		this.versionSign = versionSign;
+	}
+
+	public String getHostname() {
+		return hostname;
+	}
+
+	public void setHostname(String hostname) {
+		this.hostname = hostname;
+	}
+
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public void setEndpoint(String endpoint) {
+		this.endpoint = endpoint;
+	}
+}
@@ -39,6 +39,12 @@ public class StandardScmProperties extends BaseScmProperties {
 
 	private long refreshProtectIntervalMs = 10_000L;
 
+	/**
+	 * Max nodes of refresh protecting, the least recently refreshed are
+	 * evicted.
+	 */
+	private long refreshProtectMaxNodes = 100_000L;
+
 	public long getRefreshProtectIntervalMs() {
 		return refreshProtectIntervalMs;
 	}
@@ -46,4 +52,12 @@ public class StandardScmProperties extends BaseScmProperties {
 	public void setRefreshProtectIntervalMs(long refreshProtectIntervalMs) {
 		this.refreshProtectIntervalMs = refreshProtectIntervalMs;
 	}
+
+	public long getRefreshProtectMaxNodes() {
+		return refreshProtectMaxNodes;
+	}
+
+	public void setRefreshProtectMaxNodes(long refreshProtectMaxNodes) {
+		this.refreshProtectMaxNodes = refreshProtectMaxNodes;
+	}
 }
\ No newline at end of file
@@ -46,6 +46,10 @@ public interface ConfigurationDao {
 
 	public void updateNode(Map<String, Object> nMap);
 
+	public void updateNodes(Map<String, Object> nMap);
+
+	public List<ReleaseInstance> selectReleaseInstances(List<Integer> ids);
+
 	public String nodeIsVersion(Map<String, Object> nvMap);
 
 	public List<VersionContentBean> selectVersion(int id);
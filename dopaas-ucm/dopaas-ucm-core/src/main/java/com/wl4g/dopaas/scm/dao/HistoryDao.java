@@ -32,6 +32,8 @@ public interface HistoryDao {
 
 	public long insertDetail(ReleaseDetail detail);
 
+	public int insertDetails(List<ReleaseDetail> details);
+
 	public Version versionselect(Version history);
 
 	public boolean delete(ReleaseHistory history);
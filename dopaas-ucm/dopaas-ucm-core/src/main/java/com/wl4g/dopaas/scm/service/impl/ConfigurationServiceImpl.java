@@ -16,27 +16,33 @@
 package com.wl4g.dopaas.scm.service.impl;
 
 import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.wl4g.component.core.bean.erm.AppCluster;
-import com.wl4g.component.core.bean.erm.AppInstance;
 import com.wl4g.dopaas.scm.bean.*;
 import com.wl4g.dopaas.scm.common.exception.TooManyRefreshException;
 import com.wl4g.dopaas.scm.common.model.*;
 import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigMeta;
 import com.wl4g.dopaas.scm.common.model.AbstractConfigInfo.ConfigNode;
 import com.wl4g.dopaas.dao.erm.AppClusterDao;
-import com.wl4g.dopaas.dao.erm.AppInstanceDao;
 import com.wl4g.dopaas.scm.config.StandardScmProperties;
 import com.wl4g.dopaas.scm.dao.ConfigurationDao;
 import com.wl4g.dopaas.scm.dao.HistoryDao;
 import com.wl4g.dopaas.scm.handler.CentralConfigServerHandler;
 import com.wl4g.dopaas.scm.service.ConfigurationService;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
 
 /**
  * DevOps configuration core service implement.
@@ -48,16 +54,26 @@ import java.util.*;
  */
 @Service
 @Transactional
-public class ConfigurationServiceImpl implements ConfigurationService {
+public class ConfigurationServiceImpl implements ConfigurationService, InitializingBean {
 
 private @Autowired  ConfigurationDao configurationDao;
 private @Autowired  HistoryDao historyDao;
 private @Autowired  AppClusterDao appClusterDao;
-private @Autowired  AppInstanceDao appInstanceDao;
 private @Autowired  CentralConfigServerHandler contextHandler;
 private @Autowired  StandardScmProperties scmServerProperties;
 
-	private static final Map<String,Long> refreshProtectIntervalMap = new HashMap<>();
+	/**
+	 * Last refresh time of nodes, the entries are expired after the refresh
+	 * protect interval.
+	 */
+	private Cache<String, Long> refreshProtectCache;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		this.refreshProtectCache = CacheBuilder.newBuilder()
+				.expireAfterWrite(scmServerProperties.getRefreshProtectIntervalMs(), MILLISECONDS)
+				.maximumSize(scmServerProperties.getRefreshProtectMaxNodes()).build();
+	}
 
 	@Override
 	public void configure(VersionOfDetail vd) {
@@ -66,21 +82,14 @@ private @Autowired  StandardScmProperties scmServerProperties;
 		if (nodeIdList == null || nodeIdList.isEmpty()) {// 如果实例id列表为空则不进行操作
 			return;
 		}
-		checkRefreshProtectInterval(nodeIdList);
-		updateRefreshTime(nodeIdList);
+		checkAndUpdateRefreshTime(nodeIdList);
 		String sign = signVersionContent(vd);
-		List<AppInstance> nodeList = new ArrayList<>();
-		for (String nodeId : nodeIdList) {
-			AppInstance instance = this.appInstanceDao.selectByPrimaryKey(Integer.valueOf(nodeId));
-			Integer hisVersionId = instance.getVersionId();
-			if (hisVersionId != null) {
-				Version version = new Version();
-				version.setId(hisVersionId);
-				version = this.historyDao.versionselect(version);
-				String hisSign = version.getSign();
-				if (sign.equals(hisSign)) {
-					continue;
-				}
+		// 一次查询所有实例及其当前版本签名
+		List<Integer> nodeIds = nodeIdList.stream().map(Integer::valueOf).distinct().collect(toList());
+		List<ReleaseInstance> nodeList = new ArrayList<>(nodeIds.size());
+		for (ReleaseInstance instance : this.configurationDao.selectReleaseInstances(nodeIds)) {
+			if (instance.getVersionId() != null && Objects.equals(sign, instance.getVersionSign())) {
+				continue;
 			}
 			nodeList.add(instance);
 		}
@@ -115,23 +124,16 @@ private @Autowired  StandardScmProperties scmServerProperties;
 		this.historyDao.insert(historyOfDetail);
 
 		// Define release instance list.
-		List<ConfigNode> instances = new ArrayList<>();
-		for (AppInstance instance : nodeList) {
-			// Save release history details information.
+		List<ConfigNode> instances = new ArrayList<>(nodeList.size());
+		List<ReleaseDetail> releaseDetails = new ArrayList<>(nodeList.size());
+		for (ReleaseInstance instance : nodeList) {
+			// Release history details information.
 			ReleaseDetail releaseDetail = new ReleaseDetail();
 			releaseDetail.preInsert();
 			releaseDetail.setReleaseId(historyOfDetail.getId());
 			releaseDetail.setResult("暂无结果");
 			releaseDetail.setInstanceId(instance.getId());
-			this.historyDao.insertDetail(releaseDetail);
-
-			// Update instance/node reference version information.
-			Map<String, Object> nMap = new HashMap<>();
-			nMap.put("vid", vd.getId());
-			nMap.put("nodeid", instance.getId());
-			nMap.put("updateBy", vd.getUpdateBy());
-			nMap.put("updateDate", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(vd.getUpdateDate()));
-			this.configurationDao.updateNode(nMap);
+			releaseDetails.add(releaseDetail);
 
 			// Get application instance information.
 			ConfigNode releaseInstance = new ConfigNode();
@@ -140,6 +142,17 @@ private @Autowired  StandardScmProperties scmServerProperties;
 			releaseInstance.setEndpoint(instance.getEndpoint());
 			instances.add(releaseInstance);
 		}
+		// Batch save release history details information.
+		this.historyDao.insertDetails(releaseDetails);
+
+		// Batch update instance/node reference version information.
+		Map<String, Object> nMap = new HashMap<>();
+		nMap.put("vid", vd.getId());
+		nMap.put("nodeids", nodeList.stream().map(ReleaseInstance::getId).collect(toList()));
+		nMap.put("updateBy", vd.getUpdateBy());
+		nMap.put("updateDate", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(vd.getUpdateDate()));
+		this.configurationDao.updateNodes(nMap);
+
 		// Get application group information.
 		AppCluster appCluster = this.appClusterDao.selectByPrimaryKey(vd.getAppClusterId());
 
@@ -201,30 +214,38 @@ private @Autowired  StandardScmProperties scmServerProperties;
 	 * @return
 	 */
 	private String signVersionContent(VersionOfDetail vd) {
-		StringBuffer plain = new StringBuffer();
 		if (vd.getConfigGurations() != null) {
-			vd.getConfigGurations().forEach(c -> plain.append(c.getContent()));
-			// Computational signature
-			return Hashing.md5().newHasher(32).putString(plain, Charsets.UTF_8).hash().toString();
+			// Computational signature, the contents are hashed in order
+			// without concatenating.
+			Hasher hasher = Hashing.md5().newHasher();
+			vd.getConfigGurations().forEach(c -> hasher.putString(String.valueOf(c.getContent()), Charsets.UTF_8));
+			return hasher.hash().toString();
 		}
 		return null;
 	}
 
-	private void checkRefreshProtectInterval(List<String> nodeIdList){
-		for(String node : nodeIdList){
-			Long aLong = refreshProtectIntervalMap.get(node);
-			if(Objects.nonNull(aLong) && System.currentTimeMillis()-aLong <=scmServerProperties.getRefreshProtectIntervalMs()){
+	/**
+	 * Check and update the refresh time of nodes atomically, none of the nodes
+	 * is updated if any of them is refreshed in the protect interval.
+	 * 
+	 * @param nodeIdList
+	 */
+	private void checkAndUpdateRefreshTime(List<String> nodeIdList) {
+		long now = System.currentTimeMillis();
+		ConcurrentMap<String, Long> refreshTimes = refreshProtectCache.asMap();
+		List<String> updated = new ArrayList<>(nodeIdList.size());
+		for (String node : new LinkedHashSet<>(nodeIdList)) {
+			// The expired entries are absent.
+			Long lastRefreshTime = refreshTimes.putIfAbsent(node, now);
+			if (Objects.nonNull(lastRefreshTime)
+					&& now - lastRefreshTime <= scmServerProperties.getRefreshProtectIntervalMs()) {
+				updated.forEach(n -> refreshTimes.remove(n, now));
 				throw new TooManyRefreshException("Too many refresh");
+			} else if (Objects.nonNull(lastRefreshTime)) {
+				refreshTimes.put(node, now);
 			}
+			updated.add(node);
 		}
 	}
 
-	private void updateRefreshTime(List<String> nodeIdList){
-		long now = System.currentTimeMillis();
-		for(String node : nodeIdList){
-			refreshProtectIntervalMap.put(node,now);
-		}
-
-	}
-
 }
\ No newline at end of file
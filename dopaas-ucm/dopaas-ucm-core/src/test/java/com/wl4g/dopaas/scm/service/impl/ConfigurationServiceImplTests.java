@@ -0,0 +1,268 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.scm.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.wl4g.component.core.bean.erm.AppCluster;
+import com.wl4g.dopaas.dao.erm.AppClusterDao;
+import com.wl4g.dopaas.scm.bean.VersionContentBean;
+import com.wl4g.dopaas.scm.bean.VersionOfDetail;
+import com.wl4g.dopaas.scm.common.exception.TooManyRefreshException;
+import com.wl4g.dopaas.scm.common.model.ReleaseConfigInfo;
+import com.wl4g.dopaas.scm.config.StandardScmProperties;
+import com.wl4g.dopaas.scm.dao.ConfigurationDao;
+import com.wl4g.dopaas.scm.dao.HistoryDao;
+import com.wl4g.dopaas.scm.handler.CentralConfigServerHandler;
+
+/**
+ * Database round-trips of {@link ConfigurationServiceImpl#configure}, the
+ * mappers are executed on an embedded H2 (MySQL mode) database through a
+ * round-trip counting {@link DataSource} proxy, a release costs a fixed
+ * number of round-trips regardless of the number of instances.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class ConfigurationServiceImplTests {
+
+	final static int INSTANCES = 500;
+
+	private AtomicInteger roundTrips;
+	private SqlSession session;
+	private StandardScmProperties props;
+	private List<ReleaseConfigInfo> releases;
+
+	@Before
+	public void setUp() throws Exception {
+		JdbcDataSource h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:ucm" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		try (Connection conn = h2.getConnection(); Statement stmt = conn.createStatement()) {
+			stmt.execute("CREATE TABLE cmdb_host (id INT PRIMARY KEY, hostname VARCHAR(64))");
+			stmt.execute("CREATE TABLE cmdb_app_instance (id INT PRIMARY KEY, host_id INT, cluster_id INT, endpoint VARCHAR(64), "
+					+ "env_type VARCHAR(16), version_id INT, update_by VARCHAR(64), update_date VARCHAR(32))");
+			stmt.execute("CREATE TABLE ucm_version (id INT AUTO_INCREMENT PRIMARY KEY, sign VARCHAR(64), sign_type VARCHAR(16), "
+					+ "tag VARCHAR(16), remark VARCHAR(255), create_by VARCHAR(64), create_date TIMESTAMP, del_flag INT DEFAULT 0)");
+			stmt.execute("CREATE TABLE ucm_version_detail (id INT AUTO_INCREMENT PRIMARY KEY, version_id INT, type INT, "
+					+ "content CLOB, remark VARCHAR(255), namespace_id VARCHAR(64))");
+			stmt.execute("CREATE TABLE ucm_release_history (id INT AUTO_INCREMENT PRIMARY KEY, version_id INT, status INT, "
+					+ "remark VARCHAR(255), create_by VARCHAR(64), create_date TIMESTAMP, type INT)");
+			stmt.execute("CREATE TABLE ucm_release_detail (id INT AUTO_INCREMENT PRIMARY KEY, release_id INT, instance_id INT, "
+					+ "result VARCHAR(255), status INT, description VARCHAR(255))");
+			for (int i = 1; i <= INSTANCES; i++) {
+				stmt.execute("INSERT INTO cmdb_host (id, hostname) VALUES (" + i + ", 'host" + i + "')");
+				stmt.execute("INSERT INTO cmdb_app_instance (id, host_id, cluster_id, endpoint) VALUES (" + i + ", " + i
+						+ ", 1, '8080')");
+			}
+		}
+
+		roundTrips = new AtomicInteger(0);
+		Configuration configuration = new Configuration(
+				new Environment("test", new JdbcTransactionFactory(), countingDataSource(h2, roundTrips)));
+		configuration.getTypeAliasRegistry().registerAliases("com.wl4g.dopaas.scm.bean");
+		for (String mapper : Arrays.asList("mybatis/scm/ConfigurationMapper.xml", "mybatis/scm/HistoryMapper.xml")) {
+			try (InputStream in = Resources.getResourceAsStream(mapper)) {
+				new XMLMapperBuilder(in, configuration, mapper, configuration.getSqlFragments()).parse();
+			}
+		}
+		session = new SqlSessionFactoryBuilder().build(configuration).openSession(true);
+		props = new StandardScmProperties();
+		releases = new ArrayList<>();
+	}
+
+	@After
+	public void tearDown() {
+		session.close();
+	}
+
+	@Test
+	public void testReleaseRoundTripsFixed() throws Exception {
+		ConfigurationServiceImpl service = createService(0L);
+
+		roundTrips.set(0);
+		service.configure(createRelease(5, "a=1"));
+		int fewRoundTrips = roundTrips.get();
+
+		roundTrips.set(0);
+		service.configure(createRelease(INSTANCES, "a=2"));
+		int manyRoundTrips = roundTrips.get();
+		assertEquals("Round-trips of 5 and " + INSTANCES + " instances", fewRoundTrips, manyRoundTrips);
+		assertTrue("Round-trips: " + manyRoundTrips, manyRoundTrips <= 6);
+		assertEquals(INSTANCES, releases.get(1).getNodes().size());
+		assertEquals(INSTANCES, count("SELECT COUNT(*) FROM cmdb_app_instance WHERE version_id = "
+				+ "(SELECT MAX(id) FROM ucm_version)"));
+		assertEquals(5 + INSTANCES, count("SELECT COUNT(*) FROM ucm_release_detail"));
+
+		// The instances with the same signature are excluded, only the
+		// instances selecting is executed.
+		roundTrips.set(0);
+		service.configure(createRelease(INSTANCES, "a=2"));
+		assertEquals(1, roundTrips.get());
+		assertEquals(2, releases.size());
+	}
+
+	@Test
+	public void testRefreshProtectInterval() throws Exception {
+		ConfigurationServiceImpl service = createService(60_000L);
+		service.configure(createRelease(5, "a=1"));
+		try {
+			service.configure(createRelease(INSTANCES, "a=2"));
+			fail("Expected TooManyRefreshException");
+		} catch (TooManyRefreshException e) {
+			// Ignore
+		}
+		// The nodes claimed by the failed release are not protected.
+		TestRelease release = createRelease(INSTANCES, "a=2").withNodeIds(6, INSTANCES);
+		release.getNodeIdList().add("1");
+		try {
+			service.configure(release);
+			fail("Expected TooManyRefreshException");
+		} catch (TooManyRefreshException e) {
+			// Ignore
+		}
+		releases.clear();
+		service.configure(createRelease(INSTANCES, "a=3").withNodeIds(6, INSTANCES));
+		assertEquals(INSTANCES - 5, releases.get(0).getNodes().size());
+	}
+
+	private ConfigurationServiceImpl createService(long refreshProtectIntervalMs) throws Exception {
+		props.setRefreshProtectIntervalMs(refreshProtectIntervalMs);
+		ConfigurationServiceImpl service = new ConfigurationServiceImpl();
+		setField(service, "configurationDao", session.getMapper(ConfigurationDao.class));
+		setField(service, "historyDao", session.getMapper(HistoryDao.class));
+		setField(service, "appClusterDao", proxy(AppClusterDao.class, (p, method, args) -> {
+			AppCluster cluster = new AppCluster();
+			cluster.setName("app1");
+			return "selectByPrimaryKey".equals(method.getName()) ? cluster : null;
+		}));
+		setField(service, "contextHandler", proxy(CentralConfigServerHandler.class, (p, method, args) -> {
+			if ("release".equals(method.getName())) {
+				releases.add((ReleaseConfigInfo) args[0]);
+			}
+			return null;
+		}));
+		setField(service, "scmServerProperties", props);
+		service.afterPropertiesSet();
+		return service;
+	}
+
+	private int count(String sql) throws Exception {
+		try (Statement stmt = session.getConnection().createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+
+	private static TestRelease createRelease(int instances, String content) {
+		TestRelease vd = new TestRelease();
+		vd.setAppClusterId(1);
+		vd.withNodeIds(1, instances);
+		VersionContentBean vcb = new VersionContentBean();
+		vcb.setNamespaceId("application.properties");
+		vcb.setType(1);
+		vcb.setContent(content);
+		vd.setConfigGurations(new ArrayList<>(Arrays.asList(vcb)));
+		return vd;
+	}
+
+	/**
+	 * Counting the statements executions of {@link DataSource}, i.e. the
+	 * round-trips to database.
+	 */
+	private static DataSource countingDataSource(DataSource target, AtomicInteger counter) {
+		return proxy(DataSource.class, (p, method, args) -> {
+			Object result = invoke(target, method, args);
+			if (!(result instanceof Connection)) {
+				return result;
+			}
+			return proxy(Connection.class, (cp, cmethod, cargs) -> {
+				Object cresult = invoke(result, cmethod, cargs);
+				if (!(cresult instanceof Statement)) {
+					return cresult;
+				}
+				// e.g. PreparedStatement of prepareStatement()
+				return proxy(cmethod.getReturnType(), (sp, smethod, sargs) -> {
+					if (smethod.getName().startsWith("execute")) {
+						counter.incrementAndGet();
+					}
+					return invoke(cresult, smethod, sargs);
+				});
+			});
+		});
+	}
+
+	private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> intf, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(ConfigurationServiceImplTests.class.getClassLoader(), new Class[] { intf }, handler);
+	}
+
+	private static void setField(Object target, String name, Object value) throws Exception {
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+
+	@SuppressWarnings("serial")
+	static class TestRelease extends VersionOfDetail {
+		TestRelease withNodeIds(int from, int to) {
+			List<String> nodeIds = new ArrayList<>();
+			for (int i = from; i <= to; i++) {
+				nodeIds.add(String.valueOf(i));
+			}
+			setNodeIdList(nodeIds);
+			return this;
+		}
+	}
+
+}
@@ -15,26 +15,16 @@
  */
 package com.wl4g.dopaas.umc.alarm.alerting;
 
-import static com.wl4g.component.common.collection.CollectionUtils2.ensureList;
 import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
-import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_METRIC_QUEUE;
-import static java.lang.Math.abs;
-import static java.util.Collections.emptyList;
-
-import java.util.Iterator;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
 
 import org.springframework.util.Assert;
 
 import com.wl4g.component.common.log.SmartLogger;
 import com.wl4g.component.common.task.RunnerProperties;
 import com.wl4g.component.support.cache.jedis.JedisService;
-import com.wl4g.component.support.cache.locks.JedisLockManager;
 import com.wl4g.component.core.task.ApplicationTaskRunner;
-import com.wl4g.dopaas.common.bean.umc.model.MetricValue;
 import com.wl4g.dopaas.umc.alarm.metric.MetricAggregateWrapper;
+import com.wl4g.dopaas.umc.alarm.window.MetricTimeWindowStore;
 import com.wl4g.dopaas.umc.config.AlarmProperties;
 
 /**
@@ -51,17 +41,16 @@ public abstract class AbstractIndicatorsValveAlerter extends ApplicationTaskRunn
 	/** REDIS service */
 	final protected JedisService jedisService;
 
-	/**
-	 * REDIS lock manager.
-	 */
-	final protected JedisLockManager lockManager;
+	/** Metric time window store. */
+	final protected MetricTimeWindowStore windowStore;
 
-	public AbstractIndicatorsValveAlerter(JedisService jedisService, JedisLockManager lockManager, AlarmProperties config) {
+	public AbstractIndicatorsValveAlerter(JedisService jedisService, MetricTimeWindowStore windowStore,
+			AlarmProperties config) {
 		super(config);
 		Assert.notNull(jedisService, "JedisService is null, please check config.");
-		Assert.notNull(lockManager, "LockManager is null, please check config.");
+		Assert.notNull(windowStore, "MetricTimeWindowStore is null, please check config.");
 		this.jedisService = jedisService;
-		this.lockManager = lockManager;
+		this.windowStore = windowStore;
 	}
 
 	@Override
@@ -77,86 +66,4 @@ public abstract class AbstractIndicatorsValveAlerter extends ApplicationTaskRunn
 	 */
 	protected abstract void doHandleAlarm(MetricAggregateWrapper agwrap);
 
-	// --- Metric time queue. ---
-
-	/**
-	 * Offer metric values in time windows.
-	 * 
-	 * @param cacheKey
-	 *            cacheKey address
-	 * @param value
-	 *            metric value
-	 * @param gatherTime
-	 *            gather time-stamp.
-	 * @param now
-	 *            current date time-stamp.
-	 * @param ttl
-	 *            time-to-live
-	 * @return
-	 */
-	protected List<MetricValue> offerTimeWindowQueue(String cacheKey, Double value, long gatherTime, long now, long ttl) {
-		List<MetricValue> metricVals = emptyList();
-
-		// To solve the concurrency problem of metric window queue in
-		// distributed environment.
-		Lock lock = lockManager.getLock(getTimeWindowQueueCacheKey(cacheKey));
-		try {
-			if (lock.tryLock(6L, TimeUnit.SECONDS)) {
-				metricVals = ensureList(doPeekMetricValueQueue(cacheKey));
-
-				// Check & clean expired metrics.
-				Iterator<MetricValue> it = metricVals.iterator();
-				while (it.hasNext()) {
-					long gatherTime1 = it.next().getGatherTime();
-					// Remove expire data and repeat data
-					if (abs(now - gatherTime1) >= ttl || gatherTime1 == gatherTime) {
-						it.remove();
-					}
-				}
-				metricVals.add(new MetricValue(gatherTime, value));
-
-				// Offer to queue.
-				doOfferMetricValueQueue(cacheKey, ttl, metricVals);
-			}
-		} catch (InterruptedException e) {
-			throw new IllegalStateException(e);
-		} finally {
-			lock.unlock();
-		}
-
-		return metricVals;
-	}
-
-	/**
-	 * GET metric values queue by collect address.
-	 * 
-	 * @param cacheKey
-	 * @return
-	 */
-	protected List<MetricValue> doPeekMetricValueQueue(String cacheKey) {
-		String timeWindowKey = getTimeWindowQueueCacheKey(cacheKey);
-		return jedisService.getObjectList(timeWindowKey, MetricValue.class);
-	}
-
-	/**
-	 * Storage metric values to cache.
-	 * 
-	 * @param cacheKey
-	 * @param ttl
-	 * @param metricVals
-	 */
-	protected List<MetricValue> doOfferMetricValueQueue(String cacheKey, long ttl, List<MetricValue> metricVals) {
-		String timeWindowKey = getTimeWindowQueueCacheKey(cacheKey);
-		jedisService.del(timeWindowKey);
-		jedisService.setObjectList(timeWindowKey, metricVals, (int) ttl / 1000);
-		return metricVals;
-	}
-
-	// --- Cache key. ---
-
-	protected String getTimeWindowQueueCacheKey(String cacheKey) {
-		Assert.hasText(cacheKey, "cacheKey must not be empty");
-		return KEY_CACHE_ALARM_METRIC_QUEUE + cacheKey;
-	}
-
 }
\ No newline at end of file
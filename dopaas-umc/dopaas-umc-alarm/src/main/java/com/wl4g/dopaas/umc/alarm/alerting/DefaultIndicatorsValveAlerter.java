@@ -15,54 +15,45 @@
  */
 package com.wl4g.dopaas.umc.alarm.alerting;
 
-import static com.wl4g.component.common.collection.CollectionUtils2.safeList;
 import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
-import static com.wl4g.dopaas.common.constant.UmcConstants.ALARM_SATUS_SEND;
-import static java.lang.Math.abs;
 import static java.lang.System.currentTimeMillis;
-import static java.util.Collections.emptyMap;
-import static java.util.stream.Collectors.toList;
-import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+import static java.util.Objects.isNull;
+import static org.springframework.beans.BeanUtils.copyProperties;
 import static org.springframework.util.CollectionUtils.isEmpty;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
-import com.wl4g.component.core.framework.operator.GenericOperatorAdapter;
-import com.wl4g.component.support.notification.GenericNotifyMessage;
-import com.wl4g.component.support.notification.MessageNotifier;
-import com.wl4g.component.support.notification.MessageNotifier.NotifierKind;
-import com.wl4g.component.support.notification.mail.MailMessageNotifier;
 import com.wl4g.component.support.cache.jedis.JedisService;
-import com.wl4g.component.support.cache.locks.JedisLockManager;
 import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
 import com.wl4g.dopaas.common.bean.umc.AlarmRecord;
 import com.wl4g.dopaas.common.bean.umc.AlarmRule;
 import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
-import com.wl4g.dopaas.common.bean.umc.model.MetricValue;
 import com.wl4g.dopaas.umc.alarm.AlarmMessage;
 import com.wl4g.dopaas.umc.alarm.AlarmNote;
 import com.wl4g.dopaas.umc.alarm.TemplateContactWrapper;
 import com.wl4g.dopaas.umc.alarm.metric.MetricAggregateWrapper;
 import com.wl4g.dopaas.umc.alarm.metric.MetricAggregateWrapper.MetricWrapper;
+import com.wl4g.dopaas.umc.alarm.notification.AlarmNotificationDispatcher;
+import com.wl4g.dopaas.umc.alarm.window.MetricTimeWindow;
+import com.wl4g.dopaas.umc.alarm.window.MetricTimeWindowStore;
 import com.wl4g.dopaas.umc.config.AlarmProperties;
 import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
+import com.wl4g.dopaas.umc.rule.AlarmRuleIndex;
+import com.wl4g.dopaas.umc.rule.AlarmRuleIndex.CompiledAlarmRule;
+import com.wl4g.dopaas.umc.rule.AlarmRuleIndex.ResolvedAlarmRule;
 import com.wl4g.dopaas.umc.rule.RuleConfigManager;
 import com.wl4g.dopaas.umc.rule.inspect.CompositeRuleInspectorAdapter;
 import com.wl4g.dopaas.umc.rule.inspect.RuleInspector.InspectWrapper;
 import com.wl4g.iam.common.bean.Contact;
-import com.wl4g.iam.common.bean.ContactChannel;
-import com.wl4g.iam.common.bean.NotificationContact;
 
 /**
  * Default collection metric valve alerter.
@@ -82,30 +73,30 @@ public class DefaultIndicatorsValveAlerter extends AbstractIndicatorsValveAlerte
 	/** Alarm rule inspector */
 	final protected CompositeRuleInspectorAdapter inspector;
 
-	/** Alarm notifier */
-	final protected GenericOperatorAdapter<NotifierKind, MessageNotifier> notifierAdapter;
+	/** Alarm notification dispatcher */
+	final protected AlarmNotificationDispatcher dispatcher;
 
-	public DefaultIndicatorsValveAlerter(JedisService jedisService, JedisLockManager lockManager, AlarmProperties config,
+	public DefaultIndicatorsValveAlerter(JedisService jedisService, MetricTimeWindowStore windowStore, AlarmProperties config,
 			AlarmConfigurer configurer, RuleConfigManager ruleManager, CompositeRuleInspectorAdapter inspector,
-			GenericOperatorAdapter<NotifierKind, MessageNotifier> notifierAdapter) {
-		super(jedisService, lockManager, config);
+			AlarmNotificationDispatcher dispatcher) {
+		super(jedisService, windowStore, config);
 		Assert.notNull(configurer, "AlarmConfigurer is null, please check config.");
 		Assert.notNull(ruleManager, "RuleManager is null, please check config.");
 		Assert.notNull(inspector, "RuleInspector is null, please check config.");
-		Assert.notNull(notifierAdapter, "AlarmNotifierAdapter is null, please check config.");
+		Assert.notNull(dispatcher, "AlarmNotificationDispatcher is null, please check config.");
 		this.configurer = configurer;
 		this.ruleManager = ruleManager;
 		this.inspector = inspector;
-		this.notifierAdapter = notifierAdapter;
+		this.dispatcher = dispatcher;
 	}
 
 	@Override
 	protected void doHandleAlarm(MetricAggregateWrapper agwrap) {
 		log.info("Alarm handling for host: {} endpoint:{}", agwrap.getHost(), agwrap.getEndpoint());
 
-		// Load alarm templates by collectId.
-		List<AlarmConfig> alarmConfigs = ruleManager.loadAlarmRuleTpls(agwrap.getHost(), agwrap.getEndpoint());
-		if (isEmpty(alarmConfigs)) {
+		// Load pre-compiled alarm rule index by collectId.
+		AlarmRuleIndex ruleIndex = ruleManager.loadAlarmRuleIndex(agwrap.getHost(), agwrap.getEndpoint());
+		if (ruleIndex.isEmpty()) {
 			log.info("No found alarm templates for host: {} endpoint:{}", agwrap.getHost(), agwrap.getEndpoint());
 			return;
 		}
@@ -114,13 +105,11 @@ public class DefaultIndicatorsValveAlerter extends AbstractIndicatorsValveAlerte
 		List<AlarmMessage> results = new ArrayList<>(agwrap.getMetrics().size() * 2);
 		long now = currentTimeMillis();
 		for (MetricWrapper mwrap : agwrap.getMetrics()) {
-			for (AlarmConfig tpl : alarmConfigs) {
-				if (StringUtils.equals(mwrap.getMetric(), tpl.getAlarmTemplate().getMetric())) {
-					// Obtain matching alarm result.
-					Optional<AlarmMessage> ropt = getMatchRulesAlarmMessage(agwrap, mwrap, tpl, now);
-					if (ropt.isPresent()) {
-						results.add(ropt.get());
-					}
+			for (CompiledAlarmRule rule : ruleIndex.match(mwrap.getMetric())) {
+				// Obtain matching alarm result.
+				Optional<AlarmMessage> ropt = getMatchRulesAlarmMessage(agwrap, mwrap, rule, now);
+				if (ropt.isPresent()) {
+					results.add(ropt.get());
 				}
 			}
 		}
@@ -136,117 +125,67 @@ public class DefaultIndicatorsValveAlerter extends AbstractIndicatorsValveAlerte
 	 * 
 	 * @param agwrap
 	 * @param mwrap
-	 * @param tpl
+	 * @param rule
 	 * @param now
 	 * @return
 	 */
 	protected Optional<AlarmMessage> getMatchRulesAlarmMessage(MetricAggregateWrapper agwrap, MetricWrapper mwrap,
-			AlarmConfig alarmConfig, long now) {
+			CompiledAlarmRule rule, long now) {
 		// Match tags
-		Map<String, String> matchedTag = emptyMap();
-		if (!isEmpty(alarmConfig.getAlarmTemplate().getTagsMap())) {
-			matchedTag = matchTag(mwrap.getTags(), alarmConfig.getAlarmTemplate().getTagsMap());
-			if (isEmpty(matchedTag)) {
-				log.debug("No match tag to metric: {} and alarm template: {}, metric tags: {}", mwrap.getMetric(),
-						alarmConfig.getAlarmTemplate().getId(), mwrap.getTags());
-				return Optional.empty();
-			}
+		Map<String, String> matchedTag = rule.matchTags(mwrap.getTags());
+		if (isNull(matchedTag)) {
+			log.debug("No match tag to metric: {} and alarm template: {}, metric tags: {}", mwrap.getMetric(),
+					rule.getTemplateId(), mwrap.getTags());
+			return Optional.empty();
 		}
 
-		// Maximum metric keep time window of rules.
-		long maxWindowTime = extractMaxRuleWindowTime(alarmConfig.getAlarmTemplate().getRules());
-		// Offer latest metrics in time window queue.
-		List<MetricValue> metricVals = offerTimeWindowQueue(
-				agwrap.getHost() + ":" + agwrap.getEndpoint() + "@" + alarmConfig.getAlarmTemplate().getId(), mwrap.getValue(),
-				agwrap.getTimestamp(), now, maxWindowTime);
+		// Offer latest metrics in time window.
+		MetricTimeWindow window = windowStore.offer(agwrap.getHost() + ":" + agwrap.getEndpoint(), rule.getTemplateId(),
+				mwrap.getValue(), agwrap.getTimestamp(), now, rule.getMaxWindowTime());
 
 		// Match alarm rules of metric values.
-		List<AlarmRule> matchedRules = matchAlarmRules(metricVals, alarmConfig.getAlarmTemplate().getRules(), now);
+		List<AlarmRule> matchedRules = matchAlarmRules(window, rule.getResolvedRules(), now);
 		if (isEmpty(matchedRules)) {
-			log.debug("No match rule to metric: {} and alarm template: {}, timeWindowQueue: {}", mwrap.getMetric(),
-					alarmConfig.getAlarmTemplate().getId(), toJSONString(metricVals));
+			if (log.isDebugEnabled()) {
+				log.debug("No match rule to metric: {} and alarm template: {}, timeWindowQueue: {}", mwrap.getMetric(),
+						rule.getTemplateId(), toJSONString(window.toMetricValues()));
+			}
 			return Optional.empty();
 		}
 
-		log.info("Matched to metric: {} and alarm template: {}, timeWindowQueue: {}", mwrap.getMetric(),
-				alarmConfig.getAlarmTemplate().getId(), toJSONString(metricVals));
-		return Optional.of(new AlarmMessage(agwrap, alarmConfig, matchedTag, matchedRules));
-	}
-
-	/**
-	 * Match metric tags
-	 * 
-	 * @param metricTagMap
-	 * @param tplTagMap
-	 * @return
-	 */
-	protected Map<String, String> matchTag(Map<String, String> metricTagMap, Map<String, String> tplTagMap) {
-		// If no tag is configured, the matching tag does not need to be
-		// executed.
-		if (isEmpty(tplTagMap)) {
-			return metricTagMap;
-		}
-		Map<String, String> matchedTags = new HashMap<>();
-		for (Entry<String, String> ent : tplTagMap.entrySet()) {
-			if (trimToEmpty(ent.getValue()).equals(metricTagMap.get(ent.getKey()))) {
-				matchedTags.put(ent.getKey(), ent.getValue());
-			}
-		}
-		return matchedTags;
-	}
-
-	/**
-	 * Extract largest metric keep time window of rules.
-	 * 
-	 * @param rules
-	 * @return
-	 */
-	protected long extractMaxRuleWindowTime(List<AlarmRule> rules) {
-		long largestTimeWindow = 0;
-		for (AlarmRule alarmRule : rules) {
-			Long timeWindow = alarmRule.getQueueTimeWindow();
-			if ((timeWindow != null ? timeWindow : 0) > largestTimeWindow) {
-				largestTimeWindow = alarmRule.getQueueTimeWindow();
-			}
-		}
-		return largestTimeWindow;
+		log.info("Matched to metric: {} and alarm template: {}, timeWindowQueue: {}", mwrap.getMetric(), rule.getTemplateId(),
+				toJSONString(window.toMetricValues()));
+		return Optional.of(new AlarmMessage(agwrap, rule.getAlarmConfig(), matchedTag, matchedRules));
 	}
 
 	/**
 	 * Match alarm rules.
 	 * 
-	 * @param metricVals
+	 * @param window
 	 * @param rules
 	 * @param now
 	 * @return
 	 */
-	protected List<AlarmRule> matchAlarmRules(List<MetricValue> metricVals, List<AlarmRule> rules, long now) {
+	protected List<AlarmRule> matchAlarmRules(MetricTimeWindow window, List<ResolvedAlarmRule> rules, long now) {
 		// Match mode for 'OR'/'AND'.
-		return safeList(rules).stream().filter(rule -> {
-			// Get latest time window metric values.
-			Double[] vals = extractValidityMetricValueInQueue(metricVals, rule.getQueueTimeWindow(), now);
+		List<AlarmRule> matchedRules = new ArrayList<>(2);
+		InspectWrapper wrap = new InspectWrapper();
+		for (ResolvedAlarmRule rule : rules) {
+			// Validity range of time window, the gather times are ordered.
+			int from = window.validityFrom(rule.getTimeWindow(), now);
+			int to = window.validityTo(rule.getTimeWindow(), now);
 			// Do inspection.
-			InspectWrapper wrap = new InspectWrapper(rule.getLogicalOperator(), rule.getRelateOperator(), rule.getAggregator(),
-					rule.getValue(), vals);
+			wrap.reset(rule.getLogicalOperator(), rule.getRelateOperator(), rule.getAggregator(), rule.getBaseline(),
+					window.getValues(), from, Math.max(0, to - from));
 			if (inspector.verify(wrap)) {
-				rule.setCompareValue(wrap.getCompareValue());
-				return true;
+				// The rules are shared by cached rule index, copy it.
+				AlarmRule matchedRule = new AlarmRule();
+				copyProperties(rule.getRule(), matchedRule);
+				matchedRule.setCompareValue(wrap.getCompareValue());
+				matchedRules.add(matchedRule);
 			}
-			return false;
-		}).collect(toList());
-	}
-
-	/**
-	 * Metric the validity of extraction from queue.
-	 * 
-	 * @param metricVals
-	 * @param durationMs
-	 * @param now
-	 * @return
-	 */
-	protected Double[] extractValidityMetricValueInQueue(List<MetricValue> metricVals, final long durationMs, long now) {
-		return safeList(metricVals).stream().filter(v -> abs(now - v.getGatherTime()) < durationMs).map(v -> v.getValue())
-				.collect(toList()).toArray(new Double[] {});
+		}
+		return matchedRules;
 	}
 
 	// --- Alarm message storage & notification. ---
@@ -275,7 +214,7 @@ public class DefaultIndicatorsValveAlerter extends AbstractIndicatorsValveAlerte
 			// Merge template and contact
 			TemplateContactWrapper contactWrap = contactMap.get(config.getTemplateId());
 			if (null == contactWrap) {
-				contactWrap = new TemplateContactWrapper(config.getTemplateId(), tpl, config.getContacts(),
+				contactWrap = new TemplateContactWrapper(config.getTemplateId(), tpl, new ArrayList<>(config.getContacts()),
 						result.getMatchedTag(), result.getMatchedRules(), result.getAggregate());
 			} else {
 				List<Contact> contacts = contactWrap.getContacts();
@@ -295,12 +234,15 @@ public class DefaultIndicatorsValveAlerter extends AbstractIndicatorsValveAlerte
 			note.setMatchedTag(contactWrap.getMatchedTag());
 			note.setMetricName(contactWrap.getAlarmTemplate().getMetric());
 
-			// Save record and record rule
-			AlarmRecord record = configurer.saveAlarmRecord(contactWrap.getAlarmTemplate(),
-					contactWrap.getAggregateWrap().getTimestamp(), contactWrap.getMatchedRules(), toJSONString(note));
+			// Record and record rules are saved in batch by dispatcher.
+			AlarmRecord record = new AlarmRecord();
+			record.setAlarmTemplate(contactWrap.getAlarmTemplate());
+			record.setGatherTime(new Date(contactWrap.getAggregateWrap().getTimestamp()));
+			record.setAlarmRules(contactWrap.getMatchedRules());
+			record.setAlarmNote(toJSONString(note));
 
-			// Handle notifications
-			handleNotification(new ArrayList<>(contactWrap.getContacts()), record);
+			// Coalesced notifications
+			dispatcher.submit(record, note, new ArrayList<>(contactWrap.getContacts()));
 		}
 	}
 
@@ -316,78 +258,4 @@ public class DefaultIndicatorsValveAlerter extends AbstractIndicatorsValveAlerte
 		return new ArrayList<>(_contacts);
 	}
 
-	/**
-	 * Check notification frequently limit.
-	 * 
-	 * @param result
-	 * @return
-	 */
-	protected boolean checkNotifyLimit(String key, int numOfFreq) {
-		String s = jedisService.get(key);
-		if (StringUtils.isNotBlank(s) && Integer.valueOf(s) > numOfFreq) {
-			return false;
-		}
-		return true;
-	}
-
-	/**
-	 * Handle rate limit.
-	 * 
-	 * @param key
-	 * @param timeOfFreq
-	 */
-	protected void handleRateLimit(String key, int timeOfFreq) {
-		jedisService.getJedisClient().incrBy(key, 1);
-		jedisService.getJedisClient().expire(key, timeOfFreq);
-	}
-
-	/**
-	 * Notification of alarm template to users.
-	 * 
-	 * @param alarmTpl
-	 * @param alarmConfigs
-	 * @param macthedRules
-	 */
-	protected void handleNotification(List<Contact> contacts, AlarmRecord alarmRecord) {
-		log.info("into DefaultIndicatorsValveAlerter.notification prarms::" + "contacts = {} , alarmNote = {} ", contacts,
-				alarmRecord.getAlarmNote());
-
-		// TODO using dynamic notifier call.
-		for (Contact contact : contacts) {
-			// save notification
-			NotificationContact notificationContact = new NotificationContact();
-			notificationContact.setRecordId(alarmRecord.getId());
-			notificationContact.setContactId(contact.getId());
-			notificationContact.setStatus(ALARM_SATUS_SEND);
-			configurer.saveNotificationContact(notificationContact);
-
-			// new
-			List<ContactChannel> contactChannels = contact.getContactChannels();
-			if (CollectionUtils.isEmpty(contactChannels)) {
-				continue;
-			}
-			for (ContactChannel contactChannel : contactChannels) {
-				if (1 != contactChannel.getEnable()) {
-					continue;
-				}
-
-				// TODO
-				GenericNotifyMessage msg = new GenericNotifyMessage("1154635107@qq.com", "umcAlaramTpl2");
-				// Common parameters.
-				msg.addParameter("appName", "bizService1");
-				msg.addParameter("status", "DOWN");
-				msg.addParameter("cause", "Host.cpu.utilization > 200%");
-				// Mail special parameters.
-				msg.addParameter(MailMessageNotifier.KEY_MAILMSG_SUBJECT, "测试消息");
-				// msg.addParameter(MailMessageNotifier.KEY_MAILMSG_CC, "");
-				// msg.addParameter(MailMessageNotifier.KEY_MAILMSG_BCC, "");
-				// msg.addParameter(MailMessageNotifier.KEY_MAILMSG_REPLYTO,
-				// "");
-				notifierAdapter.forOperator(contactChannel.getKind()).send(msg);
-			}
-
-		}
-
-	}
-
 }
\ No newline at end of file
@@ -17,13 +17,10 @@ package com.wl4g.dopaas.umc.alarm.alerting;
 
 import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_METRIC_QUEUE_SIMULATE;
 
-import org.springframework.util.Assert;
-
-import com.wl4g.component.core.framework.operator.GenericOperatorAdapter;
-import com.wl4g.component.support.notification.MessageNotifier;
-import com.wl4g.component.support.notification.MessageNotifier.NotifierKind;
 import com.wl4g.component.support.cache.jedis.JedisService;
 import com.wl4g.component.support.cache.locks.JedisLockManager;
+import com.wl4g.dopaas.umc.alarm.notification.AlarmNotificationDispatcher;
+import com.wl4g.dopaas.umc.alarm.window.RedisMetricTimeWindowStore;
 import com.wl4g.dopaas.umc.config.AlarmProperties;
 import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
 import com.wl4g.dopaas.umc.rule.RuleConfigManager;
@@ -40,14 +37,9 @@ public class SimulateIndicatorsValveAleter extends DefaultIndicatorsValveAlerter
 
 	public SimulateIndicatorsValveAleter(JedisService jedisService, JedisLockManager lockManager, AlarmProperties config,
 			AlarmConfigurer configurer, RuleConfigManager ruleManager, CompositeRuleInspectorAdapter inspector,
-			GenericOperatorAdapter<NotifierKind, MessageNotifier> notifierAdapter) {
-		super(jedisService, lockManager, config, configurer, ruleManager, inspector, notifierAdapter);
-	}
-
-	@Override
-	protected String getTimeWindowQueueCacheKey(String collectAddr) {
-		Assert.hasText(collectAddr, "Collect addr must not be empty");
-		return KEY_CACHE_ALARM_METRIC_QUEUE_SIMULATE + collectAddr;
+			AlarmNotificationDispatcher dispatcher) {
+		super(jedisService, new RedisMetricTimeWindowStore(jedisService, lockManager, KEY_CACHE_ALARM_METRIC_QUEUE_SIMULATE),
+				config, configurer, ruleManager, inspector, dispatcher);
 	}
 
 }
\ No newline at end of file
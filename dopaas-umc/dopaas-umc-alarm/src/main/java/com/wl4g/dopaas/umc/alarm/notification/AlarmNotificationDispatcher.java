@@ -0,0 +1,493 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.notification;
+
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static com.wl4g.dopaas.common.constant.UmcConstants.ALARM_SATUS_SEND;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+import com.wl4g.component.common.log.SmartLogger;
+import com.wl4g.component.support.notification.GenericNotifyMessage;
+import com.wl4g.component.support.notification.mail.MailMessageNotifier;
+import com.wl4g.dopaas.common.bean.umc.AlarmRecord;
+import com.wl4g.dopaas.common.bean.umc.AlarmRule;
+import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
+import com.wl4g.dopaas.umc.alarm.AlarmNote;
+import com.wl4g.dopaas.umc.alarm.notification.NotificationRateLimiter.RateLimit;
+import com.wl4g.dopaas.umc.config.AlarmProperties.NotificationProperties;
+import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
+import com.wl4g.dopaas.umc.rule.RelationOperator;
+import com.wl4g.iam.common.bean.Contact;
+import com.wl4g.iam.common.bean.ContactChannel;
+import com.wl4g.iam.common.bean.NotificationContact;
+
+/**
+ * Alarm notification dispatcher. The alarm records are buffered and the
+ * alarms of the same contact channel are coalesced(deduplicated by template
+ * and collector) within a short window. On each flush, the records, matched
+ * rules and notification contacts are persisted with batch inserts, the rate
+ * limits of all channels are evaluated in one call, and one rendered message
+ * is sent per channel. The notifications are sent even if the persistence
+ * failed(e.g. DB outage), and the unsaved batch is re-queued to the next
+ * flush.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class AlarmNotificationDispatcher implements Closeable {
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** Notification configuration. */
+	final protected NotificationProperties config;
+
+	/** Alarm configuration */
+	final protected AlarmConfigurer configurer;
+
+	/** Rate limiter of contact channels. */
+	final protected NotificationRateLimiter rateLimiter;
+
+	/** Notification message sender. */
+	final protected NotificationSender sender;
+
+	/** Flushing scheduler, null if flushing manually. */
+	final protected ScheduledExecutorService scheduler;
+
+	/** Buffered alarm records of the current window. */
+	private List<PendingRecord> pendingRecords = new ArrayList<>();
+
+	/** Coalesced notifications of the current window, key is channel. */
+	private Map<String, PendingNotification> pendingNotifications = new LinkedHashMap<>();
+
+	/** Notification contacts of saved records that failed to persist. */
+	private List<NotificationContact> pendingContacts = new ArrayList<>();
+
+	/** Serializes flushing, so that the batches are persisted in order. */
+	final private Object flushMutex = new Object();
+
+	/** Submitted alarm records counter. */
+	final private AtomicLong submitted = new AtomicLong(0);
+
+	/** Coalesced(repeated alarm of the same channel) counter. */
+	final private AtomicLong coalesced = new AtomicLong(0);
+
+	/** Sent messages counter. */
+	final private AtomicLong sent = new AtomicLong(0);
+
+	/** Suppressed messages counter of rate limit. */
+	final private AtomicLong suppressed = new AtomicLong(0);
+
+	/** Failure messages counter. */
+	final private AtomicLong failures = new AtomicLong(0);
+
+	/** Failed persistence(batches) counter. */
+	final private AtomicLong persistFailures = new AtomicLong(0);
+
+	/** Discarded records(and contacts) counter of exceeded retrying. */
+	final private AtomicLong discarded = new AtomicLong(0);
+
+	public AlarmNotificationDispatcher(NotificationProperties config, AlarmConfigurer configurer,
+			NotificationRateLimiter rateLimiter, NotificationSender sender) {
+		Assert.notNull(config, "NotificationProperties is null, please check config.");
+		Assert.notNull(configurer, "AlarmConfigurer is null, please check config.");
+		Assert.notNull(rateLimiter, "NotificationRateLimiter is null, please check config.");
+		Assert.notNull(sender, "NotificationSender is null, please check config.");
+		Assert.isTrue(config.getMaxAlarmsPerMessage() > 0, "Max alarms per message must be greater than 0.");
+		this.config = config;
+		this.configurer = configurer;
+		this.rateLimiter = rateLimiter;
+		this.sender = sender;
+		if (config.getWindowMs() > 0) {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "alarm-notification-dispatcher");
+				t.setDaemon(true);
+				return t;
+			});
+			this.scheduler.scheduleWithFixedDelay(() -> {
+				try {
+					flush();
+				} catch (Throwable e) {
+					log.error("Failed to flush alarm notifications.", e);
+				}
+			}, config.getWindowMs(), config.getWindowMs(), MILLISECONDS);
+		} else {
+			this.scheduler = null;
+		}
+	}
+
+	/**
+	 * Submit alarm record and the contacts to notify, the record is persisted
+	 * and notified on the next flush.
+	 * 
+	 * @param record
+	 *            Unsaved alarm record, carries template, gather time, matched
+	 *            rules and note.
+	 * @param note
+	 * @param contacts
+	 *            Distinct contacts.
+	 */
+	public void submit(AlarmRecord record, AlarmNote note, List<Contact> contacts) {
+		Assert.notNull(record, "Alarm record must not be null.");
+		Assert.notNull(record.getAlarmTemplate(), "Alarm template must not be null.");
+		submitted.incrementAndGet();
+		synchronized (this) {
+			pendingRecords.add(new PendingRecord(record, contacts));
+			for (Contact contact : contacts) {
+				if (CollectionUtils.isEmpty(contact.getContactChannels())) {
+					continue;
+				}
+				for (ContactChannel channel : contact.getContactChannels()) {
+					if (isNull(channel.getEnable()) || 1 != channel.getEnable()) {
+						continue;
+					}
+					String channelKey = contact.getId() + "@" + channel.getKind() + ":" + channel.getPrimaryAddress();
+					PendingNotification pending = pendingNotifications.get(channelKey);
+					if (isNull(pending)) {
+						pendingNotifications.put(channelKey, pending = new PendingNotification(channelKey, channel));
+					}
+					if (!pending.offer(record, note, config.getMaxAlarmsPerMessage())) {
+						coalesced.incrementAndGet();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Flush the buffered alarm records and the coalesced notifications.
+	 */
+	public void flush() {
+		synchronized (flushMutex) {
+			List<PendingRecord> records;
+			List<NotificationContact> contacts;
+			Map<String, PendingNotification> notifications;
+			synchronized (this) {
+				if (pendingRecords.isEmpty() && pendingContacts.isEmpty()) {
+					return;
+				}
+				records = pendingRecords;
+				contacts = pendingContacts;
+				notifications = pendingNotifications;
+				pendingRecords = new ArrayList<>();
+				pendingContacts = new ArrayList<>();
+				pendingNotifications = new LinkedHashMap<>();
+			}
+
+			// Save records and notification contacts by batch, the alarms
+			// are still notified if failed.
+			persist(records, contacts);
+
+			// Evaluate rate limits of all channels.
+			List<PendingNotification> limited = new ArrayList<>(notifications.size());
+			List<RateLimit> limits = new ArrayList<>(notifications.size());
+			for (PendingNotification pending : notifications.values()) {
+				ContactChannel channel = pending.channel;
+				if (nonNull(channel.getNumOfFreq()) && nonNull(channel.getTimeOfFreq()) && channel.getTimeOfFreq() > 0) {
+					limited.add(pending);
+					limits.add(new RateLimit(config.getRateLimitKeyPrefix() + pending.channelKey, channel.getNumOfFreq(),
+							channel.getTimeOfFreq()));
+				}
+			}
+			if (!limits.isEmpty()) {
+				try {
+					boolean[] acquired = rateLimiter.tryAcquire(limits);
+					for (int i = 0; i < acquired.length; i++) {
+						limited.get(i).acquired = acquired[i];
+					}
+				} catch (Exception e) {
+					// Rather notify more than silent.
+					log.error("Failed to acquire rate limits of alarm notifications, send without limiting.", e);
+				}
+			}
+
+			// Send coalesced messages.
+			for (PendingNotification pending : notifications.values()) {
+				if (!pending.acquired) {
+					suppressed.incrementAndGet();
+					log.info("Suppressed alarm notification of rate limit, channel: {}, alarms: {}", pending.channelKey,
+							pending.total);
+					continue;
+				}
+				try {
+					sender.send(pending.channel, render(pending));
+					sent.incrementAndGet();
+				} catch (Exception e) {
+					failures.incrementAndGet();
+					log.error(String.format("Failed to send alarm notification, channel: %s", pending.channelKey), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Persist the alarm records and notification contacts by batch, the
+	 * failed batch is re-queued to the next flush.
+	 * 
+	 * @param records
+	 * @param contacts
+	 *            Notification contacts of saved records that failed to
+	 *            persist before.
+	 */
+	private void persist(List<PendingRecord> records, List<NotificationContact> contacts) {
+		List<NotificationContact> notificationContacts = new ArrayList<>(contacts.size() + records.size() * 2);
+		notificationContacts.addAll(contacts);
+		if (!records.isEmpty()) {
+			List<AlarmRecord> alarmRecords = new ArrayList<>(records.size());
+			for (PendingRecord pr : records) {
+				alarmRecords.add(pr.record);
+			}
+			try {
+				alarmRecords = configurer.saveAlarmRecords(alarmRecords);
+			} catch (Exception e) {
+				persistFailures.incrementAndGet();
+				log.error(String.format("Failed to save alarm records: %s, re-queued to the next flush.", records.size()), e);
+				requeue(records, contacts);
+				return;
+			}
+			for (int i = 0; i < records.size(); i++) {
+				for (Contact contact : records.get(i).contacts) {
+					NotificationContact nc = new NotificationContact();
+					nc.setRecordId(alarmRecords.get(i).getId());
+					nc.setContactId(contact.getId());
+					nc.setStatus(ALARM_SATUS_SEND);
+					notificationContacts.add(nc);
+				}
+			}
+		}
+		if (!notificationContacts.isEmpty()) {
+			try {
+				configurer.saveNotificationContacts(notificationContacts);
+			} catch (Exception e) {
+				persistFailures.incrementAndGet();
+				log.error(String.format("Failed to save alarm notification contacts: %s, re-queued to the next flush.",
+						notificationContacts.size()), e);
+				requeue(Collections.emptyList(), notificationContacts);
+			}
+		}
+	}
+
+	/**
+	 * Re-queue the failed batch before the records submitted later, the
+	 * eldest are discarded when exceeded the max retrying records.
+	 * 
+	 * @param records
+	 * @param contacts
+	 */
+	private synchronized void requeue(List<PendingRecord> records, List<NotificationContact> contacts) {
+		pendingRecords.addAll(0, records);
+		pendingContacts.addAll(0, contacts);
+		int max = config.getMaxRetryRecords();
+		int exceeded = Math.max(pendingRecords.size() - max, 0) + Math.max(pendingContacts.size() - max, 0);
+		if (pendingRecords.size() > max) {
+			pendingRecords.subList(0, pendingRecords.size() - max).clear();
+		}
+		if (pendingContacts.size() > max) {
+			pendingContacts.subList(0, pendingContacts.size() - max).clear();
+		}
+		if (exceeded > 0) {
+			discarded.addAndGet(exceeded);
+			log.error("Discarded the eldest unsaved alarm records and notification contacts: {}", exceeded);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (nonNull(scheduler)) {
+			scheduler.shutdown();
+		}
+		flush();
+	}
+
+	/**
+	 * Render coalesced alarms to notification message.
+	 * 
+	 * @param pending
+	 * @return
+	 */
+	protected GenericNotifyMessage render(PendingNotification pending) {
+		StringBuilder cause = new StringBuilder(256);
+		AlarmEntry first = null;
+		for (AlarmEntry entry : pending.alarms.values()) {
+			if (isNull(first)) {
+				first = entry;
+			}
+			if (cause.length() > 0) {
+				cause.append("\n");
+			}
+			cause.append(entry.note.getMetricName()).append(entry.note.getMatchedTag()).append(" on ")
+					.append(entry.note.getHost()).append(":").append(entry.note.getEndpoint()).append(", ");
+			appendRules(cause, entry.note.getMatchedRules());
+			if (entry.count > 1) {
+				cause.append(" (x").append(entry.count).append(")");
+			}
+		}
+		if (pending.omitted > 0) {
+			cause.append("\n... and ").append(pending.omitted).append(" more alarms");
+		}
+
+		GenericNotifyMessage msg = new GenericNotifyMessage(pending.channel.getPrimaryAddress(), config.getTemplateKey());
+		// Common parameters.
+		msg.addParameter("appName", first.note.getHost() + ":" + first.note.getEndpoint());
+		msg.addParameter("status", "ALARM");
+		msg.addParameter("cause", cause.toString());
+		msg.addParameter("alarmCount", String.valueOf(pending.total));
+		msg.addParameter("level", String.valueOf(first.level));
+		// Mail special parameters.
+		msg.addParameter(MailMessageNotifier.KEY_MAILMSG_SUBJECT,
+				String.format("%s (%s alarms of %s)", config.getMailSubject(), pending.total, first.note.getMetricName()));
+		return msg;
+	}
+
+	private static void appendRules(StringBuilder cause, List<AlarmRule> rules) {
+		if (isNull(rules)) {
+			return;
+		}
+		for (int i = 0; i < rules.size(); i++) {
+			AlarmRule rule = rules.get(i);
+			if (i > 0) {
+				cause.append(", ");
+			}
+			cause.append(rule.getAggregator()).append("=").append(rule.getCompareValue());
+			if (nonNull(rule.getRelateOperator())) {
+				cause.append(" ").append(RelationOperator.of(rule.getRelateOperator()));
+			}
+			cause.append(" ").append(rule.getValue());
+		}
+	}
+
+	public long getSubmitted() {
+		return submitted.get();
+	}
+
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+
+	public long getSent() {
+		return sent.get();
+	}
+
+	public long getSuppressed() {
+		return suppressed.get();
+	}
+
+	public long getFailures() {
+		return failures.get();
+	}
+
+	public long getPersistFailures() {
+		return persistFailures.get();
+	}
+
+	public long getDiscarded() {
+		return discarded.get();
+	}
+
+	/**
+	 * Notification message sender of contact channel.
+	 */
+	@FunctionalInterface
+	public static interface NotificationSender {
+		void send(ContactChannel channel, GenericNotifyMessage msg) throws Exception;
+	}
+
+	/**
+	 * Buffered alarm record and contacts.
+	 */
+	private static class PendingRecord {
+		final private AlarmRecord record;
+		final private List<Contact> contacts;
+
+		PendingRecord(AlarmRecord record, List<Contact> contacts) {
+			this.record = record;
+			this.contacts = isNull(contacts) ? new ArrayList<>(0) : contacts;
+		}
+	}
+
+	/**
+	 * Coalesced notification of contact channel.
+	 */
+	protected static class PendingNotification {
+		final private String channelKey;
+		final private ContactChannel channel;
+		/** Distinct alarms, key is template and collector. */
+		final private Map<String, AlarmEntry> alarms = new LinkedHashMap<>(4);
+		private int total;
+		/** Alarms exceeded of max alarms per message. */
+		private int omitted;
+		private boolean acquired = true;
+
+		PendingNotification(String channelKey, ContactChannel channel) {
+			this.channelKey = channelKey;
+			this.channel = channel;
+		}
+
+		/**
+		 * Offer alarm.
+		 * 
+		 * @return Returns false if coalesced into the existing alarm.
+		 */
+		boolean offer(AlarmRecord record, AlarmNote note, int maxAlarms) {
+			++total;
+			AlarmTemplate tpl = record.getAlarmTemplate();
+			String alarmKey = tpl.getId() + "@" + note.getHost() + ":" + note.getEndpoint();
+			AlarmEntry entry = alarms.get(alarmKey);
+			if (nonNull(entry)) {
+				entry.note = note; // Latest
+				++entry.count;
+				return false;
+			}
+			if (alarms.size() < maxAlarms) {
+				alarms.put(alarmKey, new AlarmEntry(note, tpl.getNotifyLevel()));
+			} else {
+				++omitted;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Distinct alarm of coalesced notification.
+	 */
+	private static class AlarmEntry {
+		private AlarmNote note;
+		final private Integer level;
+		private int count = 1;
+
+		AlarmEntry(AlarmNote note, Integer level) {
+			this.note = note;
+			this.level = level;
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+import com.wl4g.component.support.cache.jedis.JedisService;
+
+/**
+ * REDIS notification rate limiter, the INCR and EXPIRE of all keys are
+ * executed by one Lua script call.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class JedisNotificationRateLimiter implements NotificationRateLimiter {
+
+	/** REDIS service */
+	final protected JedisService jedisService;
+
+	public JedisNotificationRateLimiter(JedisService jedisService) {
+		Assert.notNull(jedisService, "JedisService is null, please check config.");
+		this.jedisService = jedisService;
+	}
+
+	@Override
+	public boolean[] tryAcquire(List<RateLimit> limits) {
+		boolean[] acquired = new boolean[limits.size()];
+		if (limits.isEmpty()) {
+			return acquired;
+		}
+		List<String> keys = new ArrayList<>(limits.size());
+		List<String> args = new ArrayList<>(limits.size() * 2);
+		for (RateLimit limit : limits) {
+			keys.add(limit.getKey());
+			args.add(String.valueOf(limit.getPermits()));
+			args.add(String.valueOf(limit.getPeriodSeconds()));
+		}
+		Object result = jedisService.getJedisClient().eval(SCRIPT_ACQUIRE, keys, args);
+		Assert.isInstanceOf(List.class, result, "Unexpected result of rate limit script.");
+		List<?> flags = (List<?>) result;
+		for (int i = 0; i < acquired.length && i < flags.size(); i++) {
+			acquired[i] = Long.valueOf(1L).equals(flags.get(i));
+		}
+		return acquired;
+	}
+
+	/**
+	 * The keys of one call should be in the same slot on REDIS cluster, see
+	 * the hash tag of the key prefix.
+	 */
+	final private static String SCRIPT_ACQUIRE = "local r = {} for i = 1, #KEYS do "
+			+ "local n = redis.call('INCR', KEYS[i]) "
+			+ "if n == 1 then redis.call('EXPIRE', KEYS[i], ARGV[2 * i]) end "
+			+ "if n <= tonumber(ARGV[2 * i - 1]) then r[i] = 1 else r[i] = 0 end end return r";
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.notification;
+
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * Notification rate limiter of contact channels, all the limits of one
+ * dispatching batch are evaluated in one round-trip.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+@FunctionalInterface
+public interface NotificationRateLimiter {
+
+	/**
+	 * Try acquire one permit of each rate limit.
+	 * 
+	 * @param limits
+	 * @return Acquired flags, in the same order of limits.
+	 */
+	boolean[] tryAcquire(List<RateLimit> limits);
+
+	/**
+	 * Fixed window rate limit.
+	 */
+	public static class RateLimit {
+
+		/** Rate limit key. */
+		final private String key;
+
+		/** Maximum permits in the window. */
+		final private int permits;
+
+		/** Window of seconds. */
+		final private int periodSeconds;
+
+		public RateLimit(String key, int permits, int periodSeconds) {
+			Assert.hasText(key, "Rate limit key must not be empty.");
+			Assert.isTrue(periodSeconds > 0, "Rate limit period must be greater than 0.");
+			this.key = key;
+			this.permits = permits;
+			this.periodSeconds = periodSeconds;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public int getPermits() {
+			return permits;
+		}
+
+		public int getPeriodSeconds() {
+			return periodSeconds;
+		}
+
+		@Override
+		public String toString() {
+			return key + "(" + permits + "/" + periodSeconds + "s)";
+		}
+
+	}
+
+}
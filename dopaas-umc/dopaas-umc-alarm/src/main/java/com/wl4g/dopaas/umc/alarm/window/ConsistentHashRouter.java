@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.springframework.util.Assert;
+
+/**
+ * Consistent hashing router of alerter nodes, used to decide which node owns
+ * the time window of a key.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class ConsistentHashRouter {
+
+	/** Hash ring of virtual nodes. */
+	final private TreeMap<Long, String> ring = new TreeMap<>();
+
+	/** Current alerter node. */
+	final private String localNode;
+
+	public ConsistentHashRouter(List<String> nodes, String localNode, int virtualNodes) {
+		Assert.isTrue(virtualNodes > 0, "Virtual nodes must be greater than 0.");
+		if (nodes != null && !nodes.isEmpty()) {
+			Assert.isTrue(!isBlank(localNode), "Local node must not be empty when sharding nodes is configured.");
+			Assert.isTrue(nodes.contains(localNode), String.format("Local node: %s not in sharding nodes: %s", localNode, nodes));
+			for (String node : nodes) {
+				for (int i = 0; i < virtualNodes; i++) {
+					ring.put(hash(node + "#" + i), node);
+				}
+			}
+		}
+		this.localNode = localNode;
+	}
+
+	/**
+	 * Gets the node of owned key, if sharding nodes is not configured the
+	 * local node owns all keys.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public String route(String key) {
+		if (ring.isEmpty()) {
+			return localNode;
+		}
+		Entry<Long, String> node = ring.ceilingEntry(hash(key));
+		return (node != null ? node : ring.firstEntry()).getValue();
+	}
+
+	public boolean isLocal(String key) {
+		return ring.isEmpty() || localNode.equals(route(key));
+	}
+
+	/**
+	 * FNV-1a 64 bits hash with final mixing, that is well distributed for
+	 * short keys.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	static long hash(String key) {
+		long h = 0xcbf29ce484222325L;
+		for (byte b : key.getBytes(UTF_8)) {
+			h ^= b;
+			h *= 0x100000001b3L;
+		}
+		h ^= (h >>> 33);
+		h *= 0xff51afd7ed558ccdL;
+		h ^= (h >>> 33);
+		return h;
+	}
+
+}
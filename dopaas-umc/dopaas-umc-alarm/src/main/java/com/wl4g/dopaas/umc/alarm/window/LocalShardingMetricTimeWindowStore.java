@@ -0,0 +1,232 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.springframework.util.Assert;
+
+import com.wl4g.component.common.log.SmartLogger;
+import com.wl4g.dopaas.common.bean.umc.model.MetricValue;
+import com.wl4g.dopaas.umc.config.AlarmProperties.TimeWindowProperties;
+
+/**
+ * In-process metric time window store, the windows are primitive ring
+ * buffers sharded across alerter nodes by consistent hashing. The windows
+ * not owned by current node are delegated to the fallback store, and the
+ * owned windows are only snapshot to REDIS periodically for failover(no lock
+ * per sample). The offer, snapshot and eviction of a window are all done in
+ * the compute of the windows map, so a window is never evicted between
+ * looked up and offered.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class LocalShardingMetricTimeWindowStore implements MetricTimeWindowStore, Closeable {
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** Time window configuration. */
+	final protected TimeWindowProperties config;
+
+	/** Sharding router of alerter nodes. */
+	final protected ConsistentHashRouter router;
+
+	/** Store of windows not owned by current node. */
+	final protected MetricTimeWindowStore fallbackStore;
+
+	/** Optional snapshot store for failover. */
+	final protected MetricTimeWindowSnapshotStore snapshotStore;
+
+	/** Owned time windows. */
+	final protected ConcurrentMap<String, TimeWindowHolder> windows = new ConcurrentHashMap<>(1024);
+
+	/** Snapshot and evict idle windows scheduler. */
+	final protected ScheduledExecutorService scheduler;
+
+	public LocalShardingMetricTimeWindowStore(TimeWindowProperties config, MetricTimeWindowStore fallbackStore,
+			MetricTimeWindowSnapshotStore snapshotStore) {
+		Assert.notNull(config, "TimeWindowProperties must not be null.");
+		Assert.isTrue(config.getCapacity() > 0, "Time window capacity must be greater than 0.");
+		Assert.isTrue(config.getSnapshotIntervalMs() > 0, "Time window snapshot interval must be greater than 0.");
+		this.config = config;
+		this.router = new ConsistentHashRouter(config.getNodes(), config.getLocalNode(), config.getVirtualNodes());
+		this.fallbackStore = fallbackStore;
+		this.snapshotStore = config.isSnapshotEnabled() ? snapshotStore : null;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "alarm-time-window-snapshot");
+			t.setDaemon(true);
+			return t;
+		});
+		this.scheduler.scheduleWithFixedDelay(() -> doSnapshotAndEvict(), config.getSnapshotIntervalMs(),
+				config.getSnapshotIntervalMs(), MILLISECONDS);
+	}
+
+	@Override
+	public MetricTimeWindow offer(String collectId, Long templateId, double value, long gatherTime, long now, long ttl) {
+		String key = collectId + "@" + templateId;
+		if (!router.isLocal(key)) {
+			Assert.state(fallbackStore != null, String.format("No fallback store of not owned time window: %s", key));
+			return fallbackStore.offer(collectId, templateId, value, gatherTime, now, ttl);
+		}
+
+		// Restore outside of the compute, which must not do the I/O.
+		TimeWindowHolder restored = windows.containsKey(key) ? null : doRestore(collectId, templateId, now, ttl);
+		MetricTimeWindow[] window = new MetricTimeWindow[1];
+		windows.compute(key, (k, holder) -> {
+			if (holder == null) {
+				// Evicted just now if not restored, it was idle.
+				holder = restored != null ? restored : newHolder(collectId, templateId, ttl);
+			}
+			holder.ttl = ttl;
+			holder.offers++;
+			holder.ring.offer(value, gatherTime, now, ttl);
+			window[0] = holder.ring.snapshot();
+			return holder;
+		});
+		return window[0];
+	}
+
+	@Override
+	public void close() throws IOException {
+		scheduler.shutdown();
+		doSnapshotAndEvict();
+	}
+
+	/**
+	 * Gets count of owned time windows.
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return windows.size();
+	}
+
+	/**
+	 * Restore owned time window from snapshot(e.g. after failover).
+	 * 
+	 * @param collectId
+	 * @param templateId
+	 * @param now
+	 * @param ttl
+	 * @return
+	 */
+	protected TimeWindowHolder doRestore(String collectId, Long templateId, long now, long ttl) {
+		TimeWindowHolder holder = newHolder(collectId, templateId, ttl);
+		if (snapshotStore != null) {
+			try {
+				List<MetricValue> metricVals = snapshotStore.peek(collectId, templateId);
+				if (metricVals != null) {
+					for (MetricValue v : metricVals) {
+						holder.ring.offer(v.getValue(), v.getGatherTime(), now, ttl);
+					}
+				}
+			} catch (Exception e) {
+				log.warn("Failed to restore time window snapshot of {}@{}, caused by: {}", collectId, templateId,
+						e.getMessage());
+			}
+		}
+		return holder;
+	}
+
+	private TimeWindowHolder newHolder(String collectId, Long templateId, long ttl) {
+		TimeWindowHolder holder = new TimeWindowHolder(collectId, templateId, new MetricValueRingBuffer(config.getCapacity()));
+		holder.ttl = ttl;
+		return holder;
+	}
+
+	/**
+	 * Snapshot owned time windows to REDIS, and remove the windows that is
+	 * idle over time-to-live.
+	 */
+	protected void doSnapshotAndEvict() {
+		long now = System.currentTimeMillis();
+		for (String key : windows.keySet()) {
+			WindowSnapshot[] snapshot = new WindowSnapshot[1];
+			windows.computeIfPresent(key, (k, holder) -> {
+				holder.ring.evict(now, holder.ttl);
+				if (holder.ring.size() == 0 && (now - holder.ring.getLastOfferTime()) >= holder.ttl) {
+					return null;
+				}
+				// Only snapshot windows changed since the last written snapshot.
+				if (snapshotStore != null && holder.offers != holder.snapshotOffers) {
+					snapshot[0] = new WindowSnapshot(holder, holder.ring.snapshot().toMetricValues(), holder.offers);
+				}
+				return holder;
+			});
+			if (snapshot[0] != null) {
+				TimeWindowHolder holder = snapshot[0].holder;
+				try {
+					snapshotStore.put(holder.collectId, holder.templateId, snapshot[0].metricVals, holder.ttl);
+					windows.computeIfPresent(key, (k, h) -> {
+						if (h == holder) {
+							h.snapshotOffers = snapshot[0].offers;
+						}
+						return h;
+					});
+				} catch (Exception e) {
+					log.warn("Failed to snapshot time window of {}, caused by: {}", key, e.getMessage());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Owned time window holder.
+	 */
+	static class TimeWindowHolder {
+		final String collectId;
+		final Long templateId;
+		final MetricValueRingBuffer ring;
+		long ttl;
+		/** Count of offered values. */
+		long offers;
+		/** Count of offered values when the latest snapshot was written. */
+		long snapshotOffers;
+
+		TimeWindowHolder(String collectId, Long templateId, MetricValueRingBuffer ring) {
+			this.collectId = collectId;
+			this.templateId = templateId;
+			this.ring = ring;
+		}
+	}
+
+	/**
+	 * Copied values of changed window to be written to snapshot store.
+	 */
+	static class WindowSnapshot {
+		final TimeWindowHolder holder;
+		final List<MetricValue> metricVals;
+		final long offers;
+
+		WindowSnapshot(TimeWindowHolder holder, List<MetricValue> metricVals, long offers) {
+			this.holder = holder;
+			this.metricVals = metricVals;
+			this.offers = offers;
+		}
+	}
+
+}
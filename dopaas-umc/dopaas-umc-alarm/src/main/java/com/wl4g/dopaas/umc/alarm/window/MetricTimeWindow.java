@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.wl4g.dopaas.common.bean.umc.model.MetricValue;
+
+/**
+ * Immutable snapshot of metric time window, the values are kept in primitive
+ * arrays ordered by gather time, so the values gathered in any duration are a
+ * contiguous range of the arrays. The window may be a range(from offset) of
+ * the shared arrays, which must not be modified.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class MetricTimeWindow {
+
+	final public static MetricTimeWindow EMPTY = new MetricTimeWindow(new long[0], new double[0], 0);
+
+	final private long[] gatherTimes;
+
+	final private double[] values;
+
+	/** Index of the first value in arrays. */
+	final private int offset;
+
+	final private int size;
+
+	private MetricTimeWindow(long[] gatherTimes, double[] values, int offset, int size) {
+		this.gatherTimes = gatherTimes;
+		this.values = values;
+		this.offset = offset;
+		this.size = size;
+	}
+
+	public MetricTimeWindow(long[] gatherTimes, double[] values, int size) {
+		if (isSortedByGatherTime(gatherTimes, size)) {
+			this.gatherTimes = gatherTimes;
+			this.values = values;
+		} else {
+			// Never reorder the arrays of caller.
+			this.gatherTimes = Arrays.copyOf(gatherTimes, size);
+			this.values = Arrays.copyOf(values, size);
+			sortByGatherTime(this.gatherTimes, this.values, size);
+		}
+		this.offset = 0;
+		this.size = size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets the backing gather times array, the window is the range of
+	 * [offset, offset + size).
+	 * 
+	 * @return
+	 */
+	public long[] getGatherTimes() {
+		return gatherTimes;
+	}
+
+	/**
+	 * Gets the backing values array, the window is the range of [offset,
+	 * offset + size).
+	 * 
+	 * @return
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Gets gather time of the index in window.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public long getGatherTime(int index) {
+		return gatherTimes[offset + index];
+	}
+
+	/**
+	 * Gets value of the index in window.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public double getValue(int index) {
+		return values[offset + index];
+	}
+
+	/**
+	 * Gets the start index(inclusive, of the backing arrays) of values
+	 * gathered in the latest duration, i.e. the first index of gather time >
+	 * now - durationMs.
+	 * 
+	 * @param durationMs
+	 * @param now
+	 * @return
+	 */
+	public int validityFrom(long durationMs, long now) {
+		return searchFirstGreaterThan(now - durationMs);
+	}
+
+	/**
+	 * Gets the end index(exclusive, of the backing arrays) of values gathered
+	 * in the latest duration, i.e. the first index of gather time >= now +
+	 * durationMs.
+	 * 
+	 * @param durationMs
+	 * @param now
+	 * @return
+	 */
+	public int validityTo(long durationMs, long now) {
+		return searchFirstGreaterThan(now + durationMs - 1);
+	}
+
+	public List<MetricValue> toMetricValues() {
+		List<MetricValue> metricVals = new ArrayList<>(size);
+		for (int i = offset; i < offset + size; i++) {
+			metricVals.add(new MetricValue(gatherTimes[i], values[i]));
+		}
+		return metricVals;
+	}
+
+	private int searchFirstGreaterThan(long time) {
+		int low = offset, high = offset + size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (gatherTimes[mid] > time) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+		return low;
+	}
+
+	private static boolean isSortedByGatherTime(long[] gatherTimes, int size) {
+		for (int i = 1; i < size; i++) {
+			if (gatherTimes[i - 1] > gatherTimes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Insertion sort by gather time, the values are almost always offered in
+	 * order, so it's linear in general.
+	 */
+	private static void sortByGatherTime(long[] gatherTimes, double[] values, int size) {
+		for (int i = 1; i < size; i++) {
+			long t = gatherTimes[i];
+			if (gatherTimes[i - 1] <= t) {
+				continue;
+			}
+			double v = values[i];
+			int j = i - 1;
+			while (j >= 0 && gatherTimes[j] > t) {
+				gatherTimes[j + 1] = gatherTimes[j];
+				values[j + 1] = values[j];
+				--j;
+			}
+			gatherTimes[j + 1] = t;
+			values[j + 1] = v;
+		}
+	}
+
+	/**
+	 * Create a window of the range of arrays that is already ordered by
+	 * gather time, without copying.
+	 * 
+	 * @param gatherTimes
+	 * @param values
+	 * @param offset
+	 * @param size
+	 * @return
+	 */
+	static MetricTimeWindow ofSorted(long[] gatherTimes, double[] values, int offset, int size) {
+		return new MetricTimeWindow(gatherTimes, values, offset, size);
+	}
+
+	public static MetricTimeWindow of(List<MetricValue> metricVals) {
+		if (metricVals == null || metricVals.isEmpty()) {
+			return EMPTY;
+		}
+		long[] gatherTimes = new long[metricVals.size()];
+		double[] values = new double[metricVals.size()];
+		for (int i = 0; i < metricVals.size(); i++) {
+			gatherTimes[i] = metricVals.get(i).getGatherTime();
+			values[i] = metricVals.get(i).getValue();
+		}
+		return new MetricTimeWindow(gatherTimes, values, gatherTimes.length);
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+import java.util.List;
+
+import com.wl4g.dopaas.common.bean.umc.model.MetricValue;
+
+/**
+ * Snapshot store of metric time windows, which is used to failover the
+ * windows owned by the in-process store.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public interface MetricTimeWindowSnapshotStore {
+
+	/**
+	 * Gets snapshot of time window.
+	 * 
+	 * @param collectId
+	 * @param templateId
+	 * @return
+	 */
+	List<MetricValue> peek(String collectId, Long templateId);
+
+	/**
+	 * Sets snapshot of time window.
+	 * 
+	 * @param collectId
+	 * @param templateId
+	 * @param metricVals
+	 * @param ttl
+	 */
+	void put(String collectId, Long templateId, List<MetricValue> metricVals, long ttl);
+
+}
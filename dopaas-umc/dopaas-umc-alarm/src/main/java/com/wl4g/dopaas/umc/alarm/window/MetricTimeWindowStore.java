@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+/**
+ * Metric values time window store of alarm, the window is keyed by
+ * (collectId, templateId) and only keep the metric values gathered in latest
+ * time-to-live.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public interface MetricTimeWindowStore {
+
+	/**
+	 * Offer metric value to time window, and the expired and repeated(same
+	 * gather time) values will be evicted.
+	 * 
+	 * @param collectId
+	 *            collect address, e.g: host:endpoint
+	 * @param templateId
+	 *            alarm template id.
+	 * @param value
+	 *            metric value
+	 * @param gatherTime
+	 *            gather time-stamp.
+	 * @param now
+	 *            current date time-stamp.
+	 * @param ttl
+	 *            time-to-live of window.
+	 * @return Returns the snapshot of the latest time window.
+	 */
+	MetricTimeWindow offer(String collectId, Long templateId, double value, long gatherTime, long now, long ttl);
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import org.springframework.util.Assert;
+
+/**
+ * Fixed capacity buffer of primitive metric values ordered by gather time, it
+ * evicts values by gather time-stamp, and when the capacity is exhausted the
+ * eldest value will be dropped. Not thread-safe, the caller should
+ * synchronize on it.
+ * <p>
+ * The values are kept in a contiguous range of arrays larger than the
+ * capacity, appended at the tail and evicted by moving the head, so that
+ * {@link #snapshot()} is a view of the range without copying. The arrays
+ * exposed to snapshots are never written in place, the values are moved to
+ * new arrays when the tail reaches the end(once per capacity offers at most),
+ * or a value is offered out of gather order or repeated.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class MetricValueRingBuffer {
+
+	final private int capacity;
+
+	private long[] gatherTimes;
+
+	private double[] values;
+
+	/** Index of eldest value. */
+	private int head;
+
+	/** Index after the latest value. */
+	private int tail;
+
+	/** Whether the arrays are exposed to snapshots. */
+	private boolean exposed;
+
+	/** Latest offered time-stamp, used to evict idle buffers. */
+	private volatile long lastOfferTime;
+
+	public MetricValueRingBuffer(int capacity) {
+		Assert.isTrue(capacity > 0, "Ring buffer capacity must be greater than 0.");
+		this.capacity = capacity;
+		this.gatherTimes = new long[arrayLength(0)];
+		this.values = new double[gatherTimes.length];
+	}
+
+	public int size() {
+		return tail - head;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public long getLastOfferTime() {
+		return lastOfferTime;
+	}
+
+	/**
+	 * Offer metric value, the expired values will be evicted first, and if
+	 * the value with the same gather time exists, it will be replaced.
+	 * 
+	 * @param value
+	 * @param gatherTime
+	 * @param now
+	 * @param ttl
+	 */
+	public void offer(double value, long gatherTime, long now, long ttl) {
+		evict(now, ttl);
+		lastOfferTime = now;
+
+		// In gather order(mostly), append to the tail.
+		if (tail == head || gatherTimes[tail - 1] < gatherTime) {
+			if (size() == capacity) { // Drop eldest
+				++head;
+			}
+			if (tail == gatherTimes.length) {
+				moveTo(arrayLength(size() + 1));
+			}
+			gatherTimes[tail] = gatherTime;
+			values[tail] = value;
+			++tail;
+			return;
+		}
+
+		// Repeated or out of order, never write the exposed arrays.
+		if (exposed || tail == gatherTimes.length) {
+			moveTo(arrayLength(size() + 1));
+		}
+		int idx = searchFirstNotLessThan(gatherTime);
+		if (idx < tail && gatherTimes[idx] == gatherTime) { // Replace repeat data.
+			values[idx] = value;
+			return;
+		}
+		if (size() == capacity) {
+			if (idx == head) { // Older than all values.
+				return;
+			}
+			++head;
+		}
+		System.arraycopy(gatherTimes, idx, gatherTimes, idx + 1, tail - idx);
+		System.arraycopy(values, idx, values, idx + 1, tail - idx);
+		gatherTimes[idx] = gatherTime;
+		values[idx] = value;
+		++tail;
+	}
+
+	/**
+	 * Evict expired values, the eldest values are evicted first.
+	 * 
+	 * @param now
+	 * @param ttl
+	 */
+	public void evict(long now, long ttl) {
+		while (tail > head && Math.abs(now - gatherTimes[head]) >= ttl) {
+			++head;
+		}
+	}
+
+	/**
+	 * Gets the immutable time window snapshot, it's a view of the values of
+	 * buffer without copying.
+	 * 
+	 * @return
+	 */
+	public MetricTimeWindow snapshot() {
+		exposed = true;
+		return MetricTimeWindow.ofSorted(gatherTimes, values, head, size());
+	}
+
+	/**
+	 * Move the values to the start of new arrays.
+	 * 
+	 * @param length
+	 */
+	private void moveTo(int length) {
+		int size = size();
+		long[] times = new long[length];
+		double[] vals = new double[length];
+		System.arraycopy(gatherTimes, head, times, 0, size);
+		System.arraycopy(values, head, vals, 0, size);
+		gatherTimes = times;
+		values = vals;
+		head = 0;
+		tail = size;
+		exposed = false;
+	}
+
+	private int searchFirstNotLessThan(long gatherTime) {
+		int low = head, high = tail;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (gatherTimes[mid] < gatherTime) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets arrays length of the values size, grows with the size up to twice
+	 * of capacity, so that the sparse windows do not allocate the capacity.
+	 */
+	private int arrayLength(int size) {
+		return (int) min(2L * capacity, max(16L, 2L * size));
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+import static com.wl4g.component.common.collection.CollectionUtils2.ensureList;
+import static java.lang.Math.abs;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.springframework.util.Assert;
+
+import com.wl4g.component.support.cache.jedis.JedisService;
+import com.wl4g.component.support.cache.locks.JedisLockManager;
+import com.wl4g.dopaas.common.bean.umc.model.MetricValue;
+
+/**
+ * REDIS metric time window store, every offer is a locked read-modify-write
+ * of the whole window list, which can be shared by all alerter nodes.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class RedisMetricTimeWindowStore implements MetricTimeWindowStore, MetricTimeWindowSnapshotStore {
+
+	/** REDIS service */
+	final protected JedisService jedisService;
+
+	/** REDIS lock manager. */
+	final protected JedisLockManager lockManager;
+
+	/** Time window cache key prefix. */
+	final protected String keyPrefix;
+
+	public RedisMetricTimeWindowStore(JedisService jedisService, JedisLockManager lockManager, String keyPrefix) {
+		Assert.notNull(jedisService, "JedisService is null, please check config.");
+		Assert.notNull(lockManager, "LockManager is null, please check config.");
+		Assert.hasText(keyPrefix, "Time window key prefix must not be empty.");
+		this.jedisService = jedisService;
+		this.lockManager = lockManager;
+		this.keyPrefix = keyPrefix;
+	}
+
+	@Override
+	public MetricTimeWindow offer(String collectId, Long templateId, double value, long gatherTime, long now, long ttl) {
+		String timeWindowKey = getTimeWindowCacheKey(collectId, templateId);
+		List<MetricValue> metricVals = null;
+
+		// To solve the concurrency problem of metric window queue in
+		// distributed environment.
+		Lock lock = lockManager.getLock(timeWindowKey);
+		try {
+			if (lock.tryLock(6L, TimeUnit.SECONDS)) {
+				try {
+					metricVals = ensureList(jedisService.getObjectList(timeWindowKey, MetricValue.class));
+
+					// Check & clean expired metrics.
+					Iterator<MetricValue> it = metricVals.iterator();
+					while (it.hasNext()) {
+						long gatherTime1 = it.next().getGatherTime();
+						// Remove expire data and repeat data
+						if (abs(now - gatherTime1) >= ttl || gatherTime1 == gatherTime) {
+							it.remove();
+						}
+					}
+					metricVals.add(new MetricValue(gatherTime, value));
+
+					// Offer to queue.
+					jedisService.del(timeWindowKey);
+					jedisService.setObjectList(timeWindowKey, metricVals, (int) ttl / 1000);
+				} finally {
+					lock.unlock();
+				}
+			}
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return MetricTimeWindow.of(metricVals);
+	}
+
+	/**
+	 * Gets snapshot of time window from cache.
+	 * 
+	 * @param collectId
+	 * @param templateId
+	 * @return
+	 */
+	@Override
+	public List<MetricValue> peek(String collectId, Long templateId) {
+		return jedisService.getObjectList(getTimeWindowCacheKey(collectId, templateId), MetricValue.class);
+	}
+
+	/**
+	 * Sets snapshot of time window to cache.
+	 * 
+	 * @param collectId
+	 * @param templateId
+	 * @param metricVals
+	 * @param ttl
+	 */
+	@Override
+	public void put(String collectId, Long templateId, List<MetricValue> metricVals, long ttl) {
+		String timeWindowKey = getTimeWindowCacheKey(collectId, templateId);
+		jedisService.del(timeWindowKey);
+		jedisService.setObjectList(timeWindowKey, metricVals, (int) ttl / 1000);
+	}
+
+	protected String getTimeWindowCacheKey(String collectId, Long templateId) {
+		Assert.hasText(collectId, "collectId must not be empty");
+		return keyPrefix + collectId + "@" + templateId;
+	}
+
+}
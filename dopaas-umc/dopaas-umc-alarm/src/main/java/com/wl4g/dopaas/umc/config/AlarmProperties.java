@@ -15,6 +15,10 @@
  */
 package com.wl4g.dopaas.umc.config;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
 import com.wl4g.component.common.task.RunnerProperties;
 
 /**
@@ -33,4 +37,299 @@ public class AlarmProperties extends RunnerProperties {
         setConcurrency(1); // By default
     }
 
+    /**
+     * Metric time window store configuration properties.
+     */
+    private TimeWindowProperties timeWindow = new TimeWindowProperties();
+
+    /**
+     * Alarm rule index cache configuration properties.
+     */
+    private RuleIndexProperties ruleIndex = new RuleIndexProperties();
+
+    /**
+     * Alarm notification dispatching configuration properties.
+     */
+    private NotificationProperties notification = new NotificationProperties();
+
+    public TimeWindowProperties getTimeWindow() {
+        return timeWindow;
+    }
+
+    public void setTimeWindow(TimeWindowProperties timeWindow) {
+        this.timeWindow = timeWindow;
+    }
+
+    public RuleIndexProperties getRuleIndex() {
+        return ruleIndex;
+    }
+
+    public void setRuleIndex(RuleIndexProperties ruleIndex) {
+        this.ruleIndex = ruleIndex;
+    }
+
+    public NotificationProperties getNotification() {
+        return notification;
+    }
+
+    public void setNotification(NotificationProperties notification) {
+        this.notification = notification;
+    }
+
+    /**
+     * Metric time window store configuration properties.
+     */
+    public static class TimeWindowProperties implements Serializable {
+        private static final long serialVersionUID = 2386357261930741651L;
+
+        /**
+         * Time window store type.
+         */
+        private TimeWindowStoreType storeType = TimeWindowStoreType.REDIS;
+
+        /**
+         * Maximum number of metric values kept in each in-process window.
+         */
+        private int capacity = 256;
+
+        /**
+         * All alerter node ids of sharding, if empty the local node owns all
+         * time windows.
+         */
+        private List<String> nodes = new ArrayList<>();
+
+        /**
+         * Current alerter node id, must be one of {@link #nodes}.
+         */
+        private String localNode;
+
+        /**
+         * Number of virtual nodes per alerter node of consistent hashing.
+         */
+        private int virtualNodes = 160;
+
+        /**
+         * Whether to snapshot in-process windows to REDIS for failover.
+         */
+        private boolean snapshotEnabled = true;
+
+        /**
+         * Interval(ms) of snapshot and evict idle in-process windows.
+         */
+        private long snapshotIntervalMs = 10_000L;
+
+        public TimeWindowStoreType getStoreType() {
+            return storeType;
+        }
+
+        public void setStoreType(TimeWindowStoreType storeType) {
+            this.storeType = storeType;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public List<String> getNodes() {
+            return nodes;
+        }
+
+        public void setNodes(List<String> nodes) {
+            this.nodes = nodes;
+        }
+
+        public String getLocalNode() {
+            return localNode;
+        }
+
+        public void setLocalNode(String localNode) {
+            this.localNode = localNode;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+
+        public boolean isSnapshotEnabled() {
+            return snapshotEnabled;
+        }
+
+        public void setSnapshotEnabled(boolean snapshotEnabled) {
+            this.snapshotEnabled = snapshotEnabled;
+        }
+
+        public long getSnapshotIntervalMs() {
+            return snapshotIntervalMs;
+        }
+
+        public void setSnapshotIntervalMs(long snapshotIntervalMs) {
+            this.snapshotIntervalMs = snapshotIntervalMs;
+        }
+
+    }
+
+    /**
+     * Alarm rule index cache configuration properties.
+     */
+    public static class RuleIndexProperties implements Serializable {
+        private static final long serialVersionUID = -1560193870316547720L;
+
+        /**
+         * Maximum number of collectors rule index cached per node.
+         */
+        private int maxEntries = 10_000;
+
+        /**
+         * Minimum interval(ms) of checking the templates change version.
+         */
+        private long versionCheckIntervalMs = 1_000L;
+
+        /**
+         * Maximum time(ms) to keep a cached rule index even if the version is
+         * not changed, as a safety net of missed invalidation.
+         */
+        private long expireMs = 60_000L;
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getVersionCheckIntervalMs() {
+            return versionCheckIntervalMs;
+        }
+
+        public void setVersionCheckIntervalMs(long versionCheckIntervalMs) {
+            this.versionCheckIntervalMs = versionCheckIntervalMs;
+        }
+
+        public long getExpireMs() {
+            return expireMs;
+        }
+
+        public void setExpireMs(long expireMs) {
+            this.expireMs = expireMs;
+        }
+
+    }
+
+    /**
+     * Alarm notification dispatching configuration properties.
+     */
+    public static class NotificationProperties implements Serializable {
+        private static final long serialVersionUID = 6390816374210258213L;
+
+        /**
+         * Coalescing window(ms) of alarm notifications, the alarms of the
+         * same contact channel within the window are sent in one message.
+         */
+        private long windowMs = 5_000L;
+
+        /**
+         * Maximum number of distinct alarms rendered in one message, the rest
+         * are only counted.
+         */
+        private int maxAlarmsPerMessage = 20;
+
+        /**
+         * Notifier message template key.
+         */
+        private String templateKey = "umcAlarmTpl";
+
+        /**
+         * Mail subject of notification message.
+         */
+        private String mailSubject = "UMC alarm notification";
+
+        /**
+         * Rate limit cache key prefix of contact channels.
+         */
+        private String rateLimitKeyPrefix = "{umc_alarm_notify_limit}_";
+
+        /**
+         * Maximum number of alarm records(and notification contacts) kept for
+         * retrying the persistence after failures(e.g. DB outage), the eldest
+         * are discarded when exceeded.
+         */
+        private int maxRetryRecords = 10_000;
+
+        public long getWindowMs() {
+            return windowMs;
+        }
+
+        public void setWindowMs(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        public int getMaxAlarmsPerMessage() {
+            return maxAlarmsPerMessage;
+        }
+
+        public void setMaxAlarmsPerMessage(int maxAlarmsPerMessage) {
+            this.maxAlarmsPerMessage = maxAlarmsPerMessage;
+        }
+
+        public String getTemplateKey() {
+            return templateKey;
+        }
+
+        public void setTemplateKey(String templateKey) {
+            this.templateKey = templateKey;
+        }
+
+        public String getMailSubject() {
+            return mailSubject;
+        }
+
+        public void setMailSubject(String mailSubject) {
+            this.mailSubject = mailSubject;
+        }
+
+        public String getRateLimitKeyPrefix() {
+            return rateLimitKeyPrefix;
+        }
+
+        public void setRateLimitKeyPrefix(String rateLimitKeyPrefix) {
+            this.rateLimitKeyPrefix = rateLimitKeyPrefix;
+        }
+
+        public int getMaxRetryRecords() {
+            return maxRetryRecords;
+        }
+
+        public void setMaxRetryRecords(int maxRetryRecords) {
+            this.maxRetryRecords = maxRetryRecords;
+        }
+
+    }
+
+    /**
+     * Metric time window store type.
+     */
+    public static enum TimeWindowStoreType {
+
+        /**
+         * Locked read-modify-write window list in REDIS, shared by all nodes.
+         */
+        REDIS,
+
+        /**
+         * In-process ring buffer windows sharded across nodes by consistent
+         * hashing.
+         */
+        LOCAL;
+
+    }
+
 }
\ No newline at end of file
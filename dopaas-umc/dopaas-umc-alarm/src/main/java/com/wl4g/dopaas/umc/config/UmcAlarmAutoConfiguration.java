@@ -15,6 +15,8 @@
  */
 package com.wl4g.dopaas.umc.config;
 
+import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_METRIC_QUEUE;
+
 import java.util.List;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -29,6 +31,12 @@ import com.wl4g.component.support.cache.jedis.JedisService;
 import com.wl4g.dopaas.umc.alarm.alerting.DefaultIndicatorsValveAlerter;
 import com.wl4g.dopaas.umc.alarm.alerting.IndicatorsValveAlerter;
 import com.wl4g.dopaas.umc.alarm.alerting.SimulateIndicatorsValveAleter;
+import com.wl4g.dopaas.umc.alarm.notification.AlarmNotificationDispatcher;
+import com.wl4g.dopaas.umc.alarm.notification.JedisNotificationRateLimiter;
+import com.wl4g.dopaas.umc.alarm.notification.NotificationRateLimiter;
+import com.wl4g.dopaas.umc.alarm.window.LocalShardingMetricTimeWindowStore;
+import com.wl4g.dopaas.umc.alarm.window.MetricTimeWindowStore;
+import com.wl4g.dopaas.umc.alarm.window.RedisMetricTimeWindowStore;
 import com.wl4g.dopaas.umc.console.AlarmConsole;
 import com.wl4g.dopaas.umc.handler.CheckImpledAlarmConfigurer;
 import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
@@ -64,20 +72,47 @@ public class UmcAlarmAutoConfiguration {
 		return alarmProperties;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public MetricTimeWindowStore metricTimeWindowStore(JedisService jedisService, JedisLockManager lockManager,
+			AlarmProperties config) {
+		RedisMetricTimeWindowStore redisStore = new RedisMetricTimeWindowStore(jedisService, lockManager,
+				KEY_CACHE_ALARM_METRIC_QUEUE);
+		switch (config.getTimeWindow().getStoreType()) {
+		case LOCAL:
+			return new LocalShardingMetricTimeWindowStore(config.getTimeWindow(), redisStore, redisStore);
+		default:
+			return redisStore;
+		}
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public NotificationRateLimiter notificationRateLimiter(JedisService jedisService) {
+		return new JedisNotificationRateLimiter(jedisService);
+	}
+
+	@Bean
+	public AlarmNotificationDispatcher alarmNotificationDispatcher(AlarmProperties config, AlarmConfigurer configurer,
+			NotificationRateLimiter rateLimiter, GenericOperatorAdapter<NotifierKind, MessageNotifier> notifierAdapter) {
+		return new AlarmNotificationDispatcher(config.getNotification(), configurer, rateLimiter,
+				(channel, msg) -> notifierAdapter.forOperator(channel.getKind()).send(msg));
+	}
+
 	@Bean(BEAN_DEFAULT_VALVE_ALERTER)
-	public IndicatorsValveAlerter defaultIndicatorsValveAlerter(JedisService jedisService, JedisLockManager lockManager,
+	public IndicatorsValveAlerter defaultIndicatorsValveAlerter(JedisService jedisService, MetricTimeWindowStore windowStore,
 			AlarmProperties config, AlarmConfigurer configurer, RuleConfigManager ruleManager,
-			CompositeRuleInspectorAdapter inspector, GenericOperatorAdapter<NotifierKind, MessageNotifier> notifierAdapter) {
-		return new DefaultIndicatorsValveAlerter(jedisService, lockManager, config, configurer, ruleManager, inspector,
-				notifierAdapter);
+			CompositeRuleInspectorAdapter inspector, AlarmNotificationDispatcher dispatcher) {
+		return new DefaultIndicatorsValveAlerter(jedisService, windowStore, config, configurer, ruleManager, inspector,
+				dispatcher);
 	}
 
 	@Bean(BEAN_SIMULATE_VALVE_ALERTER)
 	public IndicatorsValveAlerter simulateIndicatorsValveAlerter(JedisService jedisService, JedisLockManager lockManager,
 			AlarmProperties config, AlarmConfigurer configurer, RuleConfigManager ruleManager,
-			CompositeRuleInspectorAdapter inspector, GenericOperatorAdapter<NotifierKind, MessageNotifier> notifierAdapter) {
+			CompositeRuleInspectorAdapter inspector, AlarmNotificationDispatcher dispatcher) {
 		return new SimulateIndicatorsValveAleter(jedisService, lockManager, config, configurer, ruleManager, inspector,
-				notifierAdapter);
+				dispatcher);
 	}
 
 	@Bean
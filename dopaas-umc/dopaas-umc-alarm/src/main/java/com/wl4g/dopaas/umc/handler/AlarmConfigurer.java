@@ -22,6 +22,7 @@ import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
 import com.wl4g.iam.common.bean.Contact;
 import com.wl4g.iam.common.bean.NotificationContact;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -37,8 +38,36 @@ public interface AlarmConfigurer {
 
 	AlarmRecord saveAlarmRecord(AlarmTemplate alarmTemplate, Long gatherTime, List<AlarmRule> rules, String alarmNote);
 
+	/**
+	 * Batch save alarm records, the template, gather time, matched rules and
+	 * note are carried by records.
+	 * 
+	 * @param records
+	 * @return
+	 */
+	default List<AlarmRecord> saveAlarmRecords(List<AlarmRecord> records) {
+		List<AlarmRecord> saved = new ArrayList<>(records.size());
+		for (AlarmRecord r : records) {
+			saved.add(saveAlarmRecord(r.getAlarmTemplate(), r.getGatherTime().getTime(), r.getAlarmRules(), r.getAlarmNote()));
+		}
+		return saved;
+	}
+
 	List<Contact> getContactByGroupIds(List<Long> groupIds);
 
 	NotificationContact saveNotificationContact(NotificationContact notificationContact);
 
+	/**
+	 * Batch save notification contacts. The default saves one by one, and is
+	 * not atomic, implementations should override it to save the whole batch
+	 * at once, since the failed batch is re-queued and retried as a whole.
+	 * 
+	 * @param notificationContacts
+	 */
+	default void saveNotificationContacts(List<NotificationContact> notificationContacts) {
+		for (NotificationContact nc : notificationContacts) {
+			saveNotificationContact(nc);
+		}
+	}
+
 }
\ No newline at end of file
@@ -50,7 +50,7 @@ public enum Aggregator {
 				return t;
 			}
 		}
-		throw new UnsupportedOperationException(String.format("Unsupport Aggregator(%d)", aggregateString));
+		throw new UnsupportedOperationException(String.format("Unsupport Aggregator(%s)", aggregateString));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.rule;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
+import com.wl4g.dopaas.common.bean.umc.AlarmRule;
+import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
+
+/**
+ * Immutable pre-compiled alarm rule index of a collector(host:endpoint), the
+ * alarm templates are compiled once into a hash map from metric name to the
+ * rules, so that matching is a hash lookup per metric.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class AlarmRuleIndex {
+
+	final public static AlarmRuleIndex EMPTY = new AlarmRuleIndex(emptyList());
+
+	/** Compiled rules by metric name. */
+	final private Map<String, List<CompiledAlarmRule>> rulesByMetric;
+
+	final private int size;
+
+	public AlarmRuleIndex(List<AlarmConfig> alarmConfigs) {
+		Map<String, List<CompiledAlarmRule>> rulesByMetric = new HashMap<>();
+		int size = 0;
+		for (AlarmConfig config : alarmConfigs) {
+			AlarmTemplate tpl = config.getAlarmTemplate();
+			if (tpl == null || isBlank(tpl.getMetric())) {
+				continue;
+			}
+			rulesByMetric.computeIfAbsent(tpl.getMetric(), k -> new ArrayList<>(2)).add(new CompiledAlarmRule(config));
+			++size;
+		}
+		this.rulesByMetric = unmodifiableMap(rulesByMetric);
+		this.size = size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets compiled alarm rules by metric name.
+	 * 
+	 * @param metric
+	 * @return
+	 */
+	public List<CompiledAlarmRule> match(String metric) {
+		if (metric == null) {
+			return emptyList();
+		}
+		List<CompiledAlarmRule> rules = rulesByMetric.get(metric);
+		return rules != null ? rules : emptyList();
+	}
+
+	/**
+	 * Compiled alarm rule of template, the tags filter and maximum time window
+	 * are pre-computed.
+	 */
+	public static class CompiledAlarmRule {
+
+		final private AlarmConfig alarmConfig;
+
+		/** Tags filter of template, the values are trimmed. */
+		final private Map<String, String> tagsFilter;
+
+		/** Maximum metric keep time window of rules. */
+		final private long maxWindowTime;
+
+		final private List<AlarmRule> rules;
+
+		/** Rules with operators and aggregator resolved, unresolvable rules are skipped. */
+		final private List<ResolvedAlarmRule> resolvedRules;
+
+		public CompiledAlarmRule(AlarmConfig alarmConfig) {
+			this.alarmConfig = alarmConfig;
+			AlarmTemplate tpl = alarmConfig.getAlarmTemplate();
+			Map<String, String> tagsFilter = new HashMap<>();
+			for (Entry<String, String> ent : tpl.getTagsMap().entrySet()) {
+				tagsFilter.put(ent.getKey(), trimToEmpty(ent.getValue()));
+			}
+			this.tagsFilter = unmodifiableMap(tagsFilter);
+			this.rules = tpl.getRules() != null ? unmodifiableList(new ArrayList<>(tpl.getRules())) : emptyList();
+			long maxWindowTime = 0;
+			for (AlarmRule rule : rules) {
+				Long timeWindow = rule.getQueueTimeWindow();
+				if (timeWindow != null && timeWindow > maxWindowTime) {
+					maxWindowTime = timeWindow;
+				}
+			}
+			this.maxWindowTime = maxWindowTime;
+			List<ResolvedAlarmRule> resolvedRules = new ArrayList<>(rules.size());
+			for (AlarmRule rule : rules) {
+				ResolvedAlarmRule resolved = ResolvedAlarmRule.resolve(rule);
+				if (resolved != null) {
+					resolvedRules.add(resolved);
+				}
+			}
+			this.resolvedRules = unmodifiableList(resolvedRules);
+		}
+
+		public AlarmConfig getAlarmConfig() {
+			return alarmConfig;
+		}
+
+		public Long getTemplateId() {
+			return alarmConfig.getAlarmTemplate().getId();
+		}
+
+		public Map<String, String> getTagsFilter() {
+			return tagsFilter;
+		}
+
+		public long getMaxWindowTime() {
+			return maxWindowTime;
+		}
+
+		public List<AlarmRule> getRules() {
+			return rules;
+		}
+
+		public List<ResolvedAlarmRule> getResolvedRules() {
+			return resolvedRules;
+		}
+
+		/**
+		 * Match metric tags, if no tags filter is configured returns empty
+		 * tags, otherwise returns the matched tags of filter or null if none
+		 * is matched.
+		 * 
+		 * @param metricTags
+		 * @return
+		 */
+		public Map<String, String> matchTags(Map<String, String> metricTags) {
+			if (tagsFilter.isEmpty()) {
+				return emptyMap();
+			}
+			Map<String, String> matchedTags = null;
+			for (Entry<String, String> ent : tagsFilter.entrySet()) {
+				if (metricTags != null && ent.getValue().equals(metricTags.get(ent.getKey()))) {
+					if (matchedTags == null) {
+						matchedTags = new HashMap<>(4);
+					}
+					matchedTags.put(ent.getKey(), ent.getValue());
+				}
+			}
+			return matchedTags;
+		}
+
+	}
+
+	/**
+	 * Alarm rule with the operators, baseline and time window resolved once,
+	 * so that inspection does not parse them per metric. The aggregator is
+	 * still determined by the composite rule inspector.
+	 */
+	public static class ResolvedAlarmRule {
+
+		final private AlarmRule rule;
+		final private LogicalOperator logicalOperator;
+		final private RelationOperator relateOperator;
+		final private String aggregator;
+		final private double baseline;
+		final private long timeWindow;
+
+		private ResolvedAlarmRule(AlarmRule rule, LogicalOperator logicalOperator, RelationOperator relateOperator,
+				String aggregator) {
+			this.rule = rule;
+			this.logicalOperator = logicalOperator;
+			this.relateOperator = relateOperator;
+			this.aggregator = aggregator;
+			this.baseline = rule.getValue() != null ? rule.getValue() : Double.NaN;
+			this.timeWindow = rule.getQueueTimeWindow() != null ? rule.getQueueTimeWindow() : 0L;
+		}
+
+		public AlarmRule getRule() {
+			return rule;
+		}
+
+		public LogicalOperator getLogicalOperator() {
+			return logicalOperator;
+		}
+
+		public RelationOperator getRelateOperator() {
+			return relateOperator;
+		}
+
+		public String getAggregator() {
+			return aggregator;
+		}
+
+		public double getBaseline() {
+			return baseline;
+		}
+
+		public long getTimeWindow() {
+			return timeWindow;
+		}
+
+		/**
+		 * Resolve alarm rule, returns null if the rule is unsupported.
+		 * 
+		 * @param rule
+		 * @return
+		 */
+		static ResolvedAlarmRule resolve(AlarmRule rule) {
+			if (rule == null || rule.getLogicalOperator() == null || rule.getRelateOperator() == null) {
+				return null;
+			}
+			try {
+				return new ResolvedAlarmRule(rule, LogicalOperator.of(rule.getLogicalOperator()),
+						RelationOperator.of(rule.getRelateOperator()), rule.getAggregator());
+			} catch (UnsupportedOperationException e) {
+				return null;
+			}
+		}
+
+	}
+
+}
@@ -17,9 +17,20 @@ package com.wl4g.dopaas.umc.rule;
 
 import static com.wl4g.component.common.collection.CollectionUtils2.safeList;
 import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_TPLS;
-import static org.springframework.util.CollectionUtils.isEmpty;
+import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_TPLS_VERSION;
+import static java.lang.System.currentTimeMillis;
+import static java.util.Comparator.comparingLong;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,8 +42,13 @@ import org.springframework.util.Assert;
 import com.wl4g.component.support.cache.jedis.JedisService;
 import com.wl4g.component.support.cache.jedis.ScanCursor;
 import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
+import com.wl4g.dopaas.umc.config.AlarmProperties;
 import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Rule configuration manager.
  * 
@@ -43,14 +59,46 @@ import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
  */
 public class RuleConfigManager implements ApplicationRunner {
 
+    final public static String METRIC_RULE_INDEX_HIT = "umc.alarm.rule.index.hit";
+    final public static String METRIC_RULE_INDEX_MISS = "umc.alarm.rule.index.miss";
+    final public static String METRIC_RULE_INDEX_REBUILD = "umc.alarm.rule.index.rebuild";
+    final public static String METRIC_RULE_INDEX_SIZE = "umc.alarm.rule.index.size";
+
     final protected Logger log = LoggerFactory.getLogger(getClass());
 
     private @Autowired JedisService jedisService;
 
     private @Autowired AlarmConfigurer ruleConfigurer;
 
+    private @Autowired AlarmProperties config;
+
+    private @Autowired(required = false) MeterRegistry registry;
+
+    /** Local cached rule index by collect address. */
+    private final ConcurrentMap<String, CachedRuleIndex> ruleIndexCache = new ConcurrentHashMap<>(256);
+
+    /** Latest alarm templates change version. */
+    private volatile long currentVersion = -1L;
+
+    /** Latest version checked time-stamp. */
+    private final AtomicLong lastVersionCheckTime = new AtomicLong(0L);
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder rebuildCount = new LongAdder();
+
     @Override
     public void run(ApplicationArguments args) {
+        if (nonNull(registry)) {
+            FunctionCounter.builder(METRIC_RULE_INDEX_HIT, hitCount, LongAdder::doubleValue)
+                    .description("Alarm rule index cache hits").register(registry);
+            FunctionCounter.builder(METRIC_RULE_INDEX_MISS, missCount, LongAdder::doubleValue)
+                    .description("Alarm rule index cache misses").register(registry);
+            FunctionCounter.builder(METRIC_RULE_INDEX_REBUILD, rebuildCount, LongAdder::doubleValue)
+                    .description("Alarm rule index rebuilds").register(registry);
+            Gauge.builder(METRIC_RULE_INDEX_SIZE, ruleIndexCache, Map::size).description("Alarm rule index cached collectors")
+                    .register(registry);
+        }
     }
 
     /**
@@ -66,6 +114,11 @@ public class RuleConfigManager implements ApplicationRunner {
         ScanCursor<?> cursor = jedisService.scan(pattern, clearBatch, null);
         int count = 0;
         for (String key : cursor.toStringkeys()) {
+            // The change version must not go backwards, otherwise alerters
+            // may keep the stale rule index of the same version.
+            if (KEY_CACHE_ALARM_TPLS_VERSION.equals(key)) {
+                continue;
+            }
             try {
                 jedisService.del(key);
                 ++count;
@@ -74,33 +127,131 @@ public class RuleConfigManager implements ApplicationRunner {
             }
         }
 
+        ruleIndexCache.clear();
         log.info("Cleaned alarm templates: {}", count);
     }
 
     /**
-     * Find alarm rule template by collectId.
+     * Load the pre-compiled alarm rule index by collect address, the index is
+     * cached per node and invalidated when the alarm templates change version
+     * is increased.
      * 
-     * @param clusterId
+     * @param host
+     * @param endpoint
      * @return
      */
-    public List<AlarmConfig> loadAlarmRuleTpls(String host, String endpoint) {
-        String key = getCollectIdAlarmRulesCacheKey(host + ":" + endpoint);
-        // First get the cache
-        List<AlarmConfig> alarmTpls = jedisService.getObjectList(key, AlarmConfig.class);
-        if (isEmpty(alarmTpls)) {
-            alarmTpls = ruleConfigurer.findAlarmConfigByEndpoint(host, endpoint);
-            if (!isEmpty(alarmTpls)) {
-                jedisService.setObjectList(key, alarmTpls, 5);
+    public AlarmRuleIndex loadAlarmRuleIndex(String host, String endpoint) {
+        String collectAddr = host + ":" + endpoint;
+        long version = checkCurrentVersion();
+        long now = currentTimeMillis();
+
+        CachedRuleIndex cached = ruleIndexCache.get(collectAddr);
+        if (nonNull(cached) && cached.version == version && (now - cached.loadTime) < config.getRuleIndex().getExpireMs()) {
+            hitCount.increment();
+            return cached.index;
+        }
+        if (isNull(cached)) {
+            missCount.increment();
+        } else {
+            // Stale version or expired, only remove the entry we've seen.
+            ruleIndexCache.remove(collectAddr, cached);
+        }
+        if (ruleIndexCache.size() >= config.getRuleIndex().getMaxEntries()) {
+            evictRuleIndexCache(now);
+        }
+
+        // Rebuild rule index, concurrent loaders of same collector share once.
+        return ruleIndexCache.computeIfAbsent(collectAddr, k -> {
+            rebuildCount.increment();
+            return new CachedRuleIndex(new AlarmRuleIndex(loadAlarmRuleTpls(host, endpoint)), version, now);
+        }).index;
+    }
+
+    /**
+     * Gets alarm rule index cache stats.
+     * 
+     * @return
+     */
+    public String getRuleIndexStats() {
+        return String.format("size=%s, hit=%s, miss=%s, rebuild=%s, version=%s", ruleIndexCache.size(), hitCount.sum(),
+                missCount.sum(), rebuildCount.sum(), currentVersion);
+    }
+
+    /**
+     * Check the latest alarm templates change version, at most once per
+     * interval.
+     * 
+     * @return
+     */
+    private long checkCurrentVersion() {
+        long now = currentTimeMillis();
+        long last = lastVersionCheckTime.get();
+        if ((now - last) >= config.getRuleIndex().getVersionCheckIntervalMs() && lastVersionCheckTime.compareAndSet(last, now)) {
+            try {
+                currentVersion = loadAlarmTplsVersion();
+            } catch (Exception e) {
+                log.warn("Failed to check alarm templates version, caused by: {}", e.getMessage());
             }
         }
-        return safeList(alarmTpls);
+        return currentVersion;
+    }
+
+    /**
+     * Load the latest alarm templates change version.
+     * 
+     * @return
+     */
+    protected long loadAlarmTplsVersion() {
+        String version = jedisService.get(KEY_CACHE_ALARM_TPLS_VERSION);
+        return isBlank(version) ? 0L : Long.parseLong(version);
+    }
+
+    /**
+     * Evict the expired or stale version rule index, and if still exceeds
+     * the maximum entries, evict the earliest loaded entries.
+     * 
+     * @param now
+     */
+    private void evictRuleIndexCache(long now) {
+        long version = currentVersion;
+        ruleIndexCache.entrySet().removeIf(e -> e.getValue().version != version
+                || (now - e.getValue().loadTime) >= config.getRuleIndex().getExpireMs());
+
+        int overflow = ruleIndexCache.size() - config.getRuleIndex().getMaxEntries() + 1;
+        if (overflow > 0) {
+            ruleIndexCache.entrySet().stream().sorted(comparingLong(e -> e.getValue().loadTime)).limit(overflow)
+                    .map(e -> e.getKey()).collect(toList()).forEach(ruleIndexCache::remove);
+        }
     }
 
-    // --- Cache key ---
+    /**
+     * Find alarm rule templates by collect address. They are loaded from the
+     * configurer directly rather than the per collector JSON cache, because
+     * the rule index is already the cache layer, and a JSON copy that
+     * outlives the version increase would be compiled into the new index.
+     * 
+     * @param host
+     * @param endpoint
+     * @return
+     */
+    public List<AlarmConfig> loadAlarmRuleTpls(String host, String endpoint) {
+        Assert.hasText(host, "'host' must not be empty");
+        return safeList(ruleConfigurer.findAlarmConfigByEndpoint(host, endpoint));
+    }
+
+    /**
+     * Cached rule index with loaded version.
+     */
+    private static class CachedRuleIndex {
+        final AlarmRuleIndex index;
+        final long version;
+        final long loadTime;
 
-    private static String getCollectIdAlarmRulesCacheKey(String collectAddr) {
-        Assert.hasText(collectAddr, "'collectAddr' must not be empty");
-        return KEY_CACHE_ALARM_TPLS + collectAddr;
+        CachedRuleIndex(AlarmRuleIndex index, long version, long loadTime) {
+            this.index = index;
+            this.version = version;
+            this.loadTime = loadTime;
+        }
     }
 
 }
\ No newline at end of file
@@ -16,11 +16,6 @@
 package com.wl4g.dopaas.umc.rule.inspect;
 
 import com.wl4g.dopaas.umc.rule.Aggregator;
-import com.wl4g.dopaas.umc.rule.LogicalOperator;
-import com.wl4g.dopaas.umc.rule.RelationOperator;
-
-import static com.wl4g.component.common.collection.CollectionUtils2.safeToList;
-import static java.util.stream.Collectors.summarizingDouble;
 
 /**
  * Average rule inspector
@@ -39,11 +34,15 @@ public class AvgRuleInspector extends AbstractRuleInspector {
 	@Override
 	public boolean verify(InspectWrapper wrap) {
 		// Average
-		double avg = safeToList(Double.class, wrap.getValues()).stream().filter(val -> null != val)
-				.collect(summarizingDouble(val -> val)).getAverage();
+		double[] values = wrap.getValues();
+		int end = wrap.getOffset() + wrap.getLength();
+		double sum = 0d;
+		for (int i = wrap.getOffset(); i < end; i++) {
+			sum += values[i];
+		}
+		double avg = wrap.getLength() > 0 ? sum / wrap.getLength() : 0d;
 		wrap.setCompareValue(avg);
-		return super.operate(LogicalOperator.of(wrap.getLogicalOperator()), RelationOperator.of(wrap.getRelateOperator()), avg,
-				wrap.getBaseline());
+		return super.operate(wrap.getLogicalOperator(), wrap.getRelateOperator(), avg, wrap.getBaseline());
 	}
 
 }
\ No newline at end of file
@@ -15,18 +15,17 @@
  */
 package com.wl4g.dopaas.umc.rule.inspect;
 
-import static java.util.stream.Collectors.toMap;
+import static java.util.Objects.isNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
-import com.wl4g.component.common.collection.OnceUnmodifiableMap;
 import com.wl4g.dopaas.umc.rule.Aggregator;
 
 /**
@@ -39,13 +38,23 @@ import com.wl4g.dopaas.umc.rule.Aggregator;
 public class CompositeRuleInspectorAdapter extends AbstractRuleInspector {
 
     /**
-     * Rule inspectors.
+     * Rule inspectors dispatch table, indexed by {@link Aggregator#ordinal()}.
      */
-    final protected Map<Aggregator, RuleInspector> ruleInspectors = new OnceUnmodifiableMap<>(new HashMap<>());
+    final protected RuleInspector[] ruleInspectors = new RuleInspector[Aggregator.values().length];
+
+    /**
+     * Determined rule inspectors of rule aggregator string, so that the
+     * aggregator string is parsed once instead of each inspection.
+     */
+    final protected ConcurrentMap<String, Optional<RuleInspector>> determinedInspectors = new ConcurrentHashMap<>(16);
 
     public CompositeRuleInspectorAdapter(List<RuleInspector> inspectors) {
         Assert.state(!CollectionUtils.isEmpty(inspectors), "Rule inspectors has at least one.");
-        this.ruleInspectors.putAll(inspectors.stream().collect(toMap(RuleInspector::aggregateType, inspector -> inspector)));
+        for (RuleInspector inspector : inspectors) {
+            Aggregator type = inspector.aggregateType();
+            Assert.state(isNull(ruleInspectors[type.ordinal()]), String.format("Duplicate rule inspector of: %s", type));
+            ruleInspectors[type.ordinal()] = inspector;
+        }
     }
 
     @Override
@@ -70,13 +79,27 @@ public class CompositeRuleInspectorAdapter extends AbstractRuleInspector {
             log.warn("Unsupported this rule aggregator: {}", aggregator);
             return Optional.empty();
         }
+        Optional<RuleInspector> opt = determinedInspectors.get(aggregator);
+        if (isNull(opt)) {
+            opt = determinedInspectors.computeIfAbsent(aggregator, aggre -> doDetermineRuleInspector(aggre));
+        }
+        return opt;
+    }
+
+    /**
+     * Determine the first registered rule inspector of multiple aggregator
+     * string, e.g: 'avg,max'
+     * 
+     * @param aggregator
+     * @return
+     * @throws UnsupportedOperationException
+     *             If contains unsupported aggregator.
+     */
+    private Optional<RuleInspector> doDetermineRuleInspector(String aggregator) {
         for (String aggre : aggregator.split(",")) {
-            Aggregator type = Aggregator.safeOf(aggre);
-            if (null != type) {
-                RuleInspector inspector = ruleInspectors.get(type);
-                if (inspector != null) {
-                    return Optional.of(inspector);
-                }
+            RuleInspector inspector = ruleInspectors[Aggregator.safeOf(aggre).ordinal()];
+            if (inspector != null) {
+                return Optional.of(inspector);
             }
         }
         return Optional.empty();
@@ -15,11 +15,7 @@
  */
 package com.wl4g.dopaas.umc.rule.inspect;
 
-import static com.wl4g.component.common.collection.CollectionUtils2.isEmptyArray;
-
 import com.wl4g.dopaas.umc.rule.Aggregator;
-import com.wl4g.dopaas.umc.rule.LogicalOperator;
-import com.wl4g.dopaas.umc.rule.RelationOperator;
 
 /**
  * Latest rule inspector
@@ -37,14 +33,13 @@ public class LatestRuleInspector extends AbstractRuleInspector {
 
 	@Override
 	public boolean verify(InspectWrapper wrap) {
-		if (isEmptyArray(wrap.getValues())) {
+		if (wrap.getLength() <= 0) {
 			return false;
 		}
 		// Latest/Last
-		double latest = wrap.getValues()[wrap.getValues().length - 1];
+		double latest = wrap.getValues()[wrap.getOffset() + wrap.getLength() - 1];
 		wrap.setCompareValue(latest);
-		return super.operate(LogicalOperator.of(wrap.getLogicalOperator()), RelationOperator.of(wrap.getRelateOperator()), latest,
-				wrap.getBaseline());
+		return super.operate(wrap.getLogicalOperator(), wrap.getRelateOperator(), latest, wrap.getBaseline());
 	}
 
 }
\ No newline at end of file
@@ -16,11 +16,6 @@
 package com.wl4g.dopaas.umc.rule.inspect;
 
 import com.wl4g.dopaas.umc.rule.Aggregator;
-import com.wl4g.dopaas.umc.rule.LogicalOperator;
-import com.wl4g.dopaas.umc.rule.RelationOperator;
-
-import static com.wl4g.component.common.collection.CollectionUtils2.safeToList;
-import static java.util.stream.Collectors.summarizingDouble;
 
 /**
  * Maximum rule inspector
@@ -39,11 +34,14 @@ public class MaxRuleInspector extends AbstractRuleInspector {
 	@Override
 	public boolean verify(InspectWrapper wrap) {
 		// Maximum
-		double max = safeToList(Double.class, wrap.getValues()).stream().filter(val -> null != val)
-				.collect(summarizingDouble(val -> val)).getMax();
+		double[] values = wrap.getValues();
+		int end = wrap.getOffset() + wrap.getLength();
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = wrap.getOffset(); i < end; i++) {
+			max = Math.max(max, values[i]);
+		}
 		wrap.setCompareValue(max);
-		return super.operate(LogicalOperator.of(wrap.getLogicalOperator()), RelationOperator.of(wrap.getRelateOperator()), max,
-				wrap.getBaseline());
+		return super.operate(wrap.getLogicalOperator(), wrap.getRelateOperator(), max, wrap.getBaseline());
 	}
 
 }
\ No newline at end of file
@@ -16,11 +16,6 @@
 package com.wl4g.dopaas.umc.rule.inspect;
 
 import com.wl4g.dopaas.umc.rule.Aggregator;
-import com.wl4g.dopaas.umc.rule.LogicalOperator;
-import com.wl4g.dopaas.umc.rule.RelationOperator;
-
-import static com.wl4g.component.common.collection.CollectionUtils2.safeToList;
-import static java.util.stream.Collectors.summarizingDouble;
 
 /**
  * Minimum rule inspector.
@@ -39,11 +34,14 @@ public class MinRuleInspector extends AbstractRuleInspector {
 	@Override
 	public boolean verify(InspectWrapper wrap) {
 		// Minimum
-		double min = safeToList(Double.class, wrap.getValues()).stream().filter(val -> null != val)
-				.collect(summarizingDouble(val -> val)).getMin();
+		double[] values = wrap.getValues();
+		int end = wrap.getOffset() + wrap.getLength();
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = wrap.getOffset(); i < end; i++) {
+			min = Math.min(min, values[i]);
+		}
 		wrap.setCompareValue(min);
-		return super.operate(LogicalOperator.of(wrap.getLogicalOperator()), RelationOperator.of(wrap.getRelateOperator()), min,
-				wrap.getBaseline());
+		return super.operate(wrap.getLogicalOperator(), wrap.getRelateOperator(), min, wrap.getBaseline());
 	}
 
 }
\ No newline at end of file
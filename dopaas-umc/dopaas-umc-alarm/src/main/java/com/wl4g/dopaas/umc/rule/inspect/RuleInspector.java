@@ -16,6 +16,8 @@
 package com.wl4g.dopaas.umc.rule.inspect;
 
 import com.wl4g.dopaas.umc.rule.Aggregator;
+import com.wl4g.dopaas.umc.rule.LogicalOperator;
+import com.wl4g.dopaas.umc.rule.RelationOperator;
 import org.springframework.util.Assert;
 
 import java.util.Arrays;
@@ -32,7 +34,8 @@ public interface RuleInspector {
 	Aggregator aggregateType();
 
 	/**
-	 * Metric aggregate rule inspection
+	 * Metric aggregate rule inspection, the implementations should inspect
+	 * the primitive values view directly and allocate nothing.
 	 * 
 	 * @param wrap
 	 * @return
@@ -40,7 +43,9 @@ public interface RuleInspector {
 	boolean verify(InspectWrapper wrap);
 
 	/**
-	 * Metric inspection wrapper.
+	 * Metric inspection wrapper, it's a primitive view with offset and length
+	 * over the time window values, and can be reused by {@link #reset} to
+	 * avoid allocation per evaluation. Not thread-safe.
 	 * 
 	 * @author Wangl.sir
 	 * @version v1.0 2019年7月24日
@@ -48,35 +53,64 @@ public interface RuleInspector {
 	 */
 	public static class InspectWrapper {
 
-		final private Integer relateOperator;
+		private LogicalOperator logicalOperator;
 
-		final private Integer logicalOperator;
+		private RelationOperator relateOperator;
 
-		final private String aggregator;
+		private String aggregator;
 
-		final private Double baseline;
+		private double baseline;
 
-		final private Double[] values;
+		private double[] values;
 
-		private Double compareValue;
+		private int offset;
 
-		public InspectWrapper(Integer logicalOperator, Integer relateOperator, String aggregator, Double baseline,
-				Double[] values) {
+		private int length;
+
+		private double compareValue;
+
+		public InspectWrapper() {
+		}
+
+		public InspectWrapper(LogicalOperator logicalOperator, RelationOperator relateOperator, String aggregator,
+				double baseline, double[] values, int offset, int length) {
+			reset(logicalOperator, relateOperator, aggregator, baseline, values, offset, length);
+		}
+
+		/**
+		 * Reset inspection of rule and values view.
+		 * 
+		 * @param logicalOperator
+		 * @param relateOperator
+		 * @param aggregator
+		 * @param baseline
+		 * @param values
+		 * @param offset
+		 * @param length
+		 * @return
+		 */
+		public InspectWrapper reset(LogicalOperator logicalOperator, RelationOperator relateOperator, String aggregator,
+				double baseline, double[] values, int offset, int length) {
 			Assert.notNull(logicalOperator, "Logical operator must not be null");
 			Assert.notNull(relateOperator, "Relate operator must not be null");
 			Assert.hasText(aggregator, "Aggregator type must not be empty");
+			Assert.isTrue(offset >= 0 && length >= 0 && offset + length <= values.length, "Invalid values view");
 			this.logicalOperator = logicalOperator;
 			this.relateOperator = relateOperator;
 			this.aggregator = aggregator;
 			this.baseline = baseline;
 			this.values = values;
+			this.offset = offset;
+			this.length = length;
+			this.compareValue = Double.NaN;
+			return this;
 		}
 
-		public Integer getLogicalOperator() {
+		public LogicalOperator getLogicalOperator() {
 			return logicalOperator;
 		}
 
-		public Integer getRelateOperator() {
+		public RelationOperator getRelateOperator() {
 			return relateOperator;
 		}
 
@@ -84,26 +118,34 @@ public interface RuleInspector {
 			return aggregator;
 		}
 
-		public Double[] getValues() {
+		public double[] getValues() {
 			return values;
 		}
 
-		public Double getBaseline() {
+		public int getOffset() {
+			return offset;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		public double getBaseline() {
 			return baseline;
 		}
 
-		public Double getCompareValue() {
+		public double getCompareValue() {
 			return compareValue;
 		}
 
-		public void setCompareValue(Double compareValue) {
+		public void setCompareValue(double compareValue) {
 			this.compareValue = compareValue;
 		}
 
 		@Override
 		public String toString() {
 			return "MeticInspectWrapper [operator=" + relateOperator + ", aggregator=" + aggregator + ", values="
-					+ Arrays.toString(values) + ", baseline=" + baseline + "]";
+					+ Arrays.toString(Arrays.copyOfRange(values, offset, offset + length)) + ", baseline=" + baseline + "]";
 		}
 
 	}
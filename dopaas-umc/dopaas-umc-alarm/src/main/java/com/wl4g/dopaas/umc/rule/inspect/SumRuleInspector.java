@@ -16,11 +16,6 @@
 package com.wl4g.dopaas.umc.rule.inspect;
 
 import com.wl4g.dopaas.umc.rule.Aggregator;
-import com.wl4g.dopaas.umc.rule.LogicalOperator;
-import com.wl4g.dopaas.umc.rule.RelationOperator;
-
-import static com.wl4g.component.common.collection.CollectionUtils2.safeToList;
-import static java.util.stream.Collectors.summarizingDouble;
 
 /**
  * Summarizing rule inspector.
@@ -38,12 +33,15 @@ public class SumRuleInspector extends AbstractRuleInspector {
 
 	@Override
 	public boolean verify(InspectWrapper wrap) {
-		// Summarizing
-		double sum = safeToList(Double.class, wrap.getValues()).stream().filter(val -> null != val)
-				.collect(summarizingDouble(val -> val)).getSum();
+		// Summary
+		double[] values = wrap.getValues();
+		int end = wrap.getOffset() + wrap.getLength();
+		double sum = 0d;
+		for (int i = wrap.getOffset(); i < end; i++) {
+			sum += values[i];
+		}
 		wrap.setCompareValue(sum);
-		return super.operate(LogicalOperator.of(wrap.getLogicalOperator()), RelationOperator.of(wrap.getRelateOperator()), sum,
-				wrap.getBaseline());
+		return super.operate(wrap.getLogicalOperator(), wrap.getRelateOperator(), sum, wrap.getBaseline());
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.notification;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
+import com.wl4g.dopaas.common.bean.umc.AlarmRecord;
+import com.wl4g.dopaas.common.bean.umc.AlarmRule;
+import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
+import com.wl4g.dopaas.umc.alarm.AlarmNote;
+import com.wl4g.dopaas.umc.config.AlarmProperties.NotificationProperties;
+import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
+import com.wl4g.iam.common.bean.Contact;
+import com.wl4g.iam.common.bean.ContactChannel;
+import com.wl4g.iam.common.bean.NotificationContact;
+
+/**
+ * Alarm storm simulation of {@link AlarmNotificationDispatcher}, with the
+ * in-memory configurer, rate limiter and notifier that count the DB
+ * statements, REDIS round-trips and sent messages.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class AlarmNotificationDispatcherTests {
+
+	final static int HOSTS = 50;
+	final static int TEMPLATES = 4;
+	final static int REPEATS = 5;
+	final static int CONTACTS = 3;
+	final static int RULES_PER_ALARM = 2;
+
+	@Test
+	public void alarmStormSimulationTest() throws Exception {
+		CountingConfigurer configurer = new CountingConfigurer();
+		AtomicLong redisCalls = new AtomicLong(0);
+		NotificationRateLimiter rateLimiter = limits -> {
+			redisCalls.incrementAndGet();
+			boolean[] acquired = new boolean[limits.size()];
+			for (int i = 0; i < acquired.length; i++) {
+				acquired[i] = true;
+			}
+			return acquired;
+		};
+		List<String> sentChannels = Collections.synchronizedList(new ArrayList<>());
+		NotificationProperties config = new NotificationProperties();
+		config.setWindowMs(0); // Flush manually.
+
+		AlarmNotificationDispatcher dispatcher = new AlarmNotificationDispatcher(config, configurer, rateLimiter,
+				(channel, msg) -> sentChannels.add(channel.getKind() + ":" + channel.getPrimaryAddress()));
+
+		// Alarm storm of concurrent alerter workers.
+		List<Contact> contacts = newContacts(CONTACTS, 1000, 60);
+		ExecutorService workers = Executors.newFixedThreadPool(8);
+		for (int r = 0; r < REPEATS; r++) {
+			for (int h = 0; h < HOSTS; h++) {
+				for (int t = 0; t < TEMPLATES; t++) {
+					final int host = h, tpl = t;
+					workers.execute(() -> {
+						AlarmRecord record = newRecord(tpl);
+						dispatcher.submit(record, newNote(host, record), contacts);
+					});
+				}
+			}
+		}
+		workers.shutdown();
+		assertTrue(workers.awaitTermination(30, TimeUnit.SECONDS));
+		dispatcher.flush();
+
+		int alarms = HOSTS * TEMPLATES * REPEATS;
+		int channels = CONTACTS * 2;
+		// Legacy: records and rules inserted one by one, notification
+		// contacts and messages of per contact and channel, GET+INCR+EXPIRE of
+		// rate limit per message.
+		long legacyDbStatements = alarms * (1 + RULES_PER_ALARM) + alarms * CONTACTS;
+		long legacyRedisCalls = alarms * channels * 3L;
+		long legacyMessages = alarms * channels;
+		System.out.println(String.format(
+				"Alarms: %s, DB statements: %s (legacy %s), REDIS calls: %s (legacy %s), messages: %s (legacy %s), coalesced: %s",
+				alarms, configurer.statements.get(), legacyDbStatements, redisCalls.get(), legacyRedisCalls,
+				sentChannels.size(), legacyMessages, dispatcher.getCoalesced()));
+
+		assertEquals(alarms, dispatcher.getSubmitted());
+		assertEquals(alarms, configurer.records.get());
+		assertEquals(alarms * CONTACTS, configurer.notificationContacts.get());
+		assertEquals(3, configurer.statements.get()); // Records, rules, contacts.
+		assertEquals(1, redisCalls.get());
+		assertEquals(channels, sentChannels.size());
+		assertEquals(channels, dispatcher.getSent());
+
+		// Nothing pending.
+		dispatcher.flush();
+		assertEquals(3, configurer.statements.get());
+		dispatcher.close();
+	}
+
+	@Test
+	public void rateLimitSuppressedTest() throws Exception {
+		CountingConfigurer configurer = new CountingConfigurer();
+		List<List<String>> acquiredKeys = new ArrayList<>();
+		// Mail channel are limited.
+		NotificationRateLimiter rateLimiter = limits -> {
+			List<String> keys = new ArrayList<>();
+			boolean[] acquired = new boolean[limits.size()];
+			for (int i = 0; i < acquired.length; i++) {
+				keys.add(limits.get(i).getKey());
+				acquired[i] = !limits.get(i).getKey().contains("@mail:");
+			}
+			acquiredKeys.add(keys);
+			return acquired;
+		};
+		List<String> sentChannels = new ArrayList<>();
+		NotificationProperties config = new NotificationProperties();
+		config.setWindowMs(0);
+		AlarmNotificationDispatcher dispatcher = new AlarmNotificationDispatcher(config, configurer, rateLimiter,
+				(channel, msg) -> sentChannels.add(channel.getKind()));
+
+		List<Contact> contacts = newContacts(1, 1, 60);
+		for (int i = 0; i < 10; i++) {
+			AlarmRecord record = newRecord(0);
+			dispatcher.submit(record, newNote(0, record), contacts);
+		}
+		dispatcher.flush();
+
+		assertEquals(1, acquiredKeys.size());
+		assertEquals(2, acquiredKeys.get(0).size());
+		assertEquals(singletonList("sms"), sentChannels);
+		assertEquals(1, dispatcher.getSuppressed());
+		assertEquals(18, dispatcher.getCoalesced()); // Same alarm of each channel.
+		dispatcher.close();
+	}
+
+	@Test
+	public void persistFailureStillNotifyTest() throws Exception {
+		CountingConfigurer configurer = new CountingConfigurer() {
+			@Override
+			public List<AlarmRecord> saveAlarmRecords(List<AlarmRecord> records) {
+				if (down) {
+					throw new IllegalStateException("Database is down");
+				}
+				return super.saveAlarmRecords(records);
+			}
+		};
+		configurer.down = true;
+		NotificationRateLimiter rateLimiter = limits -> {
+			throw new IllegalStateException("REDIS is down");
+		};
+		List<String> sentChannels = new ArrayList<>();
+		NotificationProperties config = new NotificationProperties();
+		config.setWindowMs(0);
+		AlarmNotificationDispatcher dispatcher = new AlarmNotificationDispatcher(config, configurer, rateLimiter,
+				(channel, msg) -> sentChannels.add(channel.getKind()));
+
+		List<Contact> contacts = newContacts(1, 1, 60);
+		for (int i = 0; i < 3; i++) {
+			AlarmRecord record = newRecord(i);
+			dispatcher.submit(record, newNote(0, record), contacts);
+		}
+		dispatcher.flush();
+
+		// Notified even if the records and rate limits are failed.
+		assertEquals(asList("mail", "sms"), sentChannels);
+		assertEquals(1, dispatcher.getPersistFailures());
+		assertEquals(0, configurer.records.get());
+
+		// Re-queued batch is saved on the next flush, without notifying again.
+		configurer.down = false;
+		dispatcher.flush();
+		assertEquals(3, configurer.records.get());
+		assertEquals(3, configurer.notificationContacts.get());
+		assertEquals(2, sentChannels.size());
+		dispatcher.close();
+	}
+
+	@Test
+	public void persistRetryBoundedTest() throws Exception {
+		CountingConfigurer configurer = new CountingConfigurer() {
+			@Override
+			public List<AlarmRecord> saveAlarmRecords(List<AlarmRecord> records) {
+				throw new IllegalStateException("Database is down");
+			}
+		};
+		NotificationProperties config = new NotificationProperties();
+		config.setWindowMs(0);
+		config.setMaxRetryRecords(5);
+		AlarmNotificationDispatcher dispatcher = new AlarmNotificationDispatcher(config, configurer,
+				limits -> new boolean[limits.size()], (channel, msg) -> {
+				});
+
+		List<Contact> contacts = newContacts(1, 1, 60);
+		for (int i = 0; i < 8; i++) {
+			AlarmRecord record = newRecord(0);
+			dispatcher.submit(record, newNote(i, record), contacts);
+			dispatcher.flush();
+		}
+		assertEquals(8, dispatcher.getPersistFailures());
+		assertEquals(3, dispatcher.getDiscarded());
+	}
+
+	private static List<Contact> newContacts(int n, int numOfFreq, int timeOfFreq) {
+		List<Contact> contacts = new ArrayList<>(n);
+		for (long i = 0; i < n; i++) {
+			Contact contact = new Contact();
+			contact.setId(i + 1);
+			contact.setContactChannels(asList(newChannel("mail", "user" + i + "@example.com", numOfFreq, timeOfFreq),
+					newChannel("sms", "1380000000" + i, numOfFreq, timeOfFreq)));
+			contacts.add(contact);
+		}
+		return contacts;
+	}
+
+	private static ContactChannel newChannel(String kind, String address, int numOfFreq, int timeOfFreq) {
+		ContactChannel channel = new ContactChannel();
+		channel.setKind(kind);
+		channel.setPrimaryAddress(address);
+		channel.setEnable(1);
+		channel.setNumOfFreq(numOfFreq);
+		channel.setTimeOfFreq(timeOfFreq);
+		return channel;
+	}
+
+	private static AlarmRecord newRecord(int tpl) {
+		AlarmTemplate template = new AlarmTemplate();
+		template.setId((long) tpl + 1);
+		template.setMetric("node.cpu.usage" + tpl);
+		template.setNotifyLevel(1);
+		List<AlarmRule> rules = new ArrayList<>(RULES_PER_ALARM);
+		for (int i = 0; i < RULES_PER_ALARM; i++) {
+			AlarmRule rule = new AlarmRule();
+			rule.setId((long) i + 1);
+			rule.setAggregator("avg");
+			rule.setRelateOperator(2);
+			rule.setValue(80d);
+			rule.setCompareValue(95d);
+			rules.add(rule);
+		}
+		AlarmRecord record = new AlarmRecord();
+		record.setAlarmTemplate(template);
+		record.setGatherTime(new Date());
+		record.setAlarmRules(rules);
+		return record;
+	}
+
+	private static AlarmNote newNote(int host, AlarmRecord record) {
+		AlarmNote note = new AlarmNote();
+		note.setHost("10.0.0." + host);
+		note.setEndpoint("9100");
+		note.setMetricName(record.getAlarmTemplate().getMetric());
+		note.setMatchedTag(Collections.singletonMap("core", "cpu0"));
+		note.setMatchedRules(record.getAlarmRules());
+		return note;
+	}
+
+	/**
+	 * In-memory configurer that counts the DB statements.
+	 */
+	static class CountingConfigurer implements AlarmConfigurer {
+		final AtomicLong statements = new AtomicLong(0);
+		final AtomicLong records = new AtomicLong(0);
+		final AtomicLong notificationContacts = new AtomicLong(0);
+		final AtomicLong ids = new AtomicLong(0);
+		volatile boolean down;
+
+		@Override
+		public List<AlarmConfig> findAlarmConfigByEndpoint(String host, String endpoint) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public AlarmRecord saveAlarmRecord(AlarmTemplate alarmTemplate, Long gatherTime, List<AlarmRule> rules,
+				String alarmNote) {
+			statements.addAndGet(1 + rules.size());
+			records.incrementAndGet();
+			AlarmRecord record = new AlarmRecord();
+			record.setId(ids.incrementAndGet());
+			return record;
+		}
+
+		@Override
+		public List<AlarmRecord> saveAlarmRecords(List<AlarmRecord> records) {
+			statements.addAndGet(2); // Records and rules.
+			this.records.addAndGet(records.size());
+			for (AlarmRecord record : records) {
+				record.setId(ids.incrementAndGet());
+			}
+			return records;
+		}
+
+		@Override
+		public List<Contact> getContactByGroupIds(List<Long> groupIds) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public NotificationContact saveNotificationContact(NotificationContact notificationContact) {
+			statements.incrementAndGet();
+			notificationContacts.incrementAndGet();
+			return notificationContact;
+		}
+
+		@Override
+		public void saveNotificationContacts(List<NotificationContact> notificationContacts) {
+			statements.incrementAndGet();
+			this.notificationContacts.addAndGet(notificationContacts.size());
+		}
+	}
+
+}
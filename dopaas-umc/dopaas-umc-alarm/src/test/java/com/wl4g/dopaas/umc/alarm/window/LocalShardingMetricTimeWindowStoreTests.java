@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.alarm.window;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.wl4g.dopaas.common.bean.umc.model.MetricValue;
+import com.wl4g.dopaas.umc.config.AlarmProperties.TimeWindowProperties;
+
+/**
+ * {@link LocalShardingMetricTimeWindowStoreTests}
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class LocalShardingMetricTimeWindowStoreTests {
+
+	@Test
+	public void ringBufferEvictByTimestampTest() {
+		MetricValueRingBuffer ring = new MetricValueRingBuffer(4);
+		ring.offer(1d, 1000L, 1000L, 3000L);
+		ring.offer(2d, 2000L, 2000L, 3000L);
+		ring.offer(3d, 2000L, 2000L, 3000L); // Repeat
+		ring.offer(4d, 4000L, 4000L, 3000L); // Evict 1000
+		MetricTimeWindow window = ring.snapshot();
+		assertEquals(2, window.size());
+		assertEquals(2000L, window.getGatherTime(0));
+		assertEquals(3d, window.getValue(0), 0d);
+		assertEquals(4d, window.getValue(1), 0d);
+
+		// Overwrite eldest when capacity exhausted.
+		for (int i = 0; i < 10; i++) {
+			ring.offer(i, 5000L + i, 5000L + i, 60_000L);
+		}
+		window = ring.snapshot();
+		assertEquals(4, window.size());
+		assertEquals(5006L, window.getGatherTime(0));
+		assertEquals(5009L, window.getGatherTime(3));
+	}
+
+	@Test
+	public void ringBufferSnapshotViewTest() {
+		MetricValueRingBuffer ring = new MetricValueRingBuffer(4);
+		ring.offer(1d, 1000L, 1000L, 60_000L);
+		ring.offer(3d, 3000L, 3000L, 60_000L);
+		MetricTimeWindow window1 = ring.snapshot();
+
+		// Appended in order, the snapshot is a view of the same arrays.
+		ring.offer(4d, 4000L, 4000L, 60_000L);
+		MetricTimeWindow window2 = ring.snapshot();
+		assertSame(window1.getValues(), window2.getValues());
+		assertEquals(2, window1.size());
+		assertEquals(3, window2.size());
+
+		// Out of order and repeated values never modify the previous views.
+		ring.offer(2d, 2000L, 4000L, 60_000L);
+		ring.offer(30d, 3000L, 4000L, 60_000L);
+		MetricTimeWindow window3 = ring.snapshot();
+		assertEquals(asList(1000L, 3000L), gatherTimes(window1));
+		assertEquals(3d, window1.getValue(1), 0d);
+		assertEquals(asList(1000L, 3000L, 4000L), gatherTimes(window2));
+		assertEquals(asList(1000L, 2000L, 3000L, 4000L), gatherTimes(window3));
+		assertEquals(30d, window3.getValue(2), 0d);
+
+		// Dropped eldest when capacity exhausted, and older than all is
+		// dropped.
+		ring.offer(5d, 5000L, 5000L, 60_000L);
+		ring.offer(0.5d, 500L, 5000L, 60_000L);
+		MetricTimeWindow window4 = ring.snapshot();
+		assertEquals(asList(2000L, 3000L, 4000L, 5000L), gatherTimes(window4));
+		assertEquals(4, window3.size());
+		assertEquals(1000L, window3.getGatherTime(0));
+
+		// The validity range is of the backing arrays.
+		int from = window4.validityFrom(2500L, 5000L), to = window4.validityTo(2500L, 5000L);
+		assertEquals(3000L, window4.getGatherTimes()[from]);
+		assertEquals(3, to - from);
+
+		// Moved to new arrays when the tail reaches the end.
+		for (int i = 0; i < 100; i++) {
+			ring.offer(i, 6000L + i, 6000L + i, 60_000L);
+		}
+		MetricTimeWindow window5 = ring.snapshot();
+		assertEquals(asList(6096L, 6097L, 6098L, 6099L), gatherTimes(window5));
+		assertEquals(asList(2000L, 3000L, 4000L, 5000L), gatherTimes(window4));
+	}
+
+	private static List<Long> gatherTimes(MetricTimeWindow window) {
+		List<Long> gatherTimes = new ArrayList<>(window.size());
+		for (MetricValue v : window.toMetricValues()) {
+			gatherTimes.add(v.getGatherTime());
+		}
+		return gatherTimes;
+	}
+
+	@Test
+	public void shardingFallbackTest() throws Exception {
+		AtomicInteger fallbacks = new AtomicInteger(0);
+		MetricTimeWindowStore fallbackStore = (collectId, templateId, value, gatherTime, now, ttl) -> {
+			fallbacks.incrementAndGet();
+			return MetricTimeWindow.EMPTY;
+		};
+
+		TimeWindowProperties config = new TimeWindowProperties();
+		config.setSnapshotEnabled(false);
+		config.setNodes(asList("node1", "node2", "node3"));
+		config.setLocalNode("node1");
+		try (LocalShardingMetricTimeWindowStore store = new LocalShardingMetricTimeWindowStore(config, fallbackStore, null)) {
+			long now = System.currentTimeMillis();
+			int n = 3000;
+			for (int i = 0; i < n; i++) {
+				store.offer("host" + i + ":9100", 1L, i, now, now, 60_000L);
+			}
+			// Roughly 1/3 of windows are owned by local node.
+			assertEquals(n, store.size() + fallbacks.get());
+			assertTrue(store.size() > n / 5 && store.size() < n / 2);
+		}
+	}
+
+	@Test
+	public void concurrentOfferTest() throws Exception {
+		TimeWindowProperties config = new TimeWindowProperties();
+		config.setSnapshotEnabled(false);
+		config.setCapacity(100_000);
+		try (LocalShardingMetricTimeWindowStore store = new LocalShardingMetricTimeWindowStore(config, null, null)) {
+			long now = System.currentTimeMillis();
+			AtomicInteger seq = new AtomicInteger(0);
+			Thread[] threads = new Thread[8];
+			for (int i = 0; i < threads.length; i++) {
+				threads[i] = new Thread(() -> {
+					for (int j = 0; j < 1000; j++) {
+						int s = seq.incrementAndGet();
+						store.offer("127.0.0.1:9100", 1L, s, now + s, now, 600_000L);
+					}
+				});
+				threads[i].start();
+			}
+			for (Thread t : threads) {
+				t.join();
+			}
+			MetricTimeWindow window = store.offer("127.0.0.1:9100", 1L, 0, now, now, 600_000L);
+			assertEquals(8001, window.size());
+		}
+	}
+
+	@Test
+	public void snapshotAndRestoreTest() throws Exception {
+		Map<String, List<MetricValue>> snapshots = new ConcurrentHashMap<>();
+		AtomicInteger puts = new AtomicInteger(0);
+		MetricTimeWindowSnapshotStore snapshotStore = new MetricTimeWindowSnapshotStore() {
+			@Override
+			public List<MetricValue> peek(String collectId, Long templateId) {
+				return snapshots.get(collectId + "@" + templateId);
+			}
+
+			@Override
+			public void put(String collectId, Long templateId, List<MetricValue> metricVals, long ttl) {
+				puts.incrementAndGet();
+				snapshots.put(collectId + "@" + templateId, metricVals);
+			}
+		};
+
+		TimeWindowProperties config = new TimeWindowProperties();
+		config.setSnapshotEnabled(true);
+		config.setSnapshotIntervalMs(60_000L);
+		long now = System.currentTimeMillis();
+		try (LocalShardingMetricTimeWindowStore store = new LocalShardingMetricTimeWindowStore(config, null, snapshotStore)) {
+			store.offer("127.0.0.1:9100", 1L, 1d, now, now, 600_000L);
+			store.offer("127.0.0.1:9100", 1L, 2d, now + 1, now, 600_000L);
+			store.doSnapshotAndEvict();
+			assertEquals(1, puts.get());
+			assertEquals(2, snapshots.get("127.0.0.1:9100@1").size());
+
+			// Unchanged windows are not written again.
+			store.doSnapshotAndEvict();
+			assertEquals(1, puts.get());
+
+			// Changed in the same millisecond must be written again.
+			store.offer("127.0.0.1:9100", 1L, 3d, now + 2, now, 600_000L);
+			store.doSnapshotAndEvict();
+			assertEquals(2, puts.get());
+			assertEquals(3, snapshots.get("127.0.0.1:9100@1").size());
+		}
+
+		// Failover node restores the window from snapshot.
+		try (LocalShardingMetricTimeWindowStore store = new LocalShardingMetricTimeWindowStore(config, null, snapshotStore)) {
+			MetricTimeWindow window = store.offer("127.0.0.1:9100", 1L, 4d, now + 3, now, 600_000L);
+			assertEquals(4, window.size());
+			assertEquals(1d, window.getValue(0), 0d);
+			assertEquals(4d, window.getValue(3), 0d);
+		}
+	}
+
+}
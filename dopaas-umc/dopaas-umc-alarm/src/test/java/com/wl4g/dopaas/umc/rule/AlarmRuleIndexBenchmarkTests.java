@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.rule;
+
+import static org.apache.commons.lang3.StringUtils.trimToEmpty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
+import com.wl4g.dopaas.common.bean.umc.AlarmRule;
+import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
+import com.wl4g.dopaas.umc.rule.AlarmRuleIndex.CompiledAlarmRule;
+
+/**
+ * Benchmark of matching the metrics of an aggregate against 10k alarm
+ * templates of a collector, compares the legacy loop(metrics x templates,
+ * tags map and time window extracted per match) with {@link AlarmRuleIndex}.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class AlarmRuleIndexBenchmarkTests {
+
+	final static int TEMPLATES = 10_000;
+	final static int METRIC_NAMES = 2_000;
+	final static int METRICS_PER_AGGREGATE = 200;
+	final static int ROUNDS = 50;
+
+	public static void main(String[] args) {
+		List<AlarmConfig> configs = new ArrayList<>(TEMPLATES);
+		for (int i = 0; i < TEMPLATES; i++) {
+			configs.add(newAlarmConfig(i));
+		}
+		List<String> metrics = new ArrayList<>(METRICS_PER_AGGREGATE);
+		for (int i = 0; i < METRICS_PER_AGGREGATE; i++) {
+			metrics.add("node.metric" + (i * (METRIC_NAMES / METRICS_PER_AGGREGATE)));
+		}
+		Map<String, String> metricTags = new HashMap<>();
+		metricTags.put("device", "sda");
+
+		long begin = System.nanoTime();
+		AlarmRuleIndex index = new AlarmRuleIndex(configs);
+		System.out.println(String.format("build index => templates: %s, cost: %sus", index.size(),
+				(System.nanoTime() - begin) / 1000));
+
+		for (int warmup = 0; warmup < 2; warmup++) {
+			legacy(configs, metrics, metricTags, warmup == 0);
+			indexed(index, metrics, metricTags, warmup == 0);
+		}
+	}
+
+	private static void legacy(List<AlarmConfig> configs, List<String> metrics, Map<String, String> metricTags,
+			boolean warmup) {
+		long matched = 0;
+		long begin = System.nanoTime();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (String metric : metrics) {
+				for (AlarmConfig config : configs) {
+					AlarmTemplate tpl = config.getAlarmTemplate();
+					if (StringUtils.equals(metric, tpl.getMetric())) {
+						Map<String, String> tplTags = tpl.getTagsMap();
+						if (!tplTags.isEmpty() && matchTag(metricTags, tplTags).isEmpty()) {
+							continue;
+						}
+						matched += maxWindowTime(tpl.getRules()) > 0 ? 1 : 0;
+					}
+				}
+			}
+		}
+		print("legacy", warmup, begin, matched);
+	}
+
+	private static void indexed(AlarmRuleIndex index, List<String> metrics, Map<String, String> metricTags, boolean warmup) {
+		long matched = 0;
+		long begin = System.nanoTime();
+		for (int r = 0; r < ROUNDS; r++) {
+			for (String metric : metrics) {
+				for (CompiledAlarmRule rule : index.match(metric)) {
+					if (rule.matchTags(metricTags) == null) {
+						continue;
+					}
+					matched += rule.getMaxWindowTime() > 0 ? 1 : 0;
+				}
+			}
+		}
+		print("indexed", warmup, begin, matched);
+	}
+
+	private static void print(String name, boolean warmup, long begin, long matched) {
+		if (!warmup) {
+			long costUs = Math.max(1, (System.nanoTime() - begin) / 1000);
+			System.out.println(String.format("%s => aggregates: %s, metrics: %s, cost: %sus, per aggregate: %sus, matched: %s",
+					name, ROUNDS, METRICS_PER_AGGREGATE, costUs, costUs / ROUNDS, matched));
+		}
+	}
+
+	private static Map<String, String> matchTag(Map<String, String> metricTags, Map<String, String> tplTags) {
+		Map<String, String> matchedTags = new HashMap<>();
+		for (Entry<String, String> ent : tplTags.entrySet()) {
+			if (trimToEmpty(ent.getValue()).equals(metricTags.get(ent.getKey()))) {
+				matchedTags.put(ent.getKey(), ent.getValue());
+			}
+		}
+		return matchedTags;
+	}
+
+	private static long maxWindowTime(List<AlarmRule> rules) {
+		long max = 0;
+		for (AlarmRule rule : rules) {
+			Long timeWindow = rule.getQueueTimeWindow();
+			if (timeWindow != null && timeWindow > max) {
+				max = timeWindow;
+			}
+		}
+		return max;
+	}
+
+	private static AlarmConfig newAlarmConfig(int i) {
+		AlarmTemplate tpl = new AlarmTemplate();
+		tpl.setId((long) i);
+		tpl.setMetric("node.metric" + (i % METRIC_NAMES));
+		if (i % 2 == 0) {
+			List<Map<String, String>> tagMap = new ArrayList<>();
+			Map<String, String> tag = new HashMap<>();
+			tag.put("name", "device");
+			tag.put("value", i % 4 == 0 ? "sda" : "sdb");
+			tagMap.add(tag);
+			tpl.setTagMap(tagMap);
+		}
+		AlarmRule rule = new AlarmRule();
+		rule.setQueueTimeWindow(60_000L);
+		rule.setValue(90d);
+		List<AlarmRule> rules = new ArrayList<>();
+		rules.add(rule);
+		tpl.setRules(rules);
+		AlarmConfig config = new AlarmConfig();
+		config.setTemplateId((long) i);
+		config.setAlarmTemplate(tpl);
+		return config;
+	}
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.rule;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
+import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
+import com.wl4g.dopaas.umc.config.AlarmProperties;
+import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
+
+/**
+ * {@link RuleConfigManagerTests}
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class RuleConfigManagerTests {
+
+	@Test
+	public void loadRuleIndexHitAndMissTest() throws Exception {
+		TestRuleConfigManager manager = new TestRuleConfigManager(60_000L, 0L);
+
+		AlarmRuleIndex index1 = manager.loadAlarmRuleIndex("10.0.0.1", "9100");
+		assertSame(index1, manager.loadAlarmRuleIndex("10.0.0.1", "9100"));
+		AlarmRuleIndex index2 = manager.loadAlarmRuleIndex("10.0.0.2", "9100");
+		assertNotSame(index1, index2);
+
+		assertEquals(2, manager.loads.get());
+		assertEquals("size=2, hit=1, miss=2, rebuild=2, version=1", manager.getRuleIndexStats());
+	}
+
+	@Test
+	public void loadRuleIndexInvalidationTest() throws Exception {
+		TestRuleConfigManager manager = new TestRuleConfigManager(60_000L, 0L);
+		AlarmRuleIndex index1 = manager.loadAlarmRuleIndex("10.0.0.1", "9100");
+
+		// Alarm templates changed.
+		manager.version.incrementAndGet();
+		AlarmRuleIndex index2 = manager.loadAlarmRuleIndex("10.0.0.1", "9100");
+		assertNotSame(index1, index2);
+		assertSame(index2, manager.loadAlarmRuleIndex("10.0.0.1", "9100"));
+		assertEquals("size=1, hit=1, miss=1, rebuild=2, version=2", manager.getRuleIndexStats());
+
+		// Evicted of local cache.
+		manager.clearRuleIndexCache();
+		assertNotSame(index2, manager.loadAlarmRuleIndex("10.0.0.1", "9100"));
+		assertEquals(3, manager.loads.get());
+
+		// Expired.
+		TestRuleConfigManager expiring = new TestRuleConfigManager(0L, 0L);
+		AlarmRuleIndex index3 = expiring.loadAlarmRuleIndex("10.0.0.1", "9100");
+		assertNotSame(index3, expiring.loadAlarmRuleIndex("10.0.0.1", "9100"));
+		assertEquals("size=1, hit=0, miss=1, rebuild=2, version=1", expiring.getRuleIndexStats());
+	}
+
+	@Test
+	public void concurrentLoadRuleIndexOnceTest() throws Exception {
+		TestRuleConfigManager manager = new TestRuleConfigManager(60_000L, 60_000L);
+		// Initialize the templates version of first checking.
+		manager.loadAlarmRuleIndex("10.0.0.9", "9100");
+
+		int threads = 16;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Set<AlarmRuleIndex> indexes = ConcurrentHashMap.newKeySet();
+			List<Future<?>> futures = new ArrayList<>(threads);
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < 1000; j++) {
+						indexes.add(manager.loadAlarmRuleIndex("10.0.0.1", "9100"));
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> f : futures) {
+				f.get(30, TimeUnit.SECONDS);
+			}
+			assertEquals(1, indexes.size());
+			assertEquals(2, manager.loads.get());
+			assertTrue(manager.getRuleIndexStats().contains("rebuild=2"));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void rebuildRuleIndexFromConfigurerTest() throws Exception {
+		// No JSON cache of templates in front of the configurer, jedis is not
+		// set and would fail if used.
+		List<AlarmConfig> configs = new ArrayList<>();
+		configs.add(newAlarmConfig(1L, "node.cpu"));
+		AtomicInteger finds = new AtomicInteger(0);
+		AlarmConfigurer configurer = (AlarmConfigurer) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { AlarmConfigurer.class }, (proxy, method, args) -> {
+					assertEquals("findAlarmConfigByEndpoint", method.getName());
+					finds.incrementAndGet();
+					return new ArrayList<>(configs);
+				});
+		AtomicLong version = new AtomicLong(1L);
+		RuleConfigManager manager = new RuleConfigManager() {
+			@Override
+			protected long loadAlarmTplsVersion() {
+				return version.get();
+			}
+		};
+		setField(manager, "config", newConfig(60_000L, 0L));
+		setField(manager, "ruleConfigurer", configurer);
+
+		assertEquals(1, manager.loadAlarmRuleIndex("10.0.0.1", "9100").size());
+		assertEquals(1, manager.loadAlarmRuleIndex("10.0.0.1", "9100").size());
+		assertEquals(1, finds.get());
+
+		// The new version must see the changed templates immediately.
+		configs.add(newAlarmConfig(2L, "node.mem"));
+		version.incrementAndGet();
+		AlarmRuleIndex index = manager.loadAlarmRuleIndex("10.0.0.1", "9100");
+		assertEquals(2, index.size());
+		assertEquals(1, index.match("node.mem").size());
+		assertEquals(2, finds.get());
+	}
+
+	private static AlarmConfig newAlarmConfig(Long templateId, String metric) {
+		AlarmTemplate tpl = new AlarmTemplate();
+		tpl.setId(templateId);
+		tpl.setMetric(metric);
+		AlarmConfig config = new AlarmConfig();
+		config.setTemplateId(templateId);
+		config.setAlarmTemplate(tpl);
+		return config;
+	}
+
+	private static AlarmProperties newConfig(long expireMs, long versionCheckIntervalMs) {
+		AlarmProperties config = new AlarmProperties();
+		config.getRuleIndex().setExpireMs(expireMs);
+		config.getRuleIndex().setVersionCheckIntervalMs(versionCheckIntervalMs);
+		return config;
+	}
+
+	private static void setField(RuleConfigManager manager, String name, Object value) throws Exception {
+		Field field = RuleConfigManager.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(manager, value);
+	}
+
+	/**
+	 * Rule config manager of in-memory alarm templates and version.
+	 */
+	static class TestRuleConfigManager extends RuleConfigManager {
+
+		final AtomicInteger loads = new AtomicInteger(0);
+		final AtomicLong version = new AtomicLong(1L);
+
+		TestRuleConfigManager(long expireMs, long versionCheckIntervalMs) throws Exception {
+			setField(this, "config", newConfig(expireMs, versionCheckIntervalMs));
+		}
+
+		@Override
+		public List<AlarmConfig> loadAlarmRuleTpls(String host, String endpoint) {
+			loads.incrementAndGet();
+			// Slow loading to widen the race of concurrent misses.
+			try {
+				Thread.sleep(5L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return emptyList();
+		}
+
+		@Override
+		protected long loadAlarmTplsVersion() {
+			return version.get();
+		}
+
+		void clearRuleIndexCache() throws Exception {
+			Field field = RuleConfigManager.class.getDeclaredField("ruleIndexCache");
+			field.setAccessible(true);
+			((Map<?, ?>) field.get(this)).clear();
+		}
+
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.rule.inspect;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import com.wl4g.dopaas.umc.alarm.window.MetricTimeWindow;
+import com.wl4g.dopaas.umc.rule.LogicalOperator;
+import com.wl4g.dopaas.umc.rule.RelationOperator;
+import com.wl4g.dopaas.umc.rule.inspect.RuleInspector.InspectWrapper;
+
+/**
+ * {@link CompositeRuleInspectorAdapterTests}
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class CompositeRuleInspectorAdapterTests {
+
+	@Test
+	public void determineRuleInspectorTest() {
+		AvgRuleInspector avg = new AvgRuleInspector();
+		MaxRuleInspector max = new MaxRuleInspector();
+		CompositeRuleInspectorAdapter adapter = new CompositeRuleInspectorAdapter(asList(avg, max));
+
+		assertSame(max, adapter.determineRuleInspector("max").get());
+		// The aggregators without registered inspector are skipped.
+		assertSame(avg, adapter.determineRuleInspector("min,avg").get());
+		assertSame(avg, adapter.determineRuleInspector("min,avg").get());
+		assertFalse(adapter.determineRuleInspector("min").isPresent());
+		assertFalse(adapter.determineRuleInspector("").isPresent());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void determineUnsupportedAggregatorTest() {
+		new CompositeRuleInspectorAdapter(asList(new AvgRuleInspector())).determineRuleInspector("median,avg");
+	}
+
+	@Test
+	public void timeWindowNotReorderCallerArraysTest() {
+		long[] gatherTimes = { 3000L, 1000L, 2000L };
+		double[] values = { 3d, 1d, 2d };
+		MetricTimeWindow window = new MetricTimeWindow(gatherTimes, values, 3);
+
+		assertArrayEquals(new long[] { 3000L, 1000L, 2000L }, gatherTimes);
+		assertArrayEquals(new double[] { 3d, 1d, 2d }, values, 0d);
+		assertArrayEquals(new long[] { 1000L, 2000L, 3000L }, window.getGatherTimes());
+		assertArrayEquals(new double[] { 1d, 2d, 3d }, window.getValues(), 0d);
+		// Gathered in (1000, 3000]
+		assertEquals(1, window.validityFrom(2000L, 3000L));
+		assertEquals(3, window.validityTo(2000L, 3000L));
+	}
+
+	@Test
+	public void verifyAllocationFreeTest() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(mxBean.isThreadAllocatedMemorySupported() && mxBean.isThreadAllocatedMemoryEnabled());
+
+		CompositeRuleInspectorAdapter adapter = new CompositeRuleInspectorAdapter(asList(new AvgRuleInspector(),
+				new LatestRuleInspector(), new MaxRuleInspector(), new MinRuleInspector(), new SumRuleInspector()));
+		int size = 1000;
+		long[] gatherTimes = new long[size];
+		double[] values = new double[size];
+		for (int i = 0; i < size; i++) {
+			gatherTimes[i] = 1000L * i;
+			values[i] = i % 100;
+		}
+		MetricTimeWindow window = new MetricTimeWindow(gatherTimes, values, size);
+		String[] aggregators = { "avg", "latest", "max", "min", "sum" };
+		InspectWrapper wrap = new InspectWrapper();
+
+		// Warm up, the determined inspectors are cached at first.
+		int matched = inspect(adapter, window, aggregators, wrap, 10_000);
+		assertTrue(matched > 0);
+
+		long tid = Thread.currentThread().getId();
+		long allocated = mxBean.getThreadAllocatedBytes(tid);
+		int n = 100_000;
+		inspect(adapter, window, aggregators, wrap, n);
+		allocated = mxBean.getThreadAllocatedBytes(tid) - allocated;
+
+		System.out.println(String.format("Inspected: %s, allocated: %s bytes", n, allocated));
+		// Boxing the window values per inspection would allocate more than
+		// 16 bytes per value, allow only a little allocation of measuring.
+		assertTrue("Allocated bytes: " + allocated, allocated < 64 * 1024);
+	}
+
+	private int inspect(CompositeRuleInspectorAdapter adapter, MetricTimeWindow window, String[] aggregators,
+			InspectWrapper wrap, int count) {
+		long now = window.getGatherTime(window.size() - 1);
+		int matched = 0;
+		for (int i = 0; i < count; i++) {
+			long duration = 1000L * (1 + i % window.size());
+			int from = window.validityFrom(duration, now);
+			int to = window.validityTo(duration, now);
+			wrap.reset(LogicalOperator.AND, RelationOperator.GTE, aggregators[i % aggregators.length], 50d,
+					window.getValues(), from, Math.max(0, to - from));
+			if (adapter.verify(wrap)) {
+				++matched;
+			}
+		}
+		return matched;
+	}
+
+}
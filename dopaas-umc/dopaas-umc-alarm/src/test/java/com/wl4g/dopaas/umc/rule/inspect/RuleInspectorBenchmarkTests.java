@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.rule.inspect;
+
+import static java.lang.Math.abs;
+import static java.util.stream.Collectors.summarizingDouble;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Objects;
+
+import com.wl4g.dopaas.umc.alarm.window.MetricTimeWindow;
+import com.wl4g.dopaas.umc.rule.Aggregator;
+import com.wl4g.dopaas.umc.rule.LogicalOperator;
+import com.wl4g.dopaas.umc.rule.RelationOperator;
+import com.wl4g.dopaas.umc.rule.inspect.RuleInspector.InspectWrapper;
+
+/**
+ * Benchmark of the rule evaluations over a metric time window, compares the
+ * legacy inspection(validity values boxed into Double[], aggregator string
+ * split and values streamed per evaluation) with the primitive view
+ * inspection of {@link CompositeRuleInspectorAdapter}, reports the cost, the
+ * allocated bytes and the GC count/time per evaluation.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class RuleInspectorBenchmarkTests {
+
+	final static int WINDOW_SIZE = 120;
+	final static int EVALUATIONS = 2_000_000;
+	final static String[] AGGREGATORS = { "avg", "latest", "max", "min", "sum" };
+
+	public static void main(String[] args) {
+		long[] gatherTimes = new long[WINDOW_SIZE];
+		double[] values = new double[WINDOW_SIZE];
+		for (int i = 0; i < WINDOW_SIZE; i++) {
+			gatherTimes[i] = 1000L * i;
+			values[i] = i % 100;
+		}
+		MetricTimeWindow window = new MetricTimeWindow(gatherTimes, values, WINDOW_SIZE);
+		CompositeRuleInspectorAdapter adapter = new CompositeRuleInspectorAdapter(Arrays.asList(new AvgRuleInspector(),
+				new LatestRuleInspector(), new MaxRuleInspector(), new MinRuleInspector(), new SumRuleInspector()));
+
+		for (int warmup = 0; warmup < 2; warmup++) {
+			legacy(window, warmup == 0);
+			primitive(adapter, window, warmup == 0);
+		}
+	}
+
+	private static void legacy(MetricTimeWindow window, boolean warmup) {
+		long matched = 0;
+		Measurement m = new Measurement();
+		long now = window.getGatherTime(window.size() - 1);
+		for (int i = 0; i < EVALUATIONS; i++) {
+			long duration = 1000L * (1 + i % WINDOW_SIZE);
+			Double[] vals = extractValidityMetricValues(window, duration, now);
+			LegacyInspectWrapper wrap = new LegacyInspectWrapper(LogicalOperator.AND.getValue(),
+					RelationOperator.GTE.getValue(), AGGREGATORS[i % AGGREGATORS.length], 50d, vals);
+			if (legacyVerify(wrap)) {
+				++matched;
+			}
+		}
+		m.print("legacy", warmup, matched);
+	}
+
+	private static void primitive(CompositeRuleInspectorAdapter adapter, MetricTimeWindow window, boolean warmup) {
+		long matched = 0;
+		InspectWrapper wrap = new InspectWrapper();
+		Measurement m = new Measurement();
+		long now = window.getGatherTime(window.size() - 1);
+		for (int i = 0; i < EVALUATIONS; i++) {
+			long duration = 1000L * (1 + i % WINDOW_SIZE);
+			int from = window.validityFrom(duration, now);
+			int to = window.validityTo(duration, now);
+			wrap.reset(LogicalOperator.AND, RelationOperator.GTE, AGGREGATORS[i % AGGREGATORS.length], 50d, window.getValues(),
+					from, Math.max(0, to - from));
+			if (adapter.verify(wrap)) {
+				++matched;
+			}
+		}
+		m.print("primitive", warmup, matched);
+	}
+
+	/**
+	 * Legacy extraction of the values gathered in duration.
+	 */
+	private static Double[] extractValidityMetricValues(MetricTimeWindow window, long durationMs, long now) {
+		List<Double> vals = new ArrayList<>(window.size());
+		for (int i = 0; i < window.size(); i++) {
+			if (abs(now - window.getGatherTime(i)) < durationMs) {
+				vals.add(window.getValue(i));
+			}
+		}
+		return vals.toArray(new Double[vals.size()]);
+	}
+
+	/**
+	 * Legacy determination and inspection of aggregator.
+	 */
+	private static boolean legacyVerify(LegacyInspectWrapper wrap) {
+		for (String aggre : wrap.aggregator.split(",")) {
+			Aggregator type = Aggregator.safeOf(aggre);
+			double compareValue;
+			if (type == Aggregator.LATEST) {
+				if (wrap.values.length == 0) {
+					return false;
+				}
+				compareValue = wrap.values[wrap.values.length - 1];
+			} else {
+				DoubleSummaryStatistics stat = Arrays.asList(wrap.values).stream().filter(Objects::nonNull)
+						.collect(summarizingDouble(val -> val));
+				compareValue = (type == Aggregator.AVG) ? stat.getAverage()
+						: (type == Aggregator.MAX) ? stat.getMax() : (type == Aggregator.MIN) ? stat.getMin() : stat.getSum();
+			}
+			wrap.compareValue = compareValue;
+			LogicalOperator.of(wrap.logicalOperator);
+			return RelationOperator.of(wrap.relateOperator).operate(compareValue, wrap.baseline);
+		}
+		return false;
+	}
+
+	/**
+	 * Legacy inspection wrapper of boxed values.
+	 */
+	static class LegacyInspectWrapper {
+		final Integer relateOperator;
+		final Integer logicalOperator;
+		final String aggregator;
+		final Double baseline;
+		final Double[] values;
+		Double compareValue;
+
+		LegacyInspectWrapper(Integer logicalOperator, Integer relateOperator, String aggregator, Double baseline,
+				Double[] values) {
+			this.logicalOperator = logicalOperator;
+			this.relateOperator = relateOperator;
+			this.aggregator = aggregator;
+			this.baseline = baseline;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Measurement of cost, allocated bytes of current thread and GC.
+	 */
+	static class Measurement {
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		final long beginAllocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+		final long beginGcCount = gcCount();
+		final long beginGcTime = gcTime();
+		final long begin = System.nanoTime();
+
+		void print(String name, boolean warmup, long matched) {
+			long costNs = System.nanoTime() - begin;
+			long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - beginAllocated;
+			if (!warmup) {
+				System.out.println(String.format(
+						"%s => evaluations: %s, cost: %sms, per evaluation: %sns, allocated per evaluation: %.2f bytes, gc count: %s, gc time: %sms, matched: %s",
+						name, EVALUATIONS, costNs / 1000_000, costNs / EVALUATIONS, (double) allocated / EVALUATIONS,
+						gcCount() - beginGcCount, gcTime() - beginGcTime, matched));
+			}
+		}
+
+		static long gcCount() {
+			long count = 0;
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				count += Math.max(0, gc.getCollectionCount());
+			}
+			return count;
+		}
+
+		static long gcTime() {
+			long time = 0;
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				time += Math.max(0, gc.getCollectionTime());
+			}
+			return time;
+		}
+	}
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.client.health.timeout;
+
+import static com.wl4g.component.common.lang.Assert2.isTrue;
+import static java.lang.Math.max;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window of the latest time samples of a method, backed by the fixed
+ * size ring of primitive longs. The recording is O(1) (one sequence increment
+ * and one slot writing), and the statistics are calculated on the snapshot
+ * only when health checking or metrics scraping, the gauges of one scraping
+ * share a cached snapshot.
+ * 
+ * @author agent &lt;agent@local&gt;
+ * @version 2026-10-17 v1.0.0
+ * @since v1.0.0
+ */
+public class MethodTimeWindow {
+
+    private final String metricsName;
+
+    /** Ring of time samples, index is sequence modulo size. */
+    private final AtomicLongArray samples;
+
+    /** Next sequence of recording. */
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    /** Count of removed samples, invalidates the cached snapshot. */
+    private final AtomicLong removes = new AtomicLong(0);
+
+    /** Latest snapshot. */
+    private volatile CachedStat cached;
+
+    public MethodTimeWindow(String metricsName, int size) {
+        isTrue(size > 0, "Window size must greater than 0.");
+        this.metricsName = metricsName;
+        this.samples = new AtomicLongArray(size);
+    }
+
+    public String getMetricsName() {
+        return metricsName;
+    }
+
+    /**
+     * Record time sample, overwrites the oldest if full.
+     * 
+     * @param time
+     */
+    public void record(long time) {
+        long seq = sequence.getAndIncrement();
+        samples.lazySet((int) (seq % samples.length()), time);
+    }
+
+    /**
+     * Remove the oldest sample of the time in window (e.g. the largest time
+     * that has been alarmed).
+     * 
+     * @param time
+     * @return Returns false if not found (e.g. overwritten).
+     */
+    public boolean remove(long time) {
+        long end = sequence.get();
+        for (long seq = max(0, end - samples.length()); seq < end; seq++) {
+            int slot = (int) (seq % samples.length());
+            if (samples.get(slot) == time && samples.compareAndSet(slot, time, REMOVED)) {
+                removes.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Snapshot statistics of current window samples.
+     * 
+     * @return Returns null if no samples.
+     */
+    public TimeStat snapshot() {
+        return snapshot(0);
+    }
+
+    /**
+     * Snapshot statistics of current window samples, the previous snapshot
+     * is reused if the window is unchanged or it's not older than max age.
+     * 
+     * @param maxAgeMs
+     * @return Returns null if no samples.
+     */
+    public TimeStat snapshot(long maxAgeMs) {
+        long end = sequence.get(), removed = removes.get(), now = System.currentTimeMillis();
+        CachedStat cached = this.cached;
+        if (cached != null && ((cached.sequence == end && cached.removes == removed) || now - cached.time < maxAgeMs)) {
+            return cached.stat;
+        }
+        TimeStat stat = doSnapshot(end);
+        this.cached = new CachedStat(end, removed, now, stat);
+        return stat;
+    }
+
+    private TimeStat doSnapshot(long end) {
+        long begin = max(0, end - samples.length());
+        long[] values = new long[(int) (end - begin)];
+        int count = 0;
+        long total = 0;
+        for (long seq = begin; seq < end; seq++) {
+            long value = samples.get((int) (seq % samples.length()));
+            if (value != REMOVED) {
+                values[count++] = value;
+                total += value;
+            }
+        }
+        if (count <= 0) {
+            return null;
+        }
+        long latest = values[count - 1];
+        values = count < values.length ? Arrays.copyOf(values, count) : values;
+        Arrays.sort(values);
+
+        TimeStat stat = new TimeStat(count, metricsName, values[count - 1], values[0], total / count, latest);
+        stat.setP50(percentile(values, 0.50d));
+        stat.setP99(percentile(values, 0.99d));
+        return stat;
+    }
+
+    /**
+     * Nearest rank percentile of sorted values.
+     * 
+     * @param sorted
+     * @param percentile
+     * @return
+     */
+    static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.min(sorted.length - 1, max(0, rank - 1))];
+    }
+
+    /**
+     * Snapshot of the window at sequence.
+     */
+    private static class CachedStat {
+        private final long sequence;
+        private final long removes;
+        private final long time;
+        private final TimeStat stat;
+
+        private CachedStat(long sequence, long removes, long time, TimeStat stat) {
+            this.sequence = sequence;
+            this.removes = removes;
+            this.time = time;
+            this.stat = stat;
+        }
+    }
+
+    /** Marks the slot of removed sample, the times are never negative. */
+    private static final long REMOVED = -1L;
+
+}
@@ -22,6 +22,8 @@ public class TimeStat {
     private long avg;
     private int samples;
     private long latest;
+    private long p50;
+    private long p99;
 
     public TimeStat() {
         super();
@@ -91,4 +93,20 @@ public class TimeStat {
         this.latest = latest;
     }
 
+    public long getP50() {
+        return p50;
+    }
+
+    public void setP50(long p50) {
+        this.p50 = p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public void setP99(long p99) {
+        this.p99 = p99;
+    }
+
 }
@@ -17,6 +17,7 @@ package com.wl4g.dopaas.umc.client.health.timeout;
 
 import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -24,6 +25,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.wl4g.component.common.log.SmartLogger;
+import com.wl4g.dopaas.umc.client.metrics.UmcMetricsFacade;
 
 /**
  * {@link TimeoutMethodAutoConfiguration}
@@ -39,12 +41,13 @@ public class TimeoutMethodAutoConfiguration {
     private final SmartLogger log = getLogger(getClass());
 
     @Bean
-    public HealthIndicator defaultTimeoutMethodHealthIndicator(TimeoutMethodProperties config) {
+    public HealthIndicator defaultTimeoutMethodHealthIndicator(TimeoutMethodProperties config,
+            ObjectProvider<UmcMetricsFacade> metricsFacade) {
         log.info("Initializing timingMethodsHealthIndicator. - {}", config);
         if (config.getSamples() == 0) {
             throw new IllegalArgumentException("Latest measure count is 0.");
         }
-        return new TimeoutMethodHealthIndicator(config);
+        return new TimeoutMethodHealthIndicator(config, metricsFacade.getIfAvailable());
     }
 
 }
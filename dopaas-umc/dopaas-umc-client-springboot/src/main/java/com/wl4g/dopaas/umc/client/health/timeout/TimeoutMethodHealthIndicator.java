@@ -19,25 +19,21 @@ import static com.wl4g.component.common.lang.Assert2.notNullOf;
 import static com.wl4g.component.common.log.SmartLoggerFactory.getLogger;
 import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Deque;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.stream.Collectors;
+import java.util.function.ToLongFunction;
 
 import org.springframework.boot.actuate.health.AbstractHealthIndicator;
 import org.springframework.boot.actuate.health.Health.Builder;
 
+import com.wl4g.component.common.annotation.Nullable;
 import com.wl4g.component.common.log.SmartLogger;
 import com.wl4g.dopaas.umc.client.health.util.HealthUtil;
+import com.wl4g.dopaas.umc.client.metrics.UmcMetricsFacade;
+
+import io.micrometer.core.instrument.Tag;
 
 /**
  * Analysis and statistical call time dimension related health messages
@@ -50,11 +46,17 @@ import com.wl4g.dopaas.umc.client.health.util.HealthUtil;
 public class TimeoutMethodHealthIndicator extends AbstractHealthIndicator {
     private final SmartLogger log = getLogger(getClass());
 
-    private final Map<String, Deque<Long>> records = new ConcurrentHashMap<>(64);
-    private TimeoutMethodProperties config;
+    private final Map<String, MethodTimeWindow> records = new ConcurrentHashMap<>(64);
+    private final TimeoutMethodProperties config;
+    private final UmcMetricsFacade metricsFacade; // Non-required
 
     public TimeoutMethodHealthIndicator(TimeoutMethodProperties config) {
+        this(config, null);
+    }
+
+    public TimeoutMethodHealthIndicator(TimeoutMethodProperties config, @Nullable UmcMetricsFacade metricsFacade) {
         this.config = notNullOf(config, "simpleTimingMetricsConfig");
+        this.metricsFacade = metricsFacade;
     }
 
     @Override
@@ -79,24 +81,27 @@ public class TimeoutMethodHealthIndicator extends AbstractHealthIndicator {
             }
             builder.withDetail("Method", stat.getMetricsName()).withDetail("Least", stat.getMin())
                     .withDetail("Largest", stat.getMax()).withDetail("Avg", stat.getAvg()).withDetail("Latest", stat.getLatest())
-                    .withDetail("Samples", stat.getSamples()).withDetail("Threshold", config.getTimeoutThresholdMs() + "ms");
+                    .withDetail("P50", stat.getP50()).withDetail("P99", stat.getP99()).withDetail("Samples", stat.getSamples())
+                    .withDetail("Threshold", config.getTimeoutThresholdMs() + "ms");
         } catch (Exception ex) {
             HealthUtil.down(builder, "UnHealthy", ex);
             log.error("Failed to detected timeout.method.calling", ex);
         }
     }
 
+    /**
+     * Record the time of method calling, the O(1) appending to the sliding
+     * window of method.
+     * 
+     * @param metricName
+     * @param time
+     */
     public void record(String metricName, long time) {
-        int latestCount = config.getSamples();
-        log.debug("Add times metric: {}, latestCount: {}, time={}", metricName, latestCount, time);
-
-        Deque<Long> deque = records.getOrDefault(metricName, new ConcurrentLinkedDeque<>());
-        // Overflow check
-        if (deque.size() >= (latestCount - 1)) {
-            deque.poll(); // Remove first
+        MethodTimeWindow window = records.get(metricName);
+        if (isNull(window)) {
+            window = records.computeIfAbsent(metricName, name -> newTimeWindow(name));
         }
-        deque.offer(time);
-        records.put(metricName, deque);
+        window.record(time);
     }
 
     /**
@@ -107,50 +112,54 @@ public class TimeoutMethodHealthIndicator extends AbstractHealthIndicator {
      * @return
      */
     protected TimeStat getLargestStat() {
-        List<TimeStat> stats = new ArrayList<>();
-        // Calculate the maximum value of each execution record queue.
-        for (Entry<String, Deque<Long>> ent : records.entrySet()) {
-            Deque<Long> deque = ent.getValue();
-            if (!deque.isEmpty()) {
-                long queueMax = deque.stream().reduce(Long::max).get();
-                stats.add(new TimeStat(ent.getKey(), queueMax));
+        TimeStat statMax = null;
+        // Snapshot statistics of each method window.
+        for (MethodTimeWindow window : records.values()) {
+            TimeStat stat = window.snapshot();
+            if (nonNull(stat) && (isNull(statMax) || stat.getMax() > statMax.getMax())) {
+                statMax = stat;
             }
         }
-        if (stats.isEmpty()) {
-            return null;
-        }
-
-        // Gets the maximum value in the list of the maximum values in all
-        // queues.
-        TimeStat statMax = Collections.max(stats, MAX_COMPARATOR);
-        Deque<Long> deque = records.get(statMax.getMetricsName());
-
-        statMax.setSamples(deque.size());
-        statMax.setMin(deque.stream().reduce(Long::min).get());
-        statMax.setLatest(deque.peekLast());
-        // Average length of time.
-        long totalTime = deque.stream().collect(Collectors.summingLong(Long::longValue));
-        long count = deque.stream().count();
-        statMax.setAvg(BigDecimal.valueOf(totalTime / count).setScale(2, RoundingMode.HALF_EVEN).longValue());
-
-        // Remove current-largest metrics(timeouts record).
-        deque.remove(statMax.getMax());
-        // Deque.clear();
         return statMax;
     }
 
+    /**
+     * Remove the largest (alarmed) time sample, so that it is not alarmed
+     * repeatedly, the other samples are kept.
+     * 
+     * @param stat
+     */
     protected void resetIfNecessary(TimeStat stat) {
-        Deque<Long> deque = records.get(stat.getMetricsName());
-        if (deque != null && !deque.isEmpty()) {
-            deque.remove(stat.getMax());
+        MethodTimeWindow window = records.get(stat.getMetricsName());
+        if (nonNull(window)) {
+            window.remove(stat.getMax());
         }
     }
 
-    private static final Comparator<TimeStat> MAX_COMPARATOR = new Comparator<TimeStat>() {
-        @Override
-        public int compare(TimeStat o1, TimeStat o2) {
-            return (int) (o1.getMax() - o2.getMax());
+    private MethodTimeWindow newTimeWindow(String metricName) {
+        log.debug("New times window of metric: {}, samples: {}", metricName, config.getSamples());
+        MethodTimeWindow window = new MethodTimeWindow(metricName, config.getSamples());
+        if (nonNull(metricsFacade)) {
+            registerGauge(window, METRIC_P50, TimeStat::getP50);
+            registerGauge(window, METRIC_P99, TimeStat::getP99);
+            registerGauge(window, METRIC_MAX, TimeStat::getMax);
         }
-    };
+        return window;
+    }
+
+    private void registerGauge(MethodTimeWindow window, String name, ToLongFunction<TimeStat> valueFunction) {
+        // The gauges of window share one snapshot in a scraping.
+        metricsFacade.gauge(name, window, w -> {
+            TimeStat stat = w.snapshot(GAUGE_SNAPSHOT_MAX_AGE_MS);
+            return isNull(stat) ? 0d : valueFunction.applyAsLong(stat);
+        }, Tag.of("method", window.getMetricsName()));
+    }
+
+    public static final String METRIC_P50 = "timing.method.p50";
+    public static final String METRIC_P99 = "timing.method.p99";
+    public static final String METRIC_MAX = "timing.method.max";
+
+    /** Max age of the snapshot shared by gauges. */
+    private static final long GAUGE_SNAPSHOT_MAX_AGE_MS = 1000L;
 
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ import static java.util.Objects.isNull;
 import java.lang.reflect.Constructor;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
@@ -75,6 +76,20 @@ public class UmcMetricsFacade {
         return registry.gauge(name, asList(tags), number);
     }
 
+    /**
+     * Gets or create gauge of the state object, note that the registry only
+     * holds weak reference of the state object.
+     * 
+     * @param name
+     * @param obj
+     * @param valueFunction
+     * @param tags
+     * @return
+     */
+    public <T> T gauge(String name, T obj, ToDoubleFunction<T> valueFunction, Tag... tags) {
+        return registry.gauge(name, asList(tags), obj, valueFunction);
+    }
+
     /**
      * Used default configuration refer to:
      * {@link DistributionStatisticConfig#DEFAULT}
@@ -20,8 +20,8 @@ import static java.util.Objects.isNull;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -34,17 +34,23 @@ import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * AOP mode service monitoring section based on spring boot admin.<br/>
+ * The meters are resolved once per {@link Method} into an immutable holder,
+ * so that the advice path is only a cache reading and the meter recording.
  * 
+ * @param <M>
+ *            Type of per method meters holder.
  * @author Wangl.sir <983708408@qq.com>
  * @version v1.0
  * @date 2018年5月30日
  * @since
  */
-public abstract class BaseMetricsAdvice implements MethodInterceptor {
-    private static final Map<Method, String> methodsCache = new ConcurrentHashMap<>(32);
+public abstract class BaseMetricsAdvice<M> implements MethodInterceptor {
 
     protected final SmartLogger log = getLogger(getClass());
 
+    /** Resolved meters of per method. */
+    private final ConcurrentMap<Method, M> metersCache = new ConcurrentHashMap<>(32);
+
     /**
      * Related and spring-boot-1.x core types: </br>
      * {@link DefaultGaugeService} </br>
@@ -55,6 +61,30 @@ public abstract class BaseMetricsAdvice implements MethodInterceptor {
      */
     protected @Autowired MeterRegistry registry;
 
+    /**
+     * Gets or resolve the meters of invocation method. The hit is a lock-free
+     * reading, the resolving is only once per method.
+     * 
+     * @param invoc
+     * @return
+     */
+    protected M getMethodMeters(MethodInvocation invoc) {
+        M meters = metersCache.get(invoc.getMethod());
+        if (isNull(meters)) {
+            meters = metersCache.computeIfAbsent(invoc.getMethod(), m -> newMethodMeters(getMetricName(invoc), m));
+        }
+        return meters;
+    }
+
+    /**
+     * New create immutable meters holder of method.
+     * 
+     * @param metricName
+     * @param method
+     * @return
+     */
+    protected abstract M newMethodMeters(String metricName, Method method);
+
     /**
      * Production unique name based on method name
      * 
@@ -62,33 +92,25 @@ public abstract class BaseMetricsAdvice implements MethodInterceptor {
      * @return
      */
     protected String getMetricName(MethodInvocation invoc) {
-        String metricName = methodsCache.get(invoc.getMethod());
-        if (isNull(metricName)) {
-            synchronized (this) {
-                if (isNull(metricName)) {
-                    Method m = invoc.getMethod();
-                    StringBuffer sign = new StringBuffer(getSimpleClassname(invoc.getThis().getClass().getName()));
-                    sign.append(".");
-                    sign.append(m.getName());
-                    sign.append("(");
-                    Parameter[] params = m.getParameters();
-                    if (params != null) {
-                        for (Parameter p : params) {
-                            sign.append(getSimpleParameterType(p.getType().getSimpleName()));
-                            sign.append(" ");
-                            sign.append(p.getName());
-                            sign.append(",");
-                        }
-                        if (sign.length() > 1) {
-                            sign.delete(sign.length() - 1, sign.length());
-                        }
-                        sign.append(")");
-                    }
-                    methodsCache.put(m, (metricName = sign.toString()));
-                }
+        Method m = invoc.getMethod();
+        StringBuilder sign = new StringBuilder(getSimpleClassname(invoc.getThis().getClass().getName()));
+        sign.append(".");
+        sign.append(m.getName());
+        sign.append("(");
+        Parameter[] params = m.getParameters();
+        if (params != null) {
+            for (Parameter p : params) {
+                sign.append(getSimpleParameterType(p.getType().getSimpleName()));
+                sign.append(" ");
+                sign.append(p.getName());
+                sign.append(",");
+            }
+            if (sign.length() > 1) {
+                sign.delete(sign.length() - 1, sign.length());
             }
+            sign.append(")");
         }
-        return metricName;
+        return sign.toString();
     }
 
     /**
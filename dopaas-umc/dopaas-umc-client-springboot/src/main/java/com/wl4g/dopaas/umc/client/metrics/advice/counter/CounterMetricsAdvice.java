@@ -15,6 +15,8 @@
  */
 package com.wl4g.dopaas.umc.client.metrics.advice.counter;
 
+import java.lang.reflect.Method;
+
 import org.aopalliance.intercept.MethodInvocation;
 
 import com.wl4g.dopaas.common.exception.umc.UmcException;
@@ -31,7 +33,7 @@ import io.micrometer.core.instrument.Counter;
  * @since
  * @see {@link io.micrometer.core.aop.CountedAspect}
  */
-public class CounterMetricsAdvice extends BaseMetricsAdvice {
+public class CounterMetricsAdvice extends BaseMetricsAdvice<Counter> {
 
     /**
      * Number of times the AOP statistical method is called.
@@ -39,12 +41,16 @@ public class CounterMetricsAdvice extends BaseMetricsAdvice {
     @Override
     public Object invoke(MethodInvocation invo) throws Throwable {
         try {
-            Counter counter = registry.counter(getMetricName(invo), "method", invo.getMethod().toGenericString());
-            counter.increment(1);
+            getMethodMeters(invo).increment(1);
             return invo.proceed();
         } catch (Throwable e) {
             throw new UmcException(e);
         }
     }
 
+    @Override
+    protected Counter newMethodMeters(String metricName, Method method) {
+        return registry.counter(metricName, "method", method.toGenericString());
+    }
+
 }
\ No newline at end of file
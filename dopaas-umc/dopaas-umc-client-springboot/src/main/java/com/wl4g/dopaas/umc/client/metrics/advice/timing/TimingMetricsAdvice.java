@@ -15,8 +15,9 @@
  */
 package com.wl4g.dopaas.umc.client.metrics.advice.timing;
 
-import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.TimeUnit;
 
 import org.aopalliance.intercept.MethodInvocation;
@@ -26,6 +27,7 @@ import com.wl4g.component.common.lang.FastTimeClock;
 import com.wl4g.dopaas.common.exception.umc.UmcException;
 import com.wl4g.dopaas.umc.client.health.timeout.TimeoutMethodHealthIndicator;
 import com.wl4g.dopaas.umc.client.metrics.advice.BaseMetricsAdvice;
+import com.wl4g.dopaas.umc.client.metrics.advice.timing.TimingMetricsAdvice.TimingMeters;
 
 import io.micrometer.core.instrument.Timer;
 
@@ -40,7 +42,7 @@ import io.micrometer.core.instrument.Timer;
  * @see https://github.com/apache/skywalking/pull/1118
  * @see {@link io.micrometer.core.aop.TimedAspect}
  */
-public class TimingMetricsAdvice extends BaseMetricsAdvice {
+public class TimingMetricsAdvice extends BaseMetricsAdvice<TimingMeters> {
 
     @Autowired(required = false)
     private TimeoutMethodHealthIndicator timingIndicator; // Non-required
@@ -48,18 +50,17 @@ public class TimingMetricsAdvice extends BaseMetricsAdvice {
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         try {
-            // Gets metric name by method.
-            final String metricName = getMetricName(invocation);
+            // Gets resolved meters by method.
+            final TimingMeters meters = getMethodMeters(invocation);
 
             final long start = FastTimeClock.currentTimeMillis();
             Object res = invocation.proceed();
             final long deltaMs = FastTimeClock.currentTimeMillis() - start;
 
             // Update gauge
-            Timer timer = registry.timer(transformTimerName(metricName));
-            timer.record(deltaMs, TimeUnit.MILLISECONDS);
+            meters.timer.record(deltaMs, TimeUnit.MILLISECONDS);
 
-            postProperties(metricName, deltaMs);
+            postProperties(meters.metricName, deltaMs);
             return res;
         } catch (Throwable e) {
             throw new UmcException(e);
@@ -73,7 +74,7 @@ public class TimingMetricsAdvice extends BaseMetricsAdvice {
      * @param deltaMs
      */
     protected void postProperties(String metricName, long deltaMs) {
-        if (isNull(timingIndicator)) {
+        if (nonNull(timingIndicator)) {
             timingIndicator.record(metricName, deltaMs);
         }
     }
@@ -98,4 +99,22 @@ public class TimingMetricsAdvice extends BaseMetricsAdvice {
         return "timer." + name;
     }
 
+    @Override
+    protected TimingMeters newMethodMeters(String metricName, Method method) {
+        return new TimingMeters(metricName, registry.timer(transformTimerName(metricName)));
+    }
+
+    /**
+     * Resolved timing meters of method.
+     */
+    protected static final class TimingMeters {
+        private final String metricName;
+        private final Timer timer;
+
+        protected TimingMeters(String metricName, Timer timer) {
+            this.metricName = metricName;
+            this.timer = timer;
+        }
+    }
+
 }
\ No newline at end of file
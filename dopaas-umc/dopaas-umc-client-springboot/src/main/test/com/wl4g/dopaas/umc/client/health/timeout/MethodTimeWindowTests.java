@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.client.health.timeout;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Correctness of {@link MethodTimeWindow}, the removing of alarmed sample and
+ * the cached snapshot.
+ * 
+ * @author agent &lt;agent@local&gt;
+ * @version 2026-10-17 v1.0.0
+ * @since v1.0.0
+ */
+public class MethodTimeWindowTests {
+
+    @Test
+    public void removeMaxTest() {
+        MethodTimeWindow window = new MethodTimeWindow("test", 8);
+        window.record(10);
+        window.record(90);
+        window.record(30);
+        window.record(90);
+        TimeStat stat = window.snapshot();
+        assertEquals(90, stat.getMax());
+
+        // Only the oldest largest sample is removed, the others are kept.
+        assertTrue(window.remove(stat.getMax()));
+        stat = window.snapshot();
+        assertEquals(3, stat.getSamples());
+        assertEquals(90, stat.getMax());
+        assertEquals(10, stat.getMin());
+        assertEquals(90, stat.getLatest());
+
+        assertTrue(window.remove(90));
+        assertFalse(window.remove(90));
+        stat = window.snapshot();
+        assertEquals(2, stat.getSamples());
+        assertEquals(30, stat.getMax());
+        assertEquals(30, stat.getLatest());
+
+        assertTrue(window.remove(10));
+        assertTrue(window.remove(30));
+        assertNull(window.snapshot());
+    }
+
+    @Test
+    public void removeOverwrittenTest() {
+        MethodTimeWindow window = new MethodTimeWindow("test", 2);
+        window.record(50);
+        window.record(20);
+        window.record(30);
+        assertFalse(window.remove(50));
+        assertEquals(2, window.snapshot().getSamples());
+    }
+
+    @Test
+    public void cachedSnapshotTest() {
+        MethodTimeWindow window = new MethodTimeWindow("test", 8);
+        window.record(10);
+        TimeStat stat = window.snapshot(60_000L);
+        assertSame(stat, window.snapshot(60_000L));
+        assertSame(stat, window.snapshot());
+
+        // Cached within max age, even if recorded.
+        window.record(20);
+        assertSame(stat, window.snapshot(60_000L));
+        assertEquals(20, window.snapshot().getMax());
+
+        // Removing invalidates the cache.
+        assertTrue(window.remove(20));
+        assertEquals(10, window.snapshot().getMax());
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.client.health.timeout;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Per call cost benchmark of {@link TimeoutMethodHealthIndicator#record} as
+ * the window(samples) grows, against the previous deque window whose
+ * size() is O(n).
+ * 
+ * @author agent &lt;agent@local&gt;
+ * @version 2026-10-17 v1.0.0
+ * @since v1.0.0
+ */
+public class TimeoutMethodHealthIndicatorBenchmarkTests {
+
+    final static int RECORDS = 2_000_000;
+    final static int[] SAMPLES = { 32, 1024, 32 * 1024, 1024 * 1024 };
+    final static int[] THREADS = { 1, 8 };
+    final static String[] METHODS = { "method0", "method1", "method2", "method3", "method4", "method5", "method6",
+            "method7" };
+
+    public static void main(String[] args) throws Exception {
+        for (int samples : SAMPLES) {
+            TimeoutMethodProperties config = new TimeoutMethodProperties();
+            config.setSamples(samples);
+            for (int threads : THREADS) {
+                TimeoutMethodHealthIndicator indicator = new TimeoutMethodHealthIndicator(config);
+                concurrentRecord(threads, RECORDS, (method, time) -> indicator.record(method, time)); // Warm-up
+                long windowNs = concurrentRecord(threads, RECORDS, (method, time) -> indicator.record(method, time));
+
+                long snapshotBegin = System.nanoTime();
+                TimeStat stat = indicator.getLargestStat();
+                long snapshotUs = (System.nanoTime() - snapshotBegin) / 1000;
+
+                // Previous deque window, with fewer records because of O(n).
+                int dequeRecords = Math.max(1000, RECORDS / Math.max(1, samples / 32));
+                Deque<Long> deque = new ConcurrentLinkedDeque<>();
+                long dequeNs = concurrentRecord(threads, dequeRecords, (method, time) -> {
+                    if (deque.size() >= (samples - 1)) {
+                        deque.poll();
+                    }
+                    deque.offer(time);
+                });
+
+                System.out.println(String.format(
+                        "Samples: %s, threads: %s, window record: %sns/op, deque record: %sns/op, snapshot: %sus, p50: %s, p99: %s, max: %s",
+                        samples, threads, windowNs / RECORDS, dequeNs / dequeRecords, snapshotUs, stat.getP50(), stat.getP99(),
+                        stat.getMax()));
+            }
+        }
+    }
+
+    private static long concurrentRecord(int threads, int records, Recorder recorder) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0, count = records / threads; i < count; i++) {
+                        recorder.record(METHODS[i % METHODS.length], i % 1000);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    @FunctionalInterface
+    static interface Recorder {
+        void record(String method, long time);
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.client.metrics.advice;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.framework.ProxyFactory;
+
+import com.wl4g.dopaas.umc.client.metrics.advice.counter.CounterMetricsAdvice;
+import com.wl4g.dopaas.umc.client.metrics.advice.timing.TimingMetricsAdvice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Per call overhead benchmark of {@link TimingMetricsAdvice} and
+ * {@link CounterMetricsAdvice} advised calls against the unadvised(proxy
+ * only) calls, at 1, 8 and 32 threads.
+ * 
+ * @author agent &lt;agent@local&gt;
+ * @version 2026-10-16 v1.0.0
+ * @since v1.0.0
+ */
+public class MetricsAdviceBenchmarkTests {
+
+    final static int CALLS = 2_000_000;
+    final static int ROUNDS = 3;
+    final static int[] THREADS = { 1, 8, 32 };
+
+    public static void main(String[] args) throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TimingMetricsAdvice timingAdvice = new TimingMetricsAdvice();
+        timingAdvice.registry = registry;
+        CounterMetricsAdvice counterAdvice = new CounterMetricsAdvice();
+        counterAdvice.registry = registry;
+
+        EchoService unadvised = newProxy();
+        EchoService timingAdvised = newProxy(timingAdvice);
+        EchoService counterAdvised = newProxy(counterAdvice);
+
+        for (int round = 0; round < ROUNDS; round++) { // First is warm-up
+            for (int threads : THREADS) {
+                long unadvisedNs = concurrentCall(unadvised, threads);
+                long timingNs = concurrentCall(timingAdvised, threads);
+                long counterNs = concurrentCall(counterAdvised, threads);
+                System.out.println(String.format(
+                        "Round: %s, threads: %s, unadvised: %sns/op, timing advised: %sns/op, counter advised: %sns/op", round,
+                        threads, unadvisedNs * threads / CALLS, timingNs * threads / CALLS, counterNs * threads / CALLS));
+            }
+        }
+        System.out.println("Registered meters: " + registry.getMeters().size());
+    }
+
+    private static EchoService newProxy(Advice... advices) {
+        ProxyFactory factory = new ProxyFactory(new DefaultEchoService());
+        factory.addInterface(EchoService.class);
+        for (Advice advice : advices) {
+            factory.addAdvice(advice);
+        }
+        return (EchoService) factory.getProxy();
+    }
+
+    private static long concurrentCall(EchoService service, int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongAdder blackhole = new LongAdder();
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    long sum = 0;
+                    for (int i = 0, calls = CALLS / threads; i < calls; i++) {
+                        sum += service.echo(i);
+                    }
+                    blackhole.add(sum);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await(5, TimeUnit.MINUTES);
+        return System.nanoTime() - begin;
+    }
+
+    public static interface EchoService {
+        int echo(int value);
+    }
+
+    public static class DefaultEchoService implements EchoService {
+        @Override
+        public int echo(int value) {
+            return value;
+        }
+    }
+
+}
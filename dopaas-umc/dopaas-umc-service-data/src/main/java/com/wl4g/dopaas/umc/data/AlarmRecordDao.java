@@ -28,6 +28,8 @@ public interface AlarmRecordDao {
 
 	int insertSelective(AlarmRecord record);
 
+	int insertBatch(@Param("records") List<AlarmRecord> records);
+
 	AlarmRecord selectByPrimaryKey(Long id);
 
 	int updateByPrimaryKeySelective(AlarmRecord record);
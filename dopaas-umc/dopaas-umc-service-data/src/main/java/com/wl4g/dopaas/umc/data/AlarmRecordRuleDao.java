@@ -15,6 +15,10 @@
  */
 package com.wl4g.dopaas.umc.data;
 
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+
 import com.wl4g.dopaas.common.bean.umc.AlarmRecordRule;
 
 public interface AlarmRecordRuleDao {
@@ -24,6 +28,8 @@ public interface AlarmRecordRuleDao {
 
 	int insertSelective(AlarmRecordRule record);
 
+	int insertBatch(@Param("recordRules") List<AlarmRecordRule> recordRules);
+
 	AlarmRecordRule selectByPrimaryKey(Integer id);
 
 	int updateByPrimaryKeySelective(AlarmRecordRule record);
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.data;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+
+import com.wl4g.iam.common.bean.NotificationContact;
+
+/**
+ * Notification contacts of alarm records(sys_notification_contact), only the
+ * batch insert of alarm notifications, others are served by IAM.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public interface NotificationContactDao {
+
+	int insertBatch(@Param("notificationContacts") List<NotificationContact> notificationContacts);
+
+}
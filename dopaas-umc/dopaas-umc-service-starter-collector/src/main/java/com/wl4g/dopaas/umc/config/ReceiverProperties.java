@@ -75,6 +75,37 @@ public class ReceiverProperties {
 		 */
 		private int queueDepth = 4092;
 
+		/**
+		 * Maximum number of worker threads for parallel batch ingesting.
+		 */
+		private int ingestThreads = 4;
+
+		/**
+		 * Maximum number of pending ingest groups, when the queue is full the
+		 * kafka consumer thread will run the group itself (back-pressure).
+		 */
+		private int ingestQueueSize = 256;
+
+		/**
+		 * Maximum time(ms) to wait for a batch to complete before ack, the
+		 * timed-out batch is not acknowledged, and its partitions are sought
+		 * back to be re-delivered.
+		 */
+		private long ingestTimeoutMs = 30_000L;
+
+		/**
+		 * Maximum number of records of a batch ingest, the received records
+		 * are flushed as soon as reached.
+		 */
+		private int ingestBatchSize = 1000;
+
+		/**
+		 * Maximum time(ms) of the received records waiting for more records of
+		 * the same batch ingest, 0 means that each received records are
+		 * flushed at once.
+		 */
+		private long ingestLingerMs = 100L;
+
 		private Properties properties = new Properties() {
 			private static final long serialVersionUID = 299259605679445927L;
 			{
@@ -125,6 +156,46 @@ public class ReceiverProperties {
 			this.queueDepth = queueDepth;
 		}
 
+		public int getIngestThreads() {
+			return ingestThreads;
+		}
+
+		public void setIngestThreads(int ingestThreads) {
+			this.ingestThreads = ingestThreads;
+		}
+
+		public int getIngestQueueSize() {
+			return ingestQueueSize;
+		}
+
+		public void setIngestQueueSize(int ingestQueueSize) {
+			this.ingestQueueSize = ingestQueueSize;
+		}
+
+		public long getIngestTimeoutMs() {
+			return ingestTimeoutMs;
+		}
+
+		public void setIngestTimeoutMs(long ingestTimeoutMs) {
+			this.ingestTimeoutMs = ingestTimeoutMs;
+		}
+
+		public int getIngestBatchSize() {
+			return ingestBatchSize;
+		}
+
+		public void setIngestBatchSize(int ingestBatchSize) {
+			this.ingestBatchSize = ingestBatchSize;
+		}
+
+		public long getIngestLingerMs() {
+			return ingestLingerMs;
+		}
+
+		public void setIngestLingerMs(long ingestLingerMs) {
+			this.ingestLingerMs = ingestLingerMs;
+		}
+
 		public Properties getProperties() {
 			return properties;
 		}
@@ -146,6 +217,47 @@ public class ReceiverProperties {
 
 		private boolean enabled = false;
 
+		/**
+		 * Number of worker threads for storage and alarm.
+		 */
+		private int ingestThreads = 4;
+
+		/**
+		 * Maximum number of pending ingest requests, when the queue is full
+		 * the request will be rejected with 429 (back-pressure).
+		 */
+		private int ingestQueueSize = 1024;
+
+		/**
+		 * Retry-After seconds of the rejected requests.
+		 */
+		private int retryAfterSeconds = 1;
+
+		/**
+		 * Buffer size of non-blocking body reading.
+		 */
+		private int readBufferSize = 8192;
+
+		/**
+		 * Maximum number of pooled reading buffers.
+		 */
+		private int readBufferPoolSize = 256;
+
+		/**
+		 * Maximum size of one metric message.
+		 */
+		private int maxMessageSize = 4 * 1024 * 1024;
+
+		/**
+		 * Maximum size of request body.
+		 */
+		private long maxBodySize = 32 * 1024 * 1024L;
+
+		/**
+		 * Timeout(ms) of async request body reading.
+		 */
+		private long asyncTimeoutMs = 30_000L;
+
 		public boolean isEnabled() {
 			return enabled;
 		}
@@ -154,6 +266,70 @@ public class ReceiverProperties {
 			this.enabled = enabled;
 		}
 
+		public int getIngestThreads() {
+			return ingestThreads;
+		}
+
+		public void setIngestThreads(int ingestThreads) {
+			this.ingestThreads = ingestThreads;
+		}
+
+		public int getIngestQueueSize() {
+			return ingestQueueSize;
+		}
+
+		public void setIngestQueueSize(int ingestQueueSize) {
+			this.ingestQueueSize = ingestQueueSize;
+		}
+
+		public int getRetryAfterSeconds() {
+			return retryAfterSeconds;
+		}
+
+		public void setRetryAfterSeconds(int retryAfterSeconds) {
+			this.retryAfterSeconds = retryAfterSeconds;
+		}
+
+		public int getReadBufferSize() {
+			return readBufferSize;
+		}
+
+		public void setReadBufferSize(int readBufferSize) {
+			this.readBufferSize = readBufferSize;
+		}
+
+		public int getReadBufferPoolSize() {
+			return readBufferPoolSize;
+		}
+
+		public void setReadBufferPoolSize(int readBufferPoolSize) {
+			this.readBufferPoolSize = readBufferPoolSize;
+		}
+
+		public int getMaxMessageSize() {
+			return maxMessageSize;
+		}
+
+		public void setMaxMessageSize(int maxMessageSize) {
+			this.maxMessageSize = maxMessageSize;
+		}
+
+		public long getMaxBodySize() {
+			return maxBodySize;
+		}
+
+		public void setMaxBodySize(long maxBodySize) {
+			this.maxBodySize = maxBodySize;
+		}
+
+		public long getAsyncTimeoutMs() {
+			return asyncTimeoutMs;
+		}
+
+		public void setAsyncTimeoutMs(long asyncTimeoutMs) {
+			this.asyncTimeoutMs = asyncTimeoutMs;
+		}
+
 	}
 
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ import static com.wl4g.dopaas.umc.config.UmcAlarmAutoConfiguration.BEAN_DEFAULT_
 import java.util.Map;
 import java.util.Properties;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -42,6 +43,9 @@ import com.wl4g.dopaas.umc.receiver.HttpMetricReceiver;
 import com.wl4g.dopaas.umc.receiver.KafkaMetricReceiver;
 import com.wl4g.dopaas.umc.store.MetricStore;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
 /**
  * UMC receiver auto configuration
  * 
@@ -70,8 +74,8 @@ public class UmcReceiveAutoConfiguration extends PrefixHandlerMappingSupport {
 	@Bean(BEAN_HTTP_RECEIVER)
 	@EnableHttpCollectReceiver
 	public HttpMetricReceiver httpCollectReceiver(@Qualifier(BEAN_DEFAULT_VALVE_ALERTER) IndicatorsValveAlerter alerter,
-			MetricStore store) {
-		return new HttpMetricReceiver(alerter, store);
+			MetricStore store, ReceiverProperties conf, ObjectProvider<MeterRegistry> registry) {
+		return new HttpMetricReceiver(alerter, store, conf.getHttp(), registry.getIfAvailable(() -> Metrics.globalRegistry));
 	}
 
 	@Bean
@@ -87,8 +91,8 @@ public class UmcReceiveAutoConfiguration extends PrefixHandlerMappingSupport {
 	@Bean(BEAN_KAFKA_RECEIVER)
 	@EnableKafkaCollectReceiver
 	public KafkaMetricReceiver kafkaCollectReceiver(@Qualifier(BEAN_DEFAULT_VALVE_ALERTER) IndicatorsValveAlerter alerter,
-			MetricStore store) {
-		return new KafkaMetricReceiver(alerter, store);
+			MetricStore store, ReceiverProperties conf, ObjectProvider<MeterRegistry> registry) {
+		return new KafkaMetricReceiver(alerter, store, conf.getKafka(), registry.getIfAvailable(() -> Metrics.globalRegistry));
 	}
 
 	@Bean(BEAN_KAFKA_BATCH_FACTORY)
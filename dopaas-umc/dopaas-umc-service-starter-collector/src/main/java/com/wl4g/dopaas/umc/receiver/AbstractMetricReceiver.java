@@ -61,6 +61,28 @@ public abstract class AbstractMetricReceiver implements MetricReceiver {
 		store.save(aggregate);
 	}
 
+	/**
+	 * Storage and alarm the group of metric aggregates.
+	 * 
+	 * @param group
+	 */
+	protected void ingest(List<MetricAggregate> group) {
+		try {
+			// Storage metrics.
+			store.batchSave(group);
+		} catch (Exception e) {
+			log.error("Failed to storage metric aggregates.", e);
+		}
+		for (MetricAggregate aggregate : group) {
+			try {
+				// Metrics alarm.
+				alarm(aggregate);
+			} catch (Exception e) {
+				log.error("Failed to alarm metric aggregate.", e);
+			}
+		}
+	}
+
 	/**
 	 * Alarm metrics aggregate.
 	 * 
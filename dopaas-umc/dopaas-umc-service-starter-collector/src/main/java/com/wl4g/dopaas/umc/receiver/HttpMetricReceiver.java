@@ -16,17 +16,46 @@
 package com.wl4g.dopaas.umc.receiver;
 
 import static com.wl4g.dopaas.common.constant.UmcConstants.URI_HTTP_RECEIVER_ENDPOINT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
-import org.springframework.web.bind.annotation.RequestBody;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
 import com.wl4g.dopaas.umc.alarm.alerting.IndicatorsValveAlerter;
+import com.wl4g.dopaas.umc.config.ReceiverProperties.HttpReceiverProperties;
 import com.wl4g.dopaas.umc.store.MetricStore;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
- * HTTP collection receiver
+ * HTTP collection receiver. The body is read with the servlet non-blocking
+ * {@link ReadListener} into the pooled buffers and decoded incrementally, the
+ * request is acknowledged as soon as the decoded metrics are enqueued into the
+ * bounded ingest queue, the storage and alarm are executed on the ingest
+ * workers. When the ingest queue is saturated, responds 429 with Retry-After,
+ * so that the servlet threads are never occupied by the slow storage.
  * 
  * @author wangl.sir
  * @version v1.0 2019年6月17日
@@ -34,27 +63,254 @@ import com.wl4g.dopaas.umc.store.MetricStore;
  */
 @ResponseBody
 @com.wl4g.dopaas.umc.annotation.HttpCollectReceiver
-public class HttpMetricReceiver extends AbstractMetricReceiver {
+public class HttpMetricReceiver extends AbstractMetricReceiver implements DisposableBean {
+
+	final public static String METRIC_INGEST_RECORDS = "umc.receiver.http.ingest.records";
+	final public static String METRIC_INGEST_REJECTED = "umc.receiver.http.ingest.rejected";
+	final public static String METRIC_INGEST_FAILURES = "umc.receiver.http.ingest.failures";
+	final public static String METRIC_INGEST_ABORTED = "umc.receiver.http.ingest.aborted";
+
+	/** Content type parameter of length delimited messages body. */
+	final public static String DELIMITED_ENCODING = "encoding=delimited";
+
+	final public static int SC_TOO_MANY_REQUESTS = 429;
+
+	/** HTTP receiver configuration. */
+	final protected HttpReceiverProperties config;
 
-	public HttpMetricReceiver(IndicatorsValveAlerter alerter, MetricStore store) {
+	/** Bounded worker of ingest requests. */
+	final protected ThreadPoolExecutor ingestWorker;
+
+	/** Pooled buffers of body reading. */
+	final protected BlockingQueue<byte[]> bufferPool;
+
+	/** Ingested records counter(throughput). */
+	final protected Counter ingestCounter;
+
+	/** Rejected requests counter of ingest queue saturated. */
+	final protected Counter rejectedCounter;
+
+	/** Failure(unparsable) requests counter. */
+	final protected Counter failureCounter;
+
+	/** Aborted(timeout or broken) requests counter. */
+	final protected Counter abortedCounter;
+
+	public HttpMetricReceiver(IndicatorsValveAlerter alerter, MetricStore store, HttpReceiverProperties config,
+			MeterRegistry registry) {
 		super(alerter, store);
+		Assert.notNull(config, "HttpReceiverProperties must not be null.");
+		Assert.notNull(registry, "MeterRegistry must not be null.");
+		Assert.isTrue(config.getIngestThreads() > 0, "Ingest threads must be greater than 0.");
+		Assert.isTrue(config.getIngestQueueSize() > 0, "Ingest queue size must be greater than 0.");
+		Assert.isTrue(config.getReadBufferSize() > 0, "Read buffer size must be greater than 0.");
+		this.config = config;
+
+		final AtomicInteger counter = new AtomicInteger(0);
+		this.ingestWorker = new ThreadPoolExecutor(config.getIngestThreads(), config.getIngestThreads(), 0L, MILLISECONDS,
+				new ArrayBlockingQueue<>(config.getIngestQueueSize()), (runnable) -> {
+					Thread t = new Thread(runnable, "http-metric-ingest-" + counter.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		this.bufferPool = new ArrayBlockingQueue<>(Math.max(1, config.getReadBufferPoolSize()));
+
+		this.ingestCounter = Counter.builder(METRIC_INGEST_RECORDS).description("Ingested metric records of http receiver")
+				.register(registry);
+		this.rejectedCounter = Counter.builder(METRIC_INGEST_REJECTED)
+				.description("Rejected requests of http receiver ingest queue saturated").register(registry);
+		this.failureCounter = Counter.builder(METRIC_INGEST_FAILURES)
+				.description("Unparsable metric requests of http receiver").register(registry);
+		this.abortedCounter = Counter.builder(METRIC_INGEST_ABORTED)
+				.description("Timed out or broken metric requests of http receiver").register(registry);
 	}
 
 	/**
 	 * Receiving of HTTP metrics message.
 	 */
 	@RequestMapping(URI_HTTP_RECEIVER_ENDPOINT)
-	public void metricReceive(@RequestBody byte[] body) {
+	public void metricReceive(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		// Fast reject before reading the body.
+		if (ingestWorker.getQueue().remainingCapacity() == 0) {
+			rejected(response);
+			return;
+		}
+		if (request.getContentLengthLong() > config.getMaxBodySize()) {
+			response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+			return;
+		}
+
+		AsyncContext async = request.startAsync();
+		async.setTimeout(config.getAsyncTimeoutMs());
+		ServletInputStream in = request.getInputStream();
+		MetricReadListener listener = new MetricReadListener(async, in, isDelimited(request));
+		async.addListener(listener);
+		in.setReadListener(listener);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		ingestWorker.shutdown();
+	}
+
+	/**
+	 * Enqueue the decoded metrics into ingest queue.
+	 * 
+	 * @param aggregates
+	 * @return Returns false if the ingest queue is saturated.
+	 */
+	protected boolean enqueue(List<MetricAggregate> aggregates) {
+		if (aggregates.isEmpty()) {
+			return true;
+		}
 		try {
-			MetricAggregate aggregate = MetricAggregate.parseFrom(body);
-			// Storage metrics.
-			putMetrics(aggregate);
+			ingestWorker.execute(() -> {
+				ingest(aggregates);
+				ingestCounter.increment(aggregates.size());
+			});
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	private void rejected(HttpServletResponse response) {
+		rejectedCounter.increment();
+		response.setStatus(SC_TOO_MANY_REQUESTS);
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()));
+	}
+
+	private byte[] borrowBuffer() {
+		byte[] buffer = bufferPool.poll();
+		return (buffer != null) ? buffer : new byte[config.getReadBufferSize()];
+	}
+
+	private static boolean isDelimited(HttpServletRequest request) {
+		String contentType = request.getContentType();
+		return contentType != null && contentType.replace(" ", "").contains(DELIMITED_ENCODING);
+	}
+
+	/**
+	 * Non-blocking reading and decoding of metrics body. It also listens the
+	 * async context, so that the pooled buffer is returned when the request
+	 * is timed out or broken. The reading callbacks and the async callbacks
+	 * may be called on different container threads, so they are synchronized
+	 * on the listener.
+	 */
+	class MetricReadListener implements ReadListener, AsyncListener {
+
+		final private AsyncContext async;
+		final private ServletInputStream in;
+		final private MetricAggregateDecoder decoder;
+		private byte[] buffer;
+		private long received;
+		private boolean done;
+
+		MetricReadListener(AsyncContext async, ServletInputStream in, boolean delimited) {
+			this.async = async;
+			this.in = in;
+			this.decoder = new MetricAggregateDecoder(delimited, config.getMaxMessageSize());
+			this.buffer = borrowBuffer();
+		}
+
+		@Override
+		public synchronized void onDataAvailable() throws IOException {
+			try {
+				int n;
+				while (!done && in.isReady() && (n = in.read(buffer)) != -1) {
+					if ((received += n) > config.getMaxBodySize()) {
+						complete(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+						return;
+					}
+					decoder.decode(buffer, 0, n);
+				}
+			} catch (InvalidProtocolBufferException e) {
+				failureCounter.increment();
+				log.warn("Failed to decode metric message. - {}", e.getMessage());
+				complete(HttpServletResponse.SC_BAD_REQUEST);
+			}
+		}
+
+		@Override
+		public synchronized void onAllDataRead() throws IOException {
+			if (done) {
+				return;
+			}
+			try {
+				if (enqueue(decoder.finish())) {
+					complete(HttpServletResponse.SC_OK);
+				} else {
+					rejected((HttpServletResponse) async.getResponse());
+					complete(SC_TOO_MANY_REQUESTS);
+				}
+			} catch (InvalidProtocolBufferException e) {
+				failureCounter.increment();
+				log.warn("Failed to decode metric message. - {}", e.getMessage());
+				complete(HttpServletResponse.SC_BAD_REQUEST);
+			}
+		}
+
+		@Override
+		public synchronized void onError(Throwable t) {
+			if (!done) {
+				abortedCounter.increment();
+				log.error("Failed to receive metric body.", t);
+			}
+			complete(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		}
+
+		@Override
+		public synchronized void onTimeout(AsyncEvent event) throws IOException {
+			if (!done) {
+				abortedCounter.increment();
+				log.warn("Timeout receiving metric body after {}ms, received: {}bytes", config.getAsyncTimeoutMs(), received);
+			}
+			complete(HttpServletResponse.SC_REQUEST_TIMEOUT);
+		}
+
+		@Override
+		public synchronized void onError(AsyncEvent event) throws IOException {
+			if (!done) {
+				abortedCounter.increment();
+				log.warn("Failed to receive metric body, received: {}bytes. - {}", received, event.getThrowable());
+			}
+			complete(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		}
 
-			// Metrics alarm.
-			alarm(aggregate);
-		} catch (Exception e) {
-			log.error("Failed to receive metric handling.", e);
+		@Override
+		public synchronized void onComplete(AsyncEvent event) throws IOException {
+			// Completed by the container(e.g. disconnected) without reading.
+			if (!done) {
+				done = true;
+				release();
+			}
 		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+		}
+
+		private void complete(int status) {
+			if (done) {
+				return;
+			}
+			done = true;
+			release();
+			try {
+				((HttpServletResponse) async.getResponse()).setStatus(status);
+				async.complete();
+			} catch (IllegalStateException e) { // Timeout or disconnected
+				log.debug("Async context already completed. - {}", e.getMessage());
+			}
+		}
+
+		private void release() {
+			if (buffer != null) {
+				bufferPool.offer(buffer);
+				buffer = null;
+			}
+		}
+
 	}
 
-}
\ No newline at end of file
+}
@@ -17,19 +17,45 @@ package com.wl4g.dopaas.umc.receiver;
 
 import static com.wl4g.dopaas.common.constant.UmcConstants.TOPIC_KAFKA_RECEIVE_PATTERN;
 import static com.wl4g.dopaas.umc.config.UmcReceiveAutoConfiguration.BEAN_KAFKA_BATCH_FACTORY;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.utils.Bytes;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.util.Assert;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
 import com.wl4g.dopaas.umc.alarm.alerting.IndicatorsValveAlerter;
+import com.wl4g.dopaas.umc.config.ReceiverProperties.KafkaReceiverProperties;
 import com.wl4g.dopaas.umc.store.MetricStore;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * KAFKA collection receiver
  *
@@ -37,14 +63,97 @@ import com.wl4g.dopaas.umc.store.MetricStore;
  * @version v1.0 2019年6月17日
  * @since
  */
-public class KafkaMetricReceiver extends AbstractMetricReceiver {
+public class KafkaMetricReceiver extends AbstractMetricReceiver implements ConsumerSeekAware, DisposableBean {
+
+	final public static String METRIC_INGEST_RECORDS = "umc.receiver.kafka.ingest.records";
+	final public static String METRIC_INGEST_FAILURES = "umc.receiver.kafka.ingest.failures";
+	final public static String METRIC_INGEST_LAG = "umc.receiver.kafka.ingest.lag";
+	final public static String METRIC_INGEST_REWINDS = "umc.receiver.kafka.ingest.rewinds";
+
+	/** KAFKA receiver configuration. */
+	final protected KafkaReceiverProperties config;
+
+	/** Bounded worker of batch ingest groups. */
+	final protected ThreadPoolExecutor ingestWorker;
+
+	/** Ingested records counter(throughput). */
+	final protected Counter ingestCounter;
+
+	/** Failure(unparsable) records counter. */
+	final protected Counter failureCounter;
+
+	/** Lag of between record produced and ingested. */
+	final protected Timer lagTimer;
+
+	/** Rewound(not acknowledged, to be re-delivered) records counter. */
+	final protected Counter rewindCounter;
+
+	/** Scheduler of flushing the lingered batch. */
+	final protected ScheduledExecutorService flusher;
+
+	/** Flushing lock, the batches are ingested and acknowledged in order. */
+	final private ReentrantLock flushLock = new ReentrantLock();
+
+	/** Received records of the next batch. */
+	private List<ConsumerRecord<byte[], Bytes>> pendingRecords = new ArrayList<>();
+
+	/** Acknowledgments of the received records of the next batch. */
+	private List<Acknowledgment> pendingAcks = new ArrayList<>();
 
-	public KafkaMetricReceiver(IndicatorsValveAlerter alerter, MetricStore store) {
+	/** Received time of the first records of the next batch. */
+	private long pendingSince;
+
+	/** Seek callbacks of the assigned partitions. */
+	final private Map<TopicPartition, ConsumerSeekCallback> seekCallbacks = new ConcurrentHashMap<>();
+
+	/**
+	 * Rewinding offsets of partitions, the records fetched before the seek
+	 * took effect are dropped without acknowledging.
+	 */
+	final private Map<TopicPartition, Long> rewinds = new HashMap<>();
+
+	public KafkaMetricReceiver(IndicatorsValveAlerter alerter, MetricStore store, KafkaReceiverProperties config,
+			MeterRegistry registry) {
 		super(alerter, store);
+		Assert.notNull(config, "KafkaReceiverProperties must not be null.");
+		Assert.notNull(registry, "MeterRegistry must not be null.");
+		Assert.isTrue(config.getIngestThreads() > 0, "Ingest threads must be greater than 0.");
+		Assert.isTrue(config.getIngestQueueSize() > 0, "Ingest queue size must be greater than 0.");
+		Assert.isTrue(config.getIngestBatchSize() > 0, "Ingest batch size must be greater than 0.");
+		Assert.isTrue(config.getIngestLingerMs() >= 0, "Ingest linger must not be less than 0.");
+		this.config = config;
+
+		final AtomicInteger counter = new AtomicInteger(0);
+		this.ingestWorker = new ThreadPoolExecutor(config.getIngestThreads(), config.getIngestThreads(), 0L, MILLISECONDS,
+				new ArrayBlockingQueue<>(config.getIngestQueueSize()), (runnable) -> {
+					Thread t = new Thread(runnable, "kafka-metric-ingest-" + counter.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+		this.ingestCounter = Counter.builder(METRIC_INGEST_RECORDS).description("Ingested metric records of kafka receiver")
+				.register(registry);
+		this.failureCounter = Counter.builder(METRIC_INGEST_FAILURES)
+				.description("Unparsable metric records of kafka receiver").register(registry);
+		this.lagTimer = Timer.builder(METRIC_INGEST_LAG).description("Lag of metric records produced to ingested")
+				.publishPercentiles(0.5, 0.99).register(registry);
+		this.rewindCounter = Counter.builder(METRIC_INGEST_REWINDS)
+				.description("Rewound metric records of kafka receiver, e.g. timed-out ingest").register(registry);
+
+		this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread t = new Thread(runnable, "kafka-metric-flusher");
+			t.setDaemon(true);
+			return t;
+		});
+		if (config.getIngestLingerMs() > 0) {
+			long period = Math.max(1L, config.getIngestLingerMs() / 2);
+			flusher.scheduleWithFixedDelay(() -> flush(false), period, period, MILLISECONDS);
+		}
 	}
 
 	/**
-	 * Receiving consumer messages on multiple topics
+	 * Receiving consumer messages on multiple topics, the records are
+	 * ingested in batch when the batch size is reached or lingered.
 	 *
 	 * @param records
 	 * @param ack
@@ -59,36 +168,228 @@ public class KafkaMetricReceiver extends AbstractMetricReceiver {
 				log.info("Receive metric records size - {}", records.size());
 			}
 
-			doProcess(records, new MultiAcknowledgmentState(ack));
+			boolean full;
+			synchronized (this) {
+				if (isRewinding(records)) {
+					log.warn("Dropped metric records: {}, fetched before rewinding of partitions: {}", records.size(),
+							rewinds);
+					return;
+				}
+				if (pendingAcks.isEmpty()) {
+					pendingSince = System.currentTimeMillis();
+				}
+				pendingRecords.addAll(records);
+				pendingAcks.add(ack);
+				full = pendingRecords.size() >= config.getIngestBatchSize() || config.getIngestLingerMs() <= 0;
+			}
+			if (full) {
+				flush(true);
+			}
 		} catch (Exception e) {
-			log.error(String.format("Failed to receive process for ", records.size()), e);
+			log.error(String.format("Failed to receive process for %s", records.size()), e);
+		}
+	}
+
+	@Override
+	public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+		// Since spring-kafka 2.3 the seeks can be performed from any thread,
+		// they are queued and processed on the consumer thread.
+		assignments.keySet().forEach(tp -> seekCallbacks.put(tp, callback));
+	}
+
+	@Override
+	public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+		seekCallbacks.keySet().removeAll(partitions);
+		synchronized (this) {
+			// The new owner starts from the committed offsets.
+			rewinds.keySet().removeAll(partitions);
 		}
 	}
 
+	@Override
+	public void destroy() throws Exception {
+		flusher.shutdown();
+		flush(true);
+		ingestWorker.shutdown();
+	}
+
 	/**
-	 * UMC agent metric processing.
+	 * Flushing the received records as one batch ingest.
+	 *
+	 * @param force
+	 *            Flush even if the batch has not lingered enough.
+	 */
+	protected void flush(boolean force) {
+		flushLock.lock();
+		try {
+			List<ConsumerRecord<byte[], Bytes>> records;
+			List<Acknowledgment> acks;
+			synchronized (this) {
+				if (pendingAcks.isEmpty()
+						|| (!force && System.currentTimeMillis() - pendingSince < config.getIngestLingerMs())) {
+					return;
+				}
+				records = pendingRecords;
+				acks = pendingAcks;
+				pendingRecords = new ArrayList<>(records.size());
+				pendingAcks = new ArrayList<>(acks.size());
+			}
+			doProcess(records, new MultiAcknowledgmentState(acks));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			log.error("Failed to flush metric records.", e);
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * UMC agent metric processing. The records are grouped by host and
+	 * endpoint, each group is saved in one batch and alarmed on the ingest
+	 * worker, and the batch will be acknowledged (offsets committed) only
+	 * after all groups have been stored.
 	 *
 	 * @param records
 	 * @param state
+	 * @throws InterruptedException
+	 */
+	private void doProcess(List<ConsumerRecord<byte[], Bytes>> records, MultiAcknowledgmentState state)
+			throws InterruptedException {
+		Map<String, List<MetricAggregate>> groups = parseGrouping(records);
+
+		CountDownLatch latch = new CountDownLatch(groups.size());
+		List<Future<?>> futures = new ArrayList<>(groups.size());
+		for (List<MetricAggregate> group : groups.values()) {
+			futures.add(ingestWorker.submit(() -> {
+				try {
+					doIngest(group);
+				} finally {
+					latch.countDown();
+				}
+			}));
+		}
+		if (!latch.await(config.getIngestTimeoutMs(), MILLISECONDS)) {
+			futures.forEach(f -> f.cancel(true));
+			// The batch and the pending records received after it are not
+			// acknowledged, otherwise the later acknowledgments would commit
+			// the offsets past them, so rewind all of them to be re-delivered.
+			Map<TopicPartition, Long> offsets;
+			synchronized (this) {
+				List<ConsumerRecord<byte[], Bytes>> rewound = new ArrayList<>(records);
+				rewound.addAll(pendingRecords);
+				pendingRecords = new ArrayList<>();
+				pendingAcks = new ArrayList<>();
+				offsets = firstOffsets(rewound);
+				rewind(offsets);
+				rewindCounter.increment(rewound.size());
+			}
+			log.error("Timeout of ingest metric records: {}, rewind to offsets: {}", records.size(), offsets);
+			return;
+		}
+
+		// Lag of records produced to ingested.
+		long now = System.currentTimeMillis();
+		for (ConsumerRecord<byte[], Bytes> record : records) {
+			if (record.timestamp() > 0) {
+				lagTimer.record(Math.max(0, now - record.timestamp()), MILLISECONDS);
+			}
+		}
+		state.completed();
+	}
+
+	/**
+	 * Check whether the records of rewinding partitions were fetched before
+	 * the seek took effect (i.e. beyond the rewinding offset). Acknowledging
+	 * them would commit the offsets past the rewound records, so that all the
+	 * records are dropped and rewound as well. Must be called under the lock.
+	 *
+	 * @param records
+	 * @return
+	 */
+	private boolean isRewinding(List<ConsumerRecord<byte[], Bytes>> records) {
+		if (rewinds.isEmpty()) {
+			return false;
+		}
+		Map<TopicPartition, Long> offsets = firstOffsets(records);
+		for (Entry<TopicPartition, Long> ent : offsets.entrySet()) {
+			Long rewind = rewinds.get(ent.getKey());
+			if (rewind != null && ent.getValue() > rewind) {
+				rewind(offsets);
+				rewindCounter.increment(records.size());
+				return true;
+			}
+		}
+		// Re-delivered from the rewinding offsets.
+		rewinds.keySet().removeAll(offsets.keySet());
+		return false;
+	}
+
+	/**
+	 * Seek the partitions back to the offsets. Must be called under the lock.
+	 *
+	 * @param offsets
 	 */
-	private void doProcess(List<ConsumerRecord<byte[], Bytes>> records, MultiAcknowledgmentState state) {
+	private void rewind(Map<TopicPartition, Long> offsets) {
+		for (Entry<TopicPartition, Long> ent : offsets.entrySet()) {
+			long offset = rewinds.merge(ent.getKey(), ent.getValue(), Math::min);
+			ConsumerSeekCallback callback = seekCallbacks.get(ent.getKey());
+			if (callback != null) {
+				callback.seek(ent.getKey().topic(), ent.getKey().partition(), offset);
+			}
+		}
+	}
+
+	/**
+	 * First offsets of partitions of the records.
+	 *
+	 * @param records
+	 * @return
+	 */
+	private static Map<TopicPartition, Long> firstOffsets(List<ConsumerRecord<byte[], Bytes>> records) {
+		Map<TopicPartition, Long> offsets = new HashMap<>();
+		for (ConsumerRecord<byte[], Bytes> record : records) {
+			offsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::min);
+		}
+		return offsets;
+	}
+
+	/**
+	 * Parse metric records and grouping by host and endpoint.
+	 *
+	 * @param records
+	 * @return
+	 */
+	private Map<String, List<MetricAggregate>> parseGrouping(List<ConsumerRecord<byte[], Bytes>> records) {
+		Map<String, List<MetricAggregate>> groups = new LinkedHashMap<>();
 		for (ConsumerRecord<byte[], Bytes> record : records) {
+			if (record.value() == null) {
+				continue;
+			}
 			try {
+				// Bytes#get() is the backing array without copying.
 				MetricAggregate aggregate = MetricAggregate.parseFrom(record.value().get());
 				if (log.isDebugEnabled()) {
 					log.debug("Put metric aggregate for - {}", aggregate);
 				}
-
-				// Storage metrics.
-				putMetrics(aggregate);
-
-				// Metrics alarm.
-				alarm(aggregate);
+				String key = aggregate.getHost().concat("@").concat(aggregate.getEndpoint());
+				groups.computeIfAbsent(key, k -> new ArrayList<>(4)).add(aggregate);
 			} catch (InvalidProtocolBufferException e) {
+				failureCounter.increment();
 				log.error("Failed to parse metric message.", e);
 			}
 		}
-		state.completed();
+		return groups;
+	}
+
+	/**
+	 * Storage and alarm the group of metric aggregates.
+	 *
+	 * @param group
+	 */
+	private void doIngest(List<MetricAggregate> group) {
+		ingest(group);
+		ingestCounter.increment(group.size());
 	}
 
 	/**
@@ -100,17 +401,24 @@ public class KafkaMetricReceiver extends AbstractMetricReceiver {
 	 */
 	public static class MultiAcknowledgmentState {
 
-		final private Acknowledgment ack;
+		final private List<Acknowledgment> acks;
 
 		public MultiAcknowledgmentState(Acknowledgment ack) {
+			this(singletonList(ack));
+		}
+
+		public MultiAcknowledgmentState(List<Acknowledgment> acks) {
 			super();
-			this.ack = ack;
+			this.acks = acks;
 		}
 
 		public void completed() {
-			ack.acknowledge();
+			// In received order, the later offsets are committed last.
+			for (Acknowledgment ack : acks) {
+				ack.acknowledge();
+			}
 		}
 
 	}
 
-}
\ No newline at end of file
+}
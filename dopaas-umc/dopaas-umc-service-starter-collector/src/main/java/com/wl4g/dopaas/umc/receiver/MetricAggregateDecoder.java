@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.receiver;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
+
+/**
+ * Incremental decoder of {@link MetricAggregate} messages, the body chunks are
+ * fed as soon as they arrived, so that the whole body is never buffered.
+ * Supported body encodings:
+ * <ul>
+ * <li>delimited: varint length prefixed messages (e.g.
+ * {@link MetricAggregate#writeDelimitedTo}), the message that is entirely in
+ * one chunk is parsed from the chunk without copying.</li>
+ * <li>single: the whole body is one message (the legacy agents).</li>
+ * </ul>
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class MetricAggregateDecoder {
+
+	/** Whether the body is length delimited messages. */
+	final private boolean delimited;
+
+	/** Maximum size of one message. */
+	final private int maxMessageSize;
+
+	/** Decoded messages. */
+	final private List<MetricAggregate> aggregates = new ArrayList<>(4);
+
+	/** Bytes of the message that spans chunks. */
+	private byte[] pending = new byte[0];
+	private int pendingSize = 0;
+
+	/** Size of the current message, -1 if reading the length prefix. */
+	private int messageSize = -1;
+	private int varintValue = 0;
+	private int varintShift = 0;
+
+	public MetricAggregateDecoder(boolean delimited, int maxMessageSize) {
+		Assert.isTrue(maxMessageSize > 0, "Max message size must be greater than 0.");
+		this.delimited = delimited;
+		this.maxMessageSize = maxMessageSize;
+	}
+
+	/**
+	 * Decode body chunk.
+	 *
+	 * @param buf
+	 * @param off
+	 * @param len
+	 * @throws InvalidProtocolBufferException
+	 */
+	public void decode(byte[] buf, int off, int len) throws InvalidProtocolBufferException {
+		if (!delimited) {
+			append(buf, off, len);
+			return;
+		}
+		final int end = off + len;
+		while (off < end) {
+			// Length prefix.
+			if (messageSize < 0) {
+				byte b = buf[off++];
+				varintValue |= (b & 0x7F) << varintShift;
+				if ((b & 0x80) != 0) {
+					if ((varintShift += 7) > 28) {
+						throw new InvalidProtocolBufferException("Malformed length prefix of metric message.");
+					}
+					continue;
+				}
+				messageSize = varintValue;
+				varintValue = varintShift = 0;
+				if (messageSize < 0 || messageSize > maxMessageSize) {
+					throw new InvalidProtocolBufferException(
+							String.format("Metric message size %s exceeds the limit %s.", messageSize, maxMessageSize));
+				}
+				if (messageSize == 0) {
+					completed(MetricAggregate.getDefaultInstance());
+				}
+				continue;
+			}
+
+			// Message bytes.
+			int n = min(messageSize - pendingSize, end - off);
+			if (pendingSize == 0 && n == messageSize) {
+				completed(MetricAggregate.parser().parseFrom(buf, off, n));
+			} else {
+				append(buf, off, n);
+				if (pendingSize == messageSize) {
+					completed(MetricAggregate.parser().parseFrom(pending, 0, pendingSize));
+				}
+			}
+			off += n;
+		}
+	}
+
+	/**
+	 * End of body, gets all decoded messages.
+	 *
+	 * @return
+	 * @throws InvalidProtocolBufferException
+	 */
+	public List<MetricAggregate> finish() throws InvalidProtocolBufferException {
+		if (!delimited) {
+			aggregates.add(MetricAggregate.parser().parseFrom(pending, 0, pendingSize));
+			pendingSize = 0;
+		} else if (messageSize >= 0 || varintShift > 0) {
+			throw new InvalidProtocolBufferException("Truncated metric message.");
+		}
+		return aggregates;
+	}
+
+	private void completed(MetricAggregate aggregate) {
+		aggregates.add(aggregate);
+		messageSize = -1;
+		pendingSize = 0;
+	}
+
+	private void append(byte[] buf, int off, int len) throws InvalidProtocolBufferException {
+		if (pendingSize + len > maxMessageSize) {
+			throw new InvalidProtocolBufferException(String.format("Metric message exceeds the limit %s.", maxMessageSize));
+		}
+		if (pendingSize + len > pending.length) {
+			pending = Arrays.copyOf(pending, min(maxMessageSize, max(pendingSize + len, pending.length * 2)));
+		}
+		System.arraycopy(buf, off, pending, pendingSize, len);
+		pendingSize += len;
+	}
+
+}
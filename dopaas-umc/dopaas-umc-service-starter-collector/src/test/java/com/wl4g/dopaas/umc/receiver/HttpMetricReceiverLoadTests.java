@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.receiver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.Metric;
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
+import com.wl4g.dopaas.umc.alarm.alerting.IndicatorsValveAlerter;
+import com.wl4g.dopaas.umc.config.ReceiverProperties.HttpReceiverProperties;
+import com.wl4g.dopaas.umc.store.MetricStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Load tests of {@link HttpMetricReceiver} against the legacy blocking
+ * receiving(body binding, storage and alarm on the servlet thread), on the
+ * local embedded tomcat with few servlet threads and the slow mock storage.
+ * Compares throughput, tail latency, and the latency of health probes on the
+ * same tomcat during the load.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class HttpMetricReceiverLoadTests {
+
+	final static int SERVLET_THREADS = 16;
+	final static int CLIENTS = 64;
+	final static int REQUESTS_PER_CLIENT = 200;
+	final static long STORE_LATENCY_MS = 5L;
+	final static int METRICS_PER_AGGREGATE = 50;
+
+	public static void main(String[] args) throws Exception {
+		MetricStore store = aggregate -> {
+			try {
+				Thread.sleep(STORE_LATENCY_MS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return true;
+		};
+		IndicatorsValveAlerter alerter = wrap -> {
+		};
+		HttpReceiverProperties config = new HttpReceiverProperties();
+		config.setIngestThreads(SERVLET_THREADS);
+		HttpMetricReceiver receiver = new HttpMetricReceiver(alerter, store, config, new SimpleMeterRegistry());
+
+		Tomcat tomcat = new Tomcat();
+		tomcat.setBaseDir(Files.createTempDirectory("umc-receiver-tomcat").toString());
+		tomcat.setPort(0);
+		tomcat.getConnector().setProperty("maxThreads", String.valueOf(SERVLET_THREADS));
+		Context context = tomcat.addContext("", null);
+		addServlet(context, "/legacy", new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				// Same as previous: binding whole body, storage and alarm.
+				byte[] body = readFully(req.getInputStream());
+				MetricAggregate aggregate = MetricAggregate.parseFrom(body);
+				store.save(aggregate);
+				receiver.alarm(aggregate);
+			}
+		});
+		addServlet(context, "/async", new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				receiver.metricReceive(req, resp);
+			}
+		});
+		addServlet(context, "/health", new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+				resp.setStatus(HttpServletResponse.SC_OK);
+			}
+		});
+		tomcat.start();
+		String baseUri = "http://127.0.0.1:" + tomcat.getConnector().getLocalPort();
+
+		byte[] body = newAggregate().toByteArray();
+		load(baseUri, "/legacy", body); // Warm-up
+		load(baseUri, "/legacy", body);
+		load(baseUri, "/async", body);
+		receiver.destroy();
+		tomcat.stop();
+		tomcat.destroy();
+	}
+
+	private static void load(String baseUri, String path, byte[] body) throws Exception {
+		int total = CLIENTS * REQUESTS_PER_CLIENT;
+		long[] latencies = new long[total];
+		AtomicInteger index = new AtomicInteger(0);
+		AtomicLong accepted = new AtomicLong(0);
+		AtomicLong rejected = new AtomicLong(0);
+		AtomicLong failed = new AtomicLong(0);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(CLIENTS);
+		for (int c = 0; c < CLIENTS; c++) {
+			new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+						long begin = System.nanoTime();
+						int status = post(baseUri + path, body);
+						latencies[index.getAndIncrement()] = System.nanoTime() - begin;
+						if (status == 200) {
+							accepted.incrementAndGet();
+						} else if (status == HttpMetricReceiver.SC_TOO_MANY_REQUESTS) {
+							rejected.incrementAndGet();
+						} else {
+							failed.incrementAndGet();
+						}
+					}
+				} catch (Exception e) {
+					e.printStackTrace();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+
+		// Health probes during the load.
+		long begin = System.nanoTime();
+		start.countDown();
+		long maxProbeUs = 0;
+		while (done.getCount() > 0) {
+			long probeBegin = System.nanoTime();
+			get(baseUri + "/health");
+			maxProbeUs = Math.max(maxProbeUs, (System.nanoTime() - probeBegin) / 1000);
+			Thread.sleep(20L);
+		}
+		done.await();
+		long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+
+		long[] sorted = Arrays.copyOf(latencies, index.get());
+		Arrays.sort(sorted);
+		System.out.println(String.format(
+				"%s => requests: %s, cost: %sms, throughput: %s req/s, accepted: %s, rejected(429): %s, failed: %s, p50: %sus, p99: %sus, max: %sus, max health probe: %sus",
+				path, sorted.length, costMs, sorted.length * 1000L / costMs, accepted, rejected, failed,
+				percentile(sorted, 0.5) / 1000, percentile(sorted, 0.99) / 1000, sorted[sorted.length - 1] / 1000,
+				maxProbeUs));
+	}
+
+	private static int post(String uri, byte[] body) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) new URL(uri).openConnection();
+		conn.setRequestMethod("POST");
+		conn.setDoOutput(true);
+		conn.setRequestProperty("Content-Type", "application/x-protobuf");
+		conn.setFixedLengthStreamingMode(body.length);
+		try (OutputStream out = conn.getOutputStream()) {
+			out.write(body);
+		}
+		int status = conn.getResponseCode();
+		drain(status < 400 ? conn.getInputStream() : conn.getErrorStream());
+		return status;
+	}
+
+	private static int get(String uri) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) new URL(uri).openConnection();
+		int status = conn.getResponseCode();
+		drain(conn.getInputStream());
+		return status;
+	}
+
+	private static void addServlet(Context context, String path, HttpServlet servlet) {
+		Wrapper wrapper = Tomcat.addServlet(context, path, servlet);
+		wrapper.setAsyncSupported(true);
+		context.addServletMappingDecoded(path, path);
+	}
+
+	private static MetricAggregate newAggregate() {
+		MetricAggregate.Builder builder = MetricAggregate.newBuilder().setClassify("host").setHost("127.0.0.1")
+				.setEndpoint("9100").setTimestamp(System.currentTimeMillis());
+		for (int i = 0; i < METRICS_PER_AGGREGATE; i++) {
+			builder.addMetrics(Metric.newBuilder().setMetric("node.cpu.usage" + i).setValue(i).putTags("core", "cpu" + i));
+		}
+		return builder.build();
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[8192];
+		for (int n; (n = in.read(buf)) > 0;) {
+			out.write(buf, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+	private static void drain(InputStream in) throws IOException {
+		if (in != null) {
+			try (InputStream _in = in) {
+				readFully(_in);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.receiver;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.After;
+import org.junit.Test;
+
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.Metric;
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
+import com.wl4g.dopaas.umc.config.ReceiverProperties.HttpReceiverProperties;
+import com.wl4g.dopaas.umc.store.MetricStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Correctness of {@link HttpMetricReceiver} on the local embedded tomcat, the
+ * ingesting of accepted bodies, the rejecting of saturated ingest queue and
+ * the timeout of slow bodies.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class HttpMetricReceiverTests {
+
+	private Tomcat tomcat;
+	private HttpMetricReceiver receiver;
+	private String uri;
+
+	@After
+	public void tearDown() throws Exception {
+		if (receiver != null) {
+			receiver.destroy();
+		}
+		if (tomcat != null) {
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+
+	@Test
+	public void ingestAcceptedTest() throws Exception {
+		RecordingStore store = new RecordingStore(null);
+		start(store, new HttpReceiverProperties());
+
+		// Single message body (the legacy agents).
+		assertEquals(200, post(newAggregate("host1").toByteArray(), "application/x-protobuf").getResponseCode());
+
+		// Length delimited messages body.
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		for (int i = 2; i <= 4; i++) {
+			newAggregate("host" + i).writeDelimitedTo(body);
+		}
+		assertEquals(200, post(body.toByteArray(), "application/x-protobuf; encoding=delimited").getResponseCode());
+
+		awaitIngested(4);
+		assertEquals(4, store.aggregates.size());
+		for (int i = 1; i <= 4; i++) {
+			String host = "host" + i;
+			assertTrue(host, store.aggregates.stream().anyMatch(a -> host.equals(a.getHost())));
+		}
+		assertEquals(4, store.aggregates.get(0).getMetricsCount());
+
+		// Unparsable body.
+		assertEquals(400, post(new byte[] { 0x7f, 0x7f, 0x7f }, "application/x-protobuf").getResponseCode());
+		assertEquals(1d, receiver.failureCounter.count(), 0d);
+	}
+
+	@Test
+	public void rejectSaturatedTest() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingStore store = new RecordingStore(release);
+		HttpReceiverProperties config = new HttpReceiverProperties();
+		config.setIngestThreads(1);
+		config.setIngestQueueSize(1);
+		config.setRetryAfterSeconds(3);
+		start(store, config);
+		try {
+			// The only worker is blocked by the first, the second is queued.
+			assertEquals(200, post(newAggregate("host1").toByteArray(), "application/x-protobuf").getResponseCode());
+			assertTrue(store.entered.await(10, TimeUnit.SECONDS));
+			assertEquals(200, post(newAggregate("host2").toByteArray(), "application/x-protobuf").getResponseCode());
+
+			HttpURLConnection conn = post(newAggregate("host3").toByteArray(), "application/x-protobuf");
+			assertEquals(HttpMetricReceiver.SC_TOO_MANY_REQUESTS, conn.getResponseCode());
+			assertEquals("3", conn.getHeaderField("Retry-After"));
+			assertEquals(1d, receiver.rejectedCounter.count(), 0d);
+		} finally {
+			release.countDown();
+		}
+
+		awaitIngested(2);
+		assertEquals(2, store.aggregates.size());
+	}
+
+	@Test
+	public void timeoutSlowBodyTest() throws Exception {
+		HttpReceiverProperties config = new HttpReceiverProperties();
+		config.setAsyncTimeoutMs(200L);
+		start(new RecordingStore(null), config);
+
+		// The body is never completed.
+		String port = uri.substring(uri.lastIndexOf(':') + 1, uri.indexOf('/', uri.lastIndexOf(':')));
+		try (Socket socket = new Socket("127.0.0.1", Integer.parseInt(port))) {
+			socket.setSoTimeout(10_000);
+			OutputStream out = socket.getOutputStream();
+			out.write(("POST /metric HTTP/1.1\r\nHost: 127.0.0.1\r\nContent-Type: application/x-protobuf\r\n"
+					+ "Content-Length: 100\r\nConnection: close\r\n\r\n").getBytes(US_ASCII));
+			out.write(new byte[10]);
+			out.flush();
+			String response = new String(readFully(socket.getInputStream()), US_ASCII);
+			assertTrue(response, response.startsWith("HTTP/1.1 408"));
+		}
+
+		// The pooled buffer is returned.
+		assertEquals(1d, receiver.abortedCounter.count(), 0d);
+		assertEquals(1, receiver.bufferPool.size());
+	}
+
+	private void start(MetricStore store, HttpReceiverProperties config) throws Exception {
+		receiver = new HttpMetricReceiver(wrap -> {
+		}, store, config, new SimpleMeterRegistry());
+		tomcat = new Tomcat();
+		tomcat.setBaseDir(Files.createTempDirectory("umc-receiver-tomcat").toString());
+		tomcat.setPort(0);
+		Context context = tomcat.addContext("", null);
+		Wrapper wrapper = Tomcat.addServlet(context, "metric", new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				receiver.metricReceive(req, resp);
+			}
+		});
+		wrapper.setAsyncSupported(true);
+		context.addServletMappingDecoded("/metric", "metric");
+		tomcat.start();
+		uri = "http://127.0.0.1:" + tomcat.getConnector().getLocalPort() + "/metric";
+	}
+
+	private void awaitIngested(int count) throws InterruptedException {
+		for (int i = 0; i < 200 && receiver.ingestCounter.count() < count; i++) {
+			Thread.sleep(50L);
+		}
+		assertEquals(count, receiver.ingestCounter.count(), 0d);
+	}
+
+	private HttpURLConnection post(byte[] body, String contentType) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) new URL(uri).openConnection();
+		conn.setRequestMethod("POST");
+		conn.setDoOutput(true);
+		conn.setRequestProperty("Content-Type", contentType);
+		conn.setFixedLengthStreamingMode(body.length);
+		try (OutputStream out = conn.getOutputStream()) {
+			out.write(body);
+		}
+		conn.getResponseCode();
+		return conn;
+	}
+
+	private static MetricAggregate newAggregate(String host) {
+		MetricAggregate.Builder builder = MetricAggregate.newBuilder().setClassify("host").setHost(host).setEndpoint("9100")
+				.setTimestamp(System.currentTimeMillis());
+		for (int i = 0; i < 4; i++) {
+			builder.addMetrics(Metric.newBuilder().setMetric("node.cpu.usage" + i).setValue(i).putTags("core", "cpu" + i));
+		}
+		return builder.build();
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		for (int n; (n = in.read(buf)) > 0;) {
+			out.write(buf, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Recording storage, optionally blocked until released.
+	 */
+	static class RecordingStore implements MetricStore {
+
+		final List<MetricAggregate> aggregates = new CopyOnWriteArrayList<>();
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release;
+
+		RecordingStore(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public boolean save(MetricAggregate aggregate) {
+			return batchSave(Collections.singletonList(aggregate));
+		}
+
+		@Override
+		public boolean batchSave(List<MetricAggregate> batch) {
+			entered.countDown();
+			if (release != null) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			aggregates.addAll(batch);
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.receiver;
+
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.utils.Bytes;
+
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.Metric;
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
+import com.wl4g.dopaas.umc.config.ReceiverProperties.KafkaReceiverProperties;
+import com.wl4g.dopaas.umc.store.MetricStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmark of {@link KafkaMetricReceiver} over the synthetic protobuf
+ * batches, compares the legacy per-record storage(parse, save and ack on the
+ * consumer thread) with the batched storage of different ingest batch sizes,
+ * on the mock storage that costs a fixed round-trip per call.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class KafkaMetricReceiverBenchmarkTests {
+
+	final static int POLLS = 400;
+	final static int RECORDS_PER_POLL = 50;
+	final static int HOSTS = 10;
+	final static int METRICS_PER_AGGREGATE = 20;
+	final static long STORE_ROUND_TRIP_US = 200L;
+
+	public static void main(String[] args) throws Exception {
+		List<List<ConsumerRecord<byte[], Bytes>>> polls = new ArrayList<>(POLLS);
+		for (int i = 0; i < POLLS; i++) {
+			polls.add(newRecords(i * RECORDS_PER_POLL, RECORDS_PER_POLL));
+		}
+
+		run("warm-up", 500, polls);
+		legacy(polls);
+		run("batch(1)", 1, polls);
+		run("batch(100)", 100, polls);
+		run("batch(500)", 500, polls);
+	}
+
+	private static void run(String name, int batchSize, List<List<ConsumerRecord<byte[], Bytes>>> polls)
+			throws Exception {
+		RoundTripStore store = new RoundTripStore();
+		KafkaReceiverProperties config = new KafkaReceiverProperties();
+		config.setIngestBatchSize(batchSize);
+		config.setIngestLingerMs(60_000L); // Flushed by the batch size only.
+		KafkaMetricReceiver receiver = new KafkaMetricReceiver(wrap -> {
+		}, store, config, new SimpleMeterRegistry());
+		try {
+			AtomicLong acks = new AtomicLong(0);
+			long begin = System.nanoTime();
+			for (List<ConsumerRecord<byte[], Bytes>> records : polls) {
+				receiver.onMetricReceive(records, () -> acks.incrementAndGet());
+			}
+			long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+			long total = (long) POLLS * RECORDS_PER_POLL;
+			System.out.println(String.format(
+					"%s => records: %s, cost: %sms, throughput: %s records/s, store calls: %s, persisted: %s, acks: %s", name,
+					total, costMs, total * 1000L / costMs, store.calls, store.persisted, acks));
+		} finally {
+			receiver.destroy();
+		}
+	}
+
+	private static void legacy(List<List<ConsumerRecord<byte[], Bytes>>> polls) throws Exception {
+		RoundTripStore store = new RoundTripStore();
+		long acks = 0;
+		long begin = System.nanoTime();
+		for (List<ConsumerRecord<byte[], Bytes>> records : polls) {
+			for (ConsumerRecord<byte[], Bytes> record : records) {
+				store.save(MetricAggregate.parseFrom(record.value().get()));
+			}
+			++acks;
+		}
+		long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		long total = (long) POLLS * RECORDS_PER_POLL;
+		System.out.println(String.format(
+				"legacy => records: %s, cost: %sms, throughput: %s records/s, store calls: %s, persisted: %s, acks: %s", total,
+				costMs, total * 1000L / costMs, store.calls, store.persisted, acks));
+	}
+
+	private static List<ConsumerRecord<byte[], Bytes>> newRecords(int offset, int count) {
+		List<ConsumerRecord<byte[], Bytes>> records = new ArrayList<>(count);
+		for (int i = offset; i < offset + count; i++) {
+			MetricAggregate.Builder builder = MetricAggregate.newBuilder().setClassify("host").setHost("10.0.0." + (i % HOSTS))
+					.setEndpoint("9100").setTimestamp(System.currentTimeMillis());
+			for (int j = 0; j < METRICS_PER_AGGREGATE; j++) {
+				builder.addMetrics(Metric.newBuilder().setMetric("node.cpu.usage" + j).setValue(i + j).putTags("core", "cpu" + j));
+			}
+			records.add(new ConsumerRecord<>("umc_metrics", i % 4, i, null, new Bytes(builder.build().toByteArray())));
+		}
+		return records;
+	}
+
+	/**
+	 * Mock storage that costs a fixed round-trip per call, regardless of the
+	 * count of aggregates written.
+	 */
+	static class RoundTripStore implements MetricStore {
+
+		final AtomicLong calls = new AtomicLong(0);
+		final AtomicLong persisted = new AtomicLong(0);
+
+		@Override
+		public boolean save(MetricAggregate aggregate) {
+			return batchSave(Collections.singletonList(aggregate));
+		}
+
+		@Override
+		public boolean batchSave(List<MetricAggregate> aggregates) {
+			calls.incrementAndGet();
+			parkNanos(STORE_ROUND_TRIP_US * 1000L);
+			persisted.addAndGet(aggregates.size());
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.receiver;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Bytes;
+import org.junit.Test;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.Metric;
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
+import com.wl4g.dopaas.umc.config.ReceiverProperties.KafkaReceiverProperties;
+import com.wl4g.dopaas.umc.store.MetricStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link KafkaMetricReceiverTests}
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月17日
+ * @since
+ */
+public class KafkaMetricReceiverTests {
+
+	@Test
+	public void flushOnBatchSizeTest() throws Exception {
+		RecordingStore store = new RecordingStore();
+		KafkaMetricReceiver receiver = newReceiver(store, 10, 60_000L);
+		try {
+			List<Integer> acked = new CopyOnWriteArrayList<>();
+			receiver.onMetricReceive(newRecords(0, 4), () -> acked.add(store.persisted()));
+			assertEquals(0, store.persisted());
+			assertTrue(acked.isEmpty());
+
+			// Reached the batch size, flushed on the consumer thread.
+			receiver.onMetricReceive(newRecords(4, 6), () -> acked.add(store.persisted()));
+			assertEquals(10, store.persisted());
+			assertEquals(3, store.batches.size()); // Grouped by host@endpoint.
+			assertEquals(2, acked.size());
+			acked.forEach(persisted -> assertEquals(10, (int) persisted));
+			assertEquals(10d, receiver.ingestCounter.count(), 0d);
+		} finally {
+			receiver.destroy();
+		}
+	}
+
+	@Test
+	public void flushOnLingerTest() throws Exception {
+		RecordingStore store = new RecordingStore();
+		KafkaMetricReceiver receiver = newReceiver(store, 1000, 100L);
+		try {
+			CountDownLatch acked = new CountDownLatch(1);
+			long begin = System.currentTimeMillis();
+			receiver.onMetricReceive(newRecords(0, 5), () -> acked.countDown());
+			assertEquals(0, store.persisted());
+
+			// Flushed by the flusher after lingered.
+			assertTrue(acked.await(5, SECONDS));
+			assertTrue(System.currentTimeMillis() - begin >= 100L);
+			assertEquals(5, store.persisted());
+		} finally {
+			receiver.destroy();
+		}
+	}
+
+	@Test
+	public void acknowledgeAfterPersistedTest() throws Exception {
+		CountDownLatch persisting = new CountDownLatch(1);
+		RecordingStore store = new RecordingStore(persisting);
+		KafkaMetricReceiver receiver = newReceiver(store, 1, 0L);
+		try {
+			List<ConsumerRecord<byte[], Bytes>> records = newRecords(0, 3);
+			// Unparsable records are skipped, but still acknowledged.
+			records.add(new ConsumerRecord<>("umc_metrics", 0, 3, null, new Bytes(new byte[] { (byte) 0xff, 0x01 })));
+			List<Integer> acked = new CopyOnWriteArrayList<>();
+			CompletableFuture<?> receiving = CompletableFuture
+					.runAsync(() -> receiver.onMetricReceive(records, () -> acked.add(store.persisted())));
+
+			// The offsets are not committed while the storage is in progress.
+			Thread.sleep(200L);
+			assertTrue(acked.isEmpty());
+			assertEquals(0, store.persisted());
+
+			persisting.countDown();
+			receiving.get(5, SECONDS);
+			assertEquals(1, acked.size());
+			assertEquals(3, (int) acked.get(0));
+			assertEquals(1d, receiver.failureCounter.count(), 0d);
+		} finally {
+			receiver.destroy();
+		}
+	}
+
+	@Test
+	public void rewindTimeoutBatchTest() throws Exception {
+		CountDownLatch persisting = new CountDownLatch(1);
+		RecordingStore store = new RecordingStore(persisting);
+		KafkaReceiverProperties config = newConfig(1, 0L);
+		config.setIngestTimeoutMs(200L);
+		KafkaMetricReceiver receiver = new KafkaMetricReceiver(wrap -> {
+		}, store, config, new SimpleMeterRegistry());
+		List<String> seeks = new CopyOnWriteArrayList<>();
+		receiver.onPartitionsAssigned(Collections.singletonMap(new TopicPartition("umc_metrics", 0), 0L),
+				new RecordingSeekCallback(seeks));
+		try {
+			List<Integer> acked = new CopyOnWriteArrayList<>();
+			// Timed-out, neither acknowledged nor persisted, rewound.
+			receiver.onMetricReceive(newRecords(0, 3), () -> acked.add(0));
+			assertTrue(acked.isEmpty());
+			assertEquals(Collections.singletonList("umc_metrics-0@0"), seeks);
+			persisting.countDown();
+
+			// Fetched before the seek took effect, must not commit past.
+			receiver.onMetricReceive(newRecords(3, 2), () -> acked.add(3));
+			assertTrue(acked.isEmpty());
+			assertEquals(0, store.persisted());
+			assertEquals(2, seeks.size());
+			assertEquals("umc_metrics-0@0", seeks.get(1));
+
+			// Re-delivered.
+			receiver.onMetricReceive(newRecords(0, 5), () -> acked.add(5));
+			assertEquals(Collections.singletonList(5), acked);
+			assertEquals(5, store.persisted());
+			receiver.onMetricReceive(newRecords(5, 1), () -> acked.add(6));
+			assertEquals(2, acked.size());
+			assertEquals(2, seeks.size());
+			assertEquals(5d, receiver.rewindCounter.count(), 0d);
+		} finally {
+			receiver.destroy();
+		}
+	}
+
+	@Test
+	public void destroyFlushPendingTest() throws Exception {
+		RecordingStore store = new RecordingStore();
+		KafkaMetricReceiver receiver = newReceiver(store, 1000, 60_000L);
+		List<Integer> acked = new CopyOnWriteArrayList<>();
+		receiver.onMetricReceive(newRecords(0, 5), () -> acked.add(store.persisted()));
+		assertEquals(0, store.persisted());
+
+		receiver.destroy();
+		assertEquals(5, store.persisted());
+		assertEquals(1, acked.size());
+	}
+
+	private static KafkaMetricReceiver newReceiver(MetricStore store, int batchSize, long lingerMs) {
+		return new KafkaMetricReceiver(wrap -> {
+		}, store, newConfig(batchSize, lingerMs), new SimpleMeterRegistry());
+	}
+
+	private static KafkaReceiverProperties newConfig(int batchSize, long lingerMs) {
+		KafkaReceiverProperties config = new KafkaReceiverProperties();
+		config.setIngestThreads(2);
+		config.setIngestBatchSize(batchSize);
+		config.setIngestLingerMs(lingerMs);
+		return config;
+	}
+
+	private static List<ConsumerRecord<byte[], Bytes>> newRecords(int offset, int count) {
+		List<ConsumerRecord<byte[], Bytes>> records = new ArrayList<>(count);
+		for (int i = offset; i < offset + count; i++) {
+			MetricAggregate aggregate = MetricAggregate.newBuilder().setHost("host" + (i % 3)).setEndpoint("9100")
+					.setTimestamp(System.currentTimeMillis())
+					.addMetrics(Metric.newBuilder().setMetric("node.cpu").setValue(i)).build();
+			records.add(new ConsumerRecord<>("umc_metrics", 0, i, null, new Bytes(aggregate.toByteArray())));
+		}
+		return records;
+	}
+
+	/**
+	 * Metric store of recording the persisted batches.
+	 */
+	static class RecordingStore implements MetricStore {
+
+		final List<List<MetricAggregate>> batches = new CopyOnWriteArrayList<>();
+		final CountDownLatch persisting;
+
+		RecordingStore() {
+			this(new CountDownLatch(0));
+		}
+
+		RecordingStore(CountDownLatch persisting) {
+			this.persisting = persisting;
+		}
+
+		@Override
+		public boolean save(MetricAggregate aggregate) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean batchSave(List<MetricAggregate> aggregates) {
+			try {
+				persisting.await();
+			} catch (InterruptedException e) {
+				// Cancelled of timed-out.
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			batches.add(new ArrayList<>(aggregates));
+			return true;
+		}
+
+		int persisted() {
+			return batches.stream().mapToInt(List::size).sum();
+		}
+
+	}
+
+	/**
+	 * Seek callback of recording the seeks as "topic-partition@offset".
+	 */
+	static class RecordingSeekCallback implements ConsumerSeekCallback {
+
+		final List<String> seeks;
+
+		RecordingSeekCallback(List<String> seeks) {
+			this.seeks = seeks;
+		}
+
+		@Override
+		public void seek(String topic, int partition, long offset) {
+			seeks.add(topic + "-" + partition + "@" + offset);
+		}
+
+		@Override
+		public void seekToBeginning(String topic, int partition) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void seekToEnd(String topic, int partition) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void seekRelative(String topic, int partition, long offset, boolean toCurrent) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void seekToTimestamp(String topic, int partition, long timestamp) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void seekToTimestamp(Collection<TopicPartition> topicPartitions, long timestamp) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
@@ -15,17 +15,21 @@
  */
 package com.wl4g.dopaas.umc.alarm;
 
+import static java.util.Objects.isNull;
+
 import com.wl4g.dopaas.cmdb.service.AppInstanceService;
 import com.wl4g.dopaas.common.bean.umc.*;
 import com.wl4g.dopaas.umc.data.AlarmConfigDao;
 import com.wl4g.dopaas.umc.data.AlarmRecordDao;
 import com.wl4g.dopaas.umc.data.AlarmRecordRuleDao;
+import com.wl4g.dopaas.umc.data.NotificationContactDao;
 import com.wl4g.dopaas.umc.handler.AlarmConfigurer;
 import com.wl4g.iam.common.bean.Contact;
 import com.wl4g.iam.common.bean.NotificationContact;
 import com.wl4g.iam.service.ContactService;
 import com.wl4g.iam.service.NotificationContactService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -43,6 +47,7 @@ public class ServiceRuleConfigurer implements AlarmConfigurer {
 	private @Autowired AlarmConfigDao alarmConfigDao;
 	private @Autowired AlarmRecordDao alarmRecordDao;
 	private @Autowired AlarmRecordRuleDao alarmRecordRuleDao;
+	private @Autowired NotificationContactDao notificationContactDao;
 	private @Autowired ContactService contactService;
 	private @Autowired NotificationContactService notificationContactService;
 	private @Autowired AppInstanceService appInstanceService;
@@ -86,6 +91,45 @@ public class ServiceRuleConfigurer implements AlarmConfigurer {
 		return record;
 	}
 
+	/**
+	 * Batch save alarm records and matched rules, two batch inserts for all
+	 * records in one transaction, so that a failed batch leaves nothing
+	 * behind and can be re-queued as a whole. The ids are assigned only once,
+	 * a retried batch is inserted with the same ids.
+	 */
+	@Override
+	@Transactional
+	public List<AlarmRecord> saveAlarmRecords(List<AlarmRecord> records) {
+		if (records.isEmpty()) {
+			return records;
+		}
+		List<AlarmRecordRule> recordRules = new ArrayList<>(records.size() * 2);
+		Date now = new Date();
+		for (AlarmRecord record : records) {
+			if (isNull(record.getId())) {
+				record.preInsert();
+			}
+			record.setName(record.getAlarmTemplate().getMetric());
+			record.setTemplateId(record.getAlarmTemplate().getId());
+			record.setCreateTime(now);
+			if (record.getAlarmRules() != null) {
+				for (AlarmRule rule : record.getAlarmRules()) {
+					AlarmRecordRule recordRule = new AlarmRecordRule();
+					recordRule.preInsert();
+					recordRule.setRecordId(record.getId());
+					recordRule.setRuleId(rule.getId());
+					recordRule.setCompareValue(rule.getCompareValue());
+					recordRules.add(recordRule);
+				}
+			}
+		}
+		alarmRecordDao.insertBatch(records);
+		if (!recordRules.isEmpty()) {
+			alarmRecordRuleDao.insertBatch(recordRules);
+		}
+		return records;
+	}
+
 	@Override
 	public List<Contact> getContactByGroupIds(List<Long> groupIds) {
 		return contactService.getContactByGroupIds(groupIds);
@@ -98,4 +142,23 @@ public class ServiceRuleConfigurer implements AlarmConfigurer {
 		return notificationContact;
 	}
 
+	/**
+	 * Batch save notification contacts with one insert in a transaction,
+	 * instead of saving one by one, which leaves the saved part duplicated
+	 * when the re-queued batch is retried.
+	 */
+	@Override
+	@Transactional
+	public void saveNotificationContacts(List<NotificationContact> notificationContacts) {
+		if (notificationContacts.isEmpty()) {
+			return;
+		}
+		for (NotificationContact nc : notificationContacts) {
+			if (isNull(nc.getId())) {
+				nc.preInsert();
+			}
+		}
+		notificationContactDao.insertBatch(notificationContacts);
+	}
+
 }
\ No newline at end of file
@@ -15,11 +15,13 @@
  */
 package com.wl4g.dopaas.umc.es;
 
-import com.wl4g.dopaas.umc.es.exception.GetActiveClientException;
-import com.wl4g.dopaas.umc.es.pool.ElasticsearchClientPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.wl4g.dopaas.umc.es.pool.ElasticsearchClientFactory;
 
 import org.apache.http.Header;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
@@ -37,151 +39,233 @@ import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.IndicesClient;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
- * es 高级客户端连接池版本实现，完全覆盖了官方 ${@link RestHighLevelClient} 的public方法.
- * <p>
- * 使用同步接口的使用方式和官方没有任何区别，同步接口在调用完成后会自动调用 {@link #releaseClient} 方法来释放client
- * 到资源池中<br>
- * 其中异步接口完成后需要主动调用 {@link #releaseClient} 方法来释放client
- * 到资源池中，否则将导致大量连接被占用，新的线程获取连接的时候没有可用连接。<br>
- * 在使用同步/异步API的过程中，如果当前线程正在使用client，没有释放，再一次使用API(同步/异步)的时候回主动释放当前线程持有的client资源到连接池，这个请特别注意。
- *
+ * Shared elasticsearch high level client. The {@link RestHighLevelClient} is
+ * thread-safe and pools the HTTP connections of per node itself, so that all
+ * threads share one client instead of borrowing whole clients, and the
+ * cluster health is checked in the background instead of ping on every call.
  */
-public class EnhancedRestHighLevelClient {
-	private final ThreadLocal<RestHighLevelClient> threadLocal = new ThreadLocal<>();
-	private ElasticsearchClientPool esClientPool;
-
-	public EnhancedRestHighLevelClient(ElasticsearchClientPool esClientPool) {
-		this.esClientPool = esClientPool;
-	}
-
-	private RestHighLevelClient getClient() {
-		if (threadLocal.get() != null) {
-			releaseClient();
-		}
-		try {
-			RestHighLevelClient restHighLevelClient = esClientPool.borrowObject();
-			threadLocal.set(restHighLevelClient);
-			return restHighLevelClient;
-		} catch (Exception e) {
-			throw new GetActiveClientException(e);
+public class EnhancedRestHighLevelClient implements DisposableBean {
+	private Logger log = LoggerFactory.getLogger(getClass());
+
+	/** Shared client. */
+	private final RestHighLevelClient client;
+
+	/** Background health checker, null if disabled. */
+	private final ScheduledExecutorService healthChecker;
+
+	/** Latest result of health check. */
+	private volatile boolean healthy = true;
+
+	/** Scheduler of bulk processors flushing and retries, lazy created. */
+	private ThreadPool bulkThreadPool;
+
+	public EnhancedRestHighLevelClient(ElasticsearchClientFactory clientFactory) {
+		this(clientFactory.newClient(), clientFactory.getConfig().getHealthCheckIntervalMs());
+	}
+
+	public EnhancedRestHighLevelClient(RestHighLevelClient client, long healthCheckIntervalMs) {
+		Assert.notNull(client, "RestHighLevelClient must not be null.");
+		this.client = client;
+		if (healthCheckIntervalMs > 0) {
+			this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "es-client-health-checker");
+				t.setDaemon(true);
+				return t;
+			});
+			this.healthChecker.scheduleWithFixedDelay(() -> checkHealth(), healthCheckIntervalMs, healthCheckIntervalMs,
+					MILLISECONDS);
+		} else {
+			this.healthChecker = null;
 		}
+	}
 
+	/**
+	 * Gets the shared client.
+	 * 
+	 * @return
+	 */
+	public RestHighLevelClient getClient() {
+		return client;
 	}
 
 	/**
-	 * 使用异步api接口的时候需要在使用完成之后主动调用该方法，释放连接池的连接，否则可能导致连接池无可用的新连接
+	 * The client is shared, nothing to release, keep for compatibility.
 	 */
+	@Deprecated
 	public void releaseClient() {
-		RestHighLevelClient restHighLevelClient = threadLocal.get();
-		if (restHighLevelClient != null) {
-			esClientPool.returnObject(restHighLevelClient);
-			threadLocal.remove();
-		}
 	}
 
 	/**
-	 *
-	 * 执行方法，执行前从连接池获取一个连接，执行完后归还连接到连接池
+	 * Gets the low level client of shared client.
 	 * 
-	 * @param call
-	 *            {@link Call}
-	 * @return {@link Object}
+	 * @return
 	 */
-	public Object exec(Call call) {
-		return exec(call, true);
+	public RestClient getLowLevelClient() {
+		return client.getLowLevelClient();
 	}
 
 	/**
-	 *
-	 * 执行方法，执行前从连接池获取一个连接
+	 * Gets the indices client of shared client.
 	 * 
-	 * @param call
-	 *            {@link Call}
-	 * @param releaseClient
-	 *            该方法执行完成后是否释放client到资源池
-	 * @return {@link Object}
+	 * @return
 	 */
+	public final IndicesClient indices() {
+		return client.indices();
+	}
 
-	public Object exec(Call call, boolean releaseClient) {
-		RestHighLevelClient restHighLevelClient = getClient();
-		try {
-			return call.hanl(restHighLevelClient);
-		} catch (IOException e) {
-			return null;
-		} finally {
-			if (releaseClient) {
-				releaseClient();
+	/**
+	 * Latest result of the background health check.
+	 * 
+	 * @return
+	 */
+	public boolean isHealthy() {
+		return healthy;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (healthChecker != null) {
+			healthChecker.shutdownNow();
+		}
+		synchronized (this) {
+			if (bulkThreadPool != null) {
+				ThreadPool.terminate(bulkThreadPool, 10, TimeUnit.SECONDS);
 			}
 		}
+		client.close();
 	}
 
 	/**
-	 * 执行方法，执行前从连接池获取一个连接，该方法执行完成后将释放client到资源池
-	 * 
-	 * @param call
-	 *            {@link VoidCall}
+	 * Check the cluster health, the failed nodes are retried by low level
+	 * client itself, only log the changes here.
 	 */
-	public void execReturnVoid(VoidCall call) {
-		execReturnVoid(call, true);
+	protected void checkHealth() {
+		boolean result = false;
+		try {
+			result = client.ping();
+		} catch (Exception e) {
+			log.debug("es client ping exception:{}", e.getMessage());
+		}
+		if (result != healthy) {
+			if (result) {
+				log.info("Elasticsearch cluster is recovered.");
+			} else {
+				log.warn("Elasticsearch cluster is unhealthy.");
+			}
+		}
+		healthy = result;
 	}
 
+	//
+	// --- Bulk and async helpers. ---
+	//
+
 	/**
-	 * 执行方法，执行前从连接池获取一个连接，执行完后归还连接到连接池
+	 * New bulk processor on the shared client, the requests are flushed by
+	 * actions or interval, and executed asynchronously.
 	 * 
-	 * @param call
-	 *            {@link VoidCall}
-	 * @param releaseClient
-	 *            该方法执行完成后是否释放client到资源池
+	 * @param listener
+	 * @param bulkActions
+	 *            Flush when the number of actions reached.
+	 * @param flushIntervalMs
+	 *            Flush interval, 0 means disabled.
+	 * @param concurrentRequests
+	 *            Number of concurrent in-flight bulk requests.
+	 * @return
 	 */
-	public void execReturnVoid(VoidCall call, boolean releaseClient) {
-		RestHighLevelClient restHighLevelClient = getClient();
-		try {
-			call.hanl(restHighLevelClient);
-		} catch (IOException e) {
+	public BulkProcessor newBulkProcessor(BulkProcessor.Listener listener, int bulkActions, long flushIntervalMs,
+			int concurrentRequests) {
+		BiConsumer<BulkRequest, ActionListener<BulkResponse>> consumer = (request, bulkListener) -> client
+				.bulkAsync(request, bulkListener);
+		// The BulkProcessor.builder(consumer, listener) is only available
+		// since 6.3, the scheduler thread pool is required by 6.2.
+		BulkProcessor.Builder builder = new BulkProcessor.Builder(consumer, listener, getBulkThreadPool())
+				.setBulkActions(bulkActions).setConcurrentRequests(concurrentRequests);
+		if (flushIntervalMs > 0) {
+			builder.setFlushInterval(TimeValue.timeValueMillis(flushIntervalMs));
+		}
+		return builder.build();
+	}
 
-		} finally {
-			if (releaseClient) {
-				releaseClient();
-			}
+	private synchronized ThreadPool getBulkThreadPool() {
+		if (bulkThreadPool == null) {
+			bulkThreadPool = new ThreadPool(
+					Settings.builder().put(Node.NODE_NAME_SETTING.getKey(), "es-bulk-processor").build());
 		}
+		return bulkThreadPool;
 	}
 
 	/**
-	 * 有参数返回的执行接口
+	 * Asynchronously executes a bulk request.
 	 */
-	interface Call {
-		public Object hanl(RestHighLevelClient restHighLevelClient) throws IOException;
+	public final CompletableFuture<BulkResponse> bulkFuture(BulkRequest bulkRequest, Header... headers) {
+		CompletableFuture<BulkResponse> future = new CompletableFuture<>();
+		client.bulkAsync(bulkRequest, newListener(future), headers);
+		return future;
 	}
 
 	/**
-	 * 无参数返回的执行接口
+	 * Asynchronously index a document.
 	 */
-	interface VoidCall {
-		public void hanl(RestHighLevelClient restHighLevelClient) throws IOException;
+	public final CompletableFuture<IndexResponse> indexFuture(IndexRequest indexRequest, Header... headers) {
+		CompletableFuture<IndexResponse> future = new CompletableFuture<>();
+		client.indexAsync(indexRequest, newListener(future), headers);
+		return future;
 	}
 
 	/**
-	 * 获取低级客户端，使用完该客户端后需要主动调用 ${@link #releaseClient()} 方法释放client到资源池
-	 * 
-	 * @return
+	 * Asynchronously retrieves a document by id.
 	 */
-	public RestClient getLowLevelClient() {
-		return (RestClient) exec((r) -> r.getLowLevelClient(), false);
+	public final CompletableFuture<GetResponse> getFuture(GetRequest getRequest, Header... headers) {
+		CompletableFuture<GetResponse> future = new CompletableFuture<>();
+		client.getAsync(getRequest, newListener(future), headers);
+		return future;
 	}
 
 	/**
-	 * 获取索引操作client ,使用完该客户端后需要主动调用 ${@link #releaseClient()} 方法释放client到资源池
-	 * 
-	 * @return
+	 * Asynchronously executes a search.
 	 */
-	public final IndicesClient indices() {
-		return (IndicesClient) exec((r) -> r.indices(), false);
+	public final CompletableFuture<SearchResponse> searchFuture(SearchRequest searchRequest, Header... headers) {
+		CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+		client.searchAsync(searchRequest, newListener(future), headers);
+		return future;
 	}
 
+	private static <T> ActionListener<T> newListener(CompletableFuture<T> future) {
+		return new ActionListener<T>() {
+			@Override
+			public void onResponse(T response) {
+				future.complete(response);
+			}
+
+			@Override
+			public void onFailure(Exception e) {
+				future.completeExceptionally(e);
+			}
+		};
+	}
+
+	//
+	// --- Delegates of shared client. ---
+	//
+
 	/**
 	 * Executes a bulk request using the Bulk API
 	 *
@@ -190,7 +274,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final BulkResponse bulk(BulkRequest bulkRequest, Header... headers) throws IOException {
-		return (BulkResponse) exec((r) -> r.bulk(bulkRequest, headers));
+		return client.bulk(bulkRequest, headers);
 	}
 
 	/**
@@ -201,7 +285,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final void bulkAsync(BulkRequest bulkRequest, ActionListener<BulkResponse> listener, Header... headers) {
-		execReturnVoid((r) -> r.bulkAsync(bulkRequest, listener, headers), false);
+		client.bulkAsync(bulkRequest, listener, headers);
 	}
 
 	/**
@@ -209,7 +293,7 @@ public class EnhancedRestHighLevelClient {
 	 * succeeded, false otherwise
 	 */
 	public final boolean ping(Header... headers) throws IOException {
-		return (Boolean) exec((r) -> r.ping(headers));
+		return client.ping(headers);
 	}
 
 	/**
@@ -217,7 +301,7 @@ public class EnhancedRestHighLevelClient {
 	 * port 9200
 	 */
 	public final MainResponse info(Header... headers) throws IOException {
-		return (MainResponse) exec((r) -> r.info(headers));
+		return client.info(headers);
 	}
 
 	/**
@@ -228,7 +312,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final GetResponse get(GetRequest getRequest, Header... headers) throws IOException {
-		return (GetResponse) exec((r) -> r.get(getRequest, headers));
+		return client.get(getRequest, headers);
 	}
 
 	/**
@@ -239,7 +323,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final void getAsync(GetRequest getRequest, ActionListener<GetResponse> listener, Header... headers) {
-		execReturnVoid((r) -> r.getAsync(getRequest, listener, headers), false);
+		client.getAsync(getRequest, listener, headers);
 	}
 
 	/**
@@ -250,7 +334,7 @@ public class EnhancedRestHighLevelClient {
 	 * Get API on elastic.co</a>
 	 */
 	public final MultiGetResponse multiGet(MultiGetRequest multiGetRequest, Header... headers) throws IOException {
-		return (MultiGetResponse) exec((r) -> r.multiGet(multiGetRequest, headers));
+		return client.multiGet(multiGetRequest, headers);
 	}
 
 	/**
@@ -261,7 +345,7 @@ public class EnhancedRestHighLevelClient {
 	 * Get API on elastic.co</a>
 	 */
 	public void multiGetAsync(MultiGetRequest multiGetRequest, ActionListener<MultiGetResponse> listener, Header... headers) {
-		execReturnVoid((r) -> r.multiGetAsync(multiGetRequest, listener, headers), false);
+		client.multiGetAsync(multiGetRequest, listener, headers);
 	}
 
 	/**
@@ -273,7 +357,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final boolean exists(GetRequest getRequest, Header... headers) throws IOException {
-		return (Boolean) exec((r) -> r.exists(getRequest, headers));
+		return client.exists(getRequest, headers);
 	}
 
 	/**
@@ -285,7 +369,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final void existsAsync(GetRequest getRequest, ActionListener<Boolean> listener, Header... headers) {
-		execReturnVoid((r) -> r.existsAsync(getRequest, listener, headers), false);
+		client.existsAsync(getRequest, listener, headers);
 	}
 
 	/**
@@ -296,7 +380,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final IndexResponse index(IndexRequest indexRequest, Header... headers) throws IOException {
-		return (IndexResponse) exec((r) -> r.index(indexRequest, headers));
+		return client.index(indexRequest, headers);
 	}
 
 	/**
@@ -307,7 +391,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final void indexAsync(IndexRequest indexRequest, ActionListener<IndexResponse> listener, Header... headers) {
-		execReturnVoid((r) -> r.indexAsync(indexRequest, listener, headers), false);
+		client.indexAsync(indexRequest, listener, headers);
 	}
 
 	/**
@@ -318,7 +402,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final UpdateResponse update(UpdateRequest updateRequest, Header... headers) throws IOException {
-		return (UpdateResponse) exec((r) -> r.update(updateRequest, headers));
+		return client.update(updateRequest, headers);
 	}
 
 	/**
@@ -329,7 +413,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final void updateAsync(UpdateRequest updateRequest, ActionListener<UpdateResponse> listener, Header... headers) {
-		execReturnVoid((r) -> r.update(updateRequest, headers), false);
+		client.updateAsync(updateRequest, listener, headers);
 	}
 
 	/**
@@ -340,7 +424,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final DeleteResponse delete(DeleteRequest deleteRequest, Header... headers) throws IOException {
-		return (DeleteResponse) exec((r) -> r.delete(deleteRequest, headers));
+		return client.delete(deleteRequest, headers);
 	}
 
 	/**
@@ -351,7 +435,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final void deleteAsync(DeleteRequest deleteRequest, ActionListener<DeleteResponse> listener, Header... headers) {
-		execReturnVoid((r) -> r.deleteAsync(deleteRequest, listener, headers), false);
+		client.deleteAsync(deleteRequest, listener, headers);
 	}
 
 	/**
@@ -362,7 +446,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final SearchResponse search(SearchRequest searchRequest, Header... headers) throws IOException {
-		return (SearchResponse) exec((r) -> r.search(searchRequest, headers));
+		return client.search(searchRequest, headers);
 	}
 
 	/**
@@ -373,7 +457,7 @@ public class EnhancedRestHighLevelClient {
 	 * API on elastic.co</a>
 	 */
 	public final void searchAsync(SearchRequest searchRequest, ActionListener<SearchResponse> listener, Header... headers) {
-		execReturnVoid((r) -> r.searchAsync(searchRequest, listener, headers), false);
+		client.searchAsync(searchRequest, listener, headers);
 	}
 
 	/**
@@ -384,7 +468,7 @@ public class EnhancedRestHighLevelClient {
 	 * search API on elastic.co</a>
 	 */
 	public final MultiSearchResponse multiSearch(MultiSearchRequest multiSearchRequest, Header... headers) throws IOException {
-		return (MultiSearchResponse) exec((r) -> r.multiSearch(multiSearchRequest, headers));
+		return client.multiSearch(multiSearchRequest, headers);
 	}
 
 	/**
@@ -396,7 +480,7 @@ public class EnhancedRestHighLevelClient {
 	 */
 	public final void multiSearchAsync(MultiSearchRequest searchRequest, ActionListener<MultiSearchResponse> listener,
 			Header... headers) {
-		execReturnVoid((r) -> r.multiSearchAsync(searchRequest, listener, headers), false);
+		client.multiSearchAsync(searchRequest, listener, headers);
 	}
 
 	/**
@@ -407,7 +491,7 @@ public class EnhancedRestHighLevelClient {
 	 * Scroll API on elastic.co</a>
 	 */
 	public final SearchResponse searchScroll(SearchScrollRequest searchScrollRequest, Header... headers) throws IOException {
-		return (SearchResponse) exec((r) -> r.searchScroll(searchScrollRequest, headers));
+		return client.searchScroll(searchScrollRequest, headers);
 	}
 
 	/**
@@ -419,7 +503,7 @@ public class EnhancedRestHighLevelClient {
 	 */
 	public final void searchScrollAsync(SearchScrollRequest searchScrollRequest, ActionListener<SearchResponse> listener,
 			Header... headers) {
-		execReturnVoid((r) -> r.searchScrollAsync(searchScrollRequest, listener, headers), false);
+		client.searchScrollAsync(searchScrollRequest, listener, headers);
 	}
 
 	/**
@@ -430,7 +514,7 @@ public class EnhancedRestHighLevelClient {
 	 * Clear Scroll API on elastic.co</a>
 	 */
 	public final ClearScrollResponse clearScroll(ClearScrollRequest clearScrollRequest, Header... headers) throws IOException {
-		return (ClearScrollResponse) exec((r) -> r.clearScroll(clearScrollRequest, headers));
+		return client.clearScroll(clearScrollRequest, headers);
 	}
 
 	/**
@@ -442,7 +526,7 @@ public class EnhancedRestHighLevelClient {
 	 */
 	public final void clearScrollAsync(ClearScrollRequest clearScrollRequest, ActionListener<ClearScrollResponse> listener,
 			Header... headers) {
-		execReturnVoid((r) -> r.clearScrollAsync(clearScrollRequest, listener, headers), false);
+		client.clearScrollAsync(clearScrollRequest, listener, headers);
 	}
 
 }
\ No newline at end of file
@@ -15,20 +15,29 @@
  */
 package com.wl4g.dopaas.umc.es.config;
 
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
-import org.elasticsearch.client.RestHighLevelClient;
-
+/**
+ * Elasticsearch client properties, the connections are pooled by the shared
+ * client.
+ */
 public class ElasticsearchClientProperties {
 	public static final String PREFIX = "spring.es";
 
 	private String[] hosts;
 	private int port = 9200;
 	private String schema = "http";
-	private int connectTimeOut;
-	private int socketTimeOut;
-	private int connectionRequestTimeOut;
-	private int maxConnectNum;
-	private int maxConnectPerRoute;
+	private int connectTimeOut = 5_000;
+	private int socketTimeOut = 30_000;
+	private int connectionRequestTimeOut = 1_000;
+	/** Maximum connections of all routes(nodes). */
+	private int maxConnectNum = 100;
+	/** Maximum connections of per route(node). */
+	private int maxConnectPerRoute = 30;
+	/** IO reactor threads, 0 means the number of processors. */
+	private int ioThreadCount = 0;
+	/** Maximum retry timeout across nodes of one request. */
+	private int maxRetryTimeOut = 30_000;
+	/** Interval of background health checks, 0 means disabled. */
+	private long healthCheckIntervalMs = 10_000L;
 
 	public String[] getHosts() {
 		return hosts;
@@ -94,16 +103,28 @@ public class ElasticsearchClientProperties {
 		this.maxConnectPerRoute = maxConnectPerRoute;
 	}
 
-	/**
-	 * Elasticsearch client pool properties
-	 * 
-	 * @author wanglsir@gmail.com, 983708408@qq.com
-	 * @version 2019年12月31日 v1.0.0
-	 * @see
-	 */
-	public static class ElasticsearchClientPoolProperties extends GenericObjectPoolConfig<RestHighLevelClient> {
-		public static final String PREFIX = "spring.es.pool";
+	public int getIoThreadCount() {
+		return ioThreadCount;
+	}
+
+	public void setIoThreadCount(int ioThreadCount) {
+		this.ioThreadCount = ioThreadCount;
+	}
+
+	public int getMaxRetryTimeOut() {
+		return maxRetryTimeOut;
+	}
+
+	public void setMaxRetryTimeOut(int maxRetryTimeOut) {
+		this.maxRetryTimeOut = maxRetryTimeOut;
+	}
+
+	public long getHealthCheckIntervalMs() {
+		return healthCheckIntervalMs;
+	}
 
+	public void setHealthCheckIntervalMs(long healthCheckIntervalMs) {
+		this.healthCheckIntervalMs = healthCheckIntervalMs;
 	}
 
 }
\ No newline at end of file
@@ -16,11 +16,8 @@
 package com.wl4g.dopaas.umc.es.config;
 
 import com.wl4g.dopaas.umc.es.EnhancedRestHighLevelClient;
-import com.wl4g.dopaas.umc.es.config.ElasticsearchClientProperties.ElasticsearchClientPoolProperties;
 import com.wl4g.dopaas.umc.es.pool.ElasticsearchClientFactory;
-import com.wl4g.dopaas.umc.es.pool.ElasticsearchClientPool;
 
-import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.*;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -28,8 +25,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@ConditionalOnClass({ ElasticsearchClientPool.class, GenericObjectPool.class,
-		org.elasticsearch.client.RestHighLevelClient.class })
+@ConditionalOnClass({ org.elasticsearch.client.RestHighLevelClient.class })
 public class HighLevelClientConfiguration {
 
 	@Bean
@@ -40,18 +36,6 @@ public class HighLevelClientConfiguration {
 		return new ElasticsearchClientProperties();
 	}
 
-	@Bean
-	@ConfigurationProperties(prefix = ElasticsearchClientPoolProperties.PREFIX)
-	@ConditionalOnMissingBean(ElasticsearchClientPoolProperties.class)
-	public ElasticsearchClientPoolProperties elasticsearchClientPoolProperties() {
-		ElasticsearchClientPoolProperties elasticsearchClientPoolConfigure = new ElasticsearchClientPoolProperties();
-		// 开启jmx 导致 springboot（version:2.0.1，内嵌tomcat，和euraka集成），启动后(erueka
-		// 注册日志:registration status: 404)立即关闭servlet 容器，暂时默认设置jmx为关闭状态，再寻找原因
-		elasticsearchClientPoolConfigure.setJmxEnabled(false);
-
-		return elasticsearchClientPoolConfigure;
-	}
-
 	@Bean
 	@ConditionalOnBean(ElasticsearchClientProperties.class)
 	@ConditionalOnSingleCandidate(ElasticsearchClientProperties.class)
@@ -62,18 +46,10 @@ public class HighLevelClientConfiguration {
 	}
 
 	@Bean
-	@ConditionalOnBean({ ElasticsearchClientFactory.class, ElasticsearchClientPoolProperties.class })
-	@ConditionalOnMissingBean(ElasticsearchClientPool.class)
-	public ElasticsearchClientPool remoteExecConnectionPool(ElasticsearchClientFactory esClientFactory,
-			ElasticsearchClientPoolProperties config) {
-		return new ElasticsearchClientPool(esClientFactory, config);
-	}
-
-	@Bean
-	@ConditionalOnBean({ ElasticsearchClientPool.class })
+	@ConditionalOnBean({ ElasticsearchClientFactory.class })
 	@ConditionalOnMissingBean(EnhancedRestHighLevelClient.class)
-	public EnhancedRestHighLevelClient restHighLevelClient(ElasticsearchClientPool esClientPool) {
-		return new EnhancedRestHighLevelClient(esClientPool);
+	public EnhancedRestHighLevelClient restHighLevelClient(ElasticsearchClientFactory esClientFactory) {
+		return new EnhancedRestHighLevelClient(esClientFactory);
 	}
 
 }
\ No newline at end of file
@@ -15,86 +15,74 @@
  */
 package com.wl4g.dopaas.umc.es.pool;
 
-import org.apache.commons.pool2.PooledObject;
-import org.apache.commons.pool2.PooledObjectFactory;
-import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
 
 import com.wl4g.dopaas.umc.es.config.ElasticsearchClientProperties;
 
-import java.io.IOException;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
-public class ElasticsearchClientFactory implements PooledObjectFactory<RestHighLevelClient> {
+/**
+ * Elasticsearch client factory. The {@link RestHighLevelClient} is
+ * thread-safe and pools the HTTP connections itself, so that only one client
+ * should be created and shared, the connection limits are tuned here.
+ */
+public class ElasticsearchClientFactory {
 	private Logger log = LoggerFactory.getLogger(getClass());
 
 	private ElasticsearchClientProperties elasticsearchClientConfigure;
 
 	public ElasticsearchClientFactory(ElasticsearchClientProperties elasticsearchClientConfigure) {
+		Assert.notNull(elasticsearchClientConfigure, "ElasticsearchClientProperties must not be null.");
+		Assert.notEmpty(elasticsearchClientConfigure.getHosts(), "Elasticsearch hosts must not be empty.");
 		this.elasticsearchClientConfigure = elasticsearchClientConfigure;
 	}
 
-	@Override
-	public PooledObject<RestHighLevelClient> makeObject() throws Exception {
-		Set<String> hostSet = new HashSet<String>(
-				this.elasticsearchClientConfigure.getHosts().length + this.elasticsearchClientConfigure.getHosts().length / 3);
-		for (String h : this.elasticsearchClientConfigure.getHosts()) {
-			hostSet.add(h);
-		}
-		HttpHost[] httpHosts = hostSet.stream()
-				.map(host -> new HttpHost(host, elasticsearchClientConfigure.getPort(), elasticsearchClientConfigure.getSchema()))
-				.toArray(len -> new HttpHost[len]);
-		RestClientBuilder clientBuilder = RestClient.builder(httpHosts);
-		RestHighLevelClient client = new RestHighLevelClient(clientBuilder);
-		return new DefaultPooledObject<RestHighLevelClient>(client);
-	}
-
-	@Override
-	public void destroyObject(PooledObject<RestHighLevelClient> p) throws Exception {
-		if (p.getObject() != null) {
-			try {
-				if (p.getObject().ping()) {
-					p.getObject().close();
-				}
-			} catch (IOException e) {
-				log.debug("es http client close exception:{}", e.getMessage());
-			}
-		}
-
+	public ElasticsearchClientProperties getConfig() {
+		return elasticsearchClientConfigure;
 	}
 
-	@Override
-	public boolean validateObject(PooledObject<RestHighLevelClient> p) {
-		try {
-			if (p.getObject() != null && p.getObject().ping()) {
-				return true;
-			}
-		} catch (IOException e) {
-			log.debug("es http client ping exception:{}", e.getMessage());
-		}
-		return false;
-	}
-
-	@Override
-	public void activateObject(PooledObject<RestHighLevelClient> p) throws Exception {
-		boolean result = false;
-		try {
-			result = p.getObject().ping();
-		} catch (IOException e) {
-			log.debug("http pool active client ,ping result :{}", result);
+	/**
+	 * New client with the tuned connection pool.
+	 * 
+	 * @return
+	 */
+	public RestHighLevelClient newClient() {
+		ElasticsearchClientProperties config = this.elasticsearchClientConfigure;
+		Set<String> hostSet = new LinkedHashSet<String>(config.getHosts().length + config.getHosts().length / 3);
+		for (String h : config.getHosts()) {
+			hostSet.add(h);
 		}
+		HttpHost[] httpHosts = hostSet.stream().map(host -> new HttpHost(host, config.getPort(), config.getSchema()))
+				.toArray(len -> new HttpHost[len]);
 
+		RestClientBuilder clientBuilder = RestClient.builder(httpHosts).setMaxRetryTimeoutMillis(config.getMaxRetryTimeOut())
+				.setRequestConfigCallback(requestConfig -> requestConfig.setConnectTimeout(config.getConnectTimeOut())
+						.setSocketTimeout(config.getSocketTimeOut())
+						.setConnectionRequestTimeout(config.getConnectionRequestTimeOut()))
+				.setHttpClientConfigCallback(httpClient -> {
+					httpClient.setMaxConnTotal(config.getMaxConnectNum()).setMaxConnPerRoute(config.getMaxConnectPerRoute());
+					if (config.getIoThreadCount() > 0) {
+						httpClient.setDefaultIOReactorConfig(
+								IOReactorConfig.custom().setIoThreadCount(config.getIoThreadCount()).build());
+					}
+					return httpClient;
+				}).setFailureListener(new RestClient.FailureListener() {
+					@Override
+					public void onFailure(HttpHost host) {
+						log.warn("Elasticsearch node: {} failed, marked as dead.", host);
+					}
+				});
+		log.info("Creating elasticsearch client of hosts: {}, maxConnTotal: {}, maxConnPerRoute: {}", hostSet,
+				config.getMaxConnectNum(), config.getMaxConnectPerRoute());
+		return new RestHighLevelClient(clientBuilder);
 	}
 
-	@Override
-	public void passivateObject(PooledObject<RestHighLevelClient> p) throws Exception {
-		// nothing
-	}
-
-}
\ No newline at end of file
+}
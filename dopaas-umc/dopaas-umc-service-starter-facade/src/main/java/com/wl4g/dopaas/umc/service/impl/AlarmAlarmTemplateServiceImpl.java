@@ -20,29 +20,27 @@ import static com.wl4g.component.common.serialize.JacksonUtils.toJSONString;
 import static com.wl4g.component.core.bean.BaseBean.DEL_FLAG_DELETE;
 import static com.wl4g.component.core.bean.BaseBean.DEL_FLAG_NORMAL;
 import static com.wl4g.component.core.bean.BaseBean.ENABLED;
-import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_TPLS;
+import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_TPLS_VERSION;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.wl4g.component.core.page.PageHolder;
 import com.wl4g.component.support.cache.jedis.JedisService;
-import com.wl4g.dopaas.cmdb.service.AppInstanceService;
-import com.wl4g.dopaas.common.bean.cmdb.AppInstance;
-import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
 import com.wl4g.dopaas.common.bean.umc.AlarmRule;
 import com.wl4g.dopaas.common.bean.umc.AlarmTemplate;
-import com.wl4g.dopaas.umc.data.AlarmConfigDao;
 import com.wl4g.dopaas.umc.data.AlarmRuleDao;
 import com.wl4g.dopaas.umc.data.AlarmTemplateDao;
 import com.wl4g.dopaas.umc.service.AlarmTemplateService;
@@ -63,12 +61,8 @@ private @Autowired  AlarmTemplateDao alarmTemplateDao;
 
 private @Autowired  AlarmRuleDao alarmRuleDao;
 
-private @Autowired  AlarmConfigDao alarmConfigDao;
-
 private @Autowired  JedisService jedisService;
 
-private @Autowired  AppInstanceService appInstanceService;
-
 	@Override
 	public PageHolder<AlarmTemplate> list(PageHolder<AlarmTemplate> pm, String name, Long metricId, String classify) {
 		pm.bind();
@@ -144,14 +138,8 @@ private @Autowired  AppInstanceService appInstanceService;
 			}
 		}
 
-		// del redis
-		List<AlarmConfig> alarmConfigs = alarmConfigDao.selectByTemplateId(tpl.getId());
-		for (AlarmConfig alarmConfig : alarmConfigs) {
-			AppInstance appInstance = appInstanceService.detail(alarmConfig.getCollectId());
-			if (Objects.nonNull(appInstance)) {
-				jedisService.del(KEY_CACHE_ALARM_TPLS + appInstance.getHostname() + appInstance.getEndpoint());
-			}
-		}
+		// Invalidate rule index of alerters, it's rebuilt from database.
+		increaseAlarmTplsVersion();
 	}
 
 	@Override
@@ -171,6 +159,7 @@ private @Autowired  AppInstanceService appInstanceService;
 	}
 
 	@Override
+	@Transactional
 	public void del(Long id) {
 		Assert.notNull(id, "id is null");
 		AlarmTemplate alarmTemplate = new AlarmTemplate();
@@ -178,6 +167,26 @@ private @Autowired  AppInstanceService appInstanceService;
 		alarmTemplate.setDelFlag(DEL_FLAG_DELETE);
 		alarmTemplate.preUpdate();
 		alarmTemplateDao.updateByPrimaryKeySelective(alarmTemplate);
+		// Invalidate rule index of alerters.
+		increaseAlarmTplsVersion();
+	}
+
+	/**
+	 * Increase the alarm templates change version, deferred after commit if
+	 * a transaction is active, so that alerters never rebuild the rule index
+	 * from the templates before the change is visible.
+	 */
+	private void increaseAlarmTplsVersion() {
+		if (isSynchronizationActive()) {
+			registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					jedisService.getJedisClient().incrBy(KEY_CACHE_ALARM_TPLS_VERSION, 1);
+				}
+			});
+		} else {
+			jedisService.getJedisClient().incrBy(KEY_CACHE_ALARM_TPLS_VERSION, 1);
+		}
 	}
 
 }
\ No newline at end of file
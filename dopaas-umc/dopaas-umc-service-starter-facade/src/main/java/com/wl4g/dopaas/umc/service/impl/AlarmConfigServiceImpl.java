@@ -15,14 +15,21 @@
  */
 package com.wl4g.dopaas.umc.service.impl;
 
+import static com.wl4g.dopaas.common.constant.UmcConstants.KEY_CACHE_ALARM_TPLS_VERSION;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.registerSynchronization;
+
 import com.wl4g.iam.common.bean.ContactGroup;
 import com.wl4g.iam.service.ContactGroupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.util.Assert;
 
 import com.wl4g.component.core.bean.BaseBean;
 import com.wl4g.component.core.page.PageHolder;
+import com.wl4g.component.support.cache.jedis.JedisService;
 import com.wl4g.dopaas.cmdb.service.AppInstanceService;
 import com.wl4g.dopaas.common.bean.cmdb.AppInstance;
 import com.wl4g.dopaas.common.bean.umc.AlarmConfig;
@@ -44,6 +51,7 @@ public class AlarmConfigServiceImpl implements AlarmConfigService {
 	private @Autowired AlarmTemplateDao alarmTemplateDao;
 	private @Autowired AppInstanceService appInstanceService;
 	private @Autowired ContactGroupService contactGroupService;
+	private @Autowired JedisService jedisService;
 
 	@Override
 	public PageHolder<AlarmConfig> list(PageHolder<AlarmConfig> pm, Long templateId, Long contactGroupId) {
@@ -58,6 +66,7 @@ public class AlarmConfigServiceImpl implements AlarmConfigService {
 	}
 
 	@Override
+	@Transactional
 	public void save(AlarmConfig alarmConfig) {
 		if (alarmConfig.getId() != null) {
 			alarmConfig.preUpdate();
@@ -66,15 +75,20 @@ public class AlarmConfigServiceImpl implements AlarmConfigService {
 			alarmConfig.preInsert();
 			alarmConfigDao.insertSelective(alarmConfig);
 		}
+		// Invalidate rule index of alerters.
+		increaseAlarmTplsVersion();
 	}
 
 	@Override
+	@Transactional
 	public void del(Long id) {
 		AlarmConfig alarmConfig = new AlarmConfig();
 		alarmConfig.setId(id);
 		alarmConfig.setDelFlag(BaseBean.DEL_FLAG_DELETE);
 		alarmConfig.preUpdate();
 		alarmConfigDao.updateByPrimaryKeySelective(alarmConfig);
+		// Invalidate rule index of alerters.
+		increaseAlarmTplsVersion();
 	}
 
 	@Override
@@ -91,4 +105,23 @@ public class AlarmConfigServiceImpl implements AlarmConfigService {
 		return alarmConfig;
 	}
 
+	/**
+	 * Increase the alarm templates change version to invalidate the rule
+	 * index of alerters. Inside a transaction it's deferred until committed,
+	 * otherwise an alerter seeing the new version could rebuild the index from
+	 * the uncommitted(old) templates, and keep it until the next change.
+	 */
+	private void increaseAlarmTplsVersion() {
+		if (isSynchronizationActive()) {
+			registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					jedisService.getJedisClient().incrBy(KEY_CACHE_ALARM_TPLS_VERSION, 1);
+				}
+			});
+		} else {
+			jedisService.getJedisClient().incrBy(KEY_CACHE_ALARM_TPLS_VERSION, 1);
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.es;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+
+import com.wl4g.dopaas.umc.es.config.ElasticsearchClientProperties;
+import com.wl4g.dopaas.umc.es.pool.ElasticsearchClientFactory;
+
+/**
+ * Requests per second and sockets opened of the shared
+ * {@link EnhancedRestHighLevelClient}, against the previous pool of whole
+ * clients with ping on every borrowing, on the local mock elasticsearch HTTP
+ * endpoint.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @version v1.0.0 2026-10-17
+ * @since
+ */
+public class EnhancedRestHighLevelClientBenchmarkTests {
+
+	final static int THREADS = 32;
+	final static int REQUESTS_PER_THREAD = 500;
+	final static int LEGACY_POOL_SIZE = 8; // Default maxTotal of GenericObjectPool
+	final static long SERVER_LATENCY_MS = 1L;
+
+	public static void main(String[] args) throws Exception {
+		try (MockElasticsearchServer server = new MockElasticsearchServer()) {
+			// Previous pool of whole clients, ping on every borrowing.
+			LegacyClientPool legacyPool = new LegacyClientPool(server.port);
+			run("Pooled clients", server, () -> {
+				RestHighLevelClient client = legacyPool.borrow();
+				try {
+					client.ping(); // Activate
+					client.ping(); // Request
+				} finally {
+					legacyPool.release(client);
+				}
+			});
+			legacyPool.close();
+
+			// Shared client.
+			ElasticsearchClientProperties config = new ElasticsearchClientProperties();
+			config.setHosts(new String[] { "127.0.0.1" });
+			config.setPort(server.port);
+			config.setHealthCheckIntervalMs(1_000L);
+			EnhancedRestHighLevelClient shared = new EnhancedRestHighLevelClient(new ElasticsearchClientFactory(config));
+			run("Shared client", server, () -> shared.ping());
+			shared.destroy();
+		}
+	}
+
+	private static void run(String name, MockElasticsearchServer server, Request request) throws Exception {
+		server.reset();
+		AtomicLong failures = new AtomicLong(0);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(THREADS);
+		for (int i = 0; i < THREADS; i++) {
+			new Thread(() -> {
+				try {
+					start.await();
+					for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+						try {
+							request.execute();
+						} catch (IOException e) {
+							failures.incrementAndGet();
+						}
+					}
+				} catch (Exception e) {
+					e.printStackTrace();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+		long begin = System.nanoTime();
+		start.countDown();
+		done.await();
+		long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		long total = (long) THREADS * REQUESTS_PER_THREAD;
+		System.out.println(String.format(
+				"%s => requests: %s, cost: %sms, throughput: %s req/s, server requests: %s, sockets opened: %s, failures: %s",
+				name, total, costMs, total * 1000L / costMs, server.requests.get(), server.sockets.get(), failures.get()));
+	}
+
+	@FunctionalInterface
+	static interface Request {
+		void execute() throws IOException;
+	}
+
+	/**
+	 * Same as the previous GenericObjectPool of whole clients.
+	 */
+	static class LegacyClientPool {
+		final int port;
+		final BlockingQueue<RestHighLevelClient> idles = new ArrayBlockingQueue<>(LEGACY_POOL_SIZE);
+		final List<RestHighLevelClient> all = new CopyOnWriteArrayList<>();
+		final AtomicInteger created = new AtomicInteger(0);
+
+		LegacyClientPool(int port) {
+			this.port = port;
+		}
+
+		RestHighLevelClient borrow() throws IOException {
+			RestHighLevelClient client = idles.poll();
+			if (client == null) {
+				if (created.incrementAndGet() <= LEGACY_POOL_SIZE) {
+					client = new RestHighLevelClient(RestClient.builder(new HttpHost("127.0.0.1", port, "http")));
+					all.add(client);
+				} else {
+					created.decrementAndGet();
+					try {
+						client = idles.take();
+					} catch (InterruptedException e) {
+						throw new IOException(e);
+					}
+				}
+			}
+			return client;
+		}
+
+		void release(RestHighLevelClient client) {
+			idles.offer(client);
+		}
+
+		void close() throws IOException {
+			for (RestHighLevelClient client : all) {
+				client.close();
+			}
+		}
+	}
+
+	/**
+	 * Mock elasticsearch HTTP/1.1 keep-alive endpoint, counts the accepted
+	 * sockets and the served requests.
+	 */
+	static class MockElasticsearchServer implements AutoCloseable {
+		final ServerSocket serverSocket;
+		final int port;
+		final AtomicLong sockets = new AtomicLong(0);
+		final AtomicLong requests = new AtomicLong(0);
+
+		MockElasticsearchServer() throws IOException {
+			this.serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+			this.port = serverSocket.getLocalPort();
+			Thread acceptor = new Thread(() -> {
+				while (!serverSocket.isClosed()) {
+					try {
+						Socket socket = serverSocket.accept();
+						sockets.incrementAndGet();
+						Thread handler = new Thread(() -> serve(socket), "mock-es-conn");
+						handler.setDaemon(true);
+						handler.start();
+					} catch (IOException e) {
+						// Closed
+					}
+				}
+			}, "mock-es-acceptor");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		void reset() {
+			sockets.set(0);
+			requests.set(0);
+		}
+
+		private void serve(Socket socket) {
+			try (Socket s = socket) {
+				InputStream in = new BufferedInputStream(s.getInputStream());
+				OutputStream out = s.getOutputStream();
+				String requestLine;
+				while ((requestLine = readLine(in)) != null && !requestLine.isEmpty()) {
+					int contentLength = 0;
+					for (String header; !(header = readLine(in)).isEmpty();) {
+						if (header.toLowerCase().startsWith("content-length:")) {
+							contentLength = Integer.parseInt(header.substring(15).trim());
+						}
+					}
+					for (int i = 0; i < contentLength; i++) {
+						in.read();
+					}
+					requests.incrementAndGet();
+					Thread.sleep(SERVER_LATENCY_MS);
+					boolean head = requestLine.startsWith("HEAD ");
+					String body = head ? "" : "{}";
+					String response = "HTTP/1.1 200 OK\r\nContent-Type: application/json; charset=UTF-8\r\nContent-Length: "
+							+ (head ? 0 : body.length()) + "\r\n\r\n" + body;
+					out.write(response.getBytes(ISO_8859_1));
+					out.flush();
+				}
+			} catch (Exception e) {
+				// Disconnected
+			}
+		}
+
+		private static String readLine(InputStream in) throws IOException {
+			StringBuilder line = new StringBuilder(64);
+			for (int c; (c = in.read()) != -1;) {
+				if (c == '\n') {
+					int len = line.length();
+					return (len > 0 && line.charAt(len - 1) == '\r') ? line.substring(0, len - 1) : line.toString();
+				}
+				line.append((char) c);
+			}
+			return line.length() == 0 ? null : line.toString();
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.config;
+
+import org.springframework.util.Assert;
+
+import com.wl4g.dopaas.umc.opentsdb.client.OpenTSDBClient;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * OpenTSDB client batch put metrics.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class OpenTsdbClientMetrics implements MeterBinder {
+
+	final public static String METRIC_QUEUE_DEPTH = "umc.store.opentsdb.queue.depth";
+	final public static String METRIC_DROPPED_POINTS = "umc.store.opentsdb.dropped.points";
+	final public static String METRIC_SPILLED_POINTS = "umc.store.opentsdb.spilled.points";
+	final public static String METRIC_INFLIGHT_REQUESTS = "umc.store.opentsdb.inflight.requests";
+
+	final private OpenTSDBClient client;
+
+	public OpenTsdbClientMetrics(OpenTSDBClient client) {
+		Assert.notNull(client, "OpenTSDBClient must not be null");
+		this.client = client;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder(METRIC_QUEUE_DEPTH, client, OpenTSDBClient::getQueueDepth)
+				.description("Points waiting in the batch put queue").register(registry);
+		FunctionCounter.builder(METRIC_DROPPED_POINTS, client, OpenTSDBClient::getDroppedPoints)
+				.description("Points dropped by overflow of batch put queue").register(registry);
+		FunctionCounter.builder(METRIC_SPILLED_POINTS, client, OpenTSDBClient::getSpilledPoints)
+				.description("Points spilled to disk by overflow of batch put queue").register(registry);
+		Gauge.builder(METRIC_INFLIGHT_REQUESTS, client, OpenTSDBClient::getInFlightRequests)
+				.description("In-flight batch put requests").register(registry);
+	}
+
+}
@@ -61,6 +61,13 @@ public class OpenTsdbFactoryBean implements InitializingBean, DisposableBean, Fa
 				.batchPutBufferSize(20000)
 				// 异步写入等待时间，如果距离上一次请求超多300ms，且有数据，则直接提交
 				.batchPutTimeLimit(3000)
+				// 进行中的批量写入请求数上限，达到上限时反压到队列
+				.maxInFlightRequests(config.getOpentsdb().getMaxInFlightRequests())
+				// 批量写入请求体gzip压缩
+				.batchPutGzip(config.getOpentsdb().isBatchPutGzip())
+				// 队列满时的溢出策略(BLOCK/DROP_OLDEST/SPILL)
+				.overflowPolicy(config.getOpentsdb().getOverflowPolicy())
+				.spillDirectory(config.getOpentsdb().getSpillDirectory())
 				// 当确认这个client只用于查询时设置，可不创建内部队列从而提高效率
 				// .readonly()
 				// 每批数据提交完成后回调
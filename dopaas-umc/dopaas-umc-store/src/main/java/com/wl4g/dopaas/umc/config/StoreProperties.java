@@ -15,14 +15,20 @@
  */
 package com.wl4g.dopaas.umc.config;
 
+import static org.apache.commons.lang3.SystemUtils.USER_HOME;
+
 import java.io.Serializable;
 
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.OverflowPolicy;
+
 public class StoreProperties implements Serializable {
 
 	private static final long serialVersionUID = -8652479436330234847L;
 
 	private OpentsdbProproties opentsdb = new OpentsdbProproties();
 
+	private DerbyProperties derby = new DerbyProperties();
+
 	public OpentsdbProproties getOpentsdb() {
 		return opentsdb;
 	}
@@ -31,12 +37,43 @@ public class StoreProperties implements Serializable {
 		this.opentsdb = opentsdb;
 	}
 
+	public DerbyProperties getDerby() {
+		return derby;
+	}
+
+	public void setDerby(DerbyProperties derby) {
+		this.derby = derby;
+	}
+
 	public static class OpentsdbProproties {
 
 		private String host = "127.0.0.1";
 
 		private int port = 14242;
 
+		/**
+		 * Maximum in-flight batch put requests, the consumers wait(back
+		 * pressure) if reached.
+		 */
+		private int maxInFlightRequests = 8;
+
+		/**
+		 * Whether the batch put request body is gzip compressed, disabled by
+		 * default (as before), worth enabling when the TSDB is reached over a
+		 * slow link and the CPU of collector is not the bottleneck.
+		 */
+		private boolean batchPutGzip = false;
+
+		/**
+		 * Overflow policy of points buffer when full.
+		 */
+		private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+		/**
+		 * Spill directory of overflowed points, see: {@link OverflowPolicy#SPILL}
+		 */
+		private String spillDirectory = USER_HOME + "/.umc/opentsdb/spill";
+
 		public String getHost() {
 			return host;
 		}
@@ -53,6 +90,81 @@ public class StoreProperties implements Serializable {
 			this.port = port;
 		}
 
+		public int getMaxInFlightRequests() {
+			return maxInFlightRequests;
+		}
+
+		public void setMaxInFlightRequests(int maxInFlightRequests) {
+			this.maxInFlightRequests = maxInFlightRequests;
+		}
+
+		public boolean isBatchPutGzip() {
+			return batchPutGzip;
+		}
+
+		public void setBatchPutGzip(boolean batchPutGzip) {
+			this.batchPutGzip = batchPutGzip;
+		}
+
+		public OverflowPolicy getOverflowPolicy() {
+			return overflowPolicy;
+		}
+
+		public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = overflowPolicy;
+		}
+
+		public String getSpillDirectory() {
+			return spillDirectory;
+		}
+
+		public void setSpillDirectory(String spillDirectory) {
+			this.spillDirectory = spillDirectory;
+		}
+
+	}
+
+	public static class DerbyProperties {
+
+		/**
+		 * Metric points table name prefix, one table per time bucket.
+		 */
+		private String tablePrefix = "umc_metric_";
+
+		/**
+		 * Time bucket of metric points table partition, default by one day.
+		 */
+		private long bucketMs = 24 * 60 * 60 * 1000L;
+
+		/**
+		 * Maximum rows of JDBC batch insert.
+		 */
+		private int batchSize = 500;
+
+		public String getTablePrefix() {
+			return tablePrefix;
+		}
+
+		public void setTablePrefix(String tablePrefix) {
+			this.tablePrefix = tablePrefix;
+		}
+
+		public long getBucketMs() {
+			return bucketMs;
+		}
+
+		public void setBucketMs(long bucketMs) {
+			this.bucketMs = bucketMs;
+		}
+
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
 	}
 
 }
\ No newline at end of file
@@ -63,6 +63,16 @@ public class UmcStoreAutoConfiguration {
 		return new TsdbMetricStore(client);
 	}
 
+	/**
+	 * Bound by the actuator metrics auto-configuration as any MeterBinder
+	 * bean, so it must not be bound here again.
+	 */
+	@Bean
+	@EnableOpenTsdbStore
+	public OpenTsdbClientMetrics openTsdbClientMetrics(OpenTSDBClient client) {
+		return new OpenTsdbClientMetrics(client);
+	}
+
 	//
 	// Derby metric store's
 	//
@@ -132,7 +142,7 @@ public class UmcStoreAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean(MetricStore.class)
 	public DerbyMetricStore derbyPhysicalMetricStore() {
-		return new DerbyMetricStore(derbyJdbcTemplate());
+		return new DerbyMetricStore(derbyJdbcTemplate(), storeProperties().getDerby());
 	}
 
 	public final static String KEY_STORE_PREFIX = UmcConstants.KEY_UMC_CONFIG_PREFIX + ".store";
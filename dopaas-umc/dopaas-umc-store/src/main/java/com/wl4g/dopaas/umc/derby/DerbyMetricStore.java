@@ -15,29 +15,470 @@
  */
 package com.wl4g.dopaas.umc.derby;
 
-import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel;
-import com.wl4g.dopaas.umc.store.MetricStore;
+import static java.util.Collections.singletonList;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.left;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.util.Assert;
 
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel;
+import com.wl4g.dopaas.umc.config.StoreProperties.DerbyProperties;
+import com.wl4g.dopaas.umc.store.MetricStore;
+
 /**
- * Derby foundation store
- * 
+ * Derby foundation store, the metric points are partitioned into one table
+ * per time bucket(e.g. one day), and written with JDBC batch inserts grouped
+ * by bucket table and metric.
+ *
  * @author wangl.sir
  * @version v1.0 2019年6月17日
  * @since
  */
 public class DerbyMetricStore implements MetricStore {
 
+	/** Derby SQL state of object already exists. */
+	final private static String SQLSTATE_OBJECT_EXISTS = "X0Y32";
+
+	final private Logger log = LoggerFactory.getLogger(getClass());
+
 	final JdbcTemplate jdbcTemplate;
 
+	final DerbyProperties config;
+
+	/** Created bucket tables(bucket sequence), loaded lazily. */
+	final private NavigableSet<Long> buckets = new ConcurrentSkipListSet<>();
+
+	private volatile boolean bucketsLoaded = false;
+
+	/**
+	 * Guards the bucket tables, the writers and queries share the read lock,
+	 * the dropping takes the write lock, so that a table is never dropped
+	 * between it is ensured and accessed.
+	 */
+	final private ReadWriteLock bucketsLock = new ReentrantReadWriteLock();
+
 	public DerbyMetricStore(JdbcTemplate jdbcTemplate) {
+		this(jdbcTemplate, new DerbyProperties());
+	}
+
+	public DerbyMetricStore(JdbcTemplate jdbcTemplate, DerbyProperties config) {
 		Assert.notNull(jdbcTemplate, "JdbcTemplate must not be null");
+		Assert.notNull(config, "DerbyProperties must not be null");
+		Assert.isTrue(config.getBucketMs() > 0, "Bucket milliseconds must be greater than 0");
+		Assert.isTrue(config.getBatchSize() > 0, "Batch size must be greater than 0");
 		this.jdbcTemplate = jdbcTemplate;
+		this.config = config;
 	}
 
 	@Override
 	public boolean save(MetricModel.MetricAggregate aggregate) {
-		return false;
+		return batchSave(singletonList(aggregate));
+	}
+
+	@Override
+	public boolean batchSave(List<MetricModel.MetricAggregate> aggregates) {
+		// Grouping by bucket table and then by metric, so that rows of the same
+		// table and index prefix are inserted together.
+		Map<Long, TreeMap<String, List<MetricRow>>> groups = new HashMap<>(4);
+		int c = 0;
+		for (MetricModel.MetricAggregate aggregate : aggregates) {
+			long timestamp = aggregate.getTimestamp();
+			for (MetricModel.Metric metric : aggregate.getMetricsList()) {
+				if (isBlank(metric.getMetric())) {
+					continue;
+				}
+				groups.computeIfAbsent(bucketOf(timestamp), k -> new TreeMap<>())
+						.computeIfAbsent(metric.getMetric(), k -> new ArrayList<>(aggregates.size()))
+						.add(new MetricRow(metric.getMetric(), aggregate.getHost(), aggregate.getEndpoint(),
+								toTagsString(metric.getTagsMap()), timestamp, metric.getValue()));
+				++c;
+			}
+		}
+
+		boolean result = true;
+		for (Map.Entry<Long, TreeMap<String, List<MetricRow>>> ent : groups.entrySet()) {
+			List<MetricRow> rows = new ArrayList<>();
+			ent.getValue().values().forEach(rows::addAll);
+			bucketsLock.readLock().lock();
+			try {
+				doBatchInsert(ensureBucketTable(ent.getKey()), rows);
+			} catch (DataAccessException e) {
+				result = false;
+				log.error(String.format("Failed to storage metric rows: %s", rows.size()), e);
+			} finally {
+				bucketsLock.readLock().unlock();
+			}
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Stored metrics count for - {}, aggregates: {}", c, aggregates.size());
+		}
+		return result;
+	}
+
+	/**
+	 * Query metric points of time range [startTime, endTime), and downsampling
+	 * into the intervals of {@code downsampleMs} if greater than 0. The host
+	 * and endpoint are optional filters.
+	 *
+	 * @param metric
+	 * @param host
+	 * @param endpoint
+	 * @param startTime
+	 * @param endTime
+	 * @param downsampleMs
+	 * @param downsampler
+	 * @return Returns the points ordered by timestamp.
+	 */
+	public List<DataPoint> query(String metric, String host, String endpoint, long startTime, long endTime, long downsampleMs,
+			Downsampler downsampler) {
+		Assert.hasText(metric, "Metric must not be empty");
+		Assert.isTrue(endTime >= startTime, "End time must not be less than start time");
+		Assert.notNull(downsampler, "Downsampler must not be null");
+		loadBucketsIfNecessary();
+
+		List<Object> args = new ArrayList<>(5);
+		StringBuilder where = new StringBuilder(" WHERE METRIC=? AND TS>=? AND TS<?");
+		args.add(metric);
+		args.add(startTime);
+		args.add(endTime);
+		if (!isBlank(host)) {
+			where.append(" AND HOST=?");
+			args.add(host);
+		}
+		if (!isBlank(endpoint)) {
+			where.append(" AND ENDPOINT=?");
+			args.add(endpoint);
+		}
+		where.append(" ORDER BY TS");
+
+		// Bucket tables are ordered, so the rows are ordered in whole range.
+		DownsampleCollector collector = new DownsampleCollector(downsampleMs, downsampler);
+		bucketsLock.readLock().lock();
+		try {
+			for (Long bucket : buckets.subSet(bucketOf(startTime), true, bucketOf(endTime), true)) {
+				jdbcTemplate.query("SELECT TS, VAL FROM " + tableOf(bucket) + where, args.toArray(),
+						(RowCallbackHandler) rs -> collector.collect(rs.getLong(1), rs.getDouble(2)));
+			}
+		} finally {
+			bucketsLock.readLock().unlock();
+		}
+		return collector.complete();
+	}
+
+	/**
+	 * Drop bucket tables earlier than the time.
+	 *
+	 * @param beforeTime
+	 * @return Returns the count of dropped tables.
+	 */
+	public int dropBefore(long beforeTime) {
+		loadBucketsIfNecessary();
+		int c = 0;
+		bucketsLock.writeLock().lock();
+		try {
+			for (Long bucket : new ArrayList<>(buckets.headSet(bucketOf(beforeTime), false))) {
+				jdbcTemplate.execute("DROP TABLE " + tableOf(bucket));
+				buckets.remove(bucket);
+				++c;
+			}
+		} finally {
+			bucketsLock.writeLock().unlock();
+		}
+		return c;
+	}
+
+	private void doBatchInsert(String table, List<MetricRow> rows) {
+		jdbcTemplate.batchUpdate("INSERT INTO " + table + "(METRIC, HOST, ENDPOINT, TAGS, TS, VAL) VALUES(?, ?, ?, ?, ?, ?)",
+				rows, config.getBatchSize(), (ps, row) -> {
+					ps.setString(1, row.metric);
+					ps.setString(2, row.host);
+					ps.setString(3, row.endpoint);
+					ps.setString(4, row.tags);
+					ps.setLong(5, row.timestamp);
+					ps.setDouble(6, row.value);
+				});
+	}
+
+	/**
+	 * Ensure bucket table created, must be called with the read lock of
+	 * buckets held.
+	 *
+	 * @param bucket
+	 * @return
+	 */
+	private String ensureBucketTable(long bucket) {
+		loadBucketsIfNecessary();
+		String table = tableOf(bucket);
+		if (!buckets.contains(bucket)) {
+			synchronized (this) {
+				if (!buckets.contains(bucket)) {
+					createTableIfNecessary("CREATE TABLE " + table
+							+ "(METRIC VARCHAR(255) NOT NULL, HOST VARCHAR(128), ENDPOINT VARCHAR(128), TAGS VARCHAR(1024),"
+							+ " TS BIGINT NOT NULL, VAL DOUBLE NOT NULL)");
+					createTableIfNecessary("CREATE INDEX IDX_" + table + " ON " + table + "(METRIC, TS)");
+					buckets.add(bucket);
+				}
+			}
+		}
+		return table;
+	}
+
+	private void createTableIfNecessary(String ddl) {
+		try {
+			jdbcTemplate.execute(ddl);
+		} catch (DataAccessException e) {
+			Throwable cause = e.getMostSpecificCause();
+			if (!(cause instanceof SQLException && SQLSTATE_OBJECT_EXISTS.equals(((SQLException) cause).getSQLState()))) {
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Load existing bucket tables of database once.
+	 */
+	private void loadBucketsIfNecessary() {
+		if (!bucketsLoaded) {
+			synchronized (this) {
+				if (!bucketsLoaded) {
+					String prefix = config.getTablePrefix().toUpperCase();
+					jdbcTemplate.execute((Connection conn) -> {
+						try (ResultSet rs = conn.getMetaData().getTables(null, null, prefix + "%", new String[] { "TABLE" })) {
+							while (rs.next()) {
+								String suffix = rs.getString("TABLE_NAME").substring(prefix.length());
+								try {
+									buckets.add(Long.parseLong(suffix));
+								} catch (NumberFormatException e) {
+									// Ignore non bucket table.
+								}
+							}
+						}
+						return null;
+					});
+					bucketsLoaded = true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Bucket sequence of timestamp, the timestamps before epoch are clamped to
+	 * the first bucket, so that the table name never contains a minus sign.
+	 *
+	 * @param timestamp
+	 * @return
+	 */
+	private long bucketOf(long timestamp) {
+		return Math.max(0L, Math.floorDiv(timestamp, config.getBucketMs()));
+	}
+
+	private String tableOf(long bucket) {
+		return config.getTablePrefix().toUpperCase() + bucket;
+	}
+
+	/**
+	 * Canonical tags string ordered by key, e.g: k1=v1,k2=v2
+	 *
+	 * @param tags
+	 * @return
+	 */
+	private static String toTagsString(Map<String, String> tags) {
+		if (tags.isEmpty()) {
+			return null;
+		}
+		StringBuilder s = new StringBuilder(tags.size() * 16);
+		for (Map.Entry<String, String> ent : new TreeMap<>(tags).entrySet()) {
+			if (s.length() > 0) {
+				s.append(",");
+			}
+			s.append(ent.getKey()).append("=").append(ent.getValue());
+		}
+		return left(s.toString(), 1024);
+	}
+
+	/**
+	 * Metric row of bucket table.
+	 */
+	private static class MetricRow {
+		final String metric;
+		final String host;
+		final String endpoint;
+		final String tags;
+		final long timestamp;
+		final double value;
+
+		MetricRow(String metric, String host, String endpoint, String tags, long timestamp, double value) {
+			this.metric = left(metric, 255);
+			this.host = left(host, 128);
+			this.endpoint = left(endpoint, 128);
+			this.tags = tags;
+			this.timestamp = timestamp;
+			this.value = value;
+		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Collect ordered rows into downsampled points, the raw points are kept
+	 * if no downsample interval.
+	 */
+	private static class DownsampleCollector {
+		final long downsampleMs;
+		final Downsampler downsampler;
+		final List<DataPoint> points = new ArrayList<>();
+
+		long interval = Long.MIN_VALUE;
+		double acc;
+		int count;
+
+		DownsampleCollector(long downsampleMs, Downsampler downsampler) {
+			this.downsampleMs = downsampleMs;
+			this.downsampler = downsampler;
+		}
+
+		void collect(long timestamp, double value) {
+			if (downsampleMs <= 0) {
+				points.add(new DataPoint(timestamp, value, 1));
+				return;
+			}
+			long current = Math.floorDiv(timestamp, downsampleMs) * downsampleMs;
+			if (current != interval) {
+				flush();
+				interval = current;
+				acc = downsampler.initial();
+				count = 0;
+			}
+			acc = downsampler.accumulate(acc, value);
+			++count;
+		}
+
+		List<DataPoint> complete() {
+			flush();
+			return Collections.unmodifiableList(points);
+		}
+
+		private void flush() {
+			if (count > 0) {
+				points.add(new DataPoint(interval, downsampler.complete(acc, count), count));
+				count = 0;
+			}
+		}
+	}
+
+	/**
+	 * Downsample aggregate function.
+	 */
+	public static enum Downsampler {
+
+		AVG(0d) {
+			@Override
+			double accumulate(double acc, double value) {
+				return acc + value;
+			}
+
+			@Override
+			double complete(double acc, int count) {
+				return acc / count;
+			}
+		},
+
+		SUM(0d) {
+			@Override
+			double accumulate(double acc, double value) {
+				return acc + value;
+			}
+		},
+
+		MAX(Double.NEGATIVE_INFINITY) {
+			@Override
+			double accumulate(double acc, double value) {
+				return Math.max(acc, value);
+			}
+		},
+
+		MIN(Double.POSITIVE_INFINITY) {
+			@Override
+			double accumulate(double acc, double value) {
+				return Math.min(acc, value);
+			}
+		},
+
+		COUNT(0d) {
+			@Override
+			double accumulate(double acc, double value) {
+				return acc + 1;
+			}
+		};
+
+		final private double initial;
+
+		private Downsampler(double initial) {
+			this.initial = initial;
+		}
+
+		double initial() {
+			return initial;
+		}
+
+		abstract double accumulate(double acc, double value);
+
+		double complete(double acc, int count) {
+			return acc;
+		}
+
+	}
+
+	/**
+	 * Queried metric point, the timestamp is the start of interval if
+	 * downsampled.
+	 */
+	public static class DataPoint {
+
+		final private long timestamp;
+		final private double value;
+		final private int count;
+
+		public DataPoint(long timestamp, double value, int count) {
+			this.timestamp = timestamp;
+			this.value = value;
+			this.count = count;
+		}
+
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		public double getValue() {
+			return value;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		@Override
+		public String toString() {
+			return "DataPoint [timestamp=" + timestamp + ", value=" + value + ", count=" + count + "]";
+		}
+
+	}
+
+}
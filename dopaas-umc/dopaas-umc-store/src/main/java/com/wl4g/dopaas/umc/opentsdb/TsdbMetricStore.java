@@ -23,6 +23,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -44,10 +45,35 @@ public class TsdbMetricStore implements MetricStore {
 
 	@Override
 	public boolean save(MetricModel.MetricAggregate aggregate) {
+		int c = doPutPoints(aggregate);
+		if (log.isInfoEnabled()) {
+			log.info("Stored metrics count for - {}", c);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean batchSave(List<MetricModel.MetricAggregate> aggregates) {
+		int c = 0;
+		for (MetricModel.MetricAggregate aggregate : aggregates) {
+			c += doPutPoints(aggregate);
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Stored metrics count for - {}, aggregates: {}", c, aggregates.size());
+		}
+		return true;
+	}
+
+	/**
+	 * Convert metric aggregate to points and put to OpenTSDB client buffer.
+	 * 
+	 * @param aggregate
+	 * @return Returns the count of points put.
+	 */
+	private int doPutPoints(MetricModel.MetricAggregate aggregate) {
 		long timestamp = aggregate.getTimestamp();
 		int c = 0;
 		for (MetricModel.Metric statMetric : aggregate.getMetricsList()) {
-			statMetric.getTagsMap();
 			if (StringUtils.isBlank(statMetric.getMetric())) {
 				continue;
 			}
@@ -69,11 +95,7 @@ public class TsdbMetricStore implements MetricStore {
 				log.error("Failed to storage, caused by: ", e);
 			}
 		}
-
-		if (log.isInfoEnabled()) {
-			log.info("Stored metrics count for - {}", c);
-		}
-		return true;
+		return c;
 	}
 
 }
\ No newline at end of file
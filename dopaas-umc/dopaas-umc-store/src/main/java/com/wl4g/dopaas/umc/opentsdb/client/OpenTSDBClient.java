@@ -15,17 +15,14 @@
  */
 package com.wl4g.dopaas.umc.opentsdb.client;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpResponse;
-import org.apache.http.nio.reactor.IOReactorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +38,9 @@ import com.wl4g.dopaas.umc.opentsdb.client.common.Json;
 import com.wl4g.dopaas.umc.opentsdb.client.http.HttpClient;
 import com.wl4g.dopaas.umc.opentsdb.client.http.HttpClientFactory;
 import com.wl4g.dopaas.umc.opentsdb.client.http.callback.QueryHttpResponseCallback;
-import com.wl4g.dopaas.umc.opentsdb.client.sender.consumer.Consumer;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.DiskSpillStore;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.OverflowPolicy;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.PointBuffer;
 import com.wl4g.dopaas.umc.opentsdb.client.sender.consumer.ConsumerImpl;
 import com.wl4g.dopaas.umc.opentsdb.client.sender.producer.Producer;
 import com.wl4g.dopaas.umc.opentsdb.client.sender.producer.ProducerImpl;
@@ -63,24 +62,28 @@ public class OpenTSDBClient {
 
 	private Producer producer;
 
-	private Consumer consumer;
+	private ConsumerImpl consumer;
 
-	private BlockingQueue<Point> queue;
+	private PointBuffer buffer;
 
 	/***
 	 * 通过反射来允许删除
 	 */
 	private static Field queryDeleteField;
 
-	public OpenTSDBClient(OpenTSDBConfig config) throws IOReactorException {
+	public OpenTSDBClient(OpenTSDBConfig config) throws IOException {
 		this.config = config;
 		this.httpClient = HttpClientFactory.createHttpClient(config);
 		this.httpClient.start();
 
 		if (!config.isReadonly()) {
-			this.queue = new ArrayBlockingQueue<>(config.getBatchPutBufferSize());
-			this.producer = new ProducerImpl(queue);
-			this.consumer = new ConsumerImpl(queue, httpClient, config);
+			DiskSpillStore spillStore = null;
+			if (config.getOverflowPolicy() == OverflowPolicy.SPILL) {
+				spillStore = new DiskSpillStore(new File(config.getSpillDirectory()), config.getBatchPutBufferSize());
+			}
+			this.buffer = new PointBuffer(config.getBatchPutBufferSize(), config.getOverflowPolicy(), spillStore);
+			this.producer = new ProducerImpl(buffer);
+			this.consumer = new ConsumerImpl(buffer, httpClient, config);
 			this.consumer.start();
 
 			try {
@@ -182,33 +185,54 @@ public class OpenTSDBClient {
 	}
 
 	/***
-	 * 优雅关闭链接，会等待所有消费者线程结束
+	 * 缓冲队列中等待写入的数据点数
+	 * 
+	 * @return
+	 */
+	public int getQueueDepth() {
+		return config.isReadonly() ? 0 : buffer.size();
+	}
+
+	/***
+	 * 因队列溢出而丢弃的数据点数
+	 * 
+	 * @return
+	 */
+	public long getDroppedPoints() {
+		return config.isReadonly() ? 0 : buffer.getDroppedPoints();
+	}
+
+	/***
+	 * 因队列溢出而写入磁盘的数据点数
+	 * 
+	 * @return
+	 */
+	public long getSpilledPoints() {
+		return config.isReadonly() ? 0 : buffer.getSpilledPoints();
+	}
+
+	/***
+	 * 进行中的批量写入请求数
+	 * 
+	 * @return
+	 */
+	public int getInFlightRequests() {
+		return config.isReadonly() ? 0 : consumer.getInFlightRequests();
+	}
+
+	/***
+	 * 优雅关闭链接，消费者线程会消费完队列中的数据点，并等待进行中的请求完成
 	 */
 	public void gracefulClose() throws IOException {
 		if (!config.isReadonly()) {
 			// 先停止写入
 			this.producer.forbiddenSend();
-			// 等待队列被消费空
-			this.waitEmpty();
-			// 关闭消费者
+			// 关闭消费者，消费完队列后结束
 			this.consumer.gracefulStop();
 		}
 		this.httpClient.gracefulClose();
 	}
 
-	/***
-	 * 等待队列被消费空
-	 */
-	private void waitEmpty() {
-		while (!queue.isEmpty()) {
-			try {
-				TimeUnit.MILLISECONDS.sleep(config.getBatchPutTimeLimit());
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
-		}
-	}
-
 	/***
 	 * 强行关闭
 	 */
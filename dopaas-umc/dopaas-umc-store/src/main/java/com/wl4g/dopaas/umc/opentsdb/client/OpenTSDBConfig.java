@@ -15,7 +15,12 @@
  */
 package com.wl4g.dopaas.umc.opentsdb.client;
 
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
 import com.wl4g.dopaas.umc.opentsdb.client.http.callback.BatchPutHttpResponseCallback;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.OverflowPolicy;
 
 /**
  * @Description: opentsdb通用配置
@@ -43,6 +48,14 @@ public class OpenTSDBConfig {
 
 	private boolean readonly;
 
+	private int maxInFlightRequests;
+
+	private boolean batchPutGzip;
+
+	private OverflowPolicy overflowPolicy;
+
+	private String spillDirectory;
+
 	private BatchPutHttpResponseCallback.BatchPutCallBack batchPutCallBack;
 
 	public static class Builder {
@@ -86,6 +99,26 @@ public class OpenTSDBConfig {
 		 */
 		private boolean readonly = false;
 
+		/***
+		 * 同时进行中的批量写入请求数上限，达到上限时消费者等待(反压)
+		 */
+		private int maxInFlightRequests = 8;
+
+		/***
+		 * 批量写入请求体是否gzip压缩，默认关闭
+		 */
+		private boolean batchPutGzip = false;
+
+		/***
+		 * 缓冲队列满时的处理策略
+		 */
+		private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+		/***
+		 * 溢出策略为SPILL时，溢出数据点的本地目录
+		 */
+		private String spillDirectory = System.getProperty("java.io.tmpdir") + "/opentsdb-spill";
+
 		/***
 		 * 对这个client实例的批量写入设置一个回调接口
 		 */
@@ -108,6 +141,10 @@ public class OpenTSDBConfig {
 			config.batchPutBufferSize = this.batchPutBufferSize;
 			config.batchPutTimeLimit = this.batchPutTimeLimit;
 			config.readonly = this.readonly;
+			config.maxInFlightRequests = this.maxInFlightRequests;
+			config.batchPutGzip = this.batchPutGzip;
+			config.overflowPolicy = this.overflowPolicy;
+			config.spillDirectory = this.spillDirectory;
 			config.batchPutCallBack = this.batchPutCallBack;
 
 			return config;
@@ -166,6 +203,33 @@ public class OpenTSDBConfig {
 			return this;
 		}
 
+		public Builder maxInFlightRequests(int maxInFlightRequests) {
+			if (maxInFlightRequests < 1) {
+				throw new IllegalArgumentException("The max in-flight requests can't be less then 1");
+			}
+			this.maxInFlightRequests = maxInFlightRequests;
+			return this;
+		}
+
+		public Builder batchPutGzip(boolean batchPutGzip) {
+			this.batchPutGzip = batchPutGzip;
+			return this;
+		}
+
+		public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+			Objects.requireNonNull(overflowPolicy);
+			this.overflowPolicy = overflowPolicy;
+			return this;
+		}
+
+		public Builder spillDirectory(String spillDirectory) {
+			if (StringUtils.isBlank(spillDirectory)) {
+				throw new IllegalArgumentException("The spill directory can't be empty");
+			}
+			this.spillDirectory = spillDirectory;
+			return this;
+		}
+
 		public Builder batchPutCallBack(BatchPutHttpResponseCallback.BatchPutCallBack batchPutCallBack) {
 			this.batchPutCallBack = batchPutCallBack;
 			return this;
@@ -249,6 +313,38 @@ public class OpenTSDBConfig {
 		this.readonly = readonly;
 	}
 
+	public int getMaxInFlightRequests() {
+		return maxInFlightRequests;
+	}
+
+	public void setMaxInFlightRequests(int maxInFlightRequests) {
+		this.maxInFlightRequests = maxInFlightRequests;
+	}
+
+	public boolean isBatchPutGzip() {
+		return batchPutGzip;
+	}
+
+	public void setBatchPutGzip(boolean batchPutGzip) {
+		this.batchPutGzip = batchPutGzip;
+	}
+
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	public String getSpillDirectory() {
+		return spillDirectory;
+	}
+
+	public void setSpillDirectory(String spillDirectory) {
+		this.spillDirectory = spillDirectory;
+	}
+
 	public BatchPutHttpResponseCallback.BatchPutCallBack getBatchPutCallBack() {
 		return batchPutCallBack;
 	}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.opentsdb.client.http;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of reusable byte array buffers for request entities, so that the
+ * serialized(and compressed) batch put payloads are written into pooled
+ * memory instead of allocating new strings and arrays per request.
+ *
+ * @Author: agent <agent@local>
+ * @Description:
+ * @CreateDate: 2026/10/16
+ * @Version: 1.0
+ */
+public class ByteBufferPool {
+
+	private final ConcurrentLinkedQueue<PooledBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger pooled = new AtomicInteger(0);
+
+	/** Maximum buffers retained. */
+	private final int maxPooled;
+
+	/** Initial capacity of new buffer. */
+	private final int initialCapacity;
+
+	/** Buffers grown larger than it will not be retained. */
+	private final int maxRetainCapacity;
+
+	public ByteBufferPool(int maxPooled, int initialCapacity, int maxRetainCapacity) {
+		this.maxPooled = maxPooled;
+		this.initialCapacity = initialCapacity;
+		this.maxRetainCapacity = maxRetainCapacity;
+	}
+
+	/***
+	 * Acquire a reset buffer.
+	 *
+	 * @return
+	 */
+	public PooledBuffer acquire() {
+		PooledBuffer buffer = buffers.poll();
+		if (buffer == null) {
+			return new PooledBuffer(initialCapacity);
+		}
+		pooled.decrementAndGet();
+		buffer.reset();
+		return buffer;
+	}
+
+	/***
+	 * Release buffer to the pool, the buffer must not be used after released.
+	 *
+	 * @param buffer
+	 */
+	public void release(PooledBuffer buffer) {
+		if (buffer == null || buffer.capacity() > maxRetainCapacity) {
+			return;
+		}
+		if (pooled.incrementAndGet() <= maxPooled) {
+			buffers.offer(buffer);
+		} else {
+			pooled.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Byte array buffer, exposes the internal array without copying.
+	 */
+	public static class PooledBuffer extends ByteArrayOutputStream {
+
+		PooledBuffer(int initialCapacity) {
+			super(initialCapacity);
+		}
+
+		public byte[] array() {
+			return buf;
+		}
+
+		public int capacity() {
+			return buf.length;
+		}
+
+	}
+
+}
@@ -22,6 +22,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.concurrent.FutureCallback;
@@ -96,13 +97,38 @@ public class HttpClient {
 	 * @return
 	 */
 	public Future<HttpResponse> post(String path, String json, FutureCallback<HttpResponse> httpCallback) {
-		log.debug("发送post请求，路径:{}，请求内容:{}", path, json);
+		if (log.isDebugEnabled()) {
+			log.debug("发送post请求，路径:{}，请求内容长度:{}", path, StringUtils.length(json));
+		}
 		HttpPost httpPost = new HttpPost(getUrl(path));
 		if (StringUtils.isNoneBlank(json)) {
 			httpPost.addHeader("Content-Type", "application/json");
 			httpPost.setEntity(generateStringEntity(json));
 		}
+		return execute(httpPost, httpCallback);
+	}
+
+	/***
+	 * post请求，直接发送已序列化的请求体(如压缩后的字节)
+	 * 
+	 * @param path
+	 *            请求路径
+	 * @param entity
+	 *            请求体
+	 * @param httpCallback
+	 *            回调
+	 * @return
+	 */
+	public Future<HttpResponse> post(String path, HttpEntity entity, FutureCallback<HttpResponse> httpCallback) {
+		if (log.isDebugEnabled()) {
+			log.debug("发送post请求，路径:{}，请求内容长度:{}", path, entity.getContentLength());
+		}
+		HttpPost httpPost = new HttpPost(getUrl(path));
+		httpPost.setEntity(entity);
+		return execute(httpPost, httpCallback);
+	}
 
+	private Future<HttpResponse> execute(HttpPost httpPost, FutureCallback<HttpResponse> httpCallback) {
 		FutureCallback<HttpResponse> responseCallback = null;
 		if (httpCallback != null) {
 			log.debug("等待完成的任务数:{}", unCompletedTaskNum.incrementAndGet());
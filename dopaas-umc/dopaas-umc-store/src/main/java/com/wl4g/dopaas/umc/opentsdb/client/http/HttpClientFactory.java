@@ -136,8 +136,8 @@ public class HttpClientFactory {
 	 */
 	private static CloseableHttpAsyncClient createPoolingHttpClient(RequestConfig config, PoolingNHttpClientConnectionManager cm,
 			OpenTSDBConfig openTSDBConfig) {
-		cm.setMaxTotal(100);
-		cm.setDefaultMaxPerRoute(100);
+		cm.setMaxTotal(openTSDBConfig.getHttpConnectionPool());
+		cm.setDefaultMaxPerRoute(openTSDBConfig.getHttpConnectionPool());
 
 		HttpAsyncClientBuilder httpAsyncClientBuilder = HttpAsyncClients.custom().setConnectionManager(cm)
 				.setDefaultRequestConfig(config);
@@ -45,16 +45,34 @@ public class BatchPutHttpResponseCallback implements FutureCallback<HttpResponse
 
 	private List<Point> points;
 
+	/***
+	 * 请求结束(无论成功失败)时执行，用于释放请求占用的资源
+	 */
+	private Runnable releaser;
+
 	public BatchPutHttpResponseCallback() {
 	}
 
 	public BatchPutHttpResponseCallback(BatchPutCallBack callBack, List<Point> points) {
+		this(callBack, points, null);
+	}
+
+	public BatchPutHttpResponseCallback(BatchPutCallBack callBack, List<Point> points, Runnable releaser) {
 		this.callBack = callBack;
 		this.points = points;
+		this.releaser = releaser;
 	}
 
 	@Override
 	public void completed(HttpResponse response) {
+		try {
+			doCompleted(response);
+		} finally {
+			release();
+		}
+	}
+
+	private void doCompleted(HttpResponse response) {
 		if (callBack != null) {
 			// 无论成功失败，response body的格式始终是DetailResult的形式
 			HttpEntity entity = response.getEntity();
@@ -79,15 +97,25 @@ public class BatchPutHttpResponseCallback implements FutureCallback<HttpResponse
 
 	@Override
 	public void failed(Exception e) {
-		if (callBack != null) {
-			log.error("批量添加请求失败,error:{}", e.getMessage());
-			this.callBack.failed(points, e);
+		try {
+			if (callBack != null) {
+				log.error("批量添加请求失败,error:{}", e.getMessage());
+				this.callBack.failed(points, e);
+			}
+		} finally {
+			release();
 		}
 	}
 
 	@Override
 	public void cancelled() {
+		release();
+	}
 
+	private void release() {
+		if (releaser != null) {
+			releaser.run();
+		}
 	}
 
 	public interface BatchPutCallBack {
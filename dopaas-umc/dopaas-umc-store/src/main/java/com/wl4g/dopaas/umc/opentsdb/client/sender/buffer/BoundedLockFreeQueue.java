@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.opentsdb.client.sender.buffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free array queue(D. Vyukov's algorithm), each slot carries a
+ * sequence so that producers and consumers only CAS on their own position.
+ * It's safe for multiple producers and multiple consumers, and never blocks,
+ * the offer returns false if full and the poll returns null if empty.
+ *
+ * @Author: agent <agent@local>
+ * @Description:
+ * @CreateDate: 2026/10/16
+ * @Version: 1.0
+ */
+public class BoundedLockFreeQueue<E> {
+
+	private final int capacity;
+
+	private final AtomicReferenceArray<E> elements;
+
+	/** Expected position of slot, used for claiming the slot. */
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong enqueuePosition = new AtomicLong(0);
+
+	private final AtomicLong dequeuePosition = new AtomicLong(0);
+
+	public BoundedLockFreeQueue(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity can't be less then 1");
+		}
+		this.capacity = capacity;
+		this.elements = new AtomicReferenceArray<>(capacity);
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/***
+	 * Offer to tail, returns false if the queue is full.
+	 *
+	 * @param e
+	 * @return
+	 */
+	public boolean offer(E e) {
+		if (e == null) {
+			throw new NullPointerException();
+		}
+		long pos = enqueuePosition.get();
+		for (;;) {
+			int index = (int) (pos % capacity);
+			long diff = sequences.get(index) - pos;
+			if (diff == 0) {
+				if (enqueuePosition.compareAndSet(pos, pos + 1)) {
+					elements.lazySet(index, e);
+					// Publish to consumer.
+					sequences.set(index, pos + 1);
+					return true;
+				}
+				pos = enqueuePosition.get();
+			} else if (diff < 0) {
+				return false; // Full
+			} else {
+				pos = enqueuePosition.get();
+			}
+		}
+	}
+
+	/***
+	 * Poll from head, returns null if the queue is empty.
+	 *
+	 * @return
+	 */
+	public E poll() {
+		long pos = dequeuePosition.get();
+		for (;;) {
+			int index = (int) (pos % capacity);
+			long diff = sequences.get(index) - (pos + 1);
+			if (diff == 0) {
+				if (dequeuePosition.compareAndSet(pos, pos + 1)) {
+					E e = elements.get(index);
+					elements.lazySet(index, null);
+					// Release slot to producer of next round.
+					sequences.set(index, pos + capacity);
+					return e;
+				}
+				pos = dequeuePosition.get();
+			} else if (diff < 0) {
+				return null; // Empty
+			} else {
+				pos = dequeuePosition.get();
+			}
+		}
+	}
+
+	/***
+	 * Approximate size of queue.
+	 *
+	 * @return
+	 */
+	public int size() {
+		long size = enqueuePosition.get() - dequeuePosition.get();
+		return (int) Math.max(0, Math.min(size, capacity));
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.opentsdb.client.sender.buffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wl4g.dopaas.umc.opentsdb.client.bean.request.Point;
+import com.wl4g.dopaas.umc.opentsdb.client.common.Json;
+
+/**
+ * Local disk spill store of overflowed points, the points are appended as
+ * JSON lines into segment files, and read back segment by segment in order of
+ * creation. The segments left by the last process are recovered on startup.
+ *
+ * @Author: agent <agent@local>
+ * @Description:
+ * @CreateDate: 2026/10/16
+ * @Version: 1.0
+ */
+public class DiskSpillStore implements Closeable {
+
+	final private static String SEGMENT_PREFIX = "spill-";
+	final private static String SEGMENT_SUFFIX = ".json";
+
+	final private Logger log = LoggerFactory.getLogger(getClass());
+
+	private final File directory;
+
+	private final int segmentPoints;
+
+	/** Sealed segments, waiting to read. */
+	private final Deque<File> sealedSegments = new ArrayDeque<>();
+
+	/** Loaded points of the segment being read. */
+	private final Deque<Point> loadedPoints = new ArrayDeque<>();
+
+	private File writingSegment;
+
+	private Writer writer;
+
+	private int writingPoints;
+
+	private long sequence;
+
+	private volatile long pendingPoints;
+
+	private boolean closed = false;
+
+	public DiskSpillStore(File directory, int segmentPoints) throws IOException {
+		if (segmentPoints < 1) {
+			throw new IllegalArgumentException("The segment points can't be less then 1");
+		}
+		if (!directory.exists() && !directory.mkdirs()) {
+			throw new IOException(String.format("Unable to create spill directory: %s", directory));
+		}
+		this.directory = directory;
+		this.segmentPoints = segmentPoints;
+		this.sequence = System.currentTimeMillis();
+
+		// Recovery segments of the last process.
+		File[] segments = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		if (segments != null && segments.length > 0) {
+			Arrays.sort(segments);
+			sealedSegments.addAll(Arrays.asList(segments));
+			// Unknown points count of recovered segments, at least one.
+			pendingPoints = segments.length;
+			log.info("Recovered spill segments: {}", segments.length);
+		}
+	}
+
+	/***
+	 * Append point to the writing segment.
+	 *
+	 * @param point
+	 * @throws IOException
+	 */
+	public synchronized void append(Point point) throws IOException {
+		if (closed) {
+			throw new IOException("The spill store has been closed.");
+		}
+		if (writer == null) {
+			writingSegment = new File(directory, String.format("%s%020d%s", SEGMENT_PREFIX, ++sequence, SEGMENT_SUFFIX));
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(writingSegment), UTF_8));
+		}
+		writer.write(Json.writeValueAsString(point));
+		writer.write('\n');
+		++pendingPoints;
+		if (++writingPoints >= segmentPoints) {
+			seal();
+		}
+	}
+
+	/***
+	 * Read the spilled points to batch in order.
+	 *
+	 * @param batch
+	 * @param maxSize
+	 * @return Returns the count of points read.
+	 */
+	public synchronized int drainTo(List<Point> batch, int maxSize) {
+		if (closed) {
+			return 0;
+		}
+		if (loadedPoints.isEmpty()) {
+			if (sealedSegments.isEmpty() && writingPoints > 0) {
+				seal();
+			}
+			File segment = sealedSegments.poll();
+			if (segment != null) {
+				load(segment);
+			}
+		}
+		int c = 0;
+		while (c < maxSize && !loadedPoints.isEmpty()) {
+			batch.add(loadedPoints.poll());
+			++c;
+		}
+		if (loadedPoints.isEmpty() && sealedSegments.isEmpty() && writingPoints == 0) {
+			pendingPoints = 0;
+		} else {
+			pendingPoints = Math.max(0, pendingPoints - c);
+		}
+		return c;
+	}
+
+	/***
+	 * Approximate count of spilled points not read yet.
+	 *
+	 * @return
+	 */
+	public long getPendingPoints() {
+		return pendingPoints;
+	}
+
+	public boolean hasPending() {
+		return pendingPoints > 0;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		// Write back the loaded but not read points.
+		while (!loadedPoints.isEmpty()) {
+			append(loadedPoints.poll());
+		}
+		// Keep segments on disk, recovery on the next startup.
+		seal();
+		closed = true;
+	}
+
+	private void seal() {
+		if (writer != null) {
+			try {
+				writer.close();
+				sealedSegments.offer(writingSegment);
+			} catch (IOException e) {
+				log.error(String.format("Failed to seal spill segment: %s", writingSegment), e);
+			}
+			writer = null;
+			writingSegment = null;
+			writingPoints = 0;
+		}
+	}
+
+	private void load(File segment) {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(segment), UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isEmpty()) {
+					loadedPoints.offer(Json.readValue(line, Point.class));
+				}
+			}
+		} catch (IOException e) {
+			log.error(String.format("Failed to read spill segment: %s, the points will be discarded.", segment), e);
+		}
+		if (!segment.delete()) {
+			log.warn("Unable to delete spill segment: {}", segment);
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.opentsdb.client.sender.buffer;
+
+/**
+ * Overflow policy of points buffer when the queue is full.
+ *
+ * @Author: agent <agent@local>
+ * @Description:
+ * @CreateDate: 2026/10/16
+ * @Version: 1.0
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * Block the producer until the queue has free space.
+	 */
+	BLOCK,
+
+	/**
+	 * Drop the oldest points of queue to make space.
+	 */
+	DROP_OLDEST,
+
+	/**
+	 * Spill the overflowed points to local disk, they will be sent after the
+	 * queue is drained.
+	 */
+	SPILL;
+
+}
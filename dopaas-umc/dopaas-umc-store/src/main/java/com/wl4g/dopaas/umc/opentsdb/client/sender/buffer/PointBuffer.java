@@ -0,0 +1,273 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.opentsdb.client.sender.buffer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.wl4g.dopaas.umc.opentsdb.client.bean.request.Point;
+
+/**
+ * Bounded points buffer of between producers and batch put consumers, backed
+ * by {@link BoundedLockFreeQueue}. The lock is only used to park and wake up
+ * waiters when the queue is empty(consumers) or full({@link OverflowPolicy#BLOCK}
+ * producers), so the hot path is lock-free.
+ *
+ * @Author: agent <agent@local>
+ * @Description:
+ * @CreateDate: 2026/10/16
+ * @Version: 1.0
+ */
+public class PointBuffer implements Closeable {
+
+	final private Logger log = LoggerFactory.getLogger(getClass());
+
+	private final BoundedLockFreeQueue<Point> queue;
+
+	private final OverflowPolicy overflowPolicy;
+
+	/** Spill store, required for {@link OverflowPolicy#SPILL} */
+	private final DiskSpillStore spillStore;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = lock.newCondition();
+
+	private final Condition notFull = lock.newCondition();
+
+	private final AtomicInteger emptyWaiters = new AtomicInteger(0);
+
+	private final AtomicInteger fullWaiters = new AtomicInteger(0);
+
+	private final LongAdder droppedPoints = new LongAdder();
+
+	private final LongAdder spilledPoints = new LongAdder();
+
+	private volatile boolean closed = false;
+
+	public PointBuffer(int capacity, OverflowPolicy overflowPolicy, DiskSpillStore spillStore) {
+		if (overflowPolicy == null) {
+			throw new IllegalArgumentException("The overflow policy can't be null");
+		}
+		if (overflowPolicy == OverflowPolicy.SPILL && spillStore == null) {
+			throw new IllegalArgumentException("The spill store can't be null of overflow policy: SPILL");
+		}
+		this.queue = new BoundedLockFreeQueue<>(capacity);
+		this.overflowPolicy = overflowPolicy;
+		this.spillStore = spillStore;
+	}
+
+	/***
+	 * Put point to buffer, the overflow policy is applied if the queue is
+	 * full.
+	 *
+	 * @param point
+	 * @return Returns false if the point is dropped.
+	 */
+	public boolean put(Point point) {
+		if (queue.offer(point)) {
+			signalNotEmpty();
+			return true;
+		}
+		switch (overflowPolicy) {
+		case DROP_OLDEST:
+			while (!queue.offer(point)) {
+				if (queue.poll() != null) {
+					droppedPoints.increment();
+				}
+			}
+			signalNotEmpty();
+			return true;
+		case SPILL:
+			try {
+				spillStore.append(point);
+				spilledPoints.increment();
+				return true;
+			} catch (IOException e) {
+				droppedPoints.increment();
+				log.error("Failed to spill point, it will be dropped.", e);
+				return false;
+			}
+		case BLOCK:
+		default:
+			return awaitPut(point);
+		}
+	}
+
+	/***
+	 * Drain points to batch until the max size is reached or timeout elapsed,
+	 * the spilled points are read when the queue is empty.
+	 *
+	 * @param batch
+	 * @param maxSize
+	 * @param timeoutMs
+	 * @return Returns the count of points drained.
+	 * @throws InterruptedException
+	 */
+	public int drainTo(List<Point> batch, int maxSize, long timeoutMs) throws InterruptedException {
+		long deadline = System.nanoTime() + MILLISECONDS.toNanos(timeoutMs);
+		int c = 0;
+		while (c < maxSize) {
+			Point point = queue.poll();
+			if (point != null) {
+				batch.add(point);
+				++c;
+				continue;
+			}
+			signalNotFull();
+			// The spilled points are kept on disk after closed.
+			if (spillStore != null && !closed && spillStore.hasPending()) {
+				c += spillStore.drainTo(batch, maxSize - c);
+				continue;
+			}
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0 || closed) {
+				break;
+			}
+			awaitNotEmpty(remaining);
+		}
+		if (c > 0) {
+			signalNotFull();
+		}
+		return c;
+	}
+
+	/***
+	 * Count of points in the queue.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return queue.size();
+	}
+
+	/***
+	 * Whether there is no pending points in the queue and spill store.
+	 *
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return queue.isEmpty() && (spillStore == null || !spillStore.hasPending());
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	public long getDroppedPoints() {
+		return droppedPoints.sum();
+	}
+
+	public long getSpilledPoints() {
+		return spilledPoints.sum();
+	}
+
+	public long getSpillPendingPoints() {
+		return spillStore != null ? spillStore.getPendingPoints() : 0;
+	}
+
+	/***
+	 * Wake up all waiting consumers and producers.
+	 */
+	public void wakeup() {
+		lock.lock();
+		try {
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		wakeup();
+		if (spillStore != null) {
+			spillStore.close();
+		}
+	}
+
+	private boolean awaitPut(Point point) {
+		lock.lock();
+		fullWaiters.incrementAndGet();
+		try {
+			while (!queue.offer(point)) {
+				if (closed) {
+					droppedPoints.increment();
+					return false;
+				}
+				// Re-check periodically, in case of the signal was missed.
+				notFull.await(100, MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			droppedPoints.increment();
+			return false;
+		} finally {
+			fullWaiters.decrementAndGet();
+			lock.unlock();
+		}
+		signalNotEmpty();
+		return true;
+	}
+
+	private void awaitNotEmpty(long nanos) throws InterruptedException {
+		lock.lock();
+		emptyWaiters.incrementAndGet();
+		try {
+			if (queue.isEmpty() && !closed) {
+				notEmpty.awaitNanos(nanos);
+			}
+		} finally {
+			emptyWaiters.decrementAndGet();
+			lock.unlock();
+		}
+	}
+
+	private void signalNotEmpty() {
+		if (emptyWaiters.get() > 0) {
+			lock.lock();
+			try {
+				notEmpty.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private void signalNotFull() {
+		if (fullWaiters.get() > 0) {
+			lock.lock();
+			try {
+				notFull.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+}
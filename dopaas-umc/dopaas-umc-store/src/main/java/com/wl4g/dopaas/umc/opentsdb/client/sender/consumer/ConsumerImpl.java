@@ -15,17 +15,21 @@
  */
 package com.wl4g.dopaas.umc.opentsdb.client.sender.consumer;
 
-import java.util.concurrent.BlockingQueue;
+import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.wl4g.dopaas.umc.opentsdb.client.OpenTSDBConfig;
-import com.wl4g.dopaas.umc.opentsdb.client.bean.request.Point;
+import com.wl4g.dopaas.umc.opentsdb.client.http.ByteBufferPool;
 import com.wl4g.dopaas.umc.opentsdb.client.http.HttpClient;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.PointBuffer;
 
 /**
  * @Author: jinyao
@@ -38,7 +42,7 @@ public class ConsumerImpl implements Consumer {
 
 	final private Logger log = LoggerFactory.getLogger(getClass());
 
-	private final BlockingQueue<Point> queue;
+	private final PointBuffer buffer;
 
 	private final HttpClient httpClient;
 
@@ -50,8 +54,23 @@ public class ConsumerImpl implements Consumer {
 
 	private final CountDownLatch countDownLatch;
 
-	public ConsumerImpl(BlockingQueue<Point> queue, HttpClient httpClient, OpenTSDBConfig config) {
-		this.queue = queue;
+	/**
+	 * 消费者是否运行中，停止后消费者线程会消费完队列中剩余的数据点再退出
+	 */
+	private final AtomicBoolean running = new AtomicBoolean(true);
+
+	/**
+	 * 进行中的批量写入请求数许可，用于反压
+	 */
+	private final Semaphore inFlightPermits;
+
+	/**
+	 * 请求体缓冲池
+	 */
+	private final ByteBufferPool bufferPool;
+
+	public ConsumerImpl(PointBuffer buffer, HttpClient httpClient, OpenTSDBConfig config) {
+		this.buffer = buffer;
 		this.httpClient = httpClient;
 		this.config = config;
 		this.threadCount = config.getPutConsumerThreadCount();
@@ -59,6 +78,8 @@ public class ConsumerImpl implements Consumer {
 		this.threadPool = Executors.newFixedThreadPool(threadCount,
 				(runnable) -> new Thread(runnable, "batch-put-thread-" + ++i[0]));
 		this.countDownLatch = new CountDownLatch(threadCount);
+		this.inFlightPermits = new Semaphore(config.getMaxInFlightRequests());
+		this.bufferPool = new ByteBufferPool(config.getMaxInFlightRequests(), 64 * 1024, 4 * 1024 * 1024);
 
 		log.debug("the consumer has started");
 	}
@@ -66,7 +87,8 @@ public class ConsumerImpl implements Consumer {
 	@Override
 	public void start() {
 		for (int i = 0; i < threadCount; i++) {
-			threadPool.execute(new ConsumerRunnable(queue, httpClient, config, countDownLatch));
+			threadPool.execute(
+					new ConsumerRunnable(buffer, httpClient, config, countDownLatch, running, inFlightPermits, bufferPool));
 		}
 	}
 
@@ -80,6 +102,15 @@ public class ConsumerImpl implements Consumer {
 		this.stop(true);
 	}
 
+	/***
+	 * 进行中的批量写入请求数
+	 * 
+	 * @return
+	 */
+	public int getInFlightRequests() {
+		return config.getMaxInFlightRequests() - inFlightPermits.availablePermits();
+	}
+
 	/***
 	 * 关闭线程池
 	 * 
@@ -87,19 +118,27 @@ public class ConsumerImpl implements Consumer {
 	 *            是否强制关闭
 	 */
 	private void stop(boolean force) {
+		running.set(false);
+		try {
+			// 不再等待新的数据点，溢出的数据点保留在磁盘上
+			buffer.close();
+		} catch (IOException e) {
+			log.error("An error occurred closing the points buffer", e);
+		}
 		if (threadPool != null) {
 			if (force) {
 				// 强制退出不等待，截断消费者线程。
 				threadPool.shutdownNow();
 			} else {
-				// 截断消费者线程。
-				while (!threadPool.isShutdown() || !threadPool.isTerminated()) {
-					threadPool.shutdownNow();
-				}
-
-				// 等待所有消费者线程结束。
+				threadPool.shutdown();
 				try {
+					// 等待所有消费者线程消费完队列后结束。
 					countDownLatch.await();
+					// 等待所有进行中的请求完成。
+					if (inFlightPermits.tryAcquire(config.getMaxInFlightRequests(), config.getHttpConnectTimeout(),
+							TimeUnit.SECONDS)) {
+						inFlightPermits.release(config.getMaxInFlightRequests());
+					}
 				} catch (InterruptedException e) {
 					log.error("An error occurred waiting for the consumer thread to close", e);
 				}
@@ -107,4 +146,4 @@ public class ConsumerImpl implements Consumer {
 		}
 	}
 
-}
\ No newline at end of file
+}
@@ -15,12 +15,16 @@
  */
 package com.wl4g.dopaas.umc.opentsdb.client.sender.consumer;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
 
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.entity.NByteArrayEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,8 +32,11 @@ import com.wl4g.dopaas.umc.opentsdb.client.OpenTSDBConfig;
 import com.wl4g.dopaas.umc.opentsdb.client.bean.request.Api;
 import com.wl4g.dopaas.umc.opentsdb.client.bean.request.Point;
 import com.wl4g.dopaas.umc.opentsdb.client.common.Json;
+import com.wl4g.dopaas.umc.opentsdb.client.http.ByteBufferPool;
+import com.wl4g.dopaas.umc.opentsdb.client.http.ByteBufferPool.PooledBuffer;
 import com.wl4g.dopaas.umc.opentsdb.client.http.HttpClient;
 import com.wl4g.dopaas.umc.opentsdb.client.http.callback.BatchPutHttpResponseCallback;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.PointBuffer;
 
 /**
  * 消费者线程具体的消费逻辑
@@ -43,15 +50,18 @@ public class ConsumerRunnable implements Runnable {
 
 	final private Logger log = LoggerFactory.getLogger(getClass());
 
-	private final BlockingQueue<Point> queue;
+	private final PointBuffer buffer;
 
 	private final HttpClient httpClient;
 
-	@SuppressWarnings("unused")
-	private final OpenTSDBConfig config;
-
 	private final CountDownLatch countDownLatch;
 
+	private final AtomicBoolean running;
+
+	private final Semaphore inFlightPermits;
+
+	private final ByteBufferPool bufferPool;
+
 	private BatchPutHttpResponseCallback.BatchPutCallBack callBack;
 
 	/**
@@ -64,91 +74,81 @@ public class ConsumerRunnable implements Runnable {
 	 */
 	private int batchPutTimeLimit;
 
-	public ConsumerRunnable(BlockingQueue<Point> queue, HttpClient httpClient, OpenTSDBConfig config,
-			CountDownLatch countDownLatch) {
-		this.queue = queue;
+	/***
+	 * 请求体是否gzip压缩
+	 */
+	private boolean gzip;
+
+	public ConsumerRunnable(PointBuffer buffer, HttpClient httpClient, OpenTSDBConfig config, CountDownLatch countDownLatch,
+			AtomicBoolean running, Semaphore inFlightPermits, ByteBufferPool bufferPool) {
+		this.buffer = buffer;
 		this.httpClient = httpClient;
-		this.config = config;
 		this.countDownLatch = countDownLatch;
+		this.running = running;
+		this.inFlightPermits = inFlightPermits;
+		this.bufferPool = bufferPool;
 		this.batchSize = config.getBatchPutSize();
 		this.batchPutTimeLimit = config.getBatchPutTimeLimit();
+		this.gzip = config.isBatchPutGzip();
 		this.callBack = config.getBatchPutCallBack();
 	}
 
 	/***
 	 * 设计原则是接收满${batchSize}个元素就提交，或者达到时间${batchPutTimeLimit}
-	 * 当线程被打断说明cosumer执行了stop
+	 * 停止后消费完队列中剩余的数据点再退出，当线程被打断说明cosumer执行了强制停止
 	 */
 	@Override
 	public void run() {
 		log.debug("thread:{} has started take point from queue", Thread.currentThread().getName());
-		Point waitPoint = null;
-		boolean readyClose = false;
-		int waitTimeLimit = batchPutTimeLimit / 3;
-
-		while (!readyClose) {
-			long t0 = System.currentTimeMillis();
+		try {
 			List<Point> pointList = new ArrayList<>(batchSize);
-			if (waitPoint != null) {
-				pointList.add(waitPoint);
-				waitPoint = null;
-			}
-
-			for (int i = pointList.size(); i < batchSize; i++) {
-				try {
-					Point point = queue.poll(waitTimeLimit, TimeUnit.MILLISECONDS);
-					if (point != null) {
-						pointList.add(point);
-					}
-					long t1 = System.currentTimeMillis();
-					if (t1 - t0 > batchPutTimeLimit) {
-						break;
-					}
-				} catch (InterruptedException e) {
-					readyClose = true;
-					log.info("The thread {} is interrupted", Thread.currentThread().getName());
-					break;
+			while (running.get() || buffer.size() > 0) {
+				buffer.drainTo(pointList, batchSize, batchPutTimeLimit);
+				if (!pointList.isEmpty()) {
+					sendHttp(pointList);
+					// 数据点列表由回调持有，不能复用
+					pointList = new ArrayList<>(batchSize);
 				}
 			}
-
-			if (pointList.size() == 0 && !readyClose) {
-				try {
-					waitPoint = queue.take();
-				} catch (InterruptedException e) {
-					readyClose = true;
-					log.info("The thread {} is interrupted", Thread.currentThread().getName());
-				}
-				continue;
-			}
-
-			if (pointList.size() == 0) {
-				continue;
-			}
-
-			sendHttp(pointList);
-
+		} catch (InterruptedException e) {
+			log.info("The thread {} is interrupted", Thread.currentThread().getName());
+		} finally {
+			this.countDownLatch.countDown();
 		}
-
-		this.countDownLatch.countDown();
 	}
 
 	/***
-	 * 发送请求写入数据
+	 * 发送请求写入数据，数据点直接序列化(压缩)到池化的缓冲区中，进行中的请求数达到上限时等待
 	 * 
 	 * @param points
 	 *            数据点
+	 * @throws InterruptedException
 	 */
-	private void sendHttp(List<Point> points) {
+	private void sendHttp(List<Point> points) throws InterruptedException {
+		inFlightPermits.acquire();
+		final PooledBuffer buf = bufferPool.acquire();
+		final AtomicBoolean released = new AtomicBoolean(false);
+		Runnable releaser = () -> {
+			if (released.compareAndSet(false, true)) {
+				bufferPool.release(buf);
+				inFlightPermits.release();
+			}
+		};
 		try {
-			if (callBack == null) {
-				httpClient.post(Api.PUT.getPath(), Json.writeValueAsString(points), new BatchPutHttpResponseCallback());
-			} else {
-				httpClient.post(Api.PUT_DETAIL.getPath(), Json.writeValueAsString(points),
-						new BatchPutHttpResponseCallback(callBack, points));
+			OutputStream out = gzip ? new GZIPOutputStream(buf, 8192) : buf;
+			// 写入完成后关闭输出流(完成gzip)
+			Json.writeValue(out, points);
+
+			NByteArrayEntity entity = new NByteArrayEntity(buf.array(), 0, buf.size(), ContentType.APPLICATION_JSON);
+			if (gzip) {
+				entity.setContentEncoding("gzip");
 			}
+			String path = (callBack == null) ? Api.PUT.getPath() : Api.PUT_DETAIL.getPath();
+			httpClient.post(path, entity, new BatchPutHttpResponseCallback(callBack, points, releaser));
 		} catch (Exception e) {
-			e.printStackTrace();
+			releaser.run();
+			log.error(String.format("Failed to batch put points: %s", points.size()), e);
 		}
 	}
 
-}
\ No newline at end of file
+}
@@ -15,13 +15,13 @@
  */
 package com.wl4g.dopaas.umc.opentsdb.client.sender.producer;
 
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.wl4g.dopaas.umc.opentsdb.client.bean.request.Point;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.PointBuffer;
 
 /**
  * @Author: jinyao
@@ -34,12 +34,12 @@ public class ProducerImpl implements Producer {
 
 	final private Logger log = LoggerFactory.getLogger(getClass());
 
-	private final BlockingQueue<Point> queue;
+	private final PointBuffer buffer;
 
 	private final AtomicBoolean forbiddenWrite = new AtomicBoolean(false);
 
-	public ProducerImpl(BlockingQueue<Point> queue) {
-		this.queue = queue;
+	public ProducerImpl(PointBuffer buffer) {
+		this.buffer = buffer;
 		log.debug("the producer has started");
 	}
 
@@ -48,12 +48,9 @@ public class ProducerImpl implements Producer {
 		if (forbiddenWrite.get()) {
 			throw new IllegalStateException("client has been closed.");
 		}
-		try {
-			// 队列满时，put方法会被阻塞
-			queue.put(point);
-		} catch (InterruptedException e) {
-			log.error("Client Thread been Interrupted.", e);
-			e.printStackTrace();
+		// 队列满时，按溢出策略阻塞、丢弃最旧的数据点或溢出到磁盘
+		if (!buffer.put(point)) {
+			log.warn("Dropped point of metric: {}", point.getMetric());
 		}
 	}
 
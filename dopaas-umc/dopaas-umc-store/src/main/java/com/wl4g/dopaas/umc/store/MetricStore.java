@@ -17,6 +17,8 @@ package com.wl4g.dopaas.umc.store;
 
 import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
 
+import java.util.List;
+
 /**
  * UMC metric store
  * 
@@ -28,4 +30,20 @@ public interface MetricStore {
 
 	boolean save(MetricAggregate aggregate);
 
+	/**
+	 * Batch save metric aggregates, implementations should override it to
+	 * write the whole batch with as few round-trips as possible. The default
+	 * falls back to saving one by one.
+	 * 
+	 * @param aggregates
+	 * @return Returns true if all aggregates were saved.
+	 */
+	default boolean batchSave(List<MetricAggregate> aggregates) {
+		boolean result = true;
+		for (MetricAggregate aggregate : aggregates) {
+			result &= save(aggregate);
+		}
+		return result;
+	}
+
 }
\ No newline at end of file
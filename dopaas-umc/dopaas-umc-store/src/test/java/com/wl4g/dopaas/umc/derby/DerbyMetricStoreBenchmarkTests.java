@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.derby;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.Metric;
+import com.wl4g.dopaas.common.bean.umc.model.proto.MetricModel.MetricAggregate;
+import com.wl4g.dopaas.umc.config.StoreProperties.DerbyProperties;
+import com.wl4g.dopaas.umc.derby.DerbyMetricStore.DataPoint;
+import com.wl4g.dopaas.umc.derby.DerbyMetricStore.Downsampler;
+
+/**
+ * Batched writes, read back and range query benchmark of
+ * {@link DerbyMetricStore} against an embedded in-memory derby database.
+ *
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class DerbyMetricStoreBenchmarkTests {
+
+	final static long INTERVAL_MS = 10_000L;
+	final static long MINUTE_MS = 60_000L;
+
+	private SingleConnectionDataSource datasource;
+
+	@Before
+	public void setUp() {
+		datasource = new SingleConnectionDataSource("jdbc:derby:memory:umc" + System.nanoTime() + ";create=true", true);
+		datasource.setDriverClassName("org.apache.derby.jdbc.EmbeddedDriver");
+	}
+
+	@After
+	public void tearDown() {
+		datasource.destroy();
+	}
+
+	@Test
+	public void batchSaveReadBackTest() {
+		// One bucket table per minute, and several JDBC batches per table.
+		DerbyProperties config = new DerbyProperties();
+		config.setBucketMs(MINUTE_MS);
+		config.setBatchSize(7);
+		DerbyMetricStore store = new DerbyMetricStore(new JdbcTemplate(datasource), config);
+
+		int hosts = 3, rounds = 30;
+		long startTime = 26_666_667L * MINUTE_MS;
+		// Each batch spans several rounds (bucket tables) of all hosts.
+		List<MetricAggregate> batch = new ArrayList<>();
+		for (int r = 0; r < rounds; r++) {
+			for (int h = 0; h < hosts; h++) {
+				batch.add(MetricAggregate.newBuilder().setHost("host" + h).setEndpoint("9100")
+						.setTimestamp(startTime + r * INTERVAL_MS)
+						.addMetrics(Metric.newBuilder().setMetric("node.cpu").putTags("cpu", "cpu0").setValue(valueOf(h, r)))
+						.addMetrics(Metric.newBuilder().setMetric("node.mem").setValue(-valueOf(h, r)))
+						.addMetrics(Metric.newBuilder().setMetric("").setValue(1d))
+						.build());
+			}
+			if (batch.size() >= 7 * hosts || r == rounds - 1) {
+				assertTrue(store.batchSave(batch));
+				batch.clear();
+			}
+		}
+		long endTime = startTime + rounds * INTERVAL_MS;
+
+		// Raw points of each host.
+		for (int h = 0; h < hosts; h++) {
+			List<DataPoint> cpu = store.query("node.cpu", "host" + h, "9100", startTime, endTime, 0, Downsampler.AVG);
+			List<DataPoint> mem = store.query("node.mem", "host" + h, null, startTime, endTime, 0, Downsampler.AVG);
+			assertEquals(rounds, cpu.size());
+			assertEquals(rounds, mem.size());
+			for (int r = 0; r < rounds; r++) {
+				assertEquals(startTime + r * INTERVAL_MS, cpu.get(r).getTimestamp());
+				assertEquals(valueOf(h, r), cpu.get(r).getValue(), 0d);
+				assertEquals(-valueOf(h, r), mem.get(r).getValue(), 0d);
+			}
+		}
+		assertEquals(0, store.query("node.cpu", "host" + hosts, null, startTime, endTime, 0, Downsampler.AVG).size());
+
+		// Range of [startTime, endTime)
+		List<DataPoint> range = store.query("node.cpu", "host1", null, startTime + INTERVAL_MS, startTime + 5 * INTERVAL_MS,
+				0, Downsampler.AVG);
+		assertEquals(4, range.size());
+		assertEquals(startTime + INTERVAL_MS, range.get(0).getTimestamp());
+		assertEquals(startTime + 4 * INTERVAL_MS, range.get(3).getTimestamp());
+
+		// Downsampled per minute of all hosts, 6 rounds per minute.
+		for (Downsampler downsampler : Downsampler.values()) {
+			List<DataPoint> points = store.query("node.cpu", null, null, startTime, endTime, MINUTE_MS, downsampler);
+			assertEquals(rounds / 6, points.size());
+			for (int m = 0; m < points.size(); m++) {
+				DataPoint point = points.get(m);
+				assertEquals(startTime + m * MINUTE_MS, point.getTimestamp());
+				assertEquals(6 * hosts, point.getCount());
+				double sum = 0, max = Double.NEGATIVE_INFINITY, min = Double.POSITIVE_INFINITY;
+				for (int r = 6 * m; r < 6 * (m + 1); r++) {
+					for (int h = 0; h < hosts; h++) {
+						sum += valueOf(h, r);
+						max = Math.max(max, valueOf(h, r));
+						min = Math.min(min, valueOf(h, r));
+					}
+				}
+				double expected = downsampler == Downsampler.AVG ? sum / (6 * hosts)
+						: downsampler == Downsampler.SUM ? sum
+								: downsampler == Downsampler.MAX ? max : downsampler == Downsampler.MIN ? min : 6 * hosts;
+				assertEquals(downsampler.name(), expected, point.getValue(), 1e-9);
+			}
+		}
+
+		// Restarted store loads the existing bucket tables.
+		DerbyMetricStore restarted = new DerbyMetricStore(new JdbcTemplate(datasource), config);
+		assertEquals(rounds, restarted.query("node.cpu", "host2", null, startTime, endTime, 0, Downsampler.AVG).size());
+		assertEquals(2, restarted.dropBefore(startTime + 2 * MINUTE_MS));
+		List<DataPoint> remaining = restarted.query("node.cpu", "host2", null, startTime, endTime, 0, Downsampler.AVG);
+		assertEquals(rounds - 12, remaining.size());
+		assertEquals(startTime + 2 * MINUTE_MS, remaining.get(0).getTimestamp());
+	}
+
+	@Test
+	public void beforeEpochTest() {
+		DerbyProperties config = new DerbyProperties();
+		config.setBucketMs(MINUTE_MS);
+		DerbyMetricStore store = new DerbyMetricStore(new JdbcTemplate(datasource), config);
+
+		// The timestamps before epoch are stored in the first bucket table.
+		List<MetricAggregate> batch = new ArrayList<>();
+		for (long timestamp : new long[] { -5 * MINUTE_MS, -1L, 0L, MINUTE_MS }) {
+			batch.add(MetricAggregate.newBuilder().setHost("host1").setEndpoint("9100").setTimestamp(timestamp)
+					.addMetrics(Metric.newBuilder().setMetric("node.cpu").setValue(timestamp)).build());
+		}
+		assertTrue(store.batchSave(batch));
+
+		List<DataPoint> points = store.query("node.cpu", "host1", null, -10 * MINUTE_MS, 2 * MINUTE_MS, 0, Downsampler.AVG);
+		assertEquals(4, points.size());
+		assertEquals(-5 * MINUTE_MS, points.get(0).getTimestamp());
+		assertEquals(-1L, points.get(1).getValue(), 0d);
+		assertEquals(1, store.query("node.cpu", "host1", null, -10 * MINUTE_MS, -1L, 0, Downsampler.AVG).size());
+
+		// Restarted store loads the first bucket table.
+		DerbyMetricStore restarted = new DerbyMetricStore(new JdbcTemplate(datasource), config);
+		assertEquals(4, restarted.query("node.cpu", null, null, -10 * MINUTE_MS, 2 * MINUTE_MS, 0, Downsampler.AVG).size());
+		assertEquals(1, restarted.dropBefore(MINUTE_MS));
+		assertEquals(1, restarted.query("node.cpu", null, null, -10 * MINUTE_MS, 2 * MINUTE_MS, 0, Downsampler.AVG).size());
+	}
+
+	@Test
+	public void concurrentDropAndSaveTest() throws Exception {
+		DerbyProperties config = new DerbyProperties();
+		config.setBucketMs(MINUTE_MS);
+		DerbyMetricStore store = new DerbyMetricStore(new JdbcTemplate(datasource), config);
+		long startTime = 26_666_667L * MINUTE_MS;
+
+		// The bucket table of writing is dropped repeatedly, the writers must
+		// never insert into a dropped table.
+		int writers = 4, batches = 200;
+		AtomicBoolean writing = new AtomicBoolean(true);
+		AtomicInteger dropped = new AtomicInteger(0);
+		ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+		try {
+			Future<?> dropping = executor.submit(() -> {
+				while (writing.get()) {
+					dropped.addAndGet(store.dropBefore(startTime + MINUTE_MS));
+				}
+			});
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int w = 0; w < writers; w++) {
+				int host = w;
+				futures.add(executor.submit(() -> {
+					int failures = 0;
+					for (int i = 0; i < batches; i++) {
+						MetricAggregate aggregate = MetricAggregate.newBuilder().setHost("host" + host).setEndpoint("9100")
+								.setTimestamp(startTime + i).addMetrics(Metric.newBuilder().setMetric("node.cpu").setValue(i))
+								.build();
+						failures += store.batchSave(singletonList(aggregate)) ? 0 : 1;
+					}
+					return failures;
+				}));
+			}
+			int failures = 0;
+			for (Future<Integer> f : futures) {
+				failures += f.get(60, SECONDS);
+			}
+			writing.set(false);
+			dropping.get(60, SECONDS);
+			assertEquals(0, failures);
+			assertTrue(dropped.get() > 0);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void ingestAndQueryBenchmarkTest() {
+		int hosts = 20, metrics = 20, rounds = 100;
+		DerbyMetricStore store = new DerbyMetricStore(new JdbcTemplate(datasource), new DerbyProperties());
+		long startTime = System.currentTimeMillis() - rounds * INTERVAL_MS;
+
+		// Ingest: one batch per round of all hosts.
+		long begin = System.nanoTime();
+		for (int r = 0; r < rounds; r++) {
+			List<MetricAggregate> batch = new ArrayList<>(hosts);
+			for (int h = 0; h < hosts; h++) {
+				MetricAggregate.Builder aggregate = MetricAggregate.newBuilder().setHost("host" + h).setEndpoint("9100")
+						.setTimestamp(startTime + r * INTERVAL_MS);
+				for (int m = 0; m < metrics; m++) {
+					aggregate.addMetrics(Metric.newBuilder().setMetric("node.metric" + m).putTags("cpu", "cpu0")
+							.setValue(valueOf(h, r)));
+				}
+				batch.add(aggregate.build());
+			}
+			assertTrue(store.batchSave(batch));
+		}
+		long points = (long) rounds * hosts * metrics;
+		long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		System.out.println(String.format("Ingest points: %s, cost: %sms, throughput: %s points/s", points, costMs,
+				points * 1000 / costMs));
+
+		// Range query: raw and downsampled.
+		long endTime = startTime + rounds * INTERVAL_MS;
+		for (int i = 0; i < 3; i++) {
+			begin = System.nanoTime();
+			List<DataPoint> raw = store.query("node.metric1", "host1", null, startTime, endTime, 0, Downsampler.AVG);
+			long rawCostUs = (System.nanoTime() - begin) / 1000;
+
+			begin = System.nanoTime();
+			List<DataPoint> downsampled = store.query("node.metric1", null, null, startTime, endTime, MINUTE_MS,
+					Downsampler.COUNT);
+			long downsampledCostUs = (System.nanoTime() - begin) / 1000;
+
+			assertEquals(rounds, raw.size());
+			assertEquals(rounds * hosts, downsampled.stream().mapToInt(DataPoint::getCount).sum());
+			System.out.println(String.format("Query raw points: %s, cost: %sus, downsampled points: %s, cost: %sus",
+					raw.size(), rawCostUs, downsampled.size(), downsampledCostUs));
+		}
+	}
+
+	private static double valueOf(int host, int round) {
+		return host * 1000 + round + 0.25d;
+	}
+
+}
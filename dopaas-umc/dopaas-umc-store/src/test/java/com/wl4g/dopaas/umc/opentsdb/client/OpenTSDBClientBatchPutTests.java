@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.dopaas.umc.opentsdb.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import com.wl4g.dopaas.umc.opentsdb.client.bean.request.Point;
+import com.wl4g.dopaas.umc.opentsdb.client.common.Json;
+import com.wl4g.dopaas.umc.opentsdb.client.sender.buffer.OverflowPolicy;
+
+/**
+ * Batch put tests of {@link OpenTSDBClient} against a local mock /api/put
+ * HTTP server, for each of the overflow policies.
+ *
+ * @Author: agent <agent@local>
+ * @Description:
+ * @CreateDate: 2026/10/16
+ * @Version: 1.0
+ */
+public class OpenTSDBClientBatchPutTests {
+
+	final static int POINTS = 20_000;
+
+	@Test
+	public void batchPutBlockTest() throws Exception {
+		BatchPutResult result = batchPut(OverflowPolicy.BLOCK, 0, false);
+		assertEquals(POINTS, result.received);
+		assertEquals(0, result.gzipRequests);
+	}
+
+	@Test
+	public void batchPutGzipTest() throws Exception {
+		BatchPutResult result = batchPut(OverflowPolicy.BLOCK, 0, true);
+		assertEquals(POINTS, result.received);
+		assertTrue("Batch put requests must be gzip compressed", result.gzipRequests > 0);
+	}
+
+	@Test
+	public void batchPutDropOldestTest() throws Exception {
+		BatchPutResult result = batchPut(OverflowPolicy.DROP_OLDEST, 20, false);
+		assertEquals(POINTS, result.received + result.dropped + result.spillRemaining);
+		assertTrue("Points must be dropped of slow server", result.dropped > 0);
+	}
+
+	@Test
+	public void batchPutSpillTest() throws Exception {
+		BatchPutResult result = batchPut(OverflowPolicy.SPILL, 20, false);
+		assertEquals(POINTS, result.received + result.dropped + result.spillRemaining);
+		assertEquals(0, result.dropped);
+		assertTrue("Points must be spilled of slow server", result.spilled > 0);
+	}
+
+	private static BatchPutResult batchPut(OverflowPolicy policy, long serverDelayMs, boolean gzip) throws Exception {
+		AtomicLong received = new AtomicLong(0);
+		AtomicLong gzipRequests = new AtomicLong(0);
+		HttpServer server = startMockServer(received, gzipRequests, serverDelayMs);
+		File spillDir = Files.createTempDirectory("opentsdb-spill").toFile();
+		try {
+			OpenTSDBClient client = OpenTSDBClientFactory.connect(OpenTSDBConfig
+					.address("http://127.0.0.1", server.getAddress().getPort()).batchPutSize(200).batchPutBufferSize(1000)
+					.batchPutTimeLimit(50).putConsumerThreadCount(2).maxInFlightRequests(2).overflowPolicy(policy)
+					.batchPutGzip(gzip).spillDirectory(spillDir.getAbsolutePath()).config());
+
+			long begin = System.nanoTime();
+			for (int i = 0; i < POINTS; i++) {
+				client.put(Point.metric("test.metric").tag("host", "host" + (i % 10)).value(1_600_000_000_000L + i, i).build());
+			}
+			long putCostMs = (System.nanoTime() - begin) / 1000_000;
+			long dropped = client.getDroppedPoints();
+			long spilled = client.getSpilledPoints();
+			client.gracefulClose();
+
+			BatchPutResult result = new BatchPutResult(received.get(), dropped, spilled, countSpillPoints(spillDir),
+					gzipRequests.get());
+			System.out.println(String.format("Policy: %s, gzip: %s, put cost: %sms, %s", policy, gzip, putCostMs, result));
+			return result;
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static HttpServer startMockServer(AtomicLong received, AtomicLong gzipRequests, long delayMs) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/put", exchange -> {
+			try (InputStream in = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+					? new GZIPInputStream(exchange.getRequestBody())
+					: exchange.getRequestBody()) {
+				if (in instanceof GZIPInputStream) {
+					gzipRequests.incrementAndGet();
+				}
+				List<Point> points = Json.readValue(readString(in), List.class, Point.class);
+				if (delayMs > 0) {
+					Thread.sleep(delayMs);
+				}
+				received.addAndGet(points.size());
+				byte[] body = String.format("{\"success\":%s,\"failed\":0}", points.size()).getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			} catch (InterruptedException e) {
+				exchange.sendResponseHeaders(500, -1);
+			}
+		});
+		server.start();
+		return server;
+	}
+
+	private static String readString(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buf = new byte[8192];
+		for (int n; (n = in.read(buf)) != -1;) {
+			out.write(buf, 0, n);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static long countSpillPoints(File spillDir) throws IOException {
+		long c = 0;
+		File[] segments = spillDir.listFiles();
+		if (segments != null) {
+			for (File segment : segments) {
+				c += Files.readAllLines(segment.toPath()).stream().filter(line -> !line.isEmpty()).count();
+			}
+		}
+		return c;
+	}
+
+	static class BatchPutResult {
+		final long received;
+		final long dropped;
+		final long spilled;
+		final long spillRemaining;
+		final long gzipRequests;
+
+		BatchPutResult(long received, long dropped, long spilled, long spillRemaining, long gzipRequests) {
+			this.received = received;
+			this.dropped = dropped;
+			this.spilled = spilled;
+			this.spillRemaining = spillRemaining;
+			this.gzipRequests = gzipRequests;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("received: %s, dropped: %s, spilled: %s, spill remaining: %s, gzip requests: %s", received,
+					dropped, spilled, spillRemaining, gzipRequests);
+		}
+	}
+
+}
@@ -26,7 +26,9 @@ import io.minio.messages.CompressionType;
 import io.minio.messages.JsonType;
 
 import java.io.InputStream;
+import java.io.StringReader;
 import java.net.URL;
+import java.util.List;
 
 import static com.wl4g.components.common.lang.Assert2.notNull;
 import static java.lang.String.format;
@@ -154,6 +156,26 @@ public interface CossEndpoint {
     <T extends ObjectSummary> ObjectListing<T> listObjects(String bucketName, String prefix)
             throws CossException, ServerCossException;
 
+    /**
+     * Lists one page of objects under the specified {@link Bucket} with the
+     * specified prefix, the next page is listed with the
+     * {@link ObjectListing#getNextMarker()} of this page if it is truncated.
+     * Defaults to listing all objects if the provider does not support
+     * pagination.
+     *
+     * @param bucketName Bucket name.
+     * @param prefix     The prefix returned object must have.
+     * @param marker     The continuation token, listing after it(exclusive).
+     * @param maxKeys    The max number of returned objects.
+     * @return A {@link ObjectListing} instance of one page.
+     * @throws CossException
+     * @throws ServerCossException
+     */
+    default <T extends ObjectSummary> ObjectListing<T> listObjects(String bucketName, String prefix, String marker,
+            Integer maxKeys) throws CossException, ServerCossException {
+        return listObjects(bucketName, prefix);
+    }
+
     /**
      * Gets a {@link ObjectValue} from {@link Bucket}.
      *
@@ -200,6 +222,92 @@ public interface CossEndpoint {
     CossPutObjectResult putObject(String bucketName, String key, InputStream input, ObjectMetadata metadata)
             throws CossException, ServerCossException;
 
+    /**
+     * Initiates a multipart upload, the parts could be uploaded concurrently
+     * and re-uploaded after failures, the object is visible only after the
+     * upload is completed.
+     *
+     * @param bucketName Bucket name.
+     * @param key        Object key.
+     * @param metadata   The {@link ObjectMetadata} instance, the part size is
+     *                   adapted to the content length if specified.
+     * @return A {@link InitiateMultipartUploadResult} instance.
+     * @throws CossException
+     * @throws ServerCossException
+     */
+    default InitiateMultipartUploadResult initiateMultipartUpload(String bucketName, String key, ObjectMetadata metadata)
+            throws CossException, ServerCossException {
+        throw new CossException(format("No supported operation of UOS.provider: %s", kind()));
+    }
+
+    /**
+     * Uploads a part of the multipart upload, it overwrites the uploaded part
+     * of the same part number.
+     *
+     * @param bucketName Bucket name.
+     * @param key        Object key.
+     * @param uploadId   Multipart upload id.
+     * @param partNumber Part number, starting from 1.
+     * @param input      Part content.
+     * @param partSize   Part content length, must be the part size of upload
+     *                   except the last part.
+     * @return The {@link PartETag} of uploaded part.
+     * @throws CossException
+     * @throws ServerCossException
+     */
+    default PartETag uploadPart(String bucketName, String key, String uploadId, int partNumber, InputStream input,
+            long partSize) throws CossException, ServerCossException {
+        throw new CossException(format("No supported operation of UOS.provider: %s", kind()));
+    }
+
+    /**
+     * Lists the uploaded parts of the multipart upload, e.g. to resume the
+     * upload after failures.
+     *
+     * @param bucketName Bucket name.
+     * @param key        Object key.
+     * @param uploadId   Multipart upload id.
+     * @return The uploaded parts ordered by part number.
+     * @throws CossException
+     * @throws ServerCossException
+     */
+    default List<PartETag> listParts(String bucketName, String key, String uploadId) throws CossException,
+            ServerCossException {
+        throw new CossException(format("No supported operation of UOS.provider: %s", kind()));
+    }
+
+    /**
+     * Completes the multipart upload with all parts, it overwrites the
+     * existing object.
+     *
+     * @param bucketName Bucket name.
+     * @param key        Object key.
+     * @param uploadId   Multipart upload id.
+     * @param partETags  All parts of object, the ETags must be the same as
+     *                   uploaded.
+     * @return A {@link CossPutObjectResult} instance.
+     * @throws CossException
+     * @throws ServerCossException
+     */
+    default CossPutObjectResult completeMultipartUpload(String bucketName, String key, String uploadId,
+            List<PartETag> partETags) throws CossException, ServerCossException {
+        throw new CossException(format("No supported operation of UOS.provider: %s", kind()));
+    }
+
+    /**
+     * Aborts the multipart upload, the uploaded parts are discarded.
+     *
+     * @param bucketName Bucket name.
+     * @param key        Object key.
+     * @param uploadId   Multipart upload id.
+     * @throws CossException
+     * @throws ServerCossException
+     */
+    default void abortMultipartUpload(String bucketName, String key, String uploadId) throws CossException,
+            ServerCossException {
+        throw new CossException(format("No supported operation of UOS.provider: %s", kind()));
+    }
+
     /**
      * Copies an existing file in UOS from source bucket to the target bucket.
      * If target file exists, it would be overwritten by the source file.
@@ -251,6 +359,33 @@ public interface CossEndpoint {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Selects the records of object content by SQL expression(e.g. S3
+     * Select), the records are returned incrementally. Defaults to wrapping
+     * the whole result of
+     * {@link #selectObjectContent(String, String, String, CompressionType, JsonType, Character, Boolean, String)}
+     * if the provider does not support streaming.
+     *
+     * @param bucket            Bucket name.
+     * @param key               Object key.
+     * @param type              CSV or JSON.
+     * @param compressionType   Compression of object content.
+     * @param jsonType          JSON document or lines.
+     * @param recordDelimiter   Record delimiter, defaults to line separator.
+     * @param useFileHeaderInfo Whether the first line of CSV is the header.
+     * @param sqlExpression     SQL expression.
+     * @return The {@link SelectRecords} must be closed after consumed.
+     * @throws CossException
+     */
+    default public SelectRecords selectObjectRecords(String bucket, String key, String type,
+                                                     CompressionType compressionType, JsonType jsonType,
+                                                     Character recordDelimiter, Boolean useFileHeaderInfo,
+                                                     String sqlExpression) throws CossException {
+        String content = selectObjectContent(bucket, key, type, compressionType, jsonType, recordDelimiter,
+                useFileHeaderInfo, sqlExpression);
+        return SelectRecords.of(new StringReader(content == null ? "" : content), recordDelimiter);
+    }
+
     /**
      * Deletes the specified {@link ObjectValue} by bucket name and object key.
      *
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.common.model;
+
+/**
+ * The result of initiating a multipart upload, the parts are uploaded with
+ * the {@link #getUploadId()}, and should be split by the {@link #getPartSize()}
+ * (except the last part).
+ * 
+ * @author agent &lt;agent@local&gt;
+ * @version 2026年10月16日 v1.0.0
+ * @see
+ */
+public class InitiateMultipartUploadResult {
+
+	// Bucket name of the multipart upload.
+	private String bucketName;
+
+	// Object key of the multipart upload.
+	private String key;
+
+	// Multipart upload id.
+	private String uploadId;
+
+	// Recommended part size, adapted to the object length.
+	private long partSize;
+
+	public String getBucketName() {
+		return bucketName;
+	}
+
+	public void setBucketName(String bucketName) {
+		this.bucketName = bucketName;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public String getUploadId() {
+		return uploadId;
+	}
+
+	public void setUploadId(String uploadId) {
+		this.uploadId = uploadId;
+	}
+
+	public long getPartSize() {
+		return partSize;
+	}
+
+	public void setPartSize(long partSize) {
+		this.partSize = partSize;
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.common.model;
+
+/**
+ * The part number and ETag of an uploaded part, which are used to complete
+ * the multipart upload.
+ * 
+ * @author agent &lt;agent@local&gt;
+ * @version 2026年10月16日 v1.0.0
+ * @see
+ */
+public class PartETag {
+
+	// Part number, starting from 1.
+	private int partNumber;
+
+	// ETag(MD5 hex) of part content.
+	private String eTag;
+
+	// Size of part content.
+	private long size;
+
+	public PartETag() {
+	}
+
+	public PartETag(int partNumber, String eTag, long size) {
+		this.partNumber = partNumber;
+		this.eTag = eTag;
+		this.size = size;
+	}
+
+	public int getPartNumber() {
+		return partNumber;
+	}
+
+	public void setPartNumber(int partNumber) {
+		this.partNumber = partNumber;
+	}
+
+	public String getETag() {
+		return eTag;
+	}
+
+	public void setETag(String eTag) {
+		this.eTag = eTag;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	@Override
+	public String toString() {
+		return "PartETag [partNumber=" + partNumber + ", eTag=" + eTag + ", size=" + size + "]";
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.common.model;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Incremental records of select object content. The records are read lazily
+ * from the underlying source with a bounded buffer, so that the result is
+ * never loaded into the heap entirely, and it should be closed after
+ * consumed(it's closed automatically when exhausted).
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:41:00
+ */
+public abstract class SelectRecords implements Iterator<String>, Closeable {
+
+	/** Default buffer size of reading records. */
+	final public static int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private String next;
+	private boolean finished;
+
+	/**
+	 * Reads the next record.
+	 * 
+	 * @return Returns null if no more records.
+	 * @throws IOException
+	 */
+	protected abstract String readNext() throws IOException;
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			try {
+				next = readNext();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			if (next == null) {
+				finished = true;
+				try {
+					close();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		String record = next;
+		next = null;
+		return record;
+	}
+
+	/**
+	 * Wraps the records separated by delimiter of reader.
+	 * 
+	 * @param reader
+	 * @param recordDelimiter
+	 *            Defaults to line separator if null.
+	 * @return
+	 */
+	public static SelectRecords of(Reader reader, Character recordDelimiter) {
+		final BufferedReader buffered = (reader instanceof BufferedReader) ? (BufferedReader) reader
+				: new BufferedReader(reader, DEFAULT_BUFFER_SIZE);
+		final boolean lines = recordDelimiter == null || recordDelimiter == '\n';
+		return new SelectRecords() {
+			@Override
+			protected String readNext() throws IOException {
+				if (lines) {
+					return buffered.readLine();
+				}
+				StringBuilder record = new StringBuilder(128);
+				for (int c; (c = buffered.read()) >= 0;) {
+					if (c == recordDelimiter) {
+						return record.toString();
+					}
+					record.append((char) c);
+				}
+				return record.length() > 0 ? record.toString() : null;
+			}
+
+			@Override
+			public void close() throws IOException {
+				buffered.close();
+			}
+		};
+	}
+
+}
@@ -17,6 +17,7 @@ package com.wl4g.devops.uos;
 
 import static com.wl4g.components.common.lang.Assert2.notNullOf;
 import static com.wl4g.components.common.log.SmartLoggerFactory.getLogger;
+import static java.util.Objects.isNull;
 
 import org.springframework.beans.factory.InitializingBean;
 
@@ -35,6 +36,24 @@ import com.wl4g.devops.uos.common.model.Owner;
  */
 public abstract class ServerCossEndpoint<C> implements CossEndpoint, Operator<CossProvider>, InitializingBean {
 
+	/** Default max keys of one listing page. */
+	final public static int DEFAULT_MAX_KEYS = 1000;
+
+	/** Limit max keys of one listing page. */
+	final public static int LIMIT_MAX_KEYS = 10000;
+
+	/** Min part size of multipart uploading. */
+	final public static long MIN_PART_SIZE = 8L * 1024 * 1024;
+
+	/** Max part size of multipart uploading. */
+	final public static long MAX_PART_SIZE = 1024L * 1024 * 1024;
+
+	/** Max parts of one multipart uploading. */
+	final public static int MAX_PARTS = 10000;
+
+	/** Expected parts of one multipart uploading, i.e. the max parallelism. */
+	final public static int TARGET_PARTS = 128;
+
 	final protected SmartLogger log = getLogger(getClass());
 
 	/**
@@ -64,6 +83,34 @@ public abstract class ServerCossEndpoint<C> implements CossEndpoint, Operator<Co
 		return new Owner(null, null);
 	}
 
+	/**
+	 * Gets the max keys of one listing page.
+	 * 
+	 * @param maxKeys
+	 * @return
+	 */
+	protected static int getPageMaxKeys(Integer maxKeys) {
+		return (isNull(maxKeys) || maxKeys <= 0) ? DEFAULT_MAX_KEYS : Math.min(maxKeys, LIMIT_MAX_KEYS);
+	}
+
+	/**
+	 * Gets the part size of multipart uploading adapted to the object length,
+	 * the larger objects are split into larger parts (aligned to 1MB), so that
+	 * the number of parts (requests) is bounded.
+	 * 
+	 * @param contentLength
+	 *            Object length, 0 or negative if unknown.
+	 * @return
+	 */
+	public static long getPartSize(long contentLength) {
+		if (contentLength <= 0) {
+			return MIN_PART_SIZE;
+		}
+		long partSize = Math.max(contentLength / TARGET_PARTS, (contentLength + MAX_PARTS - 1) / MAX_PARTS);
+		partSize = (partSize + 0xFFFFF) & ~0xFFFFFL;
+		return Math.min(Math.max(partSize, MIN_PART_SIZE), MAX_PART_SIZE);
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 	}
@@ -32,6 +32,8 @@ public abstract class StandardFSCossProperties {
 
 	final public static String PATH_TRASH = "/.trash";
 
+	final public static String PATH_UPLOADS = "/.uploads";
+
 	/**
 	 * Bucket of native fileSystem root directory URI.
 	 */
@@ -141,6 +143,10 @@ public abstract class StandardFSCossProperties {
 		return getEndpointRootDir().getAbsolutePath() + PATH_TRASH + File.separator + System.currentTimeMillis();
 	}
 
+	public File getMultipartUploadsPath() {
+		return new File(getEndpointRootDir().getAbsolutePath() + PATH_UPLOADS);
+	}
+
 	public String getObjectPathTrash(String bucketName) {
 		return getEndpointRootDir().getAbsolutePath() + File.separator + bucketName + File.separator + PATH_TRASH + File.separator
 				+ System.currentTimeMillis();
@@ -20,6 +20,8 @@ import io.minio.messages.*;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -149,15 +151,37 @@ public class MinioEndpoint extends ServerCossEndpoint<MinioFsCossProperties> {
 
     @Override
     public ObjectListing<ObjectSummary> listObjects(String bucketName, String prefix) throws CossException, ServerCossException {
+        return listObjects(bucketName, prefix, null, null);
+    }
+
+    @Override
+    public ObjectListing<ObjectSummary> listObjects(String bucketName, String prefix, String marker, Integer maxKeys)
+            throws CossException, ServerCossException {
         try {
+            int limit = getPageMaxKeys(maxKeys);
             ObjectListing<ObjectSummary> objectListing = new ObjectListing<>();
             objectListing.setBucketName(bucketName);
             objectListing.setPrefix(prefix);
+            objectListing.setMarker(marker);
+            objectListing.setMaxKeys(limit);
+            objectListing.setTruncated(false);
             prefix = fixKey(prefix, '/');
-            ListObjectsArgs listObjectsArgs = ListObjectsArgs.builder().bucket(bucketName).prefix(prefix).recursive(false).build();
-            Iterable<Result<Item>> results = minioClient.listObjects(listObjectsArgs);
+            ListObjectsArgs.Builder builder = ListObjectsArgs.builder().bucket(bucketName).prefix(prefix).recursive(false)
+                    .maxKeys(limit);
+            if (StringUtils.isNotBlank(marker)) {
+                builder.startAfter(marker);
+            }
+            // The results are fetched lazily by pages, stop after one page.
+            Iterable<Result<Item>> results = minioClient.listObjects(builder.build());
+            String lastObjectName = null;
             for (Result<Item> result : results) {
+                if (objectListing.getObjectSummaries().size() >= limit) {
+                    objectListing.setTruncated(true);
+                    objectListing.setNextMarker(lastObjectName);
+                    break;
+                }
                 Item item = result.get();
+                lastObjectName = item.objectName();
                 ObjectSummary objectSummary = new ObjectSummary();
                 objectSummary.setBucketName(bucketName);
                 objectSummary.setKey(subDir(item.objectName(), prefix));
@@ -232,7 +256,10 @@ public class MinioEndpoint extends ServerCossEndpoint<MinioFsCossProperties> {
     public CossPutObjectResult putObject(String bucketName, String key, InputStream input, ObjectMetadata metadata) throws CossException, ServerCossException {
         try {
             key = fixKey(key, '/');
-            PutObjectArgs putObjectArgs = PutObjectArgs.builder().bucket(bucketName).object(key).stream(input, -1, 5 * 1024 * 1024).build();
+            // Part size is adapted to the object length if known.
+            long objectSize = (Objects.nonNull(metadata) && metadata.getContentLength() > 0) ? metadata.getContentLength() : -1;
+            PutObjectArgs putObjectArgs = PutObjectArgs.builder().bucket(bucketName).object(key)
+                    .stream(input, objectSize, getPartSize(objectSize)).build();
             minioClient.putObject(putObjectArgs);
             log.info("putObject success [%s %s]", bucketName, key);
         } catch (Exception e) {
@@ -354,10 +381,32 @@ public class MinioEndpoint extends ServerCossEndpoint<MinioFsCossProperties> {
                                       String sqlExpression
                                       )
             throws CossException {
+        try {
+            return ByteStreamUtils.readFullyToString(openSelectStream(bucket, key, type, compressionType, jsonType,
+                    recordDelimiter, useFileHeaderInfo, sqlExpression));
+        } catch (CossException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CossException(e);
+        }
+    }
+
+    @Override
+    public SelectRecords selectObjectRecords(String bucket, String key, String type, CompressionType compressionType,
+                                             JsonType jsonType, Character recordDelimiter, Boolean useFileHeaderInfo,
+                                             String sqlExpression) throws CossException {
+        // The response events are decoded while reading.
+        SelectResponseStream stream = openSelectStream(bucket, key, type, compressionType, jsonType, recordDelimiter,
+                useFileHeaderInfo, sqlExpression);
+        return SelectRecords.of(new InputStreamReader(stream, StandardCharsets.UTF_8), recordDelimiter);
+    }
 
+    private SelectResponseStream openSelectStream(String bucket, String key, String type, CompressionType compressionType,
+                                                  JsonType jsonType, Character recordDelimiter, Boolean useFileHeaderInfo,
+                                                  String sqlExpression) throws CossException {
         Assert2.hasTextOf(sqlExpression,"sqlExpression");
         FileHeaderInfo fileHeaderInfo = FileHeaderInfo.NONE;
-        if(useFileHeaderInfo){
+        if(Boolean.TRUE.equals(useFileHeaderInfo)){
             fileHeaderInfo = FileHeaderInfo.USE;
         }
 
@@ -377,7 +426,7 @@ public class MinioEndpoint extends ServerCossEndpoint<MinioFsCossProperties> {
         }
 
         try {
-            SelectResponseStream stream = minioClient.selectObjectContent(
+            return minioClient.selectObjectContent(
                     SelectObjectContentArgs.builder()
                             .bucket(bucket)
                             .object(key)
@@ -386,7 +435,6 @@ public class MinioEndpoint extends ServerCossEndpoint<MinioFsCossProperties> {
                             .outputSerialization(os)
                             .requestProgress(false)
                             .build());
-            return ByteStreamUtils.readFullyToString(stream);
         } catch (Exception e) {
             throw new CossException(e);
         }
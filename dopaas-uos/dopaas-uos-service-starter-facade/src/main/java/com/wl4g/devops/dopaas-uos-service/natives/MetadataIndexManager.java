@@ -16,179 +16,143 @@
 package com.wl4g.devops.uos.natives;
 
 import com.wl4g.components.common.io.FileIOUtils;
-import com.wl4g.components.common.io.FileLockUtils;
-import com.wl4g.components.common.lang.Assert2;
+import com.wl4g.components.common.log.SmartLogger;
 import com.wl4g.components.common.serialize.JacksonUtils;
 import com.wl4g.devops.uos.common.model.metadata.BucketStatusMetaData;
 import com.wl4g.devops.uos.common.model.metadata.ObjectsStatusMetaData;
+import com.wl4g.devops.uos.natives.ObjectMetadataIndex.ListingEntry;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
-import java.util.Map;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+import static com.wl4g.components.common.log.SmartLoggerFactory.getLogger;
 import static com.wl4g.devops.uos.common.model.metadata.ObjectsStatusMetaData.ObjectStatusMetaData;
 import static java.util.Objects.isNull;
-import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
 
 /**
+ * Objects metadata index manager, each bucket has an embedded
+ * {@link ObjectMetadataIndex} under the directory of {@link #OBJECT_METADATA_DIR},
+ * and the object key is the relative path of bucket.
+ * 
  * @author vjay
  * @date 2020-03-19 10:00:00
  */
-public class MetadataIndexManager {
+public class MetadataIndexManager implements Closeable {
 
 	public static final String BUCKET_METADATA = "/.bucket.metadata";
 	public static final String OBJECT_METADATA_DIR = "/.metadata/";
-	public static final String OBJECT_METADATA_PRE = "block.";// e.g:
-																// /.metadata/block.0
-	private static final String charset = "UTF-8";
+	/** Legacy JSON objects metadata file prefix, e.g: /.metadata/block.0 */
+	public static final String LEGACY_OBJECT_METADATA_PRE = "block.";
+	public static final String LEGACY_IMPORTING_MARKER = ".importing";
+	private static final String OBJECT_METADATA_DIR_NAME = ".metadata";
 
-	// ============================================object============================================
+	/** Interval of flushing the bucket status(e.g. requests counter). */
+	public static final long DEFAULT_STATUS_FLUSH_INTERVAL_MS = 10_000L;
 
-	public void addObject(String bucketPath, File file, ObjectStatusMetaData objectStatusMetaData) throws Exception {
-		File lastObjectMetaFile = getLastObjectMetaFile(file.getParentFile());
-		FileLockUtils.doTryLock(file, fileLock -> {
-			ObjectsStatusMetaData objectsStatusMetaData = readObjectsStatusMetaData(lastObjectMetaFile);
-			if (isNull(objectsStatusMetaData)) {
-				return null;
-			}
-			objectsStatusMetaData.setTotalCount(objectsStatusMetaData.getTotalCount() + 1);
-			objectsStatusMetaData.setTotalSize(objectsStatusMetaData.getTotalSize() + Files.size(file.toPath()));
-			Map<String, ObjectStatusMetaData> objects = objectsStatusMetaData.getObjects();
-			objects.put(file.getName(), objectStatusMetaData);
-			String s1 = JacksonUtils.toJSONString(objectsStatusMetaData);
-			FileIOUtils.writeFile(lastObjectMetaFile, s1, false);
-			return null;
-		});
+	final protected SmartLogger log = getLogger(getClass());
 
-		modifyBucketMetaData(bucketPath, 1, Files.size(file.toPath()), 0);
-	}
+	/** Opened indexes of bucket path. */
+	private final ConcurrentMap<String, ObjectMetadataIndex> indexes = new ConcurrentHashMap<>(16);
 
-	public void delObject(String bucketPath, File file) throws Exception {
-		String key = file.getName();
-		File metaFile = getObjectMetaFileByKey(file.getParentFile(), key);
-		if (isNull(metaFile)) {
-			return;
-		}
-		FileLockUtils.doTryLock(file, fileLock -> {
-			ObjectsStatusMetaData objectsStatusMetaData = readObjectsStatusMetaData(metaFile);
-			if (isNull(objectsStatusMetaData)) {
-				return null;
-			}
-			objectsStatusMetaData.setTotalCount(objectsStatusMetaData.getTotalCount() - 1);
-			objectsStatusMetaData.setTotalSize(objectsStatusMetaData.getTotalSize() - Files.size(file.toPath()));
-			Map<String, ObjectStatusMetaData> objects = objectsStatusMetaData.getObjects();
-			objects.remove(key);
-			String s1 = JacksonUtils.toJSONString(objectsStatusMetaData);
-			FileIOUtils.writeFile(metaFile, s1);
-			return null;
-		});
-		modifyBucketMetaData(bucketPath, -1, -Files.size(file.toPath()), 0);
+	/** Flusher of the bucket status. */
+	private final ScheduledExecutorService statusFlusher;
 
+	public MetadataIndexManager() {
+		this(DEFAULT_STATUS_FLUSH_INTERVAL_MS);
 	}
 
-	public void modifyObject(File file, ObjectStatusMetaData objectStatusMetaData) throws Exception {
-		String key = file.getName();
-		File metaFile = getObjectMetaFileByKey(file.getParentFile(), key);
-		if (isNull(metaFile)) {
-			return;
-		}
-		FileLockUtils.doTryLock(file, fileLock -> {
-			ObjectsStatusMetaData objectsStatusMetaData = readObjectsStatusMetaData(metaFile);
-			if (isNull(objectsStatusMetaData)) {
-				return null;
-			}
-			Map<String, ObjectStatusMetaData> objects = objectsStatusMetaData.getObjects();
-			objects.put(key, objectStatusMetaData);
-			String s1 = JacksonUtils.toJSONString(objectsStatusMetaData);
-			FileIOUtils.writeFile(metaFile, s1, false);
-			return null;
+	public MetadataIndexManager(long statusFlushIntervalMs) {
+		this.statusFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "uos-metadata-flusher");
+			t.setDaemon(true);
+			return t;
 		});
+		this.statusFlusher.scheduleWithFixedDelay(() -> flushStatus(), statusFlushIntervalMs, statusFlushIntervalMs,
+				TimeUnit.MILLISECONDS);
 	}
 
-	public ObjectStatusMetaData getObject(String bucketPath, File file) throws IOException {
+	// ============================================object============================================
 
-		modifyBucketMetaData(bucketPath, 0, 0, 1);
-		String key = file.getName();
-		File metaFile = getObjectMetaFileByKey(file.getParentFile(), key);
-		if (isNull(metaFile)) {
-			return null;
-		}
-		ObjectsStatusMetaData objectsStatusMetaData = readObjectsStatusMetaData(metaFile);
-		if (isNull(objectsStatusMetaData) || isNull(objectsStatusMetaData.getObjects())) {
-			return null;
-		}
-		Map<String, ObjectStatusMetaData> objects = objectsStatusMetaData.getObjects();
-		ObjectStatusMetaData objectStatusMetaData = objects.get(key);
-		if (nonNull(objectStatusMetaData)) {
-			return objectStatusMetaData;
-		}
-		return null;
+	public void addObject(String bucketPath, File file, ObjectStatusMetaData objectStatusMetaData) throws Exception {
+		long size = (!isNull(objectStatusMetaData) && objectStatusMetaData.getContentLength() > 0)
+				? objectStatusMetaData.getContentLength()
+				: Files.size(file.toPath());
+		getIndex(bucketPath).put(getObjectKey(bucketPath, file), size, objectStatusMetaData);
 	}
 
-	private File getObjectMetaFileByKey(File parentFile, String key) throws IOException {
-		if (!parentFile.exists()) {
-			return null;
-		}
-		File metaDataDir = new File(parentFile.getAbsolutePath() + OBJECT_METADATA_DIR);
-		File[] files = metaDataDir.listFiles();
-		if (!metaDataDir.exists() || files == null || files.length <= 0) {
-			return null;
-		}
-		for (File file : files) {
-			ObjectsStatusMetaData objectsStatusMetaData = readObjectsStatusMetaData(file);
-			if (isNull(objectsStatusMetaData) || isNull(objectsStatusMetaData.getObjects())) {
-				continue;
-			}
-			Map<String, ObjectStatusMetaData> objects = objectsStatusMetaData.getObjects();
-			ObjectStatusMetaData objectStatusMetaData = objects.get(key);
-			if (nonNull(objectStatusMetaData)) {
-				return file;
-			}
-		}
-		return null;
+	public void delObject(String bucketPath, File file) throws Exception {
+		getIndex(bucketPath).remove(getObjectKey(bucketPath, file));
 	}
 
-	private File getLastObjectMetaFile(File parentFile) {
-		File metaDataDir = new File(parentFile.getAbsolutePath() + OBJECT_METADATA_DIR);
-		if (!metaDataDir.exists()) {
-			metaDataDir.mkdirs();
-			Assert2.isTrue(metaDataDir.exists(), "make dir fail");
-			return createObjectMetaFile(parentFile);
-		}
-		File[] files = metaDataDir.listFiles();
-		if (files.length <= 0) {
-			return createObjectMetaFile(parentFile);
-		}
-		File lastFile = files[0];
-		int largestSuffix = 0;
-		for (File file : files) {
-			int suffix = getSuffix(file.getName());
-			if (suffix > largestSuffix) {
-				largestSuffix = suffix;
-				lastFile = file;
-			}
+	public void modifyObject(String bucketPath, File file, ObjectStatusMetaData objectStatusMetaData) throws Exception {
+		ObjectMetadataIndex index = getIndex(bucketPath);
+		String key = getObjectKey(bucketPath, file);
+		if (!index.contains(key)) {
+			return;
 		}
-		return lastFile;
+		long size = objectStatusMetaData.getContentLength() > 0 ? objectStatusMetaData.getContentLength()
+				: Files.size(file.toPath());
+		index.put(key, size, objectStatusMetaData);
 	}
 
-	private File createObjectMetaFile(File parentFile) {
-		ObjectsStatusMetaData objectsStatusMetaData = new ObjectsStatusMetaData();
-		File file = new File(parentFile.getAbsolutePath() + OBJECT_METADATA_DIR + OBJECT_METADATA_PRE + 0);
-		FileIOUtils.writeFile(file, JacksonUtils.toJSONString(objectsStatusMetaData), false);
-		return file;
+	public ObjectStatusMetaData getObject(String bucketPath, File file) throws IOException {
+		ObjectMetadataIndex index = getIndex(bucketPath);
+		index.incrementRequests(1);
+		return index.get(getObjectKey(bucketPath, file));
 	}
 
-	private static int getSuffix(String fileName) {
-		int i = fileName.lastIndexOf(".");
-		String substring = fileName.substring(i + 1, fileName.length());
-		try {
-			return Integer.valueOf(substring);
-		} catch (NumberFormatException e) {
-			e.printStackTrace();
-		}
-		return 0;
+	/**
+	 * Ordered listing the object keys of bucket with prefix.
+	 * 
+	 * @param bucketPath
+	 * @param prefix
+	 * @param marker
+	 *            Listing after marker(exclusive).
+	 * @param maxKeys
+	 * @return
+	 */
+	public List<String> listObjectKeys(String bucketPath, String prefix, String marker, int maxKeys) {
+		return getIndex(bucketPath).scan(prefix, marker, maxKeys);
+	}
+
+	/**
+	 * Ordered listing the objects and common prefixes of bucket with prefix
+	 * and delimiter.
+	 * 
+	 * @param bucketPath
+	 * @param prefix
+	 * @param marker
+	 *            Listing after marker(exclusive).
+	 * @param maxKeys
+	 * @param delimiter
+	 * @return
+	 */
+	public List<ListingEntry> listObjects(String bucketPath, String prefix, String marker, int maxKeys, String delimiter) {
+		return getIndex(bucketPath).scan(prefix, marker, maxKeys, delimiter);
+	}
+
+	/**
+	 * Check whether the objects of bucket has been indexed, the buckets
+	 * created before index have no any indexed objects.
+	 * 
+	 * @param bucketPath
+	 * @return
+	 */
+	public boolean isIndexed(String bucketPath) {
+		return !getIndex(bucketPath).isEmpty();
 	}
 
 	// ============================================bucket============================================
@@ -199,73 +163,157 @@ public class MetadataIndexManager {
 	 * @param bucketPath
 	 */
 	public void createBucketMeta(String bucketPath) {
-		File file = new File(bucketPath + BUCKET_METADATA);
-		createBucketMeta(file);
+		getIndex(bucketPath);
+	}
+
+	public BucketStatusMetaData readBucketMetaData(File file) throws IOException {
+		File bucketPath = file.getParentFile();
+		if (!bucketPath.exists()) {
+			return null;
+		}
+		return getIndex(bucketPath.getAbsolutePath()).getStatus();
 	}
 
 	/**
-	 *
-	 * @param bucketPath
-	 * @param addFileNum
-	 * @param addFileSize
+	 * Flush the bucket status of all opened indexes, and force the appended
+	 * records, that is, the updates are durable within the flush interval.
 	 */
-	public void modifyBucketMetaData(String bucketPath, int addFileNum, long addFileSize, long addRequestTimes) {
-		File file = new File(bucketPath + BUCKET_METADATA);
-		checkBucketMetaData(file);
-		try {
-			FileLockUtils.doTryLock(file, fileLock -> {
-				BucketStatusMetaData metadataIndex = readBucketMetaData(file);
-				metadataIndex.setNumberOfDocuments(metadataIndex.getNumberOfDocuments() + addFileNum);
-				metadataIndex.setStorageUsage(metadataIndex.getStorageUsage() + addFileSize);
-				metadataIndex.setNumberOfRequests(metadataIndex.getNumberOfRequests() + addRequestTimes);
-				metadataIndex.setModifyDate(System.currentTimeMillis());
-				writeBucketMetaData(file, metadataIndex);
-				return null;
-			});
-		} catch (Exception e) {
-			e.printStackTrace();
+	public void flushStatus() {
+		for (ObjectMetadataIndex index : indexes.values()) {
+			try {
+				index.flushStatus();
+				index.force();
+			} catch (Exception e) {
+				log.error("Failed to flush status of objects metadata index.", e);
+			}
 		}
 	}
 
-	private void checkBucketMetaData(File file) {
-		if (!file.exists()) {
-			createBucketMeta(file);
+	@Override
+	public void close() throws IOException {
+		statusFlusher.shutdownNow();
+		for (ObjectMetadataIndex index : indexes.values()) {
+			try {
+				index.close();
+			} catch (IOException e) {
+				log.error("Failed to close objects metadata index.", e);
+			}
 		}
-		Assert2.isTrue(file.exists(), "index file not exists and createBucketMeta fail");
+		indexes.clear();
 	}
 
-	private void createBucketMeta(File file) {
-		if (file.exists()) {// needn't create metadata
-			return;
-		}
-		BucketStatusMetaData metadataIndex = new BucketStatusMetaData();
-		metadataIndex.setNumberOfDocuments(0);
-		metadataIndex.setStorageUsage(0);
-		long now = System.currentTimeMillis();
-		metadataIndex.setCreateDate(now);
-		metadataIndex.setModifyDate(now);
-		writeBucketMetaData(file, metadataIndex);
+	/**
+	 * Gets or open the index of bucket.
+	 * 
+	 * @param bucketPath
+	 * @return
+	 */
+	private ObjectMetadataIndex getIndex(String bucketPath) {
+		return indexes.computeIfAbsent(new File(bucketPath).getAbsolutePath(), path -> {
+			try {
+				return openIndex(path);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
 	}
 
-	private void writeBucketMetaData(File file, BucketStatusMetaData metadataIndex) {
-		String s = JacksonUtils.toJSONString(metadataIndex);
-		FileIOUtils.writeFile(file, s, Charset.forName(charset), false);
+	/**
+	 * Open the index of bucket, the legacy JSON metadata files of bucket will
+	 * be imported when the index is opened first time. The importing marker
+	 * is only removed after all imported records have been forced, so that an
+	 * interrupted importing is redone(the puts are idempotent) on next open.
+	 * 
+	 * @param bucketPath
+	 * @return
+	 * @throws IOException
+	 */
+	private ObjectMetadataIndex openIndex(String bucketPath) throws IOException {
+		File metadataDir = new File(bucketPath + OBJECT_METADATA_DIR);
+		File marker = new File(metadataDir, LEGACY_IMPORTING_MARKER);
+		boolean importing = marker.exists() || !new File(metadataDir, ObjectMetadataIndex.INDEX_LOG).exists();
+		if (importing) {
+			metadataDir.mkdirs();
+			marker.createNewFile();
+		}
+		ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir);
+		if (importing) {
+			try {
+				importLegacyMetadata(bucketPath, index);
+				index.force();
+				Files.deleteIfExists(marker.toPath());
+			} catch (IOException | RuntimeException e) {
+				index.close();
+				throw e;
+			}
+		}
+		return index;
 	}
 
-	public BucketStatusMetaData readBucketMetaData(File file) throws IOException {
-		if (!file.exists()) {
-			return null;
+	/**
+	 * Import the legacy JSON metadata of bucket, i.e. the
+	 * {@link #BUCKET_METADATA} file and the 'block.N' files under the
+	 * {@link #OBJECT_METADATA_DIR} of each directory.
+	 * 
+	 * @param bucketPath
+	 * @param index
+	 * @throws IOException
+	 */
+	private void importLegacyMetadata(String bucketPath, ObjectMetadataIndex index) throws IOException {
+		File bucketDir = new File(bucketPath);
+		if (!bucketDir.isDirectory()) {
+			return;
+		}
+		File bucketMetaFile = new File(bucketPath + BUCKET_METADATA);
+		if (bucketMetaFile.isFile()) {
+			BucketStatusMetaData status = JacksonUtils.parseJSON(FileIOUtils.readFileToString(bucketMetaFile, "UTF-8"),
+					BucketStatusMetaData.class);
+			if (!isNull(status)) {
+				index.importStatus(status.getNumberOfRequests(), status.getCreateDate());
+			}
+		}
+
+		long objects = 0;
+		List<Path> metadataDirs;
+		try (Stream<Path> paths = Files.walk(bucketDir.toPath())) {
+			metadataDirs = paths.filter(p -> OBJECT_METADATA_DIR_NAME.equals(p.getFileName().toString()))
+					.filter(p -> Files.isDirectory(p)).collect(toList());
+		}
+		for (Path metadataDir : metadataDirs) {
+			File[] blockFiles = metadataDir.toFile().listFiles((dir, name) -> name.startsWith(LEGACY_OBJECT_METADATA_PRE));
+			if (isNull(blockFiles)) {
+				continue;
+			}
+			File parentDir = metadataDir.getParent().toFile();
+			for (File blockFile : blockFiles) {
+				ObjectsStatusMetaData block = JacksonUtils.parseJSON(FileIOUtils.readFileToString(blockFile, "UTF-8"),
+						ObjectsStatusMetaData.class);
+				if (isNull(block) || isNull(block.getObjects())) {
+					continue;
+				}
+				for (Entry<String, ObjectStatusMetaData> ent : block.getObjects().entrySet()) {
+					File file = new File(parentDir, ent.getKey());
+					ObjectStatusMetaData metadata = ent.getValue();
+					long size = (!isNull(metadata) && metadata.getContentLength() > 0) ? metadata.getContentLength()
+							: (file.isFile() ? file.length() : 0);
+					index.put(getObjectKey(bucketPath, file), size, metadata);
+					++objects;
+				}
+			}
+		}
+		if (objects > 0) {
+			log.info("Imported legacy objects metadata of bucket '{}', objects: {}", bucketPath, objects);
 		}
-		String s = FileIOUtils.readFileToString(file, charset);
-		return JacksonUtils.parseJSON(s, BucketStatusMetaData.class);
 	}
 
-	private ObjectsStatusMetaData readObjectsStatusMetaData(File file) throws IOException {
-		if (!file.exists()) {
-			return null;
+	private static String getObjectKey(String bucketPath, File file) {
+		String bucket = new File(bucketPath).getAbsolutePath();
+		String path = file.getAbsolutePath();
+		if (path.startsWith(bucket)) {
+			path = path.substring(bucket.length());
 		}
-		String s = FileIOUtils.readFileToString(file, charset);
-		return JacksonUtils.parseJSON(s, ObjectsStatusMetaData.class);
+		path = path.replace(File.separatorChar, '/');
+		return path.startsWith("/") ? path.substring(1) : path;
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import com.google.common.hash.HashCode;
+import com.wl4g.components.common.log.SmartLogger;
+import com.wl4g.devops.uos.common.exception.ServerCossException;
+import com.wl4g.devops.uos.common.model.PartETag;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.wl4g.components.common.lang.Assert2.hasTextOf;
+import static com.wl4g.components.common.lang.Assert2.isTrue;
+import static com.wl4g.components.common.lang.Assert2.notNullOf;
+import static com.wl4g.components.common.log.SmartLoggerFactory.getLogger;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.isNull;
+
+/**
+ * Multipart uploads of standard file system, each upload has a directory
+ * under the uploads directory, the parts are written concurrently into the
+ * preallocated (sparse) data file by positional {@link FileChannel} writes,
+ * and the data file is moved to the object path when completed.
+ * 
+ * <pre>
+ * .uploads/{uploadId}/upload.properties   (bucket, key, length, part size)
+ * .uploads/{uploadId}/data                (sparse data file)
+ * .uploads/{uploadId}/part-{partNumber}   (ETag and size of written part)
+ * </pre>
+ * 
+ * The written parts are recorded by files, so the uploads can be resumed
+ * after failures or restarting.
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:51:00
+ */
+public class MultipartUploadManager {
+
+	final public static String UPLOAD_PROPERTIES = "upload.properties";
+	final public static String UPLOAD_DATA = "data";
+	final public static String PART_PREFIX = "part-";
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** Directory of all multipart uploads. */
+	final private File uploadsDir;
+
+	/** Loaded multipart uploads. */
+	final private Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>(16);
+
+	public MultipartUploadManager(File uploadsDir) {
+		notNullOf(uploadsDir, "uploadsDir");
+		this.uploadsDir = uploadsDir;
+	}
+
+	/**
+	 * Initiates multipart upload, the data file is preallocated if the
+	 * content length is known.
+	 * 
+	 * @param bucketName
+	 * @param key
+	 * @param contentLength
+	 *            Object length, 0 if unknown.
+	 * @param partSize
+	 * @param acl
+	 *            Canned ACL of completed object, optional.
+	 * @return upload id
+	 * @throws IOException
+	 */
+	public String initiate(String bucketName, String key, long contentLength, long partSize, String acl)
+			throws IOException {
+		hasTextOf(bucketName, "bucketName");
+		hasTextOf(key, "key");
+		isTrue(partSize > 0, "Part size must greater than 0.");
+
+		String uploadId = UUID.randomUUID().toString().replace("-", "");
+		File uploadDir = new File(uploadsDir, uploadId);
+		isTrue(uploadDir.mkdirs(), ServerCossException.class, "Couldn't mkdirs upload directory to '%s'", uploadDir);
+		try (RandomAccessFile data = new RandomAccessFile(new File(uploadDir, UPLOAD_DATA), "rw")) {
+			if (contentLength > 0) {
+				data.setLength(contentLength); // Sparse, the blocks are allocated by part writing.
+			}
+		}
+		MultipartUpload upload = new MultipartUpload(uploadId, bucketName, key, Math.max(contentLength, 0), partSize, acl);
+		Properties props = new Properties();
+		props.setProperty("bucketName", bucketName);
+		props.setProperty("key", key);
+		props.setProperty("contentLength", String.valueOf(upload.contentLength));
+		props.setProperty("partSize", String.valueOf(partSize));
+		if (!isNull(acl)) {
+			props.setProperty("acl", acl);
+		}
+		// Properties is written at last, so an upload is loadable only if
+		// initiated completely.
+		File tmp = new File(uploadDir, UPLOAD_PROPERTIES + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+			props.store(out, null);
+		}
+		moveAtomically(tmp.toPath(), new File(uploadDir, UPLOAD_PROPERTIES).toPath());
+		uploads.put(uploadId, upload);
+		return uploadId;
+	}
+
+	/**
+	 * Writes the part at the position of part number, the parts of the same
+	 * upload can be written concurrently.
+	 * 
+	 * @param bucketName
+	 * @param key
+	 * @param uploadId
+	 * @param partNumber
+	 * @param input
+	 * @param size
+	 * @return
+	 * @throws IOException
+	 */
+	public PartETag uploadPart(String bucketName, String key, String uploadId, int partNumber, InputStream input,
+			long size) throws IOException {
+		notNullOf(input, "input");
+		MultipartUpload upload = getUpload(bucketName, key, uploadId);
+		isTrue(partNumber >= 1, "Part number must greater than 0.");
+		isTrue(size >= 0 && size <= upload.partSize, "Part size must be between 0 and %s", upload.partSize);
+		long position = (partNumber - 1) * upload.partSize;
+		isTrue(upload.contentLength <= 0 || position + size <= upload.contentLength,
+				"Part %s is out of content length %s of upload '%s'", partNumber, upload.contentLength, uploadId);
+
+		upload.lock.readLock().lock();
+		try {
+			isTrue(!upload.closed, ServerCossException.class, "Multipart upload '%s' is completed or aborted", uploadId);
+			MessageDigest md5 = newMD5();
+			try (DigestInputStream digestInput = new DigestInputStream(input, md5);
+					ReadableByteChannel source = Channels.newChannel(digestInput);
+					FileChannel target = FileChannel.open(upload.getDataPath(uploadsDir), WRITE)) {
+				// Positional writes instead of transferFrom(), which transfers
+				// nothing at the position beyond the file size, e.g. the length
+				// is unknown or the parts are written out of order.
+				ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+				long written = 0;
+				while (written < size) {
+					buffer.clear();
+					buffer.limit((int) Math.min(buffer.capacity(), size - written));
+					if (source.read(buffer) < 0) {
+						break;
+					}
+					buffer.flip();
+					while (buffer.hasRemaining()) {
+						written += target.write(buffer, position + written);
+					}
+				}
+				isTrue(written == size, ServerCossException.class, "Incomplete part %s of upload '%s', expected: %s, actual: %s",
+						partNumber, uploadId, size, written);
+				target.force(false);
+			}
+			PartETag part = new PartETag(partNumber, HashCode.fromBytes(md5.digest()).toString(), size);
+
+			// Records the part after it's written, the re-uploaded part is
+			// overwritten.
+			File uploadDir = new File(uploadsDir, uploadId);
+			Path tmp = new File(uploadDir, PART_PREFIX + partNumber + "." + Thread.currentThread().getId() + ".tmp").toPath();
+			Files.write(tmp, (part.getETag() + " " + part.getSize()).getBytes(UTF_8));
+			moveAtomically(tmp, new File(uploadDir, PART_PREFIX + partNumber).toPath());
+			return part;
+		} finally {
+			upload.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Lists the written parts ordered by part number.
+	 * 
+	 * @param bucketName
+	 * @param key
+	 * @param uploadId
+	 * @return
+	 * @throws IOException
+	 */
+	public List<PartETag> listParts(String bucketName, String key, String uploadId) throws IOException {
+		getUpload(bucketName, key, uploadId);
+		return readParts(new File(uploadsDir, uploadId).toPath());
+	}
+
+	/**
+	 * Completes the multipart upload, the parts must be continuous from 1, and
+	 * the data file is moved to the object path.
+	 * 
+	 * @param bucketName
+	 * @param key
+	 * @param uploadId
+	 * @param partETags
+	 * @param objectPath
+	 * @return
+	 * @throws IOException
+	 */
+	public CompletedUpload complete(String bucketName, String key, String uploadId, List<PartETag> partETags,
+			File objectPath) throws IOException {
+		isTrue(!isNull(partETags) && !partETags.isEmpty(), "Parts of multipart upload must not be empty.");
+		MultipartUpload upload = getUpload(bucketName, key, uploadId);
+
+		upload.lock.writeLock().lock();
+		try {
+			isTrue(!upload.closed, ServerCossException.class, "Multipart upload '%s' is completed or aborted", uploadId);
+			File uploadDir = new File(uploadsDir, uploadId);
+			List<PartETag> written = readParts(uploadDir.toPath());
+			List<PartETag> parts = new ArrayList<>(partETags);
+			parts.sort(Comparator.comparingInt(PartETag::getPartNumber));
+
+			// Multipart ETag, i.e. MD5 of all parts MD5 with number of parts.
+			MessageDigest md5 = newMD5();
+			long length = 0;
+			for (int i = 0; i < parts.size(); i++) {
+				PartETag part = parts.get(i);
+				isTrue(part.getPartNumber() == i + 1, "Missing part %s of upload '%s'", i + 1, uploadId);
+				PartETag writtenPart = i < written.size() ? written.get(i) : null;
+				isTrue(!isNull(writtenPart) && writtenPart.getPartNumber() == part.getPartNumber()
+						&& writtenPart.getETag().equalsIgnoreCase(part.getETag()), "Invalid part %s of upload '%s'",
+						part.getPartNumber(), uploadId);
+				isTrue(i == parts.size() - 1 || writtenPart.getSize() == upload.partSize,
+						"Part %s of upload '%s' is smaller than part size %s", part.getPartNumber(), uploadId, upload.partSize);
+				md5.update(HashCode.fromString(writtenPart.getETag().toLowerCase()).asBytes());
+				length += writtenPart.getSize();
+			}
+			isTrue(upload.contentLength <= 0 || length == upload.contentLength,
+					"Completed length %s is not the content length %s of upload '%s'", length, upload.contentLength, uploadId);
+
+			Path dataPath = upload.getDataPath(uploadsDir);
+			try (FileChannel data = FileChannel.open(dataPath, WRITE)) {
+				data.truncate(length);
+				data.force(true);
+			}
+			if (!objectPath.getParentFile().exists()) {
+				objectPath.getParentFile().mkdirs();
+			}
+			moveAtomically(dataPath, objectPath.toPath());
+			upload.closed = true;
+			remove(uploadId);
+
+			return new CompletedUpload(HashCode.fromBytes(md5.digest()).toString() + "-" + parts.size(), length, upload.acl);
+		} finally {
+			upload.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Aborts the multipart upload, the written parts are deleted.
+	 * 
+	 * @param bucketName
+	 * @param key
+	 * @param uploadId
+	 * @throws IOException
+	 */
+	public void abort(String bucketName, String key, String uploadId) throws IOException {
+		MultipartUpload upload = getUpload(bucketName, key, uploadId);
+		upload.lock.writeLock().lock();
+		try {
+			upload.closed = true;
+			remove(uploadId);
+		} finally {
+			upload.lock.writeLock().unlock();
+		}
+	}
+
+	private MultipartUpload getUpload(String bucketName, String key, String uploadId) {
+		isTrue(!isNull(uploadId) && uploadId.matches("[0-9a-f]{32}"), "Invalid upload id '%s'", uploadId);
+		MultipartUpload upload = uploads.computeIfAbsent(uploadId, id -> loadUpload(id));
+		isTrue(!isNull(upload), ServerCossException.class, "No such multipart upload '%s'", uploadId);
+		isTrue(upload.bucketName.equals(bucketName) && upload.key.equals(key),
+				"Multipart upload '%s' is not of object '%s/%s'", uploadId, bucketName, key);
+		return upload;
+	}
+
+	/**
+	 * Loads the upload initiated before restarting, returns null if not
+	 * exists.
+	 */
+	private MultipartUpload loadUpload(String uploadId) {
+		File propsFile = new File(new File(uploadsDir, uploadId), UPLOAD_PROPERTIES);
+		if (!propsFile.exists()) {
+			return null;
+		}
+		Properties props = new Properties();
+		try (InputStream in = Files.newInputStream(propsFile.toPath())) {
+			props.load(in);
+		} catch (IOException e) {
+			throw new ServerCossException(format("Couldn't load multipart upload '%s'", uploadId), e);
+		}
+		return new MultipartUpload(uploadId, props.getProperty("bucketName"), props.getProperty("key"),
+				Long.parseLong(props.getProperty("contentLength")), Long.parseLong(props.getProperty("partSize")),
+				props.getProperty("acl"));
+	}
+
+	private void remove(String uploadId) throws IOException {
+		uploads.remove(uploadId);
+		File uploadDir = new File(uploadsDir, uploadId);
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadDir.toPath())) {
+			for (Path f : files) {
+				Files.deleteIfExists(f);
+			}
+		}
+		Files.deleteIfExists(uploadDir.toPath());
+	}
+
+	private static List<PartETag> readParts(Path uploadDir) throws IOException {
+		List<PartETag> parts = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadDir, PART_PREFIX + "*")) {
+			for (Path f : files) {
+				String name = f.getFileName().toString();
+				if (name.endsWith(".tmp")) {
+					continue;
+				}
+				String[] record = new String(Files.readAllBytes(f), UTF_8).trim().split(" ");
+				parts.add(new PartETag(Integer.parseInt(name.substring(PART_PREFIX.length())), record[0],
+						Long.parseLong(record[1])));
+			}
+		}
+		parts.sort(Comparator.comparingInt(PartETag::getPartNumber));
+		return parts;
+	}
+
+	private static void moveAtomically(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, ATOMIC_MOVE, REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, REPLACE_EXISTING);
+		}
+	}
+
+	private static MessageDigest newMD5() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Multipart upload of an object.
+	 */
+	private static class MultipartUpload {
+		final String uploadId;
+		final String bucketName;
+		final String key;
+		final long contentLength;
+		final long partSize;
+		final String acl;
+
+		/** Parts writing are shared, completing and aborting are exclusive. */
+		final ReadWriteLock lock = new ReentrantReadWriteLock();
+		volatile boolean closed;
+
+		MultipartUpload(String uploadId, String bucketName, String key, long contentLength, long partSize, String acl) {
+			this.uploadId = uploadId;
+			this.bucketName = bucketName;
+			this.key = key;
+			this.contentLength = contentLength;
+			this.partSize = partSize;
+			this.acl = acl;
+		}
+
+		Path getDataPath(File uploadsDir) {
+			return new File(new File(uploadsDir, uploadId), UPLOAD_DATA).toPath();
+		}
+	}
+
+	/**
+	 * Completed multipart upload.
+	 */
+	public static class CompletedUpload {
+		final private String etag;
+		final private long contentLength;
+		final private String acl;
+
+		CompletedUpload(String etag, long contentLength, String acl) {
+			this.etag = etag;
+			this.contentLength = contentLength;
+			this.acl = acl;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+
+		public long getContentLength() {
+			return contentLength;
+		}
+
+		public String getAcl() {
+			return acl;
+		}
+	}
+
+	/** Buffer size of each part writing. */
+	private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+}
@@ -0,0 +1,567 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import com.wl4g.components.common.log.SmartLogger;
+import com.wl4g.components.common.serialize.JacksonUtils;
+import com.wl4g.devops.uos.common.model.metadata.BucketStatusMetaData;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.wl4g.components.common.lang.Assert2.isTrue;
+import static com.wl4g.components.common.lang.Assert2.notNullOf;
+import static com.wl4g.components.common.log.SmartLoggerFactory.getLogger;
+import static com.wl4g.devops.uos.common.model.metadata.ObjectsStatusMetaData.ObjectStatusMetaData;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.isNull;
+
+/**
+ * Embedded log-structured ordered key-value index of objects metadata of one
+ * bucket. The keys are kept in an ordered skip-list with the offsets of their
+ * latest records(O(log n) lookups and ordered prefix scans), and the metadata
+ * is appended to the log file, the dead records will be compacted when they
+ * exceed the live records.
+ * </br>
+ * The appended records are durable only after {@link #force()}(called by the
+ * periodic flusher of {@link MetadataIndexManager}), a crash of the process
+ * loses nothing, but a crash of the OS may lose the updates since the last
+ * forcing.
+ * 
+ * <pre>
+ * record: | length(int) | op(byte) | key length(short) | key | size(long) | timestamp(long) | meta length(int) | meta |
+ * </pre>
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:13:26
+ */
+public class ObjectMetadataIndex implements Closeable {
+
+	public static final String INDEX_LOG = "index.log";
+
+	final protected SmartLogger log = getLogger(getClass());
+
+	/** Index log file. */
+	private final File logFile;
+
+	/** Ordered index of object key to latest record. */
+	private final ConcurrentSkipListMap<String, IndexEntry> index = new ConcurrentSkipListMap<>();
+
+	private final AtomicLong storageUsage = new AtomicLong(0);
+	/** Requests counter, aggregated in memory and flushed periodically. */
+	private final LongAdder numberOfRequests = new LongAdder();
+	private long flushedRequests;
+	private volatile long createDate;
+	private volatile long modifyDate;
+
+	/** Index log channel, writes are serialized by this. */
+	private FileChannel channel;
+	private long writePosition;
+	private long forcedPosition = -1;
+	private long deadRecords;
+
+	public ObjectMetadataIndex(File metadataDir) throws IOException {
+		notNullOf(metadataDir, "metadataDir");
+		if (!metadataDir.exists()) {
+			metadataDir.mkdirs();
+		}
+		isTrue(metadataDir.isDirectory(), "Couldn't mkdirs metadata directory '%s'", metadataDir);
+		this.logFile = new File(metadataDir, INDEX_LOG);
+		this.channel = FileChannel.open(logFile.toPath(), CREATE, READ, WRITE);
+		recover();
+	}
+
+	// --- Object. ---
+
+	public void put(String key, long size, ObjectStatusMetaData metadata) throws IOException {
+		byte[] meta = isNull(metadata) ? new byte[0] : JacksonUtils.toJSONString(metadata).getBytes(UTF_8);
+		synchronized (this) {
+			long offset = append(OP_PUT, key, size, meta);
+			IndexEntry old = index.put(key, new IndexEntry(offset, size, modifyDate));
+			if (!isNull(old)) {
+				storageUsage.addAndGet(-old.size);
+				++deadRecords;
+			}
+			storageUsage.addAndGet(size);
+			compactIfNecessary();
+		}
+	}
+
+	public boolean remove(String key) throws IOException {
+		synchronized (this) {
+			IndexEntry old = index.remove(key);
+			if (isNull(old)) {
+				return false;
+			}
+			append(OP_DEL, key, 0, new byte[0]);
+			storageUsage.addAndGet(-old.size);
+			deadRecords += 2; // Put and delete records.
+			compactIfNecessary();
+			return true;
+		}
+	}
+
+	public ObjectStatusMetaData get(String key) throws IOException {
+		IndexEntry entry = index.get(key);
+		if (isNull(entry)) {
+			return null;
+		}
+		Record record = null;
+		synchronized (this) { // Offsets may be moved by compaction.
+			entry = index.get(key);
+			if (isNull(entry)) {
+				return null;
+			}
+			record = read(channel, entry.offset);
+		}
+		return record.meta.length == 0 ? new ObjectStatusMetaData()
+				: JacksonUtils.parseJSON(new String(record.meta, UTF_8), ObjectStatusMetaData.class);
+	}
+
+	public boolean contains(String key) {
+		return index.containsKey(key);
+	}
+
+	/**
+	 * Ordered scan of the keys with prefix, after the marker(exclusive).
+	 * 
+	 * @param prefix
+	 * @param marker
+	 * @param maxKeys
+	 * @return
+	 */
+	public List<String> scan(String prefix, String marker, int maxKeys) {
+		prefix = isNull(prefix) ? "" : prefix;
+		NavigableMap<String, IndexEntry> range = index.tailMap(prefix, true);
+		if (!isNull(marker) && marker.compareTo(prefix) >= 0) {
+			range = index.tailMap(marker, false);
+		}
+		List<String> keys = new ArrayList<>(Math.min(Math.max(maxKeys, 0), 1024));
+		for (String key : range.keySet()) {
+			if (keys.size() >= maxKeys || !key.startsWith(prefix)) {
+				break;
+			}
+			keys.add(key);
+		}
+		return keys;
+	}
+
+	/**
+	 * Ordered scan of the keys with prefix after the marker(exclusive), the
+	 * keys containing the delimiter after the prefix are rolled up into one
+	 * common prefix, and all the keys under it are skipped by one seeking, so
+	 * that the cost is O(page * log n) no matter how many keys are under it.
+	 * 
+	 * @param prefix
+	 * @param marker
+	 *            Object key or common prefix of last page.
+	 * @param maxKeys
+	 * @param delimiter
+	 * @return
+	 */
+	public List<ListingEntry> scan(String prefix, String marker, int maxKeys, String delimiter) {
+		prefix = isNull(prefix) ? "" : prefix;
+		String key = index.ceilingKey(prefix);
+		if (!isNull(marker) && marker.compareTo(prefix) >= 0) {
+			boolean rolledUp = !isNull(delimiter) && !delimiter.isEmpty() && marker.endsWith(delimiter);
+			key = index.higherKey(rolledUp ? marker + Character.MAX_VALUE : marker);
+		}
+		List<ListingEntry> entries = new ArrayList<>(Math.min(Math.max(maxKeys, 0), 1024));
+		while (!isNull(key) && entries.size() < maxKeys && key.startsWith(prefix)) {
+			int i = (isNull(delimiter) || delimiter.isEmpty()) ? -1 : key.indexOf(delimiter, prefix.length());
+			if (i >= 0) {
+				String commonPrefix = key.substring(0, i + delimiter.length());
+				entries.add(new ListingEntry(commonPrefix, 0, 0, true));
+				key = index.higherKey(commonPrefix + Character.MAX_VALUE);
+			} else {
+				IndexEntry entry = index.get(key);
+				if (!isNull(entry)) { // May be removed concurrently.
+					entries.add(new ListingEntry(key, entry.size, entry.mtime, false));
+				}
+				key = index.higherKey(key);
+			}
+		}
+		return entries;
+	}
+
+	public boolean isEmpty() {
+		return index.isEmpty();
+	}
+
+	// --- Bucket status. ---
+
+	public void incrementRequests(long count) {
+		numberOfRequests.add(count);
+	}
+
+	/**
+	 * Persist the bucket status if the requests counter has been changed since
+	 * last flushing.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	public synchronized boolean flushStatus() throws IOException {
+		long requests = numberOfRequests.sum();
+		if (requests == flushedRequests || !channel.isOpen()) {
+			return false;
+		}
+		writePosition += writeFully(channel, encodeStat(requests), writePosition);
+		flushedRequests = requests;
+		++deadRecords; // Previous status record.
+		return true;
+	}
+
+	public BucketStatusMetaData getStatus() {
+		BucketStatusMetaData status = new BucketStatusMetaData();
+		status.setNumberOfDocuments(index.size());
+		status.setStorageUsage(storageUsage.get());
+		status.setNumberOfRequests(numberOfRequests.sum());
+		status.setCreateDate(createDate);
+		status.setModifyDate(modifyDate);
+		return status;
+	}
+
+	/**
+	 * Rewrite the live records to new log file, and replace it atomically. The
+	 * offsets of index are only swapped after the new log file replaced the
+	 * old one, so that the index is untouched if compaction failed.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void compact() throws IOException {
+		File compacting = new File(logFile.getParentFile(), INDEX_LOG + ".compacting");
+		Map<String, IndexEntry> compacted = new HashMap<>(index.size() * 4 / 3 + 1);
+		long position = 0, requests = numberOfRequests.sum();
+		try (FileChannel out = FileChannel.open(compacting.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)) {
+			for (Entry<String, IndexEntry> ent : index.entrySet()) {
+				Record record = read(channel, ent.getValue().offset);
+				ByteBuffer buf = encode(OP_PUT, ent.getKey(), record.size, record.timestamp, record.meta);
+				compacted.put(ent.getKey(), new IndexEntry(position, record.size, record.timestamp));
+				position += writeFully(out, buf, position);
+			}
+			position += writeFully(out, encodeStat(requests), position);
+			out.force(true);
+		}
+		try {
+			Files.move(compacting.toPath(), logFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(compacting.toPath());
+			throw e;
+		}
+		channel.close();
+		channel = FileChannel.open(logFile.toPath(), READ, WRITE);
+		index.putAll(compacted);
+		writePosition = position;
+		forcedPosition = position;
+		flushedRequests = requests;
+		deadRecords = 0;
+		log.info("Compacted objects metadata index '{}', records: {}", logFile, index.size());
+	}
+
+	/**
+	 * Import the bucket status of legacy metadata(e.g. upgrading from JSON
+	 * metadata files).
+	 * 
+	 * @param requests
+	 * @param createDate
+	 * @throws IOException
+	 */
+	public synchronized void importStatus(long requests, long createDate) throws IOException {
+		if (createDate > 0) {
+			this.createDate = createDate;
+		}
+		numberOfRequests.reset();
+		numberOfRequests.add(requests);
+		writePosition += writeFully(channel, encodeStat(requests), writePosition);
+		flushedRequests = requests;
+		++deadRecords; // Previous status record.
+	}
+
+	/**
+	 * Force the appended records to storage device, if any records appended
+	 * since last forcing.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	public synchronized boolean force() throws IOException {
+		if (!channel.isOpen() || forcedPosition == writePosition) {
+			return false;
+		}
+		channel.force(true);
+		forcedPosition = writePosition;
+		return true;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel.isOpen()) {
+			// Persist bucket status.
+			writePosition += writeFully(channel, encodeStat(numberOfRequests.sum()), writePosition);
+			channel.force(true);
+			channel.close();
+		}
+	}
+
+	private void compactIfNecessary() throws IOException {
+		if (deadRecords > COMPACT_MIN_DEAD_RECORDS && deadRecords > index.size()) {
+			compact();
+		}
+	}
+
+	private long append(byte op, String key, long size, byte[] meta) throws IOException {
+		long now = System.currentTimeMillis();
+		long offset = writePosition;
+		writePosition += writeFully(channel, encode(op, key, size, now, meta), offset);
+		modifyDate = now;
+		return offset;
+	}
+
+	/**
+	 * Replay the log, the torn tail record(e.g. crashed when writing) will be
+	 * truncated. A bad record followed by other records is a corruption rather
+	 * than torn write, it fails to open instead of discarding the following
+	 * records.
+	 * 
+	 * @throws IOException
+	 */
+	private void recover() throws IOException {
+		long position = 0, size = channel.size();
+		long records = 0;
+		while (position < size) {
+			Record record;
+			try {
+				record = read(channel, position);
+			} catch (IOException | RuntimeException e) {
+				if (!isTailRecord(channel, position, size)) {
+					throw new IOException(String.format(
+							"Corrupted record of metadata index '%s' at: %s of size: %s, it must be repaired manually",
+							logFile, position, size), e);
+				}
+				log.warn("Truncate torn record of metadata index '{}' at: {}, causes by: {}", logFile, position, e.getMessage());
+				channel.truncate(position);
+				break;
+			}
+			++records;
+			switch (record.op) {
+			case OP_PUT:
+				IndexEntry old = index.put(record.key, new IndexEntry(position, record.size, record.timestamp));
+				if (!isNull(old)) {
+					storageUsage.addAndGet(-old.size);
+				}
+				storageUsage.addAndGet(record.size);
+				break;
+			case OP_DEL:
+				old = index.remove(record.key);
+				if (!isNull(old)) {
+					storageUsage.addAndGet(-old.size);
+				}
+				break;
+			case OP_STAT:
+				numberOfRequests.reset();
+				numberOfRequests.add(record.size);
+				flushedRequests = record.size;
+				createDate = record.timestamp;
+				break;
+			}
+			modifyDate = Math.max(modifyDate, record.timestamp);
+			position += 4 + record.length;
+		}
+		this.writePosition = position;
+		this.deadRecords = records - index.size();
+		if (createDate <= 0) {
+			createDate = System.currentTimeMillis();
+		}
+		log.info("Recovered objects metadata index '{}', objects: {}, records: {}", logFile, index.size(), records);
+	}
+
+	/**
+	 * Check whether the record at position is the last one of log, i.e. the
+	 * length header is torn, or the record reaches the end, or the rest is
+	 * zero filled(e.g. the file size is extended before the data is written
+	 * on crash).
+	 * 
+	 * @param channel
+	 * @param position
+	 * @param size
+	 * @return
+	 * @throws IOException
+	 */
+	private static boolean isTailRecord(FileChannel channel, long position, long size) throws IOException {
+		if (position + 4 > size) {
+			return true;
+		}
+		ByteBuffer header = ByteBuffer.allocate(4);
+		readFully(channel, header, position);
+		if (position + 4 + header.getInt(0) >= size) {
+			return true;
+		}
+		ByteBuffer buf = ByteBuffer.allocate(8192);
+		for (long p = position; p < size; p += buf.limit()) {
+			buf.clear().limit((int) Math.min(buf.capacity(), size - p));
+			readFully(channel, buf, p);
+			for (int i = 0; i < buf.limit(); i++) {
+				if (buf.get(i) != 0) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private ByteBuffer encodeStat(long requests) {
+		return encode(OP_STAT, "", requests, createDate, new byte[0]);
+	}
+
+	private static ByteBuffer encode(byte op, String key, long size, long timestamp, byte[] meta) {
+		byte[] k = key.getBytes(UTF_8);
+		isTrue(k.length <= Short.MAX_VALUE, "Object key too long. %s", key);
+		int length = 1 + 2 + k.length + 8 + 8 + 4 + meta.length;
+		ByteBuffer buf = ByteBuffer.allocate(4 + length);
+		buf.putInt(length).put(op).putShort((short) k.length).put(k).putLong(size).putLong(timestamp).putInt(meta.length)
+				.put(meta);
+		buf.flip();
+		return buf;
+	}
+
+	private static Record read(FileChannel channel, long position) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(4);
+		readFully(channel, header, position);
+		int length = header.getInt(0);
+		if (length < MIN_RECORD_LENGTH || position + 4 + length > channel.size()) {
+			throw new IOException("Invalid record length: " + length);
+		}
+		ByteBuffer buf = ByteBuffer.allocate(length);
+		readFully(channel, buf, position + 4);
+		buf.flip();
+
+		Record record = new Record();
+		record.length = length;
+		record.op = buf.get();
+		byte[] k = new byte[buf.getShort()];
+		buf.get(k);
+		record.key = new String(k, UTF_8);
+		record.size = buf.getLong();
+		record.timestamp = buf.getLong();
+		record.meta = new byte[buf.getInt()];
+		buf.get(record.meta);
+		return record;
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+		while (buf.hasRemaining()) {
+			int n = channel.read(buf, position + buf.position());
+			if (n < 0) {
+				throw new IOException("Unexpected end of metadata index");
+			}
+		}
+	}
+
+	private static int writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+		int total = buf.remaining();
+		while (buf.hasRemaining()) {
+			channel.write(buf, position + (total - buf.remaining()));
+		}
+		return total;
+	}
+
+	/**
+	 * Index entry of latest record.
+	 */
+	static class IndexEntry {
+		final long offset;
+		final long size;
+		final long mtime;
+
+		IndexEntry(long offset, long size, long mtime) {
+			this.offset = offset;
+			this.size = size;
+			this.mtime = mtime;
+		}
+	}
+
+	/**
+	 * Listed entry of delimited scan, the key of common prefix ends with
+	 * delimiter and has no size.
+	 */
+	public static class ListingEntry {
+		final private String key;
+		final private long size;
+		final private long mtime;
+		final private boolean commonPrefix;
+
+		ListingEntry(String key, long size, long mtime, boolean commonPrefix) {
+			this.key = key;
+			this.size = size;
+			this.mtime = mtime;
+			this.commonPrefix = commonPrefix;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public long getMtime() {
+			return mtime;
+		}
+
+		public boolean isCommonPrefix() {
+			return commonPrefix;
+		}
+	}
+
+	/**
+	 * Decoded log record.
+	 */
+	static class Record {
+		int length;
+		byte op;
+		String key;
+		long size;
+		long timestamp;
+		byte[] meta;
+	}
+
+	private static final byte OP_PUT = 1;
+	private static final byte OP_DEL = 2;
+	private static final byte OP_STAT = 3;
+	private static final int MIN_RECORD_LENGTH = 1 + 2 + 8 + 8 + 4;
+	private static final long COMPACT_MIN_DEAD_RECORDS = 10_000L;
+
+}
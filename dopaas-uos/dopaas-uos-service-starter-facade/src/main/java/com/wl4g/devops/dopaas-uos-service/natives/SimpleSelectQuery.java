@@ -0,0 +1,628 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import static com.wl4g.components.common.lang.Assert2.hasTextOf;
+import static com.wl4g.components.common.lang.Assert2.isTrue;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.wl4g.devops.uos.common.model.SelectRecords;
+
+import io.minio.messages.CompressionType;
+
+/**
+ * Simple select query of CSV or JSON records, evaluated while scanning the
+ * object content. Supports the subset of S3 Select:
+ * 
+ * <pre>
+ * SELECT * | s._1, s.level, ... FROM S3Object [s] [WHERE cond [AND|OR cond ...]] [LIMIT n]
+ * cond: field|literal =|!=|&lt;&gt;|&lt;|&lt;=|&gt;|&gt;=|LIKE field|literal
+ * </pre>
+ * 
+ * The CSV fields are referenced by position(e.g. _1) or header name, the
+ * JSON fields by name(e.g. level or a.b for nested). AND has higher precedence
+ * than OR, and the parentheses are not supported.
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:41:00
+ */
+public class SimpleSelectQuery {
+
+	final private static ObjectReader JSON_READER = new ObjectMapper().readerFor(JsonNode.class);
+
+	/** Marker of not matched record. */
+	final private static String NOT_MATCHED = new String();
+
+	/** Projected fields, null if select all. */
+	final private List<String> projections;
+
+	/** Conditions in disjunctive normal form, OR of AND conditions. */
+	final private List<List<Condition>> where;
+
+	/** Max returned records, -1 if unlimited. */
+	final private long limit;
+
+	/** CSV header of field name to index. */
+	private Map<String, Integer> header;
+
+	private SimpleSelectQuery(List<String> projections, List<List<Condition>> where, long limit) {
+		this.projections = projections;
+		this.where = where;
+		this.limit = limit;
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Sets CSV header record, the fields can be referenced by name.
+	 * 
+	 * @param headerFields
+	 */
+	public void setHeader(String[] headerFields) {
+		this.header = new HashMap<>(headerFields.length * 2);
+		for (int i = 0; i < headerFields.length; i++) {
+			header.put(headerFields[i].trim(), i);
+		}
+	}
+
+	/**
+	 * Evaluate CSV record.
+	 * 
+	 * @param line
+	 *            Raw CSV line.
+	 * @return Returns projected CSV record, or null if not matched.
+	 */
+	public String evaluateCsv(String line) {
+		String[] fields = parseCsv(line);
+		FieldAccessor accessor = name -> {
+			Integer i = nonNull(header) ? header.get(name) : null;
+			if (isNull(i) && name.startsWith("_")) {
+				try {
+					i = Integer.parseInt(name.substring(1)) - 1;
+				} catch (NumberFormatException e) {
+					return null;
+				}
+			}
+			return (nonNull(i) && i >= 0 && i < fields.length) ? fields[i] : null;
+		};
+		if (!matches(accessor)) {
+			return null;
+		}
+		if (isNull(projections)) {
+			return line;
+		}
+		StringBuilder record = new StringBuilder(line.length());
+		for (int i = 0; i < projections.size(); i++) {
+			if (i > 0) {
+				record.append(',');
+			}
+			appendCsv(record, accessor.get(projections.get(i)));
+		}
+		return record.toString();
+	}
+
+	/**
+	 * Evaluate JSON record.
+	 * 
+	 * @param node
+	 * @return Returns projected JSON record, or null if not matched.
+	 */
+	public String evaluateJson(JsonNode node) {
+		FieldAccessor accessor = name -> {
+			JsonNode value = node;
+			for (String part : name.split("\\.")) {
+				value = isNull(value) ? null : value.get(part);
+			}
+			if (isNull(value) || value.isNull()) {
+				return null;
+			}
+			return value.isValueNode() ? value.asText() : value.toString();
+		};
+		if (!matches(accessor)) {
+			return null;
+		}
+		if (isNull(projections)) {
+			return node.toString();
+		}
+		ObjectNode record = JsonNodeFactory.instance.objectNode();
+		for (String name : projections) {
+			JsonNode value = node;
+			for (String part : name.split("\\.")) {
+				value = isNull(value) ? null : value.get(part);
+			}
+			record.set(name.substring(name.lastIndexOf('.') + 1), isNull(value) ? JsonNodeFactory.instance.nullNode() : value);
+		}
+		return record.toString();
+	}
+
+	private boolean matches(FieldAccessor accessor) {
+		if (where.isEmpty()) {
+			return true;
+		}
+		for (List<Condition> and : where) {
+			boolean matched = true;
+			for (Condition cond : and) {
+				if (!cond.test(accessor)) {
+					matched = false;
+					break;
+				}
+			}
+			if (matched) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Selects the records of CSV or JSON(lines or documents) content while
+	 * scanning, only one record is held on the heap at a time.
+	 * 
+	 * @param input
+	 *            Object content, closed by the returned records.
+	 * @param type
+	 *            CSV or JSON
+	 * @param compressionType
+	 * @param recordDelimiter
+	 *            CSV record delimiter, defaults to line separator.
+	 * @param useFileHeaderInfo
+	 * @param sqlExpression
+	 * @return
+	 * @throws IOException
+	 */
+	public static SelectRecords select(InputStream input, String type, CompressionType compressionType,
+			Character recordDelimiter, Boolean useFileHeaderInfo, String sqlExpression) throws IOException {
+		try {
+			SimpleSelectQuery query = parse(sqlExpression);
+			InputStream in = input;
+			if (compressionType == CompressionType.GZIP) {
+				in = new GZIPInputStream(input, SelectRecords.DEFAULT_BUFFER_SIZE);
+			} else if (nonNull(compressionType) && compressionType != CompressionType.NONE) {
+				throw new UnsupportedOperationException(format("Unsupported select compression type '%s'", compressionType));
+			}
+			Reader reader = new InputStreamReader(in, UTF_8);
+
+			if ("CSV".equalsIgnoreCase(type)) {
+				SelectRecords lines = SelectRecords.of(reader, recordDelimiter);
+				if (Boolean.TRUE.equals(useFileHeaderInfo) && lines.hasNext()) {
+					query.setHeader(parseCsv(lines.next()));
+				}
+				return query.new LimitedRecords(lines) {
+					@Override
+					protected String evaluateNext() {
+						return lines.hasNext() ? orNotMatched(query.evaluateCsv(lines.next())) : null;
+					}
+				};
+			} else if ("JSON".equalsIgnoreCase(type)) {
+				MappingIterator<JsonNode> nodes = JSON_READER.readValues(new BufferedReader(reader, SelectRecords.DEFAULT_BUFFER_SIZE));
+				return query.new LimitedRecords(nodes) {
+					@Override
+					protected String evaluateNext() throws IOException {
+						return nodes.hasNextValue() ? orNotMatched(query.evaluateJson(nodes.nextValue())) : null;
+					}
+				};
+			}
+			throw new UnsupportedOperationException(format("Unsupported select type '%s'", type));
+		} catch (IOException | RuntimeException e) {
+			input.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Evaluated records with limit, the not matched records are
+	 * skipped.
+	 */
+	abstract class LimitedRecords extends SelectRecords {
+		final Closeable source;
+		long count;
+
+		LimitedRecords(Closeable source) {
+			this.source = source;
+		}
+
+		/**
+		 * Evaluate next source record.
+		 * 
+		 * @return Returns {@link #NOT_MATCHED} if not matched, or null if no more
+		 *         records.
+		 * @throws IOException
+		 */
+		protected abstract String evaluateNext() throws IOException;
+
+		@Override
+		protected String readNext() throws IOException {
+			while (limit < 0 || count < limit) {
+				String record = evaluateNext();
+				if (isNull(record)) {
+					return null;
+				} else if (record != NOT_MATCHED) {
+					++count;
+					return record;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public void close() throws IOException {
+			source.close();
+		}
+	}
+
+	private static String orNotMatched(String record) {
+		return isNull(record) ? NOT_MATCHED : record;
+	}
+
+	/**
+	 * Parse SQL expression.
+	 * 
+	 * @param sqlExpression
+	 * @return
+	 */
+	public static SimpleSelectQuery parse(String sqlExpression) {
+		hasTextOf(sqlExpression, "sqlExpression");
+		Tokenizer tokens = new Tokenizer(sqlExpression);
+		tokens.expectKeyword("SELECT");
+
+		// Projections.
+		List<String> projections = null;
+		List<String> rawProjections = new ArrayList<>(4);
+		if (tokens.peekIs("*")) {
+			tokens.next();
+		} else {
+			rawProjections.add(tokens.nextIdentifier());
+			while (tokens.peekIs(",")) {
+				tokens.next();
+				rawProjections.add(tokens.nextIdentifier());
+			}
+		}
+
+		// From and alias.
+		tokens.expectKeyword("FROM");
+		tokens.nextIdentifier(); // e.g S3Object
+		String alias = null;
+		if (tokens.hasNext() && !tokens.peekKeyword("WHERE") && !tokens.peekKeyword("LIMIT")) {
+			alias = tokens.nextIdentifier();
+		}
+		if (!rawProjections.isEmpty()) {
+			projections = new ArrayList<>(rawProjections.size());
+			for (String p : rawProjections) {
+				projections.add(stripAlias(p, alias));
+			}
+		}
+
+		// Where conditions.
+		List<List<Condition>> where = new ArrayList<>(2);
+		if (tokens.hasNext() && tokens.peekKeyword("WHERE")) {
+			tokens.next();
+			List<Condition> and = new ArrayList<>(4);
+			and.add(parseCondition(tokens, alias));
+			while (tokens.hasNext() && (tokens.peekKeyword("AND") || tokens.peekKeyword("OR"))) {
+				if (tokens.next().equalsIgnoreCase("OR")) {
+					where.add(and);
+					and = new ArrayList<>(4);
+				}
+				and.add(parseCondition(tokens, alias));
+			}
+			where.add(and);
+		}
+
+		long limit = -1;
+		if (tokens.hasNext() && tokens.peekKeyword("LIMIT")) {
+			tokens.next();
+			limit = Long.parseLong(tokens.next());
+		}
+		isTrue(!tokens.hasNext(), "Unsupported select expression near: '%s'", tokens.hasNext() ? tokens.peek() : "");
+		return new SimpleSelectQuery(projections, where, limit);
+	}
+
+	private static Condition parseCondition(Tokenizer tokens, String alias) {
+		Operand left = parseOperand(tokens, alias);
+		String op = tokens.next().toUpperCase(Locale.US);
+		isTrue(op.matches("=|!=|<>|<|<=|>|>=|LIKE"), "Unsupported operator: '%s'", op);
+		Operand right = parseOperand(tokens, alias);
+		return new Condition(left, op, right);
+	}
+
+	private static Operand parseOperand(Tokenizer tokens, String alias) {
+		String token = tokens.next();
+		if (token.startsWith("'")) {
+			return new Operand(null, token.substring(1, token.length() - 1).replace("''", "'"));
+		} else if (Character.isDigit(token.charAt(0)) || (token.length() > 1 && token.charAt(0) == '-')) {
+			return new Operand(null, token);
+		}
+		return new Operand(stripAlias(unquote(token), alias), null);
+	}
+
+	private static String stripAlias(String field, String alias) {
+		field = unquote(field);
+		if (nonNull(alias) && field.startsWith(alias + ".")) {
+			return unquote(field.substring(alias.length() + 1));
+		}
+		return field;
+	}
+
+	private static String unquote(String identifier) {
+		return (identifier.length() > 1 && identifier.startsWith("\"") && identifier.endsWith("\""))
+				? identifier.substring(1, identifier.length() - 1)
+				: identifier;
+	}
+
+	/**
+	 * Parse CSV line with quoted fields(RFC 4180).
+	 * 
+	 * @param line
+	 * @return
+	 */
+	static String[] parseCsv(String line) {
+		List<String> fields = new ArrayList<>(8);
+		StringBuilder field = new StringBuilder(32);
+		boolean quoted = false;
+		for (int i = 0, len = line.length(); i < len; i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"') {
+					if (i + 1 < len && line.charAt(i + 1) == '"') {
+						field.append('"');
+						++i;
+					} else {
+						quoted = false;
+					}
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields.toArray(new String[0]);
+	}
+
+	private static void appendCsv(StringBuilder record, String value) {
+		if (isNull(value)) {
+			return;
+		}
+		if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+			record.append('"').append(value.replace("\"", "\"\"")).append('"');
+		} else {
+			record.append(value);
+		}
+	}
+
+	@FunctionalInterface
+	static interface FieldAccessor {
+		String get(String name);
+	}
+
+	/**
+	 * Field reference or literal.
+	 */
+	static class Operand {
+		final String field;
+		final String literal;
+		final Double number;
+
+		Operand(String field, String literal) {
+			this.field = field;
+			this.literal = literal;
+			this.number = isNull(literal) ? null : parseNumber(literal);
+		}
+
+		String value(FieldAccessor accessor) {
+			return isNull(field) ? literal : accessor.get(field);
+		}
+	}
+
+	/**
+	 * Comparison condition.
+	 */
+	static class Condition {
+		final Operand left;
+		final String op;
+		final Operand right;
+		final Pattern likePattern;
+
+		Condition(Operand left, String op, Operand right) {
+			this.left = left;
+			this.op = op;
+			this.right = right;
+			this.likePattern = ("LIKE".equals(op) && nonNull(right.literal)) ? toLikePattern(right.literal) : null;
+		}
+
+		boolean test(FieldAccessor accessor) {
+			String l = left.value(accessor), r = right.value(accessor);
+			if (isNull(l) || isNull(r)) {
+				return false;
+			}
+			if ("LIKE".equals(op)) {
+				return (nonNull(likePattern) ? likePattern : toLikePattern(r)).matcher(l).matches();
+			}
+			int c;
+			Double ln = nonNull(left.number) ? left.number : parseNumber(l);
+			Double rn = nonNull(right.number) ? right.number : parseNumber(r);
+			if (nonNull(ln) && nonNull(rn)) {
+				c = Double.compare(ln, rn);
+			} else {
+				c = l.compareTo(r);
+			}
+			switch (op) {
+			case "=":
+				return c == 0;
+			case "!=":
+			case "<>":
+				return c != 0;
+			case "<":
+				return c < 0;
+			case "<=":
+				return c <= 0;
+			case ">":
+				return c > 0;
+			default: // >=
+				return c >= 0;
+			}
+		}
+
+		static Pattern toLikePattern(String like) {
+			StringBuilder regex = new StringBuilder(like.length() + 8);
+			for (char c : like.toCharArray()) {
+				if (c == '%') {
+					regex.append(".*");
+				} else if (c == '_') {
+					regex.append('.');
+				} else {
+					regex.append(Pattern.quote(String.valueOf(c)));
+				}
+			}
+			return Pattern.compile(regex.toString(), Pattern.DOTALL);
+		}
+	}
+
+	private static Double parseNumber(String s) {
+		if (s.isEmpty()) {
+			return null;
+		}
+		char c = s.charAt(0);
+		if (!(Character.isDigit(c) || c == '-' || c == '.')) {
+			return null;
+		}
+		try {
+			return Double.valueOf(s);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * SQL expression tokenizer.
+	 */
+	static class Tokenizer {
+		final List<String> tokens = new ArrayList<>(16);
+		int pos;
+
+		Tokenizer(String sql) {
+			for (int i = 0, len = sql.length(); i < len;) {
+				char c = sql.charAt(i);
+				if (Character.isWhitespace(c)) {
+					++i;
+				} else if (c == '\'') { // String literal, '' is escaped quote.
+					int j = i + 1;
+					while (j < len && (sql.charAt(j) != '\'' || (j + 1 < len && sql.charAt(j + 1) == '\''))) {
+						j += (sql.charAt(j) == '\'') ? 2 : 1;
+					}
+					isTrue(j < len, "Unclosed string literal of: %s", sql);
+					tokens.add(sql.substring(i, j + 1));
+					i = j + 1;
+				} else if (c == '"') { // Quoted identifier.
+					int j = sql.indexOf('"', i + 1);
+					isTrue(j > 0, "Unclosed quoted identifier of: %s", sql);
+					int k = j + 1;
+					while (k < len && isIdentifierPart(sql.charAt(k))) {
+						++k;
+					}
+					tokens.add(sql.substring(i, k));
+					i = k;
+				} else if ("<>!=".indexOf(c) >= 0) {
+					int j = i + 1;
+					if (j < len && "<>=".indexOf(sql.charAt(j)) >= 0) {
+						++j;
+					}
+					tokens.add(sql.substring(i, j));
+					i = j;
+				} else if (c == ',' || c == '*') {
+					tokens.add(String.valueOf(c));
+					++i;
+				} else {
+					isTrue(isIdentifierPart(c) || c == '-', "Unsupported character '%s' of: %s", c, sql);
+					int j = i + 1;
+					while (j < len && isIdentifierPart(sql.charAt(j))) {
+						++j;
+					}
+					tokens.add(sql.substring(i, j));
+					i = j;
+				}
+			}
+		}
+
+		boolean hasNext() {
+			return pos < tokens.size();
+		}
+
+		String peek() {
+			return tokens.get(pos);
+		}
+
+		boolean peekIs(String token) {
+			return hasNext() && peek().equals(token);
+		}
+
+		boolean peekKeyword(String keyword) {
+			return hasNext() && peek().equalsIgnoreCase(keyword);
+		}
+
+		String next() {
+			isTrue(hasNext(), "Incomplete select expression");
+			return tokens.get(pos++);
+		}
+
+		String nextIdentifier() {
+			String token = next();
+			isTrue(isIdentifierPart(token.charAt(0)) || token.charAt(0) == '"', "Expected identifier but '%s'", token);
+			return token;
+		}
+
+		void expectKeyword(String keyword) {
+			String token = next();
+			isTrue(token.equalsIgnoreCase(keyword), "Expected '%s' but '%s'", keyword, token);
+		}
+
+		static boolean isIdentifierPart(char c) {
+			return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '$' || c == '"';
+		}
+	}
+
+}
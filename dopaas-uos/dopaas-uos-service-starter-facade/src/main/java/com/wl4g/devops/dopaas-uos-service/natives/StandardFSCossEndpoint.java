@@ -16,7 +16,6 @@
 package com.wl4g.devops.uos.natives;
 
 import com.google.common.hash.HashCode;
-import com.wl4g.components.common.io.FileIOUtils;
 import com.wl4g.devops.uos.ServerCossEndpoint;
 import com.wl4g.devops.uos.common.exception.CossException;
 import com.wl4g.devops.uos.common.exception.ServerCossException;
@@ -25,6 +24,8 @@ import com.wl4g.devops.uos.common.model.bucket.BucketList;
 import com.wl4g.devops.uos.common.model.bucket.BucketMetadata;
 import com.wl4g.devops.uos.common.model.metadata.BucketStatusMetaData;
 import com.wl4g.devops.uos.config.StandardFSCossProperties;
+import com.wl4g.devops.uos.natives.MultipartUploadManager.CompletedUpload;
+import com.wl4g.devops.uos.natives.ObjectMetadataIndex.ListingEntry;
 import com.wl4g.devops.uos.common.model.ACL;
 import com.wl4g.devops.uos.common.model.AccessControlList;
 import com.wl4g.devops.uos.common.model.CopyObjectResult;
@@ -39,23 +40,42 @@ import com.wl4g.devops.uos.common.model.Owner;
 import com.wl4g.devops.uos.common.model.CossPutObjectResult;
 import com.wl4g.devops.uos.common.model.CossRestoreObjectRequest;
 import com.wl4g.devops.uos.common.model.CossRestoreObjectResult;
+import com.wl4g.devops.uos.common.model.InitiateMultipartUploadResult;
+import com.wl4g.devops.uos.common.model.PartETag;
+import com.wl4g.devops.uos.common.model.SelectRecords;
+
+import io.minio.messages.CompressionType;
+import io.minio.messages.JsonType;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.*;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.nio.file.attribute.PosixFilePermission;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
-import static com.google.common.hash.Hashing.md5;
 import static com.wl4g.components.common.io.FileDeletionUtils.deleteAnyone;
 import static com.wl4g.components.common.lang.Assert2.isTrue;
 import static com.wl4g.components.common.lang.Assert2.notNullOf;
@@ -63,7 +83,11 @@ import static com.wl4g.devops.uos.common.model.ACL.*;
 import static com.wl4g.devops.uos.common.model.metadata.ObjectsStatusMetaData.ObjectStatusMetaData;
 import static com.wl4g.devops.uos.natives.MetadataIndexManager.BUCKET_METADATA;
 import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.stream.Collectors.toList;
@@ -87,10 +111,16 @@ public abstract class StandardFSCossEndpoint<C extends StandardFSCossProperties>
 	 */
 private @Autowired  MetadataIndexManager metadataManager;
 
+	/**
+	 * Multipart uploads of {@link MultipartUploadManager}
+	 */
+	final protected MultipartUploadManager uploadManager;
+
 	public StandardFSCossEndpoint(C config, FileSystem standardFS) {
 		super(config);
 		notNullOf(standardFS, "standardFS");
 		this.standardFS = standardFS;
+		this.uploadManager = new MultipartUploadManager(config.getMultipartUploadsPath());
 	}
 
 	@Override
@@ -185,48 +215,151 @@ private @Autowired  MetadataIndexManager metadataManager;
 
 	@Override
 	public ObjectListing<ObjectSummary> listObjects(String bucketName, String prefix) {
+		return listObjects(bucketName, prefix, null, null);
+	}
 
+	/**
+	 * Lists one page of objects with S3-style marker, the objects are listed
+	 * from the ordered metadata index if the bucket is indexed, otherwise
+	 * selected from the lazily directory stream, so that the memory is O(page)
+	 * regardless of the number of objects.
+	 */
+	@Override
+	public ObjectListing<ObjectSummary> listObjects(String bucketName, String prefix, String marker, Integer maxKeys) {
+		prefix = isNull(prefix) ? "" : prefix;
 		// e.g abc/def/hh
 		int i = prefix.lastIndexOf("/");
 		String subPath = prefix.substring(0, i + 1);// e.g abc/def/
 		String search = prefix.substring(i + 1, prefix.length());// e.g hh
+		int limit = getPageMaxKeys(maxKeys);
 
 		ObjectListing<ObjectSummary> objectListing = new ObjectListing<>();
-		File path = new File(config.getEndpointRootDir() + File.separator + bucketName + File.separator + subPath);
+		File bucketPath = config.getBucketPath(bucketName);
+		File path = new File(bucketPath, subPath);
 
 		if (!path.exists()) {
 			return objectListing;
 		}
 		objectListing.setBucketName(bucketName);
 		objectListing.setPrefix(prefix);
+		objectListing.setMarker(marker);
+		objectListing.setMaxKeys(limit);
 
-		List<ObjectSummary> objectSummaries = asList(
-				path.listFiles(f -> !f.getName().startsWith(".") && f.getName().startsWith(search))).stream().map(f -> {
-					try {
-						ObjectSummary objectSummary = new ObjectSummary();
-						objectSummary.setBucketName(bucketName);
-						if (f.isDirectory()) {
-							objectSummary.setKey(f.getName() + File.separator);
-						} else {
-							objectSummary.setKey(f.getName());
-							objectSummary.setSize(Files.size(f.toPath()));
-						}
-						objectSummary.setMtime(f.lastModified());
-						objectSummary.setStorageType(kind().getValue());
-						String owner = Files.getOwner(f.toPath()).getName();
-						objectSummary.setOwner(new Owner(owner, owner));
-
-						return objectSummary;
-					} catch (Exception e) {
-						log.warn(format("Couldn't gets file attributes of '%s'", f), e);
-					}
-					return null;
-				}).filter(f -> !isNull(f)).collect(toList());
+		// Lists one more to check whether truncated.
+		List<ObjectSummary> objectSummaries = null;
+		try {
+			if (metadataManager.isIndexed(bucketPath.getAbsolutePath())) {
+				objectSummaries = listIndexedObjects(bucketName, bucketPath, subPath, prefix, marker, limit + 1);
+			} else {
+				objectSummaries = listDirectoryObjects(bucketName, path, subPath, search, marker, limit + 1);
+			}
+		} catch (IOException e) {
+			throw new ServerCossException(format("Couldn't list objects of '%s'", path), e);
+		}
 
+		boolean truncated = objectSummaries.size() > limit;
+		if (truncated) {
+			objectSummaries = objectSummaries.subList(0, limit);
+			objectListing.setNextMarker(subPath + objectSummaries.get(limit - 1).getKey());
+		}
+		objectListing.setTruncated(truncated);
 		objectListing.getObjectSummaries().addAll(objectSummaries);
 		return objectListing;
 	}
 
+	private List<ObjectSummary> listIndexedObjects(String bucketName, File bucketPath, String subPath, String prefix,
+			String marker, int maxKeys) throws IOException {
+		// The indexed objects are written by this endpoint, they have the
+		// same owner of bucket.
+		String owner = Files.getOwner(bucketPath.toPath()).getName();
+		List<ObjectSummary> objectSummaries = new ArrayList<>(maxKeys);
+		for (ListingEntry entry : metadataManager.listObjects(bucketPath.getAbsolutePath(), prefix, marker, maxKeys, "/")) {
+			ObjectSummary objectSummary = new ObjectSummary();
+			objectSummary.setBucketName(bucketName);
+			objectSummary.setKey(entry.getKey().substring(subPath.length()));
+			if (!entry.isCommonPrefix()) {
+				objectSummary.setSize(entry.getSize());
+				objectSummary.setMtime(entry.getMtime());
+			}
+			objectSummary.setStorageType(kind().getValue());
+			objectSummary.setOwner(new Owner(owner, owner));
+			objectSummaries.add(objectSummary);
+		}
+		return objectSummaries;
+	}
+
+	private List<ObjectSummary> listDirectoryObjects(String bucketName, File path, String subPath, String search,
+			String marker, int maxKeys) throws IOException {
+		String after = null;
+		if (!isNull(marker) && marker.startsWith(subPath)) {
+			after = marker.substring(subPath.length());
+			after = after.endsWith("/") ? after.substring(0, after.length() - 1) : after;
+		} else if (!isNull(marker) && marker.compareTo(subPath) > 0) {
+			return emptyList(); // Listing after all keys of sub path.
+		}
+
+		// Reads the attributes only of listed page, and the owners are cached.
+		Map<String, Owner> owners = new HashMap<>(4);
+		List<ObjectSummary> objectSummaries = new ArrayList<>(maxKeys);
+		for (String name : selectDirectoryPage(path.toPath(), search, after, maxKeys)) {
+			Path f = path.toPath().resolve(name);
+			try {
+				PosixFileAttributes attrs = Files.readAttributes(f, PosixFileAttributes.class);
+				ObjectSummary objectSummary = new ObjectSummary();
+				objectSummary.setBucketName(bucketName);
+				if (attrs.isDirectory()) {
+					objectSummary.setKey(name + "/");
+				} else {
+					objectSummary.setKey(name);
+					objectSummary.setSize(attrs.size());
+				}
+				objectSummary.setMtime(attrs.lastModifiedTime().toMillis());
+				objectSummary.setStorageType(kind().getValue());
+				objectSummary.setOwner(owners.computeIfAbsent(attrs.owner().getName(), o -> new Owner(o, o)));
+				objectSummaries.add(objectSummary);
+			} catch (Exception e) {
+				log.warn(format("Couldn't gets file attributes of '%s'", f), e);
+			}
+		}
+		return objectSummaries;
+	}
+
+	/**
+	 * Selects the smallest names after marker(exclusive) of directory in one
+	 * pass of lazily {@link DirectoryStream} with a bounded max-heap, so that
+	 * only O(maxKeys) names are retained.
+	 * 
+	 * @param dir
+	 * @param search
+	 *            The prefix returned name must have.
+	 * @param after
+	 * @param maxKeys
+	 * @return Ordered names.
+	 * @throws IOException
+	 */
+	static List<String> selectDirectoryPage(Path dir, String search, String after, int maxKeys) throws IOException {
+		PriorityQueue<String> heap = new PriorityQueue<>(maxKeys + 1, Comparator.reverseOrder());
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+			for (Path p : stream) {
+				String name = p.getFileName().toString();
+				if (name.startsWith(".") || !name.startsWith(search) || (!isNull(after) && name.compareTo(after) <= 0)) {
+					continue;
+				}
+				if (heap.size() < maxKeys) {
+					heap.offer(name);
+				} else if (name.compareTo(heap.peek()) < 0) {
+					heap.poll();
+					heap.offer(name);
+				}
+			}
+		}
+		String[] names = new String[heap.size()];
+		for (int i = names.length - 1; i >= 0; i--) {
+			names[i] = heap.poll();
+		}
+		return asList(names);
+	}
+
 	@Override
 	public ObjectValue getObject(String bucketName, String key) {
 		File objectPath = config.getObjectPath(bucketName, key);
@@ -252,8 +385,9 @@ private @Autowired  MetadataIndexManager metadataManager;
 			BeanUtils.copyProperties(objectStatusMetaData, objectMetadata);
 		}
 		try {
-			objectMetadata.setContentLength(Files.size(objectPath.toPath()));
-			objectMetadata.setMtime(Files.getLastModifiedTime(objectPath.toPath()).toMillis());
+			BasicFileAttributes attrs = Files.readAttributes(objectPath.toPath(), BasicFileAttributes.class);
+			objectMetadata.setContentLength(attrs.size());
+			objectMetadata.setMtime(attrs.lastModifiedTime().toMillis());
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
@@ -269,21 +403,99 @@ private @Autowired  MetadataIndexManager metadataManager;
 		File objectPath = config.getObjectPath(bucketName, key);
 		File bucketPath = config.getBucketPath(bucketName);
 		try {
-			FileIOUtils.copyInputStreamToFile(input, objectPath);
+			// Hashing while transferring, the object content is never
+			// buffered entirely on the heap.
+			String etag = transferToFile(input, objectPath);
 			setObjectAcl(bucketName, key, nonNull(metadata) ? metadata.getAcl() : null);
 			ObjectStatusMetaData objectStatusMetaData = new ObjectStatusMetaData();
 			if (nonNull(metadata)) {
 				BeanUtils.copyProperties(metadata, objectStatusMetaData);
 			}
-			HashCode hashCode = md5().hashBytes(Files.readAllBytes(objectPath.toPath()));
-			objectStatusMetaData.setEtag(hashCode.toString());
+			objectStatusMetaData.setEtag(etag);
+			objectStatusMetaData.setContentLength(Files.size(objectPath.toPath()));
 			metadataManager.addObject(bucketPath.getAbsolutePath(), objectPath, objectStatusMetaData);
+
+			CossPutObjectResult result = new CossPutObjectResult();
+			result.setETag(etag);
+			return result;
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 		return null;
 	}
 
+	@Override
+	public InitiateMultipartUploadResult initiateMultipartUpload(String bucketName, String key, ObjectMetadata metadata) {
+		isTrue(config.getBucketPath(bucketName).exists(), ServerCossException.class, "No such bucket '%s'", bucketName);
+		long contentLength = nonNull(metadata) ? metadata.getContentLength() : 0;
+		ACL acl = nonNull(metadata) ? metadata.getAcl() : null;
+		long partSize = getPartSize(contentLength);
+		try {
+			InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+			result.setBucketName(bucketName);
+			result.setKey(key);
+			result.setUploadId(uploadManager.initiate(bucketName, key, contentLength, partSize,
+					nonNull(acl) ? acl.name() : null));
+			result.setPartSize(partSize);
+			return result;
+		} catch (IOException e) {
+			throw new ServerCossException(format("Couldn't initiate multipart upload of '%s/%s'", bucketName, key), e);
+		}
+	}
+
+	@Override
+	public PartETag uploadPart(String bucketName, String key, String uploadId, int partNumber, InputStream input,
+			long partSize) {
+		try {
+			return uploadManager.uploadPart(bucketName, key, uploadId, partNumber, input, partSize);
+		} catch (IOException e) {
+			throw new ServerCossException(format("Couldn't upload part %s of '%s'", partNumber, uploadId), e);
+		}
+	}
+
+	@Override
+	public List<PartETag> listParts(String bucketName, String key, String uploadId) {
+		try {
+			return uploadManager.listParts(bucketName, key, uploadId);
+		} catch (IOException e) {
+			throw new ServerCossException(format("Couldn't list parts of '%s'", uploadId), e);
+		}
+	}
+
+	@Override
+	public CossPutObjectResult completeMultipartUpload(String bucketName, String key, String uploadId,
+			List<PartETag> partETags) {
+		File objectPath = config.getObjectPath(bucketName, key);
+		File bucketPath = config.getBucketPath(bucketName);
+		try {
+			CompletedUpload completed = uploadManager.complete(bucketName, key, uploadId, partETags, objectPath);
+			ACL acl = nonNull(completed.getAcl()) ? ACL.parse(completed.getAcl()) : null;
+			setObjectAcl(bucketName, key, acl);
+			ObjectStatusMetaData objectStatusMetaData = new ObjectStatusMetaData();
+			objectStatusMetaData.setAcl(acl);
+			objectStatusMetaData.setEtag(completed.getEtag());
+			objectStatusMetaData.setContentLength(completed.getContentLength());
+			metadataManager.addObject(bucketPath.getAbsolutePath(), objectPath, objectStatusMetaData);
+
+			CossPutObjectResult result = new CossPutObjectResult();
+			result.setETag(completed.getEtag());
+			return result;
+		} catch (ServerCossException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ServerCossException(format("Couldn't complete multipart upload '%s'", uploadId), e);
+		}
+	}
+
+	@Override
+	public void abortMultipartUpload(String bucketName, String key, String uploadId) {
+		try {
+			uploadManager.abort(bucketName, key, uploadId);
+		} catch (IOException e) {
+			throw new ServerCossException(format("Couldn't abort multipart upload '%s'", uploadId), e);
+		}
+	}
+
 	public CossPutObjectResult putObjectMetaData(String bucketName, String key, ObjectMetadata metadata) {
 		File objectPath = config.getObjectPath(bucketName, key);
 		try {
@@ -291,7 +503,7 @@ private @Autowired  MetadataIndexManager metadataManager;
 			if (nonNull(metadata)) {
 				BeanUtils.copyProperties(metadata, objectStatusMetaData);
 			}
-			metadataManager.modifyObject(objectPath, objectStatusMetaData);
+			metadataManager.modifyObject(config.getBucketPath(bucketName).getAbsolutePath(), objectPath, objectStatusMetaData);
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -450,11 +662,58 @@ private @Autowired  MetadataIndexManager metadataManager;
 		return null;
 	}
 
+	/**
+	 * Selects the records by {@link SimpleSelectQuery} while scanning the
+	 * object file, so the large objects(e.g. logs) are never loaded into the
+	 * heap.
+	 */
+	@Override
+	public SelectRecords selectObjectRecords(String bucket, String key, String type, CompressionType compressionType,
+			JsonType jsonType, Character recordDelimiter, Boolean useFileHeaderInfo, String sqlExpression) {
+		File objectPath = config.getObjectPath(bucket, key);
+		try {
+			return SimpleSelectQuery.select(new FileInputStream(objectPath), type, compressionType, recordDelimiter,
+					useFileHeaderInfo, sqlExpression);
+		} catch (IOException e) {
+			throw new ServerCossException(format("Couldn't select object '%s'", objectPath), e);
+		}
+	}
+
 	@Override
 	public URL getUrl(String bucketName, String key) throws CossException, ServerCossException {
 		return null;
 	}
 
+	/**
+	 * Transfer the input stream to file by {@link FileChannel} and computes the
+	 * MD5 by {@link DigestInputStream} in the single pass.
+	 * 
+	 * @param input
+	 * @param objectPath
+	 * @return hex of MD5
+	 * @throws IOException
+	 */
+	static String transferToFile(InputStream input, File objectPath) throws IOException {
+		if (!objectPath.getParentFile().exists()) {
+			objectPath.getParentFile().mkdirs();
+		}
+		MessageDigest md5;
+		try {
+			md5 = MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		try (DigestInputStream digestInput = new DigestInputStream(input, md5);
+				ReadableByteChannel source = Channels.newChannel(digestInput);
+				FileChannel target = FileChannel.open(objectPath.toPath(), CREATE, WRITE, TRUNCATE_EXISTING)) {
+			long position = 0, transferred;
+			while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0) {
+				position += transferred;
+			}
+		}
+		return HashCode.fromBytes(md5.digest()).toString();
+	}
+
 	private static Set<PosixFilePermission> getAclPosixPermissions(ACL acl) {
 		// using PosixFilePermission to set file permissions
 		Set<PosixFilePermission> perms = new HashSet<PosixFilePermission>();
@@ -514,4 +773,7 @@ private @Autowired  MetadataIndexManager metadataManager;
 		}
 	}
 
+	/** Max bytes of each channel transfer. */
+	private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
 }
\ No newline at end of file
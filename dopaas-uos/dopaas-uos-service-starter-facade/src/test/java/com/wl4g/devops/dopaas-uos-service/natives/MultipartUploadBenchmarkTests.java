@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.wl4g.devops.uos.ServerCossEndpoint;
+import com.wl4g.devops.uos.common.model.PartETag;
+
+/**
+ * Throughput of multipart uploading a large object (10GB by default) into the
+ * preallocated sparse file of {@link MultipartUploadManager} at different
+ * levels of parallelism, and resuming an upload with failed parts. Usage:
+ * MultipartUploadBenchmarkTests [sizeMB] [rootDir]
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:51:00
+ */
+public class MultipartUploadBenchmarkTests {
+
+	final static int[] PARALLELISMS = { 1, 2, 4, 8 };
+
+	public static void main(String[] args) throws Exception {
+		long contentLength = (args.length > 0 ? Long.parseLong(args[0]) : 10240L) * 1024 * 1024;
+		File rootDir = args.length > 1 ? new File(args[1]) : Files.createTempDirectory("uos-multipart-bench-").toFile();
+		MultipartUploadManager manager = new MultipartUploadManager(new File(rootDir, ".uploads"));
+		long partSize = ServerCossEndpoint.getPartSize(contentLength);
+		int parts = (int) ((contentLength + partSize - 1) / partSize);
+		System.out.println(String.format("Content length: %sMB, part size: %sMB, parts: %s", contentLength / 1024 / 1024,
+				partSize / 1024 / 1024, parts));
+
+		for (int parallelism : PARALLELISMS) {
+			File objectPath = new File(rootDir, "bucket1/artifacts/app-" + parallelism + ".tar");
+			String uploadId = manager.initiate("bucket1", "artifacts/app.tar", contentLength, partSize, null);
+			long begin = System.nanoTime();
+			List<PartETag> partETags = uploadParts(manager, uploadId, contentLength, partSize, parallelism, -1);
+			manager.complete("bucket1", "artifacts/app.tar", uploadId, partETags, objectPath);
+			long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+			System.out.println(String.format("Parallelism: %s, cost: %sms, throughput: %sMB/s", parallelism, costMs,
+					contentLength / 1024 / 1024 * 1000 / costMs));
+			if (objectPath.length() != contentLength) {
+				throw new IllegalStateException(String.format("Expected length: %s, actual: %s", contentLength,
+						objectPath.length()));
+			}
+			objectPath.delete();
+		}
+
+		// Resuming, the failed parts are re-uploaded by listing the written
+		// parts.
+		File objectPath = new File(rootDir, "bucket1/artifacts/app-resumed.tar");
+		String uploadId = manager.initiate("bucket1", "artifacts/app.tar", contentLength, partSize, null);
+		try {
+			uploadParts(manager, uploadId, contentLength, partSize, 4, parts / 2);
+		} catch (Exception e) {
+			System.out.println("Failed uploading, cause by: " + e.getCause());
+		}
+		List<PartETag> written = manager.listParts("bucket1", "artifacts/app.tar", uploadId);
+		long begin = System.nanoTime();
+		List<PartETag> partETags = new ArrayList<>(parts);
+		for (int i = 0, j = 0; i < parts; i++) {
+			if (j < written.size() && written.get(j).getPartNumber() == i + 1) {
+				partETags.add(written.get(j++));
+			} else {
+				long size = Math.min(partSize, contentLength - i * partSize);
+				partETags.add(manager.uploadPart("bucket1", "artifacts/app.tar", uploadId, i + 1, new SyntheticInputStream(
+						size, i), size));
+			}
+		}
+		manager.complete("bucket1", "artifacts/app.tar", uploadId, partETags, objectPath);
+		System.out.println(String.format("Resumed written parts: %s/%s, cost: %sms, length: %s", written.size(), parts,
+				(System.nanoTime() - begin) / 1000_000, objectPath.length()));
+		objectPath.delete();
+	}
+
+	private static List<PartETag> uploadParts(MultipartUploadManager manager, String uploadId, long contentLength,
+			long partSize, int parallelism, int failedPart) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			List<Future<PartETag>> futures = new ArrayList<>();
+			for (long position = 0; position < contentLength; position += partSize) {
+				int partNumber = (int) (position / partSize) + 1;
+				long size = Math.min(partSize, contentLength - position);
+				futures.add(executor.submit(() -> {
+					if (partNumber == failedPart) {
+						throw new IOException("Mock network failure of part " + partNumber);
+					}
+					return manager.uploadPart("bucket1", "artifacts/app.tar", uploadId, partNumber,
+							new SyntheticInputStream(size, partNumber), size);
+				}));
+			}
+			List<PartETag> partETags = new ArrayList<>(futures.size());
+			for (Future<PartETag> future : futures) {
+				partETags.add(future.get());
+			}
+			return partETags;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Synthetic part content of the random block, so that the source is not
+	 * the bottleneck.
+	 */
+	static class SyntheticInputStream extends InputStream {
+		final static byte[] BLOCK = new byte[1024 * 1024];
+		static {
+			new Random(0).nextBytes(BLOCK);
+		}
+
+		private long remaining;
+		private int offset;
+
+		SyntheticInputStream(long size, int seed) {
+			this.remaining = size;
+			this.offset = seed % BLOCK.length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) < 0 ? -1 : (b[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int n = (int) Math.min(Math.min(len, remaining), BLOCK.length - offset);
+			System.arraycopy(BLOCK, offset, b, off, n);
+			offset = (offset + n) % BLOCK.length;
+			remaining -= n;
+			return n;
+		}
+	}
+
+}
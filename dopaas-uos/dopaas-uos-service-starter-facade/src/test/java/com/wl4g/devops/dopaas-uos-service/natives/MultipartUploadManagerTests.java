@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.wl4g.devops.uos.common.exception.ServerCossException;
+import com.wl4g.devops.uos.common.model.PartETag;
+import com.wl4g.devops.uos.natives.MultipartUploadManager.CompletedUpload;
+
+/**
+ * Correctness of {@link MultipartUploadManager}, the parts written out of
+ * order, the missing or mismatched parts, and the completing after aborted.
+ *
+ * @author agent <agent@local>
+ * @date 2026-10-17 15:40:00
+ */
+public class MultipartUploadManagerTests {
+
+	final static long PART_SIZE = 1024;
+
+	private File rootDir;
+	private MultipartUploadManager manager;
+
+	@Before
+	public void setUp() throws IOException {
+		rootDir = Files.createTempDirectory("uos-multipart-").toFile();
+		manager = new MultipartUploadManager(new File(rootDir, ".uploads"));
+	}
+
+	@Test
+	public void outOfOrderPartsTest() throws Exception {
+		byte[] content = newContent(PART_SIZE * 4 + 100);
+		String uploadId = manager.initiate("bucket1", "a/b.bin", content.length, PART_SIZE, "PublicRead");
+
+		// Parts are written concurrently in reverse order.
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		List<PartETag> parts = new ArrayList<>();
+		try {
+			List<Future<PartETag>> futures = new ArrayList<>();
+			for (int partNumber = 5; partNumber >= 1; partNumber--) {
+				int n = partNumber;
+				futures.add(executor.submit(() -> uploadPart("bucket1", "a/b.bin", uploadId, n, content)));
+			}
+			for (Future<PartETag> f : futures) {
+				parts.add(f.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		List<PartETag> listed = manager.listParts("bucket1", "a/b.bin", uploadId);
+		assertEquals(5, listed.size());
+		for (int i = 0; i < listed.size(); i++) {
+			assertEquals(i + 1, listed.get(i).getPartNumber());
+		}
+
+		// The part list of completing is in any order.
+		Collections.shuffle(parts, new Random(1));
+		File objectPath = new File(rootDir, "bucket1/a/b.bin");
+		CompletedUpload completed = manager.complete("bucket1", "a/b.bin", uploadId, parts, objectPath);
+		assertArrayEquals(content, Files.readAllBytes(objectPath.toPath()));
+		assertEquals(content.length, completed.getContentLength());
+		assertTrue(completed.getEtag(), completed.getEtag().matches("[0-9a-f]{32}-5"));
+		assertEquals("PublicRead", completed.getAcl());
+		assertFalse(new File(rootDir, ".uploads/" + uploadId).exists());
+	}
+
+	@Test
+	public void outOfOrderPartsUnknownLengthTest() throws Exception {
+		// The data file is not preallocated, the later part is written beyond
+		// the size of file.
+		byte[] content = newContent(PART_SIZE * 2 + 10);
+		String uploadId = manager.initiate("bucket1", "c.bin", 0, PART_SIZE, null);
+		List<PartETag> parts = new ArrayList<>();
+		parts.add(uploadPart("bucket1", "c.bin", uploadId, 3, content));
+		parts.add(uploadPart("bucket1", "c.bin", uploadId, 1, content));
+		parts.add(uploadPart("bucket1", "c.bin", uploadId, 2, content));
+
+		File objectPath = new File(rootDir, "bucket1/c.bin");
+		CompletedUpload completed = manager.complete("bucket1", "c.bin", uploadId, parts, objectPath);
+		assertArrayEquals(content, Files.readAllBytes(objectPath.toPath()));
+		assertEquals(content.length, completed.getContentLength());
+	}
+
+	@Test
+	public void missingPartTest() throws Exception {
+		byte[] content = newContent(PART_SIZE * 3);
+		String uploadId = manager.initiate("bucket1", "d.bin", content.length, PART_SIZE, null);
+		PartETag part1 = uploadPart("bucket1", "d.bin", uploadId, 1, content);
+		PartETag part3 = uploadPart("bucket1", "d.bin", uploadId, 3, content);
+		File objectPath = new File(rootDir, "bucket1/d.bin");
+
+		// Missing part 2.
+		assertCompleteFailed(uploadId, Arrays.asList(part1, part3), objectPath, "Missing part 2");
+		// Part 2 is listed but not uploaded.
+		assertCompleteFailed(uploadId, Arrays.asList(part1, new PartETag(2, part1.getETag(), PART_SIZE), part3), objectPath,
+				"Invalid part 2");
+		// Shorter than the content length.
+		assertCompleteFailed(uploadId, Arrays.asList(part1), objectPath, "is not the content length");
+		assertFalse(objectPath.exists());
+
+		// The upload is still resumable.
+		PartETag part2 = uploadPart("bucket1", "d.bin", uploadId, 2, content);
+		manager.complete("bucket1", "d.bin", uploadId, Arrays.asList(part1, part2, part3), objectPath);
+		assertArrayEquals(content, Files.readAllBytes(objectPath.toPath()));
+	}
+
+	@Test
+	public void completeAfterAbortTest() throws Exception {
+		byte[] content = newContent(PART_SIZE);
+		String uploadId = manager.initiate("bucket1", "e.bin", content.length, PART_SIZE, null);
+		PartETag part1 = uploadPart("bucket1", "e.bin", uploadId, 1, content);
+		manager.abort("bucket1", "e.bin", uploadId);
+		assertFalse(new File(rootDir, ".uploads/" + uploadId).exists());
+
+		File objectPath = new File(rootDir, "bucket1/e.bin");
+		try {
+			manager.complete("bucket1", "e.bin", uploadId, Arrays.asList(part1), objectPath);
+			fail("Aborted upload must not be completed");
+		} catch (ServerCossException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("No such multipart upload"));
+		}
+		try {
+			uploadPart("bucket1", "e.bin", uploadId, 1, content);
+			fail("Aborted upload must not be written");
+		} catch (ServerCossException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("No such multipart upload"));
+		}
+		assertFalse(objectPath.exists());
+	}
+
+	@Test
+	public void resumeAfterRestartTest() throws Exception {
+		byte[] content = newContent(PART_SIZE * 2);
+		String uploadId = manager.initiate("bucket1", "f.bin", content.length, PART_SIZE, null);
+		PartETag part2 = uploadPart("bucket1", "f.bin", uploadId, 2, content);
+
+		// Loaded from the uploads directory.
+		manager = new MultipartUploadManager(new File(rootDir, ".uploads"));
+		assertEquals(Arrays.asList(2), partNumbers(manager.listParts("bucket1", "f.bin", uploadId)));
+		try {
+			manager.listParts("bucket1", "other.bin", uploadId);
+			fail("Upload of other object must be rejected");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		PartETag part1 = uploadPart("bucket1", "f.bin", uploadId, 1, content);
+		File objectPath = new File(rootDir, "bucket1/f.bin");
+		manager.complete("bucket1", "f.bin", uploadId, Arrays.asList(part1, part2), objectPath);
+		assertArrayEquals(content, Files.readAllBytes(objectPath.toPath()));
+	}
+
+	private PartETag uploadPart(String bucketName, String key, String uploadId, int partNumber, byte[] content)
+			throws IOException {
+		int offset = (int) ((partNumber - 1) * PART_SIZE);
+		int size = (int) Math.min(PART_SIZE, content.length - offset);
+		return manager.uploadPart(bucketName, key, uploadId, partNumber, new ByteArrayInputStream(content, offset, size),
+				size);
+	}
+
+	private void assertCompleteFailed(String uploadId, List<PartETag> parts, File objectPath, String message)
+			throws IOException {
+		try {
+			manager.complete("bucket1", "d.bin", uploadId, parts, objectPath);
+			fail("Complete must be failed: " + message);
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(message));
+		}
+	}
+
+	private static List<Integer> partNumbers(List<PartETag> parts) {
+		List<Integer> numbers = new ArrayList<>();
+		for (PartETag part : parts) {
+			numbers.add(part.getPartNumber());
+		}
+		return numbers;
+	}
+
+	private static byte[] newContent(long length) {
+		byte[] content = new byte[(int) length];
+		new Random(length).nextBytes(content);
+		return content;
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import static com.wl4g.devops.uos.common.model.metadata.ObjectsStatusMetaData.ObjectStatusMetaData;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.wl4g.devops.uos.natives.ObjectMetadataIndex.ListingEntry;
+
+/**
+ * Pages through a million-entry bucket with continuation markers, and reports
+ * the used heap of each page, which should be flat(O(page)) regardless of the
+ * number of objects. Usage: ObjectListingBenchmarkTests [objects] [files]
+ * [rootDir]
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:35:00
+ */
+public class ObjectListingBenchmarkTests {
+
+	final static int MAX_KEYS = 1000;
+
+	public static void main(String[] args) throws Exception {
+		int objects = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		int files = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+		File root = args.length > 2 ? new File(args[2]) : Files.createTempDirectory("uos-listing-bench-").toFile();
+		File bucket = new File(root, "bucket1");
+		bucket.mkdirs();
+
+		// Indexed objects, one flat directory and 1000 sub directories.
+		MetadataIndexManager manager = new MetadataIndexManager();
+		for (int i = 0; i < objects; i++) {
+			ObjectStatusMetaData metadata = new ObjectStatusMetaData();
+			metadata.setContentLength(512);
+			String key = (i % 2 == 0) ? String.format("flat/object%07d", i) : String.format("dir%03d/object%07d", i % 1000, i);
+			manager.addObject(bucket.getAbsolutePath(), new File(bucket, key), metadata);
+		}
+
+		// Pages of flat directory.
+		long begin = System.nanoTime(), maxUsedHeap = 0, minUsedHeap = Long.MAX_VALUE;
+		int pages = 0, listed = 0;
+		String marker = null;
+		do {
+			List<ListingEntry> page = manager.listObjects(bucket.getAbsolutePath(), "flat/", marker, MAX_KEYS + 1, "/");
+			marker = page.size() > MAX_KEYS ? page.get(MAX_KEYS - 1).getKey() : null;
+			listed += Math.min(page.size(), MAX_KEYS);
+			if (++pages % 100 == 0) {
+				long used = usedHeap();
+				maxUsedHeap = Math.max(maxUsedHeap, used);
+				minUsedHeap = Math.min(minUsedHeap, used);
+			}
+		} while (marker != null);
+		System.out.println(String.format("Indexed pages: %s, objects: %s, cost: %sms, used heap min: %sKB, max: %sKB", pages,
+				listed, (System.nanoTime() - begin) / 1000_000, minUsedHeap / 1024, maxUsedHeap / 1024));
+
+		// Common prefixes of the bucket root, the 500k objects of sub
+		// directories are skipped by seeking.
+		begin = System.nanoTime();
+		List<ListingEntry> prefixes = manager.listObjects(bucket.getAbsolutePath(), "", null, MAX_KEYS + 1, "/");
+		System.out.println(String.format("Indexed common prefixes: %s, cost: %sus", prefixes.size(),
+				(System.nanoTime() - begin) / 1000));
+		manager.close();
+
+		// Pages of not indexed directory stream.
+		File dir = new File(root, "bucket2");
+		dir.mkdirs();
+		for (int i = 0; i < files; i++) {
+			new File(dir, String.format("file%07d", i)).createNewFile();
+		}
+		begin = System.nanoTime();
+		maxUsedHeap = 0;
+		minUsedHeap = Long.MAX_VALUE;
+		pages = 0;
+		listed = 0;
+		String after = null;
+		do {
+			List<String> page = StandardFSCossEndpoint.selectDirectoryPage(dir.toPath(), "", after, MAX_KEYS + 1);
+			after = page.size() > MAX_KEYS ? page.get(MAX_KEYS - 1) : null;
+			listed += Math.min(page.size(), MAX_KEYS);
+			if (++pages % 10 == 0) {
+				long used = usedHeap();
+				maxUsedHeap = Math.max(maxUsedHeap, used);
+				minUsedHeap = Math.min(minUsedHeap, used);
+			}
+		} while (after != null);
+		System.out.println(String.format("Directory pages: %s, files: %s, cost: %sms, used heap min: %sKB, max: %sKB", pages,
+				listed, (System.nanoTime() - begin) / 1000_000, minUsedHeap / 1024, maxUsedHeap / 1024));
+	}
+
+	private static long usedHeap() {
+		System.gc();
+		return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+	}
+
+}
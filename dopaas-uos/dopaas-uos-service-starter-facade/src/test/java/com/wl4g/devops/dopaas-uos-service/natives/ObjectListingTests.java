@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.wl4g.devops.uos.common.model.ObjectListing;
+import com.wl4g.devops.uos.common.model.ObjectSummary;
+import com.wl4g.devops.uos.config.NativeFSCossProperties;
+
+/**
+ * Correctness of the paginated listing of {@link StandardFSCossEndpoint}, with
+ * the continuation markers and the "/" delimiter, on both the indexed buckets
+ * and the directory(not indexed) buckets.
+ *
+ * @author agent <agent@local>
+ * @date 2026-10-17 14:30:00
+ */
+public class ObjectListingTests {
+
+	final static List<String> KEYS = asList("a.txt", "b.txt", "c.txt", "dir1/x.txt", "dir1/y.txt", "dir1/sub/z.txt",
+			"dir1-a.txt", "dir2/z.txt");
+
+	private MetadataIndexManager metadataManager;
+	private NativeFSCossEndpoint endpoint;
+	private File rootDir;
+
+	@Before
+	public void setUp() throws Exception {
+		rootDir = Files.createTempDirectory("uos-listing-").toFile();
+		NativeFSCossProperties config = new NativeFSCossProperties();
+		config.setEndpointRootDir(rootDir);
+		endpoint = new NativeFSCossEndpoint(config);
+		metadataManager = new MetadataIndexManager();
+		Field field = StandardFSCossEndpoint.class.getDeclaredField("metadataManager");
+		field.setAccessible(true);
+		field.set(endpoint, metadataManager);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		metadataManager.close();
+	}
+
+	@Test
+	public void listIndexedPagesTest() {
+		endpoint.createBucket("bucket1");
+		for (String key : KEYS) {
+			endpoint.putObject("bucket1", key, new ByteArrayInputStream(key.getBytes(UTF_8)), null);
+		}
+		assertTrue(metadataManager.isIndexed(new File(rootDir, "bucket1").getAbsolutePath()));
+
+		// Ordered by the whole key, i.e. '-' is before '/'.
+		assertPages("bucket1", asList("a.txt", "b.txt", "c.txt", "dir1-a.txt", "dir1/", "dir2/"));
+		assertEquals(asList("dir2/"), keys(endpoint.listObjects("bucket1", "", "dir1/", 10)));
+	}
+
+	@Test
+	public void listDirectoryPagesTest() throws IOException {
+		File bucket = new File(rootDir, "bucket2");
+		for (String key : KEYS) {
+			File file = new File(bucket, key);
+			file.getParentFile().mkdirs();
+			Files.write(file.toPath(), key.getBytes(UTF_8));
+		}
+		assertFalse(metadataManager.isIndexed(bucket.getAbsolutePath()));
+
+		// Ordered by the names of directory entries.
+		assertPages("bucket2", asList("a.txt", "b.txt", "c.txt", "dir1/", "dir1-a.txt", "dir2/"));
+		assertEquals(asList("dir1-a.txt", "dir2/"), keys(endpoint.listObjects("bucket2", "", "dir1/", 10)));
+	}
+
+	@Test
+	public void listEmptyTest() {
+		endpoint.createBucket("bucket3");
+		ObjectListing<ObjectSummary> listing = endpoint.listObjects("bucket3", "", null, 10);
+		assertTrue(listing.getObjectSummaries().isEmpty());
+		assertFalse(listing.isTruncated());
+		assertNull(listing.getNextMarker());
+
+		// No such sub directory.
+		listing = endpoint.listObjects("bucket3", "nonexistent/", null, 10);
+		assertTrue(listing.getObjectSummaries().isEmpty());
+	}
+
+	private void assertPages(String bucketName, List<String> expected) {
+		// The keys under "/" are rolled up, pages are split at the common
+		// prefix too.
+		assertEquals(expected, listAll(bucketName, "", 2, 3));
+		assertEquals(expected, listAll(bucketName, "", 5, 2));
+		assertEquals(expected, listAll(bucketName, "", 100, 1));
+
+		// Listing of sub directory, the keys are relative to it.
+		assertEquals(asList("sub/", "x.txt", "y.txt"), listAll(bucketName, "dir1/", 1, 3));
+
+		// Prefix of names in directory.
+		assertEquals(expected.subList(3, 6), listAll(bucketName, "dir", 1, 3));
+
+		// Resume from the marker of an object.
+		assertEquals(expected.subList(2, 6), keys(endpoint.listObjects(bucketName, "", "b.txt", 10)));
+		assertEquals(asList("y.txt"), keys(endpoint.listObjects(bucketName, "dir1/", "dir1/x.txt", 10)));
+
+		// Marker after all keys.
+		ObjectListing<ObjectSummary> listing = endpoint.listObjects(bucketName, "", "zzz", 10);
+		assertTrue(listing.getObjectSummaries().isEmpty());
+		assertFalse(listing.isTruncated());
+	}
+
+	/**
+	 * Lists all pages by following the next markers.
+	 */
+	private List<String> listAll(String bucketName, String prefix, int maxKeys, int expectedPages) {
+		List<String> keys = new ArrayList<>();
+		String marker = null;
+		int pages = 0;
+		ObjectListing<ObjectSummary> listing;
+		do {
+			listing = endpoint.listObjects(bucketName, prefix, marker, maxKeys);
+			assertTrue(listing.getObjectSummaries().size() <= maxKeys);
+			assertEquals(maxKeys, listing.getMaxKeys());
+			keys.addAll(keys(listing));
+			marker = listing.getNextMarker();
+			++pages;
+		} while (listing.isTruncated() && pages <= KEYS.size());
+		assertEquals(expectedPages, pages);
+		return keys;
+	}
+
+	private static List<String> keys(ObjectListing<ObjectSummary> listing) {
+		List<String> keys = new ArrayList<>();
+		for (ObjectSummary summary : listing.getObjectSummaries()) {
+			keys.add(summary.getKey());
+		}
+		return keys;
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import static com.wl4g.devops.uos.common.model.metadata.ObjectsStatusMetaData.ObjectStatusMetaData;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Puts and lookups a million small objects with {@link MetadataIndexManager}.
+ * Usage: ObjectMetadataIndexBenchmarkTests [objects] [rootDir]
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:13:26
+ */
+public class ObjectMetadataIndexBenchmarkTests {
+
+	public static void main(String[] args) throws Exception {
+		int objects = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		File bucket = args.length > 1 ? new File(args[1])
+				: Files.createTempDirectory("uos-bench-").resolve("bucket1").toFile();
+		bucket.mkdirs();
+
+		MetadataIndexManager manager = new MetadataIndexManager();
+		manager.createBucketMeta(bucket.getAbsolutePath());
+		byte[] content = new byte[512];
+		ThreadLocalRandom.current().nextBytes(content);
+
+		// Put objects(content and metadata).
+		long begin = System.nanoTime();
+		for (int i = 0; i < objects; i++) {
+			File object = new File(bucket, "dir" + (i % 1000) + "/object" + i);
+			ObjectStatusMetaData metadata = new ObjectStatusMetaData();
+			metadata.setContentType("application/octet-stream");
+			metadata.setEtag(StandardFSCossEndpoint.transferToFile(new ByteArrayInputStream(content), object));
+			metadata.setContentLength(content.length);
+			manager.addObject(bucket.getAbsolutePath(), object, metadata);
+		}
+		long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		System.out.println(String.format("Put objects: %s, cost: %sms, throughput: %s/s", objects, costMs,
+				objects * 1000L / costMs));
+
+		// Random lookups.
+		begin = System.nanoTime();
+		int found = 0;
+		for (int i = 0; i < objects; i++) {
+			int n = ThreadLocalRandom.current().nextInt(objects);
+			if (manager.getObject(bucket.getAbsolutePath(), new File(bucket, "dir" + (n % 1000) + "/object" + n)) != null) {
+				++found;
+			}
+		}
+		costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		System.out.println(String.format("Lookup objects: %s, found: %s, cost: %sms, throughput: %s/s", objects, found,
+				costMs, objects * 1000L / costMs));
+
+		// Ordered prefix scans.
+		begin = System.nanoTime();
+		int scanned = 0;
+		for (int i = 0; i < 1000; i++) {
+			scanned += manager.listObjectKeys(bucket.getAbsolutePath(), "dir" + i + "/", null, 100).size();
+		}
+		System.out.println(String.format("Prefix scans: 1000, keys: %s, cost: %sus", scanned,
+				(System.nanoTime() - begin) / 1000));
+
+		manager.close();
+	}
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import static com.wl4g.devops.uos.common.model.metadata.ObjectsStatusMetaData.ObjectStatusMetaData;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Correctness of {@link ObjectMetadataIndex}, the recovery and compaction of
+ * the index log.
+ *
+ * @author agent <agent@local>
+ * @date 2026-10-17 10:20:00
+ */
+public class ObjectMetadataIndexTests {
+
+	private File metadataDir;
+	private File logFile;
+
+	@Before
+	public void setUp() throws IOException {
+		metadataDir = Files.createTempDirectory("uos-index-").toFile();
+		logFile = new File(metadataDir, ObjectMetadataIndex.INDEX_LOG);
+	}
+
+	@Test
+	public void recoverTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			index.put("a/1", 10, newMetadata("text/plain"));
+			index.put("a/2", 20, null);
+			index.put("a/1", 15, newMetadata("text/html"));
+			index.put("b/1", 30, null);
+			assertTrue(index.remove("b/1"));
+			index.incrementRequests(5);
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			assertEquals(2, index.getStatus().getNumberOfDocuments());
+			assertEquals(35, index.getStatus().getStorageUsage());
+			assertEquals(5, index.getStatus().getNumberOfRequests());
+			assertEquals("text/html", index.get("a/1").getContentType());
+			assertNull(index.get("b/1"));
+		}
+	}
+
+	@Test
+	public void recoverTornTailTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			index.put("a/1", 10, null);
+			index.put("a/2", 20, null);
+		}
+		long size = logFile.length();
+
+		// Crashed when writing the last record, the length is written only.
+		try (FileChannel channel = FileChannel.open(logFile.toPath(), WRITE, APPEND)) {
+			channel.write((ByteBuffer) ByteBuffer.allocate(10).putInt(100).put((byte) 1).flip());
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			assertEquals(2, index.getStatus().getNumberOfDocuments());
+			assertEquals(size, logFile.length());
+			index.put("a/3", 30, null);
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			assertEquals(3, index.getStatus().getNumberOfDocuments());
+		}
+	}
+
+	@Test
+	public void recoverZeroFilledTailTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			index.put("a/1", 10, null);
+		}
+		long size = logFile.length();
+
+		// The file size was extended, but the data was not written.
+		try (FileChannel channel = FileChannel.open(logFile.toPath(), WRITE, APPEND)) {
+			channel.write(ByteBuffer.allocate(8192));
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			assertEquals(1, index.getStatus().getNumberOfDocuments());
+			assertEquals(size, logFile.length());
+		}
+	}
+
+	@Test
+	public void recoverCorruptedRecordTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			index.put("a/1", 10, null);
+			index.put("a/2", 20, null);
+			index.put("a/3", 30, null);
+		}
+		long size = logFile.length();
+
+		// The first record is corrupted, the following records must not be
+		// discarded.
+		try (FileChannel channel = FileChannel.open(logFile.toPath(), WRITE)) {
+			channel.write(ByteBuffer.allocate(4), 0);
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			fail("Corrupted index must not be opened");
+		} catch (IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("Corrupted record"));
+		}
+		assertEquals(size, logFile.length());
+	}
+
+	@Test
+	public void compactTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			for (int i = 0; i < 100; i++) {
+				index.put("a/" + i, i, newMetadata("text/plain"));
+			}
+			for (int i = 0; i < 100; i += 2) {
+				index.put("a/" + i, i + 1, newMetadata("text/html"));
+			}
+			for (int i = 0; i < 50; i++) {
+				index.remove("a/" + i);
+			}
+			index.incrementRequests(7);
+			long size = logFile.length();
+
+			index.compact();
+			assertTrue(logFile.length() < size);
+			assertFalse(new File(metadataDir, ObjectMetadataIndex.INDEX_LOG + ".compacting").exists());
+
+			// The offsets are swapped to the compacted log.
+			assertEquals(50, index.getStatus().getNumberOfDocuments());
+			assertNull(index.get("a/49"));
+			assertEquals("text/html", index.get("a/50").getContentType());
+			assertEquals("text/plain", index.get("a/51").getContentType());
+			assertFalse(index.force());
+
+			// Appended after compaction.
+			index.put("b/1", 1000, newMetadata("text/csv"));
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			assertEquals(51, index.getStatus().getNumberOfDocuments());
+			long usage = 1000;
+			for (int i = 50; i < 100; i++) {
+				usage += (i % 2 == 0) ? i + 1 : i;
+			}
+			assertEquals(usage, index.getStatus().getStorageUsage());
+			assertEquals(7, index.getStatus().getNumberOfRequests());
+			assertEquals("text/html", index.get("a/98").getContentType());
+			assertEquals("text/csv", index.get("b/1").getContentType());
+		}
+	}
+
+	@Test
+	public void compactIfNecessaryTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			index.put("a/1", 1, null);
+			long recordSize = logFile.length();
+
+			// Compacted automatically once the dead records exceed threshold.
+			for (int i = 0; i < 10_010; i++) {
+				index.put("a/2", i, null);
+			}
+			assertTrue(String.valueOf(logFile.length()), logFile.length() < 100 * recordSize);
+			assertEquals(2, index.getStatus().getNumberOfDocuments());
+			assertEquals(1 + 10_009, index.getStatus().getStorageUsage());
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			assertEquals(2, index.getStatus().getNumberOfDocuments());
+			assertEquals(1 + 10_009, index.getStatus().getStorageUsage());
+		}
+	}
+
+	@Test
+	public void compactFailedTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			index.put("a/1", 10, newMetadata("text/plain"));
+			index.put("a/1", 20, newMetadata("text/html"));
+			long size = logFile.length();
+
+			// The compacting file can't be created.
+			File compacting = new File(metadataDir, ObjectMetadataIndex.INDEX_LOG + ".compacting");
+			assertTrue(compacting.mkdirs());
+			try {
+				index.compact();
+				fail("Compaction must be failed");
+			} catch (IOException e) {
+				// Expected
+			}
+
+			// The index and log are untouched.
+			assertEquals(size, logFile.length());
+			assertEquals("text/html", index.get("a/1").getContentType());
+			assertTrue(compacting.delete());
+			index.put("a/2", 30, null);
+		}
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			assertEquals(2, index.getStatus().getNumberOfDocuments());
+			assertEquals(50, index.getStatus().getStorageUsage());
+		}
+	}
+
+	@Test
+	public void forceTest() throws IOException {
+		try (ObjectMetadataIndex index = new ObjectMetadataIndex(metadataDir)) {
+			index.put("a/1", 10, null);
+			assertTrue(index.force());
+			assertFalse(index.force());
+			index.remove("a/1");
+			assertTrue(index.force());
+		}
+	}
+
+	static ObjectStatusMetaData newMetadata(String contentType) {
+		ObjectStatusMetaData metadata = new ObjectStatusMetaData();
+		metadata.setContentType(contentType);
+		return metadata;
+	}
+
+}
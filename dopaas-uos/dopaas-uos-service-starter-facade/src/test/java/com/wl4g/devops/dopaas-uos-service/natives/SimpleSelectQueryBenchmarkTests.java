@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.wl4g.devops.uos.common.model.SelectRecords;
+
+import io.minio.messages.CompressionType;
+
+/**
+ * Selects the records of multi-GB synthetic CSV and JSON lines log objects
+ * with {@link SimpleSelectQuery}, it should be run with a small heap (e.g.
+ * -Xmx32m) to verify that the objects are never loaded into the heap. Usage:
+ * SimpleSelectQueryBenchmarkTests [csvMB] [jsonMB] [rootDir]
+ * 
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:41:00
+ */
+public class SimpleSelectQueryBenchmarkTests {
+
+	final static String[] LEVELS = { "DEBUG", "INFO", "WARN", "ERROR" };
+
+	public static void main(String[] args) throws Exception {
+		long csvBytes = (args.length > 0 ? Long.parseLong(args[0]) : 2048L) * 1024 * 1024;
+		long jsonBytes = (args.length > 1 ? Long.parseLong(args[1]) : 1024L) * 1024 * 1024;
+		File dir = args.length > 2 ? new File(args[2]) : Files.createTempDirectory("uos-select-bench-").toFile();
+		dir.mkdirs();
+
+		// Synthetic log objects.
+		File csv = new File(dir, "access.log.csv");
+		long lines = generate(csv, csvBytes, false);
+		File json = new File(dir, "access.log.json");
+		long jsonLines = generate(json, jsonBytes, true);
+		System.out.println(String.format("Generated csv: %sMB(%s lines), json: %sMB(%s lines), max heap: %sMB",
+				csv.length() / 1024 / 1024, lines, json.length() / 1024 / 1024, jsonLines,
+				Runtime.getRuntime().maxMemory() / 1024 / 1024));
+
+		select(csv, "CSV", "SELECT s.id, s.latency FROM S3Object s WHERE s.level = 'ERROR' AND s.latency >= 900", (lines + 396) / 400);
+		select(csv, "CSV", "SELECT * FROM S3Object s WHERE s.path LIKE '/api/orders/%' LIMIT 10", 10);
+		select(json, "JSON", "SELECT s.id, s.req.path FROM S3Object s WHERE s.level = 'ERROR' OR s.latency < 1", -1);
+	}
+
+	private static void select(File file, String type, String sql, long expected) throws Exception {
+		long begin = System.nanoTime(), matched = 0, maxUsedHeap = 0;
+		try (SelectRecords records = SimpleSelectQuery.select(new FileInputStream(file), type, CompressionType.NONE, null,
+				"CSV".equals(type), sql)) {
+			while (records.hasNext()) {
+				records.next();
+				if (++matched % 1000 == 1) {
+					maxUsedHeap = Math.max(maxUsedHeap, Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+				}
+			}
+		}
+		long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		System.out.println(String.format("Selected '%s', matched: %s, cost: %sms, throughput: %sMB/s, max used heap: %sMB", sql,
+				matched, costMs, file.length() / 1024 / 1024 * 1000 / costMs, maxUsedHeap / 1024 / 1024));
+		if (expected >= 0 && matched != expected) {
+			throw new IllegalStateException(String.format("Expected matched: %s, actual: %s", expected, matched));
+		}
+	}
+
+	/**
+	 * Generate log lines, the 1/4 are ERROR level, and the 1/100 of them have
+	 * latency >= 900.
+	 */
+	private static long generate(File file, long bytes, boolean json) throws Exception {
+		long lines = 0;
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8),
+				1024 * 1024)) {
+			if (!json) {
+				writer.write("id,time,level,path,latency,message\n");
+			}
+			for (long written = 0; written < bytes; ++lines) {
+				String level = LEVELS[(int) (lines % 4)];
+				long latency = (lines / 4) % 100 == 0 ? 900 + lines % 100 : lines % 900;
+				String path = "/api/" + ((lines % 3 == 0) ? "orders/" : "users/") + lines;
+				String line = json
+						? String.format("{\"id\":%s,\"time\":%s,\"level\":\"%s\",\"req\":{\"path\":\"%s\"},\"latency\":%s}\n", lines,
+								1600000000000L + lines, level, path, latency)
+						: String.format("%s,%s,%s,%s,%s,\"request of %s, completed\"\n", lines, 1600000000000L + lines, level,
+								path, latency, path);
+				writer.write(line);
+				written += line.length();
+			}
+		}
+		return lines;
+	}
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017 ~ 2050 the original author or authors <Wanglsir@gmail.com, 983708408@qq.com>.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.natives;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wl4g.devops.uos.common.model.SelectRecords;
+
+import io.minio.messages.CompressionType;
+
+/**
+ * Correctness of {@link SimpleSelectQuery}, the parsing of projections and
+ * conditions, quoting, and the streaming selection of CSV and JSON records.
+ *
+ * @author agent <agent@local>
+ * @date 2026-10-17 15:10:00
+ */
+public class SimpleSelectQueryTests {
+
+	final static String CSV = "1,INFO,\"hello, world\",12.5\n2,WARN,\"say \"\"hi\"\"\",9\n3,ERROR,O'Brien,-3\n4,INFO,,100\n";
+
+	final static String JSON = "{\"id\":1,\"level\":\"INFO\",\"req\":{\"uri\":\"/a\",\"cost\":12}}\n"
+			+ "{\"id\":2,\"level\":\"WARN\",\"req\":{\"uri\":\"/b\",\"cost\":9}}\n"
+			+ "{\"id\":3,\"level\":\"ERROR\",\"req\":null}\n";
+
+	@Test
+	public void parseCsvTest() {
+		assertArrayEquals(new String[] { "1", "hello, world", "" }, SimpleSelectQuery.parseCsv("1,\"hello, world\","));
+		assertArrayEquals(new String[] { "say \"hi\"", "x" }, SimpleSelectQuery.parseCsv("\"say \"\"hi\"\"\",x"));
+		assertArrayEquals(new String[] { "" }, SimpleSelectQuery.parseCsv(""));
+	}
+
+	@Test
+	public void projectionTest() {
+		assertEquals("1,INFO,x", SimpleSelectQuery.parse("SELECT * FROM S3Object").evaluateCsv("1,INFO,x"));
+		assertEquals("x,1", SimpleSelectQuery.parse("select s._3, s._1 from S3Object s").evaluateCsv("1,INFO,x"));
+
+		// Fields are re-quoted, missing fields are empty.
+		assertEquals("\"hello, world\",\"say \"\"hi\"\"\",", SimpleSelectQuery.parse("SELECT _2, _3, _9 FROM S3Object")
+				.evaluateCsv("1,\"hello, world\",\"say \"\"hi\"\"\""));
+
+		// Referenced by header names, and quoted identifiers.
+		SimpleSelectQuery query = SimpleSelectQuery.parse("SELECT \"first name\", s.\"age\" FROM S3Object s");
+		query.setHeader(new String[] { "id", "first name", " age " });
+		assertEquals("Tom,18", query.evaluateCsv("1,Tom,18"));
+	}
+
+	@Test
+	public void filterTest() {
+		// Compared as numbers if both are numeric, otherwise as strings.
+		assertSelected(asList("1", "4"), "SELECT _1 FROM S3Object WHERE _4 > 10");
+		assertSelected(asList("3"), "SELECT _1 FROM S3Object WHERE _4 < -1");
+		assertSelected(asList("1", "4"), "SELECT _1 FROM S3Object WHERE _2 = 'INFO'");
+		assertSelected(asList("2", "3"), "SELECT _1 FROM S3Object WHERE _2 <> 'INFO'");
+		assertSelected(asList("2", "3"), "SELECT _1 FROM S3Object WHERE _2 != 'INFO'");
+		assertSelected(asList("2", "3", "4"), "SELECT _1 FROM S3Object WHERE _1 >= 2");
+		assertSelected(asList("1", "2"), "SELECT _1 FROM S3Object WHERE 2 >= _1");
+
+		// Escaped quote of string literal.
+		assertSelected(asList("3"), "SELECT _1 FROM S3Object WHERE _3 = 'O''Brien'");
+
+		// LIKE patterns, the regex characters are literal.
+		assertSelected(asList("1"), "SELECT _1 FROM S3Object WHERE _3 LIKE 'hello%'");
+		assertSelected(asList("3"), "SELECT _1 FROM S3Object WHERE _2 LIKE '_____%'");
+		assertSelected(asList("2"), "SELECT _1 FROM S3Object WHERE _3 LIKE '%\"hi\"'");
+		assertSelected(asList(), "SELECT _1 FROM S3Object WHERE _3 LIKE 'hello.*'");
+
+		// AND takes precedence over OR.
+		assertSelected(asList("1", "3"), "SELECT _1 FROM S3Object s WHERE s._2 = 'ERROR' OR s._2 = 'INFO' AND s._4 < 50");
+		assertSelected(asList("4"), "SELECT _1 FROM S3Object WHERE _2 = 'INFO' and _4 > 50 or _2 = 'DEBUG'");
+
+		// Empty and missing fields.
+		assertSelected(asList("4"), "SELECT _1 FROM S3Object WHERE _3 = ''");
+		assertSelected(asList(), "SELECT _1 FROM S3Object WHERE _9 = ''");
+	}
+
+	@Test
+	public void selectCsvTest() throws IOException {
+		assertEquals(asList("1", "4"), select(CSV, "CSV", null, false, "SELECT _1 FROM S3Object WHERE _2 = 'INFO'"));
+		assertEquals(asList("2"), select(CSV, "CSV", null, false, "SELECT _1 FROM S3Object WHERE _1 > 1 LIMIT 1"));
+		assertEquals(asList("1", "2", "3"), select(CSV, "CSV", null, false, "SELECT _1 FROM S3Object LIMIT 3"));
+
+		// Header line.
+		String csv = "id,level\n1,INFO\n2,WARN\n";
+		assertEquals(asList("2"), select(csv, "CSV", null, true, "SELECT id FROM S3Object WHERE level = 'WARN'"));
+
+		// Gzip compressed content.
+		assertEquals(asList("3"), select(CSV, "CSV", CompressionType.GZIP, false,
+				"SELECT _1 FROM S3Object WHERE _2 = 'ERROR'"));
+	}
+
+	@Test
+	public void selectJsonTest() throws IOException {
+		assertEquals(asList("{\"id\":1,\"uri\":\"/a\"}", "{\"id\":2,\"uri\":\"/b\"}"),
+				select(JSON, "JSON", null, false, "SELECT s.id, s.req.uri FROM S3Object s WHERE s.req.cost > 5"));
+		assertEquals(asList("{\"id\":3,\"req\":null}"),
+				select(JSON, "JSON", null, false, "SELECT id, req FROM S3Object WHERE level = 'ERROR'"));
+		assertEquals(asList("{\"id\":1}"), select(JSON, "JSON", null, false, "SELECT id FROM S3Object LIMIT 1"));
+
+		// Missing nested field is null, never matched.
+		JsonNode node = new ObjectMapper().readTree("{\"id\":1}");
+		assertNull(SimpleSelectQuery.parse("SELECT * FROM S3Object WHERE req.cost > 0").evaluateJson(node));
+		assertEquals("{\"cost\":null}", SimpleSelectQuery.parse("SELECT req.cost FROM S3Object").evaluateJson(node));
+	}
+
+	@Test
+	public void parseIllegalTest() {
+		assertIllegal("");
+		assertIllegal("DELETE FROM S3Object");
+		assertIllegal("SELECT _1 S3Object");
+		assertIllegal("SELECT _1 FROM S3Object WHERE _1 = 'unclosed");
+		assertIllegal("SELECT _1 FROM S3Object WHERE \"unclosed = 1");
+		assertIllegal("SELECT _1 FROM S3Object WHERE _1 IN 1");
+		assertIllegal("SELECT _1 FROM S3Object WHERE _1 =");
+		assertIllegal("SELECT _1 FROM S3Object WHERE (_1 = 1)");
+		assertIllegal("SELECT _1 FROM S3Object LIMIT 1 OFFSET 1");
+		assertIllegal("SELECT _1, FROM S3Object");
+	}
+
+	private static void assertSelected(List<String> expected, String sql) {
+		SimpleSelectQuery query = SimpleSelectQuery.parse(sql);
+		List<String> selected = new ArrayList<>();
+		for (String line : CSV.split("\n")) {
+			String record = query.evaluateCsv(line);
+			if (record != null) {
+				selected.add(record);
+			}
+		}
+		assertEquals(sql, expected, selected);
+	}
+
+	private static void assertIllegal(String sql) {
+		try {
+			SimpleSelectQuery.parse(sql);
+			fail("Illegal expression must be rejected: " + sql);
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	private static List<String> select(String content, String type, CompressionType compressionType,
+			boolean useFileHeaderInfo, String sql) throws IOException {
+		byte[] bytes = content.getBytes(UTF_8);
+		if (compressionType == CompressionType.GZIP) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(bytes);
+			}
+			bytes = out.toByteArray();
+		}
+		List<String> records = new ArrayList<>();
+		try (SelectRecords selected = SimpleSelectQuery.select(new ByteArrayInputStream(bytes), type, compressionType, null,
+				useFileHeaderInfo, sql)) {
+			while (selected.hasNext()) {
+				records.add(selected.next());
+			}
+		}
+		return records;
+	}
+
+}
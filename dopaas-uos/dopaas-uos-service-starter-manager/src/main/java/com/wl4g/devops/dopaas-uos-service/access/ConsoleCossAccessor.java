@@ -116,8 +116,10 @@ public class ConsoleCossAccessor implements CossAccessor {
 	@Override
 	public ObjectListing<? extends ObjectSummary> listObjects(GenericCossParameter param,
 			@ShellOption(opt = "b", lopt = "bucketName", help = "Bucket name") String bucketName,
-			@ShellOption(opt = "p", lopt = "prefix", help = "Bucket name prefix") String prefix) {
-		return getCossEndpoint(param).listObjects(bucketName, prefix);
+			@ShellOption(opt = "p", lopt = "prefix", help = "Bucket name prefix") String prefix,
+			@ShellOption(opt = "m", lopt = "marker", help = "Object key continuation marker") String marker,
+			@ShellOption(opt = "k", lopt = "maxKeys", help = "Object max keys") Integer maxKeys) {
+		return getCossEndpoint(param).listObjects(bucketName, prefix, marker, maxKeys);
 	}
 
 	@ShellMethod(keys = "getObject", group = CONSOLE_GROUP, help = "Get object")
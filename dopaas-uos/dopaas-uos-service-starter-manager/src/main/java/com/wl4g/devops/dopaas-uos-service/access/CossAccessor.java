@@ -135,11 +135,17 @@ public interface CossAccessor {
 	 *            Bucket name.
 	 * @param prefix
 	 *            The prefix returned object must have.
-	 * @return A {@link ObjectListing} instance that has all objects
+	 * @param marker
+	 *            The continuation token of objects, that is the next marker of
+	 *            the last page. If null, return the objects from the beginning.
+	 * @param maxKeys
+	 *            Max object count to return, default is 1000 if it's null.
+	 * @return A {@link ObjectListing} instance of one page objects
 	 * @throws OSSException
 	 * @throws ClientException
 	 */
-	ObjectListing<? extends ObjectSummary> listObjects(GenericCossParameter param, String bucketName, String prefix);
+	ObjectListing<? extends ObjectSummary> listObjects(GenericCossParameter param, String bucketName, String prefix,
+			String marker, Integer maxKeys);
 
 	/**
 	 * Gets a {@link ObjectValue} from {@link Bucket}.
@@ -20,6 +20,7 @@ import com.wl4g.components.common.web.rest.RespBase;
 import com.wl4g.components.core.framework.operator.GenericOperatorAdapter;
 import com.wl4g.components.core.web.BaseController;
 import com.wl4g.devops.uos.ServerCossEndpoint;
+import com.wl4g.devops.uos.access.model.CompleteMultipartUploadModel;
 import com.wl4g.devops.uos.access.model.GenericCossParameter;
 import com.wl4g.devops.uos.access.model.ObjectMetadataModel;
 import com.wl4g.devops.uos.access.model.ObjectValueModel;
@@ -37,18 +38,28 @@ import com.wl4g.devops.uos.natives.MetadataIndexManager;
 import io.minio.messages.CompressionType;
 import io.minio.messages.JsonType;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.BufferedWriter;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.wl4g.components.common.lang.Assert2.notNullOf;
 
@@ -60,7 +71,7 @@ import static com.wl4g.components.common.lang.Assert2.notNullOf;
  * @since
  */
 @ResponseBody
-public class HttpCossAccessor extends BaseController {
+public class HttpCossAccessor extends BaseController implements DisposableBean {
 
 	final public static String URL_BASE = "/webservice/";
 
@@ -75,9 +86,25 @@ public class HttpCossAccessor extends BaseController {
 
 	private @Autowired  CossAccessProperties accessConfig;
 
+	/**
+	 * Listing executor of multiple providers.
+	 */
+	final private ExecutorService listingExecutor;
+
 	public HttpCossAccessor(GenericOperatorAdapter<CossProvider, ServerCossEndpoint<?>> endpointAdapter) {
 		notNullOf(endpointAdapter, "endpointAdapter");
 		this.endpointAdapter = endpointAdapter;
+		final AtomicInteger counter = new AtomicInteger(0);
+		this.listingExecutor = Executors.newFixedThreadPool(CossProvider.values().length, r -> {
+			Thread t = new Thread(r, "uos-listing-" + counter.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		listingExecutor.shutdownNow();
 	}
 
 	@RequestMapping("createBucket")
@@ -102,19 +129,27 @@ public class HttpCossAccessor extends BaseController {
 	@RequestMapping("listBucketsWithProvider")
 	public RespBase<Object> listBucketsWithProvider(String organizationCode) {
 		RespBase<Object> resp = RespBase.create();
-		List<ProviderBucketModel> result = new ArrayList<>();
-		CossProvider[] values = CossProvider.values();
-		for (CossProvider value : values) {
+		// Listing of all running providers concurrently, the failed or timeout
+		// providers are skipped.
+		Map<CossProvider, Future<BucketList<Bucket>>> futures = new LinkedHashMap<>();
+		for (CossProvider value : endpointAdapter.getRunningKinds()) {
 			GenericCossParameter param = new GenericCossParameter();
 			param.setCossProvider(value.toString());
-			try {// TODO just for now
-				BucketList<Bucket> bucketBucketList = getCossEndpoint(param).listBuckets("", null, null);
-				for (Bucket bucket : bucketBucketList.getBucketList()) {
-					ProviderBucketModel providerBucketModel = new ProviderBucketModel(value.toString(), bucket.getName());
-					result.add(providerBucketModel);
+			futures.put(value, listingExecutor.submit(() -> getCossEndpoint(param).<Bucket> listBuckets("", null, null)));
+		}
+		long deadline = System.currentTimeMillis() + accessConfig.getListingProviderTimeoutMs();
+		List<ProviderBucketModel> result = new ArrayList<>();
+		for (Map.Entry<CossProvider, Future<BucketList<Bucket>>> ent : futures.entrySet()) {
+			try {
+				long timeoutMs = Math.max(0, deadline - System.currentTimeMillis());
+				for (Bucket bucket : ent.getValue().get(timeoutMs, TimeUnit.MILLISECONDS).getBucketList()) {
+					result.add(new ProviderBucketModel(ent.getKey().toString(), bucket.getName()));
 				}
+			} catch (TimeoutException e) {
+				ent.getValue().cancel(true);
+				log.warn("Timeout listing buckets of provider: {}", ent.getKey());
 			} catch (Exception e) {
-
+				log.warn("Failed to listing buckets of provider: {}, causes by: {}", ent.getKey(), e.getMessage());
 			}
 		}
 		resp.setData(result);
@@ -167,13 +202,14 @@ public class HttpCossAccessor extends BaseController {
 
 	/**
 	 * e.g:
-	 * http://wl4g.debug:14061/uos-server/webservice/listObjects?uosProvider=hdfs&prefix=sm&bucketName=sm-clound
+	 * http://wl4g.debug:14061/uos-server/webservice/listObjects?uosProvider=hdfs&prefix=sm&bucketName=sm-clound&marker=sm/a.txt&maxKeys=100
 	 * {"objectSummaries":[{"bucketName":"sm-clound","key":"hdfs-uos-sample.txt","size":9800,"mtime":1584348593100,"atime":1584348592700,"storageType":"hdfs","owner":{"displayName":"root","id":"root"},"etag":"512@MD5-of-0MD5-of-512CRC32C"}],"commonPrefixes":[],"bucketName":null,"nextMarker":null,"prefix":"sm","marker":null,"maxKeys":0,"delimiter":"/","encodingType":"UTF-8","truncated":false}
 	 */
 	@RequestMapping("listObjects")
-	public RespBase<Object> listObjects(GenericCossParameter param, String bucketName, String prefix) {
+	public RespBase<Object> listObjects(GenericCossParameter param, String bucketName, String prefix, String marker,
+			Integer maxKeys) {
 		RespBase<Object> resp = RespBase.create();
-		resp.setData(getCossEndpoint(param).listObjects(bucketName, prefix));
+		resp.setData(getCossEndpoint(param).listObjects(bucketName, prefix, marker, maxKeys));
 		return resp;
 	}
 
@@ -204,6 +240,7 @@ public class HttpCossAccessor extends BaseController {
 		try {
 			ObjectMetadata metadata = new ObjectMetadata();
 			metadata.setAcl(ACL.parse(acl));
+			metadata.setContentLength(file.getSize());
 			if (Objects.isNull(key)) {
 				key = "";
 			}
@@ -215,6 +252,65 @@ public class HttpCossAccessor extends BaseController {
 		}
 	}
 
+	/**
+	 * Initiates multipart upload, the parts are uploaded by
+	 * {@link #uploadPart} concurrently and split by the part size of result.
+	 */
+	@RequestMapping("initiateMultipartUpload")
+	public RespBase<Object> initiateMultipartUpload(GenericCossParameter param, String bucketName, String key, String acl,
+			Long contentLength) {
+		RespBase<Object> resp = RespBase.create();
+		ObjectMetadata metadata = new ObjectMetadata();
+		if (!Objects.isNull(acl)) {
+			metadata.setAcl(ACL.parse(acl));
+		}
+		metadata.setContentLength(Objects.isNull(contentLength) ? 0 : contentLength);
+		resp.setData(getCossEndpoint(param).initiateMultipartUpload(bucketName, key, metadata));
+		return resp;
+	}
+
+	/**
+	 * Uploads a part from the raw request body (e.g.
+	 * application/octet-stream), which is streamed to the endpoint without
+	 * buffering.
+	 */
+	@RequestMapping("uploadPart")
+	public RespBase<Object> uploadPart(GenericCossParameter param, String bucketName, String key, String uploadId,
+			Integer partNumber, HttpServletRequest request) {
+		RespBase<Object> resp = RespBase.create();
+		notNullOf(partNumber, "partNumber");
+		Assert2.isTrue(request.getContentLengthLong() >= 0, "Content-Length of part is required");
+		try (InputStream input = request.getInputStream()) {
+			resp.setData(getCossEndpoint(param).uploadPart(bucketName, key, uploadId, partNumber, input,
+					request.getContentLengthLong()));
+			return resp;
+		} catch (IOException e) {
+			throw new CossException(e);
+		}
+	}
+
+	@RequestMapping("listParts")
+	public RespBase<Object> listParts(GenericCossParameter param, String bucketName, String key, String uploadId) {
+		RespBase<Object> resp = RespBase.create();
+		resp.setData(getCossEndpoint(param).listParts(bucketName, key, uploadId));
+		return resp;
+	}
+
+	@RequestMapping("completeMultipartUpload")
+	public RespBase<Object> completeMultipartUpload(@RequestBody CompleteMultipartUploadModel model) {
+		RespBase<Object> resp = RespBase.create();
+		resp.setData(getCossEndpoint(model.getParam()).completeMultipartUpload(model.getBucketName(), model.getKey(),
+				model.getUploadId(), model.getParts()));
+		return resp;
+	}
+
+	@RequestMapping("abortMultipartUpload")
+	public RespBase<Object> abortMultipartUpload(GenericCossParameter param, String bucketName, String key, String uploadId) {
+		RespBase<Object> resp = RespBase.create();
+		getCossEndpoint(param).abortMultipartUpload(bucketName, key, uploadId);
+		return resp;
+	}
+
 	@RequestMapping("copyObject")
 	public RespBase<Object> copyObject(GenericCossParameter param, String sourceBucketName, String sourceKey, String destinationBucketName, String destinationKey) {
 		RespBase<Object> resp = RespBase.create();
@@ -346,7 +442,29 @@ public class HttpCossAccessor extends BaseController {
 	}
 
 	/**
-	 * Download object file.
+	 * Selects the records of object content, the records are written to
+	 * response incrementally(one record per line).
+	 */
+	@RequestMapping("selectObjectRecords")
+	public void selectObjectRecords(HttpServletResponse response, GenericCossParameter param, String bucketName, String key,
+			String type, CompressionType compressionType, JsonType jsonType, Character recordDelimiter,
+			Boolean useFileHeaderInfo, String sqlExpression) throws IOException {
+		try (SelectRecords records = getCossEndpoint(param).selectObjectRecords(bucketName, key, type, compressionType,
+				jsonType, recordDelimiter, useFileHeaderInfo, sqlExpression)) {
+			response.setContentType("text/plain;charset=UTF-8");
+			Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8),
+					SelectRecords.DEFAULT_BUFFER_SIZE);
+			while (records.hasNext()) {
+				writer.write(records.next());
+				writer.write('\n');
+			}
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Download object file, supports ranged and conditional requests, see
+	 * {@link HttpObjectTransfers}.
 	 * 
 	 * @param request
 	 * @param response
@@ -359,41 +477,7 @@ public class HttpCossAccessor extends BaseController {
 	public void download(HttpServletRequest request, HttpServletResponse response, GenericCossParameter param, String bucketName,
 			String key) throws IOException {
 		ObjectValue object = getCossEndpoint(param).getObject(bucketName, key);
-		String fileName = getFileNameByKey(key);
-		InputStream inputStream = object.getObjectContent();
-		ServletOutputStream out = null;
-		try {
-			// ips = new FileInputStream(objectContent);
-			response.setContentType("multipart/form-data");
-			// 为文件重新设置名字，采用数据库内存储的文件名称
-			// new String(fileName.getBytes("UTF-8"),"ISO8859-1")
-			response.addHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
-			out = response.getOutputStream();
-			// 读取文件流
-			int len = 0;
-			byte[] buffer = new byte[1024 * 10];
-			while ((len = inputStream.read(buffer)) != -1) {
-				out.write(buffer, 0, len);
-			}
-			out.flush();
-		} catch (Exception e) {
-			e.printStackTrace();
-		} finally {
-			try {
-				if (out != null) {
-					out.close();
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-			try {
-				if (null != inputStream) {
-					inputStream.close();
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-		}
+		HttpObjectTransfers.transfer(request, response, object, getFileNameByKey(key));
 	}
 
 	/**
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.access;
+
+import static com.wl4g.components.common.lang.Assert2.notNullOf;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.wl4g.devops.uos.common.model.ObjectMetadata;
+import com.wl4g.devops.uos.common.model.ObjectValue;
+import com.wl4g.devops.uos.common.utils.HttpHeaders;
+
+/**
+ * HTTP ranged and conditional transfer of object content. The single byte
+ * range (e.g. bytes=0-1023, bytes=1024-, bytes=-1024), If-None-Match,
+ * If-Modified-Since and If-Range are supported.
+ * </br>
+ * The content of local file system object (at least
+ * {@link #SENDFILE_MIN_LENGTH}) is handed to the container sendfile, which is
+ * the only zero-copy path. It requires the tomcat NIO/NIO2 connector (the
+ * spring boot default) with {@code useSendfile=true} (the default of these
+ * connectors), and the response is not compressed (e.g. not matched by
+ * {@code server.compression}), otherwise the container reports no sendfile
+ * support. In other cases the file is copied by
+ * {@link FileChannel#transferTo} to the servlet output stream, which is not a
+ * file or socket channel, so the JDK copies it through an intermediate
+ * buffer, it only saves skipping to the range start.
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public abstract class HttpObjectTransfers {
+
+	final public static String ACCEPT_RANGES = "Accept-Ranges";
+	final public static String CONTENT_RANGE = "Content-Range";
+	final public static String IF_NONE_MATCH = "If-None-Match";
+	final public static String IF_MODIFIED_SINCE = "If-Modified-Since";
+	final public static String IF_RANGE = "If-Range";
+
+	/** Unsatisfiable range of {@link #parseRange(String, long)} */
+	final public static long[] UNSATISFIABLE_RANGE = new long[0];
+
+	/** Min length of using container sendfile, same as tomcat. */
+	final public static long SENDFILE_MIN_LENGTH = 48 * 1024;
+
+	/** Buffer size of transferring not file content. */
+	final public static int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	final private static String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	final private static String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	final private static String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	final private static String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	/**
+	 * Transfer object content to response with ranged and conditional
+	 * request, the object content will be closed.
+	 * 
+	 * @param request
+	 * @param response
+	 * @param object
+	 * @param fileName
+	 * @throws IOException
+	 */
+	public static void transfer(HttpServletRequest request, HttpServletResponse response, ObjectValue object, String fileName)
+			throws IOException {
+		notNullOf(object, "object");
+		try (InputStream in = object.getObjectContent()) {
+			if (isNull(in)) {
+				response.sendError(HttpServletResponse.SC_NOT_FOUND);
+				return;
+			}
+			ObjectMetadata metadata = object.getMetadata();
+			long length = metadata.getContentLength();
+			long lastModified = nonNull(metadata.getMtime()) ? metadata.getMtime() : -1;
+			String etag = getETag(metadata);
+
+			response.setHeader(ACCEPT_RANGES, "bytes");
+			response.setHeader(HttpHeaders.ETAG, etag);
+			if (lastModified > 0) {
+				response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+			}
+			if (isNotModified(request, etag, lastModified)) {
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+
+			long start = 0, count = length;
+			long[] range = isRangeApplicable(request, etag, lastModified)
+					? parseRange(request.getHeader(HttpHeaders.RANGE), length)
+					: null;
+			if (range == UNSATISFIABLE_RANGE) {
+				response.setHeader(CONTENT_RANGE, "bytes */" + length);
+				response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				return;
+			} else if (nonNull(range)) {
+				start = range[0];
+				count = range[1] - range[0] + 1;
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader(CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + length);
+			}
+			response.setContentType(isNull(metadata.getContentType()) ? "application/octet-stream" : metadata.getContentType());
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+			response.setContentLengthLong(count);
+			if ("HEAD".equalsIgnoreCase(request.getMethod()) || count <= 0) {
+				return;
+			}
+
+			if (in instanceof FileInputStream) {
+				File file = getLocalFile(metadata);
+				if (nonNull(file) && count >= SENDFILE_MIN_LENGTH && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+					// The file is sent by container after returned.
+					request.setAttribute(SENDFILE_FILENAME, file.getCanonicalPath());
+					request.setAttribute(SENDFILE_START, start);
+					request.setAttribute(SENDFILE_END, start + count);
+					return;
+				}
+				transferTo(((FileInputStream) in).getChannel(), start, count, response.getOutputStream());
+			} else {
+				copyRange(in, start, count, response.getOutputStream());
+			}
+		}
+	}
+
+	/**
+	 * Parse single byte range of request header.
+	 * 
+	 * @param rangeHeader
+	 * @param length
+	 * @return Returns [start, end] (inclusive), or null if absent or not
+	 *         supported (e.g. multiple ranges), or
+	 *         {@link #UNSATISFIABLE_RANGE} if unsatisfiable.
+	 */
+	public static long[] parseRange(String rangeHeader, long length) {
+		if (isNull(rangeHeader) || !rangeHeader.startsWith("bytes=") || rangeHeader.indexOf(',') >= 0 || length < 0) {
+			return null;
+		}
+		String spec = rangeHeader.substring(6).trim();
+		int i = spec.indexOf('-');
+		if (i < 0) {
+			return null;
+		}
+		try {
+			String first = spec.substring(0, i).trim(), last = spec.substring(i + 1).trim();
+			long start, end;
+			if (first.isEmpty()) { // Suffix range, e.g: bytes=-1024
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0) {
+					return UNSATISFIABLE_RANGE;
+				}
+				start = Math.max(0, length - suffix);
+				end = length - 1;
+			} else {
+				start = Long.parseLong(first);
+				end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+				if (start < 0 || end < start) {
+					return null; // Invalid syntactically, ignore.
+				}
+				end = Math.min(end, length - 1);
+			}
+			return start >= length ? UNSATISFIABLE_RANGE : new long[] { start, end };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Check If-None-Match or If-Modified-Since(ignored if If-None-Match
+	 * present) of request.
+	 * 
+	 * @param request
+	 * @param etag
+	 * @param lastModified
+	 * @return
+	 */
+	static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+		String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+		if (nonNull(ifNoneMatch)) {
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if ("*".equals(tag) || stripWeak(tag).equals(stripWeak(etag))) {
+					return true;
+				}
+			}
+			return false;
+		}
+		long ifModifiedSince = getDateHeader(request, IF_MODIFIED_SINCE);
+		return ifModifiedSince > 0 && lastModified > 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+	}
+
+	/**
+	 * Check If-Range of request, the range is ignored if the object has been
+	 * changed.
+	 * 
+	 * @param request
+	 * @param etag
+	 * @param lastModified
+	 * @return
+	 */
+	static boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified) {
+		String ifRange = request.getHeader(IF_RANGE);
+		if (isNull(ifRange)) {
+			return true;
+		}
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			// Strong comparison only.
+			return !etag.startsWith("W/") && ifRange.equals(etag);
+		}
+		long date = getDateHeader(request, IF_RANGE);
+		return date > 0 && lastModified > 0 && lastModified / 1000 == date / 1000;
+	}
+
+	/**
+	 * Gets quoted strong ETag of metadata, or weak ETag of length and
+	 * last modified if it's not indexed.
+	 * 
+	 * @param metadata
+	 * @return
+	 */
+	static String getETag(ObjectMetadata metadata) {
+		if (nonNull(metadata.getEtag()) && !metadata.getEtag().isEmpty()) {
+			return "\"" + metadata.getEtag() + "\"";
+		}
+		return "W/\"" + metadata.getContentLength() + "-" + (nonNull(metadata.getMtime()) ? metadata.getMtime() : 0) + "\"";
+	}
+
+	private static File getLocalFile(ObjectMetadata metadata) {
+		try {
+			return isNull(metadata.getPath()) ? null : new File(metadata.getPath().toUri().getPath());
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static long getDateHeader(HttpServletRequest request, String name) {
+		try {
+			return request.getDateHeader(name);
+		} catch (IllegalArgumentException e) { // Invalid date
+			return -1;
+		}
+	}
+
+	private static String stripWeak(String tag) {
+		return tag.startsWith("W/") ? tag.substring(2) : tag;
+	}
+
+	/**
+	 * Copy range of file to the output stream. Note that the stream is
+	 * wrapped as a channel, so it is a buffered copy rather than zero-copy.
+	 * 
+	 * @param channel
+	 * @param start
+	 * @param count
+	 * @param out
+	 * @throws IOException
+	 */
+	private static void transferTo(FileChannel channel, long start, long count, OutputStream out) throws IOException {
+		WritableByteChannel target = Channels.newChannel(out);
+		for (long position = start, end = start + count; position < end;) {
+			long n = channel.transferTo(position, end - position, target);
+			if (n <= 0) {
+				break; // EOF, e.g. truncated concurrently.
+			}
+			position += n;
+		}
+		out.flush();
+	}
+
+	private static void copyRange(InputStream in, long start, long count, OutputStream out) throws IOException {
+		for (long skipped = 0; skipped < start;) {
+			long n = in.skip(start - skipped);
+			if (n <= 0) {
+				return;
+			}
+			skipped += n;
+		}
+		byte[] buf = new byte[(int) Math.min(DEFAULT_BUFFER_SIZE, count)];
+		for (long remaining = count; remaining > 0;) {
+			int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+			if (n < 0) {
+				break;
+			}
+			out.write(buf, 0, n);
+			remaining -= n;
+		}
+		out.flush();
+	}
+
+}
@@ -105,7 +105,8 @@ public class SftpCossAccessor implements CossAccessor, FileSystemAware {
 	}
 
 	@Override
-	public ObjectListing<? extends ObjectSummary> listObjects(GenericCossParameter param, String bucketName, String prefix) {
+	public ObjectListing<? extends ObjectSummary> listObjects(GenericCossParameter param, String bucketName, String prefix,
+			String marker, Integer maxKeys) {
 		// TODO Auto-generated method stub
 		return null;
 	}
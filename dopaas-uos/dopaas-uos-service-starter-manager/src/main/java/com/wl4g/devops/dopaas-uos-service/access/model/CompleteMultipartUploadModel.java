@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.access.model;
+
+import java.util.List;
+
+import com.wl4g.devops.uos.common.model.PartETag;
+
+/**
+ * @author agent <agent@local>
+ * @date 2026-10-16 23:51:00
+ */
+public class CompleteMultipartUploadModel {
+
+    private GenericCossParameter param;
+    private String bucketName;
+    private String key;
+    private String uploadId;
+    private List<PartETag> parts;
+
+    public GenericCossParameter getParam() {
+        return param;
+    }
+
+    public void setParam(GenericCossParameter param) {
+        this.param = param;
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    public void setBucketName(String bucketName) {
+        this.bucketName = bucketName;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public List<PartETag> getParts() {
+        return parts;
+    }
+
+    public void setParts(List<PartETag> parts) {
+        this.parts = parts;
+    }
+
+}
@@ -24,6 +24,12 @@ public class CossAccessProperties {
 
 	private String httpDownloadBaseUri = "http://localhost:14062/uos-manager";
 
+	/**
+	 * Timeout of listing buckets of each provider when listing all providers
+	 * concurrently.
+	 */
+	private long listingProviderTimeoutMs = 5_000L;
+
 	public String getHttpDownloadBaseUri() {
 		return httpDownloadBaseUri;
 	}
@@ -32,4 +38,12 @@ public class CossAccessProperties {
 		this.httpDownloadBaseUri = httpDownloadBaseUri;
 	}
 
+	public long getListingProviderTimeoutMs() {
+		return listingProviderTimeoutMs;
+	}
+
+	public void setListingProviderTimeoutMs(long listingProviderTimeoutMs) {
+		this.listingProviderTimeoutMs = listingProviderTimeoutMs;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 ~ 2025 the original author or authors. <wanglsir@gmail.com, 983708408@qq.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.wl4g.devops.uos.access;
+
+import static com.wl4g.devops.uos.access.HttpObjectTransfers.IF_MODIFIED_SINCE;
+import static com.wl4g.devops.uos.access.HttpObjectTransfers.IF_NONE_MATCH;
+import static com.wl4g.devops.uos.access.HttpObjectTransfers.IF_RANGE;
+import java.io.File;
+import java.io.FileInputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.wl4g.devops.uos.common.model.ObjectKey;
+import com.wl4g.devops.uos.common.model.ObjectMetadata;
+import com.wl4g.devops.uos.common.model.ObjectValue;
+import com.wl4g.devops.uos.common.utils.HttpHeaders;
+
+/**
+ * Concurrent ranged and conditional readers of local file system object with
+ * {@link HttpObjectTransfers}. Usage: HttpObjectTransfersTests [readers]
+ * [requests]
+ * 
+ * @author agent <agent@local>
+ * @version v1.0 2026年10月16日
+ * @since
+ */
+public class HttpObjectTransfersTests {
+
+	final static int OBJECT_SIZE = 8 * 1024 * 1024;
+
+	public static void main(String[] args) throws Exception {
+		int readers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int requests = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+		// Object of local file system, same as StandardFSCossEndpoint.
+		byte[] content = new byte[OBJECT_SIZE];
+		ThreadLocalRandom.current().nextBytes(content);
+		File file = new File(Files.createTempDirectory("uos-transfer-").toFile(), "bucket1/media.mp4");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content);
+		String etag = String.format("%032x", new BigInteger(1, MessageDigest.getInstance("MD5").digest(content)));
+
+		// Conditional requests.
+		MockHttpServletResponse resp = get(file, etag, IF_NONE_MATCH, "\"" + etag + "\"", null);
+		assertEquals(304, resp.getStatus(), "If-None-Match");
+		resp = get(file, etag, IF_MODIFIED_SINCE, new Date(file.lastModified() + 1000), null);
+		assertEquals(304, resp.getStatus(), "If-Modified-Since");
+		resp = get(file, etag, IF_MODIFIED_SINCE, new Date(file.lastModified() - 10_000), null);
+		assertEquals(200, resp.getStatus(), "Modified");
+		assertEquals(OBJECT_SIZE, resp.getContentAsByteArray().length, "Modified length");
+
+		// Ranges.
+		resp = get(file, etag, null, null, "bytes=-100");
+		assertEquals(206, resp.getStatus(), "Suffix range");
+		assertContent(content, OBJECT_SIZE - 100, resp.getContentAsByteArray(), "Suffix range");
+		resp = get(file, etag, null, null, "bytes=" + OBJECT_SIZE + "-");
+		assertEquals(416, resp.getStatus(), "Unsatisfiable range");
+		resp = get(file, etag, IF_RANGE, "\"changed\"", "bytes=0-99");
+		assertEquals(200, resp.getStatus(), "Changed If-Range");
+
+		// Concurrent ranged readers(e.g. resumable clients and media seeking).
+		AtomicLong transferred = new AtomicLong(0), failures = new AtomicLong(0);
+		CountDownLatch latch = new CountDownLatch(readers);
+		long begin = System.nanoTime();
+		for (int i = 0; i < readers; i++) {
+			new Thread(() -> {
+				try {
+					for (int j = 0; j < requests; j++) {
+						int start = ThreadLocalRandom.current().nextInt(OBJECT_SIZE);
+						int end = Math.min(OBJECT_SIZE - 1, start + ThreadLocalRandom.current().nextInt(256 * 1024));
+						MockHttpServletResponse r = get(file, etag, IF_RANGE, "\"" + etag + "\"",
+								"bytes=" + start + "-" + end);
+						assertEquals(206, r.getStatus(), "Ranged status");
+						assertEquals("bytes " + start + "-" + end + "/" + OBJECT_SIZE, r.getHeader(HttpObjectTransfers.CONTENT_RANGE),
+								"Content-Range");
+						assertEquals(end - start + 1, r.getContentAsByteArray().length, "Ranged length");
+						assertContent(content, start, r.getContentAsByteArray(), "Ranged content");
+						transferred.addAndGet(r.getContentAsByteArray().length);
+					}
+				} catch (Throwable e) {
+					failures.incrementAndGet();
+					e.printStackTrace();
+				} finally {
+					latch.countDown();
+				}
+			}).start();
+		}
+		latch.await();
+		long costMs = Math.max(1, (System.nanoTime() - begin) / 1000_000);
+		System.out.println(String.format("Ranged readers: %s, requests: %s, failures: %s, transferred: %sMB, cost: %sms", readers,
+				readers * requests, failures.get(), transferred.get() / 1024 / 1024, costMs));
+		if (failures.get() > 0) {
+			throw new IllegalStateException("Failed ranged readers: " + failures.get());
+		}
+	}
+
+	private static MockHttpServletResponse get(File file, String etag, String header, Object value, String range)
+			throws Exception {
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setEtag(etag);
+		metadata.setContentLength(file.length());
+		metadata.setMtime(file.lastModified());
+		metadata.setPath(new ObjectKey(file.getAbsolutePath()));
+		ObjectValue object = new ObjectValue();
+		object.setMetadata(metadata);
+		object.setObjectContent(new FileInputStream(file));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/webservice/download");
+		if (header != null) {
+			request.addHeader(header, value);
+		}
+		if (range != null) {
+			request.addHeader(HttpHeaders.RANGE, range);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HttpObjectTransfers.transfer(request, response, object, file.getName());
+		return response;
+	}
+
+	private static void assertContent(byte[] content, int start, byte[] actual, String message) {
+		if (!Arrays.equals(Arrays.copyOfRange(content, start, start + actual.length), actual)) {
+			throw new IllegalStateException(message + " mismatched at: " + start);
+		}
+	}
+
+	private static void assertEquals(Object expected, Object actual, String message) {
+		if (!expected.equals(actual)) {
+			throw new IllegalStateException(String.format("%s expected: %s, actual: %s", message, expected, actual));
+		}
+	}
+
+}